@@ -0,0 +1,82 @@
+package com.gogidix.ecosystem.socialcommerce.support.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Full-text search schema for support tickets
+ *
+ * The search document is installed by Flyway (db/migration): V1 adds the
+ * {@code search_vector} tsvector column on support_tickets and the triggers
+ * that rebuild a ticket's document in the same transaction whenever the
+ * ticket or one of its messages is saved, V2 backfills tickets saved before
+ * the triggers existed and V3 builds the GIN index concurrently. Search
+ * results are therefore current as of commit.
+ *
+ * At startup this only checks that the index is there and valid. Without it
+ * (full-text disabled, another database, or a failed index build) search
+ * falls back to substring matching rather than scanning every ticket's
+ * document.
+ */
+@Component
+@Slf4j
+public class TicketSearchSchema implements ApplicationRunner {
+
+    /**
+     * Text search configuration of the search document; must match V1
+     */
+    public static final String TEXT_SEARCH_CONFIG = "english";
+
+    private static final String INDEX_VALID_SQL =
+        "SELECT COALESCE((SELECT i.indisvalid FROM pg_index i "
+            + "WHERE i.indexrelid = to_regclass('idx_support_tickets_search')), false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    private volatile boolean fullTextEnabled;
+
+    public TicketSearchSchema(JdbcTemplate jdbcTemplate,
+                              @Value("${support.search.full-text.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether ticket search can use the tsvector index; false means substring matching
+     */
+    public boolean isFullTextEnabled() {
+        return fullTextEnabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || !isPostgres()) {
+            log.info("Ticket full-text search disabled; search uses substring matching");
+            return;
+        }
+        try {
+            fullTextEnabled = Boolean.TRUE.equals(jdbcTemplate.queryForObject(INDEX_VALID_SQL, Boolean.class));
+        } catch (RuntimeException e) {
+            log.error("Ticket full-text search index could not be checked; search uses substring matching: {}",
+                e.getMessage());
+            return;
+        }
+        if (fullTextEnabled) {
+            log.info("Ticket full-text search enabled");
+        } else {
+            log.warn("Ticket full-text search index is missing or invalid; search uses substring matching");
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+}
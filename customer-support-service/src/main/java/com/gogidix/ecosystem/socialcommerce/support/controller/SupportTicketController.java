@@ -20,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Map;
@@ -492,6 +493,28 @@ public class SupportTicketController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+        summary = "List tickets by filters",
+        description = "Newest first with cursor pagination; pass nextCursor back as cursor for the next page. "
+            + "Counting is optional: NONE, ESTIMATE or EXACT"
+    )
+    @PostMapping("/list")
+    @PreAuthorize("hasRole('AGENT') or hasRole('ADMIN')")
+    public ResponseEntity<TicketListResponse> listTickets(
+            @Valid @RequestBody TicketSearchRequest filters,
+            @RequestParam(required = false) @Parameter(description = "nextCursor of the previous page") String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "NONE") TicketListResponse.CountMode count) {
+        
+        log.debug("Listing tickets, cursor present: {}", cursor != null);
+        
+        try {
+            return ResponseEntity.ok(supportTicketService.listTickets(filters, cursor, limit, count));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     @Operation(summary = "Get overdue tickets")
     @GetMapping("/overdue")
     @PreAuthorize("hasRole('AGENT') or hasRole('ADMIN')")
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Response DTO for Support Ticket
@@ -87,6 +88,10 @@ public class SupportTicketResponse {
     // Tags
     private List<TagDto> tags;
 
+    // Search (set on search results only; highlights wrap matches in <mark>)
+    private Double searchRank;
+    private Map<String, String> highlights;
+
     // Related data
     private List<TicketMessageSummary> recentMessages;
     private List<AttachmentSummary> attachments;
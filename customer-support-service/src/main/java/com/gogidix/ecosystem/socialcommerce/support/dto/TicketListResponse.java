@@ -0,0 +1,38 @@
+package com.gogidix.ecosystem.socialcommerce.support.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one keyset page of the ticket list, newest first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketListResponse {
+
+    private List<SupportTicketResponse> tickets;
+
+    // Pass back as cursor for the next page; null on the last page
+    private String nextCursor;
+
+    // Only when a count was requested; see CountMode
+    private Long totalElements;
+    private Boolean totalEstimated;
+
+    /**
+     * How to count the matching tickets; counting is the only part of a list
+     * request whose cost grows with the number of matches
+     */
+    public enum CountMode {
+        NONE,
+        // Planner estimate on PostgreSQL, exact elsewhere
+        ESTIMATE,
+        EXACT
+    }
+}
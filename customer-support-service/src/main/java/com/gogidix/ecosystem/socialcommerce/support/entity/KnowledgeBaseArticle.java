@@ -1,5 +1,6 @@
 package com.gogidix.ecosystem.socialcommerce.support.entity;
 
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -202,7 +203,7 @@ public class KnowledgeBaseArticle {
     }
 
     private String generateArticleId() {
-        return "KB-" + System.currentTimeMillis();
+        return "KB-" + SnowflakeIdGenerator.getDefault().nextBase32();
     }
 
     private String generateSlug() {
@@ -1,5 +1,6 @@
 package com.gogidix.ecosystem.socialcommerce.support.entity;
 
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -191,7 +192,7 @@ public class SupportAgent {
     }
 
     private String generateAgentId() {
-        return "AGT-" + System.currentTimeMillis();
+        return "AGT-" + SnowflakeIdGenerator.getDefault().nextBase32();
     }
 
     public String getFullName() {
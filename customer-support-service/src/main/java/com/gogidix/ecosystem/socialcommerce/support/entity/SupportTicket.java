@@ -1,5 +1,6 @@
 package com.gogidix.ecosystem.socialcommerce.support.entity;
 
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -16,12 +17,15 @@ import java.util.List;
 @Entity
 @Table(name = "support_tickets", indexes = {
     @Index(name = "idx_ticket_number", columnList = "ticketNumber", unique = true),
-    @Index(name = "idx_customer_id", columnList = "customerId"),
-    @Index(name = "idx_status", columnList = "status"),
+    // Listing filters lead, then the (createdAt, id) listing order, so a filtered page is one index range.
+    // Created in production by Flyway V4__index_ticket_listing; declared here for Hibernate-built schemas
+    @Index(name = "idx_customer_created", columnList = "customerId, createdAt, id"),
+    @Index(name = "idx_status_created", columnList = "status, createdAt, id"),
     @Index(name = "idx_priority", columnList = "priority"),
     @Index(name = "idx_category", columnList = "category"),
-    @Index(name = "idx_assigned_agent", columnList = "assignedToAgentId"),
-    @Index(name = "idx_created_at", columnList = "createdAt"),
+    @Index(name = "idx_assigned_agent_created", columnList = "assignedToAgentId, createdAt, id"),
+    @Index(name = "idx_assigned_team_created", columnList = "assignedToTeamId, createdAt, id"),
+    @Index(name = "idx_created_at_id", columnList = "createdAt, id"),
     @Index(name = "idx_order_id", columnList = "orderId")
 })
 @Data
@@ -302,7 +306,7 @@ public class SupportTicket {
     @PrePersist
     protected void onCreate() {
         if (this.ticketNumber == null) {
-            this.ticketNumber = generateTicketNumber();
+            this.ticketNumber = newTicketNumber();
         }
         if (this.status == null) {
             this.status = TicketStatus.OPEN;
@@ -327,8 +331,11 @@ public class SupportTicket {
         }
     }
 
-    private String generateTicketNumber() {
-        return "TKT-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 1000);
+    /**
+     * Unique, time-ordered ticket number customers can read out, e.g. TKT-0DQ1Y8ZB4W000
+     */
+    public static String newTicketNumber() {
+        return "TKT-" + SnowflakeIdGenerator.getDefault().nextBase32();
     }
 
     private void calculateSLA() {
@@ -0,0 +1,98 @@
+package com.gogidix.ecosystem.socialcommerce.support.repository;
+
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketSearchRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * SQL WHERE clause for the filters of a {@link TicketSearchRequest}, shared by
+ * ticket search and ticket listing
+ *
+ * Only the filters present become predicates, so the planner sees the
+ * narrowest query and can pick the matching support_tickets index. The
+ * tickets table is aliased {@code t}; the search term is left to the caller.
+ */
+final class TicketFilters {
+
+    private TicketFilters() {
+    }
+
+    /**
+     * @return {@code " WHERE 1 = 1"} followed by one {@code AND} per filter present, ready for more
+     */
+    static StringBuilder where(TicketSearchRequest request, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        in(where, params, "t.status", "statuses", request.getStatuses());
+        in(where, params, "t.priority", "priorities", request.getPriorities());
+        in(where, params, "t.category", "categories", request.getCategories());
+        in(where, params, "t.channel", "channels", request.getChannels());
+        equal(where, params, "t.customer_id", "customerId", request.getCustomerId());
+        equal(where, params, "t.customer_region", "customerRegion", request.getCustomerRegion());
+        equal(where, params, "t.assigned_to_agent_id", "assignedToAgentId", request.getAssignedToAgentId());
+        equal(where, params, "t.assigned_to_team_id", "assignedToTeamId", request.getAssignedToTeamId());
+        equal(where, params, "t.sla_breached", "slaBreached", request.getSlaBreached());
+        equal(where, params, "t.ai_handled", "aiHandled", request.getAiHandled());
+        equal(where, params, "t.order_id", "orderId", request.getOrderId());
+        equal(where, params, "t.tracking_number", "trackingNumber", request.getTrackingNumber());
+        equal(where, params, "t.delivery_issue_type", "deliveryIssueType",
+            request.getDeliveryIssueType() != null ? request.getDeliveryIssueType().name() : null);
+        if (StringUtils.hasText(request.getCustomerEmail())) {
+            where.append(" AND LOWER(t.customer_email) = :customerEmail");
+            params.addValue("customerEmail", request.getCustomerEmail().trim().toLowerCase(Locale.ROOT));
+        }
+        bound(where, params, "t.created_at >= :createdAfter", "createdAfter", request.getCreatedAfter());
+        bound(where, params, "t.created_at < :createdBefore", "createdBefore", request.getCreatedBefore());
+        bound(where, params, "t.updated_at >= :updatedAfter", "updatedAfter", request.getUpdatedAfter());
+        bound(where, params, "t.updated_at < :updatedBefore", "updatedBefore", request.getUpdatedBefore());
+        if (request.getMinRating() != null) {
+            where.append(" AND t.customer_satisfaction_rating >= :minRating");
+            params.addValue("minRating", request.getMinRating());
+        }
+        if (request.getMaxRating() != null) {
+            where.append(" AND t.customer_satisfaction_rating <= :maxRating");
+            params.addValue("maxRating", request.getMaxRating());
+        }
+        if (request.getHasUnreadMessages() != null) {
+            where.append(request.getHasUnreadMessages() ? " AND EXISTS" : " AND NOT EXISTS")
+                .append(" (SELECT 1 FROM ticket_messages m WHERE m.support_ticket_id = t.id AND m.is_read = FALSE)");
+        }
+        if (request.getTags() != null && !request.getTags().isEmpty()) {
+            where.append(" AND EXISTS (SELECT 1 FROM ticket_tags tt JOIN support_tags g ON g.id = tt.tag_id"
+                + " WHERE tt.ticket_id = t.id AND g.name IN (:tags))");
+            params.addValue("tags", request.getTags());
+        }
+        return where;
+    }
+
+    private static void in(StringBuilder where, MapSqlParameterSource params, String column, String name,
+                           Collection<? extends Enum<?>> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        where.append(" AND ").append(column).append(" IN (:").append(name).append(')');
+        params.addValue(name, values.stream().map(Enum::name).toList());
+    }
+
+    private static void equal(StringBuilder where, MapSqlParameterSource params, String column, String name,
+                              Object value) {
+        if (value == null) {
+            return;
+        }
+        where.append(" AND ").append(column).append(" = :").append(name);
+        params.addValue(name, value);
+    }
+
+    private static void bound(StringBuilder where, MapSqlParameterSource params, String condition, String name,
+                              LocalDateTime value) {
+        if (value == null) {
+            return;
+        }
+        where.append(" AND ").append(condition);
+        params.addValue(name, Timestamp.valueOf(value));
+    }
+}
@@ -0,0 +1,96 @@
+package com.gogidix.ecosystem.socialcommerce.support.repository;
+
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketCursor;
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketSearchRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ticket list pages, newest first, with keyset pagination
+ *
+ * A page seeks past the cursor on (created_at, id) instead of skipping rows
+ * with OFFSET, so it costs the same at any depth: with a customer, agent, team
+ * or status filter it is one range scan of the matching
+ * {@code (filter, created_at, id)} index, otherwise of idx_created_at_id.
+ * Only ticket IDs are selected; the page's tickets are then loaded by ID.
+ *
+ * Counting is separate and optional. On PostgreSQL an estimate comes from the
+ * planner without touching the matching rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TicketListingRepository {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public record Row(Long ticketId, LocalDateTime createdAt) {
+    }
+
+    public record Count(long value, boolean estimated) {
+    }
+
+    /**
+     * Up to {@code limit} tickets matching the filters, after the cursor if given
+     */
+    public List<Row> list(TicketSearchRequest filters, TicketCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = TicketFilters.where(filters, params);
+        if (after != null) {
+            // (created_at, id) < cursor; the leading <= bounds the index range
+            where.append(" AND t.created_at <= :afterCreatedAt AND (t.created_at < :afterCreatedAt OR t.id < :afterId)");
+            params.addValue("afterCreatedAt", Timestamp.valueOf(after.createdAt()));
+            params.addValue("afterId", after.id());
+        }
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(
+            "SELECT t.id, t.created_at FROM support_tickets t" + where + " ORDER BY t.created_at DESC, t.id DESC LIMIT :limit",
+            params,
+            (rs, rowNum) -> new Row(rs.getLong("id"), rs.getTimestamp("created_at").toLocalDateTime()));
+    }
+
+    public Count count(TicketSearchRequest filters) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) FROM support_tickets t" + TicketFilters.where(filters, params);
+        return new Count(jdbcTemplate.queryForObject(sql, params, Long.class), false);
+    }
+
+    /**
+     * The planner's row estimate for the filters on PostgreSQL; an exact count elsewhere
+     */
+    public Count estimateCount(TicketSearchRequest filters) {
+        if (!isPostgres()) {
+            return count(filters);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String plan = jdbcTemplate.queryForObject(
+            "EXPLAIN (FORMAT JSON) SELECT 1 FROM support_tickets t" + TicketFilters.where(filters, params),
+            params, String.class);
+        // The first "Plan Rows" belongs to the top plan node
+        Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+        return matcher.find() ? new Count(Long.parseLong(matcher.group(1)), true) : count(filters);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equals(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
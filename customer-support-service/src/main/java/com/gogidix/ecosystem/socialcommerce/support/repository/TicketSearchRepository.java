@@ -0,0 +1,123 @@
+package com.gogidix.ecosystem.socialcommerce.support.repository;
+
+import com.gogidix.ecosystem.socialcommerce.support.config.TicketSearchSchema;
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketSearchRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ranked text search over support tickets, combined with the
+ * {@link TicketSearchRequest} filters
+ *
+ * With full-text search installed ({@link TicketSearchSchema}) the term is
+ * matched against the ticket's tsvector through its GIN index: every word of
+ * the term must match, each as a prefix ("refun" finds "refunded"), results
+ * are ranked by ts_rank_cd and the subject and description come back with the
+ * matches highlighted. Highlights are only computed for the rows of the
+ * requested page, and are computed over HTML-escaped text, so only the
+ * {@code <mark>} tags are markup. Otherwise the term is a case-insensitive substring match
+ * and results are newest first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TicketSearchRepository {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private static final String HEADLINE_OPTIONS =
+        "StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2, FragmentDelimiter=\" ... \"";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TicketSearchSchema searchSchema;
+
+    /**
+     * A matching ticket; highlights are null without full-text search
+     */
+    public record Hit(Long ticketId, double rank, String subjectHighlight, String descriptionHighlight) {
+    }
+
+    public Page<Hit> search(TicketSearchRequest request, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = TicketFilters.where(request, params);
+
+        String tsQuery = searchSchema.isFullTextEnabled() ? toPrefixQuery(request.getSearchTerm()) : null;
+        String select;
+        if (tsQuery != null) {
+            params.addValue("tsQuery", tsQuery);
+            where.append(" AND t.search_vector @@ to_tsquery('" + TicketSearchSchema.TEXT_SEARCH_CONFIG + "', :tsQuery)");
+            select = "SELECT p.id, p.rank, "
+                + "ts_headline('" + TicketSearchSchema.TEXT_SEARCH_CONFIG + "', " + escapeHtml("p.subject") + ", p.query, '" + HEADLINE_OPTIONS + "') AS subject_highlight, "
+                + "ts_headline('" + TicketSearchSchema.TEXT_SEARCH_CONFIG + "', " + escapeHtml("p.description") + ", p.query, '" + HEADLINE_OPTIONS + "') AS description_highlight "
+                + "FROM (SELECT t.id, t.subject, t.description, t.created_at, q.query, ts_rank_cd(t.search_vector, q.query) AS rank "
+                + "FROM support_tickets t CROSS JOIN (SELECT to_tsquery('" + TicketSearchSchema.TEXT_SEARCH_CONFIG + "', :tsQuery) AS query) q"
+                + where
+                + " ORDER BY rank DESC, t.created_at DESC, t.id DESC LIMIT :limit OFFSET :offset) p "
+                + "ORDER BY p.rank DESC, p.created_at DESC, p.id DESC";
+        } else {
+            if (StringUtils.hasText(request.getSearchTerm())) {
+                params.addValue("likeTerm", "%" + escapeLike(request.getSearchTerm().trim().toLowerCase(Locale.ROOT)) + "%");
+                where.append(" AND (LOWER(t.subject) LIKE :likeTerm ESCAPE '\\' OR LOWER(t.description) LIKE :likeTerm ESCAPE '\\'"
+                    + " OR LOWER(t.ticket_number) LIKE :likeTerm ESCAPE '\\' OR LOWER(t.customer_email) LIKE :likeTerm ESCAPE '\\')");
+            }
+            select = "SELECT t.id, 0 AS rank, NULL AS subject_highlight, NULL AS description_highlight "
+                + "FROM support_tickets t" + where
+                + " ORDER BY t.created_at DESC, t.id DESC LIMIT :limit OFFSET :offset";
+        }
+        params.addValue("limit", pageable.getPageSize());
+        params.addValue("offset", pageable.getOffset());
+
+        List<Hit> hits = jdbcTemplate.query(select, params, (rs, rowNum) -> new Hit(
+            rs.getLong("id"),
+            rs.getDouble("rank"),
+            rs.getString("subject_highlight"),
+            rs.getString("description_highlight")
+        ));
+        // Counted only when the page is full; the count reuses the filtered WHERE clause
+        String countSql = "SELECT COUNT(*) FROM support_tickets t" + where;
+        return PageableExecutionUtils.getPage(hits, pageable,
+            () -> jdbcTemplate.queryForObject(countSql, params, Long.class));
+    }
+
+    /**
+     * Each word of the term as a prefix, all required: "late refun" becomes
+     * {@code late:* & refun:*}. Words are letters and digits only, so user input
+     * can never carry tsquery operators.
+     *
+     * @return null when the term has no words
+     */
+    static String toPrefixQuery(String term) {
+        if (term == null) {
+            return null;
+        }
+        List<String> words = new ArrayList<>();
+        Matcher matcher = WORD.matcher(term.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            words.add(matcher.group() + ":*");
+        }
+        return words.isEmpty() ? null : String.join(" & ", words);
+    }
+
+    /**
+     * SQL that HTML-escapes a column, so ticket text cannot inject markup
+     * into the highlights
+     */
+    static String escapeHtml(String column) {
+        return "replace(replace(replace(" + column + ", '&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -86,6 +86,14 @@ public interface SupportTicketService {
     // Search and filtering
     Page<SupportTicketResponse> searchTickets(TicketSearchRequest searchRequest, Pageable pageable);
     
+    /**
+     * Tickets matching the filters, newest first, one keyset page at a time
+     *
+     * @throws IllegalArgumentException for a search term, an invalid cursor or a limit out of range
+     */
+    TicketListResponse listTickets(TicketSearchRequest filters, String cursor, int limit,
+                                   TicketListResponse.CountMode countMode);
+    
     List<SupportTicketResponse> getOverdueTickets(int overdueHours);
     
     List<SupportTicketResponse> getSlaBreachedTickets();
@@ -4,16 +4,19 @@ import com.gogidix.ecosystem.socialcommerce.support.dto.*;
 import com.gogidix.ecosystem.socialcommerce.support.entity.SupportTicket;
 import com.gogidix.ecosystem.socialcommerce.support.entity.TicketMessage;
 import com.gogidix.ecosystem.socialcommerce.support.repository.SupportTicketRepository;
+import com.gogidix.ecosystem.socialcommerce.support.repository.TicketListingRepository;
 import com.gogidix.ecosystem.socialcommerce.support.repository.TicketMessageRepository;
+import com.gogidix.ecosystem.socialcommerce.support.repository.TicketSearchRepository;
 import com.gogidix.ecosystem.socialcommerce.support.service.SupportTicketService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -23,14 +26,30 @@ import java.util.*;
  * TODO: Complete implementation after repository interfaces are properly defined
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class SupportTicketServiceImpl implements SupportTicketService {
 
     private final SupportTicketRepository ticketRepository;
     private final TicketMessageRepository messageRepository;
+    private final TicketSearchRepository searchRepository;
+    private final TicketListingRepository listingRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int maxListPageSize;
+
+    public SupportTicketServiceImpl(SupportTicketRepository ticketRepository,
+                                    TicketMessageRepository messageRepository,
+                                    TicketSearchRepository searchRepository,
+                                    TicketListingRepository listingRepository,
+                                    KafkaTemplate<String, Object> kafkaTemplate,
+                                    @Value("${support.tickets.list.max-page-size:200}") int maxListPageSize) {
+        this.ticketRepository = ticketRepository;
+        this.messageRepository = messageRepository;
+        this.searchRepository = searchRepository;
+        this.listingRepository = listingRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxListPageSize = maxListPageSize;
+    }
 
     @Override
     public SupportTicketResponse createTicket(CreateTicketRequest request) {
@@ -38,7 +57,7 @@ public class SupportTicketServiceImpl implements SupportTicketService {
         // Minimal implementation for compilation
         return SupportTicketResponse.builder()
                 .id(1L)
-                .ticketNumber("TKT-" + System.currentTimeMillis())
+                .ticketNumber(SupportTicket.newTicketNumber())
                 .customerId(request.getCustomerId())
                 .subject(request.getSubject())
                 .status(SupportTicket.TicketStatus.OPEN)
@@ -208,8 +227,71 @@ public class SupportTicketServiceImpl implements SupportTicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<SupportTicketResponse> searchTickets(TicketSearchRequest searchRequest, Pageable pageable) {
-        return Page.empty();
+        Page<TicketSearchRepository.Hit> hits = searchRepository.search(searchRequest, pageable);
+        Map<Long, SupportTicket> tickets = ticketsById(hits.map(TicketSearchRepository.Hit::ticketId).getContent());
+
+        // Keep the search order; a ticket deleted since the search is left out
+        List<SupportTicketResponse> results = new ArrayList<>();
+        for (TicketSearchRepository.Hit hit : hits) {
+            SupportTicket ticket = tickets.get(hit.ticketId());
+            if (ticket == null) {
+                continue;
+            }
+            SupportTicketResponse response = toResponse(ticket);
+            response.setSearchRank(hit.rank());
+            if (hit.subjectHighlight() != null) {
+                response.setHighlights(Map.of(
+                        "subject", hit.subjectHighlight(),
+                        "description", hit.descriptionHighlight()));
+            }
+            results.add(response);
+        }
+        return new PageImpl<>(results, pageable, hits.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TicketListResponse listTickets(TicketSearchRequest filters, String cursor, int limit,
+                                          TicketListResponse.CountMode countMode) {
+        if (limit < 1 || limit > maxListPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxListPageSize);
+        }
+        if (StringUtils.hasText(filters.getSearchTerm())) {
+            throw new IllegalArgumentException("searchTerm is not supported when listing; use ticket search");
+        }
+        TicketCursor after = cursor != null ? TicketCursor.decode(cursor) : null;
+
+        // One extra row tells whether another page follows
+        List<TicketListingRepository.Row> rows = listingRepository.list(filters, after, limit + 1);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            TicketListingRepository.Row last = rows.get(limit - 1);
+            nextCursor = new TicketCursor(last.createdAt(), last.ticketId()).encode();
+        }
+
+        Map<Long, SupportTicket> tickets = ticketsById(rows.stream().map(TicketListingRepository.Row::ticketId).toList());
+        List<SupportTicketResponse> results = new ArrayList<>();
+        for (TicketListingRepository.Row row : rows) {
+            SupportTicket ticket = tickets.get(row.ticketId());
+            if (ticket != null) {
+                results.add(toResponse(ticket));
+            }
+        }
+
+        TicketListingRepository.Count count = switch (countMode) {
+            case NONE -> null;
+            case ESTIMATE -> listingRepository.estimateCount(filters);
+            case EXACT -> listingRepository.count(filters);
+        };
+        return TicketListResponse.builder()
+                .tickets(results)
+                .nextCursor(nextCursor)
+                .totalElements(count != null ? count.value() : null)
+                .totalEstimated(count != null ? count.estimated() : null)
+                .build();
     }
 
     @Override
@@ -315,4 +397,45 @@ public class SupportTicketServiceImpl implements SupportTicketService {
         
         kafkaTemplate.send("support-escalation-events", escalationEvent);
     }
-}
\ No newline at end of file
+
+    private Map<Long, SupportTicket> ticketsById(List<Long> ids) {
+        Map<Long, SupportTicket> tickets = new HashMap<>();
+        ticketRepository.findAllById(ids).forEach(ticket -> tickets.put(ticket.getId(), ticket));
+        return tickets;
+    }
+
+    private SupportTicketResponse toResponse(SupportTicket ticket) {
+        return SupportTicketResponse.builder()
+                .id(ticket.getId())
+                .ticketNumber(ticket.getTicketNumber())
+                .customerId(ticket.getCustomerId())
+                .customerEmail(ticket.getCustomerEmail())
+                .customerName(ticket.getCustomerName())
+                .customerPhone(ticket.getCustomerPhone())
+                .customerRegion(ticket.getCustomerRegion())
+                .subject(ticket.getSubject())
+                .description(ticket.getDescription())
+                .status(ticket.getStatus())
+                .priority(ticket.getPriority())
+                .category(ticket.getCategory())
+                .subCategory(ticket.getSubCategory())
+                .channel(ticket.getChannel())
+                .orderId(ticket.getOrderId())
+                .orderNumber(ticket.getOrderNumber())
+                .trackingNumber(ticket.getTrackingNumber())
+                .deliveryIssueType(ticket.getDeliveryIssueType())
+                .assignedToAgentId(ticket.getAssignedToAgentId())
+                .assignedToAgentName(ticket.getAssignedToAgentName())
+                .assignedToTeamId(ticket.getAssignedToTeamId())
+                .assignedToTeamName(ticket.getAssignedToTeamName())
+                .customerSatisfactionRating(ticket.getCustomerSatisfactionRating())
+                .slaBreached(ticket.getSlaBreached())
+                .slaDueDate(ticket.getSlaDueDate())
+                .aiHandled(ticket.getAiHandled())
+                .createdAt(ticket.getCreatedAt())
+                .updatedAt(ticket.getUpdatedAt())
+                .resolvedAt(ticket.getResolvedAt())
+                .closedAt(ticket.getClosedAt())
+                .build();
+    }
+}
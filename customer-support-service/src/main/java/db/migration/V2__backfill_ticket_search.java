@@ -0,0 +1,57 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Ticket search backfill: builds the V1 search document for tickets saved
+ * before its triggers existed.
+ *
+ * Walks the primary key in ranges of BATCH_SIZE IDs, so every batch is one
+ * index range scan and the whole backfill reads the table once, instead of
+ * rescanning it for {@code search_vector IS NULL} per batch. The migration
+ * runs outside a transaction and each batch commits on its own, so row locks
+ * on support_tickets are only held for one batch.
+ */
+public class V2__backfill_ticket_search extends BaseJavaMigration {
+
+    private static final long BATCH_SIZE = 5_000;
+
+    private static final String BACKFILL_SQL =
+        "UPDATE support_tickets t SET search_vector = support_ticket_document(t.id, t.ticket_number, t.subject, "
+            + "t.description, t.customer_email) WHERE t.id >= ? AND t.id < ? AND t.search_vector IS NULL";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        long minId;
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT MIN(id), MAX(id) FROM support_tickets")) {
+            rs.next();
+            minId = rs.getLong(1);
+            if (rs.wasNull()) {
+                return;
+            }
+            maxId = rs.getLong(2);
+        }
+        try (PreparedStatement update = connection.prepareStatement(BACKFILL_SQL)) {
+            for (long from = minId; from <= maxId; from += BATCH_SIZE) {
+                update.setLong(1, from);
+                update.setLong(2, from + BATCH_SIZE);
+                update.executeUpdate();
+            }
+        }
+    }
+}
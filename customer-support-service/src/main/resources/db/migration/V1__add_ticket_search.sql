@@ -0,0 +1,49 @@
+-- Full-text search document for support tickets: a search_vector tsvector
+-- column and triggers that rebuild a ticket's document in the same
+-- transaction whenever the ticket or one of its messages is saved, so search
+-- results are current as of commit. The ticket tables themselves predate
+-- these migrations (the schema is baselined at version 0).
+--
+-- Document weights: ticket number and subject A, description B, message
+-- content C, customer email D. Ticket number and email are split on
+-- punctuation so their parts match as words. The 'english' configuration
+-- must match TicketSearchSchema.TEXT_SEARCH_CONFIG.
+ALTER TABLE support_tickets ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION support_ticket_document(p_id BIGINT, p_number TEXT, p_subject TEXT,
+                                                   p_description TEXT, p_email TEXT)
+RETURNS tsvector LANGUAGE sql STABLE AS $$
+    SELECT setweight(to_tsvector('simple', regexp_replace(coalesce(p_number, ''), '[^[:alnum:]]+', ' ', 'g')), 'A')
+        || setweight(to_tsvector('english', coalesce(p_subject, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(p_description, '')), 'B')
+        || setweight(to_tsvector('english', coalesce((SELECT string_agg(m.content, ' ')
+               FROM ticket_messages m WHERE m.support_ticket_id = p_id), '')), 'C')
+        || setweight(to_tsvector('simple', regexp_replace(coalesce(p_email, ''), '[^[:alnum:]]+', ' ', 'g')), 'D')
+$$;
+
+CREATE OR REPLACE FUNCTION support_tickets_search_refresh() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := support_ticket_document(NEW.id, NEW.ticket_number, NEW.subject, NEW.description,
+                                                 NEW.customer_email);
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS support_tickets_search_refresh ON support_tickets;
+CREATE TRIGGER support_tickets_search_refresh
+    BEFORE INSERT OR UPDATE OF ticket_number, subject, description, customer_email ON support_tickets
+    FOR EACH ROW EXECUTE FUNCTION support_tickets_search_refresh();
+
+CREATE OR REPLACE FUNCTION ticket_messages_search_refresh() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE support_tickets t
+    SET search_vector = support_ticket_document(t.id, t.ticket_number, t.subject, t.description, t.customer_email)
+    WHERE t.id = CASE WHEN TG_OP = 'DELETE' THEN OLD.support_ticket_id ELSE NEW.support_ticket_id END;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS ticket_messages_search_refresh ON ticket_messages;
+CREATE TRIGGER ticket_messages_search_refresh
+    AFTER INSERT OR DELETE OR UPDATE OF content ON ticket_messages
+    FOR EACH ROW EXECUTE FUNCTION ticket_messages_search_refresh();
@@ -0,0 +1,10 @@
+-- GIN index over the ticket search document. CONCURRENTLY does not block
+-- ticket writes while it builds, and cannot run inside a transaction, hence
+-- executeInTransaction=false in V3__index_ticket_search.sql.conf.
+--
+-- A failed concurrent build leaves an INVALID index behind that IF NOT EXISTS
+-- would keep forever; dropping it first means re-running this migration
+-- after flyway repair always ends with a valid index. Replicas starting
+-- together are serialised by Flyway's own migration lock.
+DROP INDEX CONCURRENTLY IF EXISTS idx_support_tickets_search;
+CREATE INDEX CONCURRENTLY idx_support_tickets_search ON support_tickets USING GIN (search_vector);
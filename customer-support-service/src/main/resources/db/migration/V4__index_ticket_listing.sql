@@ -0,0 +1,28 @@
+-- Ticket listing keyset indexes: each listing filter leads, then the
+-- (created_at, id) listing order, so a filtered page is one index range scan
+-- (TicketListingRepository). They supersede the single-column customer,
+-- status, agent and created_at indexes, which are dropped once their
+-- replacements exist.
+--
+-- Built CONCURRENTLY so ticket writes are not blocked, which cannot run in a
+-- transaction (V4__index_ticket_listing.sql.conf). Each index is dropped
+-- first in case a failed build left it INVALID.
+DROP INDEX CONCURRENTLY IF EXISTS idx_customer_created;
+CREATE INDEX CONCURRENTLY idx_customer_created ON support_tickets (customer_id, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_status_created;
+CREATE INDEX CONCURRENTLY idx_status_created ON support_tickets (status, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_assigned_agent_created;
+CREATE INDEX CONCURRENTLY idx_assigned_agent_created ON support_tickets (assigned_to_agent_id, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_assigned_team_created;
+CREATE INDEX CONCURRENTLY idx_assigned_team_created ON support_tickets (assigned_to_team_id, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_created_at_id;
+CREATE INDEX CONCURRENTLY idx_created_at_id ON support_tickets (created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_customer_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_assigned_agent;
+DROP INDEX CONCURRENTLY IF EXISTS idx_created_at;
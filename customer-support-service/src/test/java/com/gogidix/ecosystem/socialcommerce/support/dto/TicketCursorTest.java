@@ -0,0 +1,47 @@
+package com.gogidix.ecosystem.socialcommerce.support.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ticket Cursor Test Suite
+ *
+ * - Tests cursors round-trip and are URL safe
+ * - Tests cursors that were not produced by encode are rejected
+ */
+@DisplayName("Ticket Cursor Tests")
+class TicketCursorTest {
+
+    @Test
+    @DisplayName("Should decode what it encodes, to the nanosecond")
+    void shouldRoundTrip() {
+        TicketCursor cursor = new TicketCursor(LocalDateTime.of(2026, 3, 14, 9, 30, 15, 123_456_789), 9_007_199_254_740_993L);
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+        assertEquals(cursor, TicketCursor.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered or foreign cursors")
+    void shouldRejectInvalidCursors() {
+        String valid = new TicketCursor(LocalDateTime.of(2026, 3, 14, 9, 30), 7L).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.decode(valid + "AA"));
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.decode(encode("2026-03-14T09:30")));
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.decode(encode("2026-03-14T09:30|seven")));
+        assertThrows(IllegalArgumentException.class, () -> TicketCursor.decode(encode("yesterday|7")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
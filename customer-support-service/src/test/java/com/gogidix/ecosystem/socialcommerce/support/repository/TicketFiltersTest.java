@@ -0,0 +1,80 @@
+package com.gogidix.ecosystem.socialcommerce.support.repository;
+
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketSearchRequest;
+import com.gogidix.ecosystem.socialcommerce.support.entity.SupportTicket.TicketPriority;
+import com.gogidix.ecosystem.socialcommerce.support.entity.SupportTicket.TicketStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ticket Filters Test Suite
+ *
+ * - Tests only the filters present become predicates
+ * - Tests values are bound as parameters, never concatenated into the SQL
+ */
+@DisplayName("Ticket Filters Tests")
+class TicketFiltersTest {
+
+    @Test
+    @DisplayName("Should add no predicates without filters")
+    void shouldAddNothingWithoutFilters() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        StringBuilder where = TicketFilters.where(new TicketSearchRequest(), params);
+
+        assertEquals(" WHERE 1 = 1", where.toString());
+        assertEquals(0, params.getParameterNames().length);
+    }
+
+    @Test
+    @DisplayName("Should bind one predicate per filter present")
+    void shouldBindFilters() {
+        LocalDateTime after = LocalDateTime.of(2026, 3, 1, 0, 0);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String where = TicketFilters.where(TicketSearchRequest.builder()
+            .statuses(List.of(TicketStatus.OPEN, TicketStatus.IN_PROGRESS))
+            .priorities(List.of())
+            .customerId(42L)
+            .customerEmail(" Jane.Doe@Example.com ")
+            .createdAfter(after)
+            .hasUnreadMessages(false)
+            .tags(List.of("refund"))
+            .build(), params).toString();
+
+        assertEquals(" WHERE 1 = 1"
+            + " AND t.status IN (:statuses)"
+            + " AND t.customer_id = :customerId"
+            + " AND LOWER(t.customer_email) = :customerEmail"
+            + " AND t.created_at >= :createdAfter"
+            + " AND NOT EXISTS (SELECT 1 FROM ticket_messages m WHERE m.support_ticket_id = t.id AND m.is_read = FALSE)"
+            + " AND EXISTS (SELECT 1 FROM ticket_tags tt JOIN support_tags g ON g.id = tt.tag_id"
+            + " WHERE tt.ticket_id = t.id AND g.name IN (:tags))", where);
+        assertEquals(List.of("OPEN", "IN_PROGRESS"), params.getValue("statuses"));
+        assertEquals(42L, params.getValue("customerId"));
+        assertEquals("jane.doe@example.com", params.getValue("customerEmail"));
+        assertEquals(Timestamp.valueOf(after), params.getValue("createdAfter"));
+        assertFalse(params.hasValue("priorities"), "an empty list is no filter");
+    }
+
+    @Test
+    @DisplayName("Should keep filter values out of the SQL text")
+    void shouldNotConcatenateValues() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String where = TicketFilters.where(TicketSearchRequest.builder()
+            .customerRegion("x' OR '1' = '1")
+            .priorities(List.of(TicketPriority.HIGH))
+            .build(), params).toString();
+
+        assertFalse(where.contains("OR '1'"), where);
+        assertEquals("x' OR '1' = '1", params.getValue("customerRegion"));
+    }
+}
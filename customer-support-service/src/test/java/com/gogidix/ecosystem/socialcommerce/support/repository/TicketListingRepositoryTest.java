@@ -0,0 +1,118 @@
+package com.gogidix.ecosystem.socialcommerce.support.repository;
+
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketCursor;
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketSearchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ticket Listing Repository Test Suite
+ *
+ * Runs against H2 with only the support_tickets columns the listing reads.
+ *
+ * - Tests pages seek strictly past the (created_at, id) cursor, ties broken by ID
+ * - Tests filters apply on every page and counts match the filters
+ */
+@DisplayName("Ticket Listing Repository Tests")
+class TicketListingRepositoryTest {
+
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TicketListingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:listing" + TEST_SEQUENCE.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE support_tickets (id BIGINT PRIMARY KEY, "
+            + "customer_id BIGINT NOT NULL, status VARCHAR(20) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        repository = new TicketListingRepository(jdbcTemplate);
+    }
+
+    // ==================== KEYSET ====================
+
+    @Test
+    @DisplayName("Should walk every ticket once, newest first, across tied timestamps")
+    void shouldPageAcrossTies() {
+        // Three tickets per timestamp, so most page boundaries fall inside a tie
+        for (long id = 1; id <= 30; id++) {
+            insert(id, 7L, BASE.plusSeconds((id - 1) / 3));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        TicketCursor cursor = null;
+        for (int page = 0; page < 20; page++) {
+            List<TicketListingRepository.Row> rows = repository.list(new TicketSearchRequest(), cursor, 4);
+            rows.forEach(row -> seen.add(row.ticketId()));
+            if (rows.size() < 4) {
+                break;
+            }
+            TicketListingRepository.Row last = rows.get(rows.size() - 1);
+            cursor = new TicketCursor(last.createdAt(), last.ticketId());
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for (long id = 30; id >= 1; id--) {
+            expected.add(id);
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @DisplayName("Should exclude the cursor row and everything after it")
+    void shouldSeekStrictlyPastCursor() {
+        insert(1, 7L, BASE);
+        insert(2, 7L, BASE.plusSeconds(1));
+        insert(3, 7L, BASE.plusSeconds(1));
+        insert(4, 7L, BASE.plusSeconds(1));
+        insert(5, 7L, BASE.plusSeconds(2));
+
+        List<TicketListingRepository.Row> rows =
+            repository.list(new TicketSearchRequest(), new TicketCursor(BASE.plusSeconds(1), 3L), 10);
+
+        assertEquals(List.of(2L, 1L), rows.stream().map(TicketListingRepository.Row::ticketId).toList());
+        assertEquals(BASE.plusSeconds(1), rows.get(0).createdAt());
+    }
+
+    @Test
+    @DisplayName("Should apply filters to every page and count only matches")
+    void shouldFilterPagesAndCounts() {
+        for (long id = 1; id <= 10; id++) {
+            insert(id, id % 2 == 0 ? 7L : 8L, BASE.plusSeconds(id));
+        }
+        TicketSearchRequest customer = TicketSearchRequest.builder().customerId(7L).build();
+
+        List<TicketListingRepository.Row> first = repository.list(customer, null, 3);
+        TicketListingRepository.Row last = first.get(2);
+        List<TicketListingRepository.Row> second =
+            repository.list(customer, new TicketCursor(last.createdAt(), last.ticketId()), 3);
+
+        assertEquals(List.of(10L, 8L, 6L), first.stream().map(TicketListingRepository.Row::ticketId).toList());
+        assertEquals(List.of(4L, 2L), second.stream().map(TicketListingRepository.Row::ticketId).toList());
+        assertEquals(new TicketListingRepository.Count(5, false), repository.count(customer));
+        // Exact everywhere but PostgreSQL
+        assertEquals(new TicketListingRepository.Count(5, false), repository.estimateCount(customer));
+    }
+
+    // ==================== HELPERS ====================
+
+    private void insert(long id, long customerId, LocalDateTime createdAt) {
+        jdbcTemplate.getJdbcTemplate().update(
+            "INSERT INTO support_tickets (id, customer_id, status, created_at) VALUES (?, ?, ?, ?)",
+            id, customerId, "OPEN", Timestamp.valueOf(createdAt));
+    }
+}
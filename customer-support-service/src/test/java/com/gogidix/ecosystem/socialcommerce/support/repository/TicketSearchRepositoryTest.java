@@ -0,0 +1,97 @@
+package com.gogidix.ecosystem.socialcommerce.support.repository;
+
+import com.gogidix.ecosystem.socialcommerce.support.config.TicketSearchSchema;
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketSearchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Ticket Search Repository Test Suite
+ *
+ * - Tests search terms become prefix tsqueries that cannot carry operators
+ * - Tests highlights are computed over HTML-escaped ticket text
+ * - Tests the substring fallback without full-text search
+ */
+@DisplayName("Ticket Search Repository Tests")
+class TicketSearchRepositoryTest {
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TicketSearchSchema searchSchema;
+    private TicketSearchRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        searchSchema = mock(TicketSearchSchema.class);
+        repository = new TicketSearchRepository(jdbcTemplate, searchSchema);
+    }
+
+    // ==================== PREFIX QUERY ====================
+
+    @Test
+    @DisplayName("Should require every word of the term as a prefix")
+    void shouldBuildPrefixQuery() {
+        assertEquals("late:* & refun:*", TicketSearchRepository.toPrefixQuery("late refun"));
+        assertEquals("tkt:* & 2024:* & 0042:*", TicketSearchRepository.toPrefixQuery("TKT-2024-0042"));
+        assertEquals("café:* & crème:*", TicketSearchRepository.toPrefixQuery("Café  Crème"));
+    }
+
+    @Test
+    @DisplayName("Should drop tsquery operators and return null without words")
+    void shouldStripOperators() {
+        assertEquals("refund:* & x:*", TicketSearchRepository.toPrefixQuery("!refund & (x | ':*"));
+        assertNull(TicketSearchRepository.toPrefixQuery(null));
+        assertNull(TicketSearchRepository.toPrefixQuery("   "));
+        assertNull(TicketSearchRepository.toPrefixQuery("&|!<->():*'"));
+    }
+
+    // ==================== QUERIES ====================
+
+    @Test
+    @DisplayName("Should highlight HTML-escaped subject and description")
+    void shouldEscapeHighlightedText() {
+        when(searchSchema.isFullTextEnabled()).thenReturn(true);
+
+        repository.search(TicketSearchRequest.builder().searchTerm("refund").build(), PageRequest.of(0, 20));
+
+        String sql = searchSql().getValue();
+        assertTrue(sql.contains("ts_headline('english', "
+            + "replace(replace(replace(p.subject, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), p.query"), sql);
+        assertTrue(sql.contains("ts_headline('english', "
+            + "replace(replace(replace(p.description, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), p.query"), sql);
+        assertFalse(sql.contains("ts_headline('english', p.subject"), sql);
+    }
+
+    @Test
+    @DisplayName("Should fall back to an escaped substring match without full-text search")
+    void shouldFallBackToSubstringMatch() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+
+        repository.search(TicketSearchRequest.builder().searchTerm(" 50%_Off ").build(), PageRequest.of(0, 20));
+
+        verify(jdbcTemplate).query(sql.capture(), params.capture(),
+            ArgumentMatchers.<RowMapper<TicketSearchRepository.Hit>>any());
+        assertFalse(sql.getValue().contains("ts_headline"), sql.getValue());
+        assertEquals("%50\\%\\_off%", params.getValue().getValue("likeTerm"));
+    }
+
+    // ==================== HELPERS ====================
+
+    private ArgumentCaptor<String> searchSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(MapSqlParameterSource.class),
+            ArgumentMatchers.<RowMapper<TicketSearchRepository.Hit>>any());
+        return sql;
+    }
+}
@@ -0,0 +1,149 @@
+package com.gogidix.ecosystem.socialcommerce.support.service.impl;
+
+import com.gogidix.ecosystem.socialcommerce.support.dto.SupportTicketResponse;
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketCursor;
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketListResponse;
+import com.gogidix.ecosystem.socialcommerce.support.dto.TicketSearchRequest;
+import com.gogidix.ecosystem.socialcommerce.support.entity.SupportTicket;
+import com.gogidix.ecosystem.socialcommerce.support.repository.SupportTicketRepository;
+import com.gogidix.ecosystem.socialcommerce.support.repository.TicketListingRepository;
+import com.gogidix.ecosystem.socialcommerce.support.repository.TicketMessageRepository;
+import com.gogidix.ecosystem.socialcommerce.support.repository.TicketSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Support Ticket Service Listing Test Suite
+ *
+ * - Tests a page asks for one row more than the limit to detect the next page
+ * - Tests the next cursor points at the last ticket returned, and is null on the last page
+ * - Tests limits, cursors and search terms are validated before querying
+ * - Tests counting only runs when asked for
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Support Ticket Service Listing Tests")
+class SupportTicketServiceImplTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 14, 9, 0);
+
+    @Mock
+    private SupportTicketRepository ticketRepository;
+    @Mock
+    private TicketMessageRepository messageRepository;
+    @Mock
+    private TicketSearchRepository searchRepository;
+    @Mock
+    private TicketListingRepository listingRepository;
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private SupportTicketServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SupportTicketServiceImpl(ticketRepository, messageRepository, searchRepository,
+            listingRepository, kafkaTemplate, 50);
+    }
+
+    // ==================== PAGES ====================
+
+    @Test
+    @DisplayName("Should return the limit and a cursor at its last ticket when one more row exists")
+    void shouldReturnCursorWhenMoreRowsFollow() {
+        TicketSearchRequest filters = new TicketSearchRequest();
+        when(listingRepository.list(filters, null, 4)).thenReturn(rows(10, 4));
+        when(ticketRepository.findAllById(List.of(10L, 9L, 8L))).thenReturn(tickets(10, 9, 8));
+
+        TicketListResponse page = service.listTickets(filters, null, 3, TicketListResponse.CountMode.NONE);
+
+        assertEquals(List.of(10L, 9L, 8L), page.getTickets().stream().map(SupportTicketResponse::getId).toList());
+        assertEquals(new TicketCursor(createdAt(8), 8L), TicketCursor.decode(page.getNextCursor()));
+        assertNull(page.getTotalElements());
+        verify(listingRepository, never()).count(any());
+        verify(listingRepository, never()).estimateCount(any());
+    }
+
+    @Test
+    @DisplayName("Should end the listing when no extra row comes back")
+    void shouldEndOnLastPage() {
+        TicketSearchRequest filters = TicketSearchRequest.builder().customerId(7L).build();
+        TicketCursor after = new TicketCursor(createdAt(8), 8L);
+        when(listingRepository.list(filters, after, 4)).thenReturn(rows(7, 3));
+        when(ticketRepository.findAllById(List.of(7L, 6L, 5L))).thenReturn(tickets(7, 6, 5));
+        when(listingRepository.count(filters)).thenReturn(new TicketListingRepository.Count(6, false));
+
+        TicketListResponse page = service.listTickets(filters, after.encode(), 3, TicketListResponse.CountMode.EXACT);
+
+        assertEquals(3, page.getTickets().size());
+        assertNull(page.getNextCursor());
+        assertEquals(6L, page.getTotalElements());
+        assertFalse(page.getTotalEstimated());
+    }
+
+    @Test
+    @DisplayName("Should keep listing order when tickets load in another order")
+    void shouldKeepListingOrder() {
+        TicketSearchRequest filters = new TicketSearchRequest();
+        when(listingRepository.list(filters, null, 3)).thenReturn(rows(3, 2));
+        when(ticketRepository.findAllById(List.of(3L, 2L))).thenReturn(tickets(2, 3));
+
+        TicketListResponse page = service.listTickets(filters, null, 2, TicketListResponse.CountMode.NONE);
+
+        assertEquals(List.of(3L, 2L), page.getTickets().stream().map(SupportTicketResponse::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    // ==================== VALIDATION ====================
+
+    @Test
+    @DisplayName("Should reject out-of-range limits, bad cursors and search terms before querying")
+    void shouldRejectInvalidRequests() {
+        TicketSearchRequest filters = new TicketSearchRequest();
+        TicketListResponse.CountMode none = TicketListResponse.CountMode.NONE;
+
+        assertThrows(IllegalArgumentException.class, () -> service.listTickets(filters, null, 0, none));
+        assertThrows(IllegalArgumentException.class, () -> service.listTickets(filters, null, 51, none));
+        assertThrows(IllegalArgumentException.class, () -> service.listTickets(filters, "not a cursor", 10, none));
+        assertThrows(IllegalArgumentException.class, () -> service.listTickets(
+            TicketSearchRequest.builder().searchTerm("refund").build(), null, 10, none));
+        verifyNoInteractions(listingRepository, ticketRepository);
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * {@code count} rows, newest first, from ticket {@code newestId} down
+     */
+    private static List<TicketListingRepository.Row> rows(long newestId, int count) {
+        List<TicketListingRepository.Row> rows = new ArrayList<>();
+        for (long id = newestId; id > newestId - count; id--) {
+            rows.add(new TicketListingRepository.Row(id, createdAt(id)));
+        }
+        return rows;
+    }
+
+    private static List<SupportTicket> tickets(long... ids) {
+        List<SupportTicket> tickets = new ArrayList<>();
+        for (long id : ids) {
+            tickets.add(SupportTicket.builder().id(id).createdAt(createdAt(id)).build());
+        }
+        return tickets;
+    }
+
+    private static LocalDateTime createdAt(long id) {
+        return BASE.plusMinutes(id);
+    }
+}
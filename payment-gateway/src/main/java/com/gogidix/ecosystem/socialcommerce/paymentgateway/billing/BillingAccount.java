@@ -0,0 +1,40 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
+
+/**
+ * Warehousing customer billed in a monthly run
+ *
+ * A customer billed for several services has one account per billing type.
+ * The currency is stored as its upper-case ISO 4217 code.
+ *
+ * @param paymentMethod Saved payment method to charge, or null for the customer's default
+ */
+public record BillingAccount(
+    String customerId,
+    String customerEmail,
+    Type billingType,
+    String currency,
+    String paymentMethod
+) {
+
+    public enum Type {
+        STORAGE,
+        SUBSCRIPTION,
+        SELF_STORAGE
+    }
+
+    public BillingAccount {
+        if (customerId == null || customerId.isBlank()) {
+            throw new IllegalArgumentException("Billing account needs a customer ID");
+        }
+        if (billingType == null) {
+            throw new IllegalArgumentException("Billing account needs a billing type: " + customerId);
+        }
+        int currencyIndex = currency == null ? -1 : CurrencyRegistry.getInstance().indexOf(currency);
+        if (currencyIndex < 0) {
+            throw new IllegalArgumentException("Unknown billing currency for " + customerId + ": " + currency);
+        }
+        currency = CurrencyRegistry.getInstance().code(currencyIndex);
+    }
+}
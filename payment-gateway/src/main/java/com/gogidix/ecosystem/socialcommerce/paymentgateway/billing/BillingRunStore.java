@@ -0,0 +1,157 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Billing Run Store
+ *
+ * Plain JDBC over the billing run tables (Flyway V3). Every account of a run
+ * gets a checkpoint row up front; each stage moves it on with a single-row
+ * update, so a run that dies keeps everything settled before it died.
+ */
+class BillingRunStore {
+
+    private static final String SELECT_RUN_SQL = "SELECT COUNT(*) FROM billing_runs WHERE run_id = ?";
+    private static final String INSERT_RUN_SQL =
+        "INSERT INTO billing_runs (run_id, period, status, created_at) VALUES (?, ?, 'RUNNING', ?)";
+    private static final String SELECT_CUSTOMERS_SQL =
+        "SELECT customer_id, billing_type, invoice_id, status, transaction_id, amount "
+            + "FROM billing_run_customers WHERE run_id = ?";
+    private static final String INSERT_CUSTOMER_SQL =
+        "INSERT INTO billing_run_customers (run_id, customer_id, billing_type, invoice_id, status, currency, updated_at) "
+            + "VALUES (?, ?, ?, ?, 'PENDING', ?, ?)";
+    private static final String INVOICED_SQL =
+        "UPDATE billing_run_customers SET status = ?, amount = ?, currency = ?, updated_at = ? "
+            + "WHERE run_id = ? AND customer_id = ? AND billing_type = ?";
+    private static final String SETTLED_SQL =
+        "UPDATE billing_run_customers SET status = ?, transaction_id = ?, error_code = ?, updated_at = ? "
+            + "WHERE run_id = ? AND customer_id = ? AND billing_type = ?";
+    private static final String FINISH_RUN_SQL =
+        "UPDATE billing_runs SET status = ?, completed_at = ? WHERE run_id = ?";
+
+    private static final int MAX_ERROR_CODE_LENGTH = 100;
+
+    enum CustomerStatus {
+        PENDING,
+        INVOICED,
+        // Charge accepted but not settled yet (pending, awaiting customer action);
+        // the next run checks its status instead of charging again
+        AWAITING_PAYMENT,
+        PAID,
+        FAILED,
+        NOTHING_DUE;
+
+        boolean isFinal() {
+            return this == PAID || this == FAILED || this == NOTHING_DUE;
+        }
+    }
+
+    /**
+     * @param transactionId Gateway reference of the charge, once one was accepted
+     * @param amount        Invoiced amount, once the invoice was computed
+     */
+    record Checkpoint(String invoiceId, CustomerStatus status, String transactionId, BigDecimal amount) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    BillingRunStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create the run on first use and a PENDING row for every account not seen before
+     *
+     * @param invoiceIds Invoice IDs for new rows; existing rows keep theirs
+     * @return Checkpoint of every account in the run, by {@link #key}
+     */
+    Map<String, Checkpoint> prepare(String runId, YearMonth period, List<BillingAccount> accounts,
+                                    Supplier<String> invoiceIds) {
+        return transactionTemplate.execute(tx -> {
+            Timestamp now = Timestamp.from(Instant.now());
+            Integer runs = jdbcTemplate.queryForObject(SELECT_RUN_SQL, Integer.class, runId);
+            if (runs == null || runs == 0) {
+                jdbcTemplate.update(INSERT_RUN_SQL, runId, period.toString(), now);
+            }
+
+            Map<String, Checkpoint> checkpoints = new HashMap<>();
+            jdbcTemplate.query(SELECT_CUSTOMERS_SQL, rs -> {
+                checkpoints.put(rs.getString("billing_type") + ":" + rs.getString("customer_id"), new Checkpoint(
+                    rs.getString("invoice_id"), CustomerStatus.valueOf(rs.getString("status")),
+                    rs.getString("transaction_id"), rs.getBigDecimal("amount")));
+            }, runId);
+
+            List<BillingAccount> added = new ArrayList<>();
+            for (BillingAccount account : accounts) {
+                if (!checkpoints.containsKey(key(account))) {
+                    checkpoints.put(key(account), new Checkpoint(invoiceIds.get(), CustomerStatus.PENDING, null, null));
+                    added.add(account);
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, added, 500, (ps, account) -> {
+                ps.setString(1, runId);
+                ps.setString(2, account.customerId());
+                ps.setString(3, account.billingType().name());
+                ps.setString(4, checkpoints.get(key(account)).invoiceId());
+                ps.setString(5, account.currency());
+                ps.setTimestamp(6, now);
+            });
+            return checkpoints;
+        });
+    }
+
+    /**
+     * Invoice computed: amount fixed before anything is charged
+     */
+    void invoiced(String runId, BillingAccount account, BigDecimal amount, String currency) {
+        update(INVOICED_SQL, CustomerStatus.INVOICED, amount, currency, runId, account);
+    }
+
+    void nothingDue(String runId, BillingAccount account, BigDecimal amount, String currency) {
+        update(INVOICED_SQL, CustomerStatus.NOTHING_DUE, amount, currency, runId, account);
+    }
+
+    void awaitingPayment(String runId, BillingAccount account, String transactionId) {
+        update(SETTLED_SQL, CustomerStatus.AWAITING_PAYMENT, transactionId, null, runId, account);
+    }
+
+    void paid(String runId, BillingAccount account, String transactionId) {
+        update(SETTLED_SQL, CustomerStatus.PAID, transactionId, null, runId, account);
+    }
+
+    void failed(String runId, BillingAccount account, String errorCode) {
+        String truncated = errorCode != null && errorCode.length() > MAX_ERROR_CODE_LENGTH
+            ? errorCode.substring(0, MAX_ERROR_CODE_LENGTH)
+            : errorCode;
+        update(SETTLED_SQL, CustomerStatus.FAILED, null, truncated, runId, account);
+    }
+
+    void finish(String runId, BillingRunSummary.Status status) {
+        Timestamp completedAt = status == BillingRunSummary.Status.COMPLETED ? Timestamp.from(Instant.now()) : null;
+        jdbcTemplate.update(FINISH_RUN_SQL, status.name(), completedAt, runId);
+    }
+
+    static String key(BillingAccount account) {
+        return account.billingType().name() + ":" + account.customerId();
+    }
+
+    private void update(String sql, CustomerStatus status, Object first, Object second, String runId,
+                        BillingAccount account) {
+        jdbcTemplate.update(sql, status.name(), first, second, Timestamp.from(Instant.now()),
+            runId, account.customerId(), account.billingType().name());
+    }
+}
@@ -0,0 +1,52 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of one billing run
+ *
+ * @param skipped    Accounts already settled by an earlier run for the same ID
+ * @param nothingDue Accounts whose invoice came to zero or less; not charged
+ * @param awaitingPayment Accounts whose charge was accepted but has not settled
+ *                   (pending, awaiting customer action); the next run checks them
+ * @param remaining  Accounts left for the next run (transient failures, errors)
+ * @param invoiced   Invoice totals per currency, charged or not
+ * @param charged    Amounts settled by the gateway per currency
+ */
+public record BillingRunSummary(
+    String runId,
+    YearMonth period,
+    Status status,
+    int accounts,
+    long skipped,
+    long paid,
+    long failed,
+    long nothingDue,
+    long awaitingPayment,
+    long remaining,
+    Map<String, BigDecimal> invoiced,
+    Map<String, BigDecimal> charged,
+    List<BillingStageSummary> stages,
+    Duration elapsed
+) {
+
+    public enum Status {
+        // Charged through the simulated gateway; nothing stored
+        DRY_RUN,
+        // Accounts left over; running again with the same ID resumes
+        INCOMPLETE,
+        COMPLETED
+    }
+
+    public BillingRunSummary {
+        invoiced = Collections.unmodifiableMap(new TreeMap<>(invoiced));
+        charged = Collections.unmodifiableMap(new TreeMap<>(charged));
+        stages = List.copyOf(stages);
+    }
+}
@@ -0,0 +1,28 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import java.time.Duration;
+
+/**
+ * Work done by one stage of a billing run
+ *
+ * @param failed  Items the stage could not handle; left for the next run
+ * @param blocked Total time workers waited for room in the next stage's queue
+ * @param elapsed First worker start to last worker exit
+ */
+public record BillingStageSummary(
+    String stage,
+    int parallelism,
+    long processed,
+    long failed,
+    Duration blocked,
+    Duration elapsed
+) {
+
+    /**
+     * Items per second over the stage's elapsed time
+     */
+    public double throughput() {
+        long nanos = elapsed.toNanos();
+        return nanos > 0 ? processed * 1_000_000_000.0 / nanos : 0;
+    }
+}
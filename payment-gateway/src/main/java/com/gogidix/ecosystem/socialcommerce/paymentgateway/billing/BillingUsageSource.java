@@ -0,0 +1,14 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Where a billing run reads each account's usage for the period, e.g. the
+ * warehousing billing-service. Called concurrently from the aggregation stage.
+ */
+@FunctionalInterface
+public interface BillingUsageSource {
+
+    List<UsageRecord> usage(BillingAccount account, YearMonth period) throws Exception;
+}
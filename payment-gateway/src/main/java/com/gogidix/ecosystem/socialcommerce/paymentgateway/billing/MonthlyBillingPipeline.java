@@ -0,0 +1,525 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentStatus;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox.PaymentEventRecorder;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.retry.RetryClassifier;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.GatewaySimulator;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.LatencyDistribution;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulatedLedger;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulatedPaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulationProfile;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.WebhookDispatcher;
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly Billing Pipeline
+ *
+ * Bills every warehousing account for a month: storage, subscription and
+ * self-storage customers.
+ *
+ * PERFORMANCE IMPLEMENTATION: Staged, checkpointed billing run
+ * - Three stages with their own worker threads: usage aggregation (reads
+ *   usage, I/O bound), invoice computation, payment submission (gateway
+ *   bound). Accounts flow through all three at once instead of one by one
+ * - Bounded queues between the stages: a stage that falls behind blocks the
+ *   one before it, so memory stays flat however many accounts are billed
+ * - Parallelism and queue capacity are set per stage
+ *   ({@code payment.billing.*})
+ * - Every account has a checkpoint row, moved on after invoicing and again
+ *   after the charge. Running the same run ID again skips settled accounts;
+ *   charges carry an idempotency key from the stored invoice ID, so an account
+ *   in flight when a run died is not charged twice
+ * - An account is only marked paid once the gateway reports the charge
+ *   settled. A charge left pending or awaiting customer action (a Paystack
+ *   authorization URL, a Stripe 3-D Secure step) is kept with its transaction
+ *   ID, and the next run checks its status instead of charging again
+ * - Dry runs go through all three stages and charge a private simulator
+ *   (with the {@code simulation} profile's behaviour, or one that approves
+ *   everything) that sends no webhooks, storing nothing
+ *
+ * Metrics:
+ * - payment.billing.stage (timer) by stage, time per account; its rate is the stage throughput
+ * - payment.billing.stage.blocked (timer) by stage, waits for room in the next stage's queue
+ * - payment.billing.stage.failures (counter) by stage, accounts left for the next run
+ */
+@Service
+public class MonthlyBillingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyBillingPipeline.class);
+
+    public static final String STAGE_METRIC = "payment.billing.stage";
+    public static final String STAGE_BLOCKED_METRIC = "payment.billing.stage.blocked";
+    public static final String STAGE_FAILURES_METRIC = "payment.billing.stage.failures";
+
+    static final String AGGREGATE_STAGE = "aggregate";
+    static final String INVOICE_STAGE = "invoice";
+    static final String SUBMIT_STAGE = "submit";
+
+    private static final long FEED_POLL_MILLIS = 100;
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9_-]{1,40}");
+    private static final CurrencyRegistry CURRENCIES = CurrencyRegistry.getInstance();
+
+    // Gateway payment statuses, upper-cased, that mean the money was taken or refused for good
+    private static final Set<String> SETTLED_STATUSES = Set.of("COMPLETED", "SUCCEEDED", "SUCCESS", "CAPTURED", "PAID");
+    private static final Set<String> REFUSED_STATUSES = Set.of("FAILED", "DECLINED", "CANCELLED", "CANCELED", "REVERSED");
+    // Gateway's own statuses, lower-cased, of a charge still waiting on the customer whatever they map to.
+    // Paystack reports an invoice the customer has not paid yet as abandoned, which it maps to CANCELLED
+    private static final Set<String> UNPAID_GATEWAY_STATUSES = Set.of("abandoned");
+
+    private final BillingRunStore store;
+    private final RegionalPaymentRouter paymentRouter;
+    private final SnowflakeIdGenerator idGenerator;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final int aggregationParallelism;
+    private final int invoiceParallelism;
+    private final int submissionParallelism;
+    private final int queueCapacity;
+    private final Duration dryRunLatency;
+
+    private final Set<String> activeRuns = ConcurrentHashMap.newKeySet();
+
+    @Autowired(required = false)
+    private SimulationProfile simulationProfile;
+
+    @Autowired(required = false)
+    private PaymentEventRecorder eventRecorder;
+
+    @Autowired
+    public MonthlyBillingPipeline(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  RegionalPaymentRouter paymentRouter,
+                                  SnowflakeIdGenerator idGenerator,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry registry,
+                                  @Value("${payment.billing.aggregation-parallelism:8}") int aggregationParallelism,
+                                  @Value("${payment.billing.invoice-parallelism:2}") int invoiceParallelism,
+                                  @Value("${payment.billing.submission-parallelism:8}") int submissionParallelism,
+                                  @Value("${payment.billing.queue-capacity:256}") int queueCapacity,
+                                  @Value("${payment.billing.dry-run.latency-ms:0}") long dryRunLatencyMs) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Billing queue capacity must be positive");
+        }
+        this.store = new BillingRunStore(jdbcTemplate, transactionManager);
+        this.paymentRouter = paymentRouter;
+        this.idGenerator = idGenerator;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.aggregationParallelism = aggregationParallelism;
+        this.invoiceParallelism = invoiceParallelism;
+        this.submissionParallelism = submissionParallelism;
+        this.queueCapacity = queueCapacity;
+        this.dryRunLatency = Duration.ofMillis(dryRunLatencyMs);
+    }
+
+    /**
+     * Bill accounts for a period and wait for the run to end
+     *
+     * @param runId Letters, digits, '-' and '_', at most 40; run again with the same ID to resume
+     * @param usage Read from the aggregation stage's threads, concurrently
+     * @throws IllegalArgumentException for an invalid run ID or duplicate accounts
+     * @throws IllegalStateException if a run with this ID is already going in this instance
+     */
+    public BillingRunSummary run(String runId, YearMonth period, List<BillingAccount> accounts,
+                                 BillingUsageSource usage, boolean dryRun) {
+        if (runId == null || !RUN_ID.matcher(runId).matches()) {
+            throw new IllegalArgumentException("Billing run ID must be 1-40 letters, digits, '-' or '_': " + runId);
+        }
+        Set<String> keys = new HashSet<>();
+        for (BillingAccount account : accounts) {
+            if (!keys.add(BillingRunStore.key(account))) {
+                throw new IllegalArgumentException("Account billed twice in one run: " + BillingRunStore.key(account));
+            }
+        }
+        if (!activeRuns.add(runId)) {
+            throw new IllegalStateException("Billing run " + runId + " is already running");
+        }
+        WebhookDispatcher dryRunWebhooks = null;
+        try {
+            Map<String, BillingRunStore.Checkpoint> checkpoints;
+            PaymentGateway dryRunGateway = null;
+            if (dryRun) {
+                checkpoints = new HashMap<>();
+                accounts.forEach(account -> checkpoints.put(BillingRunStore.key(account), new BillingRunStore.Checkpoint(
+                    newInvoiceId(), BillingRunStore.CustomerStatus.PENDING, null, null)));
+                dryRunWebhooks = new WebhookDispatcher();
+                dryRunGateway = dryRunSimulator(accounts.size(), dryRunWebhooks);
+            } else {
+                checkpoints = store.prepare(runId, period, accounts, this::newInvoiceId);
+            }
+            return new Run(runId, period, accounts, usage, checkpoints, dryRunGateway).execute();
+        } finally {
+            if (dryRunWebhooks != null) {
+                dryRunWebhooks.close();
+            }
+            activeRuns.remove(runId);
+        }
+    }
+
+    // ==============================================
+    // STAGES
+    // ==============================================
+
+    /**
+     * Account on its way through the pipeline, with its stored invoice ID
+     *
+     * @param transactionId Charge accepted by an earlier run and not settled yet, or null
+     * @param chargedAmount Amount of that charge as stored when it was invoiced, or null
+     */
+    private record Billable(BillingAccount account, String invoiceId, String transactionId,
+                            BigDecimal chargedAmount) {
+    }
+
+    private record AggregatedUsage(Billable billable, List<UsageRecord> lines) {
+    }
+
+    private record Invoice(Billable billable, List<UsageRecord> lines, BigDecimal total, String currency) {
+    }
+
+    /**
+     * State of one execution of a run
+     */
+    private final class Run {
+
+        private final String runId;
+        private final YearMonth period;
+        private final List<BillingAccount> accounts;
+        private final BillingUsageSource usage;
+        private final Map<String, BillingRunStore.Checkpoint> checkpoints;
+        private final PaymentGateway dryRunGateway;
+        private final boolean dryRun;
+
+        private final Map<String, PaymentGateway> gatewayByCurrency = new ConcurrentHashMap<>();
+        private final Map<String, BigDecimal> invoiced = new ConcurrentHashMap<>();
+        private final Map<String, BigDecimal> charged = new ConcurrentHashMap<>();
+        private final LongAdder paid = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder nothingDue = new LongAdder();
+        private final LongAdder awaitingPayment = new LongAdder();
+        private final AtomicReference<Throwable> fatal = new AtomicReference<>();
+        private final List<PipelineStage<?, ?>> stages = new ArrayList<>();
+
+        Run(String runId, YearMonth period, List<BillingAccount> accounts, BillingUsageSource usage,
+            Map<String, BillingRunStore.Checkpoint> checkpoints, PaymentGateway dryRunGateway) {
+            this.runId = runId;
+            this.period = period;
+            this.accounts = accounts;
+            this.usage = usage;
+            this.checkpoints = checkpoints;
+            this.dryRunGateway = dryRunGateway;
+            this.dryRun = dryRunGateway != null;
+        }
+
+        BillingRunSummary execute() {
+            long started = System.nanoTime();
+            BlockingQueue<Object> toAggregate = new ArrayBlockingQueue<>(queueCapacity);
+            BlockingQueue<Object> toInvoice = new ArrayBlockingQueue<>(queueCapacity);
+            BlockingQueue<Object> toSubmit = new ArrayBlockingQueue<>(queueCapacity);
+
+            stages.add(new PipelineStage<Billable, AggregatedUsage>(AGGREGATE_STAGE, aggregationParallelism,
+                toAggregate, toInvoice, invoiceParallelism, this::aggregate, this::leftOver, this::abort, registry));
+            stages.add(new PipelineStage<AggregatedUsage, Invoice>(INVOICE_STAGE, invoiceParallelism,
+                toInvoice, toSubmit, submissionParallelism, this::invoice,
+                (item, e) -> leftOver(item.billable(), e), this::abort, registry));
+            stages.add(new PipelineStage<Invoice, Void>(SUBMIT_STAGE, submissionParallelism,
+                toSubmit, null, 0, this::submit, (item, e) -> leftOver(item.billable(), e), this::abort, registry));
+            stages.forEach(PipelineStage::start);
+
+            List<Billable> due = new ArrayList<>();
+            for (BillingAccount account : accounts) {
+                BillingRunStore.Checkpoint checkpoint = checkpoints.get(BillingRunStore.key(account));
+                if (!checkpoint.status().isFinal()) {
+                    due.add(new Billable(account, checkpoint.invoiceId(), checkpoint.transactionId(),
+                        checkpoint.amount()));
+                }
+            }
+            long skipped = accounts.size() - due.size();
+            try {
+                feed(toAggregate, due);
+                for (PipelineStage<?, ?> stage : stages) {
+                    stage.join();
+                }
+            } catch (InterruptedException e) {
+                abort(e);
+                Thread.currentThread().interrupt();
+            }
+
+            long settled = skipped + paid.sum() + failed.sum() + nothingDue.sum();
+            long remaining = accounts.size() - settled - awaitingPayment.sum();
+            BillingRunSummary.Status status = dryRun
+                ? BillingRunSummary.Status.DRY_RUN
+                : settled == accounts.size() ? BillingRunSummary.Status.COMPLETED : BillingRunSummary.Status.INCOMPLETE;
+            List<BillingStageSummary> stageSummaries = stages.stream().<BillingStageSummary>map(PipelineStage::summary).toList();
+            BillingRunSummary summary = new BillingRunSummary(runId, period, status, accounts.size(), skipped,
+                paid.sum(), failed.sum(), nothingDue.sum(), awaitingPayment.sum(), remaining,
+                invoiced, charged, stageSummaries, Duration.ofNanos(System.nanoTime() - started));
+            if (!dryRun) {
+                store.finish(runId, status);
+            }
+
+            logger.atInfo()
+                .addKeyValue("runId", runId)
+                .addKeyValue("period", period)
+                .addKeyValue("status", status)
+                .addKeyValue("paid", summary.paid())
+                .addKeyValue("failed", summary.failed())
+                .addKeyValue("awaitingPayment", summary.awaitingPayment())
+                .addKeyValue("remaining", summary.remaining())
+                .addKeyValue("elapsedMs", summary.elapsed().toMillis())
+                .log("Billing run finished");
+            return summary;
+        }
+
+        /**
+         * Queue the accounts for the first stage, giving up if the run is aborted
+         * while the queue is full
+         */
+        private void feed(BlockingQueue<Object> queue, List<Billable> due) throws InterruptedException {
+            List<Object> items = new ArrayList<>(due);
+            for (int i = 0; i < aggregationParallelism; i++) {
+                items.add(PipelineStage.END);
+            }
+            for (Object item : items) {
+                while (!queue.offer(item, FEED_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (fatal.get() != null) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Stage 1: read the period's usage and sum it into invoice lines
+         */
+        private AggregatedUsage aggregate(Billable billable) throws Exception {
+            Map<String, UsageRecord> lines = new LinkedHashMap<>();
+            for (UsageRecord record : usage.usage(billable.account(), period)) {
+                String line = record.description() + "@" + record.unitPrice().stripTrailingZeros().toPlainString();
+                lines.merge(line, record, (a, b) ->
+                    new UsageRecord(a.description(), a.quantity().add(b.quantity()), a.unitPrice()));
+            }
+            return new AggregatedUsage(billable, List.copyOf(lines.values()));
+        }
+
+        /**
+         * Stage 2: price the lines, round to the currency's minor unit and checkpoint the amount
+         *
+         * An account with a charge awaiting payment keeps the amount it was charged,
+         * whatever its usage reads now.
+         */
+        private Invoice invoice(AggregatedUsage usage) {
+            BillingAccount account = usage.billable().account();
+            String currency = account.currency();
+            int minorUnits = CURRENCIES.minorUnits(CURRENCIES.indexOf(currency));
+            if (usage.billable().transactionId() != null) {
+                BigDecimal total = usage.billable().chargedAmount().setScale(minorUnits, RoundingMode.HALF_UP);
+                invoiced.merge(currency, total, BigDecimal::add);
+                return new Invoice(usage.billable(), usage.lines(), total, currency);
+            }
+
+            BigDecimal total = BigDecimal.ZERO;
+            for (UsageRecord line : usage.lines()) {
+                total = total.add(line.amount());
+            }
+            total = total.setScale(minorUnits, RoundingMode.HALF_UP);
+
+            if (total.signum() <= 0) {
+                if (!dryRun) {
+                    store.nothingDue(runId, account, total, currency);
+                }
+                nothingDue.increment();
+                return null;
+            }
+            if (!dryRun) {
+                store.invoiced(runId, account, total, currency);
+            }
+            invoiced.merge(currency, total, BigDecimal::add);
+            return new Invoice(usage.billable(), usage.lines(), total, currency);
+        }
+
+        /**
+         * Stage 3: charge the invoice, or check the charge an earlier run left
+         * awaiting payment; transient failures leave it for the next run
+         */
+        private Void submit(Invoice invoice) {
+            BillingAccount account = invoice.billable().account();
+            PaymentRequest request = paymentRequest(invoice);
+            PaymentGateway gateway = dryRun
+                ? dryRunGateway
+                : gatewayByCurrency.computeIfAbsent(invoice.currency(), paymentRouter::selectGatewayByCurrency);
+            String acceptedCharge = invoice.billable().transactionId();
+            try {
+                PaymentResponse response = acceptedCharge == null
+                    ? gateway.processPayment(request)
+                    : currentStatus(gateway, acceptedCharge);
+                String status = response.getStatus() != null ? response.getStatus().toUpperCase(Locale.ROOT) : "";
+                if (REFUSED_STATUSES.contains(status)) {
+                    throw new PaymentProcessingException("Payment " + response.getTransactionId() + " was " + status,
+                        "PAYMENT_" + status, gateway.getName());
+                }
+                boolean settled = SETTLED_STATUSES.contains(status);
+                if (!dryRun) {
+                    if (settled) {
+                        store.paid(runId, account, response.getTransactionId());
+                    } else {
+                        store.awaitingPayment(runId, account, response.getTransactionId());
+                    }
+                    // A charge checked again is recorded once it settles
+                    if (eventRecorder != null && (acceptedCharge == null || settled)) {
+                        eventRecorder.paymentProcessed(request, response);
+                    }
+                }
+                if (settled) {
+                    paid.increment();
+                    charged.merge(invoice.currency(), invoice.total(), BigDecimal::add);
+                } else {
+                    awaitingPayment.increment();
+                    logger.atInfo()
+                        .addKeyValue("runId", runId)
+                        .addKeyValue("customerId", account.customerId())
+                        .addKeyValue("billingType", account.billingType())
+                        .addKeyValue("transactionId", response.getTransactionId())
+                        .addKeyValue("status", status)
+                        .log("Billing charge awaiting payment");
+                }
+            } catch (RuntimeException e) {
+                if (RetryClassifier.isTransient(e)) {
+                    // Stays INVOICED; the stage counts it as failed and the next run charges it again
+                    throw e;
+                }
+                String errorCode = e instanceof PaymentProcessingException payment && payment.getErrorCode() != null
+                    ? payment.getErrorCode()
+                    : e.getClass().getSimpleName();
+                if (!dryRun) {
+                    store.failed(runId, account, errorCode);
+                    if (eventRecorder != null && e instanceof PaymentProcessingException payment) {
+                        eventRecorder.paymentFailed(request, payment);
+                    }
+                }
+                failed.increment();
+                logger.atWarn()
+                    .addKeyValue("runId", runId)
+                    .addKeyValue("customerId", account.customerId())
+                    .addKeyValue("billingType", account.billingType())
+                    .addKeyValue("errorCode", errorCode)
+                    .log("Billing charge rejected");
+            }
+            return null;
+        }
+
+        private PaymentResponse currentStatus(PaymentGateway gateway, String transactionId) {
+            PaymentStatus status = gateway.getPaymentStatus(transactionId);
+            String gatewayStatus = status.getGatewayStatus() != null
+                ? status.getGatewayStatus().toLowerCase(Locale.ROOT)
+                : "";
+            return PaymentResponse.builder()
+                .transactionId(transactionId)
+                // An invoice the customer has not paid yet stays open, not refused
+                .status(UNPAID_GATEWAY_STATUSES.contains(gatewayStatus) ? "PENDING" : status.getStatus())
+                .amount(status.getAmount())
+                .currency(status.getCurrency())
+                .gateway(status.getGateway())
+                .build();
+        }
+
+        private PaymentRequest paymentRequest(Invoice invoice) {
+            BillingAccount account = invoice.billable().account();
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("billing_run", runId);
+            metadata.put("billing_period", period.toString());
+            metadata.put("billing_type", account.billingType().name());
+            metadata.put("invoice_id", invoice.billable().invoiceId());
+            return PaymentRequest.builder()
+                .orderId("WAREHOUSE_BILLING_" + invoice.billable().invoiceId())
+                .customerId(account.customerId())
+                .customerEmail(account.customerEmail())
+                .amount(invoice.total().doubleValue())
+                .currency(invoice.currency())
+                .paymentMethod(account.paymentMethod())
+                .description("Warehouse " + account.billingType().name().toLowerCase().replace('_', '-')
+                    + " billing - Period: " + period + ", Invoice: " + invoice.billable().invoiceId())
+                .metadata(metadata)
+                .idempotencyKey("invoice_" + invoice.billable().invoiceId())
+                .build();
+        }
+
+        private void leftOver(Billable billable, Exception error) {
+            logger.atWarn()
+                .addKeyValue("runId", runId)
+                .addKeyValue("customerId", billable.account().customerId())
+                .addKeyValue("billingType", billable.account().billingType())
+                .log("Billing account left for the next run: {}", error.getMessage());
+        }
+
+        private void abort(Throwable cause) {
+            if (fatal.compareAndSet(null, cause)) {
+                logger.atError()
+                    .addKeyValue("runId", runId)
+                    .setCause(cause)
+                    .log("Billing run aborted");
+                stages.forEach(PipelineStage::interrupt);
+            }
+        }
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private String newInvoiceId() {
+        return "INV-" + idGenerator.nextBase32();
+    }
+
+    /**
+     * Simulator for a dry run, with its own ledger and no webhooks, so a dry
+     * run never reaches anything outside the pipeline
+     *
+     * Under the simulation profile it declines, fails and lags like the
+     * profile's simulator; otherwise it approves every charge after a fixed latency.
+     */
+    private SimulatedPaymentGateway dryRunSimulator(int accounts, WebhookDispatcher webhooks) {
+        SimulationProfile profile = simulationProfile != null
+            ? new SimulationProfile(simulationProfile.seed(), simulationProfile.latency(),
+                simulationProfile.declineRate(), simulationProfile.errorRate(), simulationProfile.timeoutRate(),
+                simulationProfile.timeout(), null, simulationProfile.webhookDelay())
+            : new SimulationProfile(42, LatencyDistribution.fixed(dryRunLatency),
+                0, 0, 0, Duration.ofSeconds(30), null, LatencyDistribution.fixed(Duration.ZERO));
+        return new SimulatedPaymentGateway(new GatewaySimulator(profile), new SimulatedLedger(Math.max(1, accounts)),
+            webhooks, objectMapper, "billing-dry-run", Set.of());
+    }
+}
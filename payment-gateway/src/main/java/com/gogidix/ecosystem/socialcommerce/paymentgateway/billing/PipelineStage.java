@@ -0,0 +1,191 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * One stage of the billing pipeline
+ *
+ * {@code parallelism} workers take from a bounded input queue and put their
+ * results on the next stage's bounded queue, blocking while it is full, so a
+ * slow stage holds back the ones before it instead of letting work pile up in
+ * memory. Input ends with one {@link #END} per worker; when the last worker
+ * exits it sends one {@code END} per downstream worker.
+ *
+ * @param <I> Items taken from the input queue
+ * @param <O> Items put on the output queue
+ */
+final class PipelineStage<I, O> {
+
+    static final Object END = new Object();
+
+    @FunctionalInterface
+    interface Step<I, O> {
+
+        /**
+         * @return what to pass to the next stage, or null to pass nothing on
+         */
+        O apply(I input) throws Exception;
+    }
+
+    private final String name;
+    private final int parallelism;
+    private final BlockingQueue<Object> input;
+    private final BlockingQueue<Object> output;
+    private final int downstreamParallelism;
+    private final Step<I, O> step;
+    private final BiConsumer<I, Exception> onFailure;
+    private final Consumer<Throwable> abort;
+
+    private final Timer itemTimer;
+    private final Timer blockedTimer;
+    private final Counter failures;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger liveWorkers;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    /**
+     * @param output    Next stage's input, or null for the last stage
+     * @param onFailure Called with items the step threw for; they are not passed on
+     * @param abort     Called when a worker dies of an Error, to stop the whole pipeline
+     */
+    PipelineStage(String name, int parallelism, BlockingQueue<Object> input, BlockingQueue<Object> output,
+                  int downstreamParallelism, Step<I, O> step, BiConsumer<I, Exception> onFailure,
+                  Consumer<Throwable> abort, MeterRegistry registry) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism of billing stage " + name + " must be positive");
+        }
+        this.name = name;
+        this.parallelism = parallelism;
+        this.input = input;
+        this.output = output;
+        this.downstreamParallelism = downstreamParallelism;
+        this.step = step;
+        this.onFailure = onFailure;
+        this.abort = abort;
+        this.liveWorkers = new AtomicInteger(parallelism);
+
+        this.itemTimer = Timer.builder(MonthlyBillingPipeline.STAGE_METRIC)
+            .description("Time a billing stage spends on one account")
+            .tag("stage", name)
+            .register(registry);
+        this.blockedTimer = Timer.builder(MonthlyBillingPipeline.STAGE_BLOCKED_METRIC)
+            .description("Time a billing stage waited for room in the next stage's queue")
+            .tag("stage", name)
+            .register(registry);
+        this.failures = Counter.builder(MonthlyBillingPipeline.STAGE_FAILURES_METRIC)
+            .description("Accounts a billing stage failed on, left for the next run")
+            .tag("stage", name)
+            .register(registry);
+    }
+
+    void start() {
+        startedNanos = System.nanoTime();
+        for (int i = 1; i <= parallelism; i++) {
+            Thread worker = new Thread(this::work, "billing-" + name + "-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    void join() throws InterruptedException {
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * Stop the workers without passing anything more on
+     */
+    void interrupt() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    BillingStageSummary summary() {
+        long finished = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        return new BillingStageSummary(name, parallelism, processed.sum(), failed.sum(),
+            Duration.ofNanos(blockedNanos.sum()), Duration.ofNanos(finished - startedNanos));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void work() {
+        try {
+            while (true) {
+                Object next = input.take();
+                if (next == END) {
+                    return;
+                }
+                I item = (I) next;
+                O result = null;
+                long began = System.nanoTime();
+                try {
+                    result = step.apply(item);
+                    processed.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    failed.increment();
+                    failures.increment();
+                    onFailure.accept(item, e);
+                } finally {
+                    itemTimer.record(System.nanoTime() - began, TimeUnit.NANOSECONDS);
+                }
+                if (result != null && output != null) {
+                    put(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Aborted: the other stages are being stopped too, so send them nothing
+            Thread.currentThread().interrupt();
+        } catch (Error e) {
+            abort.accept(e);
+            throw e;
+        } finally {
+            if (liveWorkers.decrementAndGet() == 0) {
+                finishedNanos = System.nanoTime();
+                endOutput();
+            }
+        }
+    }
+
+    private void put(Object result) throws InterruptedException {
+        if (!output.offer(result)) {
+            long began = System.nanoTime();
+            output.put(result);
+            long waited = System.nanoTime() - began;
+            blockedNanos.add(waited);
+            blockedTimer.record(waited, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void endOutput() {
+        if (output == null || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < downstreamParallelism; i++) {
+                output.put(END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
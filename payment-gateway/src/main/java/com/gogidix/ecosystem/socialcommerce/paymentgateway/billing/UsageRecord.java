@@ -0,0 +1,16 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import java.math.BigDecimal;
+
+/**
+ * One metered charge for a billing period, e.g. 31 pallet-days at 0.85
+ *
+ * Records with the same description and unit price are summed into one
+ * invoice line. A negative quantity is a credit.
+ */
+public record UsageRecord(String description, BigDecimal quantity, BigDecimal unitPrice) {
+
+    public BigDecimal amount() {
+        return quantity.multiply(unitPrice);
+    }
+}
@@ -0,0 +1,192 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.bulkhead;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive concurrency limit for one gateway
+ *
+ * PERFORMANCE IMPLEMENTATION: Gradient limit on observed round-trip time
+ * - Calls are admitted while fewer than {@code limit} are in flight and
+ *   rejected immediately otherwise; nothing ever waits for a slot
+ * - Each sampling window compares the recent RTT with a slow-moving baseline.
+ *   Recent RTT weights each call by the time it held its slot, so a window in
+ *   which slow calls held every slot reads slow even if fast calls from before
+ *   the slowdown also completed in it. Once recent RTT exceeds the baseline by
+ *   more than the tolerance, the provider is queuing our requests and the
+ *   limit shrinks by up to half at once; while it does not, the limit grows by
+ *   a smoothed square root
+ * - A window in which less than half the limit was used is skipped: it says
+ *   nothing about whether a higher limit would be safe
+ * - The baseline drifts towards sustained new latency over {@code longWindow}
+ *   windows and snaps back quickly when the provider recovers
+ *
+ * Admission is a CAS on the in-flight count; samples are three adder increments.
+ * The estimate is recomputed at most once per window by whichever releasing
+ * thread closes it, so the hot path never blocks.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // Windows never stretch beyond this many lengths waiting for samples
+    private static final int MAX_WINDOW_LENGTHS = 10;
+    // Baseline decay per window while the provider is much faster than its baseline
+    private static final double RECOVERY_DECAY = 0.95;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final BulkheadSettings settings;
+    private final LongSupplier clock;
+    private final long windowNanos;
+    private final double longRttAlpha;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejections = new LongAdder();
+    private volatile int limit;
+
+    private final LongAdder windowRttNanos = new LongAdder();
+    // Sum of squared RTTs: each RTT weighted by the slot time it took
+    private final DoubleAdder windowSlotWeightedRtt = new DoubleAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicBoolean closingWindow = new AtomicBoolean();
+    private volatile long windowStart;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double baselineRttNanos;
+
+    public AdaptiveConcurrencyLimit(BulkheadSettings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    public AdaptiveConcurrencyLimit(BulkheadSettings settings, LongSupplier clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.windowNanos = settings.window().toNanos();
+        this.longRttAlpha = 2.0 / (settings.longWindow() + 1);
+        this.limit = settings.initialLimit();
+        this.estimatedLimit = settings.initialLimit();
+        this.windowStart = clock.getAsLong();
+    }
+
+    /**
+     * Take a slot if one is free
+     *
+     * @return false when the limit is reached; the caller must not call the provider
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejections.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        if (current + 1 > windowMaxInFlight.get()) {
+            windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        }
+        return true;
+    }
+
+    /**
+     * Release a slot taken at {@code startNanos} and feed its RTT to the estimate
+     */
+    public void release(long startNanos) {
+        long now = clock.getAsLong();
+        inFlight.decrementAndGet();
+        long rttNanos = now - startNanos;
+        windowRttNanos.add(rttNanos);
+        windowSlotWeightedRtt.add((double) rttNanos * rttNanos);
+        windowSamples.increment();
+
+        long elapsed = now - windowStart;
+        if (elapsed >= windowNanos
+                && (windowSamples.sum() >= settings.minWindowSamples() || elapsed >= windowNanos * MAX_WINDOW_LENGTHS)) {
+            closeWindow(now);
+        }
+    }
+
+    /**
+     * Release a slot without a sample, for calls that never reached the provider
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Baseline RTT in nanoseconds, 0 until the first window closes
+     */
+    public synchronized double getBaselineRttNanos() {
+        return baselineRttNanos;
+    }
+
+    // ==============================================
+    // ESTIMATION
+    // ==============================================
+
+    private void closeWindow(long now) {
+        if (!closingWindow.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (now - windowStart < windowNanos) {
+                return;
+            }
+            long samples = windowSamples.sumThenReset();
+            long rttNanos = windowRttNanos.sumThenReset();
+            double slotWeightedRtt = windowSlotWeightedRtt.sumThenReset();
+            int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+            windowStart = now;
+            if (samples > 0) {
+                update(rttNanos > 0 ? Math.max(1.0, slotWeightedRtt / rttNanos) : 1.0, maxInFlight);
+            }
+        } finally {
+            closingWindow.set(false);
+        }
+    }
+
+    private synchronized void update(double recentRttNanos, int maxInFlight) {
+        if (baselineRttNanos == 0) {
+            baselineRttNanos = recentRttNanos;
+        } else {
+            baselineRttNanos += longRttAlpha * (recentRttNanos - baselineRttNanos);
+            if (baselineRttNanos / recentRttNanos > 2) {
+                baselineRttNanos *= RECOVERY_DECAY;
+            }
+        }
+
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT,
+            Math.min(1.0, settings.rttTolerance() * baselineRttNanos / recentRttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Back off at once, probe upwards gradually
+        double next = target < estimatedLimit
+            ? target
+            : estimatedLimit * (1 - settings.smoothing()) + target * settings.smoothing();
+        estimatedLimit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), next));
+        limit = (int) estimatedLimit;
+    }
+}
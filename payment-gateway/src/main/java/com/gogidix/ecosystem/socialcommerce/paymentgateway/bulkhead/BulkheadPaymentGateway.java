@@ -0,0 +1,176 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.bulkhead;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.GatewayOverloadedException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+
+import java.util.Set;
+
+/**
+ * Bulkhead Payment Gateway
+ *
+ * Decorates a {@link PaymentGateway} with its own {@link AdaptiveConcurrencyLimit},
+ * so a slow provider can hold at most its limit of request threads and the
+ * other gateways keep theirs. Every remote operation takes a slot, released
+ * whatever the call throws; calls over the limit fail at once with
+ * {@link GatewayOverloadedException}. Webhook handling, local metadata lookups
+ * and the availability check pass straight through: the factory checks
+ * availability on every gateway lookup, so a full bulkhead must not make the
+ * gateway look down, nor should lookups spend slots meant for payments.
+ */
+public class BulkheadPaymentGateway implements PaymentGateway {
+
+    private final PaymentGateway delegate;
+    private final AdaptiveConcurrencyLimit limit;
+
+    BulkheadPaymentGateway(PaymentGateway delegate, AdaptiveConcurrencyLimit limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    /**
+     * The undecorated gateway
+     */
+    public PaymentGateway getDelegate() {
+        return delegate;
+    }
+
+    public AdaptiveConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    @Override
+    public PaymentResponse processPayment(PaymentRequest request) {
+        long start = acquire();
+        Throwable failure = null;
+        try {
+            return delegate.processPayment(request);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(start, failure);
+        }
+    }
+
+    @Override
+    public RefundResponse refundPayment(RefundRequest request) {
+        long start = acquire();
+        Throwable failure = null;
+        try {
+            return delegate.refundPayment(request);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(start, failure);
+        }
+    }
+
+    @Override
+    public CaptureResponse capturePayment(String transactionId, Double amount) {
+        long start = acquire();
+        Throwable failure = null;
+        try {
+            return delegate.capturePayment(transactionId, amount);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(start, failure);
+        }
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return delegate.verifyWebhookSignature(payload, signature);
+    }
+
+    @Override
+    public WebhookResponse processWebhook(String payload) {
+        return delegate.processWebhook(payload);
+    }
+
+    @Override
+    public PaymentStatus getPaymentStatus(String transactionId) {
+        long start = acquire();
+        Throwable failure = null;
+        try {
+            return delegate.getPaymentStatus(transactionId);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(start, failure);
+        }
+    }
+
+    @Override
+    public TokenResponse createPaymentToken(CardDetails cardDetails) {
+        long start = acquire();
+        Throwable failure = null;
+        try {
+            return delegate.createPaymentToken(cardDetails);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(start, failure);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Set<String> getSupportedPaymentMethods() {
+        return delegate.getSupportedPaymentMethods();
+    }
+
+    @Override
+    public Set<String> getSupportedCurrencies() {
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public PayoutResponse initiatePayout(PayoutRequest request) {
+        long start = acquire();
+        Throwable failure = null;
+        try {
+            return delegate.initiatePayout(request);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(start, failure);
+        }
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private long acquire() {
+        if (!limit.tryAcquire()) {
+            throw new GatewayOverloadedException(delegate.getName(), limit.getLimit());
+        }
+        return limit.now();
+    }
+
+    private void release(long start, Throwable failure) {
+        // Rejected input never reached the provider and says nothing about its latency,
+        // nor does an Error thrown inside this JVM
+        if (failure instanceof IllegalArgumentException || failure instanceof Error) {
+            limit.releaseWithoutSample();
+        } else {
+            limit.release(start);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.bulkhead;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Concurrency limit settings for one gateway
+ *
+ * Read from {@code payment.bulkhead.gateways.<gateway>.*}, falling back to
+ * {@code payment.bulkhead.*} and then to the defaults below.
+ *
+ * @param initialLimit     Concurrent calls allowed before any latency has been observed
+ * @param minLimit         Floor the limit never drops below, however slow the provider gets
+ * @param maxLimit         Ceiling; the share of request threads one gateway may ever hold
+ * @param window           Minimum length of a sampling window
+ * @param minWindowSamples Samples a window waits for once its length has passed, for at most ten lengths
+ * @param longWindow       Windows averaged into the baseline RTT
+ * @param rttTolerance     Ratio of recent to baseline RTT accepted before the limit is cut
+ * @param smoothing        Weight of each new estimate when raising the limit; cuts apply at once
+ */
+public record BulkheadSettings(
+    int initialLimit,
+    int minLimit,
+    int maxLimit,
+    Duration window,
+    int minWindowSamples,
+    int longWindow,
+    double rttTolerance,
+    double smoothing
+) {
+
+    public static final BulkheadSettings DEFAULTS =
+        new BulkheadSettings(20, 2, 64, Duration.ofSeconds(1), 10, 60, 1.5, 0.2);
+
+    public BulkheadSettings {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                "Bulkhead limits need 1 <= min <= initial <= max, got " + minLimit + "/" + initialLimit + "/" + maxLimit);
+        }
+        if (window.isNegative() || window.isZero() || minWindowSamples < 1 || longWindow < 1) {
+            throw new IllegalArgumentException("Bulkhead windows must be positive");
+        }
+        if (rttTolerance < 1 || smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Bulkhead needs rtt-tolerance >= 1 and 0 < smoothing <= 1");
+        }
+    }
+
+    public static BulkheadSettings from(Environment environment, String gateway) {
+        String prefix = "payment.bulkhead.";
+        String override = prefix + "gateways." + gateway.toLowerCase(Locale.ROOT) + ".";
+        return new BulkheadSettings(
+            property(environment, prefix, override, "initial-limit", Integer.class, DEFAULTS.initialLimit()),
+            property(environment, prefix, override, "min-limit", Integer.class, DEFAULTS.minLimit()),
+            property(environment, prefix, override, "max-limit", Integer.class, DEFAULTS.maxLimit()),
+            Duration.ofMillis(property(environment, prefix, override, "window-ms", Long.class,
+                DEFAULTS.window().toMillis())),
+            property(environment, prefix, override, "min-window-samples", Integer.class, DEFAULTS.minWindowSamples()),
+            property(environment, prefix, override, "long-window", Integer.class, DEFAULTS.longWindow()),
+            property(environment, prefix, override, "rtt-tolerance", Double.class, DEFAULTS.rttTolerance()),
+            property(environment, prefix, override, "smoothing", Double.class, DEFAULTS.smoothing()));
+    }
+
+    private static <T> T property(Environment environment, String prefix, String override, String name,
+                                  Class<T> type, T defaultValue) {
+        return environment.getProperty(override + name, type,
+            environment.getProperty(prefix + name, type, defaultValue));
+    }
+}
@@ -0,0 +1,95 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.bulkhead;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Payment Gateway Bulkheads
+ *
+ * Builds {@link BulkheadPaymentGateway} decorators and owns one
+ * {@link AdaptiveConcurrencyLimit} per gateway name, so a gateway registered
+ * under several types (a simulator standing in for real providers) shares
+ * one limit.
+ *
+ * Metrics:
+ * - payment.gateway.concurrency.limit (gauge) by gateway
+ * - payment.gateway.concurrency.inflight (gauge) by gateway
+ * - payment.gateway.concurrency.rejections (counter) by gateway
+ */
+@Component
+@ConditionalOnProperty(name = "payment.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class GatewayBulkheads {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayBulkheads.class);
+
+    static final String LIMIT_METRIC = "payment.gateway.concurrency.limit";
+    static final String INFLIGHT_METRIC = "payment.gateway.concurrency.inflight";
+    static final String REJECTIONS_METRIC = "payment.gateway.concurrency.rejections";
+
+    private final MeterRegistry registry;
+    private final Environment environment;
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public GatewayBulkheads(MeterRegistry registry, Environment environment) {
+        this.registry = registry;
+        this.environment = environment;
+    }
+
+    /**
+     * Wrap a gateway with its adaptive concurrency limit
+     */
+    public PaymentGateway protect(PaymentGateway gateway) {
+        if (gateway instanceof BulkheadPaymentGateway) {
+            return gateway;
+        }
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(gateway.getName(), this::createLimit);
+        return new BulkheadPaymentGateway(gateway, limit);
+    }
+
+    /**
+     * Concurrency limits keyed by gateway name, in name order
+     */
+    public Map<String, AdaptiveConcurrencyLimit> getLimits() {
+        return Collections.unmodifiableMap(limits);
+    }
+
+    private AdaptiveConcurrencyLimit createLimit(String gateway) {
+        BulkheadSettings settings = BulkheadSettings.from(environment, gateway);
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(settings);
+
+        Gauge.builder(LIMIT_METRIC, limit, AdaptiveConcurrencyLimit::getLimit)
+            .description("Concurrent calls currently allowed to the payment gateway")
+            .tag("gateway", gateway)
+            .register(registry);
+        Gauge.builder(INFLIGHT_METRIC, limit, AdaptiveConcurrencyLimit::getInFlight)
+            .description("Calls holding a payment gateway bulkhead slot")
+            .tag("gateway", gateway)
+            .register(registry);
+        FunctionCounter.builder(REJECTIONS_METRIC, limit, AdaptiveConcurrencyLimit::getRejections)
+            .description("Calls rejected because the payment gateway was at its concurrency limit")
+            .tag("gateway", gateway)
+            .register(registry);
+
+        logger.atInfo()
+            .addKeyValue("gateway", gateway)
+            .addKeyValue("initialLimit", settings.initialLimit())
+            .addKeyValue("minLimit", settings.minLimit())
+            .addKeyValue("maxLimit", settings.maxLimit())
+            .log("Payment gateway bulkhead created");
+        return limit;
+    }
+}
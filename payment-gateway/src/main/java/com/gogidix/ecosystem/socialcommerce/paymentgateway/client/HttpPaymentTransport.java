@@ -0,0 +1,181 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.client;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import org.springframework.http.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP Payment Transport
+ *
+ * Calls the payment gateway API over REST, for services that do not host it.
+ * Each call carries the caller's bearer token when it is made while serving
+ * an OAuth2-authenticated request, and the configured service token
+ * otherwise (scheduled jobs, message listeners).
+ *
+ * PERFORMANCE IMPLEMENTATION: Conditional supported-methods reads
+ * - Keeps the last methods response and its ETag per country code
+ * - Revalidates with If-None-Match; a 304 carries no body and the kept response is reused
+ */
+class HttpPaymentTransport implements PaymentTransport {
+
+    // Country codes are two letters; bounds what arbitrary codes can add
+    private static final int MAX_CACHED_COUNTRIES = 512;
+
+    private final RestTemplate restTemplate;
+    private final String gatewayBaseUrl;
+    private final String serviceToken;
+    private final Map<String, CachedMethods> methodsCache = new ConcurrentHashMap<>();
+
+    /**
+     * @param serviceToken Bearer token for calls made outside an authenticated request; blank for none
+     */
+    HttpPaymentTransport(RestTemplate restTemplate, String gatewayBaseUrl, String serviceToken) {
+        this.restTemplate = restTemplate;
+        this.gatewayBaseUrl = gatewayBaseUrl;
+        this.serviceToken = serviceToken == null || serviceToken.isBlank() ? null : serviceToken;
+    }
+
+    @Override
+    public PaymentResponse processPayment(PaymentRequest request) {
+        return restTemplate.exchange(
+            gatewayBaseUrl + "/api/v1/payments/process",
+            HttpMethod.POST,
+            new HttpEntity<>(request, createHeaders()),
+            PaymentResponse.class
+        ).getBody();
+    }
+
+    @Override
+    public PaymentStatus getPaymentStatus(String transactionId) {
+        return restTemplate.exchange(
+            gatewayBaseUrl + "/api/v1/payments/status/" + transactionId,
+            HttpMethod.GET,
+            new HttpEntity<>(createHeaders()),
+            PaymentStatus.class
+        ).getBody();
+    }
+
+    @Override
+    public RefundResponse refundPayment(RefundRequest request) {
+        return restTemplate.exchange(
+            gatewayBaseUrl + "/api/v1/payments/refund",
+            HttpMethod.POST,
+            new HttpEntity<>(request, createHeaders()),
+            RefundResponse.class
+        ).getBody();
+    }
+
+    @Override
+    public PayoutResponse initiatePayout(PayoutRequest request) {
+        return restTemplate.exchange(
+            gatewayBaseUrl + "/api/v1/payments/payout",
+            HttpMethod.POST,
+            new HttpEntity<>(request, createHeaders()),
+            PayoutResponse.class
+        ).getBody();
+    }
+
+    @Override
+    public PaymentMetrics getPaymentMetrics(String entityId, String entityType, String dateRange) {
+        String url = String.format("%s/api/v1/payments/metrics?entityId=%s&entityType=%s&dateRange=%s",
+            gatewayBaseUrl, entityId, entityType, dateRange);
+
+        return restTemplate.exchange(
+            url,
+            HttpMethod.GET,
+            new HttpEntity<>(createHeaders()),
+            PaymentMetrics.class
+        ).getBody();
+    }
+
+    @Override
+    public PaymentMethodsResponse getSupportedMethods(String countryCode) {
+        String key = String.valueOf(countryCode);
+        CachedMethods cached = methodsCache.get(key);
+        HttpHeaders headers = createHeaders();
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+
+        ResponseEntity<PaymentMethodsResponse> response = restTemplate.exchange(
+            gatewayBaseUrl + "/api/v1/payments/methods/" + countryCode,
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            PaymentMethodsResponse.class
+        );
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return copy(cached.methods());
+        }
+
+        PaymentMethodsResponse methods = response.getBody();
+        String etag = response.getHeaders().getETag();
+        if (methods != null && etag != null && (cached != null || methodsCache.size() < MAX_CACHED_COUNTRIES)) {
+            methodsCache.put(key, new CachedMethods(etag, copy(methods)));
+        } else if (cached != null) {
+            methodsCache.remove(key);
+        }
+        return methods;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        ResponseEntity<String> response = restTemplate.exchange(
+            gatewayBaseUrl + "/actuator/health",
+            HttpMethod.GET,
+            new HttpEntity<>(createHeaders()),
+            String.class
+        );
+        return response.getStatusCode() == HttpStatus.OK;
+    }
+
+    @Override
+    public Mode mode() {
+        return Mode.HTTP;
+    }
+
+    // Callers get their own copy, so changes to it cannot leak into the cache
+    private static PaymentMethodsResponse copy(PaymentMethodsResponse methods) {
+        return new PaymentMethodsResponse(
+            methods.getCountryCode(),
+            methods.getGateway(),
+            methods.getRegion(),
+            methods.getPaymentMethods() == null ? null : new LinkedHashSet<>(methods.getPaymentMethods()),
+            methods.getCurrencies() == null ? null : new LinkedHashSet<>(methods.getCurrencies()),
+            methods.getMethodDetails() == null ? null : new ArrayList<>(methods.getMethodDetails())
+        );
+    }
+
+    private record CachedMethods(String etag, PaymentMethodsResponse methods) {
+    }
+
+    private HttpHeaders createHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("User-Agent", "UnifiedPaymentClient/1.0");
+        String token = bearerToken();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return headers;
+    }
+
+    /**
+     * The access token of the request this thread is serving, so the gateway
+     * authorizes the call as the caller; else the service token
+     */
+    private String bearerToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof AbstractOAuth2TokenAuthenticationToken<?> caller) {
+            return caller.getToken().getTokenValue();
+        }
+        return serviceToken;
+    }
+}
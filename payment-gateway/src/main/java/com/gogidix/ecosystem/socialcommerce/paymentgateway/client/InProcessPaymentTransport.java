@@ -0,0 +1,291 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.controller.PaymentController;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * In-Process Payment Transport
+ *
+ * Used by {@link UnifiedPaymentClient} when the gateway it is pointed at is
+ * this instance, e.g. PaymentMetricsController and the domain integrations
+ * calling back into payment-gateway.
+ *
+ * PERFORMANCE IMPLEMENTATION: Short-circuit for co-located calls
+ * - Calls the {@link PaymentController} bean directly instead of serializing
+ *   the request, crossing a loopback socket and going through the servlet
+ *   filter chain a second time
+ * - Keeps the endpoint's security: the caller's authentication on this thread
+ *   is what the call runs as; {@code /api/v1/payments/**} still requires it,
+ *   and the controller's {@code @PreAuthorize} rules still apply because the
+ *   call goes through the bean's method security proxy
+ * - Request bodies are validated as {@code @Valid} would over HTTP
+ * - Rejections surface as the same HttpClientErrorException / HttpServerErrorException,
+ *   with the controller's JSON error body, that RestTemplate would throw
+ * - Not applied again: the rate limiter and the other servlet filters, which
+ *   already ran for the request that led to this call
+ */
+@Component
+public class InProcessPaymentTransport implements PaymentTransport {
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final PaymentController paymentController;
+    private final PermissionEvaluator permissionEvaluator;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private HealthEndpoint healthEndpoint;
+
+    @Autowired
+    public InProcessPaymentTransport(PaymentController paymentController,
+                                     PermissionEvaluator permissionEvaluator,
+                                     Validator validator,
+                                     ObjectMapper objectMapper) {
+        this.paymentController = paymentController;
+        this.permissionEvaluator = permissionEvaluator;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    // ==============================================
+    // PAYMENT CONTROLLER ENDPOINTS
+    // ==============================================
+
+    @Override
+    public PaymentResponse processPayment(PaymentRequest request) {
+        return call(() -> {
+            Authentication caller = authenticated();
+            validate(request);
+            return paymentController.processPayment(request, caller);
+        }, PaymentResponse.class);
+    }
+
+    @Override
+    public PaymentStatus getPaymentStatus(String transactionId) {
+        return call(() -> paymentController.getPaymentStatus(transactionId, null, authenticated()), PaymentStatus.class);
+    }
+
+    @Override
+    public RefundResponse refundPayment(RefundRequest request) {
+        return call(() -> {
+            Authentication caller = authenticated();
+            validate(request);
+            return paymentController.processRefund(request, caller);
+        }, RefundResponse.class);
+    }
+
+    @Override
+    public PayoutResponse initiatePayout(PayoutRequest request) {
+        return call(() -> {
+            Authentication caller = authenticated();
+            validate(request);
+            return paymentController.initiatePayout(request, caller);
+        }, PayoutResponse.class);
+    }
+
+    /**
+     * Public endpoint: no authentication needed
+     */
+    @Override
+    public PaymentMethodsResponse getSupportedMethods(String countryCode) {
+        return call(() -> paymentController.getSupportedMethods(countryCode, null), PaymentMethodsResponse.class);
+    }
+
+    /**
+     * The metrics endpoint is itself built on this client, so over loopback
+     * it called itself until a timeout. No service in payment-gateway holds
+     * base metrics; callers get the empty metrics the client already falls
+     * back to, after the endpoint's ANALYTICS READ check.
+     */
+    @Override
+    public PaymentMetrics getPaymentMetrics(String entityId, String entityType, String dateRange) {
+        return call(() -> {
+            if (!permissionEvaluator.hasPermission(authenticated(), "ANALYTICS", "READ")) {
+                throw new AccessDeniedException("Access is denied");
+            }
+            return ResponseEntity.ok(PaymentMetrics.empty());
+        }, PaymentMetrics.class);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return healthEndpoint == null || Status.UP.equals(healthEndpoint.health().getStatus());
+    }
+
+    @Override
+    public Mode mode() {
+        return Mode.IN_PROCESS;
+    }
+
+    // ==============================================
+    // CO-LOCATION
+    // ==============================================
+
+    /**
+     * Whether a gateway base URL addresses this instance: a loopback or local
+     * host name on the port this server listens on, under its context path
+     */
+    public static boolean targetsLocalServer(String gatewayBaseUrl, int serverPort, String contextPath) {
+        URI uri;
+        try {
+            uri = URI.create(gatewayBaseUrl);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (uri.getHost() == null || serverPort <= 0) {
+            return false;
+        }
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return port == serverPort && isLocalHost(uri.getHost()) && samePath(uri.getPath(), contextPath);
+    }
+
+    private static boolean isLocalHost(String host) {
+        if ("localhost".equalsIgnoreCase(host)) {
+            return true;
+        }
+        try {
+            InetAddress local = InetAddress.getLocalHost();
+            if (host.equalsIgnoreCase(local.getHostName())) {
+                return true;
+            }
+            // Only loopback addresses or this host's own address count
+            InetAddress address = InetAddress.getByName(host);
+            return address.isLoopbackAddress() || address.equals(local);
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static boolean samePath(String path, String contextPath) {
+        return strip(path).equals(strip(contextPath));
+    }
+
+    private static String strip(String path) {
+        if (path == null) {
+            return "";
+        }
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    /**
+     * Run an endpoint and translate its outcome to what RestTemplate would have returned or thrown
+     */
+    private <T> T call(Supplier<ResponseEntity<?>> endpoint, Class<T> type) {
+        ResponseEntity<?> response;
+        try {
+            response = endpoint.get();
+        } catch (AuthenticationException e) {
+            throw rejected(HttpStatus.UNAUTHORIZED, new HttpHeaders(),
+                Map.of("error", "Unauthorized", "message", e.getMessage()));
+        } catch (AccessDeniedException e) {
+            // Anonymous callers are asked to authenticate, as ExceptionTranslationFilter does
+            HttpStatus status = isAnonymous(currentAuthentication())
+                ? HttpStatus.UNAUTHORIZED
+                : HttpStatus.FORBIDDEN;
+            throw rejected(status, new HttpHeaders(), Map.of("error", status.getReasonPhrase(), "message", e.getMessage()));
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw rejected(response.getStatusCode(), response.getHeaders(), response.getBody());
+        }
+        Object body = response.getBody();
+        if (body instanceof byte[] json) {
+            // Precomputed JSON is read as the HTTP client would read it
+            return read(json, type);
+        }
+        // Map bodies take the same shape they would get from the JSON reader
+        return body == null || type.isInstance(body) ? type.cast(body) : objectMapper.convertValue(body, type);
+    }
+
+    private <T> T read(byte[] json, Class<T> type) {
+        if (json.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new RestClientException("Could not read " + type.getSimpleName() + " response", e);
+        }
+    }
+
+    private Authentication authenticated() {
+        Authentication authentication = currentAuthentication();
+        if (isAnonymous(authentication)) {
+            throw new AccessDeniedException("Full authentication is required to access this resource");
+        }
+        return authentication;
+    }
+
+    private static boolean isAnonymous(Authentication authentication) {
+        return authentication == null || TRUST_RESOLVER.isAnonymous(authentication) || !authentication.isAuthenticated();
+    }
+
+    private static Authentication currentAuthentication() {
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private void validate(Object body) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            List<String> details = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+            throw rejected(HttpStatus.BAD_REQUEST, new HttpHeaders(),
+                Map.of("error", "Validation failed", "details", details));
+        }
+    }
+
+    private RestClientResponseException rejected(HttpStatusCode status, HttpHeaders headers, Object body) {
+        byte[] bytes;
+        try {
+            bytes = body == null ? new byte[0]
+                : body instanceof byte[] json ? json
+                : objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            bytes = new byte[0];
+        }
+        String statusText = status instanceof HttpStatus known ? known.getReasonPhrase() : "";
+        return status.is4xxClientError()
+            ? HttpClientErrorException.create(status, statusText, headers, bytes, StandardCharsets.UTF_8)
+            : HttpServerErrorException.create(status, statusText, headers, bytes, StandardCharsets.UTF_8);
+    }
+}
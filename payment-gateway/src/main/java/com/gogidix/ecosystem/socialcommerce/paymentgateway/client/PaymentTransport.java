@@ -0,0 +1,59 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.client;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+
+/**
+ * Payment Transport
+ *
+ * How {@link UnifiedPaymentClient} reaches the payment gateway API. Every
+ * transport reports a rejected call the way the HTTP one does: a 4xx as
+ * {@link org.springframework.web.client.HttpClientErrorException}, a 5xx as
+ * {@link org.springframework.web.client.HttpServerErrorException}, so callers
+ * cannot tell which one served them.
+ */
+public interface PaymentTransport {
+
+    enum Mode {
+        // In-process when the client points at this instance, HTTP otherwise
+        AUTO,
+        HTTP,
+        IN_PROCESS
+    }
+
+    /**
+     * POST /api/v1/payments/process
+     */
+    PaymentResponse processPayment(PaymentRequest request);
+
+    /**
+     * GET /api/v1/payments/status/{transactionId}
+     */
+    PaymentStatus getPaymentStatus(String transactionId);
+
+    /**
+     * POST /api/v1/payments/refund
+     */
+    RefundResponse refundPayment(RefundRequest request);
+
+    /**
+     * POST /api/v1/payments/payout
+     */
+    PayoutResponse initiatePayout(PayoutRequest request);
+
+    /**
+     * GET /api/v1/payments/metrics
+     */
+    PaymentMetrics getPaymentMetrics(String entityId, String entityType, String dateRange);
+
+    /**
+     * GET /api/v1/payments/methods/{countryCode}
+     */
+    PaymentMethodsResponse getSupportedMethods(String countryCode);
+
+    /**
+     * GET /actuator/health answered 200
+     */
+    boolean isAvailable();
+
+    Mode mode();
+}
@@ -1,8 +1,10 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.client;
 
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
@@ -23,22 +25,44 @@ import java.util.logging.Logger;
  * - Consistent error handling
  * - Unified security model
  * - Cross-domain payment analytics
+ * 
+ * PERFORMANCE IMPLEMENTATION: Co-located transport
+ * - Calls from inside payment-gateway itself are dispatched in-process
+ *   ({@link InProcessPaymentTransport}) when the base URL points at this
+ *   instance; all other callers go over HTTP ({@code payment.gateway.transport})
  */
 @Component
 public class UnifiedPaymentClient {
     
     private static final Logger logger = Logger.getLogger(UnifiedPaymentClient.class.getName());
     
-    @Value("${payment.gateway.base-url:http://localhost:8086}")
-    private String gatewayBaseUrl;
-    
     @Value("${payment.gateway.timeout:30000}")
     private int timeout;
     
-    private final RestTemplate restTemplate;
+    private final String gatewayBaseUrl;
+    private final PaymentTransport.Mode transportMode;
+    private final HttpPaymentTransport httpTransport;
+    private final InProcessPaymentTransport inProcessTransport;
+    private final Environment environment;
+    
+    private volatile PaymentTransport transport;
     
-    public UnifiedPaymentClient(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    @Autowired
+    public UnifiedPaymentClient(RestTemplate restTemplate,
+                                ObjectProvider<InProcessPaymentTransport> inProcessTransport,
+                                Environment environment,
+                                @Value("${payment.gateway.base-url:http://localhost:8086}") String gatewayBaseUrl,
+                                @Value("${payment.gateway.transport:AUTO}") PaymentTransport.Mode transportMode,
+                                @Value("${payment.gateway.service-token:}") String serviceToken) {
+        this.gatewayBaseUrl = gatewayBaseUrl;
+        this.transportMode = transportMode;
+        this.httpTransport = new HttpPaymentTransport(restTemplate, gatewayBaseUrl, serviceToken);
+        this.inProcessTransport = inProcessTransport.getIfAvailable();
+        this.environment = environment;
+        
+        if (transportMode == PaymentTransport.Mode.IN_PROCESS && this.inProcessTransport == null) {
+            throw new IllegalStateException("In-process payment transport requested but the payment gateway API is not hosted here");
+        }
     }
     
     // ==============================================
@@ -53,18 +77,10 @@ public class UnifiedPaymentClient {
         try {
             logger.info("Processing payment for order: " + request.getOrderId());
             
-            HttpHeaders headers = createHeaders();
-            HttpEntity<PaymentRequest> entity = new HttpEntity<>(request, headers);
-            
-            ResponseEntity<PaymentResponse> response = restTemplate.exchange(
-                gatewayBaseUrl + "/api/v1/payments/process",
-                HttpMethod.POST,
-                entity,
-                PaymentResponse.class
-            );
+            PaymentResponse response = transport().processPayment(request);
             
-            logger.info("Payment processed successfully: " + response.getBody().getTransactionId());
-            return response.getBody();
+            logger.info("Payment processed successfully: " + response.getTransactionId());
+            return response;
             
         } catch (HttpClientErrorException e) {
             logger.severe("Payment processing failed: " + e.getMessage());
@@ -78,17 +94,7 @@ public class UnifiedPaymentClient {
      */
     public PaymentStatus getPaymentStatus(String transactionId) {
         try {
-            HttpHeaders headers = createHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<PaymentStatus> response = restTemplate.exchange(
-                gatewayBaseUrl + "/api/v1/payments/status/" + transactionId,
-                HttpMethod.GET,
-                entity,
-                PaymentStatus.class
-            );
-            
-            return response.getBody();
+            return transport().getPaymentStatus(transactionId);
             
         } catch (HttpClientErrorException e) {
             logger.severe("Payment status check failed: " + e.getMessage());
@@ -104,18 +110,10 @@ public class UnifiedPaymentClient {
         try {
             logger.info("Processing refund for transaction: " + request.getTransactionId());
             
-            HttpHeaders headers = createHeaders();
-            HttpEntity<RefundRequest> entity = new HttpEntity<>(request, headers);
-            
-            ResponseEntity<RefundResponse> response = restTemplate.exchange(
-                gatewayBaseUrl + "/api/v1/payments/refund",
-                HttpMethod.POST,
-                entity,
-                RefundResponse.class
-            );
+            RefundResponse response = transport().refundPayment(request);
             
-            logger.info("Refund processed successfully: " + response.getBody().getRefundId());
-            return response.getBody();
+            logger.info("Refund processed successfully: " + response.getRefundId());
+            return response;
             
         } catch (HttpClientErrorException e) {
             logger.severe("Refund processing failed: " + e.getMessage());
@@ -135,18 +133,10 @@ public class UnifiedPaymentClient {
         try {
             logger.info("Initiating payout for vendor/courier: " + request.getVendorId());
             
-            HttpHeaders headers = createHeaders();
-            HttpEntity<PayoutRequest> entity = new HttpEntity<>(request, headers);
+            PayoutResponse response = transport().initiatePayout(request);
             
-            ResponseEntity<PayoutResponse> response = restTemplate.exchange(
-                gatewayBaseUrl + "/api/v1/payments/payout",
-                HttpMethod.POST,
-                entity,
-                PayoutResponse.class
-            );
-            
-            logger.info("Payout initiated successfully: " + response.getBody().getPayoutId());
-            return response.getBody();
+            logger.info("Payout initiated successfully: " + response.getPayoutId());
+            return response;
             
         } catch (HttpClientErrorException e) {
             logger.severe("Payout initiation failed: " + e.getMessage());
@@ -255,20 +245,7 @@ public class UnifiedPaymentClient {
      */
     public PaymentMetrics getPaymentMetrics(String entityId, String entityType, String dateRange) {
         try {
-            HttpHeaders headers = createHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            
-            String url = String.format("%s/api/v1/payments/metrics?entityId=%s&entityType=%s&dateRange=%s",
-                gatewayBaseUrl, entityId, entityType, dateRange);
-            
-            ResponseEntity<PaymentMetrics> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                PaymentMetrics.class
-            );
-            
-            return response.getBody();
+            return transport().getPaymentMetrics(entityId, entityType, dateRange);
             
         } catch (HttpClientErrorException e) {
             logger.warning("Payment metrics retrieval failed: " + e.getMessage());
@@ -280,11 +257,32 @@ public class UnifiedPaymentClient {
     // HELPER METHODS
     // ==============================================
     
-    private HttpHeaders createHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("User-Agent", "UnifiedPaymentClient/1.0");
-        return headers;
+    /**
+     * Transport for the next call. Under AUTO the choice is made once the
+     * server's port is known; until then calls go over HTTP.
+     */
+    PaymentTransport transport() {
+        PaymentTransport selected = transport;
+        if (selected != null) {
+            return selected;
+        }
+        if (transportMode == PaymentTransport.Mode.HTTP || inProcessTransport == null) {
+            selected = httpTransport;
+        } else if (transportMode == PaymentTransport.Mode.IN_PROCESS) {
+            selected = inProcessTransport;
+        } else {
+            Integer localPort = environment.getProperty("local.server.port", Integer.class);
+            if (localPort == null) {
+                return httpTransport;
+            }
+            String contextPath = environment.getProperty("server.servlet.context-path", "");
+            selected = InProcessPaymentTransport.targetsLocalServer(gatewayBaseUrl, localPort, contextPath)
+                ? inProcessTransport
+                : httpTransport;
+        }
+        transport = selected;
+        logger.info("Payment gateway client using " + selected.mode() + " transport for " + gatewayBaseUrl);
+        return selected;
     }
     
     /**
@@ -292,17 +290,7 @@ public class UnifiedPaymentClient {
      */
     public boolean isGatewayAvailable() {
         try {
-            HttpHeaders headers = createHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                gatewayBaseUrl + "/actuator/health",
-                HttpMethod.GET,
-                entity,
-                String.class
-            );
-            
-            return response.getStatusCode() == HttpStatus.OK;
+            return transport().isAvailable();
             
         } catch (Exception e) {
             logger.warning("Payment gateway health check failed: " + e.getMessage());
@@ -312,20 +300,11 @@ public class UnifiedPaymentClient {
     
     /**
      * Get supported payment methods for country
+     * Over HTTP, repeat calls revalidate with the last ETag and reuse the body on 304
      */
     public PaymentMethodsResponse getSupportedMethods(String countryCode) {
         try {
-            HttpHeaders headers = createHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<PaymentMethodsResponse> response = restTemplate.exchange(
-                gatewayBaseUrl + "/api/v1/payments/methods/" + countryCode,
-                HttpMethod.GET,
-                entity,
-                PaymentMethodsResponse.class
-            );
-            
-            return response.getBody();
+            return transport().getSupportedMethods(countryCode);
             
         } catch (HttpClientErrorException e) {
             logger.severe("Payment methods retrieval failed: " + e.getMessage());
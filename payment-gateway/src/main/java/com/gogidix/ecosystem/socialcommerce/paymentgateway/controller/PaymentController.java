@@ -2,11 +2,18 @@ package com.gogidix.ecosystem.socialcommerce.paymentgateway.controller;
 
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.*;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.GatewayOverloadedException;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.methods.SupportedMethodsCatalog;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox.PaymentEventRecorder;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.validation.PaymentRequestValidator;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.InputSanitizer;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulatedPaymentGateway;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,7 +21,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
-import java.util.logging.Logger;
 
 /**
  * Payment Controller
@@ -30,7 +36,7 @@ import java.util.logging.Logger;
 @CrossOrigin(origins = {"${app.cors.allowed-origins}"})
 public class PaymentController {
     
-    private static final Logger logger = Logger.getLogger(PaymentController.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
     
     @Autowired
     private RegionalPaymentRouter paymentRouter;
@@ -44,6 +50,12 @@ public class PaymentController {
     @Autowired
     private InputSanitizer inputSanitizer;
     
+    @Autowired
+    private PaymentEventRecorder eventRecorder;
+    
+    @Autowired
+    private SupportedMethodsCatalog methodsCatalog;
+    
     /**
      * Process payment with automatic regional routing
      * SECURITY: Requires PAYMENT_PROCESS permission with domain validation
@@ -55,7 +67,7 @@ public class PaymentController {
             // SECURITY FIX: Comprehensive input validation
             PaymentRequestValidator.ValidationResult validation = requestValidator.validatePaymentRequest(request);
             if (!validation.isValid()) {
-                logger.warning("Payment request validation failed: " + validation.getErrorMessage());
+                logger.warn("Payment request validation failed: {}", validation.getErrorMessage());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of(
                         "error", "Validation failed",
@@ -64,8 +76,10 @@ public class PaymentController {
                     ));
             }
             
-            logger.info("Processing payment for order: " + inputSanitizer.sanitizeForLogging(request.getOrderId()) + 
-                       ", country: " + inputSanitizer.sanitizeForLogging(request.getCountryCode()));
+            logger.atInfo()
+                .addKeyValue("orderId", inputSanitizer.sanitizeForLogging(request.getOrderId()))
+                .addKeyValue("country", inputSanitizer.sanitizeForLogging(request.getCountryCode()))
+                .log("Processing payment");
             
             // Route to appropriate gateway based on country
             PaymentGateway gateway = paymentRouter.routePayment(request.getCountryCode());
@@ -73,13 +87,23 @@ public class PaymentController {
             // Process payment
             PaymentResponse response = gateway.processPayment(request);
             response.setGateway(gateway.getName());
+            eventRecorder.paymentProcessed(request, response);
             
-            logger.info("Payment processed successfully: " + inputSanitizer.sanitizeForLogging(response.getTransactionId()));
+            logger.atInfo()
+                .addKeyValue("transactionId", inputSanitizer.sanitizeForLogging(response.getTransactionId()))
+                .addKeyValue("gateway", response.getGateway())
+                .log("Payment processed successfully");
             
             return ResponseEntity.ok(response);
             
+        } catch (GatewayOverloadedException e) {
+            return gatewayOverloaded(e);
         } catch (PaymentProcessingException e) {
-            logger.severe("Payment processing failed: " + e.getMessage());
+            logger.atError()
+                .addKeyValue("errorCode", e.getErrorCode())
+                .addKeyValue("gateway", e.getGatewayName())
+                .log("Payment processing failed: {}", e.getMessage());
+            eventRecorder.paymentFailed(request, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of(
                     "error", "Payment processing failed",
@@ -88,7 +112,7 @@ public class PaymentController {
                     "gateway", e.getGatewayName()
                 ));
         } catch (Exception e) {
-            logger.severe("Unexpected payment error: " + e.getMessage());
+            logger.error("Unexpected payment error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of(
                     "error", "Internal server error",
@@ -122,8 +146,10 @@ public class PaymentController {
             
             return ResponseEntity.ok(status);
             
+        } catch (GatewayOverloadedException e) {
+            return gatewayOverloaded(e);
         } catch (Exception e) {
-            logger.severe("Payment status check failed: " + e.getMessage());
+            logger.error("Payment status check failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of(
                     "error", "Status check failed",
@@ -140,20 +166,28 @@ public class PaymentController {
     @PostMapping("/refund")
     public ResponseEntity<?> processRefund(@Valid @RequestBody RefundRequest request, Authentication authentication) {
         try {
-            logger.info("Processing refund for transaction: " + request.getTransactionId());
+            logger.atInfo()
+                .addKeyValue("transactionId", inputSanitizer.sanitizeForLogging(request.getTransactionId()))
+                .log("Processing refund");
             
             // Determine gateway from transaction ID
             PaymentGateway gateway = determineGatewayFromTransactionId(request.getTransactionId());
             
             RefundResponse response = gateway.refundPayment(request);
             response.setGateway(gateway.getName());
+            eventRecorder.refundProcessed(request, response);
             
-            logger.info("Refund processed successfully: " + response.getRefundId());
+            logger.atInfo()
+                .addKeyValue("refundId", response.getRefundId())
+                .addKeyValue("gateway", response.getGateway())
+                .log("Refund processed successfully");
             
             return ResponseEntity.ok(response);
             
+        } catch (GatewayOverloadedException e) {
+            return gatewayOverloaded(e);
         } catch (PaymentProcessingException e) {
-            logger.severe("Refund processing failed: " + e.getMessage());
+            logger.error("Refund processing failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of(
                     "error", "Refund processing failed",
@@ -180,8 +214,10 @@ public class PaymentController {
             
             return ResponseEntity.ok(response);
             
+        } catch (GatewayOverloadedException e) {
+            return gatewayOverloaded(e);
         } catch (Exception e) {
-            logger.severe("Payment capture failed: " + e.getMessage());
+            logger.error("Payment capture failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of(
                     "error", "Capture failed",
@@ -203,11 +239,14 @@ public class PaymentController {
             
             PayoutResponse response = gateway.initiatePayout(request);
             response.setGateway(gateway.getName());
+            eventRecorder.payoutInitiated(request, response);
             
             return ResponseEntity.ok(response);
             
+        } catch (GatewayOverloadedException e) {
+            return gatewayOverloaded(e);
         } catch (Exception e) {
-            logger.severe("Payout initiation failed: " + e.getMessage());
+            logger.error("Payout initiation failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of(
                     "error", "Payout failed",
@@ -229,7 +268,7 @@ public class PaymentController {
             
             // Verify webhook signature
             if (!paymentGateway.verifyWebhookSignature(payload, signature)) {
-                logger.warning("Invalid webhook signature from " + gateway);
+                logger.warn("Invalid webhook signature from {}", inputSanitizer.sanitizeForLogging(gateway));
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid signature"));
             }
@@ -240,7 +279,7 @@ public class PaymentController {
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            logger.severe("Webhook processing failed: " + e.getMessage());
+            logger.error("Webhook processing failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of(
                     "error", "Webhook processing failed",
@@ -259,25 +298,29 @@ public class PaymentController {
     
     /**
      * Get supported payment methods for a country
+     * Served from the precomputed catalog; a matching If-None-Match gets 304
      */
     @GetMapping("/methods/{countryCode}")
-    public ResponseEntity<?> getSupportedMethods(@PathVariable String countryCode) {
-        try {
-            PaymentGateway gateway = paymentRouter.routePayment(countryCode);
-            
-            return ResponseEntity.ok(Map.of(
-                "gateway", gateway.getName(),
-                "paymentMethods", gateway.getSupportedPaymentMethods(),
-                "currencies", gateway.getSupportedCurrencies()
+    public ResponseEntity<byte[]> getSupportedMethods(
+            @PathVariable String countryCode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return methodsCatalog.lookup(countryCode).respond(ifNoneMatch);
+    }
+    
+    // Gateway at its concurrency limit: nothing was sent, the client may retry
+    private ResponseEntity<?> gatewayOverloaded(GatewayOverloadedException e) {
+        logger.atWarn()
+            .addKeyValue("gateway", e.getGatewayName())
+            .addKeyValue("limit", e.getLimit())
+            .log("Payment gateway overloaded, request rejected");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of(
+                "error", "Payment gateway busy",
+                "message", e.getMessage(),
+                "errorCode", e.getErrorCode(),
+                "gateway", e.getGatewayName()
             ));
-            
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(Map.of(
-                    "error", "Country not supported",
-                    "message", e.getMessage()
-                ));
-        }
     }
     
     // Helper method to determine gateway from transaction ID format
@@ -286,6 +329,8 @@ public class PaymentController {
             return gatewayFactory.getGateway(PaymentGatewayType.STRIPE);
         } else if (transactionId.startsWith("PAYSTACK_")) {
             return gatewayFactory.getGateway(PaymentGatewayType.PAYSTACK);
+        } else if (transactionId.startsWith(SimulatedPaymentGateway.ID_PREFIX)) {
+            return gatewayFactory.getGateway(PaymentGatewayType.SIMULATED);
         } else {
             throw new PaymentProcessingException("Unable to determine payment gateway from transaction ID");
         }
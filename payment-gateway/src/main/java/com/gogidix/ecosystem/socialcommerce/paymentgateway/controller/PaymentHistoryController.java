@@ -0,0 +1,113 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.controller;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.history.HistoryCursor;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.history.PaymentHistoryQuery;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.history.PaymentHistoryService;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.PaymentSecurityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Payment History Controller
+ *
+ * "My payments" lists for customers and vendors, served from the local
+ * transaction journal with opaque keyset cursors.
+ *
+ * ENDPOINTS:
+ * - GET /api/v1/payments/history - One page, newest first; follow nextCursor
+ * - GET /api/v1/payments/history/export - Streamed JSON, up to export.max-rows rows
+ *
+ * Callers see their own history; roles that can view all payments may name
+ * any customerId, or omit it to list across customers.
+ */
+@RestController
+@RequestMapping("/api/v1/payments/history")
+@CrossOrigin(origins = {"${app.cors.allowed-origins}"})
+public class PaymentHistoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentHistoryController.class);
+
+    @Autowired
+    private PaymentHistoryService historyService;
+
+    @Autowired
+    private PaymentSecurityService securityService;
+
+    @PreAuthorize("hasPermission('PAYMENT', 'READ') and @paymentSecurityService.canViewPaymentHistory(authentication, #customerId)")
+    @GetMapping
+    public ResponseEntity<?> getHistory(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String gateway,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        try {
+            PaymentHistoryQuery query = query(customerId, status, gateway, currency, from, to, cursor, authentication);
+            return ResponseEntity.ok(historyService.page(query, limit));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    @PreAuthorize("hasPermission('PAYMENT', 'READ') and @paymentSecurityService.canViewPaymentHistory(authentication, #customerId)")
+    @GetMapping("/export")
+    public ResponseEntity<?> exportHistory(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String gateway,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication) {
+        PaymentHistoryService.Export export;
+        try {
+            export = historyService.export(
+                query(customerId, status, gateway, currency, from, to, cursor, authentication));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+
+        logger.atInfo()
+            .addKeyValue("user", authentication.getName())
+            .addKeyValue("customerId", customerId)
+            .log("Exporting payment history");
+        StreamingResponseBody body = export::writeTo;
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    // Without a customerId a caller is limited to their own history unless they may view all payments
+    private PaymentHistoryQuery query(String customerId, String status, String gateway, String currency,
+                                      Instant from, Instant to, String cursor, Authentication authentication) {
+        String party = customerId != null || securityService.canViewAllPayments(authentication)
+            ? customerId
+            : authentication.getName();
+        return new PaymentHistoryQuery(party, status, gateway, currency, from, to,
+            cursor != null ? HistoryCursor.decode(cursor) : null);
+    }
+
+    private ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(Map.of(
+                "error", "Invalid history request",
+                "message", e.getMessage()
+            ));
+    }
+}
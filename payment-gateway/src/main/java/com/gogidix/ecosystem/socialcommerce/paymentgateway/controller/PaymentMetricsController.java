@@ -28,7 +28,6 @@ import java.util.logging.Logger;
  * - GET /api/v1/payments/metrics/warehouse/{warehouseId} - Warehouse-specific metrics
  * - GET /api/v1/payments/metrics/courier/{entityId} - Courier-specific metrics
  * - GET /api/v1/payments/metrics/dashboard - Multi-domain dashboard data
- * - GET /api/v1/payments/methods/{countryCode} - Regional payment methods
  */
 @RestController
 @RequestMapping("/api/v1/payments")
@@ -302,33 +301,6 @@ public class PaymentMetricsController {
         }
     }
     
-    // ==============================================
-    // PAYMENT METHODS AND REGIONAL SUPPORT
-    // ==============================================
-    
-    /**
-     * Get supported payment methods for country with detailed info
-     * SECURITY: Public endpoint - no specific authorization required
-     */
-    @GetMapping("/methods/{countryCode}")
-    public ResponseEntity<?> getSupportedPaymentMethods(@PathVariable String countryCode) {
-        try {
-            logger.info("Retrieving payment methods for country: " + countryCode);
-            
-            PaymentMethodsResponse methods = paymentClient.getSupportedMethods(countryCode);
-            
-            return ResponseEntity.ok(methods);
-            
-        } catch (Exception e) {
-            logger.severe("Payment methods retrieval failed: " + e.getMessage());
-            return ResponseEntity.badRequest()
-                .body(Map.of(
-                    "error", "Payment methods retrieval failed",
-                    "message", e.getMessage()
-                ));
-        }
-    }
-    
     // ==============================================
     // HELPER METHODS
     // ==============================================
@@ -79,6 +79,11 @@ public class PaymentRequest {
     // Shipping address
     private Address shippingAddress;
     
+    // Same key, same outcome: lets a failed write be retried without repeating it
+    @Size(min = 16, max = 64, message = "Idempotency key must be between 16 and 64 characters")
+    @Pattern(regexp = "[A-Za-z0-9_-]+", message = "Idempotency key may only contain letters, digits, '-' and '_'")
+    private String idempotencyKey;
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -23,4 +23,6 @@ public class PaymentStatus {
     private Date lastUpdated;
     private String gateway;
     private String paymentMethod;
+    // Status as the gateway reported it, before mapping to {@link #status}
+    private String gatewayStatus;
 }
\ No newline at end of file
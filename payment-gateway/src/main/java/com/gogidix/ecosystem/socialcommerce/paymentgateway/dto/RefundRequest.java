@@ -45,4 +45,9 @@ public class RefundRequest {
     private String customerId;
     
     private Boolean isPartialRefund;
+    
+    // Same key, same outcome: lets a failed write be retried without repeating it
+    @Size(min = 16, max = 64, message = "Idempotency key must be between 16 and 64 characters")
+    @Pattern(regexp = "[A-Za-z0-9_-]+", message = "Idempotency key may only contain letters, digits, '-' and '_'")
+    private String idempotencyKey;
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Outbox Event Entity
+ * Payment lifecycle event awaiting publication to Kafka. Written in the same
+ * transaction as its {@link PaymentRecord}; deleted by the outbox relay once
+ * the event has been committed to Kafka.
+ */
+@Entity
+@Table(name = "payment_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"id"})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Payment record the event describes
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    // Kafka record key; events for one key stay in order on one partition
+    @Column(nullable = false)
+    private String aggregateKey;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(length = 64)
+    private String correlationId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
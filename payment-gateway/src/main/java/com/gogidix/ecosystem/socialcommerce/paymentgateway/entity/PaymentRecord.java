@@ -0,0 +1,68 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Payment Record Entity
+ * Local, append-only record of a payment, refund or payout outcome
+ * returned by a gateway. Schema owned by Flyway (V1).
+ */
+@Entity
+@Table(name = "payment_records")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"id"})
+public class PaymentRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Operation operation;
+
+    @Column(nullable = false, length = 30)
+    private String gateway;
+
+    // Gateway transaction, refund or payout ID
+    @Column
+    private String gatewayReference;
+
+    @Column(length = 100)
+    private String orderId;
+
+    // Customer ID for payments and refunds, vendor ID for payouts
+    @Column(length = 100)
+    private String partyId;
+
+    @Column(nullable = false, length = 30)
+    private String status;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(length = 3)
+    private String currency;
+
+    @Column(length = 100)
+    private String errorCode;
+
+    @Column(length = 64)
+    private String correlationId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public enum Operation {
+        PAYMENT, REFUND, PAYOUT
+    }
+}
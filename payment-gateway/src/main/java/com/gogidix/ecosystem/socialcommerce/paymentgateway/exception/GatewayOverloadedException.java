@@ -0,0 +1,39 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.exception;
+
+/**
+ * Gateway Overloaded Exception
+ * 
+ * Thrown instead of calling a provider whose concurrency limit is reached.
+ * Nothing was sent, so the client may safely retry after a short pause. The
+ * gateway retry layer does not: it treats this as terminal rather than
+ * retrying into a full bulkhead. Rejections are expected under load, so no
+ * stack trace is captured.
+ */
+public class GatewayOverloadedException extends PaymentProcessingException {
+    
+    public static final String ERROR_CODE = "GATEWAY_OVERLOADED";
+    
+    private final int limit;
+    
+    public GatewayOverloadedException(String gatewayName, int limit) {
+        super("Payment gateway is busy, please retry shortly", ERROR_CODE, gatewayName);
+        this.limit = limit;
+    }
+    
+    /**
+     * Concurrency limit in force when the call was rejected
+     */
+    public int getLimit() {
+        return limit;
+    }
+    
+    @Override
+    public boolean isRetryable() {
+        return true;
+    }
+    
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -44,4 +44,11 @@ public class PaymentProcessingException extends RuntimeException {
     public String getGatewayName() {
         return gatewayName;
     }
+    
+    /**
+     * Whether the same request may be sent again without risk of a double charge
+     */
+    public boolean isRetryable() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -1,25 +1,30 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.filter;
 
 import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.logging.Logger;
 
 /**
  * Security Headers Filter
  * 
  * Adds additional security headers to all HTTP responses
  * Complements the Spring Security headers configuration
+ * Request and correlation IDs are handled by the shared CorrelationIdFilter
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class SecurityHeadersFilter implements Filter {
     
-    private static final Logger logger = Logger.getLogger(SecurityHeadersFilter.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(SecurityHeadersFilter.class);
+    
+    private static final String CACHEABLE_PUBLIC_PATH = "/api/v1/payments/methods/";
     
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
@@ -38,23 +43,28 @@ public class SecurityHeadersFilter implements Filter {
             httpResponse.setHeader("X-Download-Options", "noopen");
             httpResponse.setHeader("X-Content-Duration", "0");
             
-            // Cache control for sensitive data
-            httpResponse.setHeader("Cache-Control", "no-store, no-cache, must-revalidate, proxy-revalidate");
-            httpResponse.setHeader("Pragma", "no-cache");
-            httpResponse.setHeader("Expires", "0");
+            // Cache control for sensitive data; public catalog responses set their own
+            if (!isCacheablePublicResource(request)) {
+                httpResponse.setHeader("Cache-Control", "no-store, no-cache, must-revalidate, proxy-revalidate");
+                httpResponse.setHeader("Pragma", "no-cache");
+                httpResponse.setHeader("Expires", "0");
+            }
             
             // Remove server information
             httpResponse.setHeader("Server", "");
             httpResponse.setHeader("X-Powered-By", "");
-            
-            // Add request ID for tracking
-            String requestId = java.util.UUID.randomUUID().toString();
-            httpResponse.setHeader("X-Request-ID", requestId);
         }
         
         chain.doFilter(request, response);
     }
     
+    // Supported payment methods: public, ETag-validated (see SupportedMethodsCatalog)
+    private static boolean isCacheablePublicResource(ServletRequest request) {
+        return request instanceof HttpServletRequest httpRequest
+            && "GET".equals(httpRequest.getMethod())
+            && httpRequest.getRequestURI().startsWith(httpRequest.getContextPath() + CACHEABLE_PUBLIC_PATH);
+    }
+    
     @Override
     public void destroy() {
         logger.info("Destroying Security Headers Filter");
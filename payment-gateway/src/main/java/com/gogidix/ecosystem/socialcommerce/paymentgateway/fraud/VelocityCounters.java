@@ -0,0 +1,186 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding-window payment counts for one rule, keyed by 64-bit identifier hashes
+ *
+ * PERFORMANCE IMPLEMENTATION:
+ * - Fixed memory: two flat {@link AtomicLongArray}s, one key and
+ *   {@code buckets} counters per slot ({@code 8 * (buckets + 1)} bytes); no
+ *   per-identifier objects, no locks, no resizing
+ * - The window is split into {@code buckets} time buckets kept as a ring per
+ *   slot; each counter packs its bucket number with its count, so a stale
+ *   bucket is recognised and restarted by the CAS that increments it, with no
+ *   sweeping
+ * - Slots are split into stripes of {@value #STRIPE_WIDTH} as in the rate
+ *   limiter's slot table; a full stripe gives up the slot counted least recently
+ *
+ * The window slides a bucket at a time: a count covers the current bucket and
+ * the {@code buckets - 1} before it. Keys are hashes, so two identifiers
+ * colliding on all 64 bits share a count; a slot taken over concurrently may
+ * keep one stray increment of the identifier it replaced.
+ */
+final class VelocityCounters {
+
+    static final int STRIPE_WIDTH = 8;
+
+    private static final long EMPTY = 0L;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray counters;
+    private final int buckets;
+    private final long bucketMillis;
+    private final int stripeMask;
+    private final LongAdder evictions = new LongAdder();
+
+    VelocityCounters(int capacity, int buckets, long windowMillis) {
+        if (capacity < STRIPE_WIDTH) {
+            throw new IllegalArgumentException("Velocity table capacity must be at least " + STRIPE_WIDTH);
+        }
+        if (buckets < 2) {
+            throw new IllegalArgumentException("Velocity windows need at least 2 buckets");
+        }
+        int stripes = Integer.highestOneBit(capacity / STRIPE_WIDTH);
+        this.keys = new AtomicLongArray(stripes * STRIPE_WIDTH);
+        this.counters = new AtomicLongArray(stripes * STRIPE_WIDTH * buckets);
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * Count one payment for {@code key} at {@code nowMillis}
+     *
+     * @return payments counted for the key in the window, this one included
+     */
+    long increment(long key, long nowMillis) {
+        long bucket = nowMillis / bucketMillis;
+        int base = slot(key, bucket) * buckets;
+        int current = base + (int) (bucket % buckets);
+
+        long count;
+        while (true) {
+            long value = counters.get(current);
+            count = bucketOf(value) == bucket ? Math.min(countOf(value) + 1, COUNT_MASK) : 1;
+            if (counters.compareAndSet(current, value, pack(bucket, count))) {
+                break;
+            }
+        }
+
+        long oldest = bucket - buckets;
+        for (int i = base; i < base + buckets; i++) {
+            if (i != current) {
+                long value = counters.get(i);
+                if (bucketOf(value) > oldest && bucketOf(value) < bucket) {
+                    count += countOf(value);
+                }
+            }
+        }
+        return count;
+    }
+
+    private int slot(long key, long bucket) {
+        int base = ((int) (key >>> 32) & stripeMask) * STRIPE_WIDTH;
+        for (int i = base; i < base + STRIPE_WIDTH; i++) {
+            long current = keys.get(i);
+            if (current == key) {
+                return i;
+            }
+            if (current == EMPTY) {
+                if (keys.compareAndSet(i, EMPTY, key)) {
+                    return i;
+                }
+                if (keys.get(i) == key) {
+                    return i;
+                }
+            }
+        }
+
+        int victim = base;
+        long oldest = lastBucket(base);
+        for (int i = base + 1; i < base + STRIPE_WIDTH; i++) {
+            long last = lastBucket(i);
+            if (last < oldest) {
+                oldest = last;
+                victim = i;
+            }
+        }
+        keys.set(victim, key);
+        for (int i = victim * buckets; i < (victim + 1) * buckets; i++) {
+            counters.set(i, 0L);
+        }
+        evictions.increment();
+        return victim;
+    }
+
+    private long lastBucket(int slot) {
+        long last = 0;
+        for (int i = slot * buckets; i < (slot + 1) * buckets; i++) {
+            last = Math.max(last, bucketOf(counters.get(i)));
+        }
+        return last;
+    }
+
+    int capacity() {
+        return keys.length();
+    }
+
+    int buckets() {
+        return buckets;
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private static long pack(long bucket, long count) {
+        return bucket << COUNT_BITS | count;
+    }
+
+    private static long bucketOf(long value) {
+        return value >>> COUNT_BITS;
+    }
+
+    private static long countOf(long value) {
+        return value & COUNT_MASK;
+    }
+
+    // ==============================================
+    // SNAPSHOT
+    // ==============================================
+
+    /**
+     * Write every slot; concurrent increments may or may not be included
+     */
+    void writeTo(DataOutput out) throws IOException {
+        for (int i = 0; i < keys.length(); i++) {
+            long key = keys.get(i);
+            out.writeLong(key);
+            if (key != EMPTY) {
+                for (int j = i * buckets; j < (i + 1) * buckets; j++) {
+                    out.writeLong(counters.get(j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Read slots written by {@link #writeTo} from a table of the same shape
+     */
+    void readFrom(DataInput in) throws IOException {
+        for (int i = 0; i < keys.length(); i++) {
+            long key = in.readLong();
+            keys.set(i, key);
+            for (int j = i * buckets; j < (i + 1) * buckets; j++) {
+                counters.set(j, key != EMPTY ? in.readLong() : 0L);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud;
+
+/**
+ * Outcome of a velocity check
+ *
+ * @param allowed Whether the payment is within every rule
+ * @param rule    The first rule the payment broke, null if allowed
+ * @param count   Payments counted by that rule in its window, this one included
+ */
+public record VelocityDecision(boolean allowed, VelocityRule rule, long count) {
+
+    public static final VelocityDecision ALLOWED = new VelocityDecision(true, null, 0);
+
+    static VelocityDecision blocked(VelocityRule rule, long count) {
+        return new VelocityDecision(false, rule, count);
+    }
+}
@@ -0,0 +1,69 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * What a velocity rule counts payments by
+ *
+ * Card numbers never reach this service (cards are tokenized by the
+ * provider), so cards are counted by the provider's card fingerprint. IP
+ * address and device come from the checkout that took the payment, since the
+ * caller of this API is usually another service.
+ */
+public enum VelocityDimension {
+
+    CARD {
+        @Override
+        String identifier(PaymentRequest request) {
+            return metadata(request, CARD_FINGERPRINT_KEY);
+        }
+    },
+    CUSTOMER {
+        @Override
+        String identifier(PaymentRequest request) {
+            return request.getCustomerId();
+        }
+    },
+    IP {
+        @Override
+        String identifier(PaymentRequest request) {
+            return metadata(request, IP_ADDRESS_KEY);
+        }
+    },
+    DEVICE {
+        @Override
+        String identifier(PaymentRequest request) {
+            return metadata(request, DEVICE_ID_KEY);
+        }
+    };
+
+    public static final String CARD_FINGERPRINT_KEY = "card_fingerprint";
+    public static final String IP_ADDRESS_KEY = "ip_address";
+    public static final String DEVICE_ID_KEY = "device_id";
+
+    /**
+     * The payment's identifier in this dimension, null if it has none
+     */
+    abstract String identifier(PaymentRequest request);
+
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static VelocityDimension fromKey(String key) {
+        for (VelocityDimension dimension : values()) {
+            if (dimension.key().equals(key)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Unknown velocity dimension: " + key);
+    }
+
+    private static String metadata(PaymentRequest request, String key) {
+        Map<String, String> metadata = request.getMetadata();
+        return metadata == null ? null : metadata.get(key);
+    }
+}
@@ -0,0 +1,347 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Payment Velocity Engine
+ *
+ * Counts payments per card, customer, IP address and device and blocks the
+ * ones over a configured rate, e.g. a sixth payment on one card within ten
+ * minutes. Called from the payment authorization check, before any provider
+ * or database work.
+ *
+ * PERFORMANCE IMPLEMENTATION: In-memory sliding windows on the hot path
+ * - Rules ({@code payment.fraud.velocity.rules}) are parsed once at startup
+ *   into flat arrays grouped by dimension; a check is one hash per identifier
+ *   and one lock-free {@link VelocityCounters} update per rule, with no
+ *   allocation when allowed
+ * - Memory is fixed by {@code table-capacity} and {@code buckets} per rule;
+ *   when a table is full the identifier counted least recently is dropped
+ * - Identifiers are kept only as salted 64-bit hashes, never in clear
+ * - With {@code snapshot-path} set, counts are written to disk periodically
+ *   and on shutdown and read back at startup, so a restart does not reset
+ *   every window; a snapshot taken with another salt or rule shape is ignored
+ *
+ * Every checked payment is counted, blocked ones included, so retrying a
+ * blocked card keeps it blocked until its window drains.
+ *
+ * Metrics:
+ * - payment.fraud.velocity.blocked (counter) by rule
+ * - payment.fraud.velocity.evictions (counter) by rule, identifiers dropped from a full table
+ */
+@Component
+@ConditionalOnProperty(name = "payment.fraud.velocity.enabled", havingValue = "true", matchIfMissing = true)
+public class VelocityEngine implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VelocityEngine.class);
+
+    static final String BLOCKED_METRIC = "payment.fraud.velocity.blocked";
+    static final String EVICTIONS_METRIC = "payment.fraud.velocity.evictions";
+
+    private static final int SNAPSHOT_MAGIC = 0x56454C4F; // "VELO"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final VelocityDimension[] DIMENSIONS = VelocityDimension.values();
+
+    private final VelocityRule[] rules;
+    private final int[][] rulesByDimension;
+    private final long[] limits;
+    private final VelocityCounters[] counters;
+    private final Counter[] blocked;
+    private final long[] seeds;
+    private final long saltCheck;
+    private final LongSupplier clock;
+    private final Path snapshotPath;
+    private final long snapshotIntervalNanos;
+
+    private volatile boolean running;
+    private volatile Thread snapshotWriter;
+
+    @Autowired
+    public VelocityEngine(MeterRegistry registry,
+                          @Value("${payment.fraud.velocity.rules:}") String rules,
+                          @Value("${payment.fraud.velocity.table-capacity:65536}") int tableCapacity,
+                          @Value("${payment.fraud.velocity.buckets:6}") int buckets,
+                          @Value("${payment.fraud.velocity.hash-salt:}") String hashSalt,
+                          @Value("${payment.fraud.velocity.snapshot-path:}") String snapshotPath,
+                          @Value("${payment.fraud.velocity.snapshot-interval-ms:60000}") long snapshotIntervalMs) {
+        this(registry, VelocityRule.parseAll(rules), tableCapacity, buckets, hashSalt,
+            snapshotPath.isBlank() ? null : Path.of(snapshotPath), snapshotIntervalMs, System::currentTimeMillis);
+    }
+
+    VelocityEngine(MeterRegistry registry,
+                   List<VelocityRule> rules,
+                   int tableCapacity,
+                   int buckets,
+                   String hashSalt,
+                   Path snapshotPath,
+                   long snapshotIntervalMs,
+                   LongSupplier clock) {
+        if (snapshotPath != null && snapshotIntervalMs <= 0) {
+            throw new IllegalArgumentException("Velocity snapshot interval must be positive");
+        }
+        this.rules = rules.toArray(VelocityRule[]::new);
+        this.rulesByDimension = new int[DIMENSIONS.length][];
+        for (VelocityDimension dimension : DIMENSIONS) {
+            rulesByDimension[dimension.ordinal()] = IntStream.range(0, this.rules.length)
+                .filter(i -> this.rules[i].dimension() == dimension)
+                .toArray();
+        }
+        this.limits = new long[this.rules.length];
+        this.counters = new VelocityCounters[this.rules.length];
+        this.blocked = new Counter[this.rules.length];
+        for (int i = 0; i < this.rules.length; i++) {
+            VelocityRule rule = this.rules[i];
+            VelocityCounters table = new VelocityCounters(tableCapacity, buckets, rule.window().toMillis());
+            limits[i] = rule.limit();
+            counters[i] = table;
+            blocked[i] = Counter.builder(BLOCKED_METRIC)
+                .description("Payments blocked by a velocity rule")
+                .tag("rule", rule.name())
+                .register(registry);
+            FunctionCounter.builder(EVICTIONS_METRIC, table, VelocityCounters::evictions)
+                .description("Identifiers dropped from a full velocity table")
+                .tag("rule", rule.name())
+                .register(registry);
+        }
+
+        // A random salt keeps hashes private but makes snapshots unusable after a restart
+        String salt = hashSalt == null || hashSalt.isEmpty() ? randomSalt() : hashSalt;
+        this.seeds = new long[DIMENSIONS.length];
+        for (VelocityDimension dimension : DIMENSIONS) {
+            seeds[dimension.ordinal()] = fold(fold(0xcbf29ce484222325L, salt), dimension.key());
+        }
+        this.saltCheck = mix(fold(0xcbf29ce484222325L, salt));
+        this.clock = clock;
+        this.snapshotPath = snapshotPath;
+        this.snapshotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMs);
+
+        logger.atInfo()
+            .addKeyValue("rules", rules.stream().map(VelocityRule::name).toList())
+            .addKeyValue("tableCapacity", this.rules.length == 0 ? 0 : counters[0].capacity())
+            .addKeyValue("snapshotPath", snapshotPath)
+            .log("Payment velocity engine configured");
+    }
+
+    // ==============================================
+    // CHECK
+    // ==============================================
+
+    /**
+     * Count a payment against every rule
+     *
+     * @return the first rule broken, in configured order, or {@link VelocityDecision#ALLOWED}
+     */
+    public VelocityDecision check(PaymentRequest request) {
+        long now = clock.getAsLong();
+        int broken = -1;
+        long brokenCount = 0;
+
+        for (int dimension = 0; dimension < rulesByDimension.length; dimension++) {
+            int[] indexes = rulesByDimension[dimension];
+            if (indexes.length == 0) {
+                continue;
+            }
+            String identifier = DIMENSIONS[dimension].identifier(request);
+            if (identifier == null || identifier.isEmpty()) {
+                continue;
+            }
+            long hash = hash(seeds[dimension], identifier);
+            for (int i : indexes) {
+                long count = counters[i].increment(hash, now);
+                if (count > limits[i] && (broken < 0 || i < broken)) {
+                    broken = i;
+                    brokenCount = count;
+                }
+            }
+        }
+
+        if (broken < 0) {
+            return VelocityDecision.ALLOWED;
+        }
+        blocked[broken].increment();
+        return VelocityDecision.blocked(rules[broken], brokenCount);
+    }
+
+    public List<VelocityRule> getRules() {
+        return List.of(rules);
+    }
+
+    // Salted FNV-1a, then a 64-bit finalizer so near-identical identifiers spread
+    private static long hash(long seed, String identifier) {
+        long h = mix(fold(seed, identifier));
+        return h == 0L ? 1L : h;
+    }
+
+    private static long fold(long h, String text) {
+        h = (h ^ ':') * 0x100000001b3L;
+        for (int i = 0; i < text.length(); i++) {
+            h = (h ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static String randomSalt() {
+        byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        return HexFormat.of().formatHex(salt);
+    }
+
+    // ==============================================
+    // SNAPSHOT
+    // ==============================================
+
+    /**
+     * Write all counts to the snapshot file, replacing it atomically
+     */
+    void writeSnapshot() throws IOException {
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(saltCheck);
+            out.writeInt(rules.length);
+            for (int i = 0; i < rules.length; i++) {
+                out.writeUTF(rules[i].name());
+                out.writeInt(counters[i].capacity());
+                out.writeInt(counters[i].buckets());
+                counters[i].writeTo(out);
+            }
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restore counts from the snapshot file, if it matches this configuration
+     *
+     * @return rules restored
+     */
+    int readSnapshot() throws IOException {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION || in.readLong() != saltCheck) {
+                logger.atWarn()
+                    .addKeyValue("snapshotPath", snapshotPath)
+                    .log("Velocity snapshot written by another version or salt; starting empty");
+                return 0;
+            }
+            int restored = 0;
+            int count = in.readInt();
+            // Tables are written in rule order; stop at the first one this configuration does not have
+            for (int i = 0; i < count && i < rules.length; i++) {
+                String name = in.readUTF();
+                int capacity = in.readInt();
+                int buckets = in.readInt();
+                if (!name.equals(rules[i].name()) || capacity != counters[i].capacity()
+                        || buckets != counters[i].buckets()) {
+                    break;
+                }
+                counters[i].readFrom(in);
+                restored++;
+            }
+            return restored;
+        }
+    }
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    @Override
+    public void start() {
+        if (snapshotPath != null) {
+            try {
+                int restored = readSnapshot();
+                logger.atInfo()
+                    .addKeyValue("snapshotPath", snapshotPath)
+                    .addKeyValue("rulesRestored", restored)
+                    .log("Velocity counts restored from snapshot");
+            } catch (IOException e) {
+                logger.atWarn()
+                    .addKeyValue("snapshotPath", snapshotPath)
+                    .addKeyValue("error", e.getMessage())
+                    .log("Velocity snapshot unreadable; starting empty");
+            }
+            Thread writer = new Thread(this::writeSnapshots, "velocity-snapshot");
+            writer.setDaemon(true);
+            snapshotWriter = writer;
+            running = true;
+            writer.start();
+        } else {
+            running = true;
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread writer = snapshotWriter;
+        if (writer != null) {
+            writer.interrupt();
+            snapshot();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeSnapshots() {
+        while (running) {
+            LockSupport.parkNanos(this, snapshotIntervalNanos);
+            if (!running || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            snapshot();
+        }
+    }
+
+    private synchronized void snapshot() {
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            logger.atWarn()
+                .addKeyValue("snapshotPath", snapshotPath)
+                .addKeyValue("error", e.getMessage())
+                .log("Velocity snapshot failed");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * At most {@code limit} payments per {@code window} for any one identifier
+ *
+ * Written {@code <dimension>:<limit>/<window>}, e.g. {@code card:5/10m};
+ * windows are a number followed by s, m, h or d.
+ *
+ * @param name      The rule as written, used in metrics and logs
+ * @param dimension What payments are counted by
+ * @param limit     Payments allowed in one window; the next one is blocked
+ * @param window    Length of the sliding window
+ */
+public record VelocityRule(String name, VelocityDimension dimension, int limit, Duration window) {
+
+    private static final Pattern SPEC = Pattern.compile("([a-z]+):(\\d+)/(\\d+)([smhd])");
+
+    public VelocityRule {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Velocity limit must be at least 1: " + name);
+        }
+        if (window.compareTo(Duration.ofSeconds(1)) < 0) {
+            throw new IllegalArgumentException("Velocity window must be at least one second: " + name);
+        }
+    }
+
+    public static VelocityRule parse(String spec) {
+        String normalized = spec.trim().toLowerCase(Locale.ROOT);
+        Matcher matcher = SPEC.matcher(normalized);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(
+                "Velocity rule must look like <dimension>:<limit>/<window>, e.g. card:5/10m: " + spec);
+        }
+        long amount = Long.parseLong(matcher.group(3));
+        Duration window = switch (matcher.group(4)) {
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            default -> Duration.ofDays(amount);
+        };
+        return new VelocityRule(normalized, VelocityDimension.fromKey(matcher.group(1)),
+            Integer.parseInt(matcher.group(2)), window);
+    }
+
+    /**
+     * Comma-separated rules; blank means none
+     */
+    public static List<VelocityRule> parseAll(String specs) {
+        List<VelocityRule> rules = new ArrayList<>();
+        for (String spec : specs.split(",")) {
+            if (!spec.isBlank()) {
+                rules.add(parse(spec));
+            }
+        }
+        return rules;
+    }
+}
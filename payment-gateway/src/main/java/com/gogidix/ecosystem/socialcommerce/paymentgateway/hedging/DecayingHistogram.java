@@ -0,0 +1,81 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.hedging;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with exponential forgetting
+ *
+ * Microsecond values go into log-linear buckets, eight per power of two, so a
+ * quantile is within 12.5% of the true value anywhere from 1 us to hours.
+ * Recording is a single atomic increment. {@link #decay()} halves every count,
+ * so older traffic loses half its weight each time it is called.
+ */
+class DecayingHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos) / 1_000));
+    }
+
+    /**
+     * Upper bound, in nanoseconds, below which {@code quantile} of the
+     * recorded values fall, or -1 when fewer than {@code minSamples} are held
+     */
+    long quantileNanos(double quantile, long minSamples) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total < minSamples || total == 0) {
+            return -1;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBoundMicros(i) * 1_000;
+            }
+        }
+        return upperBoundMicros(BUCKETS - 1) * 1_000;
+    }
+
+    void decay() {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) {
+                counts.getAndUpdate(i, count -> count >>> 1);
+            }
+        }
+    }
+
+    // ==============================================
+    // BUCKETS
+    // ==============================================
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
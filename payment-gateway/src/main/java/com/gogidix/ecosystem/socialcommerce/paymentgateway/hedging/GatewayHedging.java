@@ -0,0 +1,128 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.hedging;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Payment Gateway Read Hedging
+ *
+ * Builds {@link HedgedPaymentGateway} decorators with one {@link HedgingPolicy}
+ * per gateway name, and owns the bounded executor that status reads and their
+ * hedges run on. The executor never queues: when all its threads are busy,
+ * reads run unhedged on the calling thread.
+ *
+ * Metrics:
+ * - payment.gateway.hedge.reads (counter) by gateway
+ * - payment.gateway.hedge.sent (counter) by gateway; hedge rate = sent / reads
+ * - payment.gateway.hedge.wins (counter) by gateway; win rate = wins / sent
+ * - payment.gateway.hedge.denied (counter) by gateway, hedges skipped for lack of budget
+ * - payment.gateway.hedge.delay (gauge, seconds) by gateway, current hedge delay
+ */
+@Component
+@ConditionalOnProperty(name = "payment.hedging.enabled", havingValue = "true", matchIfMissing = true)
+public class GatewayHedging implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayHedging.class);
+
+    static final String READS_METRIC = "payment.gateway.hedge.reads";
+    static final String SENT_METRIC = "payment.gateway.hedge.sent";
+    static final String WINS_METRIC = "payment.gateway.hedge.wins";
+    static final String DENIED_METRIC = "payment.gateway.hedge.denied";
+    static final String DELAY_METRIC = "payment.gateway.hedge.delay";
+
+    private final MeterRegistry registry;
+    private final Environment environment;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, HedgingPolicy> policies = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public GatewayHedging(MeterRegistry registry, Environment environment,
+                          @Value("${payment.hedging.max-threads:64}") int maxThreads) {
+        this.registry = registry;
+        this.environment = environment;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "payment-hedge-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Wrap a gateway so its status reads are hedged, unless disabled for it
+     */
+    public PaymentGateway hedge(PaymentGateway gateway) {
+        if (gateway instanceof HedgedPaymentGateway) {
+            return gateway;
+        }
+        HedgingSettings settings = HedgingSettings.from(environment, gateway.getName());
+        if (!settings.enabled()) {
+            return gateway;
+        }
+        HedgingPolicy policy = policies.computeIfAbsent(gateway.getName(), name -> createPolicy(name, settings));
+        return new HedgedPaymentGateway(gateway, policy, executor);
+    }
+
+    /**
+     * Hedging policies keyed by gateway name, in name order
+     */
+    public Map<String, HedgingPolicy> getPolicies() {
+        return Collections.unmodifiableMap(policies);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private HedgingPolicy createPolicy(String gateway, HedgingSettings settings) {
+        HedgingPolicy policy = new HedgingPolicy(settings);
+
+        counter(READS_METRIC, "Idempotent status reads eligible for hedging", gateway, policy, HedgingPolicy::getReads);
+        counter(SENT_METRIC, "Hedge requests sent", gateway, policy, HedgingPolicy::getHedges);
+        counter(WINS_METRIC, "Reads answered by the hedge request first", gateway, policy, HedgingPolicy::getWins);
+        counter(DENIED_METRIC, "Hedges skipped because the hedge budget was spent", gateway, policy,
+            HedgingPolicy::getDenied);
+        Gauge.builder(DELAY_METRIC, policy, p -> Math.max(0, p.getDelayNanos()) / 1e9)
+            .description("Current delay before an unanswered read is hedged (0 until enough samples)")
+            .baseUnit("seconds")
+            .tag("gateway", gateway)
+            .register(registry);
+
+        logger.atInfo()
+            .addKeyValue("gateway", gateway)
+            .addKeyValue("percentile", settings.percentile())
+            .addKeyValue("budgetRatio", settings.budgetRatio())
+            .log("Payment gateway read hedging enabled");
+        return policy;
+    }
+
+    private void counter(String name, String description, String gateway, HedgingPolicy policy,
+                         ToDoubleFunction<HedgingPolicy> value) {
+        FunctionCounter.builder(name, policy, value)
+            .description(description)
+            .tag("gateway", gateway)
+            .register(registry);
+    }
+}
@@ -0,0 +1,229 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.hedging;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.socialcommerce.shared.context.RequestContext;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hedged Payment Gateway
+ *
+ * Decorates a {@link PaymentGateway} so that {@link #getPaymentStatus} reads,
+ * which are idempotent, are hedged: if the first request has not answered
+ * within the {@link HedgingPolicy} delay and budget remains, an identical
+ * second request is sent and whichever succeeds first is returned. The
+ * slower one runs to completion in the background and only feeds the
+ * latency estimate.
+ *
+ * Everything else, and in particular every write (payments, refunds,
+ * captures, payouts, tokens), goes straight to the delegate on the calling
+ * thread and is never sent twice. When the hedge executor is saturated the
+ * read also runs unhedged on the calling thread.
+ */
+public class HedgedPaymentGateway implements PaymentGateway {
+
+    private final PaymentGateway delegate;
+    private final HedgingPolicy policy;
+    private final Executor executor;
+
+    HedgedPaymentGateway(PaymentGateway delegate, HedgingPolicy policy, Executor executor) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    /**
+     * The undecorated gateway
+     */
+    public PaymentGateway getDelegate() {
+        return delegate;
+    }
+
+    public HedgingPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public PaymentStatus getPaymentStatus(String transactionId) {
+        long delayNanos = policy.onRead();
+        CompletableFuture<PaymentStatus> primary = attempt(transactionId);
+        if (primary == null) {
+            return delegate.getPaymentStatus(transactionId);
+        }
+        if (delayNanos == HedgingPolicy.NOT_READY) {
+            return await(primary);
+        }
+
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than the tracked percentile: hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+
+        if (!policy.tryHedge()) {
+            return await(primary);
+        }
+        CompletableFuture<PaymentStatus> hedge = attempt(transactionId);
+        if (hedge == null) {
+            return await(primary);
+        }
+        return await(firstSuccess(primary, hedge));
+    }
+
+    @Override
+    public PaymentResponse processPayment(PaymentRequest request) {
+        return delegate.processPayment(request);
+    }
+
+    @Override
+    public RefundResponse refundPayment(RefundRequest request) {
+        return delegate.refundPayment(request);
+    }
+
+    @Override
+    public CaptureResponse capturePayment(String transactionId, Double amount) {
+        return delegate.capturePayment(transactionId, amount);
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return delegate.verifyWebhookSignature(payload, signature);
+    }
+
+    @Override
+    public WebhookResponse processWebhook(String payload) {
+        return delegate.processWebhook(payload);
+    }
+
+    @Override
+    public TokenResponse createPaymentToken(CardDetails cardDetails) {
+        return delegate.createPaymentToken(cardDetails);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Set<String> getSupportedPaymentMethods() {
+        return delegate.getSupportedPaymentMethods();
+    }
+
+    @Override
+    public Set<String> getSupportedCurrencies() {
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public PayoutResponse initiatePayout(PayoutRequest request) {
+        return delegate.initiatePayout(request);
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    /**
+     * Send one status read on the hedge executor
+     *
+     * @return null when the executor has no thread to spare
+     */
+    private CompletableFuture<PaymentStatus> attempt(String transactionId) {
+        CompletableFuture<PaymentStatus> result = new CompletableFuture<>();
+        try {
+            // The pool thread carries the caller's correlation ID into provider calls and logs
+            executor.execute(RequestContext.wrap(() -> {
+                long start = policy.now();
+                try {
+                    PaymentStatus status = delegate.getPaymentStatus(transactionId);
+                    policy.recordLatency(policy.now() - start);
+                    result.complete(status);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * First successful response of the two; the primary's failure if both fail
+     */
+    private CompletableFuture<PaymentStatus> firstSuccess(CompletableFuture<PaymentStatus> primary,
+                                                          CompletableFuture<PaymentStatus> hedge) {
+        CompletableFuture<PaymentStatus> winner = new CompletableFuture<>();
+        AtomicBoolean succeeded = new AtomicBoolean();
+        AtomicBoolean oneFailed = new AtomicBoolean();
+        primary.whenComplete((status, error) -> {
+            if (error == null) {
+                if (succeeded.compareAndSet(false, true)) {
+                    winner.complete(status);
+                }
+            } else if (oneFailed.getAndSet(true)) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((status, error) -> {
+            if (error == null) {
+                // Count the win before the caller is released so it is visible once the read returns
+                if (succeeded.compareAndSet(false, true)) {
+                    policy.onHedgeWon();
+                    winner.complete(status);
+                }
+            } else if (oneFailed.getAndSet(true)) {
+                winner.completeExceptionally(primary.handle((ignored, primaryError) -> primaryError).join());
+            }
+        });
+        return winner;
+    }
+
+    private PaymentStatus await(CompletableFuture<PaymentStatus> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+    }
+
+    private PaymentProcessingException interrupted() {
+        Thread.currentThread().interrupt();
+        return new PaymentProcessingException("Payment status check interrupted", "GATEWAY_TIMEOUT", getName());
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new PaymentProcessingException("Payment status check failed", cause);
+    }
+}
@@ -0,0 +1,136 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Hedging decisions for one gateway
+ *
+ * PERFORMANCE IMPLEMENTATION: Tail-latency hedging under a load budget
+ * - The hedge delay is the configured percentile of recent successful read
+ *   latencies, recomputed once per window from a decaying histogram. Late
+ *   losing responses are recorded too, so the tail stays in the estimate
+ * - Each read deposits {@code budgetRatio} of a hedge into a budget capped at
+ *   {@code maxBurst}, which starts full; each hedge withdraws a whole one.
+ *   Hedges therefore never exceed {@code maxBurst} plus the ratio of reads,
+ *   even when the gateway is slow across the board
+ * - No hedging until {@code minSamples} reads have been seen
+ */
+public class HedgingPolicy {
+
+    public static final long NOT_READY = -1;
+
+    // Budget in thousandths of a hedge
+    private static final long HEDGE_COST = 1_000;
+
+    private final HedgingSettings settings;
+    private final LongSupplier clock;
+    private final DecayingHistogram latencies = new DecayingHistogram();
+    private final long deposit;
+    private final long maxBalance;
+    private final long windowNanos;
+
+    private final AtomicLong balance;
+    private final AtomicLong nextRefresh;
+    private volatile long delayNanos = NOT_READY;
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+
+    public HedgingPolicy(HedgingSettings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    public HedgingPolicy(HedgingSettings settings, LongSupplier clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.deposit = Math.round(settings.budgetRatio() * HEDGE_COST);
+        this.maxBalance = settings.maxBurst() * HEDGE_COST;
+        this.balance = new AtomicLong(maxBalance);
+        this.windowNanos = settings.window().toNanos();
+        this.nextRefresh = new AtomicLong(clock.getAsLong() + windowNanos);
+    }
+
+    /**
+     * Count a read and earn its share of the hedge budget
+     *
+     * @return nanoseconds to wait before hedging it, or {@link #NOT_READY}
+     */
+    public long onRead() {
+        reads.increment();
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(maxBalance, current + amount));
+        return delayNanos;
+    }
+
+    /**
+     * Spend budget on a hedge
+     *
+     * @return false when the budget is exhausted; the read must not be hedged
+     */
+    public boolean tryHedge() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < HEDGE_COST) {
+                denied.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - HEDGE_COST));
+        hedges.increment();
+        return true;
+    }
+
+    public void onHedgeWon() {
+        wins.increment();
+    }
+
+    /**
+     * Record the latency of one successful read, primary or hedge
+     */
+    public void recordLatency(long nanos) {
+        latencies.record(nanos);
+        long now = clock.getAsLong();
+        long refreshAt = nextRefresh.get();
+        if (now >= refreshAt && nextRefresh.compareAndSet(refreshAt, now + windowNanos)) {
+            refresh();
+        }
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    public long getReads() {
+        return reads.sum();
+    }
+
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    public long getWins() {
+        return wins.sum();
+    }
+
+    public long getDenied() {
+        return denied.sum();
+    }
+
+    /**
+     * Recompute the hedge delay, then age the histogram
+     */
+    void refresh() {
+        long quantile = latencies.quantileNanos(settings.percentile(), settings.minSamples());
+        if (quantile != NOT_READY) {
+            delayNanos = Math.max(settings.minDelay().toNanos(), quantile);
+        }
+        latencies.decay();
+    }
+}
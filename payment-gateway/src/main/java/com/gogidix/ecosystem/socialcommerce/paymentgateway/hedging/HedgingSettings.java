@@ -0,0 +1,67 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.hedging;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Read hedging settings for one gateway
+ *
+ * Read from {@code payment.hedging.gateways.<gateway>.*}, falling back to
+ * {@code payment.hedging.*} and then to the defaults below.
+ *
+ * @param enabled     Whether status reads of this gateway are hedged at all
+ * @param percentile  Latency quantile after which an unanswered read is hedged
+ * @param minDelay    Never hedge sooner than this, however fast the gateway has been
+ * @param window      How often the quantile is recomputed; older samples lose half their weight each time
+ * @param minSamples  Samples needed before the first hedge
+ * @param budgetRatio Hedges allowed per read, on average (0.05 = at most 5% extra load)
+ * @param maxBurst    Unused budget that can be saved up for a burst of hedges
+ */
+public record HedgingSettings(
+    boolean enabled,
+    double percentile,
+    Duration minDelay,
+    Duration window,
+    long minSamples,
+    double budgetRatio,
+    int maxBurst
+) {
+
+    public static final HedgingSettings DEFAULTS = new HedgingSettings(
+        true, 0.95, Duration.ofMillis(20), Duration.ofSeconds(5), 100, 0.05, 10);
+
+    public HedgingSettings {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedging percentile must be between 0 and 1 (exclusive)");
+        }
+        if (minDelay.isNegative() || window.isNegative() || window.isZero() || minSamples < 1) {
+            throw new IllegalArgumentException("Hedging delays and windows must be positive");
+        }
+        if (budgetRatio < 0 || budgetRatio > 1 || maxBurst < 1) {
+            throw new IllegalArgumentException("Hedging budget needs 0 <= ratio <= 1 and a burst of at least 1");
+        }
+    }
+
+    public static HedgingSettings from(Environment environment, String gateway) {
+        String prefix = "payment.hedging.";
+        String override = prefix + "gateways." + gateway.toLowerCase(Locale.ROOT) + ".";
+        return new HedgingSettings(
+            property(environment, prefix, override, "enabled", Boolean.class, DEFAULTS.enabled()),
+            property(environment, prefix, override, "percentile", Double.class, DEFAULTS.percentile()),
+            Duration.ofMillis(property(environment, prefix, override, "min-delay-ms", Long.class,
+                DEFAULTS.minDelay().toMillis())),
+            Duration.ofMillis(property(environment, prefix, override, "window-ms", Long.class,
+                DEFAULTS.window().toMillis())),
+            property(environment, prefix, override, "min-samples", Long.class, DEFAULTS.minSamples()),
+            property(environment, prefix, override, "budget-ratio", Double.class, DEFAULTS.budgetRatio()),
+            property(environment, prefix, override, "max-burst", Integer.class, DEFAULTS.maxBurst()));
+    }
+
+    private static <T> T property(Environment environment, String prefix, String override, String name,
+                                  Class<T> type, T defaultValue) {
+        return environment.getProperty(override + name, type,
+            environment.getProperty(prefix + name, type, defaultValue));
+    }
+}
@@ -0,0 +1,45 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.history;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in the payment history: the last row returned, ordered by
+ * (created_at, transaction_id) descending. Clients receive it as an opaque
+ * URL-safe token and pass it back unchanged.
+ */
+public record HistoryCursor(Instant createdAt, long transactionId) {
+
+    private static final int LENGTH = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH)
+            .putLong(createdAt.getEpochSecond())
+            .putInt(createdAt.getNano())
+            .putLong(transactionId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not issued by {@link #encode()}
+     */
+    public static HistoryCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        if (nanos < 0 || nanos > 999_999_999) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+        return new HistoryCursor(Instant.ofEpochSecond(seconds, nanos), buffer.getLong());
+    }
+}
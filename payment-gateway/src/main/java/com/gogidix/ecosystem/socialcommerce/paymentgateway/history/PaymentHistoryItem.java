@@ -0,0 +1,23 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.history;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One payment history row: the journal columns the API exposes
+ *
+ * @param id          Journal ID as a string; Snowflake IDs exceed JavaScript's safe integer range
+ * @param providerRef Gateway transaction, refund or payout ID
+ */
+public record PaymentHistoryItem(
+    String id,
+    Instant createdAt,
+    String operation,
+    String gateway,
+    String providerRef,
+    String orderId,
+    String status,
+    BigDecimal amount,
+    String currency
+) {
+}
@@ -0,0 +1,9 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.history;
+
+import java.util.List;
+
+/**
+ * @param nextCursor Pass as {@code cursor} for the next page; null on the last page
+ */
+public record PaymentHistoryPage(List<PaymentHistoryItem> items, String nextCursor) {
+}
@@ -0,0 +1,29 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.history;
+
+import java.time.Instant;
+
+/**
+ * Payment history filters; null means unfiltered
+ *
+ * @param customerId Customer, or vendor for payouts; null only for callers who may view all payments
+ * @param from       Inclusive lower bound on created_at
+ * @param to         Exclusive upper bound on created_at
+ * @param cursor     Continue after this row
+ */
+public record PaymentHistoryQuery(
+    String customerId,
+    String status,
+    String gateway,
+    String currency,
+    Instant from,
+    Instant to,
+    HistoryCursor cursor
+) {
+
+    /**
+     * The same filters, continuing after {@code next}
+     */
+    public PaymentHistoryQuery after(HistoryCursor next) {
+        return new PaymentHistoryQuery(customerId, status, gateway, currency, from, to, next);
+    }
+}
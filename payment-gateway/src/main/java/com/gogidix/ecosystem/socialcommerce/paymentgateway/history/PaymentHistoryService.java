@@ -0,0 +1,256 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.history;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment History Service
+ *
+ * Lists a customer's or vendor's payments from the local transaction journal
+ * ({@code payment_transactions}) instead of paging Stripe or Paystack.
+ *
+ * PERFORMANCE IMPLEMENTATION: Keyset pagination over the journal
+ * - Pages seek past the cursor on (created_at, transaction_id) rather than
+ *   using OFFSET, so page 1,000 costs the same as page 1
+ * - For one customer a page is a single range scan of
+ *   idx_payment_transactions_customer, which is ordered like the cursor and
+ *   (on PostgreSQL) covers every selected column; without a customer it is a
+ *   scan of idx_payment_transactions_created. A date range also prunes
+ *   monthly partitions
+ * - Status, gateway and currency are journaled in one case, so their filters
+ *   are plain equality
+ * - Only the columns the API returns are selected
+ * - Exports are written as successive keyset pages of {@code export.page-size}
+ *   rows, each its own short statement: memory stays flat however many rows
+ *   are written, and no transaction or snapshot is held open while a slow
+ *   client reads the response
+ *
+ * Metrics:
+ * - payment.history.query (timer) by mode: page, export
+ * - payment.history.export.rows (summary) rows per export
+ */
+@Service
+public class PaymentHistoryService {
+
+    public static final String QUERY_METRIC = "payment.history.query";
+    public static final String EXPORT_ROWS_METRIC = "payment.history.export.rows";
+
+    private static final String SELECT_SQL =
+        "SELECT transaction_id, created_at, operation, gateway, provider_ref, order_id, status, amount, currency "
+            + "FROM payment_transactions WHERE 1 = 1";
+    private static final String ORDER_SQL = " ORDER BY created_at DESC, transaction_id DESC LIMIT ?";
+
+    private static final RowMapper<PaymentHistoryItem> ITEM_MAPPER = (rs, rowNum) -> item(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter itemWriter;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final int maxExportRows;
+    private final int exportPageSize;
+
+    private final Timer pageTimer;
+    private final Timer exportTimer;
+    private final DistributionSummary exportRows;
+
+    public PaymentHistoryService(JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry registry,
+                                 @Value("${payment.history.max-page-size:200}") int maxPageSize,
+                                 @Value("${payment.history.export.max-rows:100000}") int maxExportRows,
+                                 @Value("${payment.history.export.page-size:1000}") int exportPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // One flush at the end, not one per row
+        this.itemWriter = objectMapper.writerFor(PaymentHistoryItem.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.maxPageSize = maxPageSize;
+        this.maxExportRows = maxExportRows;
+        this.exportPageSize = exportPageSize;
+
+        this.pageTimer = timer(registry, "page");
+        this.exportTimer = timer(registry, "export");
+        this.exportRows = DistributionSummary.builder(EXPORT_ROWS_METRIC)
+            .description("Rows written per payment history export")
+            .register(registry);
+    }
+
+    // ==============================================
+    // PAGES
+    // ==============================================
+
+    /**
+     * One page, newest first
+     *
+     * @throws IllegalArgumentException if the limit or date range is invalid
+     */
+    public PaymentHistoryPage page(PaymentHistoryQuery query, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        Statement statement = statement(query, limit + 1);
+        List<PaymentHistoryItem> rows = pageTimer.record(() ->
+            jdbcTemplate.query(statement.sql(), ITEM_MAPPER, statement.args().toArray()));
+
+        if (rows.size() <= limit) {
+            return new PaymentHistoryPage(rows, null);
+        }
+        List<PaymentHistoryItem> items = rows.subList(0, limit);
+        return new PaymentHistoryPage(items, cursorAfter(items.get(limit - 1)).encode());
+    }
+
+    // ==============================================
+    // EXPORT
+    // ==============================================
+
+    /**
+     * Stream up to {@code export.max-rows} rows as a page-shaped JSON object;
+     * {@code nextCursor} continues a truncated export
+     *
+     * @throws IllegalArgumentException if the date range is invalid; raised before anything is written
+     */
+    public Export export(PaymentHistoryQuery query) {
+        statement(query, exportPageSize);
+        return new Export(query);
+    }
+
+    /**
+     * A validated export, written when the response body is
+     */
+    public final class Export {
+
+        private final PaymentHistoryQuery query;
+
+        private Export(PaymentHistoryQuery query) {
+            this.query = query;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            long start = System.nanoTime();
+            try (JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("items");
+                int written = 0;
+                HistoryCursor cursor = query.cursor();
+                boolean more = true;
+                while (more && written < maxExportRows) {
+                    int limit = Math.min(exportPageSize, maxExportRows - written);
+                    Statement statement = statement(query.after(cursor), limit + 1);
+                    List<PaymentHistoryItem> rows =
+                        jdbcTemplate.query(statement.sql(), ITEM_MAPPER, statement.args().toArray());
+                    more = rows.size() > limit;
+                    List<PaymentHistoryItem> items = more ? rows.subList(0, limit) : rows;
+                    for (PaymentHistoryItem item : items) {
+                        itemWriter.writeValue(json, item);
+                    }
+                    written += items.size();
+                    if (!items.isEmpty()) {
+                        cursor = cursorAfter(items.get(items.size() - 1));
+                    }
+                }
+                json.writeEndArray();
+                json.writeStringField("nextCursor", more ? cursor.encode() : null);
+                json.writeEndObject();
+                exportRows.record(written);
+            } finally {
+                exportTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private record Statement(String sql, List<Object> args) {
+    }
+
+    private static Statement statement(PaymentHistoryQuery query, int limit) {
+        if (query.from() != null && query.to() != null && !query.from().isBefore(query.to())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        if (query.customerId() != null) {
+            sql.append(" AND customer_id = ?");
+            args.add(query.customerId());
+        }
+        if (query.status() != null) {
+            // Journaled lower case (JournalEntry)
+            sql.append(" AND status = ?");
+            args.add(query.status().toLowerCase(Locale.ROOT));
+        }
+        if (query.gateway() != null) {
+            sql.append(" AND gateway = ?");
+            args.add(query.gateway().toUpperCase(Locale.ROOT));
+        }
+        if (query.currency() != null) {
+            sql.append(" AND currency = ?");
+            args.add(query.currency().toUpperCase(Locale.ROOT));
+        }
+        if (query.from() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.from(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.from(query.to()));
+        }
+        HistoryCursor cursor = query.cursor();
+        if (cursor != null) {
+            // (created_at, transaction_id) < cursor; the leading <= bounds the index range
+            Timestamp createdAt = Timestamp.from(cursor.createdAt());
+            sql.append(" AND created_at <= ? AND (created_at < ? OR transaction_id < ?)");
+            args.add(createdAt);
+            args.add(createdAt);
+            args.add(cursor.transactionId());
+        }
+        sql.append(ORDER_SQL);
+        args.add(limit);
+        return new Statement(sql.toString(), args);
+    }
+
+    private static PaymentHistoryItem item(ResultSet rs) throws SQLException {
+        return new PaymentHistoryItem(
+            Long.toString(rs.getLong("transaction_id")),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getString("operation"),
+            rs.getString("gateway"),
+            rs.getString("provider_ref"),
+            rs.getString("order_id"),
+            rs.getString("status"),
+            rs.getBigDecimal("amount"),
+            rs.getString("currency")
+        );
+    }
+
+    private static HistoryCursor cursorAfter(PaymentHistoryItem item) {
+        return new HistoryCursor(item.createdAt(), Long.parseLong(item.id()));
+    }
+
+    private static Timer timer(MeterRegistry registry, String mode) {
+        return Timer.builder(QUERY_METRIC)
+            .description("Payment history query time")
+            .tag("mode", mode)
+            .register(registry);
+    }
+}
@@ -2,12 +2,20 @@ package com.gogidix.ecosystem.socialcommerce.paymentgateway.integration;
 
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.client.UnifiedPaymentClient;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.payout.PayoutBatchEngine;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.payout.PayoutBatchSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * Courier Payout Integration Service
@@ -31,9 +39,16 @@ public class CourierPayoutIntegration {
     
     private static final Logger logger = Logger.getLogger(CourierPayoutIntegration.class.getName());
     
+    private static final int MAX_BATCH_ID_LENGTH = 40;
+    private static final int PERIOD_HASH_LENGTH = 12;
+    private static final Pattern BATCH_PERIOD = Pattern.compile("[A-Za-z0-9_-]+");
+    
     @Autowired
     private UnifiedPaymentClient paymentClient;
     
+    @Autowired
+    private PayoutBatchEngine payoutBatchEngine;
+    
     // ==============================================
     // COURIER DRIVER PAYOUT SERVICES
     // ==============================================
@@ -94,6 +109,59 @@ public class CourierPayoutIntegration {
         }
     }
     
+    // ==============================================
+    // BATCH PAYOUT RUNS
+    // ==============================================
+    
+    /**
+     * Pay all drivers' earnings for a period as one checkpointed batch
+     * Called by: courier-services/payout-service (weekly payout run)
+     * 
+     * The batch ID is derived from the period, so calling this again for the
+     * same period resumes an interrupted run instead of paying anyone twice.
+     * With dryRun set, returns the totals per gateway and currency only.
+     */
+    public PayoutBatchSummary processDriverPayoutBatch(String payoutPeriod, List<PayoutRequest> payouts, boolean dryRun) {
+        for (PayoutRequest payout : payouts) {
+            defaultPayoutFields(payout, "DRIVER_EARNINGS", "Courier driver earnings payout - Period: " + payoutPeriod);
+        }
+        return processPayoutBatch(batchId("courier-drivers-", payoutPeriod), payouts, dryRun);
+    }
+    
+    /**
+     * Pay all partners' commissions for a period as one checkpointed batch
+     * Called by: courier-services/commission-service
+     */
+    public PayoutBatchSummary processPartnerCommissionBatch(String commissionPeriod, List<PayoutRequest> payouts,
+                                                           boolean dryRun) {
+        for (PayoutRequest payout : payouts) {
+            defaultPayoutFields(payout, "PARTNER_COMMISSION", "Courier partner commission - Period: " + commissionPeriod);
+        }
+        return processPayoutBatch(batchId("courier-partners-", commissionPeriod), payouts, dryRun);
+    }
+    
+    private PayoutBatchSummary processPayoutBatch(String batchId, List<PayoutRequest> payouts, boolean dryRun) {
+        try {
+            if (dryRun) {
+                PayoutBatchSummary summary = payoutBatchEngine.dryRun(payouts);
+                logger.info("Courier payout batch dry run: " + batchId + ", payouts: " + summary.itemCount()
+                    + ", totals: " + summary.totalByCurrency());
+                return summary;
+            }
+            
+            logger.info("Processing courier payout batch: " + batchId + ", payouts: " + payouts.size());
+            PayoutBatchSummary summary = payoutBatchEngine.process(batchId, payouts);
+            
+            logger.info("Courier payout batch " + batchId + " " + summary.status() + ": paid " + summary.paidCount()
+                + ", failed " + summary.failedCount() + ", remaining " + summary.remainingCount());
+            return summary;
+            
+        } catch (Exception e) {
+            logger.severe("Courier payout batch failed: " + e.getMessage());
+            throw new RuntimeException("Payout batch failed", e);
+        }
+    }
+    
     // ==============================================
     // WALK-IN PAYMENT SERVICES
     // ==============================================
@@ -390,6 +458,41 @@ public class CourierPayoutIntegration {
         return true;
     }
     
+    /**
+     * Batch ID for a payout period, e.g. courier-drivers-2026-W42
+     *
+     * A period that is not a valid batch ID as it is, or would make the ID too
+     * long, is shortened and suffixed with a hash of the full period, so
+     * periods such as "2026/W42" and "2026-W42" never share a batch.
+     */
+    private String batchId(String prefix, String period) {
+        String trimmed = period.trim();
+        if (prefix.length() + trimmed.length() <= MAX_BATCH_ID_LENGTH && BATCH_PERIOD.matcher(trimmed).matches()) {
+            return prefix + trimmed;
+        }
+        String readable = trimmed.replaceAll("[^A-Za-z0-9_-]", "-");
+        int room = MAX_BATCH_ID_LENGTH - prefix.length() - 1 - PERIOD_HASH_LENGTH;
+        return prefix + readable.substring(0, Math.min(room, readable.length())) + "-" + periodHash(trimmed);
+    }
+    
+    private static String periodHash(String period) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(period.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash).substring(0, PERIOD_HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private void defaultPayoutFields(PayoutRequest payout, String payoutType, String description) {
+        if (payout.getPayoutType() == null) {
+            payout.setPayoutType(payoutType);
+        }
+        if (payout.getDescription() == null) {
+            payout.setDescription(description);
+        }
+    }
+    
     /**
      * Validate walk-in payment request
      */
@@ -1,11 +1,17 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.integration;
 
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.client.UnifiedPaymentClient;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.billing.BillingAccount;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.billing.BillingRunSummary;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.billing.BillingUsageSource;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.billing.MonthlyBillingPipeline;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.YearMonth;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -33,6 +39,9 @@ public class WarehouseBillingIntegration {
     @Autowired
     private UnifiedPaymentClient paymentClient;
     
+    @Autowired
+    private MonthlyBillingPipeline billingPipeline;
+    
     // ==============================================
     // WAREHOUSE BILLING SERVICES
     // ==============================================
@@ -182,6 +191,39 @@ public class WarehouseBillingIntegration {
         }
     }
     
+    // ==============================================
+    // MONTHLY BILLING RUNS
+    // ==============================================
+    
+    /**
+     * Bill every storage, subscription and self-storage account for a month
+     * Called by: warehousing/billing-service (month-end billing run)
+     * 
+     * The run ID is derived from the period, so calling this again for the
+     * same month resumes an interrupted run instead of charging anyone twice.
+     * With dryRun set, invoices are computed and charged against a simulated
+     * gateway and nothing is stored.
+     */
+    public BillingRunSummary runMonthlyBilling(YearMonth period, List<BillingAccount> accounts,
+                                               BillingUsageSource usage, boolean dryRun) {
+        String runId = "warehouse-billing-" + period;
+        try {
+            logger.info("Starting warehouse billing run: " + runId + ", accounts: " + accounts.size()
+                + (dryRun ? " (dry run)" : ""));
+            BillingRunSummary summary = billingPipeline.run(runId, period, accounts, usage, dryRun);
+            
+            logger.info("Warehouse billing run " + runId + " " + summary.status() + ": paid " + summary.paid()
+                + ", failed " + summary.failed() + ", awaiting payment " + summary.awaitingPayment()
+                + ", remaining " + summary.remaining()
+                + ", invoiced " + summary.invoiced());
+            return summary;
+            
+        } catch (Exception e) {
+            logger.severe("Warehouse billing run failed: " + e.getMessage());
+            throw new RuntimeException("Billing run failed", e);
+        }
+    }
+    
     // ==============================================
     // WAREHOUSE REFUNDS AND ADJUSTMENTS
     // ==============================================
@@ -0,0 +1,73 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.journal;
+
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Payment Journal Configuration
+ *
+ * The journal writes to any database Flyway V4 ran on. Partition maintenance
+ * needs PostgreSQL (declarative partitioning, pg_inherits, advisory locks);
+ * disable it with {@code payment.journal.partitions.enabled=false} elsewhere.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.journal.enabled", havingValue = "true", matchIfMissing = true)
+public class JournalConfig {
+
+    @Bean
+    public PaymentJournal paymentJournal(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         SnowflakeIdGenerator idGenerator,
+                                         MeterRegistry registry,
+                                         @Value("${payment.journal.queue-capacity:20000}") int queueCapacity,
+                                         @Value("${payment.journal.batch-size:500}") int batchSize,
+                                         @Value("${payment.journal.linger-ms:50}") long lingerMs,
+                                         @Value("${payment.journal.enqueue-timeout-ms:5}") long enqueueTimeoutMs,
+                                         @Value("${payment.journal.retry-backoff-ms:200}") long retryBackoffMs) {
+        return new PaymentJournal(
+            jdbcTemplate,
+            transactionManager,
+            idGenerator,
+            registry,
+            queueCapacity,
+            batchSize,
+            Duration.ofMillis(lingerMs),
+            Duration.ofMillis(enqueueTimeoutMs),
+            Duration.ofMillis(retryBackoffMs)
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payment.journal.partitions.enabled", havingValue = "true", matchIfMissing = true)
+    public JournalPartitionMaintainer journalPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${payment.journal.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${payment.journal.partitions.retention-months:24}") int retentionMonths,
+            @Value("${payment.journal.partitions.expired:drop}") String expired,
+            @Value("${payment.journal.partitions.archive-schema:payment_archive}") String archiveSchema,
+            @Value("${payment.journal.partitions.maintenance-interval-ms:3600000}") long intervalMs) {
+        return new JournalPartitionMaintainer(
+            jdbcTemplate,
+            transactionManager,
+            registry,
+            Clock.systemUTC(),
+            monthsAhead,
+            retentionMonths,
+            JournalPartitionMaintainer.ExpiryAction.valueOf(expired.toUpperCase(Locale.ROOT)),
+            archiveSchema,
+            Duration.ofMillis(intervalMs)
+        );
+    }
+}
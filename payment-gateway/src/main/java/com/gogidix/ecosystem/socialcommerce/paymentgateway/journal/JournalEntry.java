@@ -0,0 +1,41 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.journal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * One row of the payment transaction journal (Flyway V4)
+ *
+ * @param transactionId Snowflake ID, unique across replicas
+ * @param createdAt     Partition key
+ * @param providerRef   Gateway transaction, refund or payout ID
+ * @param customerId    Customer for payments and refunds, vendor for payouts
+ * @param status        Stored lower case, whatever case the gateway reported
+ * @param gateway       Stored upper case
+ * @param currency      Stored upper case
+ */
+public record JournalEntry(
+    long transactionId,
+    Instant createdAt,
+    String operation,
+    String gateway,
+    String providerRef,
+    String orderId,
+    String customerId,
+    String status,
+    BigDecimal amount,
+    String currency,
+    String errorCode,
+    String correlationId
+) {
+
+    /**
+     * One case per column, so history filters compare with = and stay on the index
+     */
+    public JournalEntry {
+        status = status != null ? status.toLowerCase(Locale.ROOT) : null;
+        gateway = gateway != null ? gateway.toUpperCase(Locale.ROOT) : null;
+        currency = currency != null ? currency.toUpperCase(Locale.ROOT) : null;
+    }
+}
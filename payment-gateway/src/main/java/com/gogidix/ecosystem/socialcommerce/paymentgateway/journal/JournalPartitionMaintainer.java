@@ -0,0 +1,324 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Journal Partition Maintainer
+ *
+ * Keeps {@code payment_transactions} partitioned one table per UTC month:
+ * creates the current and next {@code monthsAhead} partitions, and drops or
+ * archives partitions older than {@code retentionMonths}.
+ *
+ * PERFORMANCE IMPLEMENTATION: Monthly range partitions
+ * - Queries bounded by {@code created_at} only touch the months they cover
+ * - Expiring a month is a metadata operation (DROP or DETACH) instead of a
+ *   bulk DELETE followed by vacuum
+ * - Partitions exist before their month starts, so inserts never land in the
+ *   default partition while maintenance is on schedule
+ * - If they did (maintenance was down over a month boundary), that month's
+ *   partition cannot simply be created: PostgreSQL refuses a partition whose
+ *   range already has rows in the default partition. The default is then
+ *   detached, the month created, its rows moved over and the default
+ *   attached again, all in one transaction
+ * - Every step (listing, creating one month, expiring one month) runs in its
+ *   own short transaction, so the parent table's DDL locks are held for one
+ *   step rather than the whole run
+ * - Runs once on start, before the journal writer, then every
+ *   {@code interval}; each step takes a transaction-scoped advisory lock
+ *   first, so replicas never run steps at the same time, and a replica that
+ *   does not get it skips the rest of that run
+ *
+ * ARCHIVE moves a detached partition into {@code archiveSchema}, where it can
+ * be dumped and dropped by operations; DROP deletes it.
+ *
+ * Metrics:
+ * - payment.journal.partitions (counter) by action: created, dropped, archived
+ * - payment.journal.maintenance.failures (counter) failed runs
+ */
+public class JournalPartitionMaintainer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalPartitionMaintainer.class);
+
+    public static final String PARTITIONS_METRIC = "payment.journal.partitions";
+    public static final String FAILURES_METRIC = "payment.journal.maintenance.failures";
+
+    static final String TABLE = "payment_transactions";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("^" + TABLE + "_y(\\d{4})m(\\d{2})$");
+    private static final Pattern IDENTIFIER = Pattern.compile("^[a-z_][a-z0-9_]*$");
+
+    static final String LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('" + TABLE + "_maintenance'))";
+
+    static final String LIST_PARTITIONS_SQL =
+        "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid "
+            + "JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = '" + TABLE + "'";
+
+    static final String DEFAULT_HAS_ROWS_SQL =
+        "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE created_at >= ?::timestamptz AND created_at < ?::timestamptz)";
+
+    public enum ExpiryAction {
+        DROP,
+        ARCHIVE
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final ExpiryAction expiryAction;
+    private final String archiveSchema;
+    private final long intervalNanos;
+
+    private final Counter created;
+    private final Counter dropped;
+    private final Counter archived;
+    private final Counter failures;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public JournalPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry registry,
+                                      Clock clock,
+                                      int monthsAhead,
+                                      int retentionMonths,
+                                      ExpiryAction expiryAction,
+                                      String archiveSchema,
+                                      Duration interval) {
+        if (monthsAhead < 0 || retentionMonths < 1) {
+            throw new IllegalArgumentException("Journal months ahead must be >= 0 and retention >= 1 month");
+        }
+        if (!IDENTIFIER.matcher(archiveSchema).matches()) {
+            throw new IllegalArgumentException("Invalid journal archive schema: " + archiveSchema);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.expiryAction = expiryAction;
+        this.archiveSchema = archiveSchema;
+        this.intervalNanos = interval.toNanos();
+
+        this.created = partitions(registry, "created");
+        this.dropped = partitions(registry, "dropped");
+        this.archived = partitions(registry, "archived");
+        this.failures = Counter.builder(FAILURES_METRIC)
+            .description("Failed journal partition maintenance runs")
+            .register(registry);
+    }
+
+    // ==============================================
+    // MAINTENANCE
+    // ==============================================
+
+    /**
+     * Create upcoming partitions and expire old ones, one transaction per partition
+     *
+     * @return false when another replica holds the maintenance lock
+     */
+    public boolean maintain() {
+        YearMonth current = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+
+        Optional<List<String>> listed = locked(() -> jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class));
+        if (listed.isEmpty()) {
+            return false;
+        }
+        List<String> existing = listed.get();
+        boolean hasDefault = existing.contains(DEFAULT_PARTITION);
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(partitionName(month)) && locked(() -> create(month, hasDefault)).isEmpty()) {
+                return false;
+            }
+        }
+
+        for (String partition : existing) {
+            Optional<YearMonth> month = monthOf(partition);
+            if (month.isEmpty() || !month.get().isBefore(oldestKept)) {
+                continue;
+            }
+            if (locked(() -> expire(partition)).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Run one maintenance step in its own transaction, under the advisory lock
+     *
+     * @return Empty, with nothing done, when another replica holds the lock
+     */
+    private <T> Optional<T> locked(Supplier<T> step) {
+        return transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_SQL, Boolean.class))) {
+                return Optional.empty();
+            }
+            return Optional.of(step.get());
+        });
+    }
+
+    private YearMonth create(YearMonth month, boolean hasDefault) {
+        if (hasDefault && Boolean.TRUE.equals(jdbcTemplate.queryForObject(DEFAULT_HAS_ROWS_SQL, Boolean.class,
+                lowerBound(month), lowerBound(month.plusMonths(1))))) {
+            // Rows for the month are in the default partition: take them with it
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+            jdbcTemplate.execute(createSql(month));
+            jdbcTemplate.execute(moveSql(month));
+            jdbcTemplate.execute("DELETE FROM " + DEFAULT_PARTITION + rangeCondition(month));
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            logger.atWarn()
+                .addKeyValue("partition", partitionName(month))
+                .log("Journal rows moved out of the default partition");
+        } else {
+            jdbcTemplate.execute(createSql(month));
+        }
+        created.increment();
+        logger.atInfo().addKeyValue("partition", partitionName(month)).log("Journal partition created");
+        return month;
+    }
+
+    private String expire(String partition) {
+        if (expiryAction == ExpiryAction.DROP) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            dropped.increment();
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema);
+            archived.increment();
+        }
+        logger.atInfo()
+            .addKeyValue("partition", partition)
+            .addKeyValue("action", expiryAction)
+            .log("Journal partition expired");
+        return partition;
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("%s_y%04dm%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+
+    static Optional<YearMonth> monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    static String createSql(YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE
+            + " FOR VALUES FROM ('" + lowerBound(month) + "') TO ('" + lowerBound(month.plusMonths(1)) + "')";
+    }
+
+    static String moveSql(YearMonth month) {
+        return "INSERT INTO " + partitionName(month) + " SELECT * FROM " + DEFAULT_PARTITION + rangeCondition(month);
+    }
+
+    private static String rangeCondition(YearMonth month) {
+        return " WHERE created_at >= '" + lowerBound(month) + "' AND created_at < '" + lowerBound(month.plusMonths(1)) + "'";
+    }
+
+    private static String lowerBound(YearMonth month) {
+        return month.atDay(1) + " 00:00:00+00";
+    }
+
+    private static Counter partitions(MeterRegistry registry, String action) {
+        return Counter.builder(PARTITIONS_METRIC)
+            .description("Journal partitions changed by maintenance")
+            .tag("action", action)
+            .register(registry);
+    }
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            if (!running) {
+                return;
+            }
+            runSafely();
+        }
+    }
+
+    private void runSafely() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.atError().log("Journal partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Maintains synchronously so the current month's partition exists before
+     * the journal writer starts
+     */
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        runSafely();
+        running = true;
+        Thread thread = new Thread(this::run, "journal-partition-maintainer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = worker;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4097;
+    }
+}
@@ -0,0 +1,343 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.journal;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.entity.PaymentRecord;
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment Transaction Journal
+ *
+ * Keeps a local, queryable history of every gateway outcome in
+ * {@code payment_transactions}, so history, status and metrics questions do
+ * not go to Stripe or Paystack.
+ *
+ * PERFORMANCE IMPLEMENTATION: Asynchronous, batched journal writes
+ * - {@link #append} only enqueues; the request thread never waits on the
+ *   database. If the queue stays full for {@code enqueueTimeout} the entry is
+ *   dropped and counted, never the payment
+ * - One writer thread drains up to {@code batchSize} entries, lingering
+ *   briefly so bursts share a batch, and inserts them as one JDBC batch in one
+ *   transaction (with {@code reWriteBatchedInserts} the PostgreSQL driver
+ *   sends a multi-row INSERT)
+ * - A failed batch is retried with backoff, then dropped and counted;
+ *   settlement reconciliation covers the gap
+ * - Stops after the web server, draining what is queued
+ *
+ * Metrics:
+ * - payment.journal.appended (counter) entries queued
+ * - payment.journal.written (counter) entries committed
+ * - payment.journal.dropped (counter) by reason: queue_full, write_failed
+ * - payment.journal.batch (timer) insert and commit time per batch
+ * - payment.journal.batch.size (summary) entries per batch
+ * - payment.journal.queue (gauge) entries waiting
+ */
+public class PaymentJournal implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJournal.class);
+
+    public static final String APPENDED_METRIC = "payment.journal.appended";
+    public static final String WRITTEN_METRIC = "payment.journal.written";
+    public static final String DROPPED_METRIC = "payment.journal.dropped";
+    public static final String BATCH_METRIC = "payment.journal.batch";
+    public static final String BATCH_SIZE_METRIC = "payment.journal.batch.size";
+    public static final String QUEUE_METRIC = "payment.journal.queue";
+
+    static final String INSERT_SQL =
+        "INSERT INTO payment_transactions (transaction_id, created_at, operation, gateway, provider_ref, order_id, "
+            + "customer_id, status, amount, currency, error_code, correlation_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+    private final BlockingQueue<JournalEntry> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long enqueueTimeoutNanos;
+    private final long retryBackoffMillis;
+
+    private final Counter appended;
+    private final Counter written;
+    private final Counter queueFull;
+    private final Counter writeFailed;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public PaymentJournal(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          SnowflakeIdGenerator idGenerator,
+                          MeterRegistry registry,
+                          int queueCapacity,
+                          int batchSize,
+                          Duration linger,
+                          Duration enqueueTimeout,
+                          Duration retryBackoff) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Journal queue capacity and batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idGenerator = idGenerator;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        this.retryBackoffMillis = retryBackoff.toMillis();
+
+        this.appended = Counter.builder(APPENDED_METRIC)
+            .description("Payment outcomes queued for the journal")
+            .register(registry);
+        this.written = Counter.builder(WRITTEN_METRIC)
+            .description("Journal entries committed")
+            .register(registry);
+        this.queueFull = dropped(registry, "queue_full");
+        this.writeFailed = dropped(registry, "write_failed");
+        this.batchTimer = Timer.builder(BATCH_METRIC)
+            .description("Journal batch insert and commit time")
+            .register(registry);
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_METRIC)
+            .description("Journal entries per batch")
+            .register(registry);
+        Gauge.builder(QUEUE_METRIC, queue, BlockingQueue::size)
+            .description("Journal entries waiting to be written")
+            .register(registry);
+    }
+
+    // ==============================================
+    // APPEND
+    // ==============================================
+
+    /**
+     * Queue a recorded gateway outcome
+     *
+     * @return whether it was queued
+     */
+    public boolean append(PaymentRecord record) {
+        return append(new JournalEntry(
+            idGenerator.nextId(),
+            record.getCreatedAt() != null ? record.getCreatedAt() : Instant.now(),
+            record.getOperation().name(),
+            record.getGateway(),
+            record.getGatewayReference(),
+            record.getOrderId(),
+            record.getPartyId(),
+            record.getStatus(),
+            record.getAmount(),
+            record.getCurrency(),
+            record.getErrorCode(),
+            record.getCorrelationId()
+        ));
+    }
+
+    public boolean append(JournalEntry entry) {
+        boolean queued;
+        try {
+            queued = queue.offer(entry) || queue.offer(entry, enqueueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            queueFull.increment();
+            logger.atWarn()
+                .addKeyValue("gateway", entry.gateway())
+                .addKeyValue("providerRef", entry.providerRef())
+                .log("Payment journal queue full; entry dropped");
+            return false;
+        }
+        appended.increment();
+        return true;
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    // ==============================================
+    // WRITER
+    // ==============================================
+
+    private void run() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                JournalEntry first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.atError()
+                    .addKeyValue("entries", batch.size())
+                    .log("Payment journal writer failed: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+        // Drain what is left; stop() waits for it
+        Thread.interrupted();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Top the batch up to {@code batchSize}, waiting at most the linger time
+     */
+    private void fill(List<JournalEntry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            JournalEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Insert a batch in one transaction, retrying with backoff before dropping it
+     */
+    void write(List<JournalEntry> batch) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                        ps.setLong(1, entry.transactionId());
+                        ps.setTimestamp(2, Timestamp.from(entry.createdAt()));
+                        ps.setString(3, entry.operation());
+                        ps.setString(4, entry.gateway());
+                        ps.setString(5, entry.providerRef());
+                        ps.setString(6, entry.orderId());
+                        ps.setString(7, entry.customerId());
+                        ps.setString(8, entry.status());
+                        ps.setObject(9, entry.amount(), Types.NUMERIC);
+                        ps.setString(10, entry.currency());
+                        ps.setString(11, entry.errorCode());
+                        ps.setString(12, entry.correlationId());
+                    }));
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                batchSizes.record(batch.size());
+                written.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !backOff(attempt)) {
+                    writeFailed.increment(batch.size());
+                    logger.atError()
+                        .addKeyValue("entries", batch.size())
+                        .addKeyValue("attempts", attempt)
+                        .log("Payment journal batch dropped: {}", e.getMessage());
+                    return;
+                }
+                logger.atWarn()
+                    .addKeyValue("entries", batch.size())
+                    .addKeyValue("attempt", attempt)
+                    .log("Payment journal batch failed, retrying: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return false when interrupted by shutdown: give up on the batch
+     */
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter dropped(MeterRegistry registry, String reason) {
+        return Counter.builder(DROPPED_METRIC)
+            .description("Payment outcomes not written to the journal")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "payment-journal-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        logger.info("Payment journal started: batchSize={}", batchSize);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = writer;
+        try {
+            thread.join(POLL_TIMEOUT_MILLIS + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Payment journal stopped: {} entries left unwritten", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before and stop after the web server, so outcomes of in-flight
+     * requests are still written
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
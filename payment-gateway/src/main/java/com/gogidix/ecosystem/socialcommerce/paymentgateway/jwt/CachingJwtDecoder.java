@@ -0,0 +1,285 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JWT decoder that remembers verified tokens
+ *
+ * Service-to-service clients present the same bearer token hundreds of times
+ * a minute; each presentation used to be parsed and its signature verified
+ * again.
+ *
+ * PERFORMANCE IMPLEMENTATION: Bounded cache of verified tokens
+ * - Keyed by the SHA-256 of the token, so a hit costs one hash and one map
+ *   lookup instead of a parse and an RSA/EC signature check
+ * - Only tokens the delegate accepted are cached; failures are never cached
+ * - An entry is served only inside the window the delegate's timestamp
+ *   validator would accept: from {@code nbf} to {@code exp}, widened by the
+ *   same clock skew. Outside it the token goes back to the delegate, which
+ *   rejects it
+ * - Bounded by {@code maxEntries}; when full, new tokens are verified and
+ *   not cached (no eviction work on the request path); expired entries are
+ *   swept in the background
+ * - Everything is dropped when the authorization server retires a signing key
+ *
+ * Metrics:
+ * - payment.auth.jwt.cache (counter) by result: hit, miss, full (verified, not cached)
+ * - payment.auth.jwt.cache.size (gauge) cached tokens
+ * - payment.auth.jwt.decode.cpu (summary, nanoseconds) thread CPU per decode by
+ *   cache: hit, miss; sampled, compare the two for per-request auth cost
+ */
+public class CachingJwtDecoder implements JwtDecoder, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingJwtDecoder.class);
+
+    static final String CACHE_METRIC = "payment.auth.jwt.cache";
+    static final String SIZE_METRIC = "payment.auth.jwt.cache.size";
+    static final String CPU_METRIC = "payment.auth.jwt.decode.cpu";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final long clockSkewMillis;
+    private final long sweepIntervalNanos;
+    private final int cpuSampleRate;
+    private final Clock clock;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final Map<TokenKey, CachedJwt> cache = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter full;
+    private final DistributionSummary hitCpu;
+    private final DistributionSummary missCpu;
+
+    private volatile boolean running;
+    private volatile Thread sweeper;
+
+    /**
+     * @param delegate      Verifying decoder; its timestamp validator must use {@code clockSkew}
+     * @param maxEntries    Tokens kept at most; 0 disables caching, e.g. to measure the uncached cost
+     * @param clockSkew     Leeway on {@code exp} and {@code nbf}, as in the delegate
+     * @param sweepInterval How often expired tokens are removed
+     * @param cpuSampleRate One decode in this many has its CPU time recorded; 0 never
+     */
+    public CachingJwtDecoder(JwtDecoder delegate,
+                             int maxEntries,
+                             Duration clockSkew,
+                             Duration sweepInterval,
+                             int cpuSampleRate,
+                             MeterRegistry registry,
+                             Clock clock) {
+        if (maxEntries < 0 || cpuSampleRate < 0) {
+            throw new IllegalArgumentException("JWT cache size and CPU sample rate cannot be negative");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clockSkewMillis = clockSkew.toMillis();
+        this.sweepIntervalNanos = sweepInterval.toNanos();
+        this.cpuSampleRate = threads.isCurrentThreadCpuTimeSupported() ? cpuSampleRate : 0;
+        this.clock = clock;
+
+        this.hits = counter(registry, "hit");
+        this.misses = counter(registry, "miss");
+        this.full = counter(registry, "full");
+        this.hitCpu = cpu(registry, "hit");
+        this.missCpu = cpu(registry, "miss");
+        Gauge.builder(SIZE_METRIC, cache, Map::size)
+            .description("Verified JWTs cached")
+            .register(registry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long startCpu = sampleCpu();
+        TokenKey key = TokenKey.of(token);
+        CachedJwt cached = cache.get(key);
+        if (cached != null) {
+            long now = clock.millis();
+            if (now >= cached.notBeforeMillis() && now < cached.expiresAtMillis()) {
+                hits.increment();
+                recordCpu(hitCpu, startCpu);
+                return cached.jwt();
+            }
+            cache.remove(key, cached);
+        }
+
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        cache(key, jwt);
+        recordCpu(missCpu, startCpu);
+        return jwt;
+    }
+
+    private void cache(TokenKey key, Jwt jwt) {
+        if (maxEntries == 0) {
+            return;
+        }
+        long notBefore = jwt.getNotBefore() != null
+            ? jwt.getNotBefore().toEpochMilli() - clockSkewMillis
+            : Long.MIN_VALUE;
+        long expiresAt = jwt.getExpiresAt() != null
+            ? jwt.getExpiresAt().toEpochMilli() + clockSkewMillis
+            : Long.MAX_VALUE;
+        if (expiresAt <= clock.millis()) {
+            return;
+        }
+        if (cache.size() >= maxEntries) {
+            full.increment();
+            return;
+        }
+        cache.put(key, new CachedJwt(jwt, notBefore, expiresAt));
+    }
+
+    /**
+     * Drop every cached token, e.g. after a signing key was retired
+     */
+    public void invalidateAll() {
+        int dropped = cache.size();
+        cache.clear();
+        logger.atInfo()
+            .addKeyValue("dropped", dropped)
+            .log("Cached JWTs invalidated");
+    }
+
+    /**
+     * Remove expired tokens
+     *
+     * @return tokens removed
+     */
+    int sweep() {
+        long now = clock.millis();
+        int before = cache.size();
+        cache.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+        return before - cache.size();
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    // ==============================================
+    // CPU MEASUREMENT
+    // ==============================================
+
+    private long sampleCpu() {
+        if (cpuSampleRate == 0 || ThreadLocalRandom.current().nextInt(cpuSampleRate) != 0) {
+            return -1;
+        }
+        return threads.getCurrentThreadCpuTime();
+    }
+
+    private void recordCpu(DistributionSummary summary, long startCpu) {
+        if (startCpu >= 0) {
+            summary.record(threads.getCurrentThreadCpuTime() - startCpu);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder(CACHE_METRIC)
+            .description("JWT decodes by cache result")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static DistributionSummary cpu(MeterRegistry registry, String cache) {
+        return DistributionSummary.builder(CPU_METRIC)
+            .description("Thread CPU time per JWT decode")
+            .baseUnit("nanoseconds")
+            .tag("cache", cache)
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::sweepPeriodically, "jwt-cache-sweeper");
+        thread.setDaemon(true);
+        sweeper = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = sweeper;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void sweepPeriodically() {
+        while (running) {
+            LockSupport.parkNanos(this, sweepIntervalNanos);
+            if (!running || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            int removed = sweep();
+            if (removed > 0) {
+                logger.atDebug()
+                    .addKeyValue("removed", removed)
+                    .addKeyValue("remaining", cache.size())
+                    .log("Expired JWTs swept");
+            }
+        }
+    }
+
+    // ==============================================
+    // ENTRIES
+    // ==============================================
+
+    record CachedJwt(Jwt jwt, long notBeforeMillis, long expiresAtMillis) {
+    }
+
+    /**
+     * SHA-256 of a token; the token itself is not kept as a key
+     */
+    record TokenKey(long a, long b, long c, long d) {
+
+        static TokenKey of(String token) {
+            MessageDigest digest = SHA_256.get();
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtIssuerValidator;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JWT Decoder Configuration
+ *
+ * Replaces Spring Boot's resource server decoder, which fetches keys on the
+ * request path and verifies every token on every request, with a
+ * {@link CachingJwtDecoder} over a decoder verifying against a prefetched
+ * {@link RefreshingJwkSource}. Tokens are validated the same way: signature,
+ * {@code exp}/{@code nbf} with {@code payment.security.jwt.clock-skew-seconds},
+ * issuer, and audience when {@code spring.security.oauth2.resourceserver.jwt.audiences}
+ * is set. Keys come from {@code jwk-set-uri}, or from the issuer's OpenID
+ * discovery document when only {@code issuer-uri} is configured.
+ */
+@Configuration
+public class JwtDecoderConfig {
+
+    private static final int MAX_JWKS_BYTES = 512 * 1024;
+
+    @Bean
+    public RefreshingJwkSource jwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuerUri,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}") String jwkSetUri,
+            @Value("${payment.security.jwt.jwks.refresh-interval-ms:300000}") long refreshIntervalMs,
+            @Value("${payment.security.jwt.jwks.min-refresh-interval-ms:30000}") long minRefreshIntervalMs,
+            @Value("${payment.security.jwt.jwks.timeout-ms:2000}") int timeoutMs) {
+        if (!StringUtils.hasText(issuerUri) && !StringUtils.hasText(jwkSetUri)) {
+            throw new IllegalStateException(
+                "spring.security.oauth2.resourceserver.jwt.issuer-uri or jwk-set-uri must be set");
+        }
+        ResourceRetriever retriever = new DefaultResourceRetriever(timeoutMs, timeoutMs, MAX_JWKS_BYTES);
+        return new RefreshingJwkSource(
+            new RemoteJwkSetLoader(retriever, issuerUri, jwkSetUri),
+            Duration.ofMillis(refreshIntervalMs),
+            Duration.ofMillis(minRefreshIntervalMs),
+            Clock.systemUTC());
+    }
+
+    @Bean
+    public CachingJwtDecoder jwtDecoder(
+            RefreshingJwkSource jwkSource,
+            MeterRegistry meterRegistry,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuerUri,
+            @Value("${spring.security.oauth2.resourceserver.jwt.audiences:}") List<String> audiences,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jws-algorithms:RS256}") List<String> algorithms,
+            @Value("${payment.security.jwt.clock-skew-seconds:60}") long clockSkewSeconds,
+            @Value("${payment.security.jwt.cache.max-entries:10000}") int maxEntries,
+            @Value("${payment.security.jwt.cache.sweep-interval-ms:60000}") long sweepIntervalMs,
+            @Value("${payment.security.jwt.cpu-sample-rate:100}") int cpuSampleRate) {
+        Clock clock = Clock.systemUTC();
+        Duration clockSkew = Duration.ofSeconds(clockSkewSeconds);
+        NimbusJwtDecoder verifier = verifyingDecoder(jwkSource, algorithms(algorithms),
+            validator(issuerUri, audiences, clockSkew, clock));
+
+        CachingJwtDecoder decoder = new CachingJwtDecoder(verifier, maxEntries, clockSkew,
+            Duration.ofMillis(sweepIntervalMs), cpuSampleRate, meterRegistry, clock);
+        jwkSource.onKeysRemoved(removed -> decoder.invalidateAll());
+        return decoder;
+    }
+
+    // ==============================================
+    // VERIFICATION
+    // ==============================================
+
+    /**
+     * Decoder verifying signatures against {@code jwkSource} and claims with {@code validator}
+     */
+    static NimbusJwtDecoder verifyingDecoder(JWKSource<SecurityContext> jwkSource,
+                                             Set<JWSAlgorithm> algorithms,
+                                             OAuth2TokenValidator<Jwt> validator) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // Claims are checked by the Spring validator below, as in NimbusJwtDecoder's builders
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(validator);
+        return decoder;
+    }
+
+    static OAuth2TokenValidator<Jwt> validator(String issuerUri, List<String> audiences,
+                                               Duration clockSkew, Clock clock) {
+        JwtTimestampValidator timestamps = new JwtTimestampValidator(clockSkew);
+        timestamps.setClock(clock);
+
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        validators.add(timestamps);
+        if (StringUtils.hasText(issuerUri)) {
+            validators.add(new JwtIssuerValidator(issuerUri));
+        }
+        List<String> expected = audiences.stream().filter(StringUtils::hasText).toList();
+        if (!expected.isEmpty()) {
+            validators.add(new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                aud -> aud != null && !Collections.disjoint(aud, expected)));
+        }
+        return new DelegatingOAuth2TokenValidator<>(validators);
+    }
+
+    private static Set<JWSAlgorithm> algorithms(List<String> names) {
+        Set<JWSAlgorithm> algorithms = new LinkedHashSet<>();
+        for (String name : names) {
+            if (StringUtils.hasText(name)) {
+                algorithms.add(JWSAlgorithm.parse(name.trim()));
+            }
+        }
+        return algorithms;
+    }
+
+    // ==============================================
+    // KEY RETRIEVAL
+    // ==============================================
+
+    /**
+     * Fetches the JWK Set, finding its URI through OpenID discovery on first use
+     * when only the issuer is configured
+     */
+    static final class RemoteJwkSetLoader implements RefreshingJwkSource.JwkSetLoader {
+
+        private final ResourceRetriever retriever;
+        private final String issuerUri;
+        private volatile String jwkSetUri;
+
+        RemoteJwkSetLoader(ResourceRetriever retriever, String issuerUri, String jwkSetUri) {
+            this.retriever = retriever;
+            this.issuerUri = issuerUri;
+            this.jwkSetUri = StringUtils.hasText(jwkSetUri) ? jwkSetUri : null;
+        }
+
+        @Override
+        public JWKSet load() throws Exception {
+            String uri = jwkSetUri;
+            if (uri == null) {
+                uri = discoverJwkSetUri();
+                jwkSetUri = uri;
+            }
+            return JWKSet.parse(retriever.retrieveResource(new URL(uri)).getContent());
+        }
+
+        private String discoverJwkSetUri() throws Exception {
+            String base = issuerUri.endsWith("/") ? issuerUri.substring(0, issuerUri.length() - 1) : issuerUri;
+            String document = retriever.retrieveResource(new URL(base + "/.well-known/openid-configuration"))
+                .getContent();
+            Map<String, Object> configuration = JSONObjectUtils.parse(document);
+            Object uri = configuration.get("jwks_uri");
+            if (!(uri instanceof String value) || value.isBlank()) {
+                throw new IllegalStateException("No jwks_uri in the discovery document of " + issuerUri);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.jwt;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * JWK Set source for token signature verification
+ *
+ * PERFORMANCE IMPLEMENTATION: Prefetched, background-rotated signing keys
+ * - The JWK Set is fetched at startup and refreshed on a background thread,
+ *   so verification never waits for the authorization server
+ * - A token signed with a key not yet known (the server rotated) triggers one
+ *   immediate refresh, at most once per {@code minRefreshInterval}, so forged
+ *   key IDs cannot turn into a request flood against the JWKS endpoint
+ * - Keys dropped from the set are reported to listeners, so tokens verified
+ *   with them stop being served from {@link CachingJwtDecoder}
+ *
+ * If the set cannot be fetched the previous keys stay in use; before the first
+ * successful fetch every token fails verification (401).
+ */
+public class RefreshingJwkSource implements JWKSource<SecurityContext>, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingJwkSource.class);
+
+    /**
+     * Fetches the current JWK Set
+     */
+    @FunctionalInterface
+    public interface JwkSetLoader {
+        JWKSet load() throws Exception;
+    }
+
+    private final JwkSetLoader loader;
+    private final long refreshIntervalNanos;
+    private final long minRefreshIntervalMillis;
+    private final Clock clock;
+    private final List<Consumer<Set<String>>> removalListeners = new CopyOnWriteArrayList<>();
+
+    private volatile JWKSet keys = new JWKSet();
+    private volatile long lastRefreshMillis = Long.MIN_VALUE / 2;
+    private volatile boolean running;
+    private volatile Thread refresher;
+
+    public RefreshingJwkSource(JwkSetLoader loader, Duration refreshInterval, Duration minRefreshInterval, Clock clock) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero() || minRefreshInterval.compareTo(refreshInterval) > 0) {
+            throw new IllegalArgumentException("JWKS refresh needs 0 < min refresh interval <= refresh interval");
+        }
+        this.loader = loader;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> matches = jwkSelector.select(keys);
+        if (matches.isEmpty() && refreshIfDue()) {
+            matches = jwkSelector.select(keys);
+        }
+        return matches;
+    }
+
+    /**
+     * Called with the key IDs that disappeared on a refresh
+     */
+    public void onKeysRemoved(Consumer<Set<String>> listener) {
+        removalListeners.add(listener);
+    }
+
+    public JWKSet getKeys() {
+        return keys;
+    }
+
+    // ==============================================
+    // REFRESH
+    // ==============================================
+
+    /**
+     * Refresh now unless one happened within the minimum interval
+     *
+     * @return whether the keys were refreshed
+     */
+    boolean refreshIfDue() {
+        if (clock.millis() - lastRefreshMillis < minRefreshIntervalMillis) {
+            return false;
+        }
+        synchronized (this) {
+            // Another thread refreshed while this one waited
+            if (clock.millis() - lastRefreshMillis < minRefreshIntervalMillis) {
+                return true;
+            }
+            return refresh();
+        }
+    }
+
+    synchronized boolean refresh() {
+        lastRefreshMillis = clock.millis();
+        JWKSet loaded;
+        try {
+            loaded = Objects.requireNonNull(loader.load(), "no JWK Set returned");
+        } catch (Exception e) {
+            logger.atWarn()
+                .addKeyValue("keys", keys.getKeys().size())
+                .addKeyValue("error", e.getMessage())
+                .log("JWK Set refresh failed; keeping the current keys");
+            return false;
+        }
+
+        Set<String> removed = keyIds(keys);
+        removed.removeAll(keyIds(loaded));
+        keys = loaded;
+        logger.atInfo()
+            .addKeyValue("keys", loaded.getKeys().size())
+            .addKeyValue("removed", removed)
+            .log("JWK Set refreshed");
+        if (!removed.isEmpty()) {
+            removalListeners.forEach(listener -> listener.accept(removed));
+        }
+        return true;
+    }
+
+    private static Set<String> keyIds(JWKSet set) {
+        Set<String> ids = new HashSet<>();
+        for (JWK key : set.getKeys()) {
+            ids.add(String.valueOf(key.getKeyID()));
+        }
+        return ids;
+    }
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    @Override
+    public void start() {
+        refresh();
+        running = true;
+        Thread thread = new Thread(this::refreshPeriodically, "jwks-refresher");
+        thread.setDaemon(true);
+        refresher = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = refresher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Keys must be in place before the web server takes requests
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    private void refreshPeriodically() {
+        while (running) {
+            // Retry sooner while the keys could not be fetched at all
+            long delay = keys.getKeys().isEmpty()
+                ? TimeUnit.MILLISECONDS.toNanos(Math.max(minRefreshIntervalMillis, 1))
+                : refreshIntervalNanos;
+            LockSupport.parkNanos(this, delay);
+            if (!running || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            refresh();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free Ring Buffer Appender
+ *
+ * PERFORMANCE IMPLEMENTATION: Asynchronous logging for payment hot paths
+ * - Bounded multi-producer/single-consumer ring buffer (per-slot sequence numbers, no locks)
+ * - One worker thread drains events to the attached appenders
+ * - Request threads only prepare the event (message, MDC, thread name) and publish it
+ *
+ * Backpressure policy:
+ * - Above {@code discardThreshold} percent full, TRACE and DEBUG events are dropped
+ * - When the buffer is full, TRACE and DEBUG are dropped and INFO and above
+ *   wait for space (or are dropped too when {@code neverBlock} is set)
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_DISCARD_THRESHOLD = 80;
+    public static final int DEFAULT_MAX_FLUSH_TIME_MILLIS = 1000;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private int capacity = DEFAULT_CAPACITY;
+    private int discardThreshold = DEFAULT_DISCARD_THRESHOLD;
+    private int maxFlushTime = DEFAULT_MAX_FLUSH_TIME_MILLIS;
+    private boolean neverBlock = false;
+
+    private AtomicReferenceArray<ILoggingEvent> events;
+    private AtomicLongArray sequences;
+    private int mask;
+    private int discardLevel;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+
+    private volatile boolean consumerParked;
+    private Thread worker;
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No attached appenders found for [" + name + "]");
+            return;
+        }
+        if (capacity < 2) {
+            addError("Invalid capacity [" + capacity + "] for [" + name + "]");
+            return;
+        }
+
+        // Round capacity up to a power of two so the slot index is a mask
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.discardLevel = (int) ((long) size * discardThreshold / 100);
+
+        super.start();
+
+        worker = new Thread(this::drain, "logback-ring-buffer-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        addInfo("Started ring buffer appender [" + name + "] with capacity " + size);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+
+        // Let the worker flush what is already published
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Max flush time exceeded, " + (tail.get() - head.get()) + " events may be lost");
+        }
+
+        appenders.detachAndStopAllAppenders();
+    }
+
+    // ==============================================
+    // PRODUCER
+    // ==============================================
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        boolean discardable = event.getLevel().toInt() <= Level.DEBUG_INT;
+
+        if (discardable && size() >= discardLevel) {
+            discarded.incrementAndGet();
+            return;
+        }
+
+        // Capture message, MDC and thread name on the calling thread
+        event.prepareForDeferredProcessing();
+
+        if (offer(event)) {
+            signalConsumer();
+            return;
+        }
+
+        if (discardable || neverBlock) {
+            discarded.incrementAndGet();
+            return;
+        }
+
+        blocked.incrementAndGet();
+        while (!offer(event)) {
+            if (!isStarted()) {
+                discarded.incrementAndGet();
+                return;
+            }
+            signalConsumer();
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        signalConsumer();
+    }
+
+    private boolean offer(ILoggingEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.lazySet(index, event);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private void signalConsumer() {
+        if (consumerParked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    // ==============================================
+    // CONSUMER
+    // ==============================================
+
+    private void drain() {
+        while (isStarted()) {
+            if (!poll()) {
+                consumerParked = true;
+                if (size() == 0 && isStarted()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerParked = false;
+            }
+        }
+
+        // Flush remaining events after stop
+        while (poll()) {
+            // keep draining
+        }
+    }
+
+    private boolean poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+
+        if (sequences.get(index) != position + 1) {
+            return false;
+        }
+
+        ILoggingEvent event = events.get(index);
+        events.lazySet(index, null);
+        sequences.lazySet(index, position + mask + 1);
+        head.lazySet(position + 1);
+
+        try {
+            appenders.appendLoopOnAppenders(event);
+        } catch (RuntimeException e) {
+            addError("Attached appender failed for [" + name + "]", e);
+        }
+        return true;
+    }
+
+    // ==============================================
+    // STATISTICS
+    // ==============================================
+
+    /**
+     * Events currently waiting in the buffer
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Events dropped by the backpressure policy since start
+     */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    /**
+     * Appends that had to wait for buffer space since start
+     */
+    public long getBlockedCount() {
+        return blocked.get();
+    }
+
+    // ==============================================
+    // CONFIGURATION
+    // ==============================================
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getDiscardThreshold() {
+        return discardThreshold;
+    }
+
+    /**
+     * Fill percentage above which TRACE and DEBUG events are dropped
+     */
+    public void setDiscardThreshold(int discardThreshold) {
+        this.discardThreshold = discardThreshold;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public boolean isNeverBlock() {
+        return neverBlock;
+    }
+
+    public void setNeverBlock(boolean neverBlock) {
+        this.neverBlock = neverBlock;
+    }
+
+    // ==============================================
+    // APPENDER ATTACHABLE
+    // ==============================================
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,116 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampling Turbo Filter for repetitive INFO events
+ *
+ * Runs before a logging event is created. Events are grouped by message
+ * template, which is a constant string for parameterized SLF4J calls, so
+ * the grouping costs one hash lookup. Per template and per interval the
+ * first {@code burst} events pass, then one in every {@code sampleRate}.
+ *
+ * WARN and ERROR events are never sampled. Neither are templates seen after
+ * {@code maxTemplates} distinct ones have been tracked.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "";
+    private int burst = 20;
+    private long intervalMillis = 1000;
+    private int sampleRate = 100;
+    private int maxTemplates = 1024;
+
+    private final ConcurrentHashMap<String, TemplateWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong sampledOut = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                              Object[] params, Throwable t) {
+        if (level != Level.INFO || format == null || t != null || !isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Don't count events that the logger level would reject anyway
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        TemplateWindow window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= maxTemplates) {
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(format, key -> new TemplateWindow());
+        }
+
+        if (window.admit(System.currentTimeMillis(), intervalMillis, burst, sampleRate)) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * INFO events suppressed by sampling since start
+     */
+    public long getSampledOutCount() {
+        return sampledOut.get();
+    }
+
+    // ==============================================
+    // CONFIGURATION
+    // ==============================================
+
+    /**
+     * Only loggers whose name starts with this prefix are sampled
+     */
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix != null ? loggerPrefix : "";
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public void setMaxTemplates(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+    }
+
+    /**
+     * Fixed-interval counter for one message template
+     */
+    private static final class TemplateWindow {
+
+        private volatile long windowStart;
+        private final AtomicLong count = new AtomicLong();
+
+        boolean admit(long now, long intervalMillis, int burst, int sampleRate) {
+            long start = windowStart;
+            if (now - start >= intervalMillis) {
+                // Racing resets only lose a few counts at the window edge
+                windowStart = now;
+                count.set(0);
+            }
+            long seen = count.incrementAndGet();
+            return seen <= burst || (seen - burst) % sampleRate == 0;
+        }
+    }
+}
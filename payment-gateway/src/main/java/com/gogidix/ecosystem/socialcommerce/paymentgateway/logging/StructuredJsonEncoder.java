@@ -0,0 +1,196 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import org.slf4j.event.KeyValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Structured JSON Line Encoder
+ *
+ * Writes one JSON object per event: timestamp, level, logger, thread,
+ * message, every MDC entry and every SLF4J key/value pair as top-level
+ * fields, plus the stack trace when present.
+ *
+ * Keys are never repeated within an object. The standard fields above win
+ * over MDC entries and key/value pairs of the same name, a key/value pair
+ * wins over an MDC entry, and the last of repeated key/value pairs wins.
+ *
+ * Since Logback 1.4 {@code OutputStreamAppender} encodes outside its lock,
+ * so one encoder is called from many threads at once. The text buffer and
+ * the per-second timestamp prefix are therefore kept per thread.
+ */
+public class StructuredJsonEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final DateTimeFormatter SECOND_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private static final Set<String> STANDARD_FIELDS =
+        Set.of("@timestamp", "level", "logger", "thread", "message", "exception");
+
+    // A buffer grown past this by one huge event is not kept for the thread's later events
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private final ThreadLocal<EncoderState> state = ThreadLocal.withInitial(EncoderState::new);
+
+    private static final class EncoderState {
+        StringBuilder buffer = new StringBuilder(512);
+        long cachedSecond = Long.MIN_VALUE;
+        String cachedSecondText;
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return EMPTY;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return EMPTY;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        EncoderState local = state.get();
+        StringBuilder json = local.buffer;
+        json.setLength(0);
+
+        json.append("{\"@timestamp\":\"");
+        appendTimestamp(local, json, event.getTimeStamp());
+        json.append('"');
+
+        field(json, "level", event.getLevel().toString());
+        field(json, "logger", event.getLoggerName());
+        field(json, "thread", event.getThreadName());
+        field(json, "message", event.getFormattedMessage());
+
+        List<KeyValuePair> keyValuePairs = event.getKeyValuePairs();
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                String key = entry.getKey();
+                if (!STANDARD_FIELDS.contains(key) && indexOfKey(keyValuePairs, key, 0) < 0) {
+                    field(json, key, entry.getValue());
+                }
+            }
+        }
+
+        if (keyValuePairs != null) {
+            for (int i = 0; i < keyValuePairs.size(); i++) {
+                KeyValuePair pair = keyValuePairs.get(i);
+                if (!STANDARD_FIELDS.contains(pair.key) && indexOfKey(keyValuePairs, pair.key, i + 1) < 0) {
+                    value(json, pair.key, pair.value);
+                }
+            }
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field(json, "exception", ThrowableProxyUtil.asString(throwable));
+        }
+
+        json.append("}\n");
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        if (json.capacity() > MAX_RETAINED_CAPACITY) {
+            local.buffer = new StringBuilder(512);
+        }
+        return bytes;
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private static void appendTimestamp(EncoderState local, StringBuilder json, long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != local.cachedSecond) {
+            local.cachedSecondText = SECOND_FORMAT.format(Instant.ofEpochSecond(second));
+            local.cachedSecond = second;
+        }
+        int millis = (int) Math.floorMod(epochMillis, 1000);
+        json.append(local.cachedSecondText).append('.');
+        if (millis < 100) {
+            json.append('0');
+        }
+        if (millis < 10) {
+            json.append('0');
+        }
+        json.append(millis).append('Z');
+    }
+
+    private static int indexOfKey(List<KeyValuePair> keyValuePairs, String key, int from) {
+        if (keyValuePairs == null) {
+            return -1;
+        }
+        for (int i = from; i < keyValuePairs.size(); i++) {
+            if (key.equals(keyValuePairs.get(i).key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void value(StringBuilder json, String key, Object value) {
+        if (value instanceof Number || value instanceof Boolean) {
+            json.append(",\"");
+            escape(json, key);
+            json.append("\":").append(value);
+        } else {
+            field(json, key, value != null ? value.toString() : null);
+        }
+    }
+
+    private static void field(StringBuilder json, String key, String value) {
+        json.append(",\"");
+        escape(json, key);
+        json.append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        escape(json, value);
+        json.append('"');
+    }
+
+    private static void escape(StringBuilder json, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00");
+                        json.append(Character.forDigit(c >> 4, 16));
+                        json.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.methods;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayFactory;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Supported Payment Methods Catalog
+ *
+ * Backs {@code GET /api/v1/payments/methods/{countryCode}}, which the checkout
+ * page fetches on every page view although the answer only changes with the
+ * routing configuration or gateway health.
+ *
+ * PERFORMANCE IMPLEMENTATION: Precomputed, validator-tagged responses
+ * - Every ISO 3166 country is routed once per rebuild and its JSON body
+ *   serialized to bytes; countries routed to the same gateway share one body
+ * - Each body carries a strong ETag (SHA-256 of the bytes) and a public
+ *   {@code Cache-Control}, so browsers and CDNs revalidate instead of refetching
+ * - A matching {@code If-None-Match} is answered 304 from the lookup alone;
+ *   requests never reach the router or the gateways
+ * - Rebuilt when gateway availability changes (polled off the request path),
+ *   when the environment is refreshed, or on {@link #rebuild()}
+ * - An unavailable gateway's countries get the endpoint's 400 error, uncached
+ *
+ * Metrics:
+ * - payment.methods.catalog.rebuilds (counter, by reason) catalog rebuilds
+ */
+@Component
+public class SupportedMethodsCatalog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportedMethodsCatalog.class);
+
+    public static final String REBUILDS_METRIC = "payment.methods.catalog.rebuilds";
+
+    static final String REASON_STARTUP = "startup";
+    static final String REASON_HEALTH = "health";
+    static final String REASON_CONFIG = "config";
+    static final String REASON_MANUAL = "manual";
+
+    // Leading SHA-256 bytes kept in the ETag (32 hex characters)
+    private static final int ETAG_BYTES = 16;
+
+    private final RegionalPaymentRouter router;
+    private final PaymentGatewayFactory gatewayFactory;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final long healthCheckIntervalNanos;
+    private final CacheControl cacheControl;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean running;
+    private volatile Thread healthPoller;
+
+    @Autowired
+    public SupportedMethodsCatalog(RegionalPaymentRouter router,
+                                   PaymentGatewayFactory gatewayFactory,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry registry,
+                                   @Value("${payment.methods.health-check-interval-ms:30000}") long healthCheckIntervalMs,
+                                   @Value("${payment.methods.max-age-seconds:300}") long maxAgeSeconds) {
+        if (healthCheckIntervalMs <= 0) {
+            throw new IllegalArgumentException("Methods catalog health check interval must be positive");
+        }
+        this.router = router;
+        this.gatewayFactory = gatewayFactory;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.healthCheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(healthCheckIntervalMs);
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    // ==============================================
+    // LOOKUP
+    // ==============================================
+
+    /**
+     * Precomputed response for a country code; blank or unknown codes get the
+     * default route, as {@link RegionalPaymentRouter#selectGateway} does
+     */
+    public MethodsResponse lookup(String countryCode) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Served before the context finished starting
+            current = rebuild(REASON_STARTUP);
+        }
+        if (countryCode == null) {
+            return current.fallback();
+        }
+        MethodsResponse response = current.byCountry().get(countryCode.trim().toUpperCase(Locale.ROOT));
+        return response != null ? response : current.fallback();
+    }
+
+    /**
+     * Recompute every country's response, e.g. after a routing change
+     */
+    public void rebuild() {
+        rebuild(REASON_MANUAL);
+    }
+
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange() {
+        rebuild(REASON_CONFIG);
+    }
+
+    /**
+     * Rebuild if gateway availability changed since the last build
+     *
+     * @return whether the catalog was rebuilt
+     */
+    boolean refreshAvailability() {
+        Snapshot current = snapshot;
+        if (current != null && current.availability().equals(gatewayFactory.getAvailableGateways())) {
+            return false;
+        }
+        rebuild(REASON_HEALTH);
+        return true;
+    }
+
+    // ==============================================
+    // BUILD
+    // ==============================================
+
+    synchronized Snapshot rebuild(String reason) {
+        Map<PaymentGatewayType, Boolean> availability = new EnumMap<>(PaymentGatewayType.class);
+        availability.putAll(gatewayFactory.getAvailableGateways());
+
+        // One body per gateway, shared by all of its countries
+        Map<String, MethodsResponse> byGateway = new HashMap<>();
+        Map<String, MethodsResponse> byCountry = new HashMap<>();
+        for (String country : Locale.getISOCountries()) {
+            String gatewayName = router.getGatewayName(country);
+            byCountry.put(country, byGateway.computeIfAbsent(gatewayName, name -> build(name, availability)));
+        }
+        MethodsResponse fallback = byGateway.computeIfAbsent(PaymentGatewayType.STRIPE.name(),
+            name -> build(name, availability));
+
+        Snapshot rebuilt = new Snapshot(Map.copyOf(byCountry), fallback, availability);
+        snapshot = rebuilt;
+        Counter.builder(REBUILDS_METRIC)
+            .description("Supported payment methods catalog rebuilds")
+            .tag("reason", reason)
+            .register(registry)
+            .increment();
+        logger.atInfo()
+            .addKeyValue("reason", reason)
+            .addKeyValue("countries", byCountry.size())
+            .addKeyValue("availability", availability)
+            .log("Supported payment methods catalog rebuilt");
+        return rebuilt;
+    }
+
+    private MethodsResponse build(String gatewayName, Map<PaymentGatewayType, Boolean> availability) {
+        PaymentGatewayType type = PaymentGatewayType.valueOf(gatewayName);
+        PaymentGateway gateway = gatewayFactory.findGateway(type).orElse(null);
+        if (gateway == null || !Boolean.TRUE.equals(availability.get(type))) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("error", "Country not supported");
+            error.put("message", "Payment gateway " + gatewayName + " is not available");
+            return new MethodsResponse(HttpStatus.BAD_REQUEST, serialize(error), null, cacheControl);
+        }
+
+        // Sorted, so the bytes and their ETag are the same on every replica
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("gateway", gateway.getName());
+        body.put("paymentMethods", new TreeSet<>(gateway.getSupportedPaymentMethods()));
+        body.put("currencies", new TreeSet<>(gateway.getSupportedCurrencies()));
+        byte[] bytes = serialize(body);
+        return new MethodsResponse(HttpStatus.OK, bytes, etag(bytes), cacheControl);
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Supported payment methods could not be serialized", e);
+        }
+    }
+
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + HexFormat.of().formatHex(digest, 0, ETAG_BYTES) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    @Override
+    public void start() {
+        rebuild(REASON_STARTUP);
+        running = true;
+        Thread poller = new Thread(this::pollHealth, "payment-methods-catalog");
+        poller.setDaemon(true);
+        healthPoller = poller;
+        poller.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread poller = healthPoller;
+        if (poller != null) {
+            poller.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void pollHealth() {
+        while (running) {
+            LockSupport.parkNanos(this, healthCheckIntervalNanos);
+            if (!running || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                refreshAvailability();
+            } catch (RuntimeException e) {
+                logger.atWarn()
+                    .addKeyValue("error", e.getMessage())
+                    .log("Payment gateway availability check failed; keeping the current catalog");
+            }
+        }
+    }
+
+    // ==============================================
+    // RESPONSES
+    // ==============================================
+
+    record Snapshot(Map<String, MethodsResponse> byCountry,
+                    MethodsResponse fallback,
+                    Map<PaymentGatewayType, Boolean> availability) {
+    }
+
+    /**
+     * One precomputed response; {@code etag} is null for errors, which are not cached
+     */
+    public record MethodsResponse(HttpStatus status, byte[] body, String etag, CacheControl cacheControl) {
+
+        /**
+         * The response to send, 304 without a body when the client already holds this one
+         */
+        public ResponseEntity<byte[]> respond(String ifNoneMatch) {
+            if (etag == null) {
+                return ResponseEntity.status(status)
+                    .cacheControl(CacheControl.noStore())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+            }
+            if (matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+            }
+            return ResponseEntity.status(status)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+        }
+
+        /**
+         * If-None-Match uses the weak comparison (RFC 9110 13.1.2)
+         */
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || etag == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*")) {
+                    return true;
+                }
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+
+/**
+ * Payment Gateway Metrics
+ *
+ * Builds {@link InstrumentedPaymentGateway} decorators and owns the per-gateway
+ * meters and SLO trackers behind them. Meters are created once per gateway
+ * name, so decorating the same gateway twice shares its series.
+ *
+ * Metrics:
+ * - payment.gateway.requests (timer, percentile histogram) by gateway, operation, currency, outcome
+ * - payment.gateway.inflight (gauge) by gateway, operation
+ * - payment.gateway.errors (counter) by gateway, operation, exception
+ */
+@Component
+public class GatewayMetrics {
+
+    private static final Logger logger = Logger.getLogger(GatewayMetrics.class.getName());
+
+    private final MeterRegistry registry;
+    private final Duration latencyThreshold;
+    private final double availabilityTarget;
+    private final double latencyTarget;
+
+    private final Map<String, GatewayOperationMeters[]> metersByGateway = new ConcurrentSkipListMap<>();
+    private final Map<String, SloTracker> sloTrackers = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public GatewayMetrics(MeterRegistry registry,
+                          @Value("${payment.slo.latency-threshold-ms:2000}") long latencyThresholdMs,
+                          @Value("${payment.slo.availability-target:0.999}") double availabilityTarget,
+                          @Value("${payment.slo.latency-target:0.99}") double latencyTarget) {
+        if (availabilityTarget <= 0 || availabilityTarget >= 1 || latencyTarget <= 0 || latencyTarget >= 1) {
+            throw new IllegalArgumentException("SLO targets must be between 0 and 1 (exclusive)");
+        }
+        this.registry = registry;
+        this.latencyThreshold = Duration.ofMillis(latencyThresholdMs);
+        this.availabilityTarget = availabilityTarget;
+        this.latencyTarget = latencyTarget;
+    }
+
+    /**
+     * Wrap a gateway with latency, in-flight, error and SLO instrumentation
+     */
+    public PaymentGateway instrument(PaymentGateway gateway) {
+        if (gateway instanceof InstrumentedPaymentGateway) {
+            return gateway;
+        }
+
+        String name = gateway.getName();
+        GatewayOperationMeters[] meters = metersByGateway.computeIfAbsent(name, this::createMeters);
+        SloTracker sloTracker = sloTrackers.computeIfAbsent(name,
+            key -> new SloTracker(registry.config().clock(), latencyThreshold.toNanos()));
+
+        logger.info("Instrumented payment gateway: " + name);
+        return new InstrumentedPaymentGateway(gateway, registry.config().clock(), sloTracker, meters);
+    }
+
+    /**
+     * SLO trackers keyed by gateway name, in name order
+     */
+    public Map<String, SloTracker> getSloTrackers() {
+        return Collections.unmodifiableMap(sloTrackers);
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public double getAvailabilityTarget() {
+        return availabilityTarget;
+    }
+
+    public double getLatencyTarget() {
+        return latencyTarget;
+    }
+
+    private GatewayOperationMeters[] createMeters(String gateway) {
+        GatewayOperation[] operations = GatewayOperation.values();
+        GatewayOperationMeters[] meters = new GatewayOperationMeters[operations.length];
+        for (GatewayOperation operation : operations) {
+            meters[operation.ordinal()] = new GatewayOperationMeters(registry, gateway, operation, latencyThreshold);
+        }
+        return meters;
+    }
+}
@@ -0,0 +1,29 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics;
+
+/**
+ * Instrumented {@link com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway} operations
+ *
+ * The tag value is fixed per constant so no string is built per call.
+ */
+public enum GatewayOperation {
+
+    PROCESS_PAYMENT("process_payment"),
+    REFUND("refund"),
+    CAPTURE("capture"),
+    VERIFY_WEBHOOK("verify_webhook"),
+    PROCESS_WEBHOOK("process_webhook"),
+    PAYMENT_STATUS("payment_status"),
+    CREATE_TOKEN("create_token"),
+    PAYOUT("payout"),
+    AVAILABILITY("availability");
+
+    private final String tagValue;
+
+    GatewayOperation(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
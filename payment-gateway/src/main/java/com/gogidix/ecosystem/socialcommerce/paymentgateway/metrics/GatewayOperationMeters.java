@@ -0,0 +1,128 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics;
+
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for one gateway operation
+ *
+ * Timers are resolved once per (currency, outcome) pair and cached in a flat
+ * array indexed by the currency registry ordinal, so the hot path is an array
+ * read instead of a registry lookup. Racing initializations are harmless:
+ * the registry hands back the same meter for the same id.
+ */
+class GatewayOperationMeters {
+
+    static final String REQUESTS_METRIC = "payment.gateway.requests";
+    static final String INFLIGHT_METRIC = "payment.gateway.inflight";
+    static final String ERRORS_METRIC = "payment.gateway.errors";
+
+    static final String OUTCOME_SUCCESS = "success";
+    static final String OUTCOME_ERROR = "error";
+
+    private static final CurrencyRegistry CURRENCIES = CurrencyRegistry.getInstance();
+
+    // Currency slots: 0 = operation without currency, 1 = unknown code, 2.. = registry ordinal
+    private static final int NO_CURRENCY = 0;
+    private static final int OTHER_CURRENCY = 1;
+    private static final int CURRENCY_OFFSET = 2;
+
+    private final MeterRegistry registry;
+    private final String gateway;
+    private final GatewayOperation operation;
+    private final Duration latencyThreshold;
+
+    private final Timer[] timers = new Timer[(CURRENCIES.size() + CURRENCY_OFFSET) * 2];
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentHashMap<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    GatewayOperationMeters(MeterRegistry registry, String gateway, GatewayOperation operation,
+                           Duration latencyThreshold) {
+        this.registry = registry;
+        this.gateway = gateway;
+        this.operation = operation;
+        this.latencyThreshold = latencyThreshold;
+
+        Gauge.builder(INFLIGHT_METRIC, inFlight, AtomicInteger::get)
+            .description("Payment gateway calls currently in flight")
+            .tag("gateway", gateway)
+            .tag("operation", operation.tagValue())
+            .register(registry);
+    }
+
+    void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    void success(long durationNanos, String currency) {
+        inFlight.decrementAndGet();
+        timer(currencySlot(currency), false).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void error(long durationNanos, String currency, Throwable error) {
+        inFlight.decrementAndGet();
+        timer(currencySlot(currency), true).record(durationNanos, TimeUnit.NANOSECONDS);
+        errorCounters.computeIfAbsent(error.getClass(), this::errorCounter).increment();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private static int currencySlot(String currency) {
+        if (currency == null) {
+            return NO_CURRENCY;
+        }
+        int index = CURRENCIES.indexOf(currency);
+        return index < 0 ? OTHER_CURRENCY : index + CURRENCY_OFFSET;
+    }
+
+    private Timer timer(int currencySlot, boolean error) {
+        int slot = currencySlot * 2 + (error ? 1 : 0);
+        Timer timer = timers[slot];
+        if (timer == null) {
+            timer = Timer.builder(REQUESTS_METRIC)
+                .description("Payment gateway call latency")
+                .tag("gateway", gateway)
+                .tag("operation", operation.tagValue())
+                .tag("currency", currencyTag(currencySlot))
+                .tag("outcome", error ? OUTCOME_ERROR : OUTCOME_SUCCESS)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(latencyThreshold)
+                .register(registry);
+            timers[slot] = timer;
+        }
+        return timer;
+    }
+
+    private static String currencyTag(int currencySlot) {
+        if (currencySlot == NO_CURRENCY) {
+            return "none";
+        }
+        if (currencySlot == OTHER_CURRENCY) {
+            return "other";
+        }
+        return CURRENCIES.code(currencySlot - CURRENCY_OFFSET);
+    }
+
+    private Counter errorCounter(Class<?> errorClass) {
+        return Counter.builder(ERRORS_METRIC)
+            .description("Payment gateway call failures by exception class")
+            .tag("gateway", gateway)
+            .tag("operation", operation.tagValue())
+            .tag("exception", errorClass.getSimpleName())
+            .register(registry);
+    }
+}
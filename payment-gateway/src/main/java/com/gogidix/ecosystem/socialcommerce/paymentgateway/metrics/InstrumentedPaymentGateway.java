@@ -0,0 +1,216 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import io.micrometer.core.instrument.Clock;
+
+import java.util.Set;
+
+/**
+ * Instrumented Payment Gateway
+ *
+ * Decorates a {@link PaymentGateway} with latency, in-flight and error metrics
+ * plus SLO tracking. Every remote operation is timed; local metadata lookups
+ * (name, supported methods and currencies) pass straight through.
+ *
+ * The per-call work is two clock reads, one atomic increment/decrement, one
+ * cached timer record and one SLO bucket increment, with no allocation on
+ * the success path.
+ */
+public class InstrumentedPaymentGateway implements PaymentGateway {
+
+    private final PaymentGateway delegate;
+    private final Clock clock;
+    private final SloTracker sloTracker;
+    private final GatewayOperationMeters[] meters;
+
+    InstrumentedPaymentGateway(PaymentGateway delegate, Clock clock, SloTracker sloTracker,
+                               GatewayOperationMeters[] meters) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.sloTracker = sloTracker;
+        this.meters = meters;
+    }
+
+    /**
+     * The undecorated gateway
+     */
+    public PaymentGateway getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public PaymentResponse processPayment(PaymentRequest request) {
+        GatewayOperationMeters operation = meters[GatewayOperation.PROCESS_PAYMENT.ordinal()];
+        String currency = request != null ? request.getCurrency() : null;
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.processPayment(request);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, currency, failure);
+        }
+    }
+
+    @Override
+    public RefundResponse refundPayment(RefundRequest request) {
+        GatewayOperationMeters operation = meters[GatewayOperation.REFUND.ordinal()];
+        String currency = request != null ? request.getCurrency() : null;
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.refundPayment(request);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, currency, failure);
+        }
+    }
+
+    @Override
+    public CaptureResponse capturePayment(String transactionId, Double amount) {
+        GatewayOperationMeters operation = meters[GatewayOperation.CAPTURE.ordinal()];
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.capturePayment(transactionId, amount);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, null, failure);
+        }
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        GatewayOperationMeters operation = meters[GatewayOperation.VERIFY_WEBHOOK.ordinal()];
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.verifyWebhookSignature(payload, signature);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, null, failure);
+        }
+    }
+
+    @Override
+    public WebhookResponse processWebhook(String payload) {
+        GatewayOperationMeters operation = meters[GatewayOperation.PROCESS_WEBHOOK.ordinal()];
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.processWebhook(payload);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, null, failure);
+        }
+    }
+
+    @Override
+    public PaymentStatus getPaymentStatus(String transactionId) {
+        GatewayOperationMeters operation = meters[GatewayOperation.PAYMENT_STATUS.ordinal()];
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.getPaymentStatus(transactionId);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, null, failure);
+        }
+    }
+
+    @Override
+    public TokenResponse createPaymentToken(CardDetails cardDetails) {
+        GatewayOperationMeters operation = meters[GatewayOperation.CREATE_TOKEN.ordinal()];
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.createPaymentToken(cardDetails);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, null, failure);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Set<String> getSupportedPaymentMethods() {
+        return delegate.getSupportedPaymentMethods();
+    }
+
+    @Override
+    public Set<String> getSupportedCurrencies() {
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        GatewayOperationMeters operation = meters[GatewayOperation.AVAILABILITY.ordinal()];
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.isAvailable();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, null, failure);
+        }
+    }
+
+    @Override
+    public PayoutResponse initiatePayout(PayoutRequest request) {
+        GatewayOperationMeters operation = meters[GatewayOperation.PAYOUT.ordinal()];
+        String currency = request != null ? request.getCurrency() : null;
+        long start = begin(operation);
+        Throwable failure = null;
+        try {
+            return delegate.initiatePayout(request);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            end(operation, start, currency, failure);
+        }
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private long begin(GatewayOperationMeters operation) {
+        operation.begin();
+        return clock.monotonicTime();
+    }
+
+    // In a finally block, so Errors from an SDK are counted and never leave the in-flight gauge raised
+    private void end(GatewayOperationMeters operation, long start, String currency, Throwable failure) {
+        long duration = clock.monotonicTime() - start;
+        if (failure == null) {
+            operation.success(duration, currency);
+            sloTracker.record(duration, false);
+        } else {
+            operation.error(duration, currency, failure);
+            // Rejected input is the caller's fault and does not spend the availability budget
+            sloTracker.record(duration, !(failure instanceof IllegalArgumentException));
+        }
+    }
+}
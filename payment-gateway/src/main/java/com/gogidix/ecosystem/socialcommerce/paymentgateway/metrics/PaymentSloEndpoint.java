@@ -0,0 +1,109 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Payment SLO Actuator Endpoint ({@code /actuator/paymentslo})
+ *
+ * Reports multi-window error budget burn rates per gateway for the
+ * availability and latency SLOs:
+ * - Fast burn: 1h and 5m windows both above 14.4 (2% of a 30 day budget in 1h)
+ * - Slow burn: 6h and 30m windows both above 6 (5% of a 30 day budget in 6h)
+ */
+@Component
+@Endpoint(id = "paymentslo")
+public class PaymentSloEndpoint {
+
+    static final double FAST_BURN_THRESHOLD = 14.4;
+    static final double SLOW_BURN_THRESHOLD = 6.0;
+
+    private static final int[] WINDOW_MINUTES = {5, 30, 60, 360};
+
+    private final GatewayMetrics gatewayMetrics;
+
+    @Autowired
+    public PaymentSloEndpoint(GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slo() {
+        Map<String, Object> gateways = new LinkedHashMap<>();
+        for (Map.Entry<String, SloTracker> entry : gatewayMetrics.getSloTrackers().entrySet()) {
+            gateways.put(entry.getKey(), report(entry.getValue()));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("availabilityTarget", gatewayMetrics.getAvailabilityTarget());
+        body.put("latencyTarget", gatewayMetrics.getLatencyTarget());
+        body.put("latencyThresholdMs", gatewayMetrics.getLatencyThreshold().toMillis());
+        body.put("gateways", gateways);
+        return body;
+    }
+
+    @ReadOperation
+    public Map<String, Object> gateway(@Selector String gateway) {
+        SloTracker tracker = gatewayMetrics.getSloTrackers().get(gateway.toUpperCase());
+        return tracker != null ? report(tracker) : null;
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private Map<String, Object> report(SloTracker tracker) {
+        double availabilityTarget = gatewayMetrics.getAvailabilityTarget();
+        double latencyTarget = gatewayMetrics.getLatencyTarget();
+
+        Map<String, Object> availabilityWindows = new LinkedHashMap<>();
+        Map<String, Object> latencyWindows = new LinkedHashMap<>();
+        double[] availabilityBurn = new double[WINDOW_MINUTES.length];
+        double[] latencyBurn = new double[WINDOW_MINUTES.length];
+
+        for (int i = 0; i < WINDOW_MINUTES.length; i++) {
+            SloTracker.Window window = tracker.window(WINDOW_MINUTES[i]);
+            String label = label(WINDOW_MINUTES[i]);
+            availabilityBurn[i] = window.availabilityBurnRate(availabilityTarget);
+            latencyBurn[i] = window.latencyBurnRate(latencyTarget);
+
+            availabilityWindows.put(label, windowReport(window.total(), window.failed(),
+                window.errorRatio(), availabilityBurn[i]));
+            latencyWindows.put(label, windowReport(window.total(), window.slow(),
+                window.slowRatio(), latencyBurn[i]));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("availability", sloReport(availabilityWindows, availabilityBurn));
+        report.put("latency", sloReport(latencyWindows, latencyBurn));
+        return report;
+    }
+
+    private static Map<String, Object> sloReport(Map<String, Object> windows, double[] burn) {
+        // Indexes follow WINDOW_MINUTES: 0 = 5m, 1 = 30m, 2 = 1h, 3 = 6h
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("windows", windows);
+        report.put("fastBurn", burn[2] > FAST_BURN_THRESHOLD && burn[0] > FAST_BURN_THRESHOLD);
+        report.put("slowBurn", burn[3] > SLOW_BURN_THRESHOLD && burn[1] > SLOW_BURN_THRESHOLD);
+        return report;
+    }
+
+    private static Map<String, Object> windowReport(long total, long bad, double ratio, double burnRate) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", total);
+        report.put("bad", bad);
+        report.put("badRatio", ratio);
+        report.put("burnRate", burnRate);
+        return report;
+    }
+
+    private static String label(int minutes) {
+        return minutes % 60 == 0 ? (minutes / 60) + "h" : minutes + "m";
+    }
+}
@@ -0,0 +1,135 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics;
+
+import io.micrometer.core.instrument.Clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding-window SLO tracker for one payment gateway
+ *
+ * Keeps six hours of one-minute buckets. Each bucket counts total, failed
+ * and slow calls with {@link LongAdder}s. The only lock is taken when a bucket
+ * is recycled, once a minute; calls that race the recycle may be dropped,
+ * which is an acceptable error for burn-rate alerting.
+ */
+public class SloTracker {
+
+    private static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int BUCKETS = 6 * 60;
+
+    private final Clock clock;
+    private final long latencyThresholdNanos;
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+
+    public SloTracker(Clock clock, long latencyThresholdNanos) {
+        this.clock = clock;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Record one completed call
+     *
+     * @param durationNanos Call latency
+     * @param failed Whether the call counts against the availability SLO
+     */
+    public void record(long durationNanos, boolean failed) {
+        long minute = clock.wallTime() / BUCKET_MILLIS;
+        Bucket bucket = buckets[(int) (minute % BUCKETS)];
+
+        if (bucket.minute != minute) {
+            bucket.recycle(minute);
+        }
+
+        bucket.total.increment();
+        if (failed) {
+            bucket.failed.increment();
+        }
+        if (durationNanos > latencyThresholdNanos) {
+            bucket.slow.increment();
+        }
+    }
+
+    /**
+     * Sum the most recent {@code minutes} buckets, including the current one
+     */
+    public Window window(int minutes) {
+        if (minutes < 1 || minutes > BUCKETS) {
+            throw new IllegalArgumentException("Window must be between 1 and " + BUCKETS + " minutes");
+        }
+
+        long now = clock.wallTime() / BUCKET_MILLIS;
+        long total = 0;
+        long failed = 0;
+        long slow = 0;
+
+        for (Bucket bucket : buckets) {
+            long age = now - bucket.minute;
+            if (age >= 0 && age < minutes) {
+                total += bucket.total.sum();
+                failed += bucket.failed.sum();
+                slow += bucket.slow.sum();
+            }
+        }
+        return new Window(minutes, total, failed, slow);
+    }
+
+    public long getLatencyThresholdNanos() {
+        return latencyThresholdNanos;
+    }
+
+    /**
+     * Aggregated counts over a window
+     */
+    public record Window(int minutes, long total, long failed, long slow) {
+
+        public double errorRatio() {
+            return total == 0 ? 0.0 : (double) failed / total;
+        }
+
+        public double slowRatio() {
+            return total == 0 ? 0.0 : (double) slow / total;
+        }
+
+        /**
+         * Burn rate of the availability error budget; 1.0 spends the budget
+         * exactly over the SLO period
+         */
+        public double availabilityBurnRate(double target) {
+            return burnRate(errorRatio(), target);
+        }
+
+        /**
+         * Burn rate of the latency error budget
+         */
+        public double latencyBurnRate(double target) {
+            return burnRate(slowRatio(), target);
+        }
+
+        private static double burnRate(double badRatio, double target) {
+            double budget = 1.0 - target;
+            return budget <= 0 ? 0.0 : badRatio / budget;
+        }
+    }
+
+    private static final class Bucket {
+
+        private volatile long minute = -1;
+        private final LongAdder total = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+
+        private synchronized void recycle(long newMinute) {
+            // Re-check under the lock so only one caller resets the bucket
+            if (minute != newMinute) {
+                total.reset();
+                failed.reset();
+                slow.reset();
+                minute = newMinute;
+            }
+        }
+    }
+}
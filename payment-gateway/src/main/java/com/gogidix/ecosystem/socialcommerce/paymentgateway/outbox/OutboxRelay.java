@@ -0,0 +1,362 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox;
+
+import com.gogidix.socialcommerce.shared.context.KafkaCorrelationHeaders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Payment Outbox Relay
+ *
+ * PERFORMANCE IMPLEMENTATION: Batched outbox draining to Kafka
+ * - Claims up to {@code batchSize} rows per database transaction with
+ *   {@code SELECT ... FOR UPDATE SKIP LOCKED}, so replicas drain disjoint
+ *   batches instead of queueing on each other's row locks
+ * - Publishes each batch in one Kafka transaction and deletes the rows in the
+ *   same database transaction that holds their locks
+ * - Woken immediately by commits in this instance, then lingers briefly so a
+ *   burst of commits is relayed as one batch; polls for other replicas' rows
+ *
+ * Delivery is at-least-once. The Kafka commit and the database commit are two
+ * transactions, and nothing makes them atomic:
+ * - a relay crash before the Kafka commit aborts the Kafka transaction (fenced
+ *   by the next producer with the same transactional ID) and rolls back the
+ *   claim, so read_committed consumers see none of that batch twice
+ * - a crash between the Kafka commit and the database commit republishes that
+ *   one batch, and consumers see its records twice
+ * Consumers get exactly-once processing only by remembering the {@code outbox-id}
+ * header of what they have handled and skipping repeats. Ids are unique and
+ * increase in outbox order.
+ *
+ * Ordering is per aggregate key within one relay. With several replicas two
+ * events for the same key can be published by different relays concurrently.
+ *
+ * Metrics:
+ * - payment.outbox.published (counter) records committed to Kafka
+ * - payment.outbox.batch (timer) claim, publish and delete time per batch
+ * - payment.outbox.batch.size (summary) records per batch
+ * - payment.outbox.publish.lag (timer) outbox insert to Kafka commit, per record
+ * - payment.outbox.lag (gauge, seconds) age of the oldest unpublished record
+ * - payment.outbox.failures (counter) failed batches
+ */
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    public static final String OUTBOX_ID_HEADER = "outbox-id";
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
+    public static final String PUBLISHED_METRIC = "payment.outbox.published";
+    public static final String BATCH_METRIC = "payment.outbox.batch";
+    public static final String BATCH_SIZE_METRIC = "payment.outbox.batch.size";
+    public static final String PUBLISH_LAG_METRIC = "payment.outbox.publish.lag";
+    public static final String LAG_METRIC = "payment.outbox.lag";
+    public static final String FAILURES_METRIC = "payment.outbox.failures";
+
+    private static final String SELECT_BATCH_SQL =
+        "SELECT id, aggregate_key, event_type, payload, correlation_id, created_at "
+            + "FROM payment_outbox ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String DELETE_SQL = "DELETE FROM payment_outbox WHERE id = ?";
+    private static final String OLDEST_SQL = "SELECT MIN(created_at) FROM payment_outbox";
+
+    private static final RowMapper<OutboxRecord> ROW_MAPPER = (rs, rowNum) -> new OutboxRecord(
+        rs.getLong("id"),
+        rs.getString("aggregate_key"),
+        rs.getString("event_type"),
+        rs.getString("payload"),
+        rs.getString("correlation_id"),
+        rs.getTimestamp("created_at").getTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Supplier<Producer<String, byte[]>> producerFactory;
+    private final String topic;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long pollIntervalNanos;
+
+    private final Counter published;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Timer publishLag;
+    private final Counter failures;
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    private final AtomicBoolean signalled = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile Thread worker;
+    private String selectBatchSql = SELECT_BATCH_SQL;
+    private Producer<String, byte[]> producer;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       Supplier<Producer<String, byte[]>> producerFactory,
+                       MeterRegistry registry,
+                       String topic,
+                       int batchSize,
+                       Duration linger,
+                       Duration pollInterval) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Outbox batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.producerFactory = producerFactory;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.pollIntervalNanos = pollInterval.toNanos();
+
+        this.published = Counter.builder(PUBLISHED_METRIC)
+            .description("Outbox records committed to Kafka")
+            .register(registry);
+        this.batchTimer = Timer.builder(BATCH_METRIC)
+            .description("Time to claim, publish and delete one outbox batch")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_METRIC)
+            .description("Outbox records per relayed batch")
+            .register(registry);
+        this.publishLag = Timer.builder(PUBLISH_LAG_METRIC)
+            .description("Time from outbox insert to Kafka commit")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.failures = Counter.builder(FAILURES_METRIC)
+            .description("Outbox batches that failed and were rolled back")
+            .register(registry);
+        Gauge.builder(LAG_METRIC, oldestPendingMillis, OutboxRelay::lagSeconds)
+            .description("Age of the oldest unpublished outbox record")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    // ==============================================
+    // LIFECYCLE
+    // ==============================================
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        selectBatchSql = SELECT_BATCH_SQL + lockSuffix();
+        running = true;
+        Thread thread = new Thread(this::run, "payment-outbox-relay");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+        logger.info("Payment outbox relay started: topic={}, batchSize={}", topic, batchSize);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = worker;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.NANOSECONDS.toMillis(pollIntervalNanos) + 5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Payment outbox relay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Signal that outbox rows were committed; called after commit by the recorder
+     */
+    public void wakeUp() {
+        if (!signalled.getAndSet(true)) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    // ==============================================
+    // RELAY LOOP
+    // ==============================================
+
+    private void run() {
+        try {
+            while (running) {
+                try {
+                    awaitWork();
+                    int relayed;
+                    do {
+                        relayed = relayBatch();
+                    } while (relayed == batchSize && running);
+                    refreshLag();
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    logger.warn("Payment outbox batch failed, retrying after poll interval: {}", e.getMessage());
+                    closeProducer();
+                    LockSupport.parkNanos(this, pollIntervalNanos);
+                }
+            }
+        } finally {
+            closeProducer();
+        }
+    }
+
+    /**
+     * Park until woken by a commit or the poll interval elapses, then linger
+     */
+    private void awaitWork() {
+        if (!signalled.getAndSet(false)) {
+            LockSupport.parkNanos(this, pollIntervalNanos);
+            signalled.set(false);
+        }
+        long deadline = System.nanoTime() + lingerNanos;
+        for (long remaining = lingerNanos; remaining > 0 && running; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * Claim, publish and delete one batch
+     *
+     * @return Number of records relayed
+     */
+    private int relayBatch() {
+        long start = System.nanoTime();
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxRecord> batch = jdbcTemplate.query(selectBatchSql, ROW_MAPPER, batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            publish(batch);
+
+            List<Object[]> ids = new ArrayList<>(batch.size());
+            for (OutboxRecord record : batch) {
+                ids.add(new Object[] {record.id()});
+            }
+            jdbcTemplate.batchUpdate(DELETE_SQL, ids);
+            return batch.size();
+        });
+
+        int count = relayed != null ? relayed : 0;
+        if (count > 0) {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(count);
+        }
+        return count;
+    }
+
+    private void publish(List<OutboxRecord> batch) {
+        Producer<String, byte[]> kafka = producer();
+        kafka.beginTransaction();
+        for (OutboxRecord record : batch) {
+            kafka.send(toProducerRecord(record));
+        }
+        // Flushes the batch; throws if any send failed, leaving the rows claimed for rollback
+        kafka.commitTransaction();
+
+        long now = System.currentTimeMillis();
+        for (OutboxRecord record : batch) {
+            publishLag.record(Math.max(0, now - record.createdAtMillis()), TimeUnit.MILLISECONDS);
+        }
+        published.increment(batch.size());
+    }
+
+    private ProducerRecord<String, byte[]> toProducerRecord(OutboxRecord record) {
+        ProducerRecord<String, byte[]> producerRecord = new ProducerRecord<>(
+            topic, record.aggregateKey(), record.payload().getBytes(StandardCharsets.UTF_8));
+        Headers headers = producerRecord.headers();
+        headers.add(OUTBOX_ID_HEADER, Long.toString(record.id()).getBytes(StandardCharsets.UTF_8));
+        headers.add(EVENT_TYPE_HEADER, record.eventType().getBytes(StandardCharsets.UTF_8));
+        if (record.correlationId() != null) {
+            headers.add(KafkaCorrelationHeaders.CORRELATION_ID_HEADER,
+                record.correlationId().getBytes(StandardCharsets.UTF_8));
+        }
+        return producerRecord;
+    }
+
+    private void refreshLag() {
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_SQL, Timestamp.class);
+        oldestPendingMillis.set(oldest != null ? oldest.getTime() : 0L);
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    /**
+     * Transactional producer, created lazily. initTransactions() fences any
+     * earlier producer with the same transactional ID and aborts its open transaction.
+     */
+    private Producer<String, byte[]> producer() {
+        if (producer == null) {
+            Producer<String, byte[]> created = producerFactory.get();
+            created.initTransactions();
+            producer = created;
+        }
+        return producer;
+    }
+
+    private void closeProducer() {
+        if (producer != null) {
+            try {
+                producer.close(Duration.ofSeconds(5));
+            } catch (RuntimeException e) {
+                logger.debug("Error closing outbox producer: {}", e.getMessage());
+            }
+            producer = null;
+        }
+    }
+
+    /**
+     * SKIP LOCKED where the database supports it; H2 (local runs) falls back to plain row locks
+     */
+    private String lockSuffix() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return "H2".equalsIgnoreCase(product) ? "" : " SKIP LOCKED";
+        } catch (MetaDataAccessException e) {
+            return " SKIP LOCKED";
+        }
+    }
+
+    private static double lagSeconds(AtomicLong oldestPendingMillis) {
+        long oldest = oldestPendingMillis.get();
+        return oldest == 0 ? 0.0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    record OutboxRecord(long id, String aggregateKey, String eventType, String payload,
+                        String correlationId, long createdAtMillis) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outbox Relay Configuration
+ *
+ * Builds the relay's transactional producer from the shared spring.kafka
+ * settings. The transactional ID must be unique per replica and stable across
+ * restarts (e.g. the StatefulSet pod name) so a restarted relay fences its
+ * predecessor; otherwise an abandoned transaction is only aborted after
+ * {@code transaction.timeout.ms}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayConfig {
+
+    @Bean
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   KafkaProperties kafkaProperties,
+                                   MeterRegistry registry,
+                                   @Value("${payment.outbox.topic:payment-lifecycle-events}") String topic,
+                                   @Value("${payment.outbox.relay.batch-size:200}") int batchSize,
+                                   @Value("${payment.outbox.relay.linger-ms:20}") long lingerMs,
+                                   @Value("${payment.outbox.relay.poll-interval-ms:1000}") long pollIntervalMs,
+                                   @Value("${payment.outbox.relay.transactional-id}") String transactionalId,
+                                   @Value("${payment.outbox.relay.transaction-timeout-ms:30000}") int transactionTimeoutMs) {
+        Map<String, Object> producerProperties = kafkaProperties.buildProducerProperties();
+        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        producerProperties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProperties.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerProperties.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        producerProperties.put(ProducerConfig.TRANSACTION_TIMEOUT_CONFIG, transactionTimeoutMs);
+
+        return new OutboxRelay(
+            jdbcTemplate,
+            transactionManager,
+            () -> new KafkaProducer<>(producerProperties),
+            registry,
+            topic,
+            batchSize,
+            Duration.ofMillis(lingerMs),
+            Duration.ofMillis(pollIntervalMs)
+        );
+    }
+}
@@ -0,0 +1,225 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.RefundRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.RefundResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.entity.OutboxEvent;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.entity.PaymentRecord;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.journal.PaymentJournal;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.repository.OutboxEventRepository;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.repository.PaymentRecordRepository;
+import com.gogidix.socialcommerce.shared.context.RequestContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Payment Event Recorder
+ *
+ * Writes each gateway outcome as a {@link PaymentRecord} plus an
+ * {@link OutboxEvent} in one database transaction, so an event is published
+ * if and only if the record was committed. The gateway call itself runs
+ * before and outside that transaction; no connection is held across it.
+ *
+ * After commit the {@link OutboxRelay} in this instance is woken so the event
+ * is relayed without waiting for the next poll.
+ *
+ * Every outcome, recorded or not, is also appended to the {@link PaymentJournal}
+ * for history and metrics queries; that write is asynchronous and batched.
+ */
+@Service
+public class PaymentEventRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentEventRecorder.class);
+
+    public static final String RECORD_FAILURES_METRIC = "payment.outbox.record.failures";
+
+    private final PaymentRecordRepository paymentRecordRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter eventWriter;
+    private final Counter recordFailures;
+
+    @Autowired(required = false)
+    private OutboxRelay outboxRelay;
+
+    @Autowired(required = false)
+    private PaymentJournal journal;
+
+    @Autowired
+    public PaymentEventRecorder(PaymentRecordRepository paymentRecordRepository,
+                                OutboxEventRepository outboxEventRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                MeterRegistry registry) {
+        this.paymentRecordRepository = paymentRecordRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventWriter = objectMapper.writerFor(PaymentLifecycleEvent.class);
+        this.recordFailures = Counter.builder(RECORD_FAILURES_METRIC)
+            .description("Gateway outcomes that could not be written to the payment outbox")
+            .register(registry);
+    }
+
+    // ==============================================
+    // GATEWAY OUTCOMES
+    // ==============================================
+
+    public void paymentProcessed(PaymentRequest request, PaymentResponse response) {
+        record(PaymentEventType.PAYMENT_PROCESSED, PaymentRecord.builder()
+            .operation(PaymentRecord.Operation.PAYMENT)
+            .gateway(response.getGateway())
+            .gatewayReference(response.getTransactionId())
+            .orderId(request.getOrderId())
+            .partyId(request.getCustomerId())
+            .status(response.getStatus())
+            .amount(toAmount(response.getAmount() != null ? response.getAmount() : request.getAmount()))
+            .currency(toCurrency(response.getCurrency() != null ? response.getCurrency() : request.getCurrency()))
+            .build());
+    }
+
+    /**
+     * Failures raised before a gateway was involved (routing, validation) are not recorded
+     */
+    public void paymentFailed(PaymentRequest request, PaymentProcessingException failure) {
+        if (failure.getGatewayName() == null) {
+            return;
+        }
+        record(PaymentEventType.PAYMENT_FAILED, PaymentRecord.builder()
+            .operation(PaymentRecord.Operation.PAYMENT)
+            .gateway(failure.getGatewayName())
+            .orderId(request.getOrderId())
+            .partyId(request.getCustomerId())
+            .status("failed")
+            .amount(toAmount(request.getAmount()))
+            .currency(toCurrency(request.getCurrency()))
+            .errorCode(failure.getErrorCode())
+            .build());
+    }
+
+    public void refundProcessed(RefundRequest request, RefundResponse response) {
+        record(PaymentEventType.REFUND_PROCESSED, PaymentRecord.builder()
+            .operation(PaymentRecord.Operation.REFUND)
+            .gateway(response.getGateway())
+            .gatewayReference(response.getRefundId())
+            .orderId(request.getOrderId())
+            .partyId(request.getCustomerId())
+            .status(response.getStatus())
+            .amount(toAmount(response.getAmount() != null ? response.getAmount() : request.getAmount()))
+            .currency(toCurrency(response.getCurrency() != null ? response.getCurrency() : request.getCurrency()))
+            .build());
+    }
+
+    public void payoutInitiated(PayoutRequest request, PayoutResponse response) {
+        record(PaymentEventType.PAYOUT_INITIATED, PaymentRecord.builder()
+            .operation(PaymentRecord.Operation.PAYOUT)
+            .gateway(response.getGateway())
+            .gatewayReference(response.getPayoutId())
+            .partyId(request.getVendorId())
+            .status(response.getStatus())
+            .amount(toAmount(response.getAmount() != null ? response.getAmount() : request.getAmount()))
+            .currency(toCurrency(response.getCurrency() != null ? response.getCurrency() : request.getCurrency()))
+            .build());
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private void record(PaymentEventType type, PaymentRecord record) {
+        record.setCorrelationId(RequestContext.correlationId());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PaymentRecord saved = paymentRecordRepository.save(record);
+                outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateId(saved.getId())
+                    .aggregateKey(aggregateKey(saved))
+                    .eventType(type.name())
+                    .payload(serialize(type, saved))
+                    .correlationId(saved.getCorrelationId())
+                    .build());
+
+                if (outboxRelay != null) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            outboxRelay.wakeUp();
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            // The gateway has already moved the money; failing the caller now would
+            // invite a retry. Settlement reconciliation picks up unrecorded outcomes.
+            recordFailures.increment();
+            logger.atError()
+                .addKeyValue("eventType", type)
+                .addKeyValue("gateway", record.getGateway())
+                .addKeyValue("gatewayReference", record.getGatewayReference())
+                .log("Failed to record payment outcome: {}", e.getMessage());
+        }
+        if (journal != null) {
+            journal.append(record);
+        }
+    }
+
+    private String serialize(PaymentEventType type, PaymentRecord record) {
+        try {
+            return eventWriter.writeValueAsString(new PaymentLifecycleEvent(
+                type,
+                record.getId(),
+                record.getGateway(),
+                record.getGatewayReference(),
+                record.getOrderId(),
+                record.getPartyId(),
+                record.getStatus(),
+                record.getAmount(),
+                record.getCurrency(),
+                record.getErrorCode(),
+                record.getCorrelationId(),
+                Instant.now()
+            ));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize payment lifecycle event", e);
+        }
+    }
+
+    /**
+     * Kafka key: order for payments and refunds, vendor for payouts
+     */
+    private static String aggregateKey(PaymentRecord record) {
+        if (record.getOrderId() != null) {
+            return record.getOrderId();
+        }
+        if (record.getPartyId() != null) {
+            return record.getPartyId();
+        }
+        return record.getGatewayReference() != null ? record.getGatewayReference() : "record-" + record.getId();
+    }
+
+    private static BigDecimal toAmount(Double amount) {
+        return amount != null ? BigDecimal.valueOf(amount) : null;
+    }
+
+    private static String toCurrency(String currency) {
+        return currency != null ? currency.toUpperCase(Locale.ROOT) : null;
+    }
+}
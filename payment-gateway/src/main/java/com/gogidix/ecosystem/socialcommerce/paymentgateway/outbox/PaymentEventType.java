@@ -0,0 +1,14 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox;
+
+/**
+ * Payment lifecycle event types published through the outbox
+ *
+ * Carried in the {@code event-type} Kafka header so consumers can route
+ * without parsing the payload.
+ */
+public enum PaymentEventType {
+    PAYMENT_PROCESSED,
+    PAYMENT_FAILED,
+    REFUND_PROCESSED,
+    PAYOUT_INITIATED
+}
@@ -0,0 +1,30 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Payment lifecycle event payload, serialized as JSON into the outbox
+ *
+ * @param paymentRecordId  ID of the local payment record
+ * @param gatewayReference Gateway transaction, refund or payout ID
+ * @param partyId          Customer ID for payments and refunds, vendor ID for payouts
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaymentLifecycleEvent(
+    PaymentEventType type,
+    Long paymentRecordId,
+    String gateway,
+    String gatewayReference,
+    String orderId,
+    String partyId,
+    String status,
+    BigDecimal amount,
+    String currency,
+    String errorCode,
+    String correlationId,
+    Instant occurredAt
+) {
+}
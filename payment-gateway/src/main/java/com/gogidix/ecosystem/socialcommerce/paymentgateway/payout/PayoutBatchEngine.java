@@ -0,0 +1,413 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.payout;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.UnsupportedGatewayException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox.PaymentEventRecorder;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.payout.PayoutBatchStore.Item;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.payout.PayoutBatchStore.Outcome;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.payout.PayoutBatchStore.PartitionKey;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.retry.RetryClassifier;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayFactory;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Payout Batch Engine
+ *
+ * Pays a list of payees (a weekly courier payout run, say) as one batch that
+ * survives crashes. A batch is stored in full when submitted, split into
+ * partitions by gateway and currency, and every partition is worked through
+ * in chunks by its own task.
+ *
+ * PERFORMANCE IMPLEMENTATION: Partitioned, checkpointed batch payouts
+ * - Partitions run in parallel on a pool of {@code concurrency} threads shared
+ *   by all batches, so a big run cannot take every gateway connection
+ * - After each chunk its outcomes and the partition checkpoint are committed
+ *   together; a run that dies loses at most the chunk in flight
+ * - Running a batch again starts every partition at its checkpoint. Each item
+ *   is sent with an idempotency key derived from the batch ID and its index,
+ *   so re-sending the chunk that was in flight does not pay anyone twice. A
+ *   gateway that already holds a payout under that key reports its outcome
+ * - A transient failure the retry layer gave up on pauses the partition at
+ *   that item; a terminal one marks the item failed and the run moves on
+ * - Dry runs route and total the payouts without storing or sending anything
+ *
+ * Metrics:
+ * - payment.payout.batch.items (counter) by gateway and outcome (paid, failed)
+ * - payment.payout.batch.chunk (timer) by gateway, send and checkpoint time per chunk
+ * - payment.payout.batch.checkpoint.conflicts (counter) chunks another runner committed first
+ */
+@Service
+public class PayoutBatchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayoutBatchEngine.class);
+
+    public static final String ITEMS_METRIC = "payment.payout.batch.items";
+    public static final String CHUNK_METRIC = "payment.payout.batch.chunk";
+    public static final String CONFLICTS_METRIC = "payment.payout.batch.checkpoint.conflicts";
+
+    // Keeps "payout_batch_<id>_<index>" within the 16-64 characters of an idempotency key
+    private static final Pattern BATCH_ID = Pattern.compile("[A-Za-z0-9_-]{1,40}");
+    private static final String IDEMPOTENCY_KEY_PREFIX = "payout_batch_";
+
+    private final PayoutBatchStore store;
+    private final RegionalPaymentRouter paymentRouter;
+    private final PaymentGatewayFactory paymentGatewayFactory;
+    private final MeterRegistry registry;
+    private final int chunkSize;
+    private final ExecutorService partitionExecutor;
+    private final Counter conflicts;
+
+    private volatile boolean stopping;
+
+    @Autowired(required = false)
+    private PaymentEventRecorder eventRecorder;
+
+    @Autowired
+    public PayoutBatchEngine(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             RegionalPaymentRouter paymentRouter,
+                             PaymentGatewayFactory paymentGatewayFactory,
+                             MeterRegistry registry,
+                             @Value("${payment.payout-batch.concurrency:4}") int concurrency,
+                             @Value("${payment.payout-batch.chunk-size:50}") int chunkSize) {
+        if (concurrency <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Payout batch concurrency and chunk size must be positive");
+        }
+        this.store = new PayoutBatchStore(jdbcTemplate, transactionManager);
+        this.paymentRouter = paymentRouter;
+        this.paymentGatewayFactory = paymentGatewayFactory;
+        this.registry = registry;
+        this.chunkSize = chunkSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.partitionExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "payout-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.conflicts = Counter.builder(CONFLICTS_METRIC)
+            .description("Payout chunks not checkpointed because another runner committed them first")
+            .register(registry);
+    }
+
+    // ==============================================
+    // BATCHES
+    // ==============================================
+
+    /**
+     * Partition and total payouts as {@link #submit} would, without storing or paying anything
+     *
+     * @throws IllegalArgumentException if a payout has no vendor, a non-positive amount or no currency
+     */
+    public PayoutBatchSummary dryRun(List<PayoutRequest> payouts) {
+        List<PayoutPartitionSummary> partitions = new ArrayList<>();
+        plan(payouts).forEach((key, items) -> partitions.add(new PayoutPartitionSummary(
+            key.gateway(), key.currency(), PayoutPartitionSummary.Status.PENDING,
+            items.size(), PayoutBatchStore.total(items), 0, 0, 0, BigDecimal.ZERO)));
+        return new PayoutBatchSummary(null, PayoutBatchSummary.Status.DRY_RUN, partitions);
+    }
+
+    /**
+     * Store a batch for {@link #run}. Submitting an existing batch ID again
+     * leaves the stored batch as it is, so a caller that lost track of a
+     * submission can simply repeat it.
+     *
+     * @param batchId Letters, digits, '-' and '_', at most 40; stable for the run it names
+     * @throws IllegalArgumentException for an invalid batch or payout, or if the
+     *         batch ID is taken by a batch with different payouts
+     */
+    public PayoutBatchSummary submit(String batchId, List<PayoutRequest> payouts) {
+        if (batchId == null || !BATCH_ID.matcher(batchId).matches()) {
+            throw new IllegalArgumentException("Payout batch ID must be 1-40 letters, digits, '-' or '_': " + batchId);
+        }
+        Map<PartitionKey, List<Item>> partitions = plan(payouts);
+        String digest = PayoutBatchStore.digest(payouts);
+        if (store.create(batchId, partitions, payouts.size(), digest)) {
+            logger.atInfo()
+                .addKeyValue("batchId", batchId)
+                .addKeyValue("items", payouts.size())
+                .addKeyValue("partitions", partitions.size())
+                .log("Payout batch submitted");
+        } else {
+            String stored = store.findBatch(batchId).map(PayoutBatchStore.BatchRow::itemDigest).orElse(null);
+            if (!digest.equals(stored)) {
+                throw new IllegalArgumentException("Payout batch " + batchId
+                    + " already exists with different payouts");
+            }
+        }
+        return getBatch(batchId).orElseThrow();
+    }
+
+    /**
+     * Pay out a stored batch, or what is left of it, and wait for the run to end
+     *
+     * Partitions start at their checkpoints. The run ends when every partition
+     * is completed, paused or stopped by shutdown.
+     *
+     * @throws IllegalArgumentException if no such batch was submitted
+     */
+    public PayoutBatchSummary run(String batchId) {
+        List<PayoutPartitionSummary> partitions = store.partitions(batchId);
+        if (partitions.isEmpty() && store.findBatch(batchId).isEmpty()) {
+            throw new IllegalArgumentException("Unknown payout batch: " + batchId);
+        }
+
+        List<Future<?>> running = new ArrayList<>();
+        for (PayoutPartitionSummary partition : partitions) {
+            if (partition.status() != PayoutPartitionSummary.Status.COMPLETED) {
+                running.add(partitionExecutor.submit(() -> runPartition(batchId, partition)));
+            }
+        }
+        for (Future<?> partition : running) {
+            try {
+                partition.get();
+            } catch (ExecutionException e) {
+                // The partition stays at its last checkpoint; the next run resumes it
+                logger.atError()
+                    .addKeyValue("batchId", batchId)
+                    .setCause(e.getCause())
+                    .log("Payout batch partition failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<PayoutPartitionSummary> after = store.partitions(batchId);
+        boolean completed = after.stream().allMatch(p -> p.status() == PayoutPartitionSummary.Status.COMPLETED);
+        PayoutBatchSummary summary = new PayoutBatchSummary(batchId,
+            completed ? PayoutBatchSummary.Status.COMPLETED : PayoutBatchSummary.Status.INCOMPLETE, after);
+        store.finish(batchId, summary.status());
+
+        logger.atInfo()
+            .addKeyValue("batchId", batchId)
+            .addKeyValue("status", summary.status())
+            .addKeyValue("paid", summary.paidCount())
+            .addKeyValue("failed", summary.failedCount())
+            .addKeyValue("remaining", summary.remainingCount())
+            .log("Payout batch run finished");
+        return summary;
+    }
+
+    /**
+     * {@link #submit} then {@link #run}: pays a new batch, or resumes an existing one
+     */
+    public PayoutBatchSummary process(String batchId, List<PayoutRequest> payouts) {
+        submit(batchId, payouts);
+        return run(batchId);
+    }
+
+    public Optional<PayoutBatchSummary> getBatch(String batchId) {
+        return store.findBatch(batchId)
+            .map(batch -> new PayoutBatchSummary(batchId, batch.status(), store.partitions(batchId)));
+    }
+
+    /**
+     * Idempotency key of the payout at {@code index} in a batch
+     */
+    public static String idempotencyKey(String batchId, int index) {
+        return IDEMPOTENCY_KEY_PREFIX + batchId + "_" + index;
+    }
+
+    /**
+     * Let running partitions finish their current chunk, then stop them
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        partitionExecutor.shutdown();
+        try {
+            if (!partitionExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                partitionExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            partitionExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==============================================
+    // PARTITIONS
+    // ==============================================
+
+    private void runPartition(String batchId, PayoutPartitionSummary partition) {
+        String gatewayName = partition.gateway();
+        String currency = partition.currency();
+        PaymentGateway gateway;
+        try {
+            gateway = paymentGatewayFactory.getGateway(gatewayName);
+        } catch (UnsupportedGatewayException e) {
+            logger.atWarn()
+                .addKeyValue("batchId", batchId)
+                .addKeyValue("gateway", gatewayName)
+                .addKeyValue("currency", currency)
+                .log("Payout batch partition skipped: {}", e.getMessage());
+            return;
+        }
+
+        Timer chunkTimer = Timer.builder(CHUNK_METRIC)
+            .description("Time to send and checkpoint one chunk of a payout batch")
+            .tag("gateway", gatewayName)
+            .register(registry);
+        int next = partition.nextItem();
+        while (!stopping && !Thread.currentThread().isInterrupted()) {
+            List<Item> chunk = store.chunk(batchId, gatewayName, currency, next, chunkSize);
+            if (chunk.isEmpty()) {
+                store.checkpoint(batchId, gatewayName, currency, next, next,
+                    PayoutPartitionSummary.Status.COMPLETED, List.of());
+                return;
+            }
+
+            long started = System.nanoTime();
+            List<Outcome> outcomes = new ArrayList<>(chunk.size());
+            int resumeAt = chunk.get(chunk.size() - 1).index() + 1;
+            RuntimeException pausedBy = null;
+            for (Item item : chunk) {
+                try {
+                    outcomes.add(new Outcome(item, gateway.initiatePayout(request(batchId, item)), null));
+                } catch (RuntimeException e) {
+                    if (RetryClassifier.isTransient(e)) {
+                        resumeAt = item.index();
+                        pausedBy = e;
+                        break;
+                    }
+                    outcomes.add(new Outcome(item, null, errorCode(e)));
+                }
+            }
+
+            PayoutPartitionSummary.Status status = pausedBy != null
+                ? PayoutPartitionSummary.Status.PAUSED
+                : PayoutPartitionSummary.Status.PENDING;
+            if (!store.checkpoint(batchId, gatewayName, currency, next, resumeAt, status, outcomes)) {
+                conflicts.increment();
+                logger.atWarn()
+                    .addKeyValue("batchId", batchId)
+                    .addKeyValue("gateway", gatewayName)
+                    .addKeyValue("currency", currency)
+                    .log("Payout batch partition is being run elsewhere, stopping here");
+                return;
+            }
+            chunkTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            recordOutcomes(batchId, gatewayName, outcomes);
+            next = resumeAt;
+
+            if (pausedBy != null) {
+                logger.atWarn()
+                    .addKeyValue("batchId", batchId)
+                    .addKeyValue("gateway", gatewayName)
+                    .addKeyValue("currency", currency)
+                    .addKeyValue("item", resumeAt)
+                    .log("Payout batch partition paused on a transient failure: {}", pausedBy.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counted and published only once checkpointed, so a re-sent chunk is not reported twice
+     */
+    private void recordOutcomes(String batchId, String gateway, List<Outcome> outcomes) {
+        for (Outcome outcome : outcomes) {
+            registry.counter(ITEMS_METRIC, "gateway", gateway, "outcome", outcome.paid() ? "paid" : "failed")
+                .increment();
+            if (outcome.paid()) {
+                if (eventRecorder != null) {
+                    eventRecorder.payoutInitiated(request(batchId, outcome.item()), outcome.response());
+                }
+            } else {
+                logger.atWarn()
+                    .addKeyValue("batchId", batchId)
+                    .addKeyValue("gateway", gateway)
+                    .addKeyValue("item", outcome.item().index())
+                    .addKeyValue("vendorId", outcome.item().request().getVendorId())
+                    .addKeyValue("errorCode", outcome.errorCode())
+                    .log("Payout batch item rejected");
+            }
+        }
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    /**
+     * Validate payouts and group them by routed gateway and currency, in index order
+     */
+    private Map<PartitionKey, List<Item>> plan(List<PayoutRequest> payouts) {
+        Map<String, String> gatewayByCurrency = new HashMap<>();
+        Map<PartitionKey, List<Item>> partitions = new TreeMap<>();
+        for (int index = 0; index < payouts.size(); index++) {
+            PayoutRequest payout = payouts.get(index);
+            if (payout.getVendorId() == null || payout.getVendorId().isBlank()) {
+                throw new IllegalArgumentException("Payout " + index + " has no vendor ID");
+            }
+            if (payout.getAmount() == null || payout.getAmount() <= 0) {
+                throw new IllegalArgumentException("Payout " + index + " must have a positive amount");
+            }
+            if (payout.getCurrency() == null || payout.getCurrency().trim().length() != 3) {
+                throw new IllegalArgumentException("Payout " + index + " needs an ISO 4217 currency code");
+            }
+            String currency = payout.getCurrency().trim().toUpperCase(Locale.ROOT);
+            // Route once per currency rather than once per payee
+            String gateway = gatewayByCurrency.computeIfAbsent(currency,
+                c -> paymentRouter.selectGatewayByCurrency(c).getName());
+            partitions.computeIfAbsent(new PartitionKey(gateway, currency), key -> new ArrayList<>())
+                .add(new Item(index, gateway, currency, payout));
+        }
+        return partitions;
+    }
+
+    private static PayoutRequest request(String batchId, Item item) {
+        PayoutRequest stored = item.request();
+        return PayoutRequest.builder()
+            .vendorId(stored.getVendorId())
+            .amount(stored.getAmount())
+            .currency(item.currency())
+            .description(stored.getDescription())
+            .payoutType(stored.getPayoutType())
+            .accountNumber(stored.getAccountNumber())
+            .accountName(stored.getAccountName())
+            .bankCode(stored.getBankCode())
+            .routingNumber(stored.getRoutingNumber())
+            .recipientCode(stored.getRecipientCode())
+            .idempotencyKey(idempotencyKey(batchId, item.index()))
+            .build();
+    }
+
+    private static String errorCode(RuntimeException error) {
+        if (error instanceof PaymentProcessingException payment && payment.getErrorCode() != null) {
+            return payment.getErrorCode();
+        }
+        return error.getClass().getSimpleName();
+    }
+}
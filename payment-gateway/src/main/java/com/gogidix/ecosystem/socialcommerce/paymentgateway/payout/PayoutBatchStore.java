@@ -0,0 +1,303 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.payout;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutResponse;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Payout Batch Store
+ *
+ * Plain JDBC over the payout batch tables (Flyway V2). A chunk's item outcomes
+ * and its partition checkpoint are written in one transaction, and the
+ * checkpoint only moves from the position the chunk was read at, so when two
+ * runners race on a partition exactly one of them commits each chunk.
+ */
+class PayoutBatchStore {
+
+    private static final String INSERT_BATCH_SQL =
+        "INSERT INTO payout_batches (batch_id, status, item_count, item_digest, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PARTITION_SQL =
+        "INSERT INTO payout_batch_partitions (batch_id, gateway, currency, status, item_count, total_amount, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM_SQL =
+        "INSERT INTO payout_batch_items (batch_id, item_index, gateway, currency, vendor_id, amount, description, "
+            + "payout_type, account_number, account_name, bank_code, routing_number, recipient_code, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING')";
+    private static final String SELECT_BATCH_SQL =
+        "SELECT status, item_count, item_digest FROM payout_batches WHERE batch_id = ?";
+    private static final String SELECT_PARTITIONS_SQL =
+        "SELECT gateway, currency, status, item_count, total_amount, next_item, paid_count, failed_count, paid_amount "
+            + "FROM payout_batch_partitions WHERE batch_id = ? ORDER BY gateway, currency";
+    private static final String SELECT_CHUNK_SQL =
+        "SELECT item_index, gateway, currency, vendor_id, amount, description, payout_type, account_number, "
+            + "account_name, bank_code, routing_number, recipient_code FROM payout_batch_items "
+            + "WHERE batch_id = ? AND gateway = ? AND currency = ? AND item_index >= ? ORDER BY item_index LIMIT ?";
+    private static final String CHECKPOINT_SQL =
+        "UPDATE payout_batch_partitions SET next_item = ?, status = ?, paid_count = paid_count + ?, "
+            + "failed_count = failed_count + ?, paid_amount = paid_amount + ?, updated_at = ? "
+            + "WHERE batch_id = ? AND gateway = ? AND currency = ? AND next_item = ?";
+    private static final String UPDATE_ITEM_SQL =
+        "UPDATE payout_batch_items SET status = ?, payout_id = ?, error_code = ? WHERE batch_id = ? AND item_index = ?";
+    private static final String FINISH_BATCH_SQL =
+        "UPDATE payout_batches SET status = ?, completed_at = ? WHERE batch_id = ?";
+
+    private static final int MAX_ERROR_CODE_LENGTH = 100;
+
+    private static final RowMapper<PayoutPartitionSummary> PARTITION_MAPPER = (rs, rowNum) -> new PayoutPartitionSummary(
+        rs.getString("gateway"),
+        rs.getString("currency"),
+        PayoutPartitionSummary.Status.valueOf(rs.getString("status")),
+        rs.getInt("item_count"),
+        rs.getBigDecimal("total_amount"),
+        rs.getInt("next_item"),
+        rs.getInt("paid_count"),
+        rs.getInt("failed_count"),
+        rs.getBigDecimal("paid_amount")
+    );
+
+    private static final RowMapper<Item> ITEM_MAPPER = (rs, rowNum) -> new Item(
+        rs.getInt("item_index"),
+        rs.getString("gateway"),
+        rs.getString("currency"),
+        PayoutRequest.builder()
+            .vendorId(rs.getString("vendor_id"))
+            .amount(rs.getBigDecimal("amount").doubleValue())
+            .currency(rs.getString("currency"))
+            .description(rs.getString("description"))
+            .payoutType(rs.getString("payout_type"))
+            .accountNumber(rs.getString("account_number"))
+            .accountName(rs.getString("account_name"))
+            .bankCode(rs.getString("bank_code"))
+            .routingNumber(rs.getString("routing_number"))
+            .recipientCode(rs.getString("recipient_code"))
+            .build()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    PayoutBatchStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * One payout of a batch
+     *
+     * @param index Position in the submitted list, unique within the batch
+     */
+    record Item(int index, String gateway, String currency, PayoutRequest request) {
+    }
+
+    /**
+     * What the gateway made of one item: a response, or the error code it was rejected with
+     */
+    record Outcome(Item item, PayoutResponse response, String errorCode) {
+
+        boolean paid() {
+            return response != null;
+        }
+    }
+
+    /**
+     * Store a new batch with all its items, or do nothing if the ID is taken
+     *
+     * @param partitions Items by partition, each list in index order
+     * @return false if a batch with this ID already exists
+     */
+    boolean create(String batchId, Map<PartitionKey, List<Item>> partitions, int itemCount, String itemDigest) {
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_BATCH_SQL, batchId, PayoutBatchSummary.Status.PENDING.name(), itemCount,
+                    itemDigest, now);
+                for (Map.Entry<PartitionKey, List<Item>> partition : partitions.entrySet()) {
+                    List<Item> items = partition.getValue();
+                    jdbcTemplate.update(INSERT_PARTITION_SQL, batchId, partition.getKey().gateway(),
+                        partition.getKey().currency(), PayoutPartitionSummary.Status.PENDING.name(),
+                        items.size(), total(items), now);
+                    jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items, items.size(), (ps, item) -> {
+                        PayoutRequest request = item.request();
+                        ps.setString(1, batchId);
+                        ps.setInt(2, item.index());
+                        ps.setString(3, item.gateway());
+                        ps.setString(4, item.currency());
+                        ps.setString(5, request.getVendorId());
+                        ps.setBigDecimal(6, BigDecimal.valueOf(request.getAmount()));
+                        ps.setString(7, request.getDescription());
+                        ps.setString(8, request.getPayoutType());
+                        ps.setString(9, request.getAccountNumber());
+                        ps.setString(10, request.getAccountName());
+                        ps.setString(11, request.getBankCode());
+                        ps.setString(12, request.getRoutingNumber());
+                        ps.setString(13, request.getRecipientCode());
+                    });
+                }
+            });
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Status, item count and item digest of a stored batch
+     */
+    Optional<BatchRow> findBatch(String batchId) {
+        return jdbcTemplate.query(SELECT_BATCH_SQL, (rs, rowNum) -> new BatchRow(
+            PayoutBatchSummary.Status.valueOf(rs.getString("status")),
+            rs.getInt("item_count"),
+            rs.getString("item_digest")
+        ), batchId).stream().findFirst();
+    }
+
+    record BatchRow(PayoutBatchSummary.Status status, int itemCount, String itemDigest) {
+    }
+
+    List<PayoutPartitionSummary> partitions(String batchId) {
+        return jdbcTemplate.query(SELECT_PARTITIONS_SQL, PARTITION_MAPPER, batchId);
+    }
+
+    /**
+     * Up to {@code limit} items of a partition, from {@code fromIndex} on
+     */
+    List<Item> chunk(String batchId, String gateway, String currency, int fromIndex, int limit) {
+        return jdbcTemplate.query(SELECT_CHUNK_SQL, ITEM_MAPPER, batchId, gateway, currency, fromIndex, limit);
+    }
+
+    /**
+     * Record a chunk's outcomes and move the partition checkpoint from
+     * {@code expectedNext} to {@code next}, atomically
+     *
+     * @return false, with nothing written, if the checkpoint was no longer at {@code expectedNext}
+     */
+    boolean checkpoint(String batchId, String gateway, String currency, int expectedNext, int next,
+                       PayoutPartitionSummary.Status status, List<Outcome> outcomes) {
+        int paid = 0;
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        for (Outcome outcome : outcomes) {
+            if (outcome.paid()) {
+                paid++;
+                paidAmount = paidAmount.add(BigDecimal.valueOf(outcome.item().request().getAmount()));
+            }
+        }
+        int chunkPaid = paid;
+        int failed = outcomes.size() - paid;
+        BigDecimal chunkPaidAmount = paidAmount;
+        Timestamp now = Timestamp.from(Instant.now());
+
+        Boolean moved = transactionTemplate.execute(tx -> {
+            int updated = jdbcTemplate.update(CHECKPOINT_SQL, next, status.name(), chunkPaid, failed, chunkPaidAmount, now,
+                batchId, gateway, currency, expectedNext);
+            if (updated == 0) {
+                return false;
+            }
+            if (outcomes.isEmpty()) {
+                return true;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_ITEM_SQL, outcomes, outcomes.size(), (ps, outcome) -> {
+                ps.setString(1, outcome.paid() ? "PAID" : "FAILED");
+                ps.setString(2, outcome.paid() ? outcome.response().getPayoutId() : null);
+                ps.setString(3, truncate(outcome.errorCode()));
+                ps.setString(4, batchId);
+                ps.setInt(5, outcome.item().index());
+            });
+            return true;
+        });
+        return Boolean.TRUE.equals(moved);
+    }
+
+    void finish(String batchId, PayoutBatchSummary.Status status) {
+        Timestamp completedAt = status == PayoutBatchSummary.Status.COMPLETED ? Timestamp.from(Instant.now()) : null;
+        jdbcTemplate.update(FINISH_BATCH_SQL, status.name(), completedAt, batchId);
+    }
+
+    static BigDecimal total(List<Item> items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Item item : items) {
+            total = total.add(BigDecimal.valueOf(item.request().getAmount()));
+        }
+        return total;
+    }
+
+    /**
+     * SHA-256 over every payout of a batch, in submission order, as lower-case hex
+     *
+     * Covers each field that is stored for an item. Amounts are compared by
+     * value and currencies ignoring case and surrounding blanks, the way they
+     * are stored and routed, so only a different list of payouts changes it.
+     */
+    static String digest(List<PayoutRequest> payouts) {
+        MessageDigest digest = sha256();
+        for (PayoutRequest payout : payouts) {
+            update(digest, payout.getVendorId());
+            update(digest, payout.getAmount() == null
+                ? null : BigDecimal.valueOf(payout.getAmount()).stripTrailingZeros().toPlainString());
+            update(digest, payout.getCurrency() == null ? null : payout.getCurrency().trim().toUpperCase(Locale.ROOT));
+            update(digest, payout.getDescription());
+            update(digest, payout.getPayoutType());
+            update(digest, payout.getAccountNumber());
+            update(digest, payout.getAccountName());
+            update(digest, payout.getBankCode());
+            update(digest, payout.getRoutingNumber());
+            update(digest, payout.getRecipientCode());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Length-prefix every field so that no two lists of fields hash the same input
+     */
+    private static void update(MessageDigest digest, String field) {
+        if (field == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String truncate(String errorCode) {
+        return errorCode != null && errorCode.length() > MAX_ERROR_CODE_LENGTH
+            ? errorCode.substring(0, MAX_ERROR_CODE_LENGTH)
+            : errorCode;
+    }
+
+    /**
+     * Payouts of a batch are partitioned by the gateway that sends them and their currency
+     */
+    record PartitionKey(String gateway, String currency) implements Comparable<PartitionKey> {
+
+        @Override
+        public int compareTo(PartitionKey other) {
+            int byGateway = gateway.compareTo(other.gateway);
+            return byGateway != 0 ? byGateway : currency.compareTo(other.currency);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.payout;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * State of a payout batch, partition by partition
+ *
+ * @param batchId    Null for a dry run
+ * @param partitions Ordered by gateway, then currency
+ */
+public record PayoutBatchSummary(
+    String batchId,
+    Status status,
+    List<PayoutPartitionSummary> partitions
+) {
+
+    public enum Status {
+        // Partitioned and totalled only; nothing stored, nothing paid
+        DRY_RUN,
+        // Submitted, not run yet
+        PENDING,
+        // A run ended with items left; running the batch again resumes it
+        INCOMPLETE,
+        COMPLETED
+    }
+
+    public PayoutBatchSummary {
+        partitions = List.copyOf(partitions);
+    }
+
+    public int itemCount() {
+        return partitions.stream().mapToInt(PayoutPartitionSummary::itemCount).sum();
+    }
+
+    public int paidCount() {
+        return partitions.stream().mapToInt(PayoutPartitionSummary::paidCount).sum();
+    }
+
+    public int failedCount() {
+        return partitions.stream().mapToInt(PayoutPartitionSummary::failedCount).sum();
+    }
+
+    public int remainingCount() {
+        return partitions.stream().mapToInt(PayoutPartitionSummary::remainingCount).sum();
+    }
+
+    /**
+     * Amount asked for per currency, across gateways
+     */
+    public Map<String, BigDecimal> totalByCurrency() {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (PayoutPartitionSummary partition : partitions) {
+            totals.merge(partition.currency(), partition.totalAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    /**
+     * Amount paid per currency, across gateways
+     */
+    public Map<String, BigDecimal> paidByCurrency() {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (PayoutPartitionSummary partition : partitions) {
+            totals.merge(partition.currency(), partition.paidAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+}
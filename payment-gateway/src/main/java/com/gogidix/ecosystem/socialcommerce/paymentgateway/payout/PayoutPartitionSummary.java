@@ -0,0 +1,35 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.payout;
+
+import java.math.BigDecimal;
+
+/**
+ * Progress of the payouts in one batch that share a gateway and currency
+ *
+ * @param nextItem Checkpoint: items of this partition with a lower batch index are settled
+ * @param paidCount Items the gateway accepted
+ * @param failedCount Items the gateway rejected; not retried by later runs
+ */
+public record PayoutPartitionSummary(
+    String gateway,
+    String currency,
+    Status status,
+    int itemCount,
+    BigDecimal totalAmount,
+    int nextItem,
+    int paidCount,
+    int failedCount,
+    BigDecimal paidAmount
+) {
+
+    public enum Status {
+        // Not started, or stopped between chunks
+        PENDING,
+        // Stopped at an item that failed transiently; the next run starts there
+        PAUSED,
+        COMPLETED
+    }
+
+    public int remainingCount() {
+        return itemCount - paidCount - failedCount;
+    }
+}
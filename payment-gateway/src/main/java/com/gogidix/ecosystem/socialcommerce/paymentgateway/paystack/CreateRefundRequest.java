@@ -0,0 +1,16 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * POST /refund request body
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CreateRefundRequest(
+    String transaction,
+    long amount,
+    String currency,
+    @JsonProperty("merchant_note") String merchantNote
+) {
+}
@@ -0,0 +1,15 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * POST /transaction/initialize response data
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record InitializeTransactionData(
+    @JsonProperty("authorization_url") String authorizationUrl,
+    @JsonProperty("access_code") String accessCode,
+    String reference
+) {
+}
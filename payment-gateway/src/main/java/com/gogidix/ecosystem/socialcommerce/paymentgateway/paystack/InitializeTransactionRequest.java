@@ -0,0 +1,20 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * POST /transaction/initialize request body
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InitializeTransactionRequest(
+    long amount,
+    String currency,
+    String email,
+    String reference,
+    Map<String, String> metadata,
+    List<String> channels
+) {
+}
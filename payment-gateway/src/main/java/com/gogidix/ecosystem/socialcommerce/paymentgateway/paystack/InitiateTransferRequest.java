@@ -0,0 +1,34 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * POST /transfer request body
+ *
+ * Paystack will not send a second transfer with the same {@code reference},
+ * so a reference makes the request safe to retry.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InitiateTransferRequest(
+    String source,
+    long amount,
+    String currency,
+    String reason,
+    Recipient recipient,
+    String reference
+) {
+
+    public InitiateTransferRequest(String source, long amount, String currency, String reason, Recipient recipient) {
+        this(source, amount, currency, reason, recipient, null);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Recipient(
+        String type,
+        @JsonProperty("account_number") String accountNumber,
+        @JsonProperty("bank_code") String bankCode,
+        String name
+    ) {
+    }
+}
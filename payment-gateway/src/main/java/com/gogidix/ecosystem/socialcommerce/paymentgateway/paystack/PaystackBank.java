@@ -0,0 +1,19 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Element of the GET /bank list
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PaystackBank(
+    long id,
+    String name,
+    String slug,
+    String code,
+    String country,
+    String currency,
+    String type,
+    boolean active
+) {
+}
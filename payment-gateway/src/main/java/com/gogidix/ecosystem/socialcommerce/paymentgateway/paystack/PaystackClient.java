@@ -0,0 +1,334 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.config.PaymentSecurityConfig;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Typed Paystack REST Client
+ *
+ * PERFORMANCE IMPLEMENTATION: Replaces Map-based request/response handling
+ * - Record DTOs per endpoint instead of HashMap bodies and casted Map reads
+ * - Jackson readers and writers resolved once at construction
+ * - Request bodies serialized straight into the HTTP output stream
+ * - List endpoints (/bank, /transaction) parsed as a token stream, handing
+ *   each element to a consumer so no full response tree is materialized
+ */
+@Component
+public class PaystackClient {
+
+    public static final String GATEWAY_NAME = "PAYSTACK";
+
+    // Paystack API endpoints
+    static final String INITIALIZE_TRANSACTION_URL = "/transaction/initialize";
+    static final String VERIFY_TRANSACTION_URL = "/transaction/verify/{reference}";
+    static final String LIST_TRANSACTIONS_URL = "/transaction?perPage={perPage}&page={page}";
+    static final String REFUND_URL = "/refund";
+    static final String TRANSFER_URL = "/transfer";
+    static final String VERIFY_TRANSFER_URL = "/transfer/verify/{reference}";
+    static final String BANK_URL = "/bank";
+
+    private static final List<MediaType> ACCEPT_JSON = List.of(MediaType.APPLICATION_JSON);
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final Supplier<String> baseUrl;
+    private final Supplier<String> secretKey;
+
+    // Precomputed readers and writers
+    private final ObjectReader initializeReader;
+    private final ObjectReader transactionReader;
+    private final ObjectReader refundReader;
+    private final ObjectReader transferReader;
+    private final ObjectReader transactionElementReader;
+    private final ObjectReader bankElementReader;
+    private final ObjectReader webhookReader;
+    private final ObjectWriter initializeWriter;
+    private final ObjectWriter refundWriter;
+    private final ObjectWriter transferWriter;
+
+    @Autowired
+    public PaystackClient(RestTemplate restTemplate, ObjectMapper objectMapper, PaymentSecurityConfig securityConfig) {
+        this(restTemplate, objectMapper, securityConfig::getPaystackBaseUrl, securityConfig::getPaystackSecretKey);
+    }
+
+    public PaystackClient(RestTemplate restTemplate, ObjectMapper objectMapper,
+                          Supplier<String> baseUrl, Supplier<String> secretKey) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.secretKey = secretKey;
+
+        this.initializeReader = objectMapper.readerFor(new TypeReference<PaystackResponse<InitializeTransactionData>>() {});
+        this.transactionReader = objectMapper.readerFor(new TypeReference<PaystackResponse<TransactionData>>() {});
+        this.refundReader = objectMapper.readerFor(new TypeReference<PaystackResponse<RefundData>>() {});
+        this.transferReader = objectMapper.readerFor(new TypeReference<PaystackResponse<TransferData>>() {});
+        this.transactionElementReader = objectMapper.readerFor(TransactionData.class);
+        this.bankElementReader = objectMapper.readerFor(PaystackBank.class);
+        this.webhookReader = objectMapper.readerFor(PaystackWebhookEvent.class);
+
+        this.initializeWriter = bodyWriter(InitializeTransactionRequest.class);
+        this.refundWriter = bodyWriter(CreateRefundRequest.class);
+        this.transferWriter = bodyWriter(InitiateTransferRequest.class);
+    }
+
+    // ==============================================
+    // TRANSACTIONS
+    // ==============================================
+
+    /**
+     * POST /transaction/initialize
+     */
+    public InitializeTransactionData initializeTransaction(InitializeTransactionRequest request) {
+        PaystackResponse<InitializeTransactionData> response = restTemplate.execute(
+            baseUrl.get() + INITIALIZE_TRANSACTION_URL,
+            HttpMethod.POST,
+            jsonRequest(initializeWriter, request),
+            jsonResponse(initializeReader)
+        );
+        return unwrap(response, "transaction initialization");
+    }
+
+    /**
+     * GET /transaction/verify/{reference}
+     */
+    public TransactionData verifyTransaction(String reference) {
+        PaystackResponse<TransactionData> response = restTemplate.execute(
+            baseUrl.get() + VERIFY_TRANSACTION_URL,
+            HttpMethod.GET,
+            jsonRequest(null, null),
+            jsonResponse(transactionReader),
+            reference
+        );
+        return unwrap(response, "transaction verification");
+    }
+
+    /**
+     * GET /transaction, streaming one page of transactions to the consumer
+     *
+     * @return Number of transactions delivered
+     */
+    public int forEachTransaction(int page, int perPage, Consumer<TransactionData> consumer) {
+        Integer count = restTemplate.execute(
+            baseUrl.get() + LIST_TRANSACTIONS_URL,
+            HttpMethod.GET,
+            jsonRequest(null, null),
+            response -> streamDataArray(response.getBody(), transactionElementReader, consumer, "transaction list"),
+            perPage,
+            page
+        );
+        return count != null ? count : 0;
+    }
+
+    // ==============================================
+    // REFUNDS AND TRANSFERS
+    // ==============================================
+
+    /**
+     * POST /refund
+     */
+    public RefundData createRefund(CreateRefundRequest request) {
+        PaystackResponse<RefundData> response = restTemplate.execute(
+            baseUrl.get() + REFUND_URL,
+            HttpMethod.POST,
+            jsonRequest(refundWriter, request),
+            jsonResponse(refundReader)
+        );
+        return unwrap(response, "refund");
+    }
+
+    /**
+     * POST /transfer
+     */
+    public TransferData initiateTransfer(InitiateTransferRequest request) {
+        PaystackResponse<TransferData> response = restTemplate.execute(
+            baseUrl.get() + TRANSFER_URL,
+            HttpMethod.POST,
+            jsonRequest(transferWriter, request),
+            jsonResponse(transferReader)
+        );
+        return unwrap(response, "transfer");
+    }
+
+    /**
+     * GET /transfer/verify/{reference}
+     */
+    public TransferData verifyTransfer(String reference) {
+        PaystackResponse<TransferData> response = restTemplate.execute(
+            baseUrl.get() + VERIFY_TRANSFER_URL,
+            HttpMethod.GET,
+            jsonRequest(null, null),
+            jsonResponse(transferReader),
+            reference
+        );
+        return unwrap(response, "transfer verification");
+    }
+
+    // ==============================================
+    // BANKS AND CONNECTIVITY
+    // ==============================================
+
+    /**
+     * GET /bank, streaming each bank to the consumer
+     *
+     * @return Number of banks delivered
+     */
+    public int forEachBank(Consumer<PaystackBank> consumer) {
+        Integer count = restTemplate.execute(
+            baseUrl.get() + BANK_URL,
+            HttpMethod.GET,
+            jsonRequest(null, null),
+            response -> streamDataArray(response.getBody(), bankElementReader, consumer, "bank list")
+        );
+        return count != null ? count : 0;
+    }
+
+    /**
+     * GET /bank without binding the elements; used for availability checks
+     *
+     * @return Number of banks listed
+     */
+    public int countBanks() {
+        Integer count = restTemplate.execute(
+            baseUrl.get() + BANK_URL,
+            HttpMethod.GET,
+            jsonRequest(null, null),
+            response -> streamDataArray(response.getBody(), null, null, "bank list")
+        );
+        return count != null ? count : 0;
+    }
+
+    // ==============================================
+    // WEBHOOKS
+    // ==============================================
+
+    /**
+     * Bind a raw webhook payload to its typed event
+     */
+    public PaystackWebhookEvent parseWebhookEvent(String payload) throws IOException {
+        return webhookReader.readValue(payload);
+    }
+
+    // ==============================================
+    // ERRORS
+    // ==============================================
+
+    /**
+     * Whether Paystack refused a write because its reference is already taken,
+     * i.e. an earlier attempt with the same reference reached Paystack. The
+     * outcome of that attempt is then read back rather than reported as a failure.
+     */
+    public static boolean isDuplicateReference(HttpClientErrorException e) {
+        if (e.getStatusCode().value() != 400) {
+            return false;
+        }
+        String body = e.getResponseBodyAsString().toLowerCase(Locale.ROOT);
+        return body.contains("reference") && (body.contains("duplicate") || body.contains("already exists"));
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private ObjectWriter bodyWriter(Class<?> type) {
+        // RestTemplate owns the request stream; never let Jackson close it
+        return objectMapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private RequestCallback jsonRequest(ObjectWriter writer, Object body) {
+        return request -> {
+            HttpHeaders headers = request.getHeaders();
+            headers.setAccept(ACCEPT_JSON);
+            headers.setBearerAuth(secretKey.get());
+            if (writer != null) {
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                writer.writeValue(request.getBody(), body);
+            }
+        };
+    }
+
+    private static <T> ResponseExtractor<T> jsonResponse(ObjectReader reader) {
+        return response -> reader.readValue(response.getBody());
+    }
+
+    /**
+     * Walk the envelope token by token, binding only the elements of {@code data}.
+     * A null reader skips the elements without binding them.
+     */
+    private <T> int streamDataArray(InputStream body, ObjectReader elementReader,
+                                    Consumer<T> consumer, String operation) throws IOException {
+        int count = 0;
+        boolean status = true;
+        String message = null;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new PaymentProcessingException(
+                    "Paystack " + operation + " failed: malformed response", "PAYSTACK_API_ERROR", GATEWAY_NAME);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        if (elementReader != null) {
+                            T element = elementReader.readValue(parser);
+                            consumer.accept(element);
+                        } else {
+                            parser.skipChildren();
+                        }
+                        count++;
+                    }
+                } else if ("status".equals(field) && value.isBoolean()) {
+                    status = parser.getBooleanValue();
+                } else if ("message".equals(field) && value == JsonToken.VALUE_STRING) {
+                    message = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        if (!status) {
+            throw new PaymentProcessingException(
+                "Paystack " + operation + " failed: " + message, "PAYSTACK_API_ERROR", GATEWAY_NAME);
+        }
+        return count;
+    }
+
+    private static <T> T unwrap(PaystackResponse<T> response, String operation) {
+        if (response == null) {
+            throw new PaymentProcessingException(
+                "Paystack " + operation + " failed: empty response", "PAYSTACK_API_ERROR", GATEWAY_NAME);
+        }
+        if (!response.status() || response.data() == null) {
+            throw new PaymentProcessingException(
+                "Paystack " + operation + " failed: " + response.message(), "PAYSTACK_API_ERROR", GATEWAY_NAME);
+        }
+        return response.data();
+    }
+}
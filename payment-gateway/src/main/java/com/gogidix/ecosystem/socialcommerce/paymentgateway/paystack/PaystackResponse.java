@@ -0,0 +1,16 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Paystack response envelope
+ *
+ * Every Paystack endpoint wraps its payload as {@code {status, message, data}}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PaystackResponse<T>(
+    boolean status,
+    String message,
+    T data
+) {
+}
@@ -0,0 +1,25 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Paystack webhook payload ({@code charge.success}, {@code transfer.failed}, ...)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PaystackWebhookEvent(
+    String event,
+    Data data
+) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Data(
+        long id,
+        String reference,
+        @JsonProperty("transfer_code") String transferCode,
+        String status,
+        long amount,
+        String currency
+    ) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * POST /refund response data
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RefundData(
+    long id,
+    String status,
+    long amount,
+    String currency
+) {
+}
@@ -0,0 +1,22 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Transaction payload returned by GET /transaction/verify/{reference}
+ * and by each element of the GET /transaction list
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TransactionData(
+    long id,
+    String reference,
+    String status,
+    long amount,
+    String currency,
+    String channel,
+    @JsonProperty("gateway_response") String gatewayResponse,
+    @JsonProperty("paid_at") String paidAt,
+    @JsonProperty("created_at") String createdAt
+) {
+}
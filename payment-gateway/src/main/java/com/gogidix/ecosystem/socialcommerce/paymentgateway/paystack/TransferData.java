@@ -0,0 +1,18 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * POST /transfer response data
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TransferData(
+    long id,
+    @JsonProperty("transfer_code") String transferCode,
+    String reference,
+    String status,
+    long amount,
+    String currency
+) {
+}
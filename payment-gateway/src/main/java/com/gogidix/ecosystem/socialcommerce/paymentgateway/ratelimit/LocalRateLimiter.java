@@ -0,0 +1,86 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import java.util.function.LongSupplier;
+
+/**
+ * In-process Token Bucket Rate Limiter
+ *
+ * PERFORMANCE IMPLEMENTATION: Lock-free buckets in a bounded table
+ * - Each bucket is a single {@code long}: its theoretical arrival time (GCRA,
+ *   the one-word form of a token bucket). Refill is implicit in the clock, so
+ *   taking a token is one read and one CAS, retried only under contention
+ * - Buckets live in a {@link SlotTable}: fixed memory however many merchants,
+ *   customers and clients appear; idle buckets are the first reused, and an
+ *   idle bucket is a full one, so reuse loses nothing
+ * - No allocation on the hot path besides the returned decision
+ *
+ * Limits are per replica. See {@link RedisRateLimiter} for limits shared
+ * across replicas.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final SlotTable buckets;
+    private final LongSupplier clock;
+    private final long epoch;
+
+    public LocalRateLimiter(int capacity) {
+        this(capacity, System::nanoTime);
+    }
+
+    LocalRateLimiter(int capacity, LongSupplier clock) {
+        this.buckets = new SlotTable(capacity);
+        this.clock = clock;
+        // Keeps stored times positive; 0 marks a new, full bucket
+        this.epoch = clock.getAsLong() - 1;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String scope, String id, RateLimit limit) {
+        int slot = buckets.slot(SlotTable.hash(scope, id));
+        long interval = limit.intervalNanos();
+        long tolerance = limit.toleranceNanos();
+
+        while (true) {
+            long now = clock.getAsLong() - epoch;
+            long arrival = buckets.get(slot);
+            long next = Math.max(arrival, now) + interval;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return RateLimitDecision.rejected(limit, ahead);
+            }
+            if (buckets.compareAndSet(slot, arrival, next)) {
+                return RateLimitDecision.allowed(limit, ahead);
+            }
+        }
+    }
+
+    @Override
+    public void release(String scope, String id, RateLimit limit) {
+        int slot = buckets.slot(SlotTable.hash(scope, id));
+        long interval = limit.intervalNanos();
+
+        while (true) {
+            long now = clock.getAsLong() - epoch;
+            long arrival = buckets.get(slot);
+            if (arrival <= now) {
+                // Already full again
+                return;
+            }
+            if (buckets.compareAndSet(slot, arrival, Math.max(arrival - interval, now))) {
+                return;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return buckets.capacity();
+    }
+
+    /**
+     * Buckets dropped to make room; a steadily rising count means the table is
+     * too small for the number of active keys
+     */
+    public long getEvictions() {
+        return buckets.evictions();
+    }
+}
@@ -0,0 +1,36 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+/**
+ * Token bucket parameters: sustained rate and burst size
+ *
+ * Held as the GCRA equivalents used by the limiters: one token is earned
+ * every {@link #intervalNanos()}, and a bucket may run at most
+ * {@link #toleranceNanos()} ahead of real time (a full bucket of
+ * {@code burst} tokens).
+ */
+public record RateLimit(long requestsPerMinute, long burst) {
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    public RateLimit {
+        if (requestsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException(
+                "Rate limit needs a positive rate and burst: " + requestsPerMinute + "/min, burst " + burst);
+        }
+    }
+
+    public long intervalNanos() {
+        return NANOS_PER_MINUTE / requestsPerMinute;
+    }
+
+    public long toleranceNanos() {
+        return intervalNanos() * burst;
+    }
+
+    /**
+     * Draft RateLimit-Policy value, e.g. {@code 600;w=60;burst=100}
+     */
+    public String policy() {
+        return requestsPerMinute + ";w=60;burst=" + burst;
+    }
+}
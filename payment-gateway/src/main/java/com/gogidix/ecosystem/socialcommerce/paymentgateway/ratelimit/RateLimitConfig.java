@@ -0,0 +1,68 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Rate Limiting Configuration
+ *
+ * {@code payment.rate-limit.mode: local} (default) limits each replica on its
+ * own; {@code redis} shares buckets across replicas through Redis, with local
+ * token pre-fetching. The filter is added to the security chain by
+ * UnifiedSecurityConfig.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitPolicy rateLimitPolicy(Environment environment) {
+        return RateLimitPolicy.from(environment);
+    }
+
+    @Bean
+    public LocalRateLimiter localRateLimiter(@Value("${payment.rate-limit.table-capacity:65536}") int capacity) {
+        return new LocalRateLimiter(capacity);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "payment.rate-limit.mode", havingValue = "redis")
+    public RedisTokenStore rateLimitTokenStore(
+            @Value("${payment.rate-limit.redis.uri:redis://localhost:6379}") String uri,
+            @Value("${payment.rate-limit.redis.timeout-ms:50}") long timeoutMs) {
+        return new RedisTokenStore(uri, Duration.ofMillis(timeoutMs));
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            RateLimitPolicy rateLimitPolicy,
+            LocalRateLimiter localRateLimiter,
+            ObjectProvider<RedisTokenStore> rateLimitTokenStore,
+            @Value("${payment.rate-limit.table-capacity:65536}") int capacity,
+            @Value("${payment.rate-limit.redis.prefetch:10}") int prefetch,
+            @Value("${payment.rate-limit.redis.lease-ms:200}") long leaseMillis) {
+        RedisTokenStore store = rateLimitTokenStore.getIfAvailable();
+        RateLimiter rateLimiter = store != null
+            ? new RedisRateLimiter(store, localRateLimiter, capacity, prefetch, leaseMillis)
+            : localRateLimiter;
+        return new RateLimitFilter(rateLimiter, rateLimitPolicy);
+    }
+
+    /**
+     * Keeps the filter out of the servlet chain; it must run after
+     * authentication, inside the security chain only
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
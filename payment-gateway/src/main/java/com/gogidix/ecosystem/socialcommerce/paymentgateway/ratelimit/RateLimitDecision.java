@@ -0,0 +1,49 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+/**
+ * Outcome of one rate limit check
+ *
+ * @param allowed         whether the request may proceed
+ * @param limit           the limit checked against
+ * @param remaining       tokens left after this request
+ * @param resetNanos      time until the bucket is full again
+ * @param retryAfterNanos time until a token is available; 0 when allowed
+ */
+public record RateLimitDecision(boolean allowed, RateLimit limit, long remaining, long resetNanos,
+                                long retryAfterNanos) {
+
+    static RateLimitDecision allowed(RateLimit limit, long aheadNanos) {
+        long remaining = (limit.toleranceNanos() - aheadNanos) / limit.intervalNanos();
+        return new RateLimitDecision(true, limit, Math.max(0, remaining), aheadNanos, 0);
+    }
+
+    static RateLimitDecision rejected(RateLimit limit, long aheadNanos) {
+        long retryAfter = aheadNanos - limit.toleranceNanos();
+        return new RateLimitDecision(false, limit, 0, aheadNanos - limit.intervalNanos(), Math.max(retryAfter, 1));
+    }
+
+    /**
+     * The tighter of two decisions: a rejection, else the one with fewer tokens left
+     */
+    public RateLimitDecision and(RateLimitDecision other) {
+        if (other == null) {
+            return this;
+        }
+        if (allowed != other.allowed) {
+            return allowed ? other : this;
+        }
+        return other.remaining < remaining ? other : this;
+    }
+
+    public long resetSeconds() {
+        return ceilSeconds(resetNanos);
+    }
+
+    public long retryAfterSeconds() {
+        return ceilSeconds(retryAfterNanos);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return nanos <= 0 ? 0 : (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Payment API Rate Limit Filter
+ *
+ * Runs inside the security filter chain, after bearer token authentication,
+ * and takes one token per request from each bucket that applies:
+ * - the merchant ({@code merchant_id} claim, or the caller itself for
+ *   merchant-tier roles), shared by all of a merchant's users and integrations
+ * - otherwise the calling customer or staff member (token subject)
+ * - the API client that obtained the token ({@code azp} / {@code client_id})
+ *
+ * A request rejected by one bucket gives its token back to the other, so a
+ * client over its own limit cannot drain the merchant's bucket (or the
+ * reverse).
+ *
+ * Every limited response carries RateLimit-Limit, RateLimit-Remaining,
+ * RateLimit-Reset and RateLimit-Policy for the tightest bucket; rejections
+ * are 429 with Retry-After. Provider webhooks and public endpoints are not
+ * limited, and unauthenticated requests are left to the authorization rules.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+    public static final String POLICY_HEADER = "RateLimit-Policy";
+
+    private static final String PAYMENTS_PATH = "/api/v1/payments/";
+    private static final String[] UNLIMITED_PATHS = {
+        PAYMENTS_PATH + "webhook/",
+        PAYMENTS_PATH + "methods/"
+    };
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitPolicy policy;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitPolicy policy) {
+        this.rateLimiter = rateLimiter;
+        this.policy = policy;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(PAYMENTS_PATH)) {
+            return true;
+        }
+        for (String unlimited : UNLIMITED_PATHS) {
+            if (path.startsWith(unlimited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken token)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Jwt jwt = token.getToken();
+        RateLimitTier tier = RateLimitTier.forAuthorities(authentication.getAuthorities());
+        RateLimit callerLimit = policy.limitFor(tier);
+
+        String merchantId = jwt.getClaimAsString("merchant_id");
+        String callerScope;
+        String callerId;
+        if (merchantId != null) {
+            callerScope = "merchant";
+            callerId = merchantId;
+        } else if (tier == RateLimitTier.MERCHANT) {
+            callerScope = "merchant";
+            callerId = authentication.getName();
+        } else if (tier == RateLimitTier.CUSTOMER) {
+            callerScope = "customer";
+            callerId = authentication.getName();
+        } else {
+            callerScope = "user";
+            callerId = authentication.getName();
+        }
+        RateLimitDecision decision = rateLimiter.tryAcquire(callerScope, callerId, callerLimit);
+
+        String clientId = jwt.getClaimAsString("azp");
+        if (clientId == null) {
+            clientId = jwt.getClaimAsString("client_id");
+        }
+        if (clientId != null) {
+            RateLimit clientLimit = policy.limitFor(RateLimitTier.API_CLIENT);
+            RateLimitDecision clientDecision = rateLimiter.tryAcquire("client", clientId, clientLimit);
+            // A rejected request must not spend the other bucket's token
+            if (decision.allowed() && !clientDecision.allowed()) {
+                rateLimiter.release(callerScope, callerId, callerLimit);
+            } else if (!decision.allowed() && clientDecision.allowed()) {
+                rateLimiter.release("client", clientId, clientLimit);
+            }
+            decision = decision.and(clientDecision);
+        }
+
+        writeHeaders(response, decision);
+        if (decision.allowed()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        logger.atWarn()
+            .addKeyValue("user", authentication.getName())
+            .addKeyValue("tier", tier)
+            .addKeyValue("retryAfterSeconds", decision.retryAfterSeconds())
+            .log("Rate limit exceeded for {} {}", request.getMethod(), request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(decision.retryAfterSeconds()));
+        response.setContentType("application/json");
+        response.getWriter().write(String.format(
+            "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry in %d s\",\"timestamp\":\"%s\"}",
+            decision.retryAfterSeconds(), java.time.Instant.now()));
+    }
+
+    private static void writeHeaders(HttpServletResponse response, RateLimitDecision decision) {
+        response.setHeader(LIMIT_HEADER, Long.toString(decision.limit().burst()));
+        response.setHeader(REMAINING_HEADER, Long.toString(decision.remaining()));
+        response.setHeader(RESET_HEADER, Long.toString(decision.resetSeconds()));
+        response.setHeader(POLICY_HEADER, decision.limit().policy());
+    }
+}
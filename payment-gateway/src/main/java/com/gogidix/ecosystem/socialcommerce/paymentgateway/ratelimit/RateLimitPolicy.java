@@ -0,0 +1,40 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configured limit for each {@link RateLimitTier}
+ *
+ * Read from {@code payment.rate-limit.tiers.<tier>.requests-per-minute} and
+ * {@code .burst}; tiers not configured keep their defaults.
+ */
+public class RateLimitPolicy {
+
+    private final Map<RateLimitTier, RateLimit> limits;
+
+    public RateLimitPolicy(Map<RateLimitTier, RateLimit> limits) {
+        this.limits = new EnumMap<>(RateLimitTier.class);
+        for (RateLimitTier tier : RateLimitTier.values()) {
+            this.limits.put(tier, limits.getOrDefault(tier, tier.getDefaultLimit()));
+        }
+    }
+
+    public static RateLimitPolicy from(Environment environment) {
+        Map<RateLimitTier, RateLimit> limits = new EnumMap<>(RateLimitTier.class);
+        for (RateLimitTier tier : RateLimitTier.values()) {
+            String prefix = "payment.rate-limit.tiers." + tier.getKey() + ".";
+            RateLimit defaults = tier.getDefaultLimit();
+            limits.put(tier, new RateLimit(
+                environment.getProperty(prefix + "requests-per-minute", Long.class, defaults.requestsPerMinute()),
+                environment.getProperty(prefix + "burst", Long.class, defaults.burst())));
+        }
+        return new RateLimitPolicy(limits);
+    }
+
+    public RateLimit limitFor(RateLimitTier tier) {
+        return limits.get(tier);
+    }
+}
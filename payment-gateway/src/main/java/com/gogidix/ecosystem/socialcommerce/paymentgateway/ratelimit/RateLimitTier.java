@@ -0,0 +1,71 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Rate limit tiers
+ *
+ * Follow the role tiers of the payment amount limits in
+ * PaymentSecurityService; a caller gets the highest tier any of its roles
+ * maps to. API clients (the integration presenting the token) have a tier of
+ * their own, applied on top of the caller's.
+ */
+public enum RateLimitTier {
+
+    CUSTOMER("customer", 60, 20, Set.of("CUSTOMER")),
+    STAFF("staff", 120, 30, Set.of("DRIVER", "WAREHOUSE_STAFF")),
+    MERCHANT("merchant", 600, 100, Set.of("VENDOR")),
+    MANAGER("manager", 1200, 200, Set.of(
+        "COMMERCE_MANAGER", "WAREHOUSE_MANAGER", "FLEET_MANAGER",
+        "VENDOR_MANAGER", "BILLING_MANAGER", "PAYOUT_MANAGER")),
+    ADMIN("admin", 3000, 500, Set.of("COMMERCE_ADMIN", "WAREHOUSE_ADMIN", "COURIER_ADMIN")),
+    PLATFORM("platform", 6000, 1000, Set.of("PLATFORM_ADMIN", "SUPER_ADMIN")),
+    API_CLIENT("api-client", 3000, 300, Set.of());
+
+    private final String key;
+    private final long defaultRequestsPerMinute;
+    private final long defaultBurst;
+    private final Set<String> roles;
+
+    RateLimitTier(String key, long defaultRequestsPerMinute, long defaultBurst, Set<String> roles) {
+        this.key = key;
+        this.defaultRequestsPerMinute = defaultRequestsPerMinute;
+        this.defaultBurst = defaultBurst;
+        this.roles = roles;
+    }
+
+    /**
+     * Name under payment.rate-limit.tiers
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public RateLimit getDefaultLimit() {
+        return new RateLimit(defaultRequestsPerMinute, defaultBurst);
+    }
+
+    /**
+     * Highest caller tier among the granted roles; callers without a known role
+     * are limited as customers
+     */
+    public static RateLimitTier forAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        RateLimitTier tier = CUSTOMER;
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (!name.startsWith("ROLE_")) {
+                continue;
+            }
+            String role = name.substring(5);
+            for (RateLimitTier candidate : values()) {
+                if (candidate.ordinal() > tier.ordinal() && candidate.roles.contains(role)) {
+                    tier = candidate;
+                }
+            }
+        }
+        return tier;
+    }
+}
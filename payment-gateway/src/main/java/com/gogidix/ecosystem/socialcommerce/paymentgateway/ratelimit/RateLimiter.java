@@ -0,0 +1,23 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+/**
+ * Token bucket rate limiter keyed by scope and identifier
+ *
+ * Scopes separate key spaces ({@code merchant}, {@code customer},
+ * {@code client}, ...) so equal identifiers in different scopes never share
+ * a bucket.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the bucket for {@code scope:id}, creating a full
+     * bucket on first use
+     */
+    RateLimitDecision tryAcquire(String scope, String id, RateLimit limit);
+
+    /**
+     * Gives back a token taken by an allowed {@link #tryAcquire}, for a
+     * request that another bucket then rejected
+     */
+    void release(String scope, String id, RateLimit limit);
+}
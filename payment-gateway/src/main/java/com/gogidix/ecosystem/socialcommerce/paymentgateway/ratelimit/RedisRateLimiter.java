@@ -0,0 +1,148 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Shared Token Bucket Rate Limiter with Local Pre-fetching
+ *
+ * PERFORMANCE IMPLEMENTATION: One bucket per key across all replicas
+ * - Buckets live in a {@link TokenStore} (Redis). Instead of one round trip
+ *   per request, a replica reserves a small batch of tokens and serves the
+ *   following requests for that key from a local lease
+ * - Leases are one packed {@code long} each (expiry, tokens left) in a
+ *   lock-free {@link SlotTable}; taking a leased token is a single CAS
+ * - Leases expire after {@code leaseMillis}, so a quiet replica cannot sit on
+ *   tokens for long. Unused leased tokens are lost, which only ever makes the
+ *   shared limit stricter, by at most one batch per replica per lease period
+ * - Batches are capped at a quarter of the bucket, so low tiers (customers)
+ *   still spread their burst across replicas
+ * - An empty shared bucket is remembered locally until a token is due (at
+ *   most one lease period), so a client hammering past its limit costs one
+ *   round trip per replica per lease, not one per request
+ *
+ * If the store is unreachable, requests fall back to a per-replica
+ * {@link LocalRateLimiter}, keeping the service available with looser limits.
+ * Remaining-token counts on leased requests cover the local lease only.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final int TOKEN_BITS = 20;
+    private static final long BLOCKED = 1L << (TOKEN_BITS - 1);
+    private static final long TOKEN_MASK = BLOCKED - 1;
+    private static final long WARN_INTERVAL_NANOS = 10_000_000_000L;
+
+    private final TokenStore store;
+    private final LocalRateLimiter fallback;
+    private final SlotTable leases;
+    private final int prefetch;
+    private final long leaseMillis;
+    private final LongSupplier clock;
+    private final long epoch;
+    private final AtomicLong nextWarning = new AtomicLong(System.nanoTime());
+
+    public RedisRateLimiter(TokenStore store, LocalRateLimiter fallback, int capacity, int prefetch, long leaseMillis) {
+        this(store, fallback, capacity, prefetch, leaseMillis, System::nanoTime);
+    }
+
+    RedisRateLimiter(TokenStore store, LocalRateLimiter fallback, int capacity, int prefetch, long leaseMillis,
+                     LongSupplier clock) {
+        if (prefetch < 1 || prefetch > TOKEN_MASK) {
+            throw new IllegalArgumentException("Prefetch must be between 1 and " + TOKEN_MASK);
+        }
+        this.store = store;
+        this.fallback = fallback;
+        this.leases = new SlotTable(capacity);
+        this.prefetch = prefetch;
+        this.leaseMillis = leaseMillis;
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String scope, String id, RateLimit limit) {
+        int slot = leases.slot(SlotTable.hash(scope, id));
+        long nowMillis = (clock.getAsLong() - epoch) / 1_000_000;
+
+        long lease;
+        while (expiry(lease = leases.get(slot)) > nowMillis) {
+            if ((lease & BLOCKED) != 0) {
+                long retryAfterNanos = (expiry(lease) - nowMillis) * 1_000_000;
+                return new RateLimitDecision(false, limit, 0, limit.toleranceNanos(), retryAfterNanos);
+            }
+            if (tokens(lease) == 0) {
+                break;
+            }
+            if (leases.compareAndSet(slot, lease, lease - 1)) {
+                return new RateLimitDecision(true, limit, tokens(lease) - 1, limit.toleranceNanos(), 0);
+            }
+        }
+
+        int wanted = (int) Math.max(1, Math.min(prefetch, limit.burst() / 4));
+        TokenStore.Reservation reservation;
+        try {
+            reservation = store.reserve(scope + ":" + id, limit, wanted);
+        } catch (RuntimeException e) {
+            warnFallback(e);
+            return fallback.tryAcquire(scope, id, limit);
+        }
+
+        if (reservation.granted() == 0) {
+            RateLimitDecision rejected = RateLimitDecision.rejected(limit, reservation.aheadNanos());
+            long blockedMillis = Math.min(leaseMillis, (rejected.retryAfterNanos() + 999_999) / 1_000_000);
+            leases.compareAndSet(slot, leases.get(slot), ((nowMillis + blockedMillis) << TOKEN_BITS) | BLOCKED);
+            return rejected;
+        }
+        if (reservation.granted() > 1) {
+            addToLease(slot, reservation.granted() - 1, nowMillis);
+        }
+        return RateLimitDecision.allowed(limit, reservation.aheadNanos());
+    }
+
+    /**
+     * The token already left the shared bucket, so it goes back to this
+     * replica's lease rather than to the store
+     */
+    @Override
+    public void release(String scope, String id, RateLimit limit) {
+        int slot = leases.slot(SlotTable.hash(scope, id));
+        addToLease(slot, 1, (clock.getAsLong() - epoch) / 1_000_000);
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private void addToLease(int slot, int tokens, long nowMillis) {
+        long expiry = nowMillis + leaseMillis;
+        while (true) {
+            long lease = leases.get(slot);
+            long held = expiry(lease) > nowMillis && (lease & BLOCKED) == 0 ? tokens(lease) : 0;
+            long updated = (expiry << TOKEN_BITS) | Math.min(held + tokens, TOKEN_MASK);
+            if (leases.compareAndSet(slot, lease, updated)) {
+                return;
+            }
+        }
+    }
+
+    private void warnFallback(RuntimeException e) {
+        long now = System.nanoTime();
+        long next = nextWarning.get();
+        if (now - next >= 0 && nextWarning.compareAndSet(next, now + WARN_INTERVAL_NANOS)) {
+            logger.warn("Shared rate limit store unavailable, enforcing per-replica limits: {}", e.getMessage());
+        }
+    }
+
+    private static long tokens(long lease) {
+        return lease & TOKEN_MASK;
+    }
+
+    private static long expiry(long lease) {
+        return lease >>> TOKEN_BITS;
+    }
+}
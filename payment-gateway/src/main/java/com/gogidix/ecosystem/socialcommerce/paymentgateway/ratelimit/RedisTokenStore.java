@@ -0,0 +1,114 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis Token Store
+ *
+ * Buckets are GCRA arrival times in microseconds, one string key each, updated
+ * by a Lua script so a reservation is a single atomic round trip. The script
+ * reads the Redis clock, so replicas with skewed clocks still agree. Keys
+ * expire once their bucket would be full again. Requires Redis 5+.
+ *
+ * Connects lazily and reconnects at most once per second after a failure;
+ * while Redis is unreachable {@link #reserve} throws.
+ */
+public class RedisTokenStore implements TokenStore, AutoCloseable {
+
+    private static final String KEY_PREFIX = "payment:ratelimit:";
+    private static final long RECONNECT_BACKOFF_NANOS = 1_000_000_000L;
+
+    static final String RESERVE_SCRIPT = """
+        local interval = tonumber(ARGV[1])
+        local tolerance = tonumber(ARGV[2])
+        local wanted = tonumber(ARGV[3])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+        local arrival = tonumber(redis.call('GET', KEYS[1])) or now
+        if arrival < now then
+          arrival = now
+        end
+        local granted = math.min(wanted, math.floor((now + tolerance - arrival) / interval))
+        if granted < 1 then
+          return {0, arrival + interval - now}
+        end
+        arrival = arrival + granted * interval
+        redis.call('SET', KEYS[1], string.format('%.0f', arrival), 'PX', math.ceil((arrival - now) / 1000) + 1)
+        return {granted, arrival - now}
+        """;
+
+    private final RedisClient client;
+    private final Duration timeout;
+    private volatile StatefulRedisConnection<String, String> connection;
+    private volatile String scriptDigest;
+    private volatile long nextConnectAttempt;
+
+    public RedisTokenStore(String uri, Duration timeout) {
+        this.client = RedisClient.create(RedisURI.create(uri));
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Reservation reserve(String key, RateLimit limit, int wanted) {
+        RedisCommands<String, String> commands = commands();
+        String[] keys = {KEY_PREFIX + key};
+        String interval = Long.toString(limit.intervalNanos() / 1_000);
+        String tolerance = Long.toString(limit.toleranceNanos() / 1_000);
+        String count = Integer.toString(wanted);
+
+        List<Long> result;
+        try {
+            result = commands.evalsha(scriptDigest, ScriptOutputType.MULTI, keys, interval, tolerance, count);
+        } catch (RedisNoScriptException e) {
+            // Script cache flushed or failed over to a fresh node
+            scriptDigest = commands.scriptLoad(RESERVE_SCRIPT);
+            result = commands.evalsha(scriptDigest, ScriptOutputType.MULTI, keys, interval, tolerance, count);
+        }
+        return new Reservation(result.get(0).intValue(), result.get(1) * 1_000);
+    }
+
+    @Override
+    public void close() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current != null) {
+            current.close();
+        }
+        client.shutdown();
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private RedisCommands<String, String> commands() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current != null) {
+            return current.sync();
+        }
+        synchronized (this) {
+            if (connection == null) {
+                if (System.nanoTime() - nextConnectAttempt < 0) {
+                    throw new IllegalStateException("Rate limit store unavailable, waiting to reconnect");
+                }
+                try {
+                    StatefulRedisConnection<String, String> opened = client.connect();
+                    opened.setTimeout(timeout);
+                    scriptDigest = opened.sync().scriptLoad(RESERVE_SCRIPT);
+                    connection = opened;
+                } catch (RuntimeException e) {
+                    nextConnectAttempt = System.nanoTime() + RECONNECT_BACKOFF_NANOS;
+                    throw e;
+                }
+            }
+            return connection.sync();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free map from 64-bit key hashes to one {@code long} of state
+ *
+ * PERFORMANCE IMPLEMENTATION:
+ * - Two flat {@link AtomicLongArray}s (keys, values); no per-key objects, no
+ *   locks, no resizing, so memory is fixed at 16 bytes per slot
+ * - Slots are split into stripes of {@value #STRIPE_WIDTH}; a key only ever
+ *   lives in the stripe its hash selects, so lookup is one short linear scan
+ *   over adjacent slots
+ * - When a stripe is full the slot with the smallest value is taken over.
+ *   Owners store values that grow with activity (bucket arrival time, lease
+ *   expiry), so the idlest entry is evicted first
+ *
+ * Keys are hashes, not identities: two identifiers colliding on all 64 bits
+ * share state. A slot claimed concurrently by eviction may also see one stray
+ * update from the key it replaced; both only ever make a limit slightly more
+ * lenient for one request.
+ */
+final class SlotTable {
+
+    static final int STRIPE_WIDTH = 8;
+
+    private static final long EMPTY = 0L;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray values;
+    private final int stripeMask;
+    private final LongAdder evictions = new LongAdder();
+
+    SlotTable(int capacity) {
+        if (capacity < STRIPE_WIDTH) {
+            throw new IllegalArgumentException("Capacity must be at least " + STRIPE_WIDTH);
+        }
+        int stripes = Integer.highestOneBit(capacity / STRIPE_WIDTH);
+        this.keys = new AtomicLongArray(stripes * STRIPE_WIDTH);
+        this.values = new AtomicLongArray(stripes * STRIPE_WIDTH);
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * Slot holding {@code key}, claiming one (value reset to 0) if it has none
+     */
+    int slot(long key) {
+        int base = ((int) (key >>> 32) & stripeMask) * STRIPE_WIDTH;
+        for (int i = base; i < base + STRIPE_WIDTH; i++) {
+            long current = keys.get(i);
+            if (current == key) {
+                return i;
+            }
+            if (current == EMPTY) {
+                if (keys.compareAndSet(i, EMPTY, key)) {
+                    values.set(i, 0L);
+                    return i;
+                }
+                if (keys.get(i) == key) {
+                    return i;
+                }
+            }
+        }
+
+        int victim = base;
+        long oldest = values.get(base);
+        for (int i = base + 1; i < base + STRIPE_WIDTH; i++) {
+            long value = values.get(i);
+            if (value < oldest) {
+                oldest = value;
+                victim = i;
+            }
+        }
+        keys.set(victim, key);
+        values.set(victim, 0L);
+        evictions.increment();
+        return victim;
+    }
+
+    long get(int slot) {
+        return values.get(slot);
+    }
+
+    boolean compareAndSet(int slot, long expected, long value) {
+        return values.compareAndSet(slot, expected, value);
+    }
+
+    int capacity() {
+        return keys.length();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 64-bit hash of a limiter key; never {@link #EMPTY}
+     */
+    static long hash(String scope, String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < scope.length(); i++) {
+            h = (h ^ scope.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ ':') * 0x100000001b3L;
+        for (int i = 0; i < id.length(); i++) {
+            h = (h ^ id.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+}
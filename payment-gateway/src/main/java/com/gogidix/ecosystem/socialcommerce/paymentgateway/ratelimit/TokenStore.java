@@ -0,0 +1,23 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+/**
+ * Shared token bucket storage used by {@link RedisRateLimiter}
+ */
+public interface TokenStore {
+
+    /**
+     * Atomically takes up to {@code wanted} tokens from the shared bucket
+     *
+     * @throws RuntimeException if the store is unreachable
+     */
+    Reservation reserve(String key, RateLimit limit, int wanted);
+
+    /**
+     * @param granted    tokens taken, 0 when the bucket is empty
+     * @param aheadNanos how far the bucket's arrival time is ahead of now after
+     *                   the reservation; when nothing was granted, after taking
+     *                   one more token
+     */
+    record Reservation(int granted, long aheadNanos) {
+    }
+}
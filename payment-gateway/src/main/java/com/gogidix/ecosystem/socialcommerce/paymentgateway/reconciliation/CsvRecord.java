@@ -0,0 +1,165 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zero-copy view of one CSV record inside a mapped settlement file
+ *
+ * Holds field offsets into the mapped buffer; nothing is decoded unless a
+ * caller asks for a String. The same instance is reused for every record, so
+ * it is only valid inside the record callback.
+ */
+public final class CsvRecord {
+
+    static final int MAX_FIELDS = 256;
+
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private ByteBuffer buffer;
+    private int fieldCount;
+    private long number;
+
+    void begin(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.fieldCount = 0;
+    }
+
+    void addField(int start, int end) {
+        if (fieldCount < MAX_FIELDS) {
+            starts[fieldCount] = start;
+            ends[fieldCount] = Math.max(start, end);
+        }
+        fieldCount++;
+    }
+
+    void complete() {
+        number++;
+    }
+
+    /**
+     * 1-based record number, header included
+     */
+    public long number() {
+        return number;
+    }
+
+    public int fieldCount() {
+        return Math.min(fieldCount, MAX_FIELDS);
+    }
+
+    public boolean has(int field) {
+        return field >= 0 && field < fieldCount();
+    }
+
+    public boolean isEmpty(int field) {
+        return !has(field) || starts[field] == ends[field];
+    }
+
+    boolean isBlankLine() {
+        return fieldCount == 1 && starts[0] == ends[0];
+    }
+
+    /**
+     * FNV-1a hash of the field bytes, as used by {@link ReferenceIndex}
+     */
+    public int hash(int field) {
+        int hash = ReferenceIndex.FNV_OFFSET;
+        for (int i = starts[field], end = ends[field]; i < end; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * ReferenceIndex.FNV_PRIME;
+        }
+        return hash;
+    }
+
+    public boolean fieldEquals(int field, byte[] value) {
+        int start = starts[field];
+        if (ends[field] - start != value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (buffer.get(start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ASCII case-insensitive comparison; {@code value} must be lower case
+     */
+    public boolean fieldEqualsIgnoreCase(int field, byte[] value) {
+        int start = starts[field];
+        if (ends[field] - start != value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            byte b = buffer.get(start + i);
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a decimal amount ("1,234.56", "-10.5") to a long with {@code scale}
+     * implied decimal places. Digits beyond the scale are rejected.
+     *
+     * @throws NumberFormatException for empty or malformed amounts
+     */
+    public long parseScaledAmount(int field, int scale) {
+        int i = starts[field];
+        int end = ends[field];
+        if (i == end) {
+            throw new NumberFormatException("empty amount");
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long value = 0;
+        int decimals = -1;
+        boolean digits = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (decimals >= 0 && ++decimals > scale) {
+                    throw new NumberFormatException("more than " + scale + " decimal places");
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10), b - '0');
+                digits = true;
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b != ',' || decimals >= 0) {
+                throw new NumberFormatException("invalid amount character '" + (char) b + "'");
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("no digits in amount");
+        }
+
+        for (int d = Math.max(decimals, 0); d < scale; d++) {
+            value = Math.multiplyExact(value, 10);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decode a field; allocates, so only for headers and report rows
+     */
+    public String toString(int field) {
+        if (!has(field)) {
+            return null;
+        }
+        byte[] bytes = new byte[ends[field] - starts[field]];
+        buffer.get(starts[field], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes match, mismatch and missing reports as CSV files
+ *
+ * - matches.csv: reference, record_id
+ * - mismatches.csv / missing.csv: type, reference, record_id, expected and
+ *   settled amount and currency, record status, settlement line
+ */
+public class CsvReportWriter implements ReconciliationSink, Closeable {
+
+    public static final String MATCHES_FILE = "matches.csv";
+    public static final String MISMATCHES_FILE = "mismatches.csv";
+    public static final String MISSING_FILE = "missing.csv";
+
+    private static final String DISCREPANCY_HEADER = "type,reference,record_id,expected_amount,settled_amount,"
+        + "expected_currency,settled_currency,record_status,settlement_line\n";
+
+    private final BufferedWriter matches;
+    private final BufferedWriter mismatches;
+    private final BufferedWriter missing;
+
+    public CsvReportWriter(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.matches = open(directory.resolve(MATCHES_FILE), "reference,record_id\n");
+        this.mismatches = open(directory.resolve(MISMATCHES_FILE), DISCREPANCY_HEADER);
+        this.missing = open(directory.resolve(MISSING_FILE), DISCREPANCY_HEADER);
+    }
+
+    @Override
+    public void matched(String reference, long recordId) {
+        try {
+            writeField(matches, reference);
+            matches.write(',');
+            matches.write(Long.toString(recordId));
+            matches.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void discrepancy(Discrepancy discrepancy) {
+        BufferedWriter out = discrepancy.type().isMissing() ? missing : mismatches;
+        try {
+            out.write(discrepancy.type().name());
+            out.write(',');
+            writeField(out, discrepancy.reference());
+            out.write(',');
+            writeField(out, discrepancy.recordId() != null ? discrepancy.recordId().toString() : null);
+            out.write(',');
+            writeField(out, plain(discrepancy.expectedAmount()));
+            out.write(',');
+            writeField(out, plain(discrepancy.settledAmount()));
+            out.write(',');
+            writeField(out, discrepancy.expectedCurrency());
+            out.write(',');
+            writeField(out, discrepancy.settledCurrency());
+            out.write(',');
+            writeField(out, discrepancy.recordStatus());
+            out.write(',');
+            writeField(out, discrepancy.settlementLine() > 0 ? Long.toString(discrepancy.settlementLine()) : null);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (matches; mismatches; missing) {
+            // Close all three, even if one fails
+        }
+    }
+
+    private static BufferedWriter open(Path file, String header) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(header);
+        return writer;
+    }
+
+    /**
+     * Quote values containing separators; settlement references come from a third party
+     */
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static String plain(BigDecimal amount) {
+        return amount != null ? amount.toPlainString() : null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * One reconciliation finding that needs attention
+ *
+ * @param recordId       Local payment record ID, null when only the settlement side exists
+ * @param settlementLine Settlement file record number, 0 when only our side exists
+ */
+public record Discrepancy(
+    Type type,
+    String reference,
+    Long recordId,
+    BigDecimal expectedAmount,
+    BigDecimal settledAmount,
+    String expectedCurrency,
+    String settledCurrency,
+    String recordStatus,
+    long settlementLine
+) {
+
+    public enum Type {
+        AMOUNT_MISMATCH,
+        CURRENCY_MISMATCH,
+        DUPLICATE_SETTLEMENT,
+        MALFORMED_SETTLEMENT_ROW,
+        MISSING_FROM_RECORDS,
+        MISSING_FROM_SETTLEMENT;
+
+        /**
+         * Missing on one side, as opposed to present on both but disagreeing
+         */
+        public boolean isMissing() {
+            return this == MISSING_FROM_RECORDS || this == MISSING_FROM_SETTLEMENT;
+        }
+    }
+}
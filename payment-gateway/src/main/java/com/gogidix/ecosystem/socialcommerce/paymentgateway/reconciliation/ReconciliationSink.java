@@ -0,0 +1,16 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+/**
+ * Receives reconciliation results as they are found
+ *
+ * Results are streamed rather than collected, so report size never bounds heap.
+ */
+public interface ReconciliationSink {
+
+    /**
+     * Settlement line agrees with our record; called once per match, so keep it cheap
+     */
+    void matched(String reference, long recordId);
+
+    void discrepancy(Discrepancy discrepancy);
+}
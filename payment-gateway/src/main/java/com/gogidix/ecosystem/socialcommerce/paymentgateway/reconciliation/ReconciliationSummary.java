@@ -0,0 +1,28 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import java.time.Duration;
+
+/**
+ * Counts for one reconciliation run
+ *
+ * @param rowsScanned Settlement data rows read (header and blank lines excluded)
+ * @param rowsIgnored Rows skipped by the format filter (payouts, fees, failed) or without a reference
+ * @param mismatched  Amount, currency, duplicate and malformed findings
+ */
+public record ReconciliationSummary(
+    SettlementFormat format,
+    int recordsIndexed,
+    long bytesScanned,
+    long rowsScanned,
+    long rowsIgnored,
+    long matched,
+    long mismatched,
+    long missingFromRecords,
+    long missingFromSettlement,
+    Duration elapsed
+) {
+
+    public boolean isClean() {
+        return mismatched == 0 && missingFromRecords == 0 && missingFromSettlement == 0;
+    }
+}
@@ -0,0 +1,211 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Provider Reference Index
+ *
+ * Open-addressing hash table of our payment records keyed on the provider
+ * reference (Paystack {@code PAYSTACK_...} references, Stripe {@code pi_...}
+ * IDs). Lookups hash and compare the reference bytes in place inside the
+ * mapped settlement file, so matching a settlement line allocates nothing.
+ *
+ * Amounts are held as longs with {@link #AMOUNT_SCALE} implied decimals,
+ * matching the NUMERIC(19, 4) column of payment_records. Not thread-safe.
+ */
+public final class ReferenceIndex {
+
+    public static final int AMOUNT_SCALE = 4;
+
+    static final int FNV_OFFSET = 0x811C9DC5;
+    static final int FNV_PRIME = 0x01000193;
+
+    private static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    private byte[][] keys;
+    private String[] references;
+    private long[] recordIds;
+    private long[] amounts;
+    private byte[][] currencies;
+    private String[] statuses;
+    private boolean[] settled;
+    private int mask;
+    private int size;
+
+    public ReferenceIndex(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    /**
+     * Add a payment record
+     *
+     * @return false if the reference is already indexed (the first record wins)
+     */
+    public boolean add(String reference, long recordId, BigDecimal amount, String currency, String status) {
+        if (size + 1 > (mask + 1) / 2) {
+            resize();
+        }
+
+        byte[] key = reference.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+            if (Arrays.equals(keys[slot], key)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        references[slot] = reference;
+        recordIds[slot] = recordId;
+        amounts[slot] = amount != null
+            ? amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+            : NO_AMOUNT;
+        currencies[slot] = currency != null
+            ? currency.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII)
+            : null;
+        statuses[slot] = status;
+        size++;
+        return true;
+    }
+
+    /**
+     * Slot of the record whose reference equals the given field, or -1
+     */
+    public int find(CsvRecord record, int field) {
+        int slot = record.hash(field) & mask;
+        byte[] key;
+        while ((key = keys[slot]) != null) {
+            if (record.fieldEquals(field, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Mark a record as present in the settlement file
+     *
+     * @return true if it had already been marked (duplicate settlement line)
+     */
+    public boolean markSettled(int slot) {
+        boolean previous = settled[slot];
+        settled[slot] = true;
+        return previous;
+    }
+
+    public boolean amountMatches(int slot, long scaledAmount) {
+        return amounts[slot] == scaledAmount;
+    }
+
+    /**
+     * Currencies match when either side is unknown or both agree (case-insensitive)
+     */
+    public boolean currencyMatches(int slot, CsvRecord record, int field) {
+        byte[] currency = currencies[slot];
+        return currency == null || record.isEmpty(field) || record.fieldEqualsIgnoreCase(field, currency);
+    }
+
+    public String reference(int slot) {
+        return references[slot];
+    }
+
+    public long recordId(int slot) {
+        return recordIds[slot];
+    }
+
+    public BigDecimal amount(int slot) {
+        return amounts[slot] != NO_AMOUNT ? BigDecimal.valueOf(amounts[slot], AMOUNT_SCALE) : null;
+    }
+
+    public String currency(int slot) {
+        return currencies[slot] != null
+            ? new String(currencies[slot], StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT)
+            : null;
+    }
+
+    public String status(int slot) {
+        return statuses[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visit every record that no settlement line matched
+     */
+    public void forEachUnsettled(SlotVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null && !settled[slot]) {
+                visitor.visit(slot);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface SlotVisitor {
+        void visit(int slot);
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    static int hash(byte[] key) {
+        int hash = FNV_OFFSET;
+        for (byte b : key) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int target = Math.max(16, expectedSize * 2);
+        return Integer.highestOneBit(target - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new byte[capacity][];
+        references = new String[capacity];
+        recordIds = new long[capacity];
+        amounts = new long[capacity];
+        currencies = new byte[capacity][];
+        statuses = new String[capacity];
+        settled = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private void resize() {
+        byte[][] oldKeys = keys;
+        String[] oldReferences = references;
+        long[] oldRecordIds = recordIds;
+        long[] oldAmounts = amounts;
+        byte[][] oldCurrencies = currencies;
+        String[] oldStatuses = statuses;
+        boolean[] oldSettled = settled;
+
+        allocate(oldKeys.length * 2);
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[old]) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[old];
+            references[slot] = oldReferences[old];
+            recordIds[slot] = oldRecordIds[old];
+            amounts[slot] = oldAmounts[old];
+            currencies[slot] = oldCurrencies[old];
+            statuses[slot] = oldStatuses[old];
+            settled[slot] = oldSettled[old];
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Supported settlement file layouts
+ *
+ * Columns are located by header name (normalized to lower snake case), trying
+ * each candidate in order, so column order and extra columns do not matter.
+ * Rows whose filter column holds none of the accepted values (payouts, fees,
+ * failed transactions) are skipped.
+ */
+public enum SettlementFormat {
+
+    /**
+     * Stripe itemized balance change report, or the dashboard balance transaction export
+     */
+    STRIPE_BALANCE_TRANSACTIONS(
+        PaymentGatewayType.STRIPE,
+        List.of("payment_intent_id", "payment_intent", "source_id", "source"),
+        List.of("gross", "amount"),
+        List.of("currency"),
+        List.of("reporting_category", "type"),
+        List.of("charge", "payment")
+    ),
+
+    /**
+     * Paystack settlement / transactions CSV export
+     */
+    PAYSTACK_SETTLEMENT(
+        PaymentGatewayType.PAYSTACK,
+        List.of("reference", "transaction_reference"),
+        List.of("amount", "transaction_amount"),
+        List.of("currency"),
+        List.of("status"),
+        List.of("success")
+    );
+
+    private final PaymentGatewayType gateway;
+    private final List<String> referenceColumns;
+    private final List<String> amountColumns;
+    private final List<String> currencyColumns;
+    private final List<String> filterColumns;
+    private final byte[][] acceptedValues;
+
+    SettlementFormat(PaymentGatewayType gateway, List<String> referenceColumns, List<String> amountColumns,
+                     List<String> currencyColumns, List<String> filterColumns, List<String> acceptedValues) {
+        this.gateway = gateway;
+        this.referenceColumns = referenceColumns;
+        this.amountColumns = amountColumns;
+        this.currencyColumns = currencyColumns;
+        this.filterColumns = filterColumns;
+        this.acceptedValues = acceptedValues.stream()
+            .map(value -> value.getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+    }
+
+    public PaymentGatewayType getGateway() {
+        return gateway;
+    }
+
+    /**
+     * Resolve column positions from a header record
+     *
+     * @throws IllegalArgumentException if the reference or amount column is missing
+     */
+    Columns resolve(CsvRecord header) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int field = 0; field < header.fieldCount(); field++) {
+            positions.putIfAbsent(normalize(header.toString(field)), field);
+        }
+
+        int reference = find(positions, referenceColumns);
+        int amount = find(positions, amountColumns);
+        if (reference < 0 || amount < 0) {
+            throw new IllegalArgumentException(name() + " settlement file needs one of " + referenceColumns
+                + " and one of " + amountColumns + "; header has " + positions.keySet());
+        }
+        return new Columns(reference, amount, find(positions, currencyColumns), find(positions, filterColumns));
+    }
+
+    boolean accepts(CsvRecord record, Columns columns) {
+        if (columns.filter() < 0) {
+            return true;
+        }
+        if (!record.has(columns.filter())) {
+            return false;
+        }
+        for (byte[] value : acceptedValues) {
+            if (record.fieldEqualsIgnoreCase(columns.filter(), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int find(Map<String, Integer> positions, List<String> candidates) {
+        for (String candidate : candidates) {
+            Integer position = positions.get(candidate);
+            if (position != null) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    static String normalize(String column) {
+        String normalized = column.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+        return normalized.replaceAll("^_+|_+$", "");
+    }
+
+    /**
+     * Field positions of the reconciled columns; -1 when absent
+     */
+    record Columns(int reference, int amount, int currency, int filter) {
+    }
+}
@@ -0,0 +1,223 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Settlement Reconciliation Engine
+ *
+ * PERFORMANCE IMPLEMENTATION: Reconciles provider settlement files against
+ * payment_records without loading either file into memory
+ * - Our records for the period are streamed from the database into a
+ *   {@link ReferenceIndex}; heap grows with our record count, not file size
+ * - The settlement file is scanned through {@link MappedCsvReader}; matched
+ *   lines are hashed, looked up and compared in place without allocation
+ * - Findings stream to a {@link ReconciliationSink}; only discrepancies
+ *   allocate, and nothing is retained after it is written
+ *
+ * A 5 GB export therefore needs the index plus one mapping window of address
+ * space, and is bounded by disk read speed rather than heap or GC.
+ */
+@Service
+public class SettlementReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SettlementReconciler.class);
+
+    private static final String COUNT_RECORDS_SQL =
+        "SELECT COUNT(*) FROM payment_records "
+            + "WHERE gateway = ? AND operation = 'PAYMENT' AND gateway_reference IS NOT NULL "
+            + "AND created_at >= ? AND created_at < ?";
+    private static final String SELECT_RECORDS_SQL =
+        "SELECT id, gateway_reference, amount, currency, status FROM payment_records "
+            + "WHERE gateway = ? AND operation = 'PAYMENT' AND gateway_reference IS NOT NULL "
+            + "AND created_at >= ? AND created_at < ?";
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int windowBytes;
+
+    @Autowired
+    public SettlementReconciler(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${payment.reconciliation.window-mb:64}") int windowMb) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windowBytes = windowMb << 20;
+    }
+
+    /**
+     * Reconcile a settlement file against our records created in [from, to)
+     * and write matches.csv, mismatches.csv and missing.csv to the report directory
+     */
+    public ReconciliationSummary reconcile(Path settlementFile, SettlementFormat format,
+                                           Instant from, Instant to, Path reportDirectory) throws IOException {
+        ReferenceIndex index = loadRecords(format, from, to);
+        try (CsvReportWriter reports = new CsvReportWriter(reportDirectory)) {
+            return reconcile(settlementFile, format, index, reports);
+        }
+    }
+
+    /**
+     * Reconcile a settlement file against a prepared index
+     */
+    public ReconciliationSummary reconcile(Path settlementFile, SettlementFormat format,
+                                           ReferenceIndex index, ReconciliationSink sink) throws IOException {
+        long start = System.nanoTime();
+        Scan scan = new Scan(format, index, sink);
+        long bytes = new MappedCsvReader(settlementFile, windowBytes).read(scan::accept);
+
+        // Everything we recorded that the provider never settled
+        index.forEachUnsettled(slot -> {
+            scan.missingFromSettlement++;
+            sink.discrepancy(new Discrepancy(
+                Discrepancy.Type.MISSING_FROM_SETTLEMENT, index.reference(slot), index.recordId(slot),
+                index.amount(slot), null, index.currency(slot), null, index.status(slot), 0));
+        });
+
+        ReconciliationSummary summary = new ReconciliationSummary(
+            format, index.size(), bytes, scan.rowsScanned, scan.rowsIgnored, scan.matched, scan.mismatched,
+            scan.missingFromRecords, scan.missingFromSettlement, Duration.ofNanos(System.nanoTime() - start));
+
+        logger.atInfo()
+            .addKeyValue("format", format)
+            .addKeyValue("file", settlementFile.getFileName())
+            .addKeyValue("rowsScanned", summary.rowsScanned())
+            .addKeyValue("matched", summary.matched())
+            .addKeyValue("mismatched", summary.mismatched())
+            .addKeyValue("missingFromRecords", summary.missingFromRecords())
+            .addKeyValue("missingFromSettlement", summary.missingFromSettlement())
+            .addKeyValue("elapsedMs", summary.elapsed().toMillis())
+            .log("Settlement reconciliation complete");
+        return summary;
+    }
+
+    /**
+     * Stream our payment records for the format's gateway into an index
+     */
+    public ReferenceIndex loadRecords(SettlementFormat format, Instant from, Instant to) {
+        String gateway = format.getGateway().name();
+        Timestamp fromTs = Timestamp.from(from);
+        Timestamp toTs = Timestamp.from(to);
+
+        // Streaming fetch needs a transaction on PostgreSQL (autocommit disables the cursor)
+        return readOnlyTransaction.execute(status -> {
+            Integer expected = jdbcTemplate.queryForObject(COUNT_RECORDS_SQL, Integer.class, gateway, fromTs, toTs);
+            ReferenceIndex index = new ReferenceIndex(expected != null ? expected : 0);
+            jdbcTemplate.query(SELECT_RECORDS_SQL, rs -> {
+                if (!index.add(rs.getString("gateway_reference"), rs.getLong("id"),
+                        rs.getBigDecimal("amount"), rs.getString("currency"), rs.getString("status"))) {
+                    logger.debug("Duplicate payment record for reference {}", rs.getString("gateway_reference"));
+                }
+            }, gateway, fromTs, toTs);
+            return index;
+        });
+    }
+
+    /**
+     * Per-run scan state; one instance per file
+     */
+    private static final class Scan {
+
+        private final SettlementFormat format;
+        private final ReferenceIndex index;
+        private final ReconciliationSink sink;
+        private SettlementFormat.Columns columns;
+
+        long rowsScanned;
+        long rowsIgnored;
+        long matched;
+        long mismatched;
+        long missingFromRecords;
+        long missingFromSettlement;
+
+        Scan(SettlementFormat format, ReferenceIndex index, ReconciliationSink sink) {
+            this.format = format;
+            this.index = index;
+            this.sink = sink;
+        }
+
+        void accept(CsvRecord record) {
+            if (columns == null) {
+                columns = format.resolve(record);
+                return;
+            }
+            rowsScanned++;
+
+            int reference = columns.reference();
+            if (!format.accepts(record, columns) || record.isEmpty(reference)) {
+                rowsIgnored++;
+                return;
+            }
+
+            long amount;
+            try {
+                amount = record.parseScaledAmount(columns.amount(), ReferenceIndex.AMOUNT_SCALE);
+            } catch (NumberFormatException | ArithmeticException e) {
+                // The provider did settle this reference, so don't also report it missing
+                int slot = index.find(record, reference);
+                if (slot >= 0) {
+                    index.markSettled(slot);
+                }
+                report(Discrepancy.Type.MALFORMED_SETTLEMENT_ROW, record, slot, null);
+                return;
+            }
+
+            int slot = index.find(record, reference);
+            if (slot < 0) {
+                missingFromRecords++;
+                sink.discrepancy(new Discrepancy(
+                    Discrepancy.Type.MISSING_FROM_RECORDS, record.toString(reference), null,
+                    null, settled(amount), null, record.toString(columns.currency()), null, record.number()));
+                return;
+            }
+
+            if (index.markSettled(slot)) {
+                report(Discrepancy.Type.DUPLICATE_SETTLEMENT, record, slot, settled(amount));
+            } else if (!index.amountMatches(slot, amount)) {
+                report(Discrepancy.Type.AMOUNT_MISMATCH, record, slot, settled(amount));
+            } else if (columns.currency() >= 0 && !index.currencyMatches(slot, record, columns.currency())) {
+                report(Discrepancy.Type.CURRENCY_MISMATCH, record, slot, settled(amount));
+            } else {
+                matched++;
+                sink.matched(index.reference(slot), index.recordId(slot));
+            }
+        }
+
+        private void report(Discrepancy.Type type, CsvRecord record, int slot, BigDecimal settledAmount) {
+            mismatched++;
+            boolean known = slot >= 0;
+            sink.discrepancy(new Discrepancy(
+                type,
+                known ? index.reference(slot) : record.toString(columns.reference()),
+                known ? index.recordId(slot) : null,
+                known ? index.amount(slot) : null,
+                settledAmount,
+                known ? index.currency(slot) : null,
+                record.toString(columns.currency()),
+                known ? index.status(slot) : null,
+                record.number()));
+        }
+
+        private static BigDecimal settled(long amount) {
+            return BigDecimal.valueOf(amount, ReferenceIndex.AMOUNT_SCALE);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.repository;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for Outbox Event writes
+ *
+ * Draining is done by the outbox relay with plain JDBC, since it needs
+ * {@code FOR UPDATE SKIP LOCKED} row claiming.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+}
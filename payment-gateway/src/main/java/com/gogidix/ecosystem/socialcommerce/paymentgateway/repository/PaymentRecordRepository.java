@@ -0,0 +1,16 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.repository;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.entity.PaymentRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for Payment Record operations
+ */
+@Repository
+public interface PaymentRecordRepository extends JpaRepository<PaymentRecord, Long> {
+
+    List<PaymentRecord> findByOrderId(String orderId);
+}
@@ -0,0 +1,136 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.retry;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics.GatewayOperation;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Payment Gateway Retries
+ *
+ * Builds {@link RetryingPaymentGateway} decorators with one {@link RetryPolicy},
+ * and so one retry budget, per gateway name.
+ *
+ * Which writes a provider can replay safely is a property of its API, not of
+ * deployment configuration: writes listed in {@link #UNKEYED_WRITES} are never
+ * retried, whatever {@code keyed-writes} says.
+ *
+ * Metrics:
+ * - payment.gateway.retry.calls (counter) by gateway
+ * - payment.gateway.retry.retries (counter) by gateway
+ * - payment.gateway.retry.amplification (gauge) by gateway, requests sent per
+ *   call since start; for a recent figure use (calls + retries) / calls rates
+ * - payment.gateway.retry.budget.exhausted (counter) by gateway, transient
+ *   failures not retried for lack of budget
+ * - payment.gateway.retry.attempts.exhausted (counter) by gateway, calls that
+ *   still failed after the last attempt
+ * - payment.gateway.retry.budget.available (gauge) by gateway
+ */
+@Component
+@ConditionalOnProperty(name = "payment.retry.enabled", havingValue = "true", matchIfMissing = true)
+public class GatewayRetries {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayRetries.class);
+
+    static final String CALLS_METRIC = "payment.gateway.retry.calls";
+    static final String RETRIES_METRIC = "payment.gateway.retry.retries";
+    static final String AMPLIFICATION_METRIC = "payment.gateway.retry.amplification";
+    static final String BUDGET_EXHAUSTED_METRIC = "payment.gateway.retry.budget.exhausted";
+    static final String ATTEMPTS_EXHAUSTED_METRIC = "payment.gateway.retry.attempts.exhausted";
+    static final String BUDGET_AVAILABLE_METRIC = "payment.gateway.retry.budget.available";
+
+    /**
+     * Writes whose provider call cannot carry the idempotency key, by gateway name.
+     * Paystack refunds take no reference, so a retried refund could be applied twice.
+     */
+    static final Map<String, Set<GatewayOperation>> UNKEYED_WRITES = Map.of(
+        PaymentGatewayType.PAYSTACK.name(), EnumSet.of(GatewayOperation.REFUND));
+
+    private final MeterRegistry registry;
+    private final Environment environment;
+
+    private final Map<String, RetryPolicy> policies = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public GatewayRetries(MeterRegistry registry, Environment environment) {
+        this.registry = registry;
+        this.environment = environment;
+    }
+
+    /**
+     * Wrap a gateway so its transient failures are retried, unless disabled for it
+     */
+    public PaymentGateway retry(PaymentGateway gateway) {
+        if (gateway instanceof RetryingPaymentGateway) {
+            return gateway;
+        }
+        RetrySettings settings = RetrySettings.from(environment, gateway.getName())
+            .withoutKeyedWrites(UNKEYED_WRITES.getOrDefault(gateway.getName(), Set.of()));
+        if (!settings.enabled() || settings.maxAttempts() == 1) {
+            return gateway;
+        }
+        RetryPolicy policy = policies.computeIfAbsent(gateway.getName(), name -> createPolicy(name, settings));
+        return new RetryingPaymentGateway(gateway, policy);
+    }
+
+    /**
+     * Retry policies keyed by gateway name, in name order
+     */
+    public Map<String, RetryPolicy> getPolicies() {
+        return Collections.unmodifiableMap(policies);
+    }
+
+    private RetryPolicy createPolicy(String gateway, RetrySettings settings) {
+        RetryPolicy policy = new RetryPolicy(settings);
+
+        counter(CALLS_METRIC, "Remote gateway calls, before retries", gateway, policy, RetryPolicy::getCalls);
+        counter(RETRIES_METRIC, "Retries sent after transient failures", gateway, policy, RetryPolicy::getRetries);
+        counter(BUDGET_EXHAUSTED_METRIC, "Transient failures not retried because the retry budget was spent",
+            gateway, policy, RetryPolicy::getBudgetExhausted);
+        counter(ATTEMPTS_EXHAUSTED_METRIC, "Calls that still failed transiently after the last attempt",
+            gateway, policy, RetryPolicy::getAttemptsExhausted);
+        gauge(AMPLIFICATION_METRIC, "Requests sent to the provider per call since start",
+            gateway, policy, RetryPolicy::getAmplification);
+        gauge(BUDGET_AVAILABLE_METRIC, "Retries the budget could pay for right now",
+            gateway, policy, p -> p.getBudget().getAvailable());
+
+        logger.atInfo()
+            .addKeyValue("gateway", gateway)
+            .addKeyValue("maxAttempts", settings.maxAttempts())
+            .addKeyValue("budgetRatio", settings.budgetRatio())
+            .addKeyValue("keyedWrites", settings.keyedWrites())
+            .log("Payment gateway retries enabled");
+        return policy;
+    }
+
+    private void counter(String name, String description, String gateway, RetryPolicy policy,
+                         ToDoubleFunction<RetryPolicy> value) {
+        FunctionCounter.builder(name, policy, value)
+            .description(description)
+            .tag("gateway", gateway)
+            .register(registry);
+    }
+
+    private void gauge(String name, String description, String gateway, RetryPolicy policy,
+                       ToDoubleFunction<RetryPolicy> value) {
+        Gauge.builder(name, policy, value)
+            .description(description)
+            .tag("gateway", gateway)
+            .register(registry);
+    }
+}
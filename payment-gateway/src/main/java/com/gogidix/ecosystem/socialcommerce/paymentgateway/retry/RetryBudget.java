@@ -0,0 +1,94 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that caps retries to a share of traffic
+ *
+ * PERFORMANCE IMPLEMENTATION: Retry budget
+ * - Each call deposits {@code budgetRatio} of a retry and each retry withdraws
+ *   a whole one, so when a provider fails every call, retries add at most
+ *   that ratio of extra load instead of multiplying it by the attempt count
+ * - Time also deposits {@code minRetriesPerSecond}, so a gateway that sees
+ *   little traffic can still retry a transient error
+ * - The balance is capped at {@code maxBurst} and starts full
+ * - Lock-free: deposits and withdrawals are CAS updates on one counter in
+ *   thousandths of a retry
+ */
+public class RetryBudget {
+
+    // Budget in thousandths of a retry
+    private static final long RETRY_COST = 1_000;
+
+    // Refill from the clock at most this often, so the common path is one CAS
+    private static final long REFILL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final LongSupplier clock;
+    private final long deposit;
+    private final long maxBalance;
+    private final double refillPerNano;
+
+    private final AtomicLong balance;
+    private final AtomicLong lastRefill;
+
+    public RetryBudget(RetrySettings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    public RetryBudget(RetrySettings settings, LongSupplier clock) {
+        this.clock = clock;
+        this.deposit = Math.round(settings.budgetRatio() * RETRY_COST);
+        this.maxBalance = settings.maxBurst() * RETRY_COST;
+        this.refillPerNano = settings.minRetriesPerSecond() * RETRY_COST / TimeUnit.SECONDS.toNanos(1);
+        this.balance = new AtomicLong(maxBalance);
+        this.lastRefill = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Earn one call's share of the budget
+     */
+    public void onCall() {
+        add(deposit);
+    }
+
+    /**
+     * Spend budget on a retry
+     *
+     * @return false when the budget is exhausted; the call must not be retried
+     */
+    public boolean tryRetry() {
+        refill();
+        long current;
+        do {
+            current = balance.get();
+            if (current < RETRY_COST) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - RETRY_COST));
+        return true;
+    }
+
+    /**
+     * Retries that could be sent right now
+     */
+    public double getAvailable() {
+        return (double) balance.get() / RETRY_COST;
+    }
+
+    private void refill() {
+        if (refillPerNano == 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long last = lastRefill.get();
+        if (now - last >= REFILL_INTERVAL_NANOS && lastRefill.compareAndSet(last, now)) {
+            add((long) ((now - last) * refillPerNano));
+        }
+    }
+
+    private void add(long amount) {
+        balance.accumulateAndGet(amount, (current, added) -> Math.min(maxBalance, current + added));
+    }
+}
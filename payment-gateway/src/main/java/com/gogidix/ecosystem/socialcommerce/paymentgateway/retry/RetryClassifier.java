@@ -0,0 +1,67 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.retry;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.GatewayOverloadedException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Sorts gateway failures into transient and terminal
+ *
+ * Transient: the provider could not be reached or failed on its side (network
+ * errors, timeouts, HTTP 5xx, 429). Terminal: the provider answered and said
+ * no (HTTP 4xx, declines, validation errors), so the same request would fail
+ * the same way again. Our own bulkhead rejections are terminal here too:
+ * nothing was sent, but the bulkhead is full because the provider is slow, and
+ * retrying into it within milliseconds only adds load; the caller gets a 503
+ * with Retry-After instead. Gateways wrap provider
+ * exceptions, so the cause chain is searched; anything unrecognised is
+ * terminal, since a retried payment write that was not transient could charge
+ * twice.
+ */
+public final class RetryClassifier {
+
+    // Error codes the gateways use for failures on the provider's side
+    private static final Set<String> TRANSIENT_ERROR_CODES = Set.of("GATEWAY_TIMEOUT", "GATEWAY_ERROR");
+
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    private RetryClassifier() {
+    }
+
+    public static boolean isTransient(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof GatewayOverloadedException) {
+                return false;
+            }
+            if (current instanceof PaymentProcessingException payment
+                    && (payment.isRetryable() || TRANSIENT_ERROR_CODES.contains(payment.getErrorCode()))) {
+                return true;
+            }
+            if (current instanceof ApiConnectionException
+                    || current instanceof ResourceAccessException
+                    || current instanceof IOException) {
+                return true;
+            }
+            // The provider answered: its status code decides
+            if (current instanceof StripeException stripe) {
+                return stripe.getStatusCode() != null && isTransientStatus(stripe.getStatusCode());
+            }
+            if (current instanceof RestClientResponseException response) {
+                return isTransientStatus(response.getStatusCode().value());
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    static boolean isTransientStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+}
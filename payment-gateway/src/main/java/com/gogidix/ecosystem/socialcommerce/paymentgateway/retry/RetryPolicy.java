@@ -0,0 +1,122 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.retry;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics.GatewayOperation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry decisions for one gateway
+ *
+ * PERFORMANCE IMPLEMENTATION: Budgeted retries with decorrelated jitter
+ * - A failure is retried only if it is transient ({@link RetryClassifier}),
+ *   attempts remain, and the {@link RetryBudget} can pay for it
+ * - Backoff is decorrelated jitter: each delay is drawn uniformly between the
+ *   base delay and three times the previous one, capped at the max delay, so
+ *   callers that failed together spread out instead of retrying in waves
+ * - Counts calls, retries and budget refusals for the amplification metrics
+ */
+public class RetryPolicy {
+
+    private final RetrySettings settings;
+    private final RetryBudget budget;
+    private final long baseNanos;
+    private final long maxNanos;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder attemptsExhausted = new LongAdder();
+
+    public RetryPolicy(RetrySettings settings) {
+        this(settings, new RetryBudget(settings));
+    }
+
+    public RetryPolicy(RetrySettings settings, RetryBudget budget) {
+        this.settings = settings;
+        this.budget = budget;
+        this.baseNanos = settings.baseDelay().toNanos();
+        this.maxNanos = settings.maxDelay().toNanos();
+    }
+
+    public RetrySettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Whether a write may be sent again: its provider call must honour the key
+     */
+    public boolean allowsWrite(GatewayOperation operation, String idempotencyKey) {
+        return idempotencyKey != null && !idempotencyKey.isBlank() && settings.keyedWrites().contains(operation);
+    }
+
+    /**
+     * Count a call and earn its share of the retry budget
+     */
+    public void onCall() {
+        calls.increment();
+        budget.onCall();
+    }
+
+    /**
+     * Decide whether to retry after a failed attempt
+     *
+     * @param attempt attempts made so far, including the one that failed
+     */
+    public boolean shouldRetry(int attempt, RuntimeException failure) {
+        if (!RetryClassifier.isTransient(failure)) {
+            return false;
+        }
+        if (attempt >= settings.maxAttempts()) {
+            attemptsExhausted.increment();
+            return false;
+        }
+        if (!budget.tryRetry()) {
+            budgetExhausted.increment();
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    /**
+     * Decorrelated jitter: uniform in [base, 3 * previous], capped
+     *
+     * @param previousNanos the previous backoff, or 0 before the first retry
+     */
+    public long nextBackoffNanos(long previousNanos) {
+        long upper = Math.min(maxNanos, Math.max(baseNanos, previousNanos) * 3);
+        if (upper <= baseNanos) {
+            return baseNanos;
+        }
+        return ThreadLocalRandom.current().nextLong(baseNanos, upper + 1);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getBudgetExhausted() {
+        return budgetExhausted.sum();
+    }
+
+    public long getAttemptsExhausted() {
+        return attemptsExhausted.sum();
+    }
+
+    /**
+     * Requests sent per call: 1.0 means no retries at all
+     */
+    public double getAmplification() {
+        long callCount = getCalls();
+        return callCount == 0 ? 1.0 : (double) (callCount + getRetries()) / callCount;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+}
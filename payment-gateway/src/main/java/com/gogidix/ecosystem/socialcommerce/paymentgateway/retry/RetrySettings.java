@@ -0,0 +1,110 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.retry;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics.GatewayOperation;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Retry settings for one gateway
+ *
+ * Read from {@code payment.retry.gateways.<gateway>.*}, falling back to
+ * {@code payment.retry.*} and then to the defaults below.
+ *
+ * @param enabled             Whether calls to this gateway are retried at all
+ * @param maxAttempts         Attempts per call, including the first
+ * @param baseDelay           Shortest backoff before a retry
+ * @param maxDelay            Longest backoff before a retry
+ * @param budgetRatio         Retries allowed per call, on average (0.1 = at most 10% extra load)
+ * @param minRetriesPerSecond Retries allowed regardless of traffic, so a quiet gateway can still retry
+ * @param maxBurst            Unused budget that can be saved up for a burst of retries
+ * @param keyedWrites         Writes whose provider call honours the idempotency key; only these are
+ *                            retried, and only when the request carries a key. Writes a provider
+ *                            cannot replay safely are removed in code by {@link GatewayRetries}
+ */
+public record RetrySettings(
+    boolean enabled,
+    int maxAttempts,
+    Duration baseDelay,
+    Duration maxDelay,
+    double budgetRatio,
+    double minRetriesPerSecond,
+    int maxBurst,
+    Set<GatewayOperation> keyedWrites
+) {
+
+    public static final RetrySettings DEFAULTS = new RetrySettings(
+        true, 3, Duration.ofMillis(50), Duration.ofSeconds(2), 0.1, 1.0, 10,
+        EnumSet.of(GatewayOperation.PROCESS_PAYMENT, GatewayOperation.REFUND, GatewayOperation.PAYOUT));
+
+    public RetrySettings {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Retry max attempts must be at least 1");
+        }
+        if (baseDelay.isNegative() || baseDelay.isZero() || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("Retry delays need 0 < base delay <= max delay");
+        }
+        if (budgetRatio < 0 || budgetRatio > 1 || minRetriesPerSecond < 0 || maxBurst < 1) {
+            throw new IllegalArgumentException(
+                "Retry budget needs 0 <= ratio <= 1, a non-negative floor and a burst of at least 1");
+        }
+        keyedWrites = Collections.unmodifiableSet(keyedWrites.isEmpty()
+            ? EnumSet.noneOf(GatewayOperation.class) : EnumSet.copyOf(keyedWrites));
+    }
+
+    /**
+     * These settings with {@code writes} never retried
+     */
+    public RetrySettings withoutKeyedWrites(Set<GatewayOperation> writes) {
+        if (writes.isEmpty() || Collections.disjoint(keyedWrites, writes)) {
+            return this;
+        }
+        Set<GatewayOperation> remaining = EnumSet.noneOf(GatewayOperation.class);
+        remaining.addAll(keyedWrites);
+        remaining.removeAll(writes);
+        return new RetrySettings(enabled, maxAttempts, baseDelay, maxDelay, budgetRatio, minRetriesPerSecond,
+            maxBurst, remaining);
+    }
+
+    public static RetrySettings from(Environment environment, String gateway) {
+        String prefix = "payment.retry.";
+        String override = prefix + "gateways." + gateway.toLowerCase(Locale.ROOT) + ".";
+        return new RetrySettings(
+            property(environment, prefix, override, "enabled", Boolean.class, DEFAULTS.enabled()),
+            property(environment, prefix, override, "max-attempts", Integer.class, DEFAULTS.maxAttempts()),
+            Duration.ofMillis(property(environment, prefix, override, "base-delay-ms", Long.class,
+                DEFAULTS.baseDelay().toMillis())),
+            Duration.ofMillis(property(environment, prefix, override, "max-delay-ms", Long.class,
+                DEFAULTS.maxDelay().toMillis())),
+            property(environment, prefix, override, "budget-ratio", Double.class, DEFAULTS.budgetRatio()),
+            property(environment, prefix, override, "min-retries-per-second", Double.class,
+                DEFAULTS.minRetriesPerSecond()),
+            property(environment, prefix, override, "max-burst", Integer.class, DEFAULTS.maxBurst()),
+            operations(property(environment, prefix, override, "keyed-writes", String.class,
+                DEFAULTS.keyedWrites().stream().map(GatewayOperation::tagValue).collect(Collectors.joining(",")))));
+    }
+
+    private static Set<GatewayOperation> operations(String tagValues) {
+        Set<GatewayOperation> operations = EnumSet.noneOf(GatewayOperation.class);
+        Arrays.stream(tagValues.split(","))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .forEach(value -> operations.add(Arrays.stream(GatewayOperation.values())
+                .filter(operation -> operation.tagValue().equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown gateway operation: " + value))));
+        return operations;
+    }
+
+    private static <T> T property(Environment environment, String prefix, String override, String name,
+                                  Class<T> type, T defaultValue) {
+        return environment.getProperty(override + name, type,
+            environment.getProperty(prefix + name, type, defaultValue));
+    }
+}
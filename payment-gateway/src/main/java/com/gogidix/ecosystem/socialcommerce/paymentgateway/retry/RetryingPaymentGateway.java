@@ -0,0 +1,169 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.retry;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics.GatewayOperation;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Retrying Payment Gateway
+ *
+ * Decorates a {@link PaymentGateway} so that transient failures are retried
+ * under its gateway's {@link RetryPolicy}:
+ * - Status reads and availability checks are idempotent and always eligible
+ * - Payments, refunds and payouts are eligible only when the request carries
+ *   an idempotency key and the gateway forwards that key to the provider, so
+ *   a retry of a write that did reach the provider cannot charge twice
+ * - Captures and card tokenisation carry no key and are never retried
+ * - Webhook handling and local metadata lookups pass straight through
+ *
+ * Backoff runs on the calling thread; an interrupt stops retrying and the
+ * last failure is thrown.
+ */
+public class RetryingPaymentGateway implements PaymentGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryingPaymentGateway.class);
+
+    /**
+     * Waits out a backoff; replaced in tests
+     */
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    private final PaymentGateway delegate;
+    private final RetryPolicy policy;
+    private final Sleeper sleeper;
+
+    RetryingPaymentGateway(PaymentGateway delegate, RetryPolicy policy) {
+        this(delegate, policy, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    RetryingPaymentGateway(PaymentGateway delegate, RetryPolicy policy, Sleeper sleeper) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * The undecorated gateway
+     */
+    public PaymentGateway getDelegate() {
+        return delegate;
+    }
+
+    public RetryPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public PaymentResponse processPayment(PaymentRequest request) {
+        boolean retryable = request != null
+            && policy.allowsWrite(GatewayOperation.PROCESS_PAYMENT, request.getIdempotencyKey());
+        return call(GatewayOperation.PROCESS_PAYMENT, retryable, () -> delegate.processPayment(request));
+    }
+
+    @Override
+    public RefundResponse refundPayment(RefundRequest request) {
+        boolean retryable = request != null
+            && policy.allowsWrite(GatewayOperation.REFUND, request.getIdempotencyKey());
+        return call(GatewayOperation.REFUND, retryable, () -> delegate.refundPayment(request));
+    }
+
+    @Override
+    public CaptureResponse capturePayment(String transactionId, Double amount) {
+        return call(GatewayOperation.CAPTURE, false, () -> delegate.capturePayment(transactionId, amount));
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return delegate.verifyWebhookSignature(payload, signature);
+    }
+
+    @Override
+    public WebhookResponse processWebhook(String payload) {
+        return delegate.processWebhook(payload);
+    }
+
+    @Override
+    public PaymentStatus getPaymentStatus(String transactionId) {
+        return call(GatewayOperation.PAYMENT_STATUS, true, () -> delegate.getPaymentStatus(transactionId));
+    }
+
+    @Override
+    public TokenResponse createPaymentToken(CardDetails cardDetails) {
+        return call(GatewayOperation.CREATE_TOKEN, false, () -> delegate.createPaymentToken(cardDetails));
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Set<String> getSupportedPaymentMethods() {
+        return delegate.getSupportedPaymentMethods();
+    }
+
+    @Override
+    public Set<String> getSupportedCurrencies() {
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return call(GatewayOperation.AVAILABILITY, true, delegate::isAvailable);
+    }
+
+    @Override
+    public PayoutResponse initiatePayout(PayoutRequest request) {
+        boolean retryable = request != null
+            && policy.allowsWrite(GatewayOperation.PAYOUT, request.getIdempotencyKey());
+        return call(GatewayOperation.PAYOUT, retryable, () -> delegate.initiatePayout(request));
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    /**
+     * Run a remote call, retrying transient failures while policy allows.
+     * Every call counts towards the retry budget, retryable or not.
+     */
+    private <T> T call(GatewayOperation operation, boolean retryable, Supplier<T> remote) {
+        policy.onCall();
+        if (!retryable) {
+            return remote.get();
+        }
+
+        long backoffNanos = 0;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return remote.get();
+            } catch (RuntimeException e) {
+                if (!policy.shouldRetry(attempt, e)) {
+                    throw e;
+                }
+                backoffNanos = policy.nextBackoffNanos(backoffNanos);
+                logger.atDebug()
+                    .addKeyValue("gateway", getName())
+                    .addKeyValue("operation", operation.tagValue())
+                    .addKeyValue("attempt", attempt + 1)
+                    .addKeyValue("backoffMs", TimeUnit.NANOSECONDS.toMillis(backoffNanos))
+                    .addKeyValue("error", e.getClass().getSimpleName())
+                    .log("Retrying payment gateway call");
+                try {
+                    sleeper.sleep(backoffNanos);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.PermissionEvaluator;
 import org.springframework.security.core.Authentication;
@@ -8,7 +10,6 @@ import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.logging.Logger;
 
 /**
  * Custom Permission Evaluator for RBAC Implementation
@@ -22,7 +23,7 @@ import java.util.logging.Logger;
 @Component
 public class CustomPermissionEvaluator implements PermissionEvaluator {
     
-    private static final Logger logger = Logger.getLogger(CustomPermissionEvaluator.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(CustomPermissionEvaluator.class);
     
     @Autowired
     private PermissionService permissionService;
@@ -36,7 +37,7 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
     @Override
     public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
         if (authentication == null || !authentication.isAuthenticated()) {
-            logger.warning("Permission check failed: User not authenticated");
+            logger.warn("Permission check failed: User not authenticated");
             return false;
         }
         
@@ -45,8 +46,8 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
         
         boolean hasPermission = evaluatePermission(authentication, permissionStr, null, null);
         
-        logger.info(String.format("Permission check for user '%s', permission '%s': %s", 
-            username, permissionStr, hasPermission ? "GRANTED" : "DENIED"));
+        logger.info("Permission check for user '{}', permission '{}': {}",
+            username, permissionStr, hasPermission ? "GRANTED" : "DENIED");
             
         return hasPermission;
     }
@@ -57,7 +58,7 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
     @Override
     public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
         if (authentication == null || !authentication.isAuthenticated()) {
-            logger.warning("Permission check failed: User not authenticated");
+            logger.warn("Permission check failed: User not authenticated");
             return false;
         }
         
@@ -73,8 +74,8 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
             hasPermission = evaluateResourceAccess(authentication, resource, resourceId);
         }
         
-        logger.info(String.format("Permission check for user '%s', resource '%s', action '%s', id '%s': %s", 
-            username, resource, action, resourceId, hasPermission ? "GRANTED" : "DENIED"));
+        logger.info("Permission check for user '{}', resource '{}', action '{}', id '{}': {}",
+            username, resource, action, resourceId, hasPermission ? "GRANTED" : "DENIED");
             
         return hasPermission;
     }
@@ -89,7 +90,7 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
             
             // Check for super admin role (bypass all checks)
             if (hasRole(authorities, "SUPER_ADMIN")) {
-                logger.fine("Super admin access granted for user: " + username);
+                logger.debug("Super admin access granted for user: {}", username);
                 return true;
             }
             
@@ -130,7 +131,7 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
             return false;
             
         } catch (Exception e) {
-            logger.severe("Error evaluating permission: " + e.getMessage());
+            logger.error("Error evaluating permission: {}", e.getMessage());
             return false;
         }
     }
@@ -221,7 +222,7 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
             return true; // Default allow if no specific restrictions
             
         } catch (Exception e) {
-            logger.severe("Error evaluating resource access: " + e.getMessage());
+            logger.error("Error evaluating resource access: {}", e.getMessage());
             return false;
         }
     }
@@ -1,12 +1,13 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.util.Map;
 import java.util.HashMap;
 import java.util.regex.Pattern;
-import java.util.logging.Logger;
 
 /**
  * Input Sanitization Service
@@ -20,7 +21,7 @@ import java.util.logging.Logger;
 @Component
 public class InputSanitizer {
     
-    private static final Logger logger = Logger.getLogger(InputSanitizer.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(InputSanitizer.class);
     
     // SQL injection patterns to detect and block
     private static final Pattern[] SQL_INJECTION_PATTERNS = {
@@ -86,7 +87,7 @@ public class InputSanitizer {
         
         for (Pattern pattern : SQL_INJECTION_PATTERNS) {
             if (pattern.matcher(normalized).matches()) {
-                logger.warning("SQL injection attempt detected: " + sanitizeForLogging(input));
+                logger.warn("SQL injection attempt detected: {}", sanitizeForLogging(input));
                 return true;
             }
         }
@@ -106,7 +107,7 @@ public class InputSanitizer {
         
         for (Pattern pattern : XSS_PATTERNS) {
             if (pattern.matcher(normalized).matches()) {
-                logger.warning("XSS attempt detected: " + sanitizeForLogging(input));
+                logger.warn("XSS attempt detected: {}", sanitizeForLogging(input));
                 return true;
             }
         }
@@ -124,7 +125,7 @@ public class InputSanitizer {
         
         for (Pattern pattern : PATH_TRAVERSAL_PATTERNS) {
             if (pattern.matcher(input).matches()) {
-                logger.warning("Path traversal attempt detected: " + sanitizeForLogging(input));
+                logger.warn("Path traversal attempt detected: {}", sanitizeForLogging(input));
                 return true;
             }
         }
@@ -166,7 +167,7 @@ public class InputSanitizer {
         
         // Check size limit
         if (metadata.size() > 10) {
-            logger.warning("Metadata size exceeds limit: " + metadata.size());
+            logger.warn("Metadata size exceeds limit: {}", metadata.size());
             return false;
         }
         
@@ -177,23 +178,23 @@ public class InputSanitizer {
             
             // Validate key
             if (!StringUtils.hasText(key) || key.length() > 50) {
-                logger.warning("Invalid metadata key: " + sanitizeForLogging(key));
+                logger.warn("Invalid metadata key: {}", sanitizeForLogging(key));
                 return false;
             }
             
             if (!isValidInput(key)) {
-                logger.warning("Malicious metadata key detected: " + sanitizeForLogging(key));
+                logger.warn("Malicious metadata key detected: {}", sanitizeForLogging(key));
                 return false;
             }
             
             // Validate value
             if (!StringUtils.hasText(value) || value.length() > 200) {
-                logger.warning("Invalid metadata value for key " + sanitizeForLogging(key) + ": " + sanitizeForLogging(value));
+                logger.warn("Invalid metadata value for key {}: {}", sanitizeForLogging(key), sanitizeForLogging(value));
                 return false;
             }
             
             if (!isValidInput(value)) {
-                logger.warning("Malicious metadata value detected for key " + sanitizeForLogging(key) + ": " + sanitizeForLogging(value));
+                logger.warn("Malicious metadata value detected for key {}: {}", sanitizeForLogging(key), sanitizeForLogging(value));
                 return false;
             }
         }
@@ -238,7 +239,7 @@ public class InputSanitizer {
         
         // Basic validation: only digits and reasonable length
         if (!normalized.matches("\\d{7,15}")) {
-            logger.warning("Invalid phone number format: " + sanitizeForLogging(phoneNumber));
+            logger.warn("Invalid phone number format: {}", sanitizeForLogging(phoneNumber));
             return false;
         }
         
@@ -255,13 +256,13 @@ public class InputSanitizer {
         
         // Check length
         if (name.length() < 2 || name.length() > 100) {
-            logger.warning("Invalid customer name length: " + sanitizeForLogging(name));
+            logger.warn("Invalid customer name length: {}", sanitizeForLogging(name));
             return false;
         }
         
         // Allow only letters, spaces, and common name characters (including accented)
         if (!name.matches("^[a-zA-ZÀ-ÿĀ-žĂ-ğ\\s'\\-\\.]+$")) {
-            logger.warning("Invalid customer name characters: " + sanitizeForLogging(name));
+            logger.warn("Invalid customer name characters: {}", sanitizeForLogging(name));
             return false;
         }
         
@@ -278,7 +279,7 @@ public class InputSanitizer {
         
         // Must be 2 or 3 uppercase letters
         if (!countryCode.matches("[A-Z]{2,3}")) {
-            logger.warning("Invalid country code format: " + sanitizeForLogging(countryCode));
+            logger.warn("Invalid country code format: {}", sanitizeForLogging(countryCode));
             return false;
         }
         
@@ -317,13 +318,13 @@ public class InputSanitizer {
         
         // Check for malicious patterns
         if (!isValidInput(component)) {
-            logger.warning("Invalid address " + fieldName + ": " + sanitizeForLogging(component));
+            logger.warn("Invalid address {}: {}", fieldName, sanitizeForLogging(component));
             return false;
         }
         
         // Allow address-appropriate characters
         if (!component.matches("^[\\p{L}\\p{N}\\s'\\-\\.\\,\\#\\/]+$")) {
-            logger.warning("Invalid characters in address " + fieldName + ": " + sanitizeForLogging(component));
+            logger.warn("Invalid characters in address {}: {}", fieldName, sanitizeForLogging(component));
             return false;
         }
         
@@ -2,6 +2,10 @@ package com.gogidix.ecosystem.socialcommerce.paymentgateway.security;
 
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud.VelocityDecision;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud.VelocityEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -11,7 +15,6 @@ import org.springframework.stereotype.Service;
 import java.util.Collection;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.logging.Logger;
 
 /**
  * Payment Security Service for RBAC Implementation
@@ -25,7 +28,7 @@ import java.util.logging.Logger;
 @Service("paymentSecurityService")
 public class PaymentSecurityService {
     
-    private static final Logger logger = Logger.getLogger(PaymentSecurityService.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSecurityService.class);
     
     @Autowired
     private PermissionService permissionService;
@@ -33,6 +36,9 @@ public class PaymentSecurityService {
     @Autowired
     private RoleHierarchyService roleHierarchyService;
     
+    @Autowired(required = false)
+    private VelocityEngine velocityEngine;
+    
     // Payment amount limits by role
     private static final Map<String, Double> PAYMENT_LIMITS = new HashMap<String, Double>() {{
         put("VENDOR", 10000.0);           // $10,000 limit for vendors
@@ -66,7 +72,7 @@ public class PaymentSecurityService {
      */
     public boolean canProcessPayment(Authentication auth, PaymentRequest request) {
         if (auth == null || !auth.isAuthenticated() || request == null) {
-            logger.warning("Payment authorization failed: Invalid authentication or request");
+            logger.warn("Payment authorization failed: Invalid authentication or request");
             return false;
         }
         
@@ -76,31 +82,32 @@ public class PaymentSecurityService {
             
             // Check amount limits based on user role
             if (!validatePaymentAmount(authorities, request.getAmount())) {
-                logger.warning(String.format("Payment amount limit exceeded for user '%s': amount=%s", 
-                    username, request.getAmount()));
+                logger.warn("Payment amount limit exceeded for user '{}': amount={}", username, request.getAmount());
                 return false;
             }
             
             // Check domain access
             String domain = extractDomainFromOrderId(request.getOrderId());
             if (!validateDomainAccess(authorities, domain)) {
-                logger.warning(String.format("Domain access denied for user '%s', domain '%s'", 
-                    username, domain));
+                logger.warn("Domain access denied for user '{}', domain '{}'", username, domain);
                 return false;
             }
             
             // Additional business logic validation
             if (!validateBusinessRules(auth, request)) {
-                logger.warning(String.format("Business rule validation failed for user '%s'", username));
+                logger.warn("Business rule validation failed for user '{}'", username);
                 return false;
             }
             
-            logger.info(String.format("Payment authorization granted for user '%s', order '%s', amount=%s", 
-                username, request.getOrderId(), request.getAmount()));
+            logger.atInfo()
+                .addKeyValue("user", username)
+                .addKeyValue("orderId", request.getOrderId())
+                .addKeyValue("amount", request.getAmount())
+                .log("Payment authorization granted");
             return true;
             
         } catch (Exception e) {
-            logger.severe("Error in payment authorization: " + e.getMessage());
+            logger.error("Error in payment authorization: {}", e.getMessage());
             return false;
         }
     }
@@ -110,7 +117,7 @@ public class PaymentSecurityService {
      */
     public boolean canProcessPayout(Authentication auth, PayoutRequest request) {
         if (auth == null || !auth.isAuthenticated() || request == null) {
-            logger.warning("Payout authorization failed: Invalid authentication or request");
+            logger.warn("Payout authorization failed: Invalid authentication or request");
             return false;
         }
         
@@ -120,24 +127,25 @@ public class PaymentSecurityService {
             
             // Check payout amount limits based on user role
             if (!validatePayoutAmount(authorities, request.getAmount())) {
-                logger.warning(String.format("Payout amount limit exceeded for user '%s': amount=%s", 
-                    username, request.getAmount()));
+                logger.warn("Payout amount limit exceeded for user '{}': amount={}", username, request.getAmount());
                 return false;
             }
             
             // Check if user can initiate payouts for specific vendor
             if (!validateVendorAccess(username, request.getVendorId())) {
-                logger.warning(String.format("Vendor access denied for user '%s', vendor '%s'", 
-                    username, request.getVendorId()));
+                logger.warn("Vendor access denied for user '{}', vendor '{}'", username, request.getVendorId());
                 return false;
             }
             
-            logger.info(String.format("Payout authorization granted for user '%s', vendor '%s', amount=%s", 
-                username, request.getVendorId(), request.getAmount()));
+            logger.atInfo()
+                .addKeyValue("user", username)
+                .addKeyValue("vendorId", request.getVendorId())
+                .addKeyValue("amount", request.getAmount())
+                .log("Payout authorization granted");
             return true;
             
         } catch (Exception e) {
-            logger.severe("Error in payout authorization: " + e.getMessage());
+            logger.error("Error in payout authorization: {}", e.getMessage());
             return false;
         }
     }
@@ -170,7 +178,7 @@ public class PaymentSecurityService {
                    hasRole(authorities, domain + "_MANAGER", domain + "_ADMIN");
                    
         } catch (Exception e) {
-            logger.severe("Error checking refund authorization: " + e.getMessage());
+            logger.error("Error checking refund authorization: {}", e.getMessage());
             return false;
         }
     }
@@ -200,7 +208,7 @@ public class PaymentSecurityService {
             return false;
             
         } catch (Exception e) {
-            logger.severe("Error checking capture authorization: " + e.getMessage());
+            logger.error("Error checking capture authorization: {}", e.getMessage());
             return false;
         }
     }
@@ -234,11 +242,23 @@ public class PaymentSecurityService {
             String username = auth.getName();
             return permissionService.isPaymentOwner(username, transactionId);
         } catch (Exception e) {
-            logger.severe("Error checking payment ownership: " + e.getMessage());
+            logger.error("Error checking payment ownership: {}", e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Check if user can list the payment history of a customer or vendor
+     * Their own history, or anyone's with a role that can view all payments
+     */
+    public boolean canViewPaymentHistory(Authentication auth, String customerId) {
+        if (auth == null || !auth.isAuthenticated()) {
+            return false;
+        }
+        
+        return customerId == null || customerId.equals(auth.getName()) || canViewAllPayments(auth);
+    }
+    
     /**
      * Validate payment amount against user role limits
      */
@@ -354,7 +374,7 @@ public class PaymentSecurityService {
                    permissionService.hasWarehouseAccess(username, vendorId) ||
                    permissionService.hasCourierAccess(username, vendorId);
         } catch (Exception e) {
-            logger.severe("Error validating vendor access: " + e.getMessage());
+            logger.error("Error validating vendor access: {}", e.getMessage());
             return false;
         }
     }
@@ -363,11 +383,24 @@ public class PaymentSecurityService {
      * Validate business rules for payment
      */
     private boolean validateBusinessRules(Authentication auth, PaymentRequest request) {
-        // Add custom business logic validation here
+        // Fraud velocity: same card, customer, IP or device too often, counted in memory
+        if (velocityEngine != null) {
+            VelocityDecision velocity = velocityEngine.check(request);
+            if (!velocity.allowed()) {
+                logger.atWarn()
+                    .addKeyValue("user", auth.getName())
+                    .addKeyValue("orderId", request.getOrderId())
+                    .addKeyValue("rule", velocity.rule().name())
+                    .addKeyValue("count", velocity.count())
+                    .log("Payment velocity limit exceeded");
+                return false;
+            }
+        }
+        
+        // Add further business logic validation here
         // For example:
         // - Check if customer has sufficient credit limit
         // - Validate payment method for the region
-        // - Check for fraud detection flags
         // - Validate currency and amount combinations
         
         return true; // Default allow if no specific business rules fail
@@ -1,6 +1,7 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.security;
 
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.config.SecurityHeadersConfig;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +15,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.web.AuthenticationEntryPoint;
@@ -46,6 +48,9 @@ public class UnifiedSecurityConfig {
     @Autowired
     private JwtDecoder jwtDecoder;
     
+    @Autowired(required = false)
+    private RateLimitFilter rateLimitFilter;
+    
     /**
      * Main security filter chain with domain-aware authorization
      */
@@ -60,6 +65,7 @@ public class UnifiedSecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll() // Probes
                 .requestMatchers("/api/v1/payments/methods/**").permitAll() // Payment methods info
                 
                 // Admin endpoints - require high-level privileges
@@ -83,6 +89,11 @@ public class UnifiedSecurityConfig {
                 .authenticationEntryPoint(customAuthenticationEntryPoint())
             );
             
+        // Per-merchant, per-customer and per-client limits need the authenticated caller
+        if (rateLimitFilter != null) {
+            http.addFilterAfter(rateLimitFilter, BearerTokenAuthenticationFilter.class);
+        }
+            
         // Apply comprehensive security headers
         SecurityHeadersConfig.configureSecurityHeaders(http);
             
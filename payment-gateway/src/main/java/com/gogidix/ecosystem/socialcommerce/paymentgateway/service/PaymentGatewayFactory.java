@@ -1,11 +1,17 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.service;
 
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.bulkhead.GatewayBulkheads;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.UnsupportedGatewayException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.hedging.GatewayHedging;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics.GatewayMetrics;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.retry.GatewayRetries;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulatedPaymentGateway;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 /**
@@ -13,6 +19,12 @@ import java.util.logging.Logger;
  * 
  * Factory pattern implementation for managing multiple payment gateways
  * Provides centralized gateway creation and management
+ * Gateways are wrapped with latency/SLO instrumentation when metrics are available
+ * Each gateway gets its own adaptive concurrency limit (bulkhead) inside the instrumentation,
+ * so rejected calls show up in its error and SLO metrics
+ * Transient failures are retried just outside the bulkhead, so every retry takes a slot too
+ * Status reads are hedged outside the retries, so a hedge request also takes a bulkhead slot
+ * Under the simulation profile, the simulated gateway is added and may stand in for real ones
  */
 @Component
 public class PaymentGatewayFactory {
@@ -27,13 +39,37 @@ public class PaymentGatewayFactory {
     @Autowired
     private PaystackPaymentService paystackPaymentService;
     
+    @Autowired(required = false)
+    private GatewayMetrics gatewayMetrics;
+    
+    @Autowired(required = false)
+    private GatewayBulkheads gatewayBulkheads;
+    
+    @Autowired(required = false)
+    private GatewayRetries gatewayRetries;
+    
+    @Autowired(required = false)
+    private GatewayHedging gatewayHedging;
+    
+    @Autowired(required = false)
+    private SimulatedPaymentGateway simulatedPaymentGateway;
+    
     /**
      * Initialize gateway mappings
      */
     @Autowired
     public void initializeGateways() {
-        gateways.put(PaymentGatewayType.STRIPE, stripePaymentService);
-        gateways.put(PaymentGatewayType.PAYSTACK, paystackPaymentService);
+        gateways.put(PaymentGatewayType.STRIPE, instrument(stripePaymentService));
+        gateways.put(PaymentGatewayType.PAYSTACK, instrument(paystackPaymentService));
+        
+        if (simulatedPaymentGateway != null) {
+            PaymentGateway simulated = instrument(simulatedPaymentGateway);
+            gateways.put(PaymentGatewayType.SIMULATED, simulated);
+            for (PaymentGatewayType replaced : simulatedPaymentGateway.getReplacedGateways()) {
+                gateways.put(replaced, simulated);
+                logger.warning("Payment gateway " + replaced.name() + " replaced by simulator");
+            }
+        }
         
         logger.info("Payment gateway factory initialized with " + gateways.size() + " gateways");
     }
@@ -70,6 +106,16 @@ public class PaymentGatewayFactory {
         return gateway;
     }
     
+    /**
+     * Find a registered gateway without checking its availability
+     * 
+     * @param gatewayType Type of payment gateway
+     * @return Payment gateway implementation, empty if not registered
+     */
+    public Optional<PaymentGateway> findGateway(PaymentGatewayType gatewayType) {
+        return Optional.ofNullable(gateways.get(gatewayType));
+    }
+    
     /**
      * Get gateway by name
      * 
@@ -111,4 +157,11 @@ public class PaymentGatewayFactory {
         
         return availability;
     }
+    
+    private PaymentGateway instrument(PaymentGateway gateway) {
+        PaymentGateway decorated = gatewayBulkheads != null ? gatewayBulkheads.protect(gateway) : gateway;
+        decorated = gatewayRetries != null ? gatewayRetries.retry(decorated) : decorated;
+        decorated = gatewayHedging != null ? gatewayHedging.hedge(decorated) : decorated;
+        return gatewayMetrics != null ? gatewayMetrics.instrument(decorated) : decorated;
+    }
 }
\ No newline at end of file
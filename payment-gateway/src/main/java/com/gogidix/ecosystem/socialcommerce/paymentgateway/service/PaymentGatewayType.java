@@ -9,7 +9,8 @@ public enum PaymentGatewayType {
     STRIPE("Stripe", "Europe & Rest of World"),
     PAYSTACK("Paystack", "Africa"),
     PAYPAL("PayPal", "Global - Disabled"),
-    SQUARE("Square", "Future Implementation");
+    SQUARE("Square", "Future Implementation"),
+    SIMULATED("Simulator", "Local load testing only");
     
     private final String displayName;
     private final String region;
@@ -3,18 +3,21 @@ package com.gogidix.ecosystem.socialcommerce.paymentgateway.service;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.config.PaymentSecurityConfig;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.*;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.InputSanitizer;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.socialcommerce.shared.context.RequestContext;
+import com.gogidix.socialcommerce.shared.currency.CurrencyCapability;
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.logging.Logger;
@@ -25,8 +28,9 @@ import java.util.logging.Logger;
  * SECURITY IMPLEMENTATION: Paystack payment processing for Africa
  * - Secure API key management
  * - Support for African payment methods (Mobile Money, Bank Transfer, USSD)
- * - Multi-currency support (NGN, GHS, ZAR, KES, UGX, USD)
+ * - Multi-currency support (NGN, GHS, ZAR, KES, USD)
  * - Webhook signature validation
+ * - Typed request/response handling through {@link PaystackClient}
  */
 @Service
 public class PaystackPaymentService implements PaymentGateway {
@@ -37,20 +41,13 @@ public class PaystackPaymentService implements PaymentGateway {
     private PaymentSecurityConfig securityConfig;
     
     @Autowired
-    private RestTemplate restTemplate;
-    
-    @Autowired
-    private ObjectMapper objectMapper;
+    private PaystackClient paystackClient;
     
     @Autowired
     private InputSanitizer inputSanitizer;
     
-    // Paystack API endpoints
-    private static final String INITIALIZE_TRANSACTION_URL = "/transaction/initialize";
-    private static final String VERIFY_TRANSACTION_URL = "/transaction/verify/";
-    private static final String REFUND_URL = "/refund";
-    private static final String TRANSFER_URL = "/transfer";
-    private static final String CHARGE_AUTHORIZATION_URL = "/transaction/charge_authorization";
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
     
     // Supported payment methods
     private static final Set<String> SUPPORTED_PAYMENT_METHODS = Set.of(
@@ -63,28 +60,17 @@ public class PaystackPaymentService implements PaymentGateway {
         "eft"
     );
     
-    // Supported currencies
-    private static final Set<String> SUPPORTED_CURRENCIES = Set.of(
-        "NGN", // Nigerian Naira
-        "GHS", // Ghanaian Cedi
-        "ZAR", // South African Rand
-        "KES", // Kenyan Shilling
-        "UGX", // Ugandan Shilling
-        "USD"  // US Dollar
-    );
+    // Supported currencies (NGN, GHS, ZAR, KES, USD) come from the shared ISO 4217 registry
+    private static final CurrencyRegistry CURRENCIES = CurrencyRegistry.getInstance();
     
     @Override
     public PaymentResponse processPayment(PaymentRequest request) {
         try {
             // Validate request
             validatePaymentRequest(request);
-            
-            // Prepare Paystack request
-            Map<String, Object> paystackRequest = new HashMap<>();
-            paystackRequest.put("amount", convertAmountToKobo(request.getAmount(), request.getCurrency()));
-            paystackRequest.put("currency", request.getCurrency());
-            paystackRequest.put("email", request.getCustomerEmail());
-            paystackRequest.put("reference", generateReference(request.getOrderId()));
+            String reference = request.getIdempotencyKey() != null
+                ? "PAYSTACK_" + request.getIdempotencyKey()
+                : generateReference(request.getOrderId());
             
             // Add metadata
             Map<String, String> metadata = new HashMap<>();
@@ -92,41 +78,51 @@ public class PaystackPaymentService implements PaymentGateway {
             metadata.put("customer_id", request.getCustomerId());
             metadata.put("region", "AFRICA");
             metadata.put("description", request.getDescription());
-            paystackRequest.put("metadata", metadata);
-            
-            // Add payment channels based on request
-            if (request.getPaymentMethod() != null) {
-                List<String> channels = getPaymentChannels(request.getPaymentMethod());
-                paystackRequest.put("channels", channels);
+            if (RequestContext.correlationId() != null) {
+                metadata.put("correlation_id", RequestContext.correlationId());
             }
             
-            // Make API call
-            HttpHeaders headers = createAuthHeaders();
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(paystackRequest, headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                securityConfig.getPaystackBaseUrl() + INITIALIZE_TRANSACTION_URL,
-                HttpMethod.POST,
-                entity,
-                Map.class
-            );
+            // Add payment channels based on request
+            List<String> channels = request.getPaymentMethod() != null
+                ? getPaymentChannels(request.getPaymentMethod())
+                : null;
             
-            Map<String, Object> responseData = (Map<String, Object>) response.getBody().get("data");
+            // A repeated idempotency key reuses its reference, which Paystack rejects as a
+            // duplicate instead of opening a second transaction
+            InitializeTransactionData data;
+            try {
+                data = paystackClient.initializeTransaction(new InitializeTransactionRequest(
+                    convertAmountToSmallestUnit(request.getAmount(), request.getCurrency()),
+                    request.getCurrency(),
+                    request.getCustomerEmail(),
+                    reference,
+                    metadata,
+                    channels
+                ));
+            } catch (HttpClientErrorException e) {
+                if (request.getIdempotencyKey() == null || !PaystackClient.isDuplicateReference(e)) {
+                    throw e;
+                }
+                return existingPayment(reference, request);
+            }
             
-            logger.info("Paystack transaction initialized: " + inputSanitizer.sanitizeForLogging((String) responseData.get("reference")));
+            logger.info("Paystack transaction initialized: " + inputSanitizer.sanitizeForLogging(data.reference()));
             
             return PaymentResponse.builder()
-                .transactionId((String) responseData.get("reference"))
+                .transactionId(data.reference())
                 .status("PENDING")
                 .amount(request.getAmount())
                 .currency(request.getCurrency())
-                .gatewayResponse((String) responseData.get("authorization_url"))
+                .gatewayResponse(data.authorizationUrl())
                 .message("Payment initialized successfully")
                 .build();
                 
         } catch (HttpClientErrorException e) {
             logger.severe("Paystack payment error: " + inputSanitizer.sanitizeForLogging(e.getMessage()));
             throw new PaymentProcessingException("Paystack payment failed: " + e.getMessage(), e);
+        } catch (PaymentProcessingException e) {
+            // Already carries its error code, e.g. a reused idempotency key
+            throw e;
         } catch (Exception e) {
             logger.severe("Unexpected payment error: " + inputSanitizer.sanitizeForLogging(e.getMessage()));
             throw new PaymentProcessingException("Payment processing failed", e);
@@ -136,32 +132,22 @@ public class PaystackPaymentService implements PaymentGateway {
     @Override
     public RefundResponse refundPayment(RefundRequest request) {
         try {
-            Map<String, Object> paystackRequest = new HashMap<>();
-            paystackRequest.put("transaction", request.getTransactionId());
-            paystackRequest.put("amount", convertAmountToKobo(request.getAmount(), request.getCurrency()));
-            paystackRequest.put("currency", request.getCurrency());
-            paystackRequest.put("merchant_note", request.getReason());
-            
-            HttpHeaders headers = createAuthHeaders();
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(paystackRequest, headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                securityConfig.getPaystackBaseUrl() + REFUND_URL,
-                HttpMethod.POST,
-                entity,
-                Map.class
-            );
-            
-            Map<String, Object> responseData = (Map<String, Object>) response.getBody().get("data");
+            RefundData data = paystackClient.createRefund(new CreateRefundRequest(
+                request.getTransactionId(),
+                convertAmountToSmallestUnit(request.getAmount(), request.getCurrency()),
+                request.getCurrency(),
+                request.getReason()
+            ));
             
-            logger.info("Paystack refund initiated: " + inputSanitizer.sanitizeForLogging(String.valueOf(responseData.get("id"))));
+            String refundId = String.valueOf(data.id());
+            logger.info("Paystack refund initiated: " + inputSanitizer.sanitizeForLogging(refundId));
             
             return RefundResponse.builder()
-                .refundId(String.valueOf(responseData.get("id")))
+                .refundId(refundId)
                 .transactionId(request.getTransactionId())
                 .amount(request.getAmount())
                 .currency(request.getCurrency())
-                .status((String) responseData.get("status"))
+                .status(data.status())
                 .message("Refund initiated successfully")
                 .build();
                 
@@ -215,32 +201,33 @@ public class PaystackPaymentService implements PaymentGateway {
     @Override
     public WebhookResponse processWebhook(String payload) {
         try {
-            Map<String, Object> event = objectMapper.readValue(payload, Map.class);
-            String eventType = (String) event.get("event");
+            PaystackWebhookEvent event = paystackClient.parseWebhookEvent(payload);
+            String eventType = event.event();
+            PaystackWebhookEvent.Data data = event.data();
             
             // Handle different event types
             switch (eventType) {
                 case "charge.success":
-                    handleChargeSuccess(event);
+                    handleChargeSuccess(data);
                     break;
                 case "charge.failed":
-                    handleChargeFailed(event);
+                    handleChargeFailed(data);
                     break;
                 case "transfer.success":
-                    handleTransferSuccess(event);
+                    handleTransferSuccess(data);
                     break;
                 case "transfer.failed":
-                    handleTransferFailed(event);
+                    handleTransferFailed(data);
                     break;
                 case "refund.processed":
-                    handleRefundProcessed(event);
+                    handleRefundProcessed(data);
                     break;
                 default:
                     logger.info("Unhandled Paystack event type: " + eventType);
             }
             
             return WebhookResponse.builder()
-                .eventId(String.valueOf(event.get("id")))
+                .eventId(data != null ? String.valueOf(data.id()) : null)
                 .eventType(eventType)
                 .processed(true)
                 .message("Webhook processed successfully")
@@ -255,26 +242,14 @@ public class PaystackPaymentService implements PaymentGateway {
     @Override
     public PaymentStatus getPaymentStatus(String transactionId) {
         try {
-            HttpHeaders headers = createAuthHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                securityConfig.getPaystackBaseUrl() + VERIFY_TRANSACTION_URL + transactionId,
-                HttpMethod.GET,
-                entity,
-                Map.class
-            );
-            
-            Map<String, Object> responseData = (Map<String, Object>) response.getBody().get("data");
+            TransactionData data = paystackClient.verifyTransaction(transactionId);
             
             return PaymentStatus.builder()
                 .transactionId(transactionId)
-                .status(mapPaystackStatus((String) responseData.get("status")))
-                .amount(convertAmountFromKobo(
-                    ((Number) responseData.get("amount")).longValue(),
-                    (String) responseData.get("currency")
-                ))
-                .currency((String) responseData.get("currency"))
+                .status(mapPaystackStatus(data.status()))
+                .gatewayStatus(data.status())
+                .amount(convertAmountFromSmallestUnit(data.amount(), data.currency()))
+                .currency(data.currency())
                 .lastUpdated(new Date())
                 .build();
                 
@@ -296,39 +271,41 @@ public class PaystackPaymentService implements PaymentGateway {
     @Override
     public PayoutResponse initiatePayout(PayoutRequest request) {
         try {
-            Map<String, Object> paystackRequest = new HashMap<>();
-            paystackRequest.put("source", "balance");
-            paystackRequest.put("amount", convertAmountToKobo(request.getAmount(), request.getCurrency()));
-            paystackRequest.put("currency", request.getCurrency());
-            paystackRequest.put("reason", request.getDescription());
-            
             // Recipient details
-            Map<String, String> recipient = new HashMap<>();
-            recipient.put("type", "bank_account");
-            recipient.put("account_number", request.getAccountNumber());
-            recipient.put("bank_code", request.getBankCode());
-            recipient.put("name", request.getAccountName());
-            paystackRequest.put("recipient", recipient);
-            
-            HttpHeaders headers = createAuthHeaders();
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(paystackRequest, headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                securityConfig.getPaystackBaseUrl() + TRANSFER_URL,
-                HttpMethod.POST,
-                entity,
-                Map.class
+            InitiateTransferRequest.Recipient recipient = new InitiateTransferRequest.Recipient(
+                "bank_account",
+                request.getAccountNumber(),
+                request.getBankCode(),
+                request.getAccountName()
             );
             
-            Map<String, Object> responseData = (Map<String, Object>) response.getBody().get("data");
+            String reference = request.getIdempotencyKey() != null
+                ? transferReference(request.getIdempotencyKey())
+                : null;
+            TransferData data;
+            try {
+                data = paystackClient.initiateTransfer(new InitiateTransferRequest(
+                    "balance",
+                    convertAmountToSmallestUnit(request.getAmount(), request.getCurrency()),
+                    request.getCurrency(),
+                    request.getDescription(),
+                    recipient,
+                    reference
+                ));
+            } catch (HttpClientErrorException e) {
+                if (reference == null || !PaystackClient.isDuplicateReference(e)) {
+                    throw e;
+                }
+                return existingTransfer(reference, request);
+            }
             
-            logger.info("Paystack transfer initiated: " + inputSanitizer.sanitizeForLogging((String) responseData.get("transfer_code")));
+            logger.info("Paystack transfer initiated: " + inputSanitizer.sanitizeForLogging(data.transferCode()));
             
             return PayoutResponse.builder()
-                .payoutId((String) responseData.get("transfer_code"))
+                .payoutId(data.transferCode())
                 .amount(request.getAmount())
                 .currency(request.getCurrency())
-                .status((String) responseData.get("status"))
+                .status(data.status())
                 .estimatedArrival(new Date())
                 .message("Transfer initiated successfully")
                 .build();
@@ -351,24 +328,15 @@ public class PaystackPaymentService implements PaymentGateway {
     
     @Override
     public Set<String> getSupportedCurrencies() {
-        return new HashSet<>(SUPPORTED_CURRENCIES);
+        return CURRENCIES.codesWith(CurrencyCapability.PAYSTACK);
     }
     
     @Override
     public boolean isAvailable() {
         try {
-            // Check Paystack API connectivity
-            HttpHeaders headers = createAuthHeaders();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                securityConfig.getPaystackBaseUrl() + "/bank",
-                HttpMethod.GET,
-                entity,
-                Map.class
-            );
-            
-            return response.getStatusCode() == HttpStatus.OK;
+            // Check Paystack API connectivity (bank list is streamed, not bound)
+            paystackClient.countBanks();
+            return true;
             
         } catch (Exception e) {
             logger.warning("Paystack availability check failed: " + inputSanitizer.sanitizeForLogging(e.getMessage()));
@@ -378,11 +346,82 @@ public class PaystackPaymentService implements PaymentGateway {
     
     // Helper methods
     
-    private HttpHeaders createAuthHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(securityConfig.getPaystackSecretKey());
-        return headers;
+    /**
+     * An earlier attempt with this idempotency key already reached Paystack
+     * (e.g. its response was lost to a timeout): report that transaction's
+     * current state instead of a failure, provided it is for the same amount
+     */
+    private PaymentResponse existingPayment(String reference, PaymentRequest request) {
+        TransactionData data = paystackClient.verifyTransaction(reference);
+        logger.info("Paystack reference already initialized: " + inputSanitizer.sanitizeForLogging(reference));
+        requireSameAmount(reference, data.amount(), data.currency(), request.getAmount(), request.getCurrency());
+        
+        // Paystack reports an initialized transaction the customer has not paid yet as abandoned
+        String status = "abandoned".equalsIgnoreCase(data.status()) ? "PENDING" : mapPaystackStatus(data.status());
+        return PaymentResponse.builder()
+            .transactionId(reference)
+            .status(status)
+            .amount(convertAmountFromSmallestUnit(data.amount(), data.currency()))
+            .currency(data.currency())
+            .gatewayResponse(data.gatewayResponse())
+            .message("Payment already initialized for this idempotency key")
+            .build();
+    }
+    
+    /**
+     * A transfer with this reference was already initiated, by an earlier
+     * attempt or a payout run that is being resumed: report that transfer's
+     * outcome instead of a failure. A transfer that failed or was reversed is
+     * a terminal payout error, so it is not paid again under a new reference.
+     */
+    private PayoutResponse existingTransfer(String reference, PayoutRequest request) {
+        TransferData data = paystackClient.verifyTransfer(reference);
+        logger.info("Paystack transfer reference already used: " + inputSanitizer.sanitizeForLogging(reference));
+        requireSameAmount(reference, data.amount(), data.currency(), request.getAmount(), request.getCurrency());
+        
+        String status = data.status() != null ? data.status().toLowerCase(Locale.ROOT) : "";
+        if (status.equals("failed") || status.equals("reversed")) {
+            throw new PaymentProcessingException("Paystack transfer " + reference + " was " + status,
+                "TRANSFER_" + status.toUpperCase(Locale.ROOT), getName());
+        }
+        return PayoutResponse.builder()
+            .payoutId(data.transferCode())
+            .amount(request.getAmount())
+            .currency(request.getCurrency())
+            .status(data.status())
+            .estimatedArrival(new Date())
+            .message("Transfer already initiated for this idempotency key")
+            .build();
+    }
+    
+    /**
+     * A reused idempotency key must carry the request it was first used for;
+     * returning the stored outcome for a different amount or currency would
+     * report money that was never asked for
+     */
+    private void requireSameAmount(String reference, long storedAmount, String storedCurrency,
+                                   Double amount, String currency) {
+        if (storedCurrency == null || !storedCurrency.equalsIgnoreCase(currency)
+                || storedAmount != convertAmountToSmallestUnit(amount, currency)) {
+            throw new PaymentProcessingException("Paystack reference " + reference + " was used for "
+                + storedAmount + " minor units of " + storedCurrency + ", not " + amount + " " + currency,
+                "IDEMPOTENCY_KEY_MISMATCH", getName());
+        }
+    }
+    
+    /**
+     * Paystack transfer references are lowercase, so the key is hashed rather
+     * than lower-cased: keys differing only in case stay separate transfers.
+     * 160 bits of SHA-256 in hex, 44 characters with the prefix.
+     */
+    static String transferReference(String idempotencyKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(idempotencyKey.getBytes(StandardCharsets.UTF_8));
+            return "trf_" + HexFormat.of().formatHex(digest, 0, 20);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
     
     private void validatePaymentRequest(PaymentRequest request) {
@@ -396,24 +435,25 @@ public class PaystackPaymentService implements PaymentGateway {
             );
         }
         
-        if (!SUPPORTED_CURRENCIES.contains(request.getCurrency().toUpperCase())) {
+        if (!CURRENCIES.supports(request.getCurrency(), CurrencyCapability.PAYSTACK)) {
             throw new PaymentProcessingException(
                 "Unsupported currency for Paystack: " + request.getCurrency()
             );
         }
     }
     
-    private Long convertAmountToKobo(Double amount, String currency) {
-        // Convert to smallest currency unit (kobo for NGN, pesewas for GHS, cents for others)
-        return Math.round(amount * 100);
+    private Long convertAmountToSmallestUnit(Double amount, String currency) {
+        // ISO 4217 exponent: kobo for NGN, pesewas for GHS, cents for USD
+        return CURRENCIES.toMinorUnits(amount, currency);
     }
     
-    private Double convertAmountFromKobo(Long amount, String currency) {
-        return amount / 100.0;
+    private Double convertAmountFromSmallestUnit(Long amount, String currency) {
+        return CURRENCIES.fromMinorUnits(amount, currency);
     }
     
     private String generateReference(String orderId) {
-        return "PAYSTACK_" + orderId + "_" + System.currentTimeMillis();
+        // Unique across threads and replicas, unlike the wall clock alone
+        return "PAYSTACK_" + orderId + "_" + idGenerator.nextBase32();
     }
     
     private List<String> getPaymentChannels(String paymentMethod) {
@@ -457,28 +497,28 @@ public class PaystackPaymentService implements PaymentGateway {
         return hexString.toString();
     }
     
-    private void handleChargeSuccess(Map<String, Object> event) {
-        logger.info("Charge succeeded: " + inputSanitizer.sanitizeForLogging(String.valueOf(event.get("reference"))));
+    private void handleChargeSuccess(PaystackWebhookEvent.Data data) {
+        logger.info("Charge succeeded: " + inputSanitizer.sanitizeForLogging(data != null ? data.reference() : null));
         // Implement business logic for successful charge
     }
     
-    private void handleChargeFailed(Map<String, Object> event) {
-        logger.warning("Charge failed: " + inputSanitizer.sanitizeForLogging(String.valueOf(event.get("reference"))));
+    private void handleChargeFailed(PaystackWebhookEvent.Data data) {
+        logger.warning("Charge failed: " + inputSanitizer.sanitizeForLogging(data != null ? data.reference() : null));
         // Implement business logic for failed charge
     }
     
-    private void handleTransferSuccess(Map<String, Object> event) {
-        logger.info("Transfer succeeded: " + inputSanitizer.sanitizeForLogging(String.valueOf(event.get("transfer_code"))));
+    private void handleTransferSuccess(PaystackWebhookEvent.Data data) {
+        logger.info("Transfer succeeded: " + inputSanitizer.sanitizeForLogging(data != null ? data.transferCode() : null));
         // Implement business logic for successful transfer
     }
     
-    private void handleTransferFailed(Map<String, Object> event) {
-        logger.warning("Transfer failed: " + inputSanitizer.sanitizeForLogging(String.valueOf(event.get("transfer_code"))));
+    private void handleTransferFailed(PaystackWebhookEvent.Data data) {
+        logger.warning("Transfer failed: " + inputSanitizer.sanitizeForLogging(data != null ? data.transferCode() : null));
         // Implement business logic for failed transfer
     }
     
-    private void handleRefundProcessed(Map<String, Object> event) {
-        logger.info("Refund processed: " + inputSanitizer.sanitizeForLogging(String.valueOf(event.get("id"))));
+    private void handleRefundProcessed(PaystackWebhookEvent.Data data) {
+        logger.info("Refund processed: " + inputSanitizer.sanitizeForLogging(data != null ? String.valueOf(data.id()) : null));
         // Implement business logic for processed refund
     }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.gogidix.ecosystem.socialcommerce.paymentgateway.service;
 
+import com.gogidix.socialcommerce.shared.currency.CurrencyCapability;
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
-import java.util.logging.Logger;
 
 /**
  * Regional Payment Router
@@ -18,7 +21,7 @@ import java.util.logging.Logger;
 @Service
 public class RegionalPaymentRouter {
     
-    private static final Logger logger = Logger.getLogger(RegionalPaymentRouter.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(RegionalPaymentRouter.class);
     
     @Autowired
     private PaymentGatewayFactory paymentGatewayFactory;
@@ -81,15 +84,8 @@ public class RegionalPaymentRouter {
         "ZW"  // Zimbabwe
     );
     
-    // Supported African currencies by Paystack
-    private static final Set<String> PAYSTACK_SUPPORTED_CURRENCIES = Set.of(
-        "NGN", // Nigerian Naira
-        "GHS", // Ghanaian Cedi
-        "ZAR", // South African Rand
-        "KES", // Kenyan Shilling
-        "UGX", // Ugandan Shilling
-        "USD"  // US Dollar (for international transactions)
-    );
+    // Paystack currency support is flagged in the shared ISO 4217 registry
+    private static final CurrencyRegistry CURRENCIES = CurrencyRegistry.getInstance();
     
     /**
      * Select payment gateway based on country code
@@ -99,17 +95,17 @@ public class RegionalPaymentRouter {
      */
     public PaymentGateway selectGateway(String countryCode) {
         if (countryCode == null || countryCode.trim().isEmpty()) {
-            logger.warning("No country code provided, defaulting to Stripe");
+            logger.warn("No country code provided, defaulting to Stripe");
             return paymentGatewayFactory.getGateway(PaymentGatewayType.STRIPE);
         }
         
         String upperCountryCode = countryCode.toUpperCase().trim();
         
         if (isAfricanCountry(upperCountryCode)) {
-            logger.info("Routing payment to Paystack for African country: " + upperCountryCode);
+            logger.info("Routing payment to Paystack for African country: {}", upperCountryCode);
             return paymentGatewayFactory.getGateway(PaymentGatewayType.PAYSTACK);
         } else {
-            logger.info("Routing payment to Stripe for country: " + upperCountryCode);
+            logger.info("Routing payment to Stripe for country: {}", upperCountryCode);
             return paymentGatewayFactory.getGateway(PaymentGatewayType.STRIPE);
         }
     }
@@ -122,17 +118,17 @@ public class RegionalPaymentRouter {
      */
     public PaymentGateway selectGatewayByCurrency(String currencyCode) {
         if (currencyCode == null || currencyCode.trim().isEmpty()) {
-            logger.warning("No currency code provided, defaulting to Stripe");
+            logger.warn("No currency code provided, defaulting to Stripe");
             return paymentGatewayFactory.getGateway(PaymentGatewayType.STRIPE);
         }
         
         String upperCurrencyCode = currencyCode.toUpperCase().trim();
         
         if (isPaystackSupportedCurrency(upperCurrencyCode)) {
-            logger.info("Routing payment to Paystack for currency: " + upperCurrencyCode);
+            logger.info("Routing payment to Paystack for currency: {}", upperCurrencyCode);
             return paymentGatewayFactory.getGateway(PaymentGatewayType.PAYSTACK);
         } else {
-            logger.info("Routing payment to Stripe for currency: " + upperCurrencyCode);
+            logger.info("Routing payment to Stripe for currency: {}", upperCurrencyCode);
             return paymentGatewayFactory.getGateway(PaymentGatewayType.STRIPE);
         }
     }
@@ -154,7 +150,7 @@ public class RegionalPaymentRouter {
      * @return true if supported by Paystack
      */
     public boolean isPaystackSupportedCurrency(String currencyCode) {
-        return PAYSTACK_SUPPORTED_CURRENCIES.contains(currencyCode);
+        return CURRENCIES.supports(currencyCode, CurrencyCapability.PAYSTACK);
     }
     
     /**
@@ -213,7 +209,7 @@ public class RegionalPaymentRouter {
     public PaymentGateway routePayout(String vendorId) {
         // For now, default to Stripe for global payouts
         // In future, this could be enhanced to check vendor profile for location
-        logger.info("Routing payout to Stripe for vendor: " + vendorId);
+        logger.info("Routing payout to Stripe for vendor: {}", vendorId);
         return paymentGatewayFactory.getGateway(PaymentGatewayType.STRIPE);
     }
 }
\ No newline at end of file
@@ -3,10 +3,14 @@ package com.gogidix.ecosystem.socialcommerce.paymentgateway.service;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.config.PaymentSecurityConfig;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.socialcommerce.shared.context.RequestContext;
+import com.gogidix.socialcommerce.shared.currency.CurrencyCapability;
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.*;
+import com.stripe.net.RequestOptions;
 import com.stripe.net.Webhook;
 import com.stripe.param.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,13 +50,8 @@ public class StripePaymentService implements PaymentGateway {
         "wechat_pay"
     );
     
-    // Supported currencies (major ones)
-    private static final Set<String> SUPPORTED_CURRENCIES = Set.of(
-        "USD", "EUR", "GBP", "CAD", "AUD", "JPY", "CHF", "CNY", "SEK", "NOK",
-        "DKK", "PLN", "CZK", "HUF", "RON", "BGN", "HRK", "RUB", "TRY", "INR",
-        "IDR", "ILS", "KRW", "MXN", "MYR", "NZD", "PHP", "SGD", "THB", "ZAR",
-        "AED", "SAR", "QAR", "KWD", "BHD", "OMR"
-    );
+    // Supported currencies and minor units come from the shared ISO 4217 registry
+    private static final CurrencyRegistry CURRENCIES = CurrencyRegistry.getInstance();
     
     @Override
     public PaymentResponse processPayment(PaymentRequest request) {
@@ -69,6 +68,7 @@ public class StripePaymentService implements PaymentGateway {
                 .putMetadata("order_id", request.getOrderId())
                 .putMetadata("customer_id", request.getCustomerId())
                 .putMetadata("region", "EUROPE_REST_OF_WORLD")
+                .putAllMetadata(correlationMetadata())
                 .setAutomaticPaymentMethods(
                     PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
                         .setEnabled(true)
@@ -76,7 +76,7 @@ public class StripePaymentService implements PaymentGateway {
                 )
                 .build();
             
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+            PaymentIntent paymentIntent = PaymentIntent.create(params, idempotent(request.getIdempotencyKey()));
             
             logger.info("Stripe payment intent created: " + paymentIntent.getId());
             
@@ -103,9 +103,10 @@ public class StripePaymentService implements PaymentGateway {
                 .setAmount(convertAmountToSmallestUnit(request.getAmount(), request.getCurrency()))
                 .setReason(RefundCreateParams.Reason.REQUESTED_BY_CUSTOMER)
                 .putMetadata("refund_reason", request.getReason())
+                .putAllMetadata(correlationMetadata())
                 .build();
             
-            Refund refund = Refund.create(params);
+            Refund refund = Refund.create(params, idempotent(request.getIdempotencyKey()));
             
             logger.info("Stripe refund created: " + refund.getId());
             
@@ -270,9 +271,10 @@ public class StripePaymentService implements PaymentGateway {
                 .setDescription(request.getDescription())
                 .putMetadata("vendor_id", request.getVendorId())
                 .putMetadata("payout_type", request.getPayoutType())
+                .putAllMetadata(correlationMetadata())
                 .build();
             
-            Payout payout = Payout.create(params);
+            Payout payout = Payout.create(params, idempotent(request.getIdempotencyKey()));
             
             logger.info("Stripe payout initiated: " + payout.getId());
             
@@ -303,7 +305,7 @@ public class StripePaymentService implements PaymentGateway {
     
     @Override
     public Set<String> getSupportedCurrencies() {
-        return new HashSet<>(SUPPORTED_CURRENCIES);
+        return CURRENCIES.codesWith(CurrencyCapability.STRIPE);
     }
     
     @Override
@@ -331,33 +333,31 @@ public class StripePaymentService implements PaymentGateway {
             );
         }
         
-        if (!SUPPORTED_CURRENCIES.contains(request.getCurrency().toUpperCase())) {
+        if (!CURRENCIES.supports(request.getCurrency(), CurrencyCapability.STRIPE)) {
             throw new PaymentProcessingException(
                 "Unsupported currency for Stripe: " + request.getCurrency()
             );
         }
     }
     
+    private Map<String, String> correlationMetadata() {
+        // Lets Stripe objects be traced back to the request that created them
+        String correlationId = RequestContext.correlationId();
+        return correlationId != null ? Map.of("correlation_id", correlationId) : Map.of();
+    }
+    
+    private RequestOptions idempotent(String idempotencyKey) {
+        // Stripe replays the first result for a repeated key, so a retried write is not applied twice
+        return idempotencyKey != null ? RequestOptions.builder().setIdempotencyKey(idempotencyKey).build() : null;
+    }
+    
     private Long convertAmountToSmallestUnit(Double amount, String currency) {
-        // Most currencies use cents (multiply by 100)
-        // Some currencies like JPY don't use decimal places
-        Set<String> zeroDecimalCurrencies = Set.of("JPY", "KRW", "VND", "CLP", "PYG", "UGX");
-        
-        if (zeroDecimalCurrencies.contains(currency.toUpperCase())) {
-            return amount.longValue();
-        } else {
-            return Math.round(amount * 100);
-        }
+        // ISO 4217 exponent: cents for most currencies, none for JPY/KRW, fils for KWD/BHD/OMR
+        return CURRENCIES.toMinorUnits(amount, currency);
     }
     
     private Double convertAmountFromSmallestUnit(Long amount, String currency) {
-        Set<String> zeroDecimalCurrencies = Set.of("JPY", "KRW", "VND", "CLP", "PYG", "UGX");
-        
-        if (zeroDecimalCurrencies.contains(currency.toUpperCase())) {
-            return amount.doubleValue();
-        } else {
-            return amount / 100.0;
-        }
+        return CURRENCIES.fromMinorUnits(amount, currency);
     }
     
     private String mapStripeStatus(String stripeStatus) {
@@ -0,0 +1,113 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic outcome and latency source for simulated providers
+ *
+ * Every decision is a pure function of (seed, operation, key): the request
+ * key (order ID, reference) seeds its own random stream, so a run replays
+ * identically under any thread interleaving and any concurrency level.
+ * Retries of the same key see the same outcome, as a real card decline
+ * would; load scripts that want independent retries vary the key.
+ */
+public class GatewaySimulator {
+
+    public enum Outcome {
+        APPROVED,
+        DECLINED,
+        GATEWAY_ERROR,
+        TIMEOUT
+    }
+
+    /**
+     * @param token Deterministic random bits for provider IDs
+     */
+    public record Decision(Outcome outcome, long latencyNanos, long token) {
+
+        public boolean approved() {
+            return outcome == Outcome.APPROVED;
+        }
+    }
+
+    private final SimulationProfile profile;
+
+    public GatewaySimulator(SimulationProfile profile) {
+        this.profile = profile;
+    }
+
+    public SimulationProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Decide the outcome of one call without waiting
+     */
+    public Decision decide(String operation, String key) {
+        SplittableRandom random = random(operation, key);
+
+        double roll = random.nextDouble();
+        Outcome outcome;
+        if (roll < profile.timeoutRate()) {
+            outcome = Outcome.TIMEOUT;
+        } else if ((roll -= profile.timeoutRate()) < profile.errorRate()) {
+            outcome = Outcome.GATEWAY_ERROR;
+        } else if (roll - profile.errorRate() < profile.declineRate()) {
+            outcome = Outcome.DECLINED;
+        } else {
+            outcome = Outcome.APPROVED;
+        }
+
+        long latency = outcome == Outcome.TIMEOUT
+            ? profile.timeout().toNanos()
+            : Math.min(profile.latency().sampleNanos(random), profile.timeout().toNanos());
+        return new Decision(outcome, latency, random.nextLong());
+    }
+
+    /**
+     * Decide, then block the calling thread for the decided latency,
+     * as a synchronous provider SDK call would
+     */
+    public Decision call(String operation, String key) throws InterruptedException {
+        Decision decision = decide(operation, key);
+        TimeUnit.NANOSECONDS.sleep(decision.latencyNanos());
+        return decision;
+    }
+
+    /**
+     * Webhook delivery delay for a decided call
+     */
+    public long webhookDelayNanos(String event, String key) {
+        return profile.webhookDelay().sampleNanos(random(event, key));
+    }
+
+    // 64-bit key hashes: with String.hashCode a million keys share ~116 seeds, and so transaction IDs
+    private SplittableRandom random(String operation, String key) {
+        return new SplittableRandom(hash(hash(profile.seed(), operation), key));
+    }
+
+    /**
+     * 64-bit hash of the text's characters, chained from a seed
+     */
+    static long hash(long seed, String text) {
+        if (text == null) {
+            return mix(seed);
+        }
+        long h = seed ^ text.length();
+        for (int i = 0; i < text.length(); i++) {
+            h = (h ^ text.charAt(i)) * 0x9e3779b97f4a7c15L;
+            h ^= h >>> 32;
+        }
+        return mix(h);
+    }
+
+    /**
+     * MurmurHash3 finalizer, spreads small input differences across all bits
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,54 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated response latency
+ *
+ * Parameterized by median and p99 because those are what provider status
+ * pages and our own gateway histograms report.
+ * - FIXED: always the median
+ * - EXPONENTIAL: memoryless, light tail; p99 is ignored
+ * - LOG_NORMAL: heavy right tail fitted through both median and p99, the
+ *   usual shape of third-party API latency
+ */
+public record LatencyDistribution(Shape shape, Duration median, Duration p99) {
+
+    public enum Shape {
+        FIXED,
+        EXPONENTIAL,
+        LOG_NORMAL
+    }
+
+    // Standard normal quantile at 0.99
+    private static final double Z_99 = 2.3263478740408408;
+
+    public LatencyDistribution {
+        if (median.isNegative() || p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("Latency needs 0 <= median <= p99, got " + median + " / " + p99);
+        }
+    }
+
+    public static LatencyDistribution fixed(Duration latency) {
+        return new LatencyDistribution(Shape.FIXED, latency, latency);
+    }
+
+    /**
+     * Sample one latency in nanoseconds
+     */
+    public long sampleNanos(RandomGenerator random) {
+        double median = median().toNanos();
+        return switch (shape) {
+            case FIXED -> (long) median;
+            case EXPONENTIAL -> (long) (-Math.log(1.0 - random.nextDouble()) * median / Math.log(2));
+            case LOG_NORMAL -> {
+                if (median == 0) {
+                    yield 0;
+                }
+                double sigma = Math.log(p99().toNanos() / median) / Z_99;
+                yield (long) (median * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+}
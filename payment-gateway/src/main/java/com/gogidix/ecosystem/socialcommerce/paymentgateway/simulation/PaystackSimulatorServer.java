@@ -0,0 +1,391 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.CreateRefundRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.InitializeTransactionData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.InitializeTransactionRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.InitiateTransferRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.PaystackBank;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.PaystackResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.RefundData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.TransactionData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.TransferData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paystack API Simulator
+ *
+ * PERFORMANCE TESTING: Local HTTP server speaking the Paystack REST endpoints
+ * that {@link com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.PaystackClient}
+ * calls, so the real client, serialization and connection handling run under
+ * load without network access.
+ * - POST /transaction/initialize, GET /transaction/verify/{reference}, GET /transaction
+ * - POST /refund, POST /transfer, GET /bank
+ * - Bearer key checked like the real API; status=false envelopes and 4xx/5xx as Paystack returns them
+ * - Latency, errors and timeouts from {@link GatewaySimulator}; charges are declined at the
+ *   configured rate and show as failed on verify, as they would after checkout
+ * - charge, refund and transfer webhooks signed with the secret key, as Paystack signs them
+ *
+ * Handlers run on a cached pool because each one sleeps for its sampled latency.
+ */
+public class PaystackSimulatorServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaystackSimulatorServer.class);
+
+    private static final String GATEWAY = PaymentGatewayType.PAYSTACK.name();
+
+    private final GatewaySimulator simulator;
+    private final SimulatedLedger ledger;
+    private final WebhookDispatcher webhooks;
+    private final ObjectMapper objectMapper;
+    private final String secretKey;
+    private final List<PaystackBank> banks;
+
+    private final ObjectReader initializeReader;
+    private final ObjectReader refundReader;
+    private final ObjectReader transferReader;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong listSequence = new AtomicLong();
+
+    public PaystackSimulatorServer(GatewaySimulator simulator, SimulatedLedger ledger, WebhookDispatcher webhooks,
+                                   ObjectMapper objectMapper, String secretKey, int port, int bankCount)
+            throws IOException {
+        this.simulator = simulator;
+        this.ledger = ledger;
+        this.webhooks = webhooks;
+        this.objectMapper = objectMapper;
+        this.secretKey = secretKey;
+        this.banks = banks(bankCount);
+
+        this.initializeReader = requestReader(InitializeTransactionRequest.class);
+        this.refundReader = requestReader(CreateRefundRequest.class);
+        this.transferReader = requestReader(InitiateTransferRequest.class);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "paystack-simulator-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        logger.info("Paystack simulator listening on {}", baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ==============================================
+    // ROUTING
+    // ==============================================
+
+    private void handle(HttpExchange exchange) {
+        try {
+            if (!("Bearer " + secretKey).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                fail(exchange, 401, "Invalid key");
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+
+            if ("POST".equals(method) && "/transaction/initialize".equals(path)) {
+                initialize(exchange);
+            } else if ("GET".equals(method) && path.startsWith("/transaction/verify/")) {
+                verify(exchange, URLDecoder.decode(
+                    path.substring("/transaction/verify/".length()), StandardCharsets.UTF_8));
+            } else if ("GET".equals(method) && "/transaction".equals(path)) {
+                listTransactions(exchange);
+            } else if ("POST".equals(method) && "/refund".equals(path)) {
+                refund(exchange);
+            } else if ("POST".equals(method) && "/transfer".equals(path)) {
+                transfer(exchange);
+            } else if ("GET".equals(method) && "/bank".equals(path)) {
+                listBanks(exchange);
+            } else {
+                fail(exchange, 404, "Not found");
+            }
+        } catch (JsonProcessingException | NumberFormatException e) {
+            failQuietly(exchange, 400, "Invalid request: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.debug("Paystack simulator request failed: {}", e.getMessage());
+            failQuietly(exchange, 500, "An error occurred, please try again");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ==============================================
+    // ENDPOINTS
+    // ==============================================
+
+    private void initialize(HttpExchange exchange) throws IOException, InterruptedException {
+        InitializeTransactionRequest request = read(exchange, initializeReader);
+        String orderId = request.metadata() != null ? request.metadata().get("order_id") : null;
+        GatewaySimulator.Decision decision = simulator.call("paystack.initialize",
+            orderId != null ? orderId : request.reference());
+        if (failed(exchange, decision, false)) {
+            return;
+        }
+
+        String accessCode = Long.toHexString(decision.token() & Long.MAX_VALUE);
+        String reference = request.reference() != null ? request.reference() : "SIM_" + accessCode;
+
+        // The charge outcome is decided now; checkout is not simulated
+        boolean charged = decision.outcome() != GatewaySimulator.Outcome.DECLINED;
+        ledger.put(reference, new SimulatedLedger.Entry(request.amount(), request.currency(),
+            charged ? "success" : "failed"));
+        webhook(charged ? "charge.success" : "charge.failed", decision.token(), reference, null,
+            charged ? "success" : "failed", request.amount(), request.currency());
+
+        ok(exchange, "Authorization URL created", new InitializeTransactionData(
+            "https://checkout.paystack.com/" + accessCode, accessCode, reference));
+    }
+
+    private void verify(HttpExchange exchange, String reference) throws IOException, InterruptedException {
+        GatewaySimulator.Decision decision = simulator.call("paystack.verify", reference);
+        if (failed(exchange, decision, false)) {
+            return;
+        }
+
+        SimulatedLedger.Entry entry = ledger.get(reference);
+        if (entry == null) {
+            fail(exchange, 404, "Transaction reference not found");
+            return;
+        }
+        ok(exchange, "Verification successful", transaction(decision.token(), reference, entry));
+    }
+
+    private void listTransactions(HttpExchange exchange) throws IOException, InterruptedException {
+        Map<String, String> query = query(exchange);
+        int perPage = Integer.parseInt(query.getOrDefault("perPage", "50"));
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+
+        // Repeated identical list calls must not all share one fate
+        GatewaySimulator.Decision decision = simulator.call("paystack.list", "list:" + listSequence.incrementAndGet());
+        if (failed(exchange, decision, false)) {
+            return;
+        }
+
+        List<TransactionData> transactions = new ArrayList<>(perPage);
+        for (int i = 0; i < perPage; i++) {
+            String reference = "SIM_" + page + "_" + i;
+            transactions.add(transaction((long) page * perPage + i, reference,
+                new SimulatedLedger.Entry(100_00L * (i + 1), "NGN", "success")));
+        }
+        ok(exchange, "Transactions retrieved", transactions);
+    }
+
+    private void refund(HttpExchange exchange) throws IOException, InterruptedException {
+        CreateRefundRequest request = read(exchange, refundReader);
+        GatewaySimulator.Decision decision = simulator.call("paystack.refund", request.transaction());
+        if (failed(exchange, decision, true)) {
+            return;
+        }
+
+        SimulatedLedger.Entry entry = ledger.get(request.transaction());
+        if (entry == null) {
+            fail(exchange, 404, "Transaction not found");
+            return;
+        }
+        if (!"success".equals(entry.status())) {
+            fail(exchange, 400, "Cannot refund a transaction that was not successful");
+            return;
+        }
+        long amount = request.amount() > 0 ? request.amount() : entry.amountMinor();
+        if (amount > entry.amountMinor()) {
+            fail(exchange, 400, "Refund amount cannot be more than transaction amount");
+            return;
+        }
+
+        long refundId = decision.token() & Integer.MAX_VALUE;
+        webhook("refund.processed", refundId, request.transaction(), null, "processed", amount, entry.currency());
+        ok(exchange, "Refund has been queued for processing",
+            new RefundData(refundId, "pending", amount, entry.currency()));
+    }
+
+    private void transfer(HttpExchange exchange) throws IOException, InterruptedException {
+        InitiateTransferRequest request = read(exchange, transferReader);
+        String account = request.recipient() != null ? request.recipient().accountNumber() : null;
+        GatewaySimulator.Decision decision = simulator.call("paystack.transfer",
+            account + ":" + request.amount() + ":" + request.reason());
+        if (failed(exchange, decision, false)) {
+            return;
+        }
+
+        long id = decision.token() & Integer.MAX_VALUE;
+        String transferCode = "TRF_" + Long.toString(decision.token() & Long.MAX_VALUE, 36);
+        String reference = "SIM_TRF_" + id;
+
+        // Like Paystack, transfers are accepted first and fail asynchronously
+        boolean paid = decision.outcome() != GatewaySimulator.Outcome.DECLINED;
+        webhook(paid ? "transfer.success" : "transfer.failed", id, reference, transferCode,
+            paid ? "success" : "failed", request.amount(), request.currency());
+        ok(exchange, "Transfer has been queued",
+            new TransferData(id, transferCode, reference, "pending", request.amount(), request.currency()));
+    }
+
+    private void listBanks(HttpExchange exchange) throws IOException, InterruptedException {
+        GatewaySimulator.Decision decision = simulator.call("paystack.bank", "bank:" + listSequence.incrementAndGet());
+        if (failed(exchange, decision, false)) {
+            return;
+        }
+        ok(exchange, "Banks retrieved", banks);
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    /**
+     * Answer injected faults; declines only count when the endpoint can reject synchronously
+     *
+     * @return true if a response was sent
+     */
+    private boolean failed(HttpExchange exchange, GatewaySimulator.Decision decision, boolean declines)
+            throws IOException {
+        switch (decision.outcome()) {
+            case TIMEOUT -> fail(exchange, 504, "Gateway timeout");
+            case GATEWAY_ERROR -> fail(exchange, 500, "An error occurred, please try again");
+            case DECLINED -> {
+                if (!declines) {
+                    return false;
+                }
+                fail(exchange, 400, "Request could not be processed");
+            }
+            case APPROVED -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TransactionData transaction(long id, String reference, SimulatedLedger.Entry entry) {
+        String now = Instant.now().toString();
+        boolean success = "success".equals(entry.status());
+        return new TransactionData(id & Integer.MAX_VALUE, reference, entry.status(), entry.amountMinor(),
+            entry.currency(), "card", success ? "Successful" : "Declined", success ? now : null, now);
+    }
+
+    private void webhook(String event, long id, String reference, String transferCode, String status,
+                         long amount, String currency) {
+        SimulationProfile profile = simulator.getProfile();
+        if (!profile.webhooksEnabled()) {
+            return;
+        }
+
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("event", event);
+        ObjectNode data = payload.putObject("data");
+        data.put("id", id & Integer.MAX_VALUE);
+        data.put("reference", reference);
+        if (transferCode != null) {
+            data.put("transfer_code", transferCode);
+        }
+        data.put("status", status);
+        data.put("amount", amount);
+        data.put("currency", currency);
+
+        webhooks.dispatch(profile.webhookUrl() + GATEWAY, payload.toString(), secretKey,
+            simulator.webhookDelayNanos(event, reference));
+    }
+
+    private ObjectReader requestReader(Class<?> type) {
+        return objectMapper.readerFor(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static <T> T read(HttpExchange exchange, ObjectReader reader) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return reader.readValue(body);
+        }
+    }
+
+    private void ok(HttpExchange exchange, String message, Object data) throws IOException {
+        respond(exchange, 200, new PaystackResponse<>(true, message, data));
+    }
+
+    private void fail(HttpExchange exchange, int status, String message) throws IOException {
+        respond(exchange, status, new PaystackResponse<>(false, message, null));
+    }
+
+    private void failQuietly(HttpExchange exchange, int status, String message) {
+        try {
+            if (exchange.getResponseCode() < 0) {
+                fail(exchange, status, message);
+            }
+        } catch (IOException e) {
+            logger.debug("Paystack simulator could not send error response: {}", e.getMessage());
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, PaystackResponse<?> response) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        String raw = exchange.getRequestURI().getRawQuery();
+        Map<String, String> query = new HashMap<>();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+
+    private static List<PaystackBank> banks(int count) {
+        List<PaystackBank> banks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            banks.add(new PaystackBank(i + 1, "Simulated Bank " + (i + 1), "simulated-bank-" + (i + 1),
+                String.format("%03d", i + 1), "Nigeria", "NGN", "nuban", true));
+        }
+        return List.copyOf(banks);
+    }
+}
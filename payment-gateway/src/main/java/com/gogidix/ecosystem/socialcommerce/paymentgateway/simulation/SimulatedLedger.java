@@ -0,0 +1,50 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded store of simulated transactions
+ *
+ * Lets status, capture and refund calls see the payments made earlier in a
+ * run. Insertion order is kept in a ring, and the oldest entry is evicted once
+ * capacity is reached, so memory stays flat over a long load test. Lookups of
+ * evicted IDs behave like lookups of unknown IDs at the provider.
+ */
+public class SimulatedLedger {
+
+    public record Entry(long amountMinor, String currency, String status) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> ring;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SimulatedLedger(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ledger capacity must be positive");
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void put(String id, Entry entry) {
+        if (entries.put(id, entry) != null) {
+            return;
+        }
+        int slot = (int) (sequence.getAndIncrement() % ring.length());
+        String evicted = ring.getAndSet(slot, id);
+        if (evicted != null && !evicted.equals(id)) {
+            entries.remove(evicted);
+        }
+    }
+
+    public Entry get(String id) {
+        return id != null ? entries.get(id) : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,319 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.*;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import com.gogidix.socialcommerce.shared.currency.CurrencyCapability;
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Simulated Payment Gateway
+ *
+ * PERFORMANCE TESTING: In-process stand-in for a card provider
+ * - Seeded latency, decline, error and timeout behaviour from {@link GatewaySimulator};
+ *   the calling thread blocks for the sampled latency like a provider SDK call
+ * - Payments are kept in a bounded {@link SimulatedLedger} so status, capture
+ *   and refund calls later in the run see them
+ * - Signed webhooks are posted back to our webhook endpoint after a sampled delay
+ *
+ * Only registered under the {@code simulation} profile. It can also stand in
+ * for real gateways ({@code payment.simulation.replaces}) so routed traffic
+ * reaches it without changing callers.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    public static final String NAME = PaymentGatewayType.SIMULATED.name();
+    public static final String ID_PREFIX = "sim_";
+
+    private static final CurrencyRegistry CURRENCIES = CurrencyRegistry.getInstance();
+
+    private static final Set<String> SUPPORTED_PAYMENT_METHODS = Set.of(
+        "card",
+        "bank_transfer",
+        "mobile_money",
+        "ussd"
+    );
+
+    private final GatewaySimulator simulator;
+    private final SimulatedLedger ledger;
+    private final WebhookDispatcher webhooks;
+    private final ObjectMapper objectMapper;
+    private final String webhookSecret;
+    private final Set<PaymentGatewayType> replacedGateways;
+    private final Set<String> supportedCurrencies;
+
+    public SimulatedPaymentGateway(GatewaySimulator simulator, SimulatedLedger ledger, WebhookDispatcher webhooks,
+                                   ObjectMapper objectMapper, String webhookSecret,
+                                   Set<PaymentGatewayType> replacedGateways) {
+        this.simulator = simulator;
+        this.ledger = ledger;
+        this.webhooks = webhooks;
+        this.objectMapper = objectMapper;
+        this.webhookSecret = webhookSecret;
+        this.replacedGateways = Set.copyOf(replacedGateways);
+
+        Set<String> currencies = new HashSet<>(CURRENCIES.codesWith(CurrencyCapability.STRIPE));
+        currencies.addAll(CURRENCIES.codesWith(CurrencyCapability.PAYSTACK));
+        this.supportedCurrencies = Set.copyOf(currencies);
+    }
+
+    /**
+     * Real gateways this simulator is registered in place of
+     */
+    public Set<PaymentGatewayType> getReplacedGateways() {
+        return replacedGateways;
+    }
+
+    @Override
+    public PaymentResponse processPayment(PaymentRequest request) {
+        if (request.getAmount() == null || request.getAmount() <= 0) {
+            throw new IllegalArgumentException("Payment amount must be positive");
+        }
+        if (!supportedCurrencies.contains(request.getCurrency())) {
+            throw new PaymentProcessingException(
+                "Unsupported currency for simulator: " + request.getCurrency(), "UNSUPPORTED_CURRENCY", NAME);
+        }
+
+        GatewaySimulator.Decision decision = call("payment", request.getOrderId());
+        String transactionId = id("pi_", decision);
+
+        if (decision.outcome() == GatewaySimulator.Outcome.DECLINED) {
+            webhook("payment.failed", transactionId, request.getOrderId(), request.getAmount(), request.getCurrency());
+            throw new PaymentProcessingException("Simulated card declined", "CARD_DECLINED", NAME);
+        }
+        failIfNotApproved(decision, "payment");
+
+        ledger.put(transactionId, new SimulatedLedger.Entry(
+            CURRENCIES.toMinorUnits(request.getAmount(), request.getCurrency()), request.getCurrency(), "COMPLETED"));
+        webhook("payment.succeeded", transactionId, request.getOrderId(), request.getAmount(), request.getCurrency());
+
+        return PaymentResponse.builder()
+            .transactionId(transactionId)
+            .status("COMPLETED")
+            .amount(request.getAmount())
+            .currency(request.getCurrency())
+            .gateway(NAME)
+            .gatewayResponse(transactionId + "_secret")
+            .message("Simulated payment approved")
+            .timestamp(new Date())
+            .build();
+    }
+
+    @Override
+    public RefundResponse refundPayment(RefundRequest request) {
+        SimulatedLedger.Entry payment = requirePayment(request.getTransactionId());
+        long amount = request.getAmount() != null
+            ? CURRENCIES.toMinorUnits(request.getAmount(), payment.currency())
+            : payment.amountMinor();
+        if (amount <= 0 || amount > payment.amountMinor()) {
+            throw new PaymentProcessingException(
+                "Refund amount exceeds captured amount", "INVALID_REFUND_AMOUNT", NAME);
+        }
+
+        GatewaySimulator.Decision decision = call("refund", request.getTransactionId());
+        failIfNotApproved(decision, "refund");
+        String refundId = id("re_", decision);
+        webhook("refund.processed", refundId, request.getOrderId(),
+            CURRENCIES.fromMinorUnits(amount, payment.currency()), payment.currency());
+
+        return RefundResponse.builder()
+            .refundId(refundId)
+            .transactionId(request.getTransactionId())
+            .amount(CURRENCIES.fromMinorUnits(amount, payment.currency()))
+            .currency(payment.currency())
+            .status("succeeded")
+            .gateway(NAME)
+            .message("Simulated refund processed")
+            .processedAt(new Date())
+            .build();
+    }
+
+    @Override
+    public CaptureResponse capturePayment(String transactionId, Double amount) {
+        SimulatedLedger.Entry payment = requirePayment(transactionId);
+        GatewaySimulator.Decision decision = call("capture", transactionId);
+        failIfNotApproved(decision, "capture");
+
+        return CaptureResponse.builder()
+            .transactionId(transactionId)
+            .amount(amount != null ? amount : CURRENCIES.fromMinorUnits(payment.amountMinor(), payment.currency()))
+            .currency(payment.currency())
+            .status("CAPTURED")
+            .gateway(NAME)
+            .message("Simulated capture completed")
+            .capturedAt(new Date())
+            .build();
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        String expected = WebhookDispatcher.sign(webhookSecret, payload);
+        return MessageDigest.isEqual(
+            expected.getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public WebhookResponse processWebhook(String payload) {
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            return WebhookResponse.builder()
+                .eventId(event.path("id").asText(null))
+                .eventType(event.path("event").asText(null))
+                .processed(true)
+                .message("Webhook processed successfully")
+                .processedAt(new Date())
+                .build();
+        } catch (Exception e) {
+            throw new PaymentProcessingException("Webhook processing failed", e);
+        }
+    }
+
+    @Override
+    public PaymentStatus getPaymentStatus(String transactionId) {
+        SimulatedLedger.Entry payment = requirePayment(transactionId);
+        GatewaySimulator.Decision decision = call("status", transactionId);
+        failIfNotApproved(decision, "status check");
+
+        return PaymentStatus.builder()
+            .transactionId(transactionId)
+            .status(payment.status())
+            .amount(CURRENCIES.fromMinorUnits(payment.amountMinor(), payment.currency()))
+            .currency(payment.currency())
+            .gateway(NAME)
+            .lastUpdated(new Date())
+            .build();
+    }
+
+    @Override
+    public TokenResponse createPaymentToken(CardDetails cardDetails) {
+        String cardNumber = cardDetails.getCardNumber();
+        GatewaySimulator.Decision decision = call("token", cardNumber);
+        failIfNotApproved(decision, "tokenization");
+
+        return TokenResponse.builder()
+            .token(id("tok_", decision))
+            .lastFourDigits(cardNumber != null && cardNumber.length() >= 4
+                ? cardNumber.substring(cardNumber.length() - 4) : null)
+            .cardBrand("simulated")
+            .expiryMonth(String.valueOf(cardDetails.getExpiryMonth()))
+            .expiryYear(String.valueOf(cardDetails.getExpiryYear()))
+            .build();
+    }
+
+    @Override
+    public PayoutResponse initiatePayout(PayoutRequest request) {
+        if (request.getAmount() == null || request.getAmount() <= 0) {
+            throw new IllegalArgumentException("Payout amount must be positive");
+        }
+
+        GatewaySimulator.Decision decision = call("payout", request.getVendorId() + ":" + request.getAmount());
+        if (decision.outcome() == GatewaySimulator.Outcome.DECLINED) {
+            throw new PaymentProcessingException("Simulated payout rejected: invalid account", "INVALID_ACCOUNT", NAME);
+        }
+        failIfNotApproved(decision, "payout");
+
+        String payoutId = id("po_", decision);
+        webhook("payout.paid", payoutId, request.getVendorId(), request.getAmount(), request.getCurrency());
+
+        return PayoutResponse.builder()
+            .payoutId(payoutId)
+            .amount(request.getAmount())
+            .currency(request.getCurrency())
+            .status("pending")
+            .gateway(NAME)
+            .estimatedArrival(new Date())
+            .message("Simulated payout initiated")
+            .build();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Set<String> getSupportedPaymentMethods() {
+        return new HashSet<>(SUPPORTED_PAYMENT_METHODS);
+    }
+
+    @Override
+    public Set<String> getSupportedCurrencies() {
+        return supportedCurrencies;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private GatewaySimulator.Decision call(String operation, String key) {
+        try {
+            return simulator.call(operation, key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProcessingException("Simulated " + operation + " interrupted", "GATEWAY_TIMEOUT", NAME);
+        }
+    }
+
+    private static void failIfNotApproved(GatewaySimulator.Decision decision, String operation) {
+        switch (decision.outcome()) {
+            case TIMEOUT -> throw new PaymentProcessingException(
+                "Simulated " + operation + " timed out", "GATEWAY_TIMEOUT", NAME);
+            case GATEWAY_ERROR -> throw new PaymentProcessingException(
+                "Simulated " + operation + " failed: provider error", "GATEWAY_ERROR", NAME);
+            case DECLINED -> throw new PaymentProcessingException(
+                "Simulated " + operation + " rejected", "REQUEST_REJECTED", NAME);
+            case APPROVED -> {
+            }
+        }
+    }
+
+    private SimulatedLedger.Entry requirePayment(String transactionId) {
+        SimulatedLedger.Entry payment = ledger.get(transactionId);
+        if (payment == null) {
+            throw new PaymentProcessingException(
+                "No such simulated transaction: " + transactionId, "TRANSACTION_NOT_FOUND", NAME);
+        }
+        return payment;
+    }
+
+    private static String id(String type, GatewaySimulator.Decision decision) {
+        return ID_PREFIX + type + Long.toHexString(decision.token() & Long.MAX_VALUE);
+    }
+
+    private void webhook(String event, String objectId, String reference, Double amount, String currency) {
+        SimulationProfile profile = simulator.getProfile();
+        if (!profile.webhooksEnabled()) {
+            return;
+        }
+
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("id", "evt_" + objectId);
+        payload.put("event", event);
+        ObjectNode data = payload.putObject("data");
+        data.put("id", objectId);
+        data.put("reference", reference);
+        data.put("amount", amount);
+        data.put("currency", currency);
+
+        webhooks.dispatch(profile.webhookUrl() + NAME, payload.toString(), webhookSecret,
+            simulator.webhookDelayNanos(event, objectId));
+    }
+}
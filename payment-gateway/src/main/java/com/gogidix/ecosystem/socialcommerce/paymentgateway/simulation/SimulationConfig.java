@@ -0,0 +1,93 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gateway Simulation Configuration
+ *
+ * Active only under the {@code simulation} profile (application-simulation.yml).
+ * Registers {@link SimulatedPaymentGateway} with the gateway factory and starts
+ * {@link PaystackSimulatorServer}, which the real Paystack client is pointed at.
+ * Never enable in a deployed environment: the simulator approves payments.
+ */
+@Configuration
+@Profile("simulation")
+public class SimulationConfig {
+
+    @Bean
+    public SimulationProfile simulationProfile(
+            @Value("${payment.simulation.seed:42}") long seed,
+            @Value("${payment.simulation.latency.shape:LOG_NORMAL}") LatencyDistribution.Shape latencyShape,
+            @Value("${payment.simulation.latency.median-ms:120}") long latencyMedianMs,
+            @Value("${payment.simulation.latency.p99-ms:900}") long latencyP99Ms,
+            @Value("${payment.simulation.decline-rate:0.05}") double declineRate,
+            @Value("${payment.simulation.error-rate:0.01}") double errorRate,
+            @Value("${payment.simulation.timeout-rate:0.002}") double timeoutRate,
+            @Value("${payment.simulation.timeout-ms:30000}") long timeoutMs,
+            @Value("${payment.simulation.webhook.url:}") String webhookUrl,
+            @Value("${payment.simulation.webhook.delay.shape:LOG_NORMAL}") LatencyDistribution.Shape webhookShape,
+            @Value("${payment.simulation.webhook.delay.median-ms:500}") long webhookMedianMs,
+            @Value("${payment.simulation.webhook.delay.p99-ms:5000}") long webhookP99Ms) {
+        return new SimulationProfile(
+            seed,
+            new LatencyDistribution(latencyShape, Duration.ofMillis(latencyMedianMs), Duration.ofMillis(latencyP99Ms)),
+            declineRate,
+            errorRate,
+            timeoutRate,
+            Duration.ofMillis(timeoutMs),
+            webhookUrl,
+            new LatencyDistribution(webhookShape, Duration.ofMillis(webhookMedianMs), Duration.ofMillis(webhookP99Ms))
+        );
+    }
+
+    @Bean
+    public GatewaySimulator gatewaySimulator(SimulationProfile simulationProfile) {
+        return new GatewaySimulator(simulationProfile);
+    }
+
+    @Bean
+    public SimulatedLedger simulatedLedger(@Value("${payment.simulation.ledger-capacity:1000000}") int capacity) {
+        return new SimulatedLedger(capacity);
+    }
+
+    @Bean(destroyMethod = "close")
+    public WebhookDispatcher simulatedWebhookDispatcher() {
+        return new WebhookDispatcher();
+    }
+
+    @Bean
+    public SimulatedPaymentGateway simulatedPaymentGateway(
+            GatewaySimulator gatewaySimulator,
+            SimulatedLedger simulatedLedger,
+            WebhookDispatcher simulatedWebhookDispatcher,
+            ObjectMapper objectMapper,
+            @Value("${payment.simulation.webhook.secret:simulation-webhook-secret}") String webhookSecret,
+            @Value("${payment.simulation.replaces:}") Set<PaymentGatewayType> replaces) {
+        return new SimulatedPaymentGateway(
+            gatewaySimulator, simulatedLedger, simulatedWebhookDispatcher, objectMapper, webhookSecret, replaces);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "payment.simulation.paystack.enabled", havingValue = "true", matchIfMissing = true)
+    public PaystackSimulatorServer paystackSimulatorServer(
+            GatewaySimulator gatewaySimulator,
+            SimulatedLedger simulatedLedger,
+            WebhookDispatcher simulatedWebhookDispatcher,
+            ObjectMapper objectMapper,
+            @Value("${payment.paystack.secret-key}") String paystackSecretKey,
+            @Value("${payment.simulation.paystack.port:18099}") int port,
+            @Value("${payment.simulation.paystack.bank-count:25}") int bankCount) throws IOException {
+        return new PaystackSimulatorServer(gatewaySimulator, simulatedLedger, simulatedWebhookDispatcher,
+            objectMapper, paystackSecretKey, port, bankCount);
+    }
+}
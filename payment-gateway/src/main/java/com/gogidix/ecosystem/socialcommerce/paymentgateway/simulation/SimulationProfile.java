@@ -0,0 +1,37 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import java.time.Duration;
+
+/**
+ * Behaviour shared by every simulated provider endpoint
+ *
+ * @param seed          Same seed and same request keys give the same outcomes and latencies
+ * @param declineRate   Fraction of calls rejected as a business decline (card declined, invalid account)
+ * @param errorRate     Fraction of calls failing as a provider error (5xx)
+ * @param timeoutRate   Fraction of calls that hang for {@code timeout} before failing
+ * @param webhookUrl    Base URL webhooks are posted to, gateway name appended; null disables callbacks
+ */
+public record SimulationProfile(
+    long seed,
+    LatencyDistribution latency,
+    double declineRate,
+    double errorRate,
+    double timeoutRate,
+    Duration timeout,
+    String webhookUrl,
+    LatencyDistribution webhookDelay
+) {
+
+    public SimulationProfile {
+        if (declineRate < 0 || errorRate < 0 || timeoutRate < 0 || declineRate + errorRate + timeoutRate > 1) {
+            throw new IllegalArgumentException("Simulation rates must be non-negative and sum to at most 1");
+        }
+        if (webhookUrl != null && webhookUrl.isBlank()) {
+            webhookUrl = null;
+        }
+    }
+
+    public boolean webhooksEnabled() {
+        return webhookUrl != null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Posts simulated provider webhooks after a delay
+ *
+ * One scheduler thread holds pending callbacks and the JDK HTTP client sends
+ * them asynchronously, so callbacks never occupy request threads. Payloads are
+ * signed with HMAC-SHA512 in the X-Signature header, the scheme the webhook
+ * endpoint already verifies for Paystack.
+ */
+public class WebhookDispatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    public static final String SIGNATURE_HEADER = "X-Signature";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simulated-webhooks");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Schedule a signed POST of {@code payload} to {@code url}
+     */
+    public void dispatch(String url, String payload, String secret, long delayNanos) {
+        String signature = sign(secret, payload);
+        scheduler.schedule(() -> send(url, payload, signature), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Lower-case hex HMAC-SHA512 of the payload
+     */
+    public static String sign(String secret, String payload) {
+        try {
+            Mac hmac = Mac.getInstance("HmacSHA512");
+            hmac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+            return HexFormat.of().formatHex(hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA512 unavailable", e);
+        }
+    }
+
+    private void send(String url, String payload, String signature) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(10))
+            .header("Content-Type", "application/json")
+            .header(SIGNATURE_HEADER, signature)
+            .POST(HttpRequest.BodyPublishers.ofString(payload))
+            .build();
+
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error == null && response.statusCode() < 300) {
+                delivered.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                logger.debug("Simulated webhook to {} failed: {}", url,
+                    error != null ? error.getMessage() : "HTTP " + response.statusCode());
+            }
+        });
+    }
+}
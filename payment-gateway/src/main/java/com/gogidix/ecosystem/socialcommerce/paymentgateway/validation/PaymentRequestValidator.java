@@ -2,6 +2,8 @@ package com.gogidix.ecosystem.socialcommerce.paymentgateway.validation;
 
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
 import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.InputSanitizer;
+import com.gogidix.socialcommerce.shared.currency.CurrencyCapability;
+import com.gogidix.socialcommerce.shared.currency.CurrencyRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -28,11 +30,8 @@ public class PaymentRequestValidator {
     @Autowired
     private InputSanitizer inputSanitizer;
     
-    // Supported currencies (ISO 4217)
-    private static final Set<String> SUPPORTED_CURRENCIES = Set.of(
-        "USD", "EUR", "GBP", "CAD", "AUD", "JPY", "CHF", "SEK", "NOK", "DKK",
-        "NGN", "GHS", "ZAR", "KES", "UGX", "XAF", "XOF", "EGP", "MAD", "TND"
-    );
+    // Supported currencies (ISO 4217) are flagged CHECKOUT in the shared registry
+    private static final CurrencyRegistry CURRENCIES = CurrencyRegistry.getInstance();
     
     // Supported payment methods
     private static final Set<String> SUPPORTED_PAYMENT_METHODS = Set.of(
@@ -136,7 +135,7 @@ public class PaymentRequestValidator {
             return;
         }
         
-        if (!SUPPORTED_CURRENCIES.contains(currency)) {
+        if (!CURRENCIES.supports(currency, CurrencyCapability.CHECKOUT)) {
             errors.add("Unsupported currency: " + inputSanitizer.sanitizeForLogging(currency));
         }
     }
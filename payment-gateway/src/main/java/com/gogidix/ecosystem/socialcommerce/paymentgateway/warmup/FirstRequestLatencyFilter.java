@@ -0,0 +1,81 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of the first API requests a replica serves
+ *
+ * Times the first {@code payment.warmup.first-requests} API requests end to
+ * end, security chain included, tagged with whether {@link StartupWarmup}
+ * ran; deploying with {@code payment.warmup.enabled=false} gives the cold
+ * baseline. Actuator requests (probes, scrapes) are not counted. Once the
+ * quota is used the filter costs one volatile read per request.
+ *
+ * Metrics:
+ * - payment.warmup.first.requests (timer) by warmed: true, false
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class FirstRequestLatencyFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "payment.warmup.first.requests";
+
+    private final ObjectProvider<StartupWarmup> warmup;
+    private final Timer warmed;
+    private final Timer cold;
+    private final AtomicInteger remaining;
+
+    public FirstRequestLatencyFilter(MeterRegistry meterRegistry,
+                                     ObjectProvider<StartupWarmup> warmup,
+                                     @Value("${payment.warmup.first-requests:100}") int firstRequests) {
+        this.warmup = warmup;
+        this.warmed = timer(meterRegistry, "true");
+        this.cold = timer(meterRegistry, "false");
+        this.remaining = new AtomicInteger(firstRequests);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return remaining.get() <= 0 || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (remaining.getAndDecrement() <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StartupWarmup ran = warmup.getIfAvailable();
+            Timer timer = ran != null && ran.isCompleted() ? warmed : cold;
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String warmed) {
+        return Timer.builder(METRIC)
+            .description("Latency of the first API requests after startup")
+            .tag("warmed", warmed)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+}
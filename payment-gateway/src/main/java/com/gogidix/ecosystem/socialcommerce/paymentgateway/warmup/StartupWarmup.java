@@ -0,0 +1,375 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentMethodsResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.RefundRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.methods.SupportedMethodsCatalog;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.CustomPermissionEvaluator;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.InputSanitizer;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.PaymentSecurityService;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.RoleHierarchyService;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayFactory;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.validation.PaymentRequestValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup warm-up
+ *
+ * The first minutes after a deploy used to pay for class loading, JIT
+ * compilation, Stripe SDK initialisation, TLS handshakes to the gateways and
+ * regex compilation all at once, on customer requests.
+ *
+ * PERFORMANCE IMPLEMENTATION: Warm-up before readiness
+ * - Runs as an {@link ApplicationRunner}: Spring Boot publishes
+ *   {@code ReadinessState.ACCEPTING_TRAFFIC} only after every runner returns,
+ *   so the readiness probe stays down until warm-up is over
+ * - Drives synthetic requests through the validator and input sanitizer,
+ *   router, security evaluators and JSON serializers; synthetic payments
+ *   carry no customer, card, IP or device, so fraud velocity counts are not
+ *   touched
+ * - Pre-opens connections to every configured gateway in parallel through its
+ *   availability check (Stripe SDK, Paystack RestTemplate keep-alive pool)
+ * - Pre-loads the supported-methods catalog for every country
+ * - Bounded: steps not started within {@code payment.warmup.timeout-ms} are
+ *   skipped, and a failing step never fails startup
+ *
+ * Metrics:
+ * - payment.warmup.duration (timer) by outcome: completed, timed_out
+ * - payment.warmup.step (timer) by step and outcome: ok, failed, skipped
+ * - payment.warmup.first.requests (timer) see {@link FirstRequestLatencyFilter}
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "payment.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    static final String DURATION_METRIC = "payment.warmup.duration";
+    static final String STEP_METRIC = "payment.warmup.step";
+
+    private static final String[] COUNTRIES = {"US", "GB", "DE", "FR", "NG", "GH", "KE", "ZA", "CI", "EG"};
+    private static final String[] CURRENCIES = {"USD", "GBP", "EUR", "NGN", "GHS", "KES", "ZAR"};
+    private static final String[] SUSPICIOUS_INPUTS = {
+        "' OR '1'='1", "<script>alert(1)</script>", "../../etc/passwd", "javascript:void(0)", "1; DROP TABLE payments"
+    };
+
+    private final PaymentRequestValidator validator;
+    private final InputSanitizer inputSanitizer;
+    private final RegionalPaymentRouter router;
+    private final PaymentGatewayFactory gatewayFactory;
+    private final PaymentSecurityService paymentSecurityService;
+    private final CustomPermissionEvaluator permissionEvaluator;
+    private final RoleHierarchyService roleHierarchyService;
+    private final SupportedMethodsCatalog methodsCatalog;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int iterations;
+    private final long timeoutNanos;
+    private final long gatewayTimeoutMillis;
+
+    private volatile boolean completed;
+
+    public StartupWarmup(PaymentRequestValidator validator,
+                         InputSanitizer inputSanitizer,
+                         RegionalPaymentRouter router,
+                         PaymentGatewayFactory gatewayFactory,
+                         PaymentSecurityService paymentSecurityService,
+                         CustomPermissionEvaluator permissionEvaluator,
+                         RoleHierarchyService roleHierarchyService,
+                         SupportedMethodsCatalog methodsCatalog,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${payment.warmup.iterations:50}") int iterations,
+                         @Value("${payment.warmup.timeout-ms:60000}") long timeoutMs,
+                         @Value("${payment.warmup.gateway-timeout-ms:10000}") long gatewayTimeoutMs) {
+        this.validator = validator;
+        this.inputSanitizer = inputSanitizer;
+        this.router = router;
+        this.gatewayFactory = gatewayFactory;
+        this.paymentSecurityService = paymentSecurityService;
+        this.permissionEvaluator = permissionEvaluator;
+        this.roleHierarchyService = roleHierarchyService;
+        this.methodsCatalog = methodsCatalog;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.iterations = iterations;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.gatewayTimeoutMillis = gatewayTimeoutMs;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Run every step in order, skipping those not started before the deadline
+     *
+     * @return whether every step ran within the time budget
+     */
+    boolean warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + timeoutNanos;
+
+        boolean allRan = step("gateway-connections", deadline, this::openGatewayConnections);
+        allRan &= step("validation", deadline, this::warmValidation);
+        allRan &= step("routing", deadline, this::warmRouting);
+        allRan &= step("authorization", deadline, this::warmAuthorization);
+        allRan &= step("serialization", deadline, this::warmSerialization);
+        allRan &= step("methods-catalog", deadline, this::warmMethodsCatalog);
+
+        long elapsed = System.nanoTime() - start;
+        String outcome = allRan ? "completed" : "timed_out";
+        Timer.builder(DURATION_METRIC)
+            .description("Startup warm-up time before readiness")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        completed = true;
+
+        logger.atInfo()
+            .addKeyValue("outcome", outcome)
+            .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsed))
+            .addKeyValue("iterations", iterations)
+            .log("Startup warm-up finished");
+        return allRan;
+    }
+
+    /**
+     * Whether warm-up has run; startup traffic is tagged with it
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    private boolean step(String name, long deadline, Runnable work) {
+        if (System.nanoTime() - deadline >= 0) {
+            record(name, "skipped", 0);
+            logger.atWarn()
+                .addKeyValue("step", name)
+                .log("Warm-up step skipped: time budget spent");
+            return false;
+        }
+        long start = System.nanoTime();
+        String outcome = "ok";
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            logger.atWarn()
+                .addKeyValue("step", name)
+                .addKeyValue("error", e.getMessage())
+                .log("Warm-up step failed");
+        }
+        record(name, outcome, System.nanoTime() - start);
+        return true;
+    }
+
+    private void record(String step, String outcome, long nanos) {
+        Timer.builder(STEP_METRIC)
+            .description("Startup warm-up time per step")
+            .tag("step", step)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ==============================================
+    // STEPS
+    // ==============================================
+
+    /**
+     * One availability call per gateway, in parallel: loads the provider SDKs
+     * and leaves a handshaken keep-alive connection in each client's pool
+     */
+    private void openGatewayConnections() {
+        List<PaymentGateway> gateways = new ArrayList<>();
+        for (PaymentGatewayType type : PaymentGatewayType.values()) {
+            gatewayFactory.findGateway(type).ifPresent(gateways::add);
+        }
+        if (gateways.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(gateways.size(), runnable -> {
+            Thread thread = new Thread(runnable, "payment-warmup-connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<?>[] checks = gateways.stream()
+                .map(gateway -> CompletableFuture
+                    .supplyAsync(gateway::isAvailable, executor)
+                    .thenAccept(available -> logger.atInfo()
+                        .addKeyValue("gateway", gateway.getName())
+                        .addKeyValue("available", available)
+                        .log("Warm-up gateway connection")))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(checks)
+                .orTimeout(gatewayTimeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> null)
+                .join();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmValidation() {
+        for (int i = 0; i < iterations; i++) {
+            validator.validatePaymentRequest(validPayment(i));
+            validator.validatePaymentRequest(invalidPayment(i));
+            for (String input : SUSPICIOUS_INPUTS) {
+                inputSanitizer.sanitizeInput(input);
+                inputSanitizer.isValidInput(input);
+                inputSanitizer.sanitizeForLogging(input);
+            }
+            inputSanitizer.isValidMetadata(Map.of("order_ref", "WARMUP-" + i));
+        }
+    }
+
+    private void warmRouting() {
+        for (int i = 0; i < iterations; i++) {
+            for (String country : COUNTRIES) {
+                router.isAfricanCountry(country);
+                router.getGatewayName(country);
+            }
+            for (String currency : CURRENCIES) {
+                router.isPaystackSupportedCurrency(currency);
+            }
+        }
+    }
+
+    private void warmAuthorization() {
+        Authentication admin = authentication("warmup-platform-admin", "ROLE_PLATFORM_ADMIN");
+        Authentication vendor = authentication("warmup-vendor", "ROLE_VENDOR");
+        List<String> roles = new ArrayList<>(roleHierarchyService.getRolesAtOrBelowLevel(Integer.MAX_VALUE));
+
+        for (int i = 0; i < iterations; i++) {
+            PaymentRequest payment = anonymousPayment(i);
+            paymentSecurityService.canProcessPayment(admin, payment);
+            paymentSecurityService.canProcessPayment(vendor, payment);
+            paymentSecurityService.canRefundPayment(admin, "WARMUP_TXN_" + i);
+            paymentSecurityService.canCapturePayment(admin, "WARMUP_TXN_" + i);
+            permissionEvaluator.hasPermission(admin, payment, "PAYMENT_PROCESS");
+            permissionEvaluator.hasPermission(vendor, "WARMUP_TXN_" + i, "PAYMENT", "READ");
+            for (String role : roles) {
+                roleHierarchyService.getInheritedRoles(role);
+                roleHierarchyService.canAccessResource(role, "VENDOR");
+            }
+        }
+    }
+
+    private void warmSerialization() {
+        try {
+            for (int i = 0; i < iterations; i++) {
+                byte[] request = objectMapper.writeValueAsBytes(validPayment(i));
+                objectMapper.readValue(request, PaymentRequest.class);
+
+                byte[] response = objectMapper.writeValueAsBytes(PaymentResponse.builder()
+                    .transactionId("WARMUP_TXN_" + i)
+                    .status("SUCCEEDED")
+                    .amount(25.0 + i)
+                    .currency("USD")
+                    .gateway(PaymentGatewayType.STRIPE.name())
+                    .timestamp(new Date())
+                    .metadata(Map.of("warmup", "true"))
+                    .build());
+                objectMapper.readValue(response, PaymentResponse.class);
+
+                objectMapper.readValue(objectMapper.writeValueAsBytes(RefundRequest.builder()
+                    .transactionId("WARMUP_TXN_" + i)
+                    .amount(5.0)
+                    .reason("warm-up")
+                    .build()), RefundRequest.class);
+                objectMapper.readValue(objectMapper.writeValueAsBytes(PaymentMethodsResponse.builder()
+                    .countryCode("NG")
+                    .gateway(PaymentGatewayType.PAYSTACK.name())
+                    .build()), PaymentMethodsResponse.class);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("JSON round trip failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void warmMethodsCatalog() {
+        for (String country : Locale.getISOCountries()) {
+            methodsCatalog.lookup(country).respond(null);
+        }
+    }
+
+    // ==============================================
+    // SYNTHETIC REQUESTS
+    // ==============================================
+
+    private static PaymentRequest validPayment(int i) {
+        return PaymentRequest.builder()
+            .amount(25.0 + i % 100)
+            .currency(CURRENCIES[i % CURRENCIES.length])
+            .orderId("COMMERCE-WARMUP-" + i)
+            .customerId("warmup-customer-" + i)
+            .customerEmail("warmup@example.com")
+            .customerName("Warm Up")
+            .customerPhone("+2348000000000")
+            .countryCode(COUNTRIES[i % COUNTRIES.length])
+            .paymentMethod("card")
+            .description("Startup warm-up")
+            .metadata(Map.of("order_ref", "WARMUP-" + i))
+            .build();
+    }
+
+    private static PaymentRequest invalidPayment(int i) {
+        return PaymentRequest.builder()
+            .amount(-1.0)
+            .currency("us")
+            .orderId(SUSPICIOUS_INPUTS[i % SUSPICIOUS_INPUTS.length])
+            .customerEmail("not-an-email")
+            .customerName("<b>")
+            .countryCode("XX")
+            .build();
+    }
+
+    /**
+     * No customer, card, IP or device: invisible to fraud velocity counts
+     */
+    private static PaymentRequest anonymousPayment(int i) {
+        return PaymentRequest.builder()
+            .amount(25.0)
+            .currency("USD")
+            .orderId("COMMERCE-WARMUP-" + i)
+            .countryCode(COUNTRIES[i % COUNTRIES.length])
+            .build();
+    }
+
+    private static Authentication authentication(String username, String role) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null, AuthorityUtils.createAuthorityList(role));
+    }
+}
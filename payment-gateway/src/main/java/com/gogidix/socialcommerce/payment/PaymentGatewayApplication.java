@@ -1,7 +1,11 @@
 package com.gogidix.socialcommerce.payment;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-@SpringBootApplication
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+@SpringBootApplication(scanBasePackages = "com.gogidix.ecosystem.socialcommerce.paymentgateway")
+@EntityScan("com.gogidix.ecosystem.socialcommerce.paymentgateway.entity")
+@EnableJpaRepositories("com.gogidix.ecosystem.socialcommerce.paymentgateway.repository")
 public class PaymentGatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(PaymentGatewayApplication.class, args);
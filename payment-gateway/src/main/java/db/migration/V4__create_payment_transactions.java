@@ -0,0 +1,72 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Payment transaction journal: one row per gateway outcome, written
+ * asynchronously in JDBC batches (PaymentJournal) and kept for history,
+ * status and metrics queries without calling Stripe or Paystack.
+ *
+ * On PostgreSQL the table is range-partitioned by month on created_at.
+ * Monthly partitions are created ahead of time and expired ones dropped or
+ * archived by JournalPartitionMaintainer; the default partition only catches
+ * rows if maintenance has fallen behind, and the maintainer moves them into
+ * their month's partition when it creates it. Other databases (H2 in tests) get the
+ * same columns as a plain table, which is why this migration is not plain SQL.
+ */
+public class V4__create_payment_transactions extends BaseJavaMigration {
+
+    private static final String COLUMNS = "("
+        + "transaction_id BIGINT NOT NULL, "
+        + "created_at TIMESTAMP WITH TIME ZONE NOT NULL, "
+        + "operation VARCHAR(20) NOT NULL, "
+        + "gateway VARCHAR(30) NOT NULL, "
+        + "provider_ref VARCHAR(255), "
+        + "order_id VARCHAR(100), "
+        + "customer_id VARCHAR(100), "
+        + "status VARCHAR(30) NOT NULL, "
+        + "amount NUMERIC(19, 4), "
+        + "currency VARCHAR(3), "
+        + "error_code VARCHAR(100), "
+        + "correlation_id VARCHAR(64), "
+        + "PRIMARY KEY (transaction_id, created_at))";
+
+    private static final List<String> POSTGRESQL = List.of(
+        "CREATE TABLE payment_transactions " + COLUMNS + " PARTITION BY RANGE (created_at)",
+        "CREATE TABLE payment_transactions_default PARTITION OF payment_transactions DEFAULT",
+        // Customer history in keyset cursor order, newest first, answered from the index alone
+        "CREATE INDEX idx_payment_transactions_customer ON payment_transactions "
+            + "(customer_id, created_at DESC, transaction_id DESC) "
+            + "INCLUDE (operation, gateway, provider_ref, order_id, status, amount, currency)",
+        // History across all customers (admin), same cursor order
+        "CREATE INDEX idx_payment_transactions_created ON payment_transactions (created_at DESC, transaction_id DESC)",
+        // Status lookups by the gateway's own transaction, refund or payout ID
+        "CREATE INDEX idx_payment_transactions_provider_ref ON payment_transactions (provider_ref) "
+            + "INCLUDE (gateway, status, amount, currency, customer_id)"
+    );
+
+    private static final List<String> PORTABLE = List.of(
+        "CREATE TABLE payment_transactions " + COLUMNS,
+        "CREATE INDEX idx_payment_transactions_customer ON payment_transactions "
+            + "(customer_id, created_at DESC, transaction_id DESC)",
+        "CREATE INDEX idx_payment_transactions_created ON payment_transactions (created_at DESC, transaction_id DESC)",
+        "CREATE INDEX idx_payment_transactions_provider_ref ON payment_transactions (provider_ref)"
+    );
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : postgres ? POSTGRESQL : PORTABLE) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
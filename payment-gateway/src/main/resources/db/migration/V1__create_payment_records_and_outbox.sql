@@ -0,0 +1,31 @@
+-- Local record of every payment, refund and payout outcome returned by a gateway
+CREATE TABLE payment_records (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    operation VARCHAR(20) NOT NULL,
+    gateway VARCHAR(30) NOT NULL,
+    gateway_reference VARCHAR(255),
+    order_id VARCHAR(100),
+    party_id VARCHAR(100),
+    status VARCHAR(30) NOT NULL,
+    amount NUMERIC(19, 4),
+    currency VARCHAR(3),
+    error_code VARCHAR(100),
+    correlation_id VARCHAR(64),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_payment_records_order_id ON payment_records (order_id);
+CREATE INDEX idx_payment_records_gateway_reference ON payment_records (gateway, gateway_reference);
+
+-- Transactional outbox: written in the same transaction as payment_records,
+-- drained to Kafka by the outbox relay. Rows are deleted once published, so
+-- the table stays small and the primary key is the only index the relay needs.
+CREATE TABLE payment_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_id BIGINT NOT NULL,
+    aggregate_key VARCHAR(255) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    correlation_id VARCHAR(64),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,53 @@
+-- Batch payout runs. Items are stored when a batch is submitted, so a run
+-- that dies part way knows exactly what was asked for and can resume.
+-- item_digest is a SHA-256 of the submitted payouts, so submitting a batch ID
+-- again with a different list of payouts is refused.
+CREATE TABLE payout_batches (
+    batch_id VARCHAR(40) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    item_count INT NOT NULL,
+    item_digest CHAR(64) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+-- One row per (gateway, currency) partition of a batch. next_item is the
+-- checkpoint: every item of the partition below it has been paid or failed.
+-- It is advanced in the same transaction as the item outcomes of each chunk.
+CREATE TABLE payout_batch_partitions (
+    batch_id VARCHAR(40) NOT NULL,
+    gateway VARCHAR(30) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    item_count INT NOT NULL,
+    total_amount NUMERIC(19, 4) NOT NULL,
+    next_item INT NOT NULL DEFAULT 0,
+    paid_count INT NOT NULL DEFAULT 0,
+    failed_count INT NOT NULL DEFAULT 0,
+    paid_amount NUMERIC(19, 4) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (batch_id, gateway, currency)
+);
+
+CREATE TABLE payout_batch_items (
+    batch_id VARCHAR(40) NOT NULL,
+    item_index INT NOT NULL,
+    gateway VARCHAR(30) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    vendor_id VARCHAR(100) NOT NULL,
+    amount NUMERIC(19, 4) NOT NULL,
+    description VARCHAR(255),
+    payout_type VARCHAR(50),
+    account_number VARCHAR(34),
+    account_name VARCHAR(100),
+    bank_code VARCHAR(20),
+    routing_number VARCHAR(20),
+    recipient_code VARCHAR(64),
+    status VARCHAR(20) NOT NULL,
+    payout_id VARCHAR(255),
+    error_code VARCHAR(100),
+    PRIMARY KEY (batch_id, item_index)
+);
+
+-- Chunks are read per partition, in item order, from the checkpoint on
+CREATE INDEX idx_payout_batch_items_partition ON payout_batch_items (batch_id, gateway, currency, item_index);
@@ -0,0 +1,27 @@
+-- Monthly warehouse billing runs
+CREATE TABLE billing_runs (
+    run_id VARCHAR(40) PRIMARY KEY,
+    period VARCHAR(7) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+-- Per-customer checkpoint of a run. The invoice ID is fixed when the row is
+-- first written and keys the charge, so a customer re-sent by a resumed run
+-- is not charged twice. PAID, FAILED and NOTHING_DUE rows are final.
+-- AWAITING_PAYMENT rows hold an accepted charge that has not settled; the
+-- next run checks it by transaction_id instead of charging again.
+CREATE TABLE billing_run_customers (
+    run_id VARCHAR(40) NOT NULL,
+    customer_id VARCHAR(100) NOT NULL,
+    billing_type VARCHAR(20) NOT NULL,
+    invoice_id VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    amount NUMERIC(19, 4),
+    currency VARCHAR(3),
+    transaction_id VARCHAR(255),
+    error_code VARCHAR(100),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (run_id, customer_id, billing_type)
+);
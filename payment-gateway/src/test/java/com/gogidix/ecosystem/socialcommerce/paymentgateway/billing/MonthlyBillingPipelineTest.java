@@ -0,0 +1,443 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.billing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentStatus;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.LatencyDistribution;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulationProfile;
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Monthly Billing Pipeline Test Suite
+ *
+ * Runs the pipeline against H2 (Flyway schema) with a fake gateway that
+ * records every charge it is sent. Crashes are simulated by an Error thrown
+ * from inside the gateway, which aborts the run with the charge in flight
+ * left unrecorded.
+ *
+ * PERFORMANCE TESTING: Staged, checkpointed billing run
+ * - Tests dry runs charge a private simulator that sends no webhooks and store nothing
+ * - Tests usage is summed per line and invoices rounded to the currency's minor unit
+ * - Tests a slow payment stage blocks the earlier stages instead of letting work pile up
+ * - Tests reruns skip settled accounts and charge the rest with the same idempotency keys
+ * - Tests pending charges are only marked paid once the gateway reports them settled
+ * - Tests a charge Paystack reports abandoned stays awaiting payment at the amount first invoiced
+ */
+@DisplayName("Monthly Billing Pipeline Tests")
+class MonthlyBillingPipelineTest {
+
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+    private static final YearMonth PERIOD = YearMonth.of(2026, 9);
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private RegionalPaymentRouter router;
+    private FakeGateway gateway;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:billing" + TEST_SEQUENCE.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        registry = new SimpleMeterRegistry();
+
+        gateway = new FakeGateway();
+        router = mock(RegionalPaymentRouter.class);
+        when(router.selectGatewayByCurrency(any())).thenReturn(gateway.mock);
+    }
+
+    // ==================== DRY RUN ====================
+
+    @Test
+    @DisplayName("Should invoice and charge the simulator on a dry run without storing anything")
+    void shouldDryRunAgainstSimulator() {
+        MonthlyBillingPipeline pipeline = pipeline(2, 1, 2, 16);
+        List<BillingAccount> accounts = accounts(10, "usd");
+
+        BillingRunSummary summary = pipeline.run("warehouse-billing-dry", PERIOD, accounts, flatUsage("12.50"), true);
+
+        assertEquals(BillingRunSummary.Status.DRY_RUN, summary.status());
+        assertEquals(10, summary.paid());
+        assertEquals(0, summary.remaining());
+        assertEquals(new BigDecimal("125.00"), summary.invoiced().get("USD"));
+        assertEquals(new BigDecimal("125.00"), summary.charged().get("USD"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM billing_runs", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM billing_run_customers", Integer.class));
+        verifyNoInteractions(router);
+    }
+
+    @Test
+    @DisplayName("Should dry run with the simulation profile's behaviour but send no webhooks")
+    void shouldDryRunWithoutWebhooks() throws Exception {
+        AtomicInteger webhooks = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            webhooks.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            MonthlyBillingPipeline pipeline = pipeline(2, 1, 2, 16);
+            ReflectionTestUtils.setField(pipeline, "simulationProfile", new SimulationProfile(7,
+                LatencyDistribution.fixed(Duration.ZERO), 1.0, 0, 0, Duration.ofSeconds(1),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/webhooks/",
+                LatencyDistribution.fixed(Duration.ZERO)));
+
+            BillingRunSummary summary = pipeline.run("warehouse-billing-dry", PERIOD, accounts(5, "USD"),
+                flatUsage("10"), true);
+            Thread.sleep(100);
+
+            assertEquals(5, summary.failed(), "every charge declined, as the profile says");
+            assertEquals(0, webhooks.get());
+            verifyNoInteractions(router);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    // ==================== INVOICING ====================
+
+    @Test
+    @DisplayName("Should sum usage per line, round to the minor unit and skip accounts with nothing due")
+    void shouldComputeInvoices() {
+        MonthlyBillingPipeline pipeline = pipeline(2, 2, 2, 16);
+        BillingAccount storage = new BillingAccount("cust-1", "one@example.com", BillingAccount.Type.STORAGE, "usd", "pm_1");
+        BillingAccount selfStorage = new BillingAccount("cust-1", "one@example.com", BillingAccount.Type.SELF_STORAGE, "JPY", null);
+        BillingAccount idle = new BillingAccount("cust-2", "two@example.com", BillingAccount.Type.SUBSCRIPTION, "EUR", null);
+        BillingUsageSource usage = (account, period) -> switch (account.billingType()) {
+            case STORAGE -> List.of(
+                new UsageRecord("Pallet storage", new BigDecimal("10"), new BigDecimal("1.005")),
+                new UsageRecord("Pallet storage", new BigDecimal("5"), new BigDecimal("1.0050")),
+                new UsageRecord("Handling", new BigDecimal("1"), new BigDecimal("0.00")));
+            case SELF_STORAGE -> List.of(new UsageRecord("Unit rental", new BigDecimal("3"), new BigDecimal("99.5")));
+            case SUBSCRIPTION -> List.of();
+        };
+
+        BillingRunSummary summary = pipeline.run("warehouse-billing-2026-09", PERIOD, List.of(storage, selfStorage, idle),
+            usage, false);
+
+        assertEquals(BillingRunSummary.Status.COMPLETED, summary.status());
+        assertEquals(2, summary.paid());
+        assertEquals(1, summary.nothingDue());
+        assertEquals(Map.of("USD", new BigDecimal("15.08"), "JPY", new BigDecimal("299")), summary.charged());
+
+        PaymentRequest usd = gateway.request("cust-1", "USD");
+        assertEquals(15.08, usd.getAmount());
+        assertEquals("pm_1", usd.getPaymentMethod());
+        assertEquals("STORAGE", usd.getMetadata().get("billing_type"));
+        String invoiceId = jdbcTemplate.queryForObject("SELECT invoice_id FROM billing_run_customers "
+            + "WHERE customer_id = 'cust-1' AND billing_type = 'STORAGE'", String.class);
+        assertEquals("invoice_" + invoiceId, usd.getIdempotencyKey());
+        assertEquals("WAREHOUSE_BILLING_" + invoiceId, usd.getOrderId());
+        assertEquals(299.0, gateway.request("cust-1", "JPY").getAmount());
+
+        assertEquals("PAID", status("cust-1", "STORAGE"));
+        assertEquals("txn_invoice_" + invoiceId, jdbcTemplate.queryForObject("SELECT transaction_id FROM "
+            + "billing_run_customers WHERE customer_id = 'cust-1' AND billing_type = 'STORAGE'", String.class));
+        assertEquals("NOTHING_DUE", status("cust-2", "SUBSCRIPTION"));
+        assertEquals("COMPLETED", jdbcTemplate.queryForObject(
+            "SELECT status FROM billing_runs WHERE run_id = 'warehouse-billing-2026-09'", String.class));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> pipeline.run("dupes", PERIOD, List.of(storage, storage), usage, false));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.run("bad id", PERIOD, List.of(), usage, false));
+    }
+
+    // ==================== BACKPRESSURE ====================
+
+    @Test
+    @DisplayName("Should hold back usage aggregation while the payment stage is behind")
+    void shouldApplyBackpressure() {
+        int queueCapacity = 2;
+        MonthlyBillingPipeline pipeline = pipeline(2, 1, 1, queueCapacity);
+        gateway.delayMillis = 5;
+        AtomicInteger usageRead = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        gateway.onCharge = () -> maxAhead.accumulateAndGet(usageRead.get() - gateway.sent.size(), Math::max);
+        BillingUsageSource usage = (account, period) -> {
+            usageRead.incrementAndGet();
+            return List.of(new UsageRecord("Storage", BigDecimal.ONE, BigDecimal.TEN));
+        };
+
+        BillingRunSummary summary = pipeline.run("backpressure", PERIOD, accounts(40, "USD"), usage, false);
+
+        assertEquals(40, summary.paid());
+        // Two queues, plus one account in the hands of each aggregation and invoicing worker
+        int bound = 2 * queueCapacity + 2 + 1;
+        assertTrue(maxAhead.get() <= bound, "usage read " + maxAhead.get() + " accounts ahead of charging");
+        BillingStageSummary invoice = summary.stages().get(1);
+        assertEquals(MonthlyBillingPipeline.INVOICE_STAGE, invoice.stage());
+        assertTrue(invoice.blocked().toNanos() > 0, "invoicing waited on the payment stage");
+        assertTrue(registry.get(MonthlyBillingPipeline.STAGE_BLOCKED_METRIC).tag("stage", "invoice").timer().count() > 0);
+        assertEquals(40, registry.get(MonthlyBillingPipeline.STAGE_METRIC).tag("stage", "submit").timer().count());
+        assertTrue(summary.stages().get(2).throughput() > 0);
+    }
+
+    // ==================== RESUME ====================
+
+    @Test
+    @DisplayName("Should leave transient failures for the next run and not retry declines")
+    void shouldResumeAfterTransientFailure() {
+        MonthlyBillingPipeline pipeline = pipeline(2, 1, 2, 16);
+        List<BillingAccount> accounts = accounts(6, "USD");
+        gateway.unreachableCustomer = "cust-2";
+        gateway.declinedCustomer = "cust-4";
+
+        BillingRunSummary first = pipeline.run("resume-test", PERIOD, accounts, flatUsage("20"), false);
+
+        assertEquals(BillingRunSummary.Status.INCOMPLETE, first.status());
+        assertEquals(4, first.paid());
+        assertEquals(1, first.failed());
+        assertEquals(1, first.remaining());
+        assertEquals("INVOICED", status("cust-2", "STORAGE"));
+        assertEquals("CARD_DECLINED", jdbcTemplate.queryForObject("SELECT error_code FROM billing_run_customers "
+            + "WHERE customer_id = 'cust-4'", String.class));
+        assertEquals(1, registry.get(MonthlyBillingPipeline.STAGE_FAILURES_METRIC).tag("stage", "submit").counter().count());
+
+        gateway.unreachableCustomer = null;
+        BillingRunSummary second = pipeline.run("resume-test", PERIOD, accounts, flatUsage("20"), false);
+
+        assertEquals(BillingRunSummary.Status.COMPLETED, second.status());
+        assertEquals(5, second.skipped());
+        assertEquals(1, second.paid());
+        List<String> keys = gateway.keys("cust-2");
+        assertEquals(2, keys.size());
+        assertEquals(keys.get(0), keys.get(1), "charged again with the same idempotency key");
+        assertEquals(1, gateway.keys("cust-4").size(), "declines are not retried");
+        assertEquals(7, gateway.sent.size());
+    }
+
+    @Test
+    @DisplayName("Should keep pending charges awaiting payment and settle them by status on the next run")
+    void shouldSettlePendingChargesByStatus() {
+        MonthlyBillingPipeline pipeline = pipeline(2, 1, 2, 16);
+        List<BillingAccount> accounts = accounts(6, "NGN");
+        gateway.statuses.put("cust-1", "PENDING");
+        gateway.statuses.put("cust-3", "REQUIRES_ACTION");
+
+        BillingRunSummary first = pipeline.run("pending-test", PERIOD, accounts, flatUsage("1500"), false);
+
+        assertEquals(BillingRunSummary.Status.INCOMPLETE, first.status());
+        assertEquals(4, first.paid());
+        assertEquals(2, first.awaitingPayment());
+        assertEquals(0, first.remaining());
+        assertEquals(new BigDecimal("6000.00"), first.charged().get("NGN"));
+        assertEquals("AWAITING_PAYMENT", status("cust-1", "STORAGE"));
+        assertEquals("AWAITING_PAYMENT", status("cust-3", "STORAGE"));
+
+        // Settled by the customer (cust-1) and abandoned (cust-3) since
+        gateway.statuses.put("cust-1", "COMPLETED");
+        gateway.statuses.put("cust-3", "FAILED");
+        BillingRunSummary second = pipeline.run("pending-test", PERIOD, accounts, flatUsage("1500"), false);
+
+        assertEquals(BillingRunSummary.Status.COMPLETED, second.status());
+        assertEquals(4, second.skipped());
+        assertEquals(1, second.paid());
+        assertEquals(1, second.failed());
+        assertEquals(6, gateway.sent.size(), "pending charges are checked, not charged again");
+        assertEquals("PAID", status("cust-1", "STORAGE"));
+        assertEquals("PAYMENT_FAILED", jdbcTemplate.queryForObject("SELECT error_code FROM billing_run_customers "
+            + "WHERE customer_id = 'cust-3'", String.class));
+    }
+
+    @Test
+    @DisplayName("Should keep an abandoned charge awaiting payment and count it at the amount it was invoiced")
+    void shouldKeepAbandonedChargeAwaitingPayment() {
+        MonthlyBillingPipeline pipeline = pipeline(1, 1, 1, 4);
+        List<BillingAccount> accounts = accounts(2, "NGN");
+        gateway.statuses.put("cust-1", "PENDING");
+
+        BillingRunSummary first = pipeline.run("abandoned-test", PERIOD, accounts, flatUsage("1500"), false);
+
+        assertEquals(1, first.awaitingPayment());
+        assertEquals("AWAITING_PAYMENT", status("cust-1", "STORAGE"));
+
+        // Paystack maps its abandoned status to CANCELLED; for an open invoice it only means not paid yet
+        gateway.statuses.put("cust-1", "CANCELLED");
+        gateway.gatewayStatuses.put("cust-1", "abandoned");
+        BillingRunSummary second = pipeline.run("abandoned-test", PERIOD, accounts, flatUsage("2000"), false);
+
+        assertEquals(BillingRunSummary.Status.INCOMPLETE, second.status());
+        assertEquals(1, second.awaitingPayment());
+        assertEquals(0, second.failed());
+        assertEquals("AWAITING_PAYMENT", status("cust-1", "STORAGE"));
+
+        // Usage changed since the charge was made; the summary reports what was charged
+        gateway.statuses.put("cust-1", "COMPLETED");
+        gateway.gatewayStatuses.put("cust-1", "success");
+        BillingRunSummary third = pipeline.run("abandoned-test", PERIOD, accounts, flatUsage("2000"), false);
+
+        assertEquals(BillingRunSummary.Status.COMPLETED, third.status());
+        assertEquals(1, third.paid());
+        assertEquals(new BigDecimal("1500.00"), third.invoiced().get("NGN"));
+        assertEquals(new BigDecimal("1500.00"), third.charged().get("NGN"));
+        assertEquals(2, gateway.sent.size(), "the abandoned charge is checked, not charged again");
+        assertEquals(0, new BigDecimal("1500").compareTo(jdbcTemplate.queryForObject(
+            "SELECT amount FROM billing_run_customers WHERE customer_id = 'cust-1'", BigDecimal.class)));
+    }
+
+    @Test
+    @DisplayName("Should resume a crashed run without charging settled accounts again")
+    void shouldResumeAfterCrash() {
+        MonthlyBillingPipeline pipeline = pipeline(1, 1, 1, 4);
+        List<BillingAccount> accounts = accounts(30, "USD");
+        gateway.crashCustomer = "cust-9";
+
+        BillingRunSummary crashed = pipeline.run("crash-test", PERIOD, accounts, flatUsage("5"), false);
+
+        assertEquals(BillingRunSummary.Status.INCOMPLETE, crashed.status());
+        assertEquals(9, crashed.paid());
+        assertEquals(21, crashed.remaining());
+        assertEquals("INCOMPLETE", jdbcTemplate.queryForObject(
+            "SELECT status FROM billing_runs WHERE run_id = 'crash-test'", String.class));
+
+        gateway.crashCustomer = null;
+        BillingRunSummary resumed = pipeline.run("crash-test", PERIOD, accounts, flatUsage("5"), false);
+
+        assertEquals(BillingRunSummary.Status.COMPLETED, resumed.status());
+        assertEquals(9, resumed.skipped());
+        assertEquals(21, resumed.paid());
+        assertEquals(new BigDecimal("105.00"), resumed.charged().get("USD"));
+        assertEquals(30, new HashSet<>(gateway.keys(null)).size());
+        assertEquals(31, gateway.sent.size(), "only the charge in flight was sent again");
+        assertEquals(30, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM billing_run_customers WHERE status = 'PAID'", Integer.class));
+    }
+
+    // ==================== HELPERS ====================
+
+    private MonthlyBillingPipeline pipeline(int aggregation, int invoice, int submission, int queueCapacity) {
+        return new MonthlyBillingPipeline(jdbcTemplate, transactionManager, router, new SnowflakeIdGenerator(1),
+            new ObjectMapper(), registry, aggregation, invoice, submission, queueCapacity, 0);
+    }
+
+    private static List<BillingAccount> accounts(int count, String currency) {
+        List<BillingAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            accounts.add(new BillingAccount("cust-" + i, "cust-" + i + "@example.com", BillingAccount.Type.STORAGE,
+                currency, null));
+        }
+        return accounts;
+    }
+
+    private static BillingUsageSource flatUsage(String amount) {
+        return (account, period) -> List.of(new UsageRecord("Storage", BigDecimal.ONE, new BigDecimal(amount)));
+    }
+
+    private String status(String customerId, String billingType) {
+        return jdbcTemplate.queryForObject("SELECT status FROM billing_run_customers WHERE customer_id = ? "
+            + "AND billing_type = ?", String.class, customerId, billingType);
+    }
+
+    /**
+     * Records every charge it is sent
+     */
+    private static final class FakeGateway {
+
+        final PaymentGateway mock = mock(PaymentGateway.class);
+        final Queue<PaymentRequest> sent = new ConcurrentLinkedQueue<>();
+        final Map<String, Boolean> crashed = new ConcurrentHashMap<>();
+        volatile long delayMillis;
+        volatile Runnable onCharge = () -> { };
+        volatile String unreachableCustomer;
+        volatile String declinedCustomer;
+        volatile String crashCustomer;
+        // Status reported for a customer's charge, COMPLETED if absent
+        final Map<String, String> statuses = new ConcurrentHashMap<>();
+        // Gateway's own status word for a customer's charge, if any
+        final Map<String, String> gatewayStatuses = new ConcurrentHashMap<>();
+        final Map<String, String> customers = new ConcurrentHashMap<>();
+
+        FakeGateway() {
+            when(mock.getName()).thenReturn("STRIPE");
+            when(mock.processPayment(any())).thenAnswer(invocation -> {
+                PaymentRequest request = invocation.getArgument(0);
+                sent.add(request);
+                onCharge.run();
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                String customer = request.getCustomerId();
+                if (customer.equals(crashCustomer) && crashed.putIfAbsent(customer, true) == null) {
+                    throw new OutOfMemoryError("simulated crash");
+                }
+                if (customer.equals(unreachableCustomer)) {
+                    throw new ResourceAccessException("Connection refused");
+                }
+                if (customer.equals(declinedCustomer)) {
+                    throw new PaymentProcessingException("Card declined", "CARD_DECLINED", "STRIPE");
+                }
+                customers.put("txn_" + request.getIdempotencyKey(), customer);
+                return PaymentResponse.builder()
+                    .transactionId("txn_" + request.getIdempotencyKey())
+                    .status(statuses.getOrDefault(customer, "COMPLETED"))
+                    .amount(request.getAmount())
+                    .currency(request.getCurrency())
+                    .gateway("STRIPE")
+                    .build();
+            });
+            when(mock.getPaymentStatus(any())).thenAnswer(invocation -> {
+                String transactionId = invocation.getArgument(0);
+                String customer = customers.get(transactionId);
+                return PaymentStatus.builder()
+                    .transactionId(transactionId)
+                    .status(statuses.getOrDefault(customer, "COMPLETED"))
+                    .gatewayStatus(gatewayStatuses.get(customer))
+                    .gateway("STRIPE")
+                    .build();
+            });
+        }
+
+        PaymentRequest request(String customerId, String currency) {
+            return sent.stream()
+                .filter(r -> r.getCustomerId().equals(customerId) && r.getCurrency().equals(currency))
+                .findFirst()
+                .orElseThrow();
+        }
+
+        List<String> keys(String customerId) {
+            return sent.stream()
+                .filter(r -> customerId == null || r.getCustomerId().equals(customerId))
+                .map(PaymentRequest::getIdempotencyKey)
+                .toList();
+        }
+    }
+}
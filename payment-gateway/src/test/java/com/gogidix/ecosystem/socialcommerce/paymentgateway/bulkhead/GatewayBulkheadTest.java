@@ -0,0 +1,280 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.GatewayOverloadedException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.GatewaySimulator;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.LatencyDistribution;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulatedLedger;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulatedPaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.SimulationProfile;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.WebhookDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Gateway Bulkhead Test Suite
+ *
+ * PERFORMANCE TESTING: Adaptive per-gateway concurrency limits
+ * - Tests the limit shrinks when provider latency jumps and grows back after
+ * - Tests admission never exceeds the limit under contention
+ * - Tests calls over the limit against the simulated slow gateway fail fast and
+ *   retryable, while another gateway keeps serving
+ * - Tests limit, in-flight and rejection metrics per gateway
+ */
+@DisplayName("Gateway Bulkhead Tests")
+class GatewayBulkheadTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final WebhookDispatcher webhooks = new WebhookDispatcher();
+    private final ExecutorService callers = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        webhooks.close();
+    }
+
+    // ==================== LIMIT ====================
+
+    @Test
+    @DisplayName("Should cut the limit when latency jumps from 300 ms to 5 s and recover afterwards")
+    void shouldAdaptToLatency() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(BulkheadSettings.DEFAULTS, clock::get);
+
+        for (int i = 0; i < 30; i++) {
+            round(limit, 300);
+        }
+        int steady = limit.getLimit();
+        assertTrue(steady > BulkheadSettings.DEFAULTS.initialLimit(), "probes upwards while latency is stable");
+        assertEquals(300, limit.getBaselineRttNanos() / 1_000_000, 1);
+
+        round(limit, 5_000);
+        assertTrue(limit.getLimit() <= steady * 3 / 4, "first slow window cuts the limit at once");
+        for (int i = 0; i < 10; i++) {
+            round(limit, 5_000);
+        }
+        assertTrue(limit.getLimit() <= 6, "slow provider holds only a handful of threads, got " + limit.getLimit());
+        assertTrue(limit.getLimit() >= BulkheadSettings.DEFAULTS.minLimit());
+
+        int slow = limit.getLimit();
+        for (int i = 0; i < 60; i++) {
+            round(limit, 300);
+        }
+        assertTrue(limit.getLimit() > slow * 2, "limit grows back once the provider recovers");
+    }
+
+    @Test
+    @DisplayName("Should not raise the limit while the gateway is barely used")
+    void shouldIgnoreAppLimitedWindows() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(BulkheadSettings.DEFAULTS, clock::get);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limit.tryAcquire());
+            long start = limit.now();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            limit.release(start);
+        }
+
+        assertEquals(BulkheadSettings.DEFAULTS.initialLimit(), limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should never admit more calls than the limit under contention")
+    void shouldBoundConcurrency() throws Exception {
+        BulkheadSettings fixed = new BulkheadSettings(8, 8, 8, Duration.ofSeconds(1), 10, 60, 1.5, 0.2);
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(fixed);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            workers.add(callers.submit(() -> {
+                start.await();
+                for (int i = 0; i < 5_000; i++) {
+                    if (limit.tryAcquire()) {
+                        long began = limit.now();
+                        peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        admitted.incrementAndGet();
+                        active.decrementAndGet();
+                        limit.release(began);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(peak.get() <= 8, "peak concurrency " + peak.get());
+        assertEquals(16 * 5_000, admitted.get() + limit.getRejections());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    // ==================== BULKHEAD ====================
+
+    @Test
+    @DisplayName("Should reject calls over the limit of the slow simulated gateway at once, and keep other gateways serving")
+    void shouldFailFastOnSlowGateway() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GatewayBulkheads bulkheads = new GatewayBulkheads(registry, new MockEnvironment()
+            .withProperty("payment.bulkhead.gateways.simulated.initial-limit", "4")
+            .withProperty("payment.bulkhead.gateways.simulated.max-limit", "4"));
+
+        PaymentGateway slow = bulkheads.protect(slowGateway(Duration.ofMillis(300)));
+        PaymentGateway fast = mock(PaymentGateway.class);
+        when(fast.getName()).thenReturn("STRIPE");
+        when(fast.processPayment(any())).thenReturn(PaymentResponse.builder().transactionId("pi_1").build());
+        PaymentGateway stripe = bulkheads.protect(fast);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> calls = new ArrayList<>();
+        AtomicInteger approved = new AtomicInteger();
+        for (int i = 0; i < 12; i++) {
+            String orderId = "ORDER_" + i;
+            calls.add(callers.submit(() -> {
+                start.await();
+                long began = System.nanoTime();
+                try {
+                    slow.processPayment(request(orderId));
+                    approved.incrementAndGet();
+                    return -1L;
+                } catch (GatewayOverloadedException e) {
+                    assertTrue(e.isRetryable());
+                    assertEquals(GatewayOverloadedException.ERROR_CODE, e.getErrorCode());
+                    assertEquals(SimulatedPaymentGateway.NAME, e.getGatewayName());
+                    return System.nanoTime() - began;
+                }
+            }));
+        }
+        start.countDown();
+
+        // While the simulator holds its four slots, Stripe is unaffected
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals("pi_1", stripe.processPayment(request("ORDER_STRIPE")).getTransactionId());
+
+        int rejected = 0;
+        for (Future<Long> call : calls) {
+            long rejectedAfter = call.get(10, TimeUnit.SECONDS);
+            if (rejectedAfter >= 0) {
+                rejected++;
+                assertTrue(rejectedAfter < TimeUnit.MILLISECONDS.toNanos(100),
+                    "rejection waited " + TimeUnit.NANOSECONDS.toMillis(rejectedAfter) + " ms");
+            }
+        }
+        assertEquals(4, approved.get());
+        assertEquals(8, rejected);
+
+        assertEquals(4.0, registry.get(GatewayBulkheads.LIMIT_METRIC).tag("gateway", "SIMULATED").gauge().value());
+        assertEquals(0.0, registry.get(GatewayBulkheads.INFLIGHT_METRIC).tag("gateway", "SIMULATED").gauge().value());
+        assertEquals(8.0, registry.get(GatewayBulkheads.REJECTIONS_METRIC)
+            .tag("gateway", "SIMULATED").functionCounter().count());
+        assertEquals(0.0, registry.get(GatewayBulkheads.REJECTIONS_METRIC)
+            .tag("gateway", "STRIPE").functionCounter().count());
+        assertEquals(20.0, registry.get(GatewayBulkheads.LIMIT_METRIC).tag("gateway", "STRIPE").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should share one limit per gateway name and release slots on failures")
+    void shouldShareLimitAndReleaseOnFailure() {
+        GatewayBulkheads bulkheads = new GatewayBulkheads(new SimpleMeterRegistry(), new MockEnvironment());
+        PaymentGateway delegate = mock(PaymentGateway.class);
+        when(delegate.getName()).thenReturn("PAYSTACK");
+        when(delegate.processPayment(any())).thenThrow(new IllegalArgumentException("Payment amount must be positive"));
+
+        BulkheadPaymentGateway first = (BulkheadPaymentGateway) bulkheads.protect(delegate);
+        BulkheadPaymentGateway second = (BulkheadPaymentGateway) bulkheads.protect(delegate);
+        assertSame(first.getLimit(), second.getLimit());
+        assertSame(first, bulkheads.protect(first));
+
+        for (int i = 0; i < 100; i++) {
+            assertThrows(IllegalArgumentException.class, () -> first.processPayment(request("ORDER_X")));
+        }
+        assertEquals(0, first.getLimit().getInFlight());
+        assertEquals(0, first.getLimit().getRejections());
+        assertEquals(Set.of("PAYSTACK"), bulkheads.getLimits().keySet());
+    }
+
+    @Test
+    @DisplayName("Should release slots on Errors and answer availability checks without a slot")
+    void shouldReleaseOnErrorsAndExemptAvailability() {
+        GatewayBulkheads bulkheads = new GatewayBulkheads(new SimpleMeterRegistry(), new MockEnvironment());
+        PaymentGateway delegate = mock(PaymentGateway.class);
+        when(delegate.getName()).thenReturn("PAYSTACK");
+        when(delegate.getPaymentStatus(any())).thenThrow(new StackOverflowError());
+        when(delegate.isAvailable()).thenReturn(true);
+
+        BulkheadPaymentGateway gateway = (BulkheadPaymentGateway) bulkheads.protect(delegate);
+        for (int i = 0; i < 100; i++) {
+            assertThrows(StackOverflowError.class, () -> gateway.getPaymentStatus("PAYSTACK_1"));
+        }
+        assertEquals(0, gateway.getLimit().getInFlight());
+
+        AdaptiveConcurrencyLimit limit = gateway.getLimit();
+        int slots = limit.getLimit();
+        for (int i = 0; i < slots; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertTrue(gateway.isAvailable(), "a full bulkhead must not make the gateway look down");
+        assertEquals(0, limit.getRejections());
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Fill every slot, let {@code rttMillis} pass, release them all
+     */
+    private void round(AdaptiveConcurrencyLimit limit, long rttMillis) {
+        int slots = limit.getLimit();
+        long start = limit.now();
+        for (int i = 0; i < slots; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire(), "limit is enforced");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        for (int i = 0; i < slots; i++) {
+            limit.release(start);
+        }
+    }
+
+    private SimulatedPaymentGateway slowGateway(Duration latency) {
+        LatencyDistribution fixed = LatencyDistribution.fixed(latency);
+        SimulationProfile profile = new SimulationProfile(
+            1, fixed, 0, 0, 0, Duration.ofSeconds(30), null, LatencyDistribution.fixed(Duration.ZERO));
+        return new SimulatedPaymentGateway(new GatewaySimulator(profile), new SimulatedLedger(100), webhooks,
+            new ObjectMapper(), "test-webhook-secret", Set.of());
+    }
+
+    private static PaymentRequest request(String orderId) {
+        return PaymentRequest.builder()
+            .orderId(orderId)
+            .amount(25.0)
+            .currency("USD")
+            .build();
+    }
+}
@@ -0,0 +1,376 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.controller.PaymentController;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentMethodsResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentMetrics;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.methods.SupportedMethodsCatalog;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unified Payment Client Test Suite
+ *
+ * Runs the client against a mocked PaymentController in-process and against
+ * a loopback HTTP stub of the same endpoint.
+ *
+ * PERFORMANCE TESTING: Co-located transport
+ * - Tests base URLs addressing this instance are detected, and nothing else is
+ * - Tests AUTO picks in-process only once the server port is known
+ * - Tests in-process calls run as the caller and fail like HTTP calls: 400, 401, 403
+ * - Tests supported methods are revalidated with If-None-Match and served from cache on 304
+ * - Tests HTTP calls forward the caller's bearer token, or the service token outside a request
+ * - Benchmarks per-call latency of in-process dispatch against loopback HTTP
+ */
+@DisplayName("Unified Payment Client Tests")
+class UnifiedPaymentClientTest {
+
+    private static final int SERVER_PORT = 8086;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PaymentController controller;
+    private PermissionEvaluator permissionEvaluator;
+    private InProcessPaymentTransport inProcess;
+
+    @BeforeEach
+    void setUp() {
+        controller = mock(PaymentController.class);
+        permissionEvaluator = mock(PermissionEvaluator.class);
+        inProcess = new InProcessPaymentTransport(controller, permissionEvaluator,
+            Validation.buildDefaultValidatorFactory().getValidator(), objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ==================== TRANSPORT SELECTION ====================
+
+    @Test
+    @DisplayName("Should recognise base URLs that address this instance")
+    void shouldDetectColocatedBaseUrl() {
+        assertTrue(InProcessPaymentTransport.targetsLocalServer("http://localhost:8086", 8086, ""));
+        assertTrue(InProcessPaymentTransport.targetsLocalServer("http://127.0.0.1:8086/", 8086, null));
+        assertTrue(InProcessPaymentTransport.targetsLocalServer("http://[::1]:8086", 8086, ""));
+        assertTrue(InProcessPaymentTransport.targetsLocalServer("https://localhost", 443, ""));
+        assertTrue(InProcessPaymentTransport.targetsLocalServer("http://localhost:8086/gateway", 8086, "/gateway/"));
+
+        assertFalse(InProcessPaymentTransport.targetsLocalServer("http://localhost:9000", 8086, ""));
+        assertFalse(InProcessPaymentTransport.targetsLocalServer("http://localhost:8086", 8086, "/gateway"));
+        assertFalse(InProcessPaymentTransport.targetsLocalServer("http://payments.invalid:8086", 8086, ""));
+        assertFalse(InProcessPaymentTransport.targetsLocalServer("http://10.255.255.1:8086", 8086, ""));
+        assertFalse(InProcessPaymentTransport.targetsLocalServer("not a url", 8086, ""));
+    }
+
+    @Test
+    @DisplayName("Should go in-process only when pointed at this server, once its port is known")
+    void shouldSelectTransport() {
+        MockEnvironment environment = new MockEnvironment();
+        UnifiedPaymentClient client = client("http://localhost:8086", PaymentTransport.Mode.AUTO, environment);
+
+        assertEquals(PaymentTransport.Mode.HTTP, client.transport().mode(), "port not known yet");
+        environment.setProperty("local.server.port", String.valueOf(SERVER_PORT));
+        assertEquals(PaymentTransport.Mode.IN_PROCESS, client.transport().mode());
+
+        assertEquals(PaymentTransport.Mode.HTTP,
+            client("http://payment-gateway.invalid:8086", PaymentTransport.Mode.AUTO, serverEnvironment()).transport().mode());
+        assertEquals(PaymentTransport.Mode.HTTP,
+            client("http://localhost:8086", PaymentTransport.Mode.HTTP, serverEnvironment()).transport().mode());
+        assertEquals(PaymentTransport.Mode.IN_PROCESS,
+            client("http://payment-gateway:8086", PaymentTransport.Mode.IN_PROCESS, new MockEnvironment()).transport().mode());
+
+        ObjectProvider<InProcessPaymentTransport> none = provider(null);
+        assertEquals(PaymentTransport.Mode.HTTP, new UnifiedPaymentClient(new RestTemplate(), none, serverEnvironment(),
+            "http://localhost:8086", PaymentTransport.Mode.AUTO, "").transport().mode(), "API not hosted here");
+        assertThrows(IllegalStateException.class, () -> new UnifiedPaymentClient(new RestTemplate(), none,
+            serverEnvironment(), "http://localhost:8086", PaymentTransport.Mode.IN_PROCESS, ""));
+    }
+
+    // ==================== IN-PROCESS DISPATCH ====================
+
+    @Test
+    @DisplayName("Should call the controller directly as the calling user")
+    void shouldDispatchInProcess() throws Exception {
+        Authentication merchant = authenticate();
+        doReturn(ResponseEntity.ok(PaymentResponse.builder().transactionId("pi_123").status("COMPLETED").build()))
+            .when(controller).processPayment(any(), eq(merchant));
+        doReturn(ResponseEntity.ok(objectMapper.writeValueAsBytes(Map.of("gateway", "PAYSTACK",
+            "paymentMethods", Set.of("card", "bank_transfer"), "currencies", Set.of("NGN")))))
+            .when(controller).getSupportedMethods("NG", null);
+        UnifiedPaymentClient client = colocatedClient();
+
+        PaymentResponse response = client.processPayment(paymentRequest());
+        PaymentMethodsResponse methods = client.getSupportedMethods("NG");
+
+        assertEquals("pi_123", response.getTransactionId());
+        verify(controller).processPayment(any(), eq(merchant));
+        assertEquals("PAYSTACK", methods.getGateway());
+        assertEquals(Set.of("NGN"), methods.getCurrencies());
+    }
+
+    @Test
+    @DisplayName("Should reject in-process calls with the status HTTP would have returned")
+    void shouldKeepHttpErrorSemantics() {
+        UnifiedPaymentClient client = colocatedClient();
+
+        // No caller: 401 before the controller is reached
+        HttpClientErrorException unauthenticated = rejection(() -> client.processPayment(paymentRequest()));
+        assertEquals(HttpStatus.UNAUTHORIZED, unauthenticated.getStatusCode());
+        verify(controller, never()).processPayment(any(), any());
+
+        // Method security denies the caller: 403
+        authenticate();
+        doThrow(new AccessDeniedException("Access is denied")).when(controller).processPayment(any(), any());
+        assertEquals(HttpStatus.FORBIDDEN, rejection(() -> client.processPayment(paymentRequest())).getStatusCode());
+
+        // Error responses keep their status and JSON body
+        doReturn(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Payment processing failed",
+            "errorCode", "CARD_DECLINED")))
+            .when(controller).processPayment(any(), any());
+        HttpClientErrorException declined = rejection(() -> client.processPayment(paymentRequest()));
+        assertEquals(HttpStatus.BAD_REQUEST, declined.getStatusCode());
+        assertTrue(declined.getResponseBodyAsString().contains("\"errorCode\":\"CARD_DECLINED\""));
+
+        // Invalid bodies are rejected as @Valid would
+        PaymentRequest invalid = paymentRequest();
+        invalid.setCurrency("usd");
+        HttpClientErrorException validation = rejection(() -> client.processPayment(invalid));
+        assertEquals(HttpStatus.BAD_REQUEST, validation.getStatusCode());
+        assertTrue(validation.getResponseBodyAsString().contains("currency"));
+
+        // Metrics fall back to empty when ANALYTICS READ is denied, as they do over HTTP
+        when(permissionEvaluator.hasPermission(any(), eq("ANALYTICS"), eq("READ"))).thenReturn(false);
+        assertFalse(client.getPaymentMetrics("WH-1", "WAREHOUSE", "MONTHLY").hasData());
+        verify(permissionEvaluator).hasPermission(any(), eq("ANALYTICS"), eq("READ"));
+    }
+
+    // ==================== CONDITIONAL READS ====================
+
+    @Test
+    @DisplayName("Should revalidate supported methods with the last ETag and reuse the body on 304")
+    void shouldRevalidateSupportedMethods() throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(Map.of("gateway", "PAYSTACK",
+            "paymentMethods", Set.of("card", "bank_transfer"), "currencies", Set.of("NGN")));
+        SupportedMethodsCatalog.MethodsResponse precomputed = new SupportedMethodsCatalog.MethodsResponse(
+            HttpStatus.OK, json, "\"v1\"", CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic());
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        AtomicInteger bodiesSent = new AtomicInteger();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/payments/methods/", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(ifNoneMatch));
+            ResponseEntity<byte[]> response = precomputed.respond(ifNoneMatch);
+            response.getHeaders().forEach((name, values) -> exchange.getResponseHeaders().put(name, values));
+            byte[] body = response.getBody();
+            if (body == null) {
+                exchange.sendResponseHeaders(response.getStatusCode().value(), -1);
+            } else {
+                bodiesSent.incrementAndGet();
+                exchange.sendResponseHeaders(response.getStatusCode().value(), body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            UnifiedPaymentClient client = client("http://127.0.0.1:" + server.getAddress().getPort(),
+                PaymentTransport.Mode.HTTP, new MockEnvironment());
+
+            PaymentMethodsResponse first = client.getSupportedMethods("NG");
+            first.getCurrencies().add("USD");
+            PaymentMethodsResponse second = client.getSupportedMethods("NG");
+
+            assertEquals(List.of("null", "\"v1\""), conditions);
+            assertEquals(1, bodiesSent.get(), "the second read is answered 304");
+            assertEquals("PAYSTACK", second.getGateway());
+            assertEquals(Set.of("NGN"), second.getCurrencies(), "callers cannot change the cached response");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should send the caller's bearer token over HTTP, else the service token")
+    void shouldForwardBearerToken() throws Exception {
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("transactionId", "pi_1", "status", "PENDING"));
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/payments/status/", exchange -> {
+            authorizations.add(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            PaymentTransport withService = new HttpPaymentTransport(new RestTemplate(), baseUrl, "service-token");
+            PaymentTransport withoutService = new HttpPaymentTransport(new RestTemplate(), baseUrl, " ");
+
+            withService.getPaymentStatus("pi_1");
+            withoutService.getPaymentStatus("pi_1");
+            Jwt jwt = Jwt.withTokenValue("caller-token").header("alg", "RS256").subject("merchant-1").build();
+            SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+            withService.getPaymentStatus("pi_1");
+            // Any other kind of authentication has no token to forward
+            authenticate();
+            withService.getPaymentStatus("pi_1");
+
+            assertEquals(List.of("Bearer service-token", "null", "Bearer caller-token", "Bearer service-token"),
+                authorizations);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    // ==================== BENCHMARK (opt-in: -Dbenchmark=true) ====================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: in-process dispatch vs loopback HTTP per call")
+    void benchmarkTransportLatency() throws Exception {
+        authenticate();
+        PaymentResponse canned = PaymentResponse.builder().transactionId("pi_123").status("COMPLETED")
+            .amount(25.0).currency("USD").gateway("STRIPE").build();
+        doReturn(ResponseEntity.ok(canned)).when(controller).processPayment(any(), any());
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        byte[] body = objectMapper.writeValueAsBytes(canned);
+        server.createContext("/api/v1/payments/process", exchange -> {
+            objectMapper.readValue(exchange.getRequestBody(), PaymentRequest.class);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            PaymentTransport http = new HttpPaymentTransport(new RestTemplate(),
+                "http://127.0.0.1:" + server.getAddress().getPort(), null);
+            PaymentRequest request = paymentRequest();
+            int iterations = 5_000;
+
+            // Warm up both transports
+            latencies(http, request, iterations);
+            latencies(inProcess, request, iterations);
+
+            long[] httpNanos = latencies(http, request, iterations);
+            long[] inProcessNanos = latencies(inProcess, request, iterations);
+
+            System.out.printf("processPayment latency: loopback HTTP p50=%dus p99=%dus, in-process p50=%dus p99=%dus%n",
+                percentile(httpNanos, 0.50) / 1000, percentile(httpNanos, 0.99) / 1000,
+                percentile(inProcessNanos, 0.50) / 1000, percentile(inProcessNanos, 0.99) / 1000);
+            assertTrue(percentile(inProcessNanos, 0.50) < percentile(httpNanos, 0.50),
+                "in-process dispatch should beat a loopback round trip");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private UnifiedPaymentClient colocatedClient() {
+        return client("http://localhost:" + SERVER_PORT, PaymentTransport.Mode.AUTO, serverEnvironment());
+    }
+
+    private UnifiedPaymentClient client(String baseUrl, PaymentTransport.Mode mode, MockEnvironment environment) {
+        return new UnifiedPaymentClient(new RestTemplate(), provider(inProcess), environment, baseUrl, mode, "");
+    }
+
+    private static MockEnvironment serverEnvironment() {
+        return new MockEnvironment().withProperty("local.server.port", String.valueOf(SERVER_PORT));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<InProcessPaymentTransport> provider(InProcessPaymentTransport transport) {
+        ObjectProvider<InProcessPaymentTransport> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(transport);
+        return provider;
+    }
+
+    private static Authentication authenticate() {
+        Authentication authentication = new TestingAuthenticationToken("merchant-1", null, "ROLE_MERCHANT");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return authentication;
+    }
+
+    private static HttpClientErrorException rejection(Runnable call) {
+        RuntimeException failure = assertThrows(RuntimeException.class, call::run);
+        return assertInstanceOf(HttpClientErrorException.class, failure.getCause());
+    }
+
+    private static PaymentRequest paymentRequest() {
+        return PaymentRequest.builder()
+            .amount(25.0)
+            .currency("USD")
+            .orderId("ORDER-1")
+            .customerId("customer-1")
+            .customerEmail("customer@example.com")
+            .customerName("Ada Lovelace")
+            .countryCode("GB")
+            .build();
+    }
+
+    private static long[] latencies(PaymentTransport transport, PaymentRequest request, int iterations) {
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            transport.processPayment(request);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
@@ -0,0 +1,154 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.filter;
+
+import com.gogidix.socialcommerce.shared.constants.ApiConstants;
+import com.gogidix.socialcommerce.shared.context.CorrelationIdFilter;
+import com.gogidix.socialcommerce.shared.context.CorrelationIdInterceptor;
+import com.gogidix.socialcommerce.shared.context.RequestContext;
+import com.gogidix.socialcommerce.shared.context.RequestIdGenerator;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Request Filter Chain Test
+ *
+ * Tests request/correlation ID handling of the inbound filter chain
+ * (shared CorrelationIdFilter + SecurityHeadersFilter) and outbound propagation
+ */
+@DisplayName("Request Filter Chain Tests")
+class RequestFilterChainTest {
+
+    private final RequestIdGenerator idGenerator = new RequestIdGenerator(42);
+
+    @Test
+    @DisplayName("Should reuse incoming correlation ID and generate a request ID")
+    void shouldReuseIncomingCorrelationId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payments/process");
+        request.addHeader(ApiConstants.CORRELATION_ID_HEADER, "order-svc-7f3a");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seenCorrelationId = new AtomicReference<>();
+
+        run(request, response, (req, res) -> seenCorrelationId.set(RequestContext.correlationId()));
+
+        assertEquals("order-svc-7f3a", seenCorrelationId.get());
+        assertEquals("order-svc-7f3a", response.getHeader(ApiConstants.CORRELATION_ID_HEADER));
+        assertEquals(RequestIdGenerator.ID_LENGTH, response.getHeader(ApiConstants.REQUEST_ID_HEADER).length());
+        assertEquals("no-store, no-cache, must-revalidate, proxy-revalidate", response.getHeader("Cache-Control"));
+        assertNull(RequestContext.correlationId(), "context must be cleared after the request");
+    }
+
+    @Test
+    @DisplayName("Should start a new correlation for missing or unsafe IDs")
+    void shouldReplaceUnsafeCorrelationId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/payments/status/pi_1");
+        request.addHeader(ApiConstants.CORRELATION_ID_HEADER, "bad\r\nid");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(request, response, (req, res) -> { });
+
+        String requestId = response.getHeader(ApiConstants.REQUEST_ID_HEADER);
+        assertEquals(requestId, response.getHeader(ApiConstants.CORRELATION_ID_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should generate unique, node-tagged request IDs")
+    void shouldGenerateUniqueIds() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(ids.add(idGenerator.nextId()));
+        }
+        assertEquals("002a", ids.iterator().next().substring(12, 16));
+    }
+
+    @Test
+    @DisplayName("Should forward correlation ID on outbound HTTP calls")
+    void shouldForwardCorrelationIdOutbound() throws Exception {
+        MockClientHttpRequest outbound = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.paystack.co/bank"));
+
+        try (RequestContext.Scope ignored = RequestContext.open("corr-1", "req-1")) {
+            new CorrelationIdInterceptor().intercept(outbound, new byte[0],
+                (req, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+        }
+
+        assertEquals("corr-1", outbound.getHeaders().getFirst(ApiConstants.CORRELATION_ID_HEADER));
+    }
+
+    // ==============================================
+    // BENCHMARK (opt-in: -Dbenchmark=true)
+    // ==============================================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: filter chain throughput vs per-response UUID")
+    void benchmarkFilterChainThroughput() throws Exception {
+        int iterations = 500_000;
+        SecurityHeadersFilter securityHeaders = new SecurityHeadersFilter();
+        CorrelationIdFilter correlation = new CorrelationIdFilter(idGenerator);
+        Filter uuidBaseline = (req, res, chain) -> {
+            ((HttpServletResponse) res).setHeader(ApiConstants.REQUEST_ID_HEADER, UUID.randomUUID().toString());
+            chain.doFilter(req, res);
+        };
+
+        // Warm up both chains
+        chainThroughput(iterations, correlation, securityHeaders);
+        chainThroughput(iterations, uuidBaseline, securityHeaders);
+
+        double contextOpsPerSec = chainThroughput(iterations, correlation, securityHeaders);
+        double uuidOpsPerSec = chainThroughput(iterations, uuidBaseline, securityHeaders);
+
+        System.out.printf("Filter chain: request-context=%.0f req/s, uuid-baseline=%.0f req/s%n",
+            contextOpsPerSec, uuidOpsPerSec);
+        assertTrue(contextOpsPerSec > uuidOpsPerSec, "request-context chain should outpace the UUID chain");
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private void run(MockHttpServletRequest request, MockHttpServletResponse response,
+                     FilterChainTarget target) throws Exception {
+        FilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req,
+                                   HttpServletResponse res) {
+                target.handle(req, res);
+            }
+        }, new CorrelationIdFilter(idGenerator), new SecurityHeadersFilter());
+        chain.doFilter(request, response);
+    }
+
+    private static double chainThroughput(int iterations, Filter first, Filter second) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/payments/gateways/status");
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new MockFilterChain(new HttpServlet() { }, first, second).doFilter(request, response);
+        }
+        return iterations / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    @FunctionalInterface
+    private interface FilterChainTarget {
+        void handle(HttpServletRequest request, HttpServletResponse response);
+    }
+}
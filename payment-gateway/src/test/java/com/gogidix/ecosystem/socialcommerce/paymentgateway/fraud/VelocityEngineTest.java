@@ -0,0 +1,238 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.fraud;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Velocity Engine Test Suite
+ *
+ * PERFORMANCE TESTING: In-memory fraud velocity checks
+ * - Tests payments over a rule's rate are blocked per card, customer, IP and device
+ * - Tests windows slide and drain with time
+ * - Tests memory stays fixed as identifiers keep arriving
+ * - Tests counts survive a restart through the snapshot, and only with the same salt
+ * - Benchmarks per-payment check latency (opt-in: -Dbenchmark=true)
+ */
+@DisplayName("Velocity Engine Tests")
+class VelocityEngineTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(START);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // ==================== RULES ====================
+
+    @Test
+    @DisplayName("Should compile rule specs and reject malformed ones")
+    void shouldParseRules() {
+        List<VelocityRule> rules = VelocityRule.parseAll(" card:5/10m, CUSTOMER:10/1h ,ip:30/45s,device:3/2d,");
+
+        assertEquals(4, rules.size());
+        assertEquals(new VelocityRule("card:5/10m", VelocityDimension.CARD, 5, Duration.ofMinutes(10)), rules.get(0));
+        assertEquals("customer:10/1h", rules.get(1).name());
+        assertEquals(Duration.ofSeconds(45), rules.get(2).window());
+        assertEquals(Duration.ofDays(2), rules.get(3).window());
+        assertTrue(VelocityRule.parseAll("").isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> VelocityRule.parse("card:5"));
+        assertThrows(IllegalArgumentException.class, () -> VelocityRule.parse("email:5/10m"));
+        assertThrows(IllegalArgumentException.class, () -> VelocityRule.parse("card:0/10m"));
+        assertThrows(IllegalArgumentException.class, () -> VelocityRule.parse("card:5/10w"));
+    }
+
+    // ==================== CHECKS ====================
+
+    @Test
+    @DisplayName("Should block the sixth payment on one card within ten minutes")
+    void shouldBlockOverVelocity() {
+        VelocityEngine engine = engine("card:5/10m,customer:7/1h");
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(engine.check(payment("customer-1", "fp_card_a", null, null)).allowed());
+            clock.addAndGet(Duration.ofSeconds(30).toMillis());
+        }
+        VelocityDecision decision = engine.check(payment("customer-1", "fp_card_a", null, null));
+
+        assertFalse(decision.allowed());
+        assertEquals("card:5/10m", decision.rule().name());
+        assertEquals(6, decision.count());
+        assertTrue(engine.check(payment("customer-2", "fp_card_b", null, null)).allowed(), "other cards unaffected");
+        assertEquals(1.0, registry.get(VelocityEngine.BLOCKED_METRIC).tag("rule", "card:5/10m").counter().count());
+
+        // A new card does not reset the customer's own count
+        assertTrue(engine.check(payment("customer-1", "fp_card_c", null, null)).allowed());
+        VelocityDecision customer = engine.check(payment("customer-1", "fp_card_d", null, null));
+        assertFalse(customer.allowed());
+        assertEquals(VelocityDimension.CUSTOMER, customer.rule().dimension());
+    }
+
+    @Test
+    @DisplayName("Should count by IP address and device, and skip dimensions a payment lacks")
+    void shouldCountEveryDimension() {
+        VelocityEngine engine = engine("ip:2/10m,device:2/10m");
+
+        assertTrue(engine.check(payment("c1", null, "203.0.113.7", "device-1")).allowed());
+        assertTrue(engine.check(payment("c2", null, "203.0.113.7", "device-1")).allowed());
+        assertEquals(VelocityDimension.IP,
+            engine.check(payment("c3", null, "203.0.113.7", "device-2")).rule().dimension());
+        assertEquals(VelocityDimension.DEVICE,
+            engine.check(payment("c4", null, "198.51.100.1", "device-1")).rule().dimension());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(engine.check(payment("c5", null, null, null)).allowed(), "nothing to count by");
+        }
+    }
+
+    @Test
+    @DisplayName("Should let payments through again as the window slides past them")
+    void shouldSlideWindow() {
+        VelocityEngine engine = engine("card:3/1m");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(engine.check(card("fp_a")).allowed());
+        }
+        assertFalse(engine.check(card("fp_a")).allowed());
+
+        // Still inside the minute: blocked, and the attempt itself is counted
+        clock.addAndGet(Duration.ofSeconds(40).toMillis());
+        assertEquals(5, engine.check(card("fp_a")).count());
+
+        clock.addAndGet(Duration.ofSeconds(70).toMillis());
+        assertTrue(engine.check(card("fp_a")).allowed(), "window drained");
+    }
+
+    @Test
+    @DisplayName("Should keep memory fixed and drop the idlest identifiers when full")
+    void shouldBoundMemory() {
+        VelocityCounters table = new VelocityCounters(1024, 6, Duration.ofMinutes(10).toMillis());
+        for (long key = 1; key <= 100_000; key++) {
+            table.increment(key * 0x9E3779B97F4A7C15L, START + key);
+        }
+        assertEquals(1024, table.capacity());
+        assertTrue(table.evictions() >= 100_000 - 1024);
+
+        // One stripe of 8, 100 s buckets: identifier 1 is the one not seen since the first bucket
+        VelocityCounters stripe = new VelocityCounters(8, 6, Duration.ofMinutes(10).toMillis());
+        for (long key = 1; key <= 8; key++) {
+            stripe.increment(key, START);
+        }
+        for (long key = 2; key <= 8; key++) {
+            stripe.increment(key, START + 100_000);
+        }
+        assertEquals(1, stripe.increment(9, START + 200_000));
+        assertEquals(1, stripe.evictions());
+        assertEquals(3, stripe.increment(2, START + 200_000), "recently seen identifiers are kept");
+        assertEquals(1, stripe.increment(1, START + 200_000), "evicted identifier starts over");
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    @Test
+    @DisplayName("Should restore counts from the snapshot after a restart")
+    void shouldRestoreSnapshot(@TempDir Path directory) throws Exception {
+        Path snapshot = directory.resolve("velocity.bin");
+        VelocityEngine before = engine("card:3/10m,customer:50/1h", "salt-1", snapshot);
+        before.start();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(before.check(card("fp_a")).allowed());
+        }
+        before.stop();
+
+        VelocityEngine after = engine("card:3/10m,customer:50/1h", "salt-1", snapshot);
+        after.start();
+        try {
+            assertFalse(after.check(card("fp_a")).allowed(), "count survived the restart");
+            assertTrue(after.check(card("fp_b")).allowed());
+        } finally {
+            after.stop();
+        }
+
+        VelocityEngine otherSalt = engine("card:3/10m,customer:50/1h", "salt-2", snapshot);
+        assertEquals(0, otherSalt.readSnapshot());
+        VelocityEngine otherRules = engine("card:4/10m", "salt-1", snapshot);
+        assertEquals(0, otherRules.readSnapshot());
+        assertTrue(otherRules.check(card("fp_a")).allowed());
+    }
+
+    // ==================== BENCHMARK (opt-in: -Dbenchmark=true) ====================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: velocity check latency with five rules")
+    void benchmarkCheckLatency() {
+        VelocityEngine engine = new VelocityEngine(registry,
+            VelocityRule.parseAll("card:5/10m,card:20/24h,customer:10/1h,ip:30/10m,device:15/1h"),
+            65_536, 6, "benchmark", null, 60_000, System::currentTimeMillis);
+        PaymentRequest[] payments = new PaymentRequest[4096];
+        for (int i = 0; i < payments.length; i++) {
+            payments[i] = payment("customer-" + (i % 1000), "fp_" + i, "10.0." + (i % 256) + "." + (i % 97),
+                "device-" + (i % 2000));
+        }
+
+        int iterations = 1_000_000;
+        for (int i = 0; i < iterations; i++) {
+            engine.check(payments[i & (payments.length - 1)]);
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            engine.check(payments[i & (payments.length - 1)]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        long p50 = nanos[iterations / 2];
+        long p99 = nanos[(int) (iterations * 0.99)];
+        System.out.printf("velocity check: p50=%dns p99=%dns%n", p50, p99);
+        assertTrue(p99 < 5_000, "p99 should stay under 5 us, got " + p99 + "ns");
+    }
+
+    // ==================== HELPERS ====================
+
+    private VelocityEngine engine(String rules) {
+        return engine(rules, "test-salt", null);
+    }
+
+    private VelocityEngine engine(String rules, String salt, Path snapshot) {
+        return new VelocityEngine(registry, VelocityRule.parseAll(rules), 4096, 6, salt, snapshot, 60_000, clock::get);
+    }
+
+    private static PaymentRequest card(String fingerprint) {
+        return payment(null, fingerprint, null, null);
+    }
+
+    private static PaymentRequest payment(String customerId, String cardFingerprint, String ip, String device) {
+        Map<String, String> metadata = new HashMap<>();
+        if (cardFingerprint != null) {
+            metadata.put(VelocityDimension.CARD_FINGERPRINT_KEY, cardFingerprint);
+        }
+        if (ip != null) {
+            metadata.put(VelocityDimension.IP_ADDRESS_KEY, ip);
+        }
+        if (device != null) {
+            metadata.put(VelocityDimension.DEVICE_ID_KEY, device);
+        }
+        return PaymentRequest.builder()
+            .amount(25.0)
+            .currency("USD")
+            .orderId("ORDER-1")
+            .customerId(customerId)
+            .metadata(metadata)
+            .build();
+    }
+}
@@ -0,0 +1,254 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.hedging;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentStatus;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.socialcommerce.shared.context.RequestContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Hedged Payment Gateway Test Suite
+ *
+ * PERFORMANCE TESTING: Hedged idempotent reads
+ * - Tests the decaying histogram quantile error bound
+ * - Tests a read slower than the tracked percentile is hedged and the first
+ *   response wins, with hedge and win counters per gateway
+ * - Tests the hedge budget caps extra load
+ * - Tests writes are never hedged
+ */
+@DisplayName("Hedged Payment Gateway Tests")
+class HedgedPaymentGatewayTest {
+
+    private SimpleMeterRegistry registry;
+    private GatewayHedging hedging;
+    private PaymentGateway delegate;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        hedging = new GatewayHedging(registry, new MockEnvironment()
+            .withProperty("payment.hedging.gateways.stripe.enabled", "false"), 8);
+        delegate = mock(PaymentGateway.class);
+        when(delegate.getName()).thenReturn("PAYSTACK");
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedging.close();
+    }
+
+    // ==================== HISTOGRAM ====================
+
+    @Test
+    @DisplayName("Should estimate quantiles within one bucket (12.5%)")
+    void shouldEstimateQuantiles() {
+        for (long micros = 0; micros < 200_000; micros += 7) {
+            int index = DecayingHistogram.index(micros);
+            assertTrue(micros <= DecayingHistogram.upperBoundMicros(index));
+            assertTrue(index == 0 || micros > DecayingHistogram.upperBoundMicros(index - 1));
+            assertTrue(DecayingHistogram.upperBoundMicros(index) <= micros * 1.125 + 1);
+        }
+
+        DecayingHistogram histogram = new DecayingHistogram();
+        for (int millis = 1; millis <= 1_000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        long p95 = TimeUnit.NANOSECONDS.toMillis(histogram.quantileNanos(0.95, 100));
+        assertTrue(p95 >= 950 && p95 <= 950 * 1.125, "p95 " + p95);
+        assertEquals(-1, histogram.quantileNanos(0.95, 1_001), "too few samples");
+
+        histogram.decay();
+        assertEquals(-1, histogram.quantileNanos(0.95, 600), "decay halves the weight of old samples");
+    }
+
+    // ==================== HEDGING ====================
+
+    @Test
+    @DisplayName("Should hedge a read slower than p95 and return the first response")
+    void shouldHedgeSlowRead() {
+        AtomicInteger calls = new AtomicInteger();
+        when(delegate.getPaymentStatus("PAYSTACK_1")).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                TimeUnit.SECONDS.sleep(2);
+                return status("PAYSTACK_1", "PENDING");
+            }
+            return status("PAYSTACK_1", "COMPLETED");
+        });
+        HedgedPaymentGateway gateway = (HedgedPaymentGateway) hedging.hedge(delegate);
+        warm(gateway.getPolicy(), 50);
+
+        long start = System.nanoTime();
+        PaymentStatus status = gateway.getPaymentStatus("PAYSTACK_1");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("COMPLETED", status.getStatus());
+        assertTrue(elapsedMillis < 1_000, "hedge answered after " + elapsedMillis + " ms");
+        assertTrue(elapsedMillis >= 50, "hedge waited for the tracked p95");
+        assertEquals(2, calls.get());
+
+        assertEquals(1.0, registry.get(GatewayHedging.READS_METRIC).tag("gateway", "PAYSTACK").functionCounter().count());
+        assertEquals(1.0, registry.get(GatewayHedging.SENT_METRIC).tag("gateway", "PAYSTACK").functionCounter().count());
+        assertEquals(1.0, registry.get(GatewayHedging.WINS_METRIC).tag("gateway", "PAYSTACK").functionCounter().count());
+        double delay = registry.get(GatewayHedging.DELAY_METRIC).tag("gateway", "PAYSTACK").gauge().value();
+        assertTrue(delay >= 0.05 && delay <= 0.05 * 1.125, "delay " + delay);
+    }
+
+    @Test
+    @DisplayName("Should run both requests under the caller's correlation and request IDs")
+    void shouldPropagateRequestContext() {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger calls = new AtomicInteger();
+        when(delegate.getPaymentStatus("PAYSTACK_1")).thenAnswer(invocation -> {
+            seen.add(RequestContext.correlationId() + "/" + RequestContext.requestId());
+            if (calls.incrementAndGet() == 1) {
+                TimeUnit.MILLISECONDS.sleep(500);
+            }
+            return status("PAYSTACK_1", "COMPLETED");
+        });
+        HedgedPaymentGateway gateway = (HedgedPaymentGateway) hedging.hedge(delegate);
+        warm(gateway.getPolicy(), 20);
+
+        try (RequestContext.Scope ignored = RequestContext.open("corr-1", "req-1")) {
+            gateway.getPaymentStatus("PAYSTACK_1");
+        }
+
+        verify(delegate, timeout(2_000).times(2)).getPaymentStatus("PAYSTACK_1");
+        assertEquals(Set.of("corr-1/req-1"), seen);
+    }
+
+    @Test
+    @DisplayName("Should not hedge fast reads, failures, or reads before enough latency has been seen")
+    void shouldNotHedgeNeedlessly() {
+        when(delegate.getPaymentStatus("PAYSTACK_1")).thenReturn(status("PAYSTACK_1", "COMPLETED"));
+        when(delegate.getPaymentStatus("PAYSTACK_2")).thenThrow(
+            new PaymentProcessingException("Status check failed", "GATEWAY_ERROR", "PAYSTACK"));
+        HedgedPaymentGateway gateway = (HedgedPaymentGateway) hedging.hedge(delegate);
+
+        when(delegate.getPaymentStatus("PAYSTACK_3")).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(100);
+            return status("PAYSTACK_3", "COMPLETED");
+        });
+        assertEquals("COMPLETED", gateway.getPaymentStatus("PAYSTACK_3").getStatus());
+        verify(delegate, times(1)).getPaymentStatus("PAYSTACK_3");
+
+        warm(gateway.getPolicy(), 50);
+        assertEquals("COMPLETED", gateway.getPaymentStatus("PAYSTACK_1").getStatus());
+        assertEquals("GATEWAY_ERROR", assertThrows(PaymentProcessingException.class,
+            () -> gateway.getPaymentStatus("PAYSTACK_2")).getErrorCode());
+
+        verify(delegate, times(1)).getPaymentStatus("PAYSTACK_1");
+        verify(delegate, times(1)).getPaymentStatus("PAYSTACK_2");
+        assertEquals(0, gateway.getPolicy().getHedges());
+        assertEquals(3, gateway.getPolicy().getReads());
+    }
+
+    @Test
+    @DisplayName("Should report the primary failure when both requests fail")
+    void shouldReportPrimaryFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        when(delegate.getPaymentStatus("PAYSTACK_1")).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                TimeUnit.MILLISECONDS.sleep(200);
+                throw new PaymentProcessingException("primary failed", "GATEWAY_ERROR", "PAYSTACK");
+            }
+            throw new PaymentProcessingException("hedge failed", "GATEWAY_ERROR", "PAYSTACK");
+        });
+        HedgedPaymentGateway gateway = (HedgedPaymentGateway) hedging.hedge(delegate);
+        warm(gateway.getPolicy(), 20);
+
+        PaymentProcessingException failure = assertThrows(PaymentProcessingException.class,
+            () -> gateway.getPaymentStatus("PAYSTACK_1"));
+        assertEquals("primary failed", failure.getMessage());
+        assertEquals(1, gateway.getPolicy().getHedges());
+        assertEquals(0, gateway.getPolicy().getWins());
+    }
+
+    @Test
+    @DisplayName("Should keep hedges within the budget when every read is slow")
+    void shouldCapHedgesByBudget() {
+        HedgingPolicy policy = new HedgingPolicy(
+            new HedgingSettings(true, 0.95, Duration.ofMillis(20), Duration.ofSeconds(60), 100, 0.05, 1));
+        warm(policy, 10);
+        when(delegate.getPaymentStatus(any())).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(40);
+            return status(invocation.getArgument(0), "COMPLETED");
+        });
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HedgedPaymentGateway gateway = new HedgedPaymentGateway(delegate, policy, executor);
+
+        try {
+            for (int i = 0; i < 40; i++) {
+                gateway.getPaymentStatus("PAYSTACK_" + i);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(policy.getHedges() <= 1 + 40 * 0.05,
+            "one saved hedge plus 5% extra load, got " + policy.getHedges() + " hedges");
+        assertTrue(policy.getHedges() >= 2, "budget refills as reads arrive");
+        assertEquals(40, policy.getHedges() + policy.getDenied());
+    }
+
+    @Test
+    @DisplayName("Should never hedge writes and leave disabled gateways undecorated")
+    void shouldNeverHedgeWrites() {
+        String caller = Thread.currentThread().getName();
+        when(delegate.processPayment(any())).thenAnswer(invocation -> {
+            assertEquals(caller, Thread.currentThread().getName(), "writes run on the calling thread");
+            TimeUnit.MILLISECONDS.sleep(100);
+            return PaymentResponse.builder().transactionId("PAYSTACK_1").build();
+        });
+        HedgedPaymentGateway gateway = (HedgedPaymentGateway) hedging.hedge(delegate);
+        warm(gateway.getPolicy(), 20);
+
+        gateway.processPayment(PaymentRequest.builder().orderId("ORDER_1").amount(10.0).currency("NGN").build());
+        gateway.capturePayment("PAYSTACK_1", 10.0);
+        gateway.initiatePayout(null);
+
+        verify(delegate, times(1)).processPayment(any());
+        verify(delegate, times(1)).capturePayment("PAYSTACK_1", 10.0);
+        verify(delegate, times(1)).initiatePayout(null);
+        assertEquals(0, gateway.getPolicy().getReads());
+        assertSame(gateway, hedging.hedge(gateway));
+
+        PaymentGateway stripe = mock(PaymentGateway.class);
+        when(stripe.getName()).thenReturn("STRIPE");
+        assertSame(stripe, hedging.hedge(stripe));
+    }
+
+    // ==================== HELPERS ====================
+
+    private static void warm(HedgingPolicy policy, long latencyMillis) {
+        for (int i = 0; i < 200; i++) {
+            policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+        policy.refresh();
+    }
+
+    private static PaymentStatus status(String transactionId, String status) {
+        return PaymentStatus.builder()
+            .transactionId(transactionId)
+            .status(status)
+            .build();
+    }
+}
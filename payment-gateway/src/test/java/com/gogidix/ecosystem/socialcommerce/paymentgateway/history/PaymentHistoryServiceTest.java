@@ -0,0 +1,196 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.history;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payment History Test Suite
+ *
+ * PERFORMANCE TESTING: Keyset pagination over the journal
+ * - Tests cursors walk every row exactly once, newest first, ties broken by ID
+ * - Tests status, gateway, currency and date range filters
+ * - Tests exports page through every row and continue from a cursor when truncated
+ * - Tests invalid cursors, limits and ranges are rejected
+ */
+@DisplayName("Payment History Tests")
+class PaymentHistoryServiceTest {
+
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+    private static final Instant BASE = Instant.parse("2026-03-01T00:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private PaymentHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:history" + TEST_SEQUENCE.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        service = service(1_000);
+    }
+
+    // ==================== PAGES ====================
+
+    @Test
+    @DisplayName("Should walk every row once, newest first, across pages")
+    void shouldPageWithCursors() {
+        // Two rows per timestamp, so pages split ties
+        for (int i = 0; i < 25; i++) {
+            insert(i, "cust_1", BASE.plusSeconds(i / 2), "succeeded", "STRIPE", "USD");
+        }
+        insert(100, "cust_2", BASE, "succeeded", "STRIPE", "USD");
+
+        List<PaymentHistoryItem> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PaymentHistoryPage page = service.page(query("cust_1", null, null, null, cursor), 7);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, pages);
+        assertEquals(25, seen.size());
+        Set<String> ids = new HashSet<>();
+        seen.forEach(item -> assertTrue(ids.add(item.id()), "duplicate " + item.id()));
+        for (int i = 1; i < seen.size(); i++) {
+            PaymentHistoryItem previous = seen.get(i - 1);
+            PaymentHistoryItem current = seen.get(i);
+            int byTime = previous.createdAt().compareTo(current.createdAt());
+            assertTrue(byTime > 0 || (byTime == 0 && Long.parseLong(previous.id()) > Long.parseLong(current.id())));
+        }
+        assertEquals("24", seen.get(0).id());
+    }
+
+    @Test
+    @DisplayName("Should return only the projected columns of matching rows")
+    void shouldFilter() {
+        insert(1, "cust_1", BASE, "succeeded", "STRIPE", "USD");
+        insert(2, "cust_1", BASE.plusSeconds(60), "completed", "SIMULATED", "USD");
+        insert(3, "cust_1", BASE.plusSeconds(120), "succeeded", "PAYSTACK", "NGN");
+        insert(4, "cust_1", BASE.plusSeconds(7_200), "succeeded", "STRIPE", "USD");
+
+        assertEquals(List.of("4", "3", "1"), ids(new PaymentHistoryQuery("cust_1", "SUCCEEDED", null, null,
+            null, null, null)));
+        assertEquals(List.of("4", "1"), ids(new PaymentHistoryQuery("cust_1", null, "stripe", null,
+            null, null, null)));
+        assertEquals(List.of("3"), ids(new PaymentHistoryQuery("cust_1", null, null, "ngn",
+            null, null, null)));
+        assertEquals(List.of("2", "1"), ids(new PaymentHistoryQuery("cust_1", null, null, null,
+            BASE, BASE.plusSeconds(120), null)));
+        assertEquals(List.of(), ids(new PaymentHistoryQuery("cust_2", null, null, null, null, null, null)));
+        insert(5, "cust_2", BASE.plusSeconds(30), "completed", "SIMULATED", "USD");
+        assertEquals(List.of("2", "5"), ids(new PaymentHistoryQuery(null, "COMPLETED", null, null,
+            null, null, null)));
+
+        PaymentHistoryItem item = service.page(query("cust_1", null, null, null, null), 1).items().get(0);
+        assertEquals(new PaymentHistoryItem("4", BASE.plusSeconds(7_200), "PAYMENT", "STRIPE", "pi_4", "order_4",
+            "succeeded", new BigDecimal("10.5000"), "USD"), item);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursors, out-of-range limits and empty date ranges")
+    void shouldRejectInvalidRequests() {
+        HistoryCursor cursor = new HistoryCursor(Instant.parse("2026-03-01T10:15:30.123456Z"), 42L);
+        assertEquals(cursor, HistoryCursor.decode(cursor.encode()));
+
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode(cursor.encode() + "AA"));
+        assertThrows(IllegalArgumentException.class, () -> service.page(query("cust_1", null, null, null, null), 0));
+        assertThrows(IllegalArgumentException.class, () -> service.page(query("cust_1", null, null, null, null), 201));
+        assertThrows(IllegalArgumentException.class, () -> service.export(new PaymentHistoryQuery("cust_1", null,
+            null, null, BASE, BASE, null)));
+    }
+
+    // ==================== EXPORT ====================
+
+    @Test
+    @DisplayName("Should stream every matching row as one JSON document")
+    void shouldExport() throws Exception {
+        for (int i = 0; i < 2_500; i++) {
+            insert(i, "cust_1", BASE.plusSeconds(i), "succeeded", "STRIPE", "USD");
+        }
+
+        JsonNode export = export(service(5_000), query("cust_1", null, null, null, null));
+
+        // 25 keyset pages of 100
+        assertEquals(2_500, export.get("items").size());
+        assertEquals("2499", export.get("items").get(0).get("id").asText());
+        assertEquals("2026-03-01T00:41:39Z", export.get("items").get(0).get("createdAt").asText());
+        assertTrue(export.get("nextCursor").isNull());
+    }
+
+    @Test
+    @DisplayName("Should end a truncated export with a cursor to continue from")
+    void shouldContinueTruncatedExport() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            insert(i, "cust_1", BASE.plusSeconds(i), "succeeded", "STRIPE", "USD");
+        }
+        PaymentHistoryService limited = service(10);
+
+        JsonNode first = export(limited, query("cust_1", null, null, null, null));
+        JsonNode second = export(limited, query("cust_1", null, null, null, first.get("nextCursor").asText()));
+        JsonNode third = export(limited, query("cust_1", null, null, null, second.get("nextCursor").asText()));
+
+        assertEquals(10, first.get("items").size());
+        assertEquals("14", second.get("items").get(0).get("id").asText());
+        assertEquals(5, third.get("items").size());
+        assertTrue(third.get("nextCursor").isNull());
+    }
+
+    // ==================== HELPERS ====================
+
+    private PaymentHistoryService service(int maxExportRows) {
+        return new PaymentHistoryService(jdbcTemplate, objectMapper, new SimpleMeterRegistry(),
+            200, maxExportRows, 100);
+    }
+
+    private static PaymentHistoryQuery query(String customerId, String status, String gateway, String currency,
+                                             String cursor) {
+        return new PaymentHistoryQuery(customerId, status, gateway, currency, null, null,
+            cursor != null ? HistoryCursor.decode(cursor) : null);
+    }
+
+    private List<String> ids(PaymentHistoryQuery query) {
+        return service.page(query, 50).items().stream().map(PaymentHistoryItem::id).toList();
+    }
+
+    private JsonNode export(PaymentHistoryService service, PaymentHistoryQuery query) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(query).writeTo(out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private void insert(long id, String customerId, Instant createdAt, String status, String gateway, String currency) {
+        jdbcTemplate.update("INSERT INTO payment_transactions (transaction_id, created_at, operation, gateway, "
+                + "provider_ref, order_id, customer_id, status, amount, currency) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            id, Timestamp.from(createdAt), "PAYMENT", gateway, "pi_" + id, "order_" + id, customerId, status,
+            new BigDecimal("10.50"), currency);
+    }
+}
@@ -0,0 +1,372 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.journal;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.entity.PaymentRecord;
+import com.gogidix.socialcommerce.shared.id.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Payment Journal Test Suite
+ *
+ * PERFORMANCE TESTING: Batched journal writes and monthly partitions
+ * - Tests entries are written in JDBC batches no larger than the batch size
+ * - Tests stop drains what is queued and a full queue drops instead of blocking
+ * - Tests a batch that keeps failing is dropped after its retries
+ * - Tests partitions are created ahead, one transaction per step, taking any rows
+ *   already in the default partition, and expired ones dropped or archived
+ * - Opt-in insert throughput benchmark against H2 or a local PostgreSQL
+ */
+@DisplayName("Payment Journal Tests")
+class PaymentJournalTest {
+
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+    // Lands in the current month's partition when benchmarking against PostgreSQL
+    private static final Instant NOW = Instant.now();
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private SimpleMeterRegistry registry;
+    private final List<PaymentJournal> journals = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // H2 gets the unpartitioned form of V4
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:journal" + TEST_SEQUENCE.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(PaymentJournal::stop);
+    }
+
+    // ==================== BATCHED WRITES ====================
+
+    @Test
+    @DisplayName("Should write queued entries in batches no larger than the batch size")
+    void shouldWriteInBatches() {
+        PaymentJournal journal = journal(10_000, 500);
+        for (int i = 0; i < 1_200; i++) {
+            assertTrue(journal.append(entry(i, "cust_" + (i % 10))));
+        }
+
+        journal.start();
+        await(() -> rows() == 1_200);
+        // Rows are visible on commit, metrics only once the writer has recorded the
+        // last batch: stopping joins the writer thread
+        journal.stop();
+
+        assertEquals(1_200, registry.get(PaymentJournal.WRITTEN_METRIC).counter().count());
+        assertTrue(registry.get(PaymentJournal.BATCH_SIZE_METRIC).summary().count() >= 3);
+        assertEquals(500, registry.get(PaymentJournal.BATCH_SIZE_METRIC).summary().max());
+        assertEquals(0, journal.pending());
+    }
+
+    @Test
+    @DisplayName("Should map a recorded gateway outcome onto a journal row")
+    void shouldJournalPaymentRecord() {
+        PaymentJournal journal = journal(10, 10);
+        Instant createdAt = Instant.parse("2026-03-14T09:30:00Z");
+        journal.append(PaymentRecord.builder()
+            .operation(PaymentRecord.Operation.REFUND)
+            .gateway("stripe")
+            .gatewayReference("re_123")
+            .orderId("order_1")
+            .partyId("cust_1")
+            .status("SUCCEEDED")
+            .amount(new BigDecimal("12.5000"))
+            .currency("usd")
+            .correlationId("corr-1")
+            .createdAt(createdAt)
+            .build());
+
+        journal.start();
+        await(() -> rows() == 1);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM payment_transactions");
+        assertEquals("REFUND", row.get("operation"));
+        assertEquals("re_123", row.get("provider_ref"));
+        assertEquals("STRIPE", row.get("gateway"));
+        assertEquals("succeeded", row.get("status"));
+        assertEquals("USD", row.get("currency"));
+        assertEquals("cust_1", row.get("customer_id"));
+        assertEquals(0, new BigDecimal("12.5").compareTo((BigDecimal) row.get("amount")));
+        assertEquals("corr-1", row.get("correlation_id"));
+        assertEquals(createdAt, jdbcTemplate.queryForObject(
+            "SELECT created_at FROM payment_transactions", java.sql.Timestamp.class).toInstant());
+    }
+
+    @Test
+    @DisplayName("Should drain queued entries on stop")
+    void shouldDrainOnStop() {
+        PaymentJournal journal = journal(10_000, 100);
+        journal.start();
+        for (int i = 0; i < 2_000; i++) {
+            journal.append(entry(i, "cust_1"));
+        }
+
+        journal.stop();
+
+        assertFalse(journal.isRunning());
+        assertEquals(2_000, rows());
+    }
+
+    // ==================== BACKPRESSURE AND FAILURES ====================
+
+    @Test
+    @DisplayName("Should drop, not block, when the queue is full")
+    void shouldDropWhenQueueFull() {
+        PaymentJournal journal = journal(2, 10);
+
+        assertTrue(journal.append(entry(1, "cust_1")));
+        assertTrue(journal.append(entry(2, "cust_1")));
+        long start = System.nanoTime();
+        assertFalse(journal.append(entry(3, "cust_1")));
+
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertEquals(1, registry.get(PaymentJournal.DROPPED_METRIC).tag("reason", "queue_full").counter().count());
+        assertEquals(2, registry.get(PaymentJournal.QUEUE_METRIC).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should drop a batch that still fails after its retries")
+    void shouldDropFailingBatch() {
+        PaymentJournal journal = journal(10, 10);
+        jdbcTemplate.execute("DROP TABLE payment_transactions");
+
+        journal.write(List.of(entry(1, "cust_1"), entry(2, "cust_1")));
+
+        assertEquals(2, registry.get(PaymentJournal.DROPPED_METRIC).tag("reason", "write_failed").counter().count());
+        assertEquals(0, registry.get(PaymentJournal.WRITTEN_METRIC).counter().count());
+    }
+
+    // ==================== PARTITIONS ====================
+
+    @Test
+    @DisplayName("Should name monthly partitions and read their month back")
+    void shouldNamePartitions() {
+        YearMonth march = YearMonth.of(2026, 3);
+
+        assertEquals("payment_transactions_y2026m03", JournalPartitionMaintainer.partitionName(march));
+        assertEquals(Optional.of(march), JournalPartitionMaintainer.monthOf("payment_transactions_y2026m03"));
+        assertEquals(Optional.empty(), JournalPartitionMaintainer.monthOf("payment_transactions_default"));
+        assertEquals("CREATE TABLE IF NOT EXISTS payment_transactions_y2026m12 PARTITION OF payment_transactions "
+                + "FOR VALUES FROM ('2026-12-01 00:00:00+00') TO ('2027-01-01 00:00:00+00')",
+            JournalPartitionMaintainer.createSql(YearMonth.of(2026, 12)));
+    }
+
+    @Test
+    @DisplayName("Should create upcoming partitions and drop expired ones")
+    void shouldCreateAndDropPartitions() {
+        JdbcTemplate jdbc = partitionedJdbc(true,
+            "payment_transactions_default", "payment_transactions_y2024m03", "payment_transactions_y2024m04",
+            "payment_transactions_y2026m03");
+
+        assertTrue(maintainer(jdbc, JournalPartitionMaintainer.ExpiryAction.DROP).maintain());
+
+        verify(jdbc, never()).execute(JournalPartitionMaintainer.createSql(YearMonth.of(2026, 3)));
+        verify(jdbc).execute(JournalPartitionMaintainer.createSql(YearMonth.of(2026, 4)));
+        verify(jdbc).execute(JournalPartitionMaintainer.createSql(YearMonth.of(2026, 5)));
+        verify(jdbc, never()).execute(JournalPartitionMaintainer.createSql(YearMonth.of(2026, 6)));
+        verify(jdbc).execute("DROP TABLE payment_transactions_y2024m03");
+        verify(jdbc, never()).execute("DROP TABLE payment_transactions_y2024m04");
+        verify(jdbc, never()).execute("DROP TABLE payment_transactions_default");
+        assertEquals(2, registry.get(JournalPartitionMaintainer.PARTITIONS_METRIC)
+            .tag("action", "created").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should move a month's rows out of the default partition when creating it")
+    void shouldMoveRowsOutOfDefaultPartition() {
+        JdbcTemplate jdbc = partitionedJdbc(true, "payment_transactions_default", "payment_transactions_y2026m04");
+        when(jdbc.queryForObject(JournalPartitionMaintainer.DEFAULT_HAS_ROWS_SQL, Boolean.class,
+            "2026-03-01 00:00:00+00", "2026-04-01 00:00:00+00")).thenReturn(true);
+
+        assertTrue(maintainer(jdbc, JournalPartitionMaintainer.ExpiryAction.DROP).maintain());
+
+        InOrder order = inOrder(jdbc);
+        order.verify(jdbc).execute("ALTER TABLE payment_transactions DETACH PARTITION payment_transactions_default");
+        order.verify(jdbc).execute(JournalPartitionMaintainer.createSql(YearMonth.of(2026, 3)));
+        order.verify(jdbc).execute("INSERT INTO payment_transactions_y2026m03 SELECT * FROM payment_transactions_default "
+            + "WHERE created_at >= '2026-03-01 00:00:00+00' AND created_at < '2026-04-01 00:00:00+00'");
+        order.verify(jdbc).execute("DELETE FROM payment_transactions_default "
+            + "WHERE created_at >= '2026-03-01 00:00:00+00' AND created_at < '2026-04-01 00:00:00+00'");
+        order.verify(jdbc).execute("ALTER TABLE payment_transactions ATTACH PARTITION payment_transactions_default DEFAULT");
+        // May has nothing in the default partition, so it is created directly
+        order.verify(jdbc).execute(JournalPartitionMaintainer.createSql(YearMonth.of(2026, 5)));
+        verify(jdbc, times(1)).execute("ALTER TABLE payment_transactions DETACH PARTITION payment_transactions_default");
+    }
+
+    @Test
+    @DisplayName("Should run every partition step in its own transaction")
+    void shouldRunEachStepInItsOwnTransaction() {
+        JdbcTemplate jdbc = partitionedJdbc(true, "payment_transactions_y2024m02", "payment_transactions_y2024m03");
+        PlatformTransactionManager stepTransactions = mock(PlatformTransactionManager.class);
+
+        assertTrue(maintainer(jdbc, JournalPartitionMaintainer.ExpiryAction.DROP, stepTransactions).maintain());
+
+        // Listing, three months created and two expired
+        verify(stepTransactions, times(6)).getTransaction(any());
+        verify(stepTransactions, times(6)).commit(any());
+        verify(jdbc, times(6)).queryForObject(JournalPartitionMaintainer.LOCK_SQL, Boolean.class);
+    }
+
+    @Test
+    @DisplayName("Should detach expired partitions into the archive schema")
+    void shouldArchivePartitions() {
+        JdbcTemplate jdbc = partitionedJdbc(true, "payment_transactions_y2023m01");
+
+        maintainer(jdbc, JournalPartitionMaintainer.ExpiryAction.ARCHIVE).maintain();
+
+        verify(jdbc).execute("ALTER TABLE payment_transactions DETACH PARTITION payment_transactions_y2023m01");
+        verify(jdbc).execute("ALTER TABLE payment_transactions_y2023m01 SET SCHEMA payment_archive");
+        verify(jdbc, never()).execute("DROP TABLE payment_transactions_y2023m01");
+        assertEquals(1, registry.get(JournalPartitionMaintainer.PARTITIONS_METRIC)
+            .tag("action", "archived").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should leave maintenance to the replica holding the lock")
+    void shouldSkipWithoutLock() {
+        JdbcTemplate jdbc = partitionedJdbc(false);
+
+        assertFalse(maintainer(jdbc, JournalPartitionMaintainer.ExpiryAction.DROP).maintain());
+
+        verify(jdbc, never()).execute(anyString());
+    }
+
+    // ==================== BENCHMARK ====================
+
+    /**
+     * Opt-in insert throughput benchmark. H2 in PostgreSQL mode by default; a
+     * scratch PostgreSQL database can be given instead (add
+     * reWriteBatchedInserts=true to the URL to match production):
+     * mvn test -Dtest=PaymentJournalTest -Dbenchmark=true
+     *     [-Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/journal_bench -Dbenchmark.jdbc.user=postgres
+     *      -Dbenchmark.jdbc.password=postgres] [-Dbenchmark.journal.entries=500000]
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: journal insert throughput by batch size")
+    void benchmarkInsertThroughput() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        if (url != null) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("benchmark.jdbc.user", "postgres"), System.getProperty("benchmark.jdbc.password", ""));
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactionManager = new DataSourceTransactionManager(dataSource);
+            if (url.startsWith("jdbc:postgresql:")) {
+                new JournalPartitionMaintainer(jdbcTemplate, transactionManager, registry, Clock.systemUTC(), 1, 24,
+                    JournalPartitionMaintainer.ExpiryAction.DROP, "payment_archive", Duration.ofHours(1)).maintain();
+            }
+        }
+        int entries = Integer.getInteger("benchmark.journal.entries", 200_000);
+
+        for (int batchSize : new int[] {1, 50, 500, 2_000}) {
+            jdbcTemplate.execute("DELETE FROM payment_transactions");
+            int count = batchSize == 1 ? Math.min(entries, 10_000) : entries;
+            PaymentJournal journal = journal(count, batchSize);
+            for (int i = 0; i < count; i++) {
+                journal.append(entry(i, "cust_" + (i % 1_000)));
+            }
+
+            long start = System.nanoTime();
+            journal.start();
+            journal.stop();
+            long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+
+            assertEquals(count, rows());
+            System.out.printf("Journal batch size %5d: %,d rows in %,d ms = %,.0f rows/s%n",
+                batchSize, count, elapsedMillis, count * 1000.0 / elapsedMillis);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private PaymentJournal journal(int queueCapacity, int batchSize) {
+        registry = new SimpleMeterRegistry();
+        PaymentJournal journal = new PaymentJournal(jdbcTemplate, transactionManager, new SnowflakeIdGenerator(1),
+            registry, queueCapacity, batchSize, Duration.ofMillis(20), Duration.ofMillis(5), Duration.ofMillis(10));
+        journals.add(journal);
+        return journal;
+    }
+
+    /**
+     * Current month is March 2026; with two months ahead and 24 months kept,
+     * April 2024 is the oldest partition retained
+     */
+    private JournalPartitionMaintainer maintainer(JdbcTemplate jdbc, JournalPartitionMaintainer.ExpiryAction action) {
+        return maintainer(jdbc, action, mock(PlatformTransactionManager.class));
+    }
+
+    private JournalPartitionMaintainer maintainer(JdbcTemplate jdbc, JournalPartitionMaintainer.ExpiryAction action,
+                                                  PlatformTransactionManager stepTransactions) {
+        Clock clock = Clock.fixed(Instant.parse("2026-03-14T12:00:00Z"), ZoneOffset.UTC);
+        return new JournalPartitionMaintainer(jdbc, stepTransactions, registry, clock,
+            2, 24, action, "payment_archive", Duration.ofHours(1));
+    }
+
+    private static JdbcTemplate partitionedJdbc(boolean locked, String... partitions) {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.queryForObject(JournalPartitionMaintainer.LOCK_SQL, Boolean.class)).thenReturn(locked);
+        when(jdbc.queryForList(eq(JournalPartitionMaintainer.LIST_PARTITIONS_SQL), eq(String.class)))
+            .thenReturn(List.of(partitions));
+        return jdbc;
+    }
+
+    private static JournalEntry entry(long id, String customerId) {
+        return new JournalEntry(id, NOW.plusMillis(id), "PAYMENT", "stripe",
+            "pi_" + id, "order_" + id, customerId, "succeeded", new BigDecimal("19.99"), "USD", null, "corr-" + id);
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payment_transactions", Integer.class);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 10s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+}
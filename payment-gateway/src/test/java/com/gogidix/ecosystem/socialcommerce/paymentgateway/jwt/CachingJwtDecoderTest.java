@@ -0,0 +1,296 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caching JWT Decoder Test Suite
+ *
+ * PERFORMANCE TESTING: Verified-token cache and prefetched JWKS keys
+ * - Tests a repeated token is served without verifying it again
+ * - Tests cached tokens honour exp and nbf with the validator's clock skew
+ * - Tests a full cache verifies without caching, and failures are never cached
+ * - Tests rotated keys are fetched once on first use, and retired keys drop the cache
+ * - Benchmarks per-request auth CPU with and without the cache (opt-in: -Dbenchmark=true)
+ */
+@DisplayName("Caching JWT Decoder Tests")
+class CachingJwtDecoderTest {
+
+    private static final String ISSUER = "http://localhost:8084/auth";
+    private static final Duration SKEW = Duration.ofSeconds(60);
+    private static final Instant START = Instant.parse("2026-03-01T12:00:00Z");
+
+    private final AtomicLong now = new AtomicLong(START.toEpochMilli());
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(now.get());
+        }
+    };
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicReference<JWKSet> published = new AtomicReference<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private RSAKey key1;
+    private RefreshingJwkSource jwkSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        key1 = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        published.set(new JWKSet(key1.toPublicJWK()));
+        jwkSource = new RefreshingJwkSource(() -> {
+            fetches.incrementAndGet();
+            return published.get();
+        }, Duration.ofMinutes(5), Duration.ofSeconds(30), clock);
+        jwkSource.refresh();
+    }
+
+    // ==================== CACHE ====================
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeats from the cache")
+    void shouldServeRepeatsFromCache() throws Exception {
+        CachingJwtDecoder decoder = decoder(100);
+        String token = token(key1, START, START.plus(Duration.ofMinutes(10)));
+
+        Jwt first = decoder.decode(token);
+        for (int i = 0; i < 5; i++) {
+            assertSame(first, decoder.decode(token));
+        }
+
+        assertEquals(1, verifications.get());
+        assertEquals("merchant-1", first.getSubject());
+        assertEquals(5.0, registry.get(CachingJwtDecoder.CACHE_METRIC).tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get(CachingJwtDecoder.CACHE_METRIC).tag("result", "miss").counter().count());
+        assertEquals(1.0, registry.get(CachingJwtDecoder.SIZE_METRIC).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should stop serving a cached token once it expires, allowing the clock skew")
+    void shouldHonourExpiry() throws Exception {
+        CachingJwtDecoder decoder = decoder(100);
+        Instant expiry = START.plus(Duration.ofMinutes(5));
+        String token = token(key1, START, expiry);
+        decoder.decode(token);
+
+        now.set(expiry.plus(SKEW).minusSeconds(1).toEpochMilli());
+        decoder.decode(token);
+        assertEquals(1, verifications.get(), "inside the skew the cached token is served");
+
+        now.set(expiry.plus(SKEW).plusSeconds(1).toEpochMilli());
+        assertThrows(JwtValidationException.class, () -> decoder.decode(token));
+        assertEquals(2, verifications.get());
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    @DisplayName("Should not serve a cached token before its not-before time")
+    void shouldHonourNotBefore() throws Exception {
+        CachingJwtDecoder decoder = decoder(100);
+        Instant notBefore = START.plus(Duration.ofMinutes(10));
+        String token = token(key1, notBefore, notBefore.plus(Duration.ofMinutes(10)));
+
+        // Accepted inside the skew, then the clock is wound back as on a replica behind in time
+        now.set(notBefore.minus(SKEW).toEpochMilli());
+        decoder.decode(token);
+        now.set(notBefore.minus(SKEW).minusSeconds(1).toEpochMilli());
+
+        assertThrows(JwtValidationException.class, () -> decoder.decode(token));
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    @DisplayName("Should verify without caching once full, and never cache rejected tokens")
+    void shouldBoundCache() throws Exception {
+        CachingJwtDecoder decoder = decoder(2);
+        Instant expiry = START.plus(Duration.ofMinutes(10));
+        String a = token(key1, START, expiry);
+        String b = token(key1, START, expiry.plusSeconds(1));
+        String c = token(key1, START, expiry.plusSeconds(2));
+
+        decoder.decode(a);
+        decoder.decode(b);
+        decoder.decode(c);
+        decoder.decode(c);
+
+        assertEquals(2, decoder.size());
+        assertEquals(4, verifications.get(), "the token that did not fit is verified each time");
+        assertEquals(2.0, registry.get(CachingJwtDecoder.CACHE_METRIC).tag("result", "full").counter().count());
+
+        now.set(expiry.plus(SKEW).toEpochMilli());
+        assertEquals(1, decoder.sweep());
+
+        RSAKey stranger = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        String forged = token(stranger, START, expiry.plus(Duration.ofHours(1)));
+        assertThrows(JwtException.class, () -> decoder.decode(forged));
+        assertThrows(JwtException.class, () -> decoder.decode(forged));
+        assertEquals(1, decoder.size());
+    }
+
+    @Test
+    @DisplayName("Should verify every time when caching is disabled")
+    void shouldBypassWhenDisabled() throws Exception {
+        CachingJwtDecoder decoder = decoder(0);
+        String token = token(key1, START, START.plus(Duration.ofMinutes(10)));
+
+        decoder.decode(token);
+        decoder.decode(token);
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, decoder.size());
+    }
+
+    // ==================== KEY ROTATION ====================
+
+    @Test
+    @DisplayName("Should fetch a rotated key on first use, at most once per minimum interval")
+    void shouldFetchRotatedKey() throws Exception {
+        CachingJwtDecoder decoder = decoder(100);
+        RSAKey key2 = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        published.set(new JWKSet(List.of(key1.toPublicJWK(), key2.toPublicJWK())));
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+
+        assertEquals("merchant-1", decoder.decode(token(key2, START, START.plus(Duration.ofMinutes(10)))).getSubject());
+        assertEquals(2, fetches.get());
+
+        RSAKey unknown = new RSAKeyGenerator(2048).keyID("key-3").generate();
+        String forged = token(unknown, START, START.plus(Duration.ofMinutes(10)));
+        assertThrows(JwtException.class, () -> decoder.decode(forged));
+        assertThrows(JwtException.class, () -> decoder.decode(forged));
+        assertEquals(2, fetches.get(), "unknown key IDs cannot force refreshes");
+    }
+
+    @Test
+    @DisplayName("Should drop cached tokens when a signing key is retired")
+    void shouldInvalidateOnKeyRemoval() throws Exception {
+        CachingJwtDecoder decoder = decoder(100);
+        String token = token(key1, START, START.plus(Duration.ofMinutes(10)));
+        decoder.decode(token);
+
+        RSAKey key2 = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        published.set(new JWKSet(key2.toPublicJWK()));
+        jwkSource.refresh();
+
+        assertEquals(0, decoder.size());
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    @DisplayName("Should keep the current keys when the JWKS endpoint fails")
+    void shouldKeepKeysOnFetchFailure() throws Exception {
+        RefreshingJwkSource failing = new RefreshingJwkSource(() -> {
+            throw new IllegalStateException("connection refused");
+        }, Duration.ofMinutes(5), Duration.ofSeconds(30), clock);
+        assertFalse(failing.refresh());
+        assertTrue(failing.getKeys().getKeys().isEmpty());
+
+        published.set(null);
+        assertFalse(jwkSource.refresh(), "null set rejected");
+        assertEquals("key-1", jwkSource.getKeys().getKeys().get(0).getKeyID());
+    }
+
+    // ==================== BENCHMARK (opt-in: -Dbenchmark=true) ====================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: per-request auth CPU, verified every time vs cached")
+    void benchmarkAuthCpu() throws Exception {
+        String[] tokens = new String[64];
+        Instant expiry = Instant.now().plus(Duration.ofHours(1));
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = token(key1, Instant.now(), expiry.plusSeconds(i));
+        }
+        now.set(System.currentTimeMillis());
+
+        long uncached = cpuPerDecode(decoder(0), tokens);
+        long cached = cpuPerDecode(decoder(1000), tokens);
+        System.out.printf("JWT decode CPU: uncached=%dns cached=%dns (%.1fx)%n",
+            uncached, cached, (double) uncached / cached);
+        assertTrue(cached * 10 < uncached, "cache should cut auth CPU by 10x, got " + uncached + " -> " + cached);
+    }
+
+    private static long cpuPerDecode(JwtDecoder decoder, String[] tokens) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            decoder.decode(tokens[i & (tokens.length - 1)]);
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            decoder.decode(tokens[i & (tokens.length - 1)]);
+        }
+        return (threads.getCurrentThreadCpuTime() - start) / iterations;
+    }
+
+    // ==================== HELPERS ====================
+
+    private CachingJwtDecoder decoder(int maxEntries) {
+        JwtDecoder verifier = JwtDecoderConfig.verifyingDecoder(jwkSource, Set.of(JWSAlgorithm.RS256),
+            JwtDecoderConfig.validator(ISSUER, List.of(), SKEW, clock));
+        JwtDecoder counting = token -> {
+            verifications.incrementAndGet();
+            return verifier.decode(token);
+        };
+        CachingJwtDecoder decoder = new CachingJwtDecoder(counting, maxEntries, SKEW, Duration.ofMinutes(1), 1,
+            registry, clock);
+        jwkSource.onKeysRemoved(removed -> decoder.invalidateAll());
+        return decoder;
+    }
+
+    private static String token(RSAKey key, Instant notBefore, Instant expiry) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer(ISSUER)
+            .subject("merchant-1")
+            .claim("roles", List.of("MERCHANT"))
+            .issueTime(Date.from(notBefore))
+            .notBeforeTime(Date.from(notBefore))
+            .expirationTime(Date.from(expiry))
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
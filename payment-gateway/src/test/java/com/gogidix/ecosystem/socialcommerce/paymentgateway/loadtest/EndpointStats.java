@@ -0,0 +1,85 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one load-test endpoint
+ *
+ * Two histograms are kept, both in microseconds:
+ * - response time: measured from the request's intended start on the arrival
+ *   schedule, so stalls in the client or server are charged to every request
+ *   that should have been sent during them (coordinated-omission corrected)
+ * - service time: measured from the moment the request was actually sent,
+ *   which hides those stalls; reported alongside for contrast only
+ */
+public final class EndpointStats {
+
+    private final String name;
+    private final double targetRate;
+    private final Histogram responseTime = new ConcurrentHistogram(3);
+    private final Histogram serviceTime = new ConcurrentHistogram(3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    EndpointStats(String name, double targetRate) {
+        this.name = name;
+        this.targetRate = targetRate;
+    }
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, int status) {
+        responseTime.recordValue(Math.max(0, (completedNanos - intendedNanos) / 1_000));
+        serviceTime.recordValue(Math.max(0, (completedNanos - sentNanos) / 1_000));
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else if (status >= 400 && status < 500) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getCount() {
+        return responseTime.getTotalCount();
+    }
+
+    /**
+     * 2xx responses
+     */
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    /**
+     * 4xx responses, including simulated declines
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * 5xx responses and transport failures
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,163 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load Test Report
+ *
+ * Baseline file written after each load-test run and read back to compare
+ * runs. Latencies are milliseconds; {@code responseTimeMs} is coordinated-
+ * omission corrected and is what comparisons use.
+ *
+ * Alongside the JSON, each endpoint's full corrected distribution is written
+ * in HdrHistogram percentile format ({@code .hgrm}) for plotting.
+ */
+public record LoadTestReport(
+    String name,
+    String startedAt,
+    Map<String, String> settings,
+    Map<String, EndpointResult> endpoints
+) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final DateTimeFormatter FILE_STAMP =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    public record EndpointResult(
+        double targetRate,
+        double achievedRate,
+        long count,
+        long succeeded,
+        long rejected,
+        long failed,
+        Latency responseTimeMs,
+        Latency serviceTimeMs
+    ) {
+    }
+
+    public record Latency(double p50, double p90, double p99, double p999, double max, double mean) {
+
+        static Latency of(Histogram micros) {
+            return new Latency(
+                millis(micros.getValueAtPercentile(50.0)),
+                millis(micros.getValueAtPercentile(90.0)),
+                millis(micros.getValueAtPercentile(99.0)),
+                millis(micros.getValueAtPercentile(99.9)),
+                millis(micros.getMaxValue()),
+                Math.round(micros.getMean()) / 1000.0);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    public static LoadTestReport of(String name, Instant startedAt, Map<String, String> settings,
+                                    List<EndpointStats> stats, Duration measured) {
+        Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+        double seconds = measured.toNanos() / 1e9;
+        for (EndpointStats endpoint : stats) {
+            endpoints.put(endpoint.getName(), new EndpointResult(
+                endpoint.getTargetRate(),
+                Math.round(endpoint.getCount() / seconds * 10) / 10.0,
+                endpoint.getCount(),
+                endpoint.getSucceeded(),
+                endpoint.getRejected(),
+                endpoint.getFailed(),
+                Latency.of(endpoint.getResponseTime()),
+                Latency.of(endpoint.getServiceTime())));
+        }
+        return new LoadTestReport(name, startedAt.toString(), settings, endpoints);
+    }
+
+    public static LoadTestReport read(Path file) throws IOException {
+        return JSON.readValue(file.toFile(), LoadTestReport.class);
+    }
+
+    /**
+     * Writes {@code <name>-<timestamp>.json}, {@code <name>-latest.json} and one
+     * {@code .hgrm} distribution per endpoint into {@code directory}
+     *
+     * @return the timestamped baseline file
+     */
+    public Path write(Path directory, List<EndpointStats> stats) throws IOException {
+        Files.createDirectories(directory);
+        String stamp = FILE_STAMP.format(Instant.parse(startedAt));
+        Path baseline = directory.resolve(name + "-" + stamp + ".json");
+        JSON.writeValue(baseline.toFile(), this);
+        Files.copy(baseline, directory.resolve(name + "-latest.json"), StandardCopyOption.REPLACE_EXISTING);
+
+        for (EndpointStats endpoint : stats) {
+            Path distribution = directory.resolve(name + "-" + stamp + "-" + endpoint.getName() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(distribution))) {
+                endpoint.getResponseTime().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Lists regressions against a baseline: any corrected percentile more than
+     * {@code tolerance} slower, or achieved throughput more than
+     * {@code tolerance} lower. Endpoints missing from either run are skipped.
+     */
+    public List<String> regressionsAgainst(LoadTestReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        endpoints.forEach((endpoint, current) -> {
+            EndpointResult previous = baseline.endpoints().get(endpoint);
+            if (previous == null) {
+                return;
+            }
+            Latency now = current.responseTimeMs();
+            Latency then = previous.responseTimeMs();
+            slower(regressions, endpoint, "p50", then.p50(), now.p50(), tolerance);
+            slower(regressions, endpoint, "p90", then.p90(), now.p90(), tolerance);
+            slower(regressions, endpoint, "p99", then.p99(), now.p99(), tolerance);
+            slower(regressions, endpoint, "p99.9", then.p999(), now.p999(), tolerance);
+            if (current.achievedRate() < previous.achievedRate() * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput %.1f/s -> %.1f/s",
+                    endpoint, previous.achievedRate(), current.achievedRate()));
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * One line per endpoint, for the test log
+     */
+    public String summary() {
+        StringBuilder out = new StringBuilder(String.format(
+            "%-10s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+            "endpoint", "target/s", "actual/s", "4xx", "5xx", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        endpoints.forEach((endpoint, result) -> {
+            Latency latency = result.responseTimeMs();
+            out.append(String.format("%-10s %9.1f %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, result.targetRate(), result.achievedRate(), result.rejected(), result.failed(),
+                latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max()));
+        });
+        return out.toString();
+    }
+
+    private static void slower(List<String> regressions, String endpoint, String percentile,
+                               double baseline, double current, double tolerance) {
+        if (current > baseline * (1 + tolerance)) {
+            regressions.add(String.format("%s %s %.2f ms -> %.2f ms", endpoint, percentile, baseline, current));
+        }
+    }
+}
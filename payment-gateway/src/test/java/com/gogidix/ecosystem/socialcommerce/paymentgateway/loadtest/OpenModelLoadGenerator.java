@@ -0,0 +1,156 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-Model Load Generator
+ *
+ * PERFORMANCE TESTING: Drives HTTP endpoints at a constant arrival rate
+ * - Request {@code n} of a stream is due at {@code start + n / rate}, whatever
+ *   happened to earlier requests; sends are asynchronous so a slow response
+ *   never delays the next arrival (open model, unlike a fixed pool of
+ *   request-response loops that slows down with the server)
+ * - Latency is measured from the due time, not the send time, so a pacing
+ *   thread that falls behind (GC pause, saturated client) still charges the
+ *   delay to the requests it held back
+ * - Requests due during the warm-up are sent but not recorded
+ *
+ * Each stream has its own pacing thread; all streams share one HttpClient.
+ */
+public final class OpenModelLoadGenerator {
+
+    /**
+     * Builds the request for the given position on a stream's schedule
+     */
+    @FunctionalInterface
+    public interface RequestFactory {
+        HttpRequest create(long sequence);
+    }
+
+    /**
+     * Sees every completed response, including those from the warm-up
+     */
+    @FunctionalInterface
+    public interface ResponseListener {
+        void onResponse(long sequence, HttpResponse<String> response);
+    }
+
+    private final HttpClient client;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration drainTimeout;
+    private final List<Stream> streams = new ArrayList<>();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public OpenModelLoadGenerator(HttpClient client, Duration warmup, Duration duration, Duration drainTimeout) {
+        this.client = client;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Adds a stream of requests arriving at {@code ratePerSecond}
+     */
+    public EndpointStats stream(String name, double ratePerSecond, RequestFactory requests, ResponseListener listener) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive for stream " + name);
+        }
+        EndpointStats stats = new EndpointStats(name, ratePerSecond);
+        streams.add(new Stream(stats, Math.round(1_000_000_000L / ratePerSecond), requests, listener));
+        return stats;
+    }
+
+    public EndpointStats stream(String name, double ratePerSecond, RequestFactory requests) {
+        return stream(name, ratePerSecond, requests, (sequence, response) -> { });
+    }
+
+    /**
+     * Runs every stream for the warm-up plus the measured duration, then waits
+     * for outstanding responses
+     *
+     * @throws TimeoutException if responses are still outstanding after the drain timeout
+     */
+    public void run() throws InterruptedException, TimeoutException {
+        long start = System.nanoTime() + 10_000_000L;
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Thread> pacers = new ArrayList<>(streams.size());
+        for (Stream stream : streams) {
+            Thread pacer = new Thread(() -> pace(stream, start, measureFrom, end), "load-" + stream.stats.getName());
+            pacer.setDaemon(true);
+            pacers.add(pacer);
+            pacer.start();
+        }
+        for (Thread pacer : pacers) {
+            pacer.join();
+        }
+
+        long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() - drainDeadline > 0) {
+                throw new TimeoutException(inFlight.get() + " requests still outstanding after " + drainTimeout);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private void pace(Stream stream, long start, long measureFrom, long end) {
+        for (long sequence = 0; ; sequence++) {
+            long intended = start + sequence * stream.periodNanos;
+            if (intended - end >= 0) {
+                return;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(stream, sequence, intended, intended - measureFrom >= 0);
+        }
+    }
+
+    private void send(Stream stream, long sequence, long intended, boolean measured) {
+        HttpRequest request;
+        try {
+            request = stream.requests.create(sequence);
+        } catch (RuntimeException e) {
+            if (measured) {
+                stream.stats.record(intended, System.nanoTime(), System.nanoTime(), 0);
+            }
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, failure) -> {
+                long completed = System.nanoTime();
+                try {
+                    if (measured) {
+                        stream.stats.record(intended, sent, completed, failure == null ? response.statusCode() : 0);
+                    }
+                    if (failure == null) {
+                        stream.listener.onResponse(sequence, response);
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+    }
+
+    private record Stream(EndpointStats stats, long periodNanos, RequestFactory requests, ResponseListener listener) {
+    }
+}
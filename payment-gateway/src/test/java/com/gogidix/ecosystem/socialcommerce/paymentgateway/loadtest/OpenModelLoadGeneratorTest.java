@@ -0,0 +1,169 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Open-Model Load Generator Test Suite
+ *
+ * PERFORMANCE TESTING: Checks the harness itself against a local HTTP stub
+ * - Tests requests arrive at the configured rate and warm-up is not recorded
+ * - Tests a stalled pacing thread is charged to the corrected response time
+ *   but hidden from the service time (coordinated omission)
+ * - Tests baseline files round-trip and regressions are detected
+ */
+@DisplayName("Open-Model Load Generator Tests")
+class OpenModelLoadGeneratorTest {
+
+    private static final long STALLED_SEQUENCE = 50;
+    private static final long STALL_MILLIS = 300;
+
+    private HttpServer server;
+    private HttpClient client;
+    private URI uri;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // The stub closes every connection: HttpServer can drop a kept-alive connection
+        // just as the client reuses it, which would surface here as a failed request
+        server.createContext("/ok", exchange -> {
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/declined", exchange -> {
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(402, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should send at the target rate and record only the measured window")
+    void shouldHoldArrivalRate() throws Exception {
+        OpenModelLoadGenerator generator = generator(Duration.ofMillis(300), Duration.ofSeconds(1));
+        EndpointStats ok = generator.stream("ok", 200, sequence -> get("/ok"));
+        EndpointStats declined = generator.stream("declined", 50, sequence -> get("/declined"));
+
+        generator.run();
+
+        assertEquals(200, ok.getCount(), 2);
+        assertEquals(ok.getCount(), ok.getSucceeded());
+        assertEquals(50, declined.getCount(), 1);
+        assertEquals(declined.getCount(), declined.getRejected());
+        assertEquals(0, declined.getFailed());
+    }
+
+    @Test
+    @DisplayName("Should charge a stalled sender to the corrected response time")
+    void shouldCorrectCoordinatedOmission() throws Exception {
+        // 10 ms apart; the warm-up loads the client so only the stall is slow
+        OpenModelLoadGenerator generator = generator(Duration.ofMillis(300), Duration.ofSeconds(1));
+        EndpointStats stats = generator.stream("stalled", 100, sequence -> {
+            if (sequence == STALLED_SEQUENCE) {
+                pause(STALL_MILLIS);
+            }
+            return get("/ok");
+        });
+
+        generator.run();
+
+        // The 30 requests due during the stall are only sent once it ends, so request
+        // STALLED_SEQUENCE + i waits at least 300 - 10i ms: the first 15 at least 150 ms
+        assertTrue(stats.getResponseTime().getMaxValue() >= STALL_MILLIS * 1_000);
+        assertTrue(countAtLeast(stats.getResponseTime(), 150_000) >= 15,
+            "requests held back by the stall must carry it in their response time");
+        // The pacing thread, not the server, was slow: once sent they were quick
+        assertTrue(countAtLeast(stats.getServiceTime(), 150_000) < 15,
+            "service time must not include the stall");
+    }
+
+    @Test
+    @DisplayName("Should write a baseline and flag regressions against it")
+    void shouldCompareBaselines() throws Exception {
+        OpenModelLoadGenerator generator = generator(Duration.ZERO, Duration.ofMillis(500));
+        EndpointStats ok = generator.stream("ok", 100, sequence -> get("/ok"));
+        generator.run();
+
+        LoadTestReport report = LoadTestReport.of("stub", Instant.parse("2026-01-02T03:04:05Z"),
+            Map.of("durationSeconds", "0.5"), List.of(ok), Duration.ofMillis(500));
+        Path written = report.write(tempDir, List.of(ok));
+
+        assertEquals("stub-20260102-030405.json", written.getFileName().toString());
+        assertTrue(Files.exists(tempDir.resolve("stub-latest.json")));
+        assertTrue(Files.readString(tempDir.resolve("stub-20260102-030405-ok.hgrm")).contains("Percentile"));
+
+        LoadTestReport baseline = LoadTestReport.read(written);
+        assertEquals(report, baseline);
+        assertTrue(report.regressionsAgainst(baseline, 0.10).isEmpty());
+
+        LoadTestReport.EndpointResult result = report.endpoints().get("ok");
+        LoadTestReport.Latency latency = result.responseTimeMs();
+        LoadTestReport slower = new LoadTestReport("stub", report.startedAt(), report.settings(), Map.of("ok",
+            new LoadTestReport.EndpointResult(result.targetRate(), result.achievedRate() / 2, result.count(),
+                result.succeeded(), result.rejected(), result.failed(),
+                new LoadTestReport.Latency(latency.p50(), latency.p90(), latency.p99() * 2 + 1, latency.p999(),
+                    latency.max(), latency.mean()),
+                result.serviceTimeMs())));
+
+        List<String> regressions = slower.regressionsAgainst(baseline, 0.10);
+        assertEquals(2, regressions.size());
+        assertTrue(regressions.get(0).startsWith("ok p99 "));
+        assertTrue(regressions.get(1).startsWith("ok throughput "));
+    }
+
+    // ==================== HELPERS ====================
+
+    private OpenModelLoadGenerator generator(Duration warmup, Duration duration) {
+        return new OpenModelLoadGenerator(client, warmup, duration, Duration.ofSeconds(10));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri.resolve(path)).GET().build();
+    }
+
+    private static long countAtLeast(Histogram histogram, long micros) {
+        return histogram.getCountBetweenValues(micros, Math.max(micros, histogram.getMaxValue()));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.jwt.CachingJwtDecoder;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation.WebhookDispatcher;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payments API Load Test
+ *
+ * PERFORMANCE TESTING: End-to-end throughput and latency of /api/v1/payments
+ * - Boots the whole service in-process under the {@code simulation} profile,
+ *   so every request crosses the security filter chain, JWT decoding,
+ *   {@code @PreAuthorize}, validation, routing, the simulated gateway and
+ *   response serialization
+ * - Drives process, status, refund and webhook traffic at constant arrival
+ *   rates ({@link OpenModelLoadGenerator}) and reports coordinated-omission
+ *   corrected latencies per endpoint
+ * - Writes a baseline under target/loadtest and, given a previous baseline,
+ *   fails on regressions beyond the tolerance
+ *
+ * Opt-in:
+ * mvn test -Dtest=PaymentsLoadTest -Dbenchmark=true
+ *     [-Dloadtest.rate.process=100 -Dloadtest.rate.status=200 -Dloadtest.rate.refund=20 -Dloadtest.rate.webhook=100]
+ *     [-Dloadtest.warmup-seconds=20 -Dloadtest.duration-seconds=60]
+ *     [-Dloadtest.baseline=target/loadtest/payments-latest.json -Dloadtest.tolerance=0.10]
+ *
+ * Simulated provider behaviour comes from application-simulation.yml and can
+ * be overridden the same way, e.g. -Dpayment.simulation.latency.median-ms=50.
+ * Simulated declines, errors and timeouts surface as 4xx responses and are
+ * counted, not failed.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "eureka.client.enabled=false",
+        "payment.outbox.relay.enabled=false",
+        // H2 has no declarative partitioning; the journal table is a plain one
+        "payment.journal.partitions.enabled=false",
+        // One load-test identity would otherwise hit its own tier limit
+        "payment.rate-limit.enabled=false",
+        // The harness sends webhooks itself, at a controlled rate
+        "payment.simulation.webhook.url=",
+        // US traffic routes to the simulated gateway; Paystack is not exercised
+        "payment.simulation.paystack.enabled=false"
+    })
+@ActiveProfiles("simulation")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Payments API Load Test")
+class PaymentsLoadTest {
+
+    private static final byte[] JWT_SECRET =
+        "payments-load-test-signing-key-0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final int TRANSACTION_POOL = 4096;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${payment.simulation.webhook.secret}")
+    private String webhookSecret;
+
+    @Value("${payment.simulation.latency.shape} median ${payment.simulation.latency.median-ms} ms, "
+        + "p99 ${payment.simulation.latency.p99-ms} ms")
+    private String simulatedLatency;
+
+    private final AtomicReferenceArray<String> transactions = new AtomicReferenceArray<>(TRANSACTION_POOL);
+    private final AtomicLong transactionCount = new AtomicLong();
+
+    @Test
+    @DisplayName("Load: open-model traffic across process, status, refund and webhook")
+    void driveOpenModelLoad() throws Exception {
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 20));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60));
+        double processRate = rate("process", 100);
+        double statusRate = rate("status", 200);
+        double refundRate = rate("refund", 20);
+        double webhookRate = rate("webhook", 100);
+        String bearer = "Bearer " + token();
+        URI base = URI.create("http://127.0.0.1:" + port + "/api/v1/payments/");
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+            .build();
+        OpenModelLoadGenerator generator =
+            new OpenModelLoadGenerator(client, warmup, duration, Duration.ofSeconds(90));
+
+        EndpointStats process = generator.stream("process", processRate,
+            sequence -> post(base.resolve("process"), bearer, paymentJson(sequence)),
+            this::rememberTransaction);
+        EndpointStats status = generator.stream("status", statusRate,
+            sequence -> authorized(HttpRequest.newBuilder(base.resolve("status/" + transaction(sequence))), bearer)
+                .GET()
+                .build());
+        EndpointStats refund = generator.stream("refund", refundRate,
+            sequence -> post(base.resolve("refund"), bearer, refundJson(sequence)));
+        EndpointStats webhook = generator.stream("webhook", webhookRate, sequence -> {
+            String payload = webhookJson(sequence);
+            return authorized(HttpRequest.newBuilder(base.resolve("webhook/SIMULATED")), bearer)
+                .header(WebhookDispatcher.SIGNATURE_HEADER, WebhookDispatcher.sign(webhookSecret, payload))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+        });
+
+        Instant startedAt = Instant.now();
+        generator.run();
+        List<EndpointStats> stats = List.of(process, status, refund, webhook);
+
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("warmupSeconds", String.valueOf(warmup.toSeconds()));
+        settings.put("durationSeconds", String.valueOf(duration.toSeconds()));
+        settings.put("processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        settings.put("javaVersion", System.getProperty("java.version"));
+        settings.put("simulatedLatency", simulatedLatency);
+
+        LoadTestReport report = LoadTestReport.of("payments", startedAt, settings, stats, duration);
+        Path written = report.write(Path.of(System.getProperty("loadtest.output", "target/loadtest")), stats);
+        System.out.printf("Payments load test (%d s at constant arrival rate), baseline written to %s%n%s",
+            duration.toSeconds(), written, report.summary());
+
+        for (EndpointStats endpoint : stats) {
+            assertTrue(endpoint.getCount() > 0, endpoint.getName() + " should have completed requests");
+            assertEquals(0, endpoint.getFailed(), endpoint.getName() + " should not fail with 5xx or transport errors");
+        }
+
+        String baselinePath = System.getProperty("loadtest.baseline");
+        if (baselinePath != null) {
+            double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.10"));
+            List<String> regressions = report.regressionsAgainst(LoadTestReport.read(Path.of(baselinePath)), tolerance);
+            assertTrue(regressions.isEmpty(), "Regressions against " + baselinePath + ": " + regressions);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static double rate(String endpoint, double defaultRate) {
+        return Double.parseDouble(System.getProperty("loadtest.rate." + endpoint, String.valueOf(defaultRate)));
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder builder, String bearer) {
+        return builder.header("Authorization", bearer).timeout(Duration.ofSeconds(60));
+    }
+
+    private static HttpRequest post(URI uri, String bearer, String json) {
+        return authorized(HttpRequest.newBuilder(uri), bearer)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private void rememberTransaction(long sequence, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            long slot = transactionCount.getAndIncrement();
+            transactions.set((int) (slot % TRANSACTION_POOL), body.path("transactionId").asText());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable payment response", e);
+        }
+    }
+
+    /**
+     * A recently approved transaction; only empty during the first moments of the warm-up
+     */
+    private String transaction(long sequence) {
+        long available = Math.min(transactionCount.get(), TRANSACTION_POOL);
+        if (available == 0) {
+            return "sim_pi_0";
+        }
+        String id = transactions.get((int) (Math.floorMod(sequence * 0x9E3779B97F4A7C15L, available)));
+        return id != null ? id : "sim_pi_0";
+    }
+
+    private String paymentJson(long sequence) {
+        return """
+            {"amount":49.99,"currency":"USD","orderId":"LOAD_%d","customerId":"CUST_%d",\
+            "customerEmail":"load%d@example.com","customerName":"Load Tester","paymentMethod":"card",\
+            "countryCode":"US"}""".formatted(sequence, sequence % 10_000, sequence % 10_000);
+    }
+
+    private String refundJson(long sequence) {
+        return """
+            {"transactionId":"%s","amount":1.00,"currency":"USD","reason":"Load test partial refund",\
+            "orderId":"LOAD_REFUND_%d"}""".formatted(transaction(sequence), sequence);
+    }
+
+    private static String webhookJson(long sequence) {
+        return """
+            {"id":"evt_load_%d","event":"payment.succeeded","data":{"id":"sim_pi_%x","reference":"LOAD_%d",\
+            "amount":49.99,"currency":"USD"}}""".formatted(sequence, sequence, sequence);
+    }
+
+    private static String token() throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .subject("load-tester")
+            .claim("roles", List.of("SUPER_ADMIN"))
+            .issueTime(new Date())
+            .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(4))))
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        jwt.sign(new MACSigner(JWT_SECRET));
+        return jwt.serialize();
+    }
+
+    /**
+     * Replaces the issuer-backed verifier with a local HMAC key, behind the
+     * same verified-token cache; -Dpayment.security.jwt.cache.max-entries=0
+     * verifies every request again, for the uncached auth cost
+     */
+    @TestConfiguration
+    static class LoadTestSecurityConfig {
+
+        @Bean
+        @Primary
+        JwtDecoder loadTestJwtDecoder(MeterRegistry meterRegistry,
+                                      @Value("${payment.security.jwt.cache.max-entries:10000}") int maxEntries) {
+            JwtDecoder verifier = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(JWT_SECRET, "HmacSHA256")).build();
+            return new CachingJwtDecoder(verifier, maxEntries, Duration.ofSeconds(60), Duration.ofMinutes(1), 100,
+                meterRegistry, Clock.systemUTC());
+        }
+    }
+}
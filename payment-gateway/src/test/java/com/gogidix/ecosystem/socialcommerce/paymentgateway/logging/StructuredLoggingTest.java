@@ -0,0 +1,341 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.event.KeyValuePair;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Structured Logging Test Suite
+ *
+ * PERFORMANCE TESTING: Asynchronous structured logging
+ * - Tests ring buffer delivery order and backpressure policy
+ * - Tests INFO sampling per message template
+ * - Tests JSON encoding of MDC and key/value fields, without repeated keys
+ * - Tests one encoder shared by concurrent appender threads
+ * - Opt-in throughput/allocation benchmark (-Dbenchmark=true)
+ */
+@DisplayName("Structured Logging Tests")
+class StructuredLoggingTest {
+
+    private LoggerContext context;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        // Events read the MDC through their context, as they do under the SLF4J service provider
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+        logger = context.getLogger("com.gogidix.ecosystem.socialcommerce.paymentgateway.test");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    @DisplayName("Should deliver events in order through the ring buffer")
+    void shouldDeliverInOrder() throws Exception {
+        ListAppender<ILoggingEvent> sink = new ListAppender<>();
+        RingBufferAppender appender = ringBuffer(sink, 64, false);
+
+        context.getMDCAdapter().put("correlationId", "corr-1");
+        for (int i = 0; i < 1000; i++) {
+            logger.info("event {}", i);
+        }
+        context.getMDCAdapter().clear();
+        appender.stop();
+
+        assertEquals(1000, sink.list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("event " + i, sink.list.get(i).getFormattedMessage());
+        }
+        // MDC was captured on the calling thread, not read later on the worker
+        assertEquals("corr-1", sink.list.get(999).getMDCPropertyMap().get("correlationId"));
+        assertEquals(0, appender.getDiscardedCount());
+    }
+
+    @Test
+    @DisplayName("Should drop DEBUG before blocking INFO when the buffer fills")
+    void shouldDropDebugUnderBackpressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StallingAppender sink = new StallingAppender(release);
+        RingBufferAppender appender = ringBuffer(sink, 16, false);
+
+        // First event parks the worker; fill up to the discard threshold
+        for (int i = 0; i < 13; i++) {
+            logger.info("fill {}", i);
+        }
+        assertTrue(sink.started.await(5, TimeUnit.SECONDS));
+
+        logger.debug("debug above threshold");
+        assertEquals(1, appender.getDiscardedCount());
+
+        // Fill the rest and make sure a further INFO waits instead of dropping
+        for (int i = 0; i < 4; i++) {
+            logger.info("top up {}", i);
+        }
+        Thread producer = new Thread(() -> logger.info("must not be dropped"));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive(), "INFO should wait for buffer space");
+
+        release.countDown();
+        producer.join(5000);
+        appender.stop();
+
+        assertFalse(producer.isAlive());
+        assertEquals("must not be dropped", sink.last.getFormattedMessage());
+        assertEquals(1, appender.getDiscardedCount());
+        assertTrue(appender.getBlockedCount() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should sample repetitive INFO events per template")
+    void shouldSampleRepetitiveInfo() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setLoggerPrefix("com.gogidix.ecosystem.socialcommerce.paymentgateway");
+        filter.setBurst(10);
+        filter.setIntervalMillis(60_000);
+        filter.setSampleRate(10);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        ListAppender<ILoggingEvent> sink = new ListAppender<>();
+        sink.setContext(context);
+        sink.start();
+        logger.addAppender(sink);
+
+        for (int i = 0; i < 110; i++) {
+            logger.info("Routing payment to Stripe for country: {}", "GB");
+            logger.warn("Invalid country code format: {}", "G1");
+        }
+
+        long routed = sink.list.stream().filter(e -> e.getLevel() == Level.INFO).count();
+        long warned = sink.list.stream().filter(e -> e.getLevel() == Level.WARN).count();
+        assertEquals(20, routed); // 10 burst + every 10th of the remaining 100
+        assertEquals(110, warned);
+        assertEquals(90, filter.getSampledOutCount());
+    }
+
+    @Test
+    @DisplayName("Should encode MDC and key/value pairs as JSON fields")
+    void shouldEncodeStructuredJson() {
+        StructuredJsonEncoder encoder = new StructuredJsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        LoggingEvent event = new LoggingEvent(
+            Logger.class.getName(), logger, Level.INFO, "Payment \"processed\"\nok", null, null);
+        event.setMDCPropertyMap(Map.of("correlationId", "corr-1"));
+        event.addKeyValuePair(new KeyValuePair("orderId", "ORDER_1"));
+        event.addKeyValuePair(new KeyValuePair("amount", 99.5));
+
+        String json = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        assertTrue(json.startsWith("{\"@timestamp\":\""));
+        assertTrue(json.contains("\"level\":\"INFO\""));
+        assertTrue(json.contains("\"message\":\"Payment \\\"processed\\\"\\nok\""));
+        assertTrue(json.contains("\"correlationId\":\"corr-1\""));
+        assertTrue(json.contains("\"orderId\":\"ORDER_1\""));
+        assertTrue(json.contains("\"amount\":99.5"));
+        assertTrue(json.endsWith("}\n"));
+    }
+
+    @Test
+    @DisplayName("Should write each JSON key once, key/value pairs winning over MDC")
+    void shouldNotRepeatKeys() {
+        StructuredJsonEncoder encoder = new StructuredJsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        LoggingEvent event = new LoggingEvent(
+            Logger.class.getName(), logger, Level.INFO, "Payment processed", null, null);
+        event.setMDCPropertyMap(Map.of("orderId", "FROM_MDC", "level", "spoofed", "requestId", "req-1"));
+        event.addKeyValuePair(new KeyValuePair("orderId", "ORDER_1"));
+        event.addKeyValuePair(new KeyValuePair("status", "PENDING"));
+        event.addKeyValuePair(new KeyValuePair("status", "COMPLETED"));
+        event.addKeyValuePair(new KeyValuePair("message", "spoofed"));
+
+        String json = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        assertEquals(1, occurrences(json, "\"orderId\":"));
+        assertTrue(json.contains("\"orderId\":\"ORDER_1\""));
+        assertEquals(1, occurrences(json, "\"status\":"));
+        assertTrue(json.contains("\"status\":\"COMPLETED\""));
+        assertEquals(1, occurrences(json, "\"level\":"));
+        assertTrue(json.contains("\"level\":\"INFO\""));
+        assertEquals(1, occurrences(json, "\"message\":"));
+        assertTrue(json.contains("\"requestId\":\"req-1\""));
+    }
+
+    @Test
+    @DisplayName("Should encode correctly when appenders call the encoder from many threads")
+    void shouldEncodeConcurrently() throws Exception {
+        StructuredJsonEncoder encoder = new StructuredJsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        int threads = 8;
+        int eventsPerThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String orderId = "ORDER_" + t;
+                results.add(pool.submit(() -> {
+                    int mismatches = 0;
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        LoggingEvent event = new LoggingEvent(
+                            Logger.class.getName(), logger, Level.INFO, "event " + i, null, null);
+                        event.addKeyValuePair(new KeyValuePair("orderId", orderId));
+                        String json = new String(encoder.encode(event), StandardCharsets.UTF_8);
+                        String expected = "\"message\":\"event " + i + "\",\"orderId\":\"" + orderId + "\"}\n";
+                        if (!json.endsWith(expected) || occurrences(json, "@timestamp") != 1) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(30, TimeUnit.SECONDS).intValue());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ==============================================
+    // BENCHMARK (opt-in: -Dbenchmark=true)
+    // ==============================================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: caller cost of ring buffer logging")
+    void benchmarkCallerCost() throws Exception {
+        NullAppender sink = new NullAppender();
+        RingBufferAppender appender = ringBuffer(sink, 65536, true);
+        int iterations = 1_000_000;
+
+        for (int i = 0; i < iterations; i++) {
+            logger.info("Routing payment to Paystack for currency: {}", "NGN");
+            logger.debug("Disabled level check {}", i);
+        }
+
+        logger.setLevel(Level.INFO);
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            logger.debug("Disabled level check {}", "NGN");
+        }
+        long disabledNanos = System.nanoTime() - start;
+        long disabledBytes = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            logger.info("Routing payment to Paystack for currency: {}", "NGN");
+        }
+        long enabledNanos = System.nanoTime() - start;
+        long enabledBytes = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        appender.stop();
+
+        System.out.printf("Disabled DEBUG: %.1f ns/call, %d bytes/call%n",
+            (double) disabledNanos / iterations, disabledBytes / iterations);
+        System.out.printf("Async INFO: %.1f ns/call, %d bytes/call, discarded=%d%n",
+            (double) enabledNanos / iterations, enabledBytes / iterations, appender.getDiscardedCount());
+        assertEquals(0, disabledBytes / iterations, "disabled levels should not allocate");
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private RingBufferAppender ringBuffer(ch.qos.logback.core.Appender<ILoggingEvent> sink, int capacity,
+                                          boolean neverBlock) {
+        sink.setContext(context);
+        sink.start();
+
+        RingBufferAppender appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setCapacity(capacity);
+        appender.setNeverBlock(neverBlock);
+        appender.addAppender(sink);
+        appender.start();
+        assertTrue(sink.isStarted() && appender.isStarted(), "ring buffer and its delegate must start");
+
+        logger.addAppender(appender);
+        return appender;
+    }
+
+    private static int occurrences(String text, String fragment) {
+        int count = 0;
+        for (int i = text.indexOf(fragment); i >= 0; i = text.indexOf(fragment, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static class StallingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile ILoggingEvent last;
+
+        StallingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            last = event;
+        }
+    }
+
+    private static class NullAppender extends AppenderBase<ILoggingEvent> {
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            // discard
+        }
+    }
+}
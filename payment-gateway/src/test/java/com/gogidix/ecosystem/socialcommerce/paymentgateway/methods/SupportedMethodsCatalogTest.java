@@ -0,0 +1,190 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.methods;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayFactory;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Supported Methods Catalog Test Suite
+ *
+ * PERFORMANCE TESTING: Precomputed supported-methods responses
+ * - Tests every country is served from a shared, precomputed body with a stable strong ETag
+ * - Tests If-None-Match is answered 304 without touching the router or the gateways
+ * - Tests the catalog is rebuilt when gateway availability or configuration changes
+ */
+@DisplayName("Supported Methods Catalog Tests")
+class SupportedMethodsCatalogTest {
+
+    private static final Set<String> PAYSTACK_COUNTRIES = Set.of("NG", "GH", "KE", "ZA");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<PaymentGatewayType, Boolean> availability = new HashMap<>();
+
+    private RegionalPaymentRouter router;
+    private PaymentGatewayFactory factory;
+    private PaymentGateway stripe;
+    private PaymentGateway paystack;
+    private SupportedMethodsCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        router = mock(RegionalPaymentRouter.class);
+        when(router.getGatewayName(anyString())).thenAnswer(invocation ->
+            PAYSTACK_COUNTRIES.contains(invocation.<String>getArgument(0)) ? "PAYSTACK" : "STRIPE");
+
+        stripe = gateway("STRIPE", Set.of("card", "sepa_debit", "apple_pay"), Set.of("USD", "EUR", "GBP"));
+        paystack = gateway("PAYSTACK", Set.of("card", "bank_transfer", "ussd"), Set.of("NGN", "GHS", "KES", "ZAR"));
+        availability.put(PaymentGatewayType.STRIPE, true);
+        availability.put(PaymentGatewayType.PAYSTACK, true);
+
+        factory = mock(PaymentGatewayFactory.class);
+        when(factory.findGateway(PaymentGatewayType.STRIPE)).thenReturn(Optional.of(stripe));
+        when(factory.findGateway(PaymentGatewayType.PAYSTACK)).thenReturn(Optional.of(paystack));
+        when(factory.getAvailableGateways()).thenAnswer(invocation -> new HashMap<>(availability));
+
+        catalog = new SupportedMethodsCatalog(router, factory, objectMapper, registry, 60_000, 300);
+        catalog.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.stop();
+    }
+
+    // ==================== PRECOMPUTED RESPONSES ====================
+
+    @Test
+    @DisplayName("Should serve every country from one precomputed body per gateway")
+    void shouldPrecomputeResponses() throws Exception {
+        SupportedMethodsCatalog.MethodsResponse nigeria = catalog.lookup("NG");
+        assertSame(nigeria, catalog.lookup(" ng "));
+        assertSame(nigeria, catalog.lookup("KE"));
+        assertSame(catalog.lookup("GB"), catalog.lookup("US"));
+        assertSame(catalog.lookup("GB"), catalog.lookup(null), "no country code defaults to Stripe");
+        assertSame(catalog.lookup("GB"), catalog.lookup("ZZ"), "unknown codes default to Stripe");
+
+        assertEquals(HttpStatus.OK, nigeria.status());
+        JsonNode body = objectMapper.readTree(nigeria.body());
+        assertEquals("PAYSTACK", body.get("gateway").asText());
+        assertEquals("[\"bank_transfer\",\"card\",\"ussd\"]", body.get("paymentMethods").toString());
+        assertEquals("[\"GHS\",\"KES\",\"NGN\",\"ZAR\"]", body.get("currencies").toString());
+
+        assertTrue(nigeria.etag().matches("\"[0-9a-f]{32}\""), "strong ETag, got " + nigeria.etag());
+        assertNotEquals(nigeria.etag(), catalog.lookup("GB").etag());
+
+        // Same configuration, same ETag: replicas and restarts agree
+        SupportedMethodsCatalog replica = new SupportedMethodsCatalog(router, factory, objectMapper,
+            new SimpleMeterRegistry(), 60_000, 300);
+        assertEquals(nigeria.etag(), replica.lookup("NG").etag());
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 and no body")
+    void shouldAnswerNotModified() {
+        SupportedMethodsCatalog.MethodsResponse methods = catalog.lookup("GB");
+        String etag = methods.etag();
+
+        ResponseEntity<byte[]> full = methods.respond(null);
+        assertEquals(HttpStatus.OK, full.getStatusCode());
+        assertArrayEquals(methods.body(), full.getBody());
+        assertEquals(etag, full.getHeaders().getETag());
+        assertEquals("max-age=300, public", full.getHeaders().getCacheControl());
+
+        for (String ifNoneMatch : new String[] {etag, "W/" + etag, "\"stale\", " + etag, "*"}) {
+            ResponseEntity<byte[]> notModified = methods.respond(ifNoneMatch);
+            assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode(), ifNoneMatch);
+            assertNull(notModified.getBody());
+            assertEquals(etag, notModified.getHeaders().getETag());
+            assertEquals("max-age=300, public", notModified.getHeaders().getCacheControl());
+        }
+        assertEquals(HttpStatus.OK, methods.respond("\"stale\"").getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should serve lookups without touching the router or the gateways")
+    void shouldNotRouteOnLookup() {
+        clearInvocations(router, factory, stripe, paystack);
+
+        for (int i = 0; i < 10_000; i++) {
+            SupportedMethodsCatalog.MethodsResponse methods = catalog.lookup(i % 2 == 0 ? "NG" : "DE");
+            methods.respond(methods.etag());
+        }
+
+        verifyNoInteractions(router, factory, stripe, paystack);
+    }
+
+    // ==================== REBUILDS ====================
+
+    @Test
+    @DisplayName("Should rebuild when gateway availability changes")
+    void shouldRebuildOnHealthChange() {
+        String nigeria = catalog.lookup("NG").etag();
+        String britain = catalog.lookup("GB").etag();
+        assertFalse(catalog.refreshAvailability(), "nothing changed");
+
+        availability.put(PaymentGatewayType.PAYSTACK, false);
+        assertTrue(catalog.refreshAvailability());
+
+        SupportedMethodsCatalog.MethodsResponse unavailable = catalog.lookup("NG");
+        assertEquals(HttpStatus.BAD_REQUEST, unavailable.status());
+        assertNull(unavailable.etag());
+        ResponseEntity<byte[]> error = unavailable.respond(nigeria);
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode(), "errors are never answered 304");
+        assertEquals("no-store", error.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+        assertTrue(new String(error.getBody()).contains("Country not supported"));
+        assertEquals(britain, catalog.lookup("GB").etag());
+
+        availability.put(PaymentGatewayType.PAYSTACK, true);
+        assertTrue(catalog.refreshAvailability());
+        assertEquals(nigeria, catalog.lookup("NG").etag(), "recovered gateway serves the same ETag");
+        assertEquals(2.0, registry.get(SupportedMethodsCatalog.REBUILDS_METRIC)
+            .tag("reason", SupportedMethodsCatalog.REASON_HEALTH).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should rebuild with new methods when configuration changes")
+    void shouldRebuildOnConfigChange() {
+        String before = catalog.lookup("GB").etag();
+
+        when(stripe.getSupportedPaymentMethods()).thenReturn(Set.of("card", "sepa_debit", "apple_pay", "google_pay"));
+        assertEquals(before, catalog.lookup("GB").etag(), "served from the catalog until it is rebuilt");
+        catalog.onEnvironmentChange();
+
+        SupportedMethodsCatalog.MethodsResponse after = catalog.lookup("GB");
+        assertNotEquals(before, after.etag());
+        assertEquals(HttpStatus.OK, after.respond(before).getStatusCode(), "old ETag gets the new body");
+        assertEquals(1.0, registry.get(SupportedMethodsCatalog.REBUILDS_METRIC)
+            .tag("reason", SupportedMethodsCatalog.REASON_CONFIG).counter().count());
+    }
+
+    // ==================== HELPERS ====================
+
+    private static PaymentGateway gateway(String name, Set<String> methods, Set<String> currencies) {
+        PaymentGateway gateway = mock(PaymentGateway.class);
+        when(gateway.getName()).thenReturn(name);
+        when(gateway.getSupportedPaymentMethods()).thenReturn(methods);
+        when(gateway.getSupportedCurrencies()).thenReturn(currencies);
+        return gateway;
+    }
+}
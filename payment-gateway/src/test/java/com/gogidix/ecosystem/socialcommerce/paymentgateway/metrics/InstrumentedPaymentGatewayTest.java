@@ -0,0 +1,223 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Instrumented Payment Gateway Test
+ *
+ * Tests latency timers, in-flight gauges, error counters and SLO burn rates
+ * recorded by the gateway instrumentation layer
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Instrumented Payment Gateway Tests")
+class InstrumentedPaymentGatewayTest {
+
+    @Mock
+    private PaymentGateway delegate;
+
+    private MockClock clock;
+    private SimpleMeterRegistry registry;
+    private GatewayMetrics gatewayMetrics;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MockClock();
+        registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        gatewayMetrics = new GatewayMetrics(registry, 2000, 0.999, 0.99);
+        lenient().when(delegate.getName()).thenReturn("PAYSTACK");
+    }
+
+    @Test
+    @DisplayName("Should time successful calls by gateway, operation, currency and outcome")
+    void shouldRecordSuccessTimer() {
+        when(delegate.processPayment(any())).thenAnswer(invocation -> {
+            clock.add(Duration.ofMillis(150));
+            return PaymentResponse.builder().transactionId("PAYSTACK_1").build();
+        });
+
+        PaymentGateway gateway = gatewayMetrics.instrument(delegate);
+        gateway.processPayment(PaymentRequest.builder().currency("ngn").build());
+
+        Timer timer = registry.get(GatewayOperationMeters.REQUESTS_METRIC)
+            .tags("gateway", "PAYSTACK", "operation", "process_payment", "currency", "NGN", "outcome", "success")
+            .timer();
+        assertEquals(1, timer.count());
+        assertEquals(150, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should count errors by exception class and restore in-flight gauge")
+    void shouldRecordErrors() {
+        when(delegate.processPayment(any())).thenThrow(new PaymentProcessingException("declined"));
+
+        PaymentGateway gateway = gatewayMetrics.instrument(delegate);
+        assertThrows(PaymentProcessingException.class,
+            () -> gateway.processPayment(PaymentRequest.builder().currency("XXZ").build()));
+
+        assertEquals(1, registry.get(GatewayOperationMeters.REQUESTS_METRIC)
+            .tags("operation", "process_payment", "currency", "other", "outcome", "error")
+            .timer().count());
+        assertEquals(1.0, registry.get(GatewayOperationMeters.ERRORS_METRIC)
+            .tags("gateway", "PAYSTACK", "exception", "PaymentProcessingException")
+            .counter().count());
+        assertEquals(0.0, registry.get(GatewayOperationMeters.INFLIGHT_METRIC)
+            .tags("gateway", "PAYSTACK", "operation", "process_payment")
+            .gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should count Errors thrown by an SDK and restore in-flight gauge")
+    void shouldRecordErrorsThrownAsError() {
+        when(delegate.refundPayment(any())).thenThrow(new StackOverflowError());
+
+        PaymentGateway gateway = gatewayMetrics.instrument(delegate);
+        assertThrows(StackOverflowError.class, () -> gateway.refundPayment(null));
+
+        assertEquals(1.0, registry.get(GatewayOperationMeters.ERRORS_METRIC)
+            .tags("gateway", "PAYSTACK", "exception", "StackOverflowError")
+            .counter().count());
+        assertEquals(0.0, registry.get(GatewayOperationMeters.INFLIGHT_METRIC)
+            .tags("gateway", "PAYSTACK", "operation", "refund")
+            .gauge().value());
+        assertEquals(1, gatewayMetrics.getSloTrackers().get("PAYSTACK").window(5).failed());
+    }
+
+    @Test
+    @DisplayName("Should share meters when the same gateway is instrumented twice")
+    void shouldShareMetersPerGateway() {
+        PaymentGateway first = gatewayMetrics.instrument(delegate);
+        PaymentGateway second = gatewayMetrics.instrument(delegate);
+
+        assertNotSame(first, second);
+        assertSame(first, gatewayMetrics.instrument(first));
+        assertEquals(1, gatewayMetrics.getSloTrackers().size());
+    }
+
+    @Test
+    @DisplayName("Should compute availability and latency burn rates")
+    void shouldComputeBurnRates() {
+        when(delegate.isAvailable()).thenAnswer(invocation -> {
+            clock.add(Duration.ofMillis(10));
+            return true;
+        });
+        when(delegate.getPaymentStatus(any())).thenAnswer(invocation -> {
+            clock.add(Duration.ofMillis(2500));
+            throw new PaymentProcessingException("timeout");
+        });
+
+        PaymentGateway gateway = gatewayMetrics.instrument(delegate);
+        for (int i = 0; i < 98; i++) {
+            gateway.isAvailable();
+        }
+        for (int i = 0; i < 2; i++) {
+            assertThrows(PaymentProcessingException.class, () -> gateway.getPaymentStatus("PAYSTACK_1"));
+        }
+
+        SloTracker.Window window = gatewayMetrics.getSloTrackers().get("PAYSTACK").window(5);
+        assertEquals(100, window.total());
+        assertEquals(2, window.failed());
+        assertEquals(2, window.slow());
+        // 2% errors against a 0.1% budget burns 20x; 2% slow against a 1% budget burns 2x
+        assertEquals(20.0, window.availabilityBurnRate(0.999), 0.0001);
+        assertEquals(2.0, window.latencyBurnRate(0.99), 0.0001);
+
+        Map<String, Object> report = new PaymentSloEndpoint(gatewayMetrics).gateway("paystack");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> availability = (Map<String, Object>) report.get("availability");
+        assertEquals(true, availability.get("fastBurn"));
+        assertEquals(true, availability.get("slowBurn"));
+    }
+
+    @Test
+    @DisplayName("Should drop buckets that fall out of the window")
+    void shouldExpireOldBuckets() {
+        SloTracker tracker = new SloTracker(clock, TimeUnit.SECONDS.toNanos(2));
+        tracker.record(1_000, true);
+
+        clock.add(Duration.ofMinutes(10));
+        tracker.record(1_000, false);
+
+        assertEquals(1, tracker.window(5).total());
+        assertEquals(0, tracker.window(5).failed());
+        assertEquals(2, tracker.window(60).total());
+
+        clock.add(Duration.ofHours(6));
+        assertEquals(0, tracker.window(360).total());
+    }
+
+    @Test
+    @DisplayName("Should not charge rejected input to the availability budget")
+    void shouldIgnoreClientErrorsForAvailability() {
+        when(delegate.processPayment(any())).thenThrow(new IllegalArgumentException("Payment amount must be positive"));
+
+        PaymentGateway gateway = gatewayMetrics.instrument(delegate);
+        assertThrows(IllegalArgumentException.class,
+            () -> gateway.processPayment(PaymentRequest.builder().currency("NGN").build()));
+
+        SloTracker.Window window = gatewayMetrics.getSloTrackers().get("PAYSTACK").window(5);
+        assertEquals(1, window.total());
+        assertEquals(0, window.failed());
+    }
+
+    // ==============================================
+    // BENCHMARK (opt-in: -Dbenchmark=true)
+    // ==============================================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: instrumentation overhead per call")
+    void benchmarkOverhead() {
+        SimpleMeterRegistry realRegistry = new SimpleMeterRegistry();
+        GatewayMetrics metrics = new GatewayMetrics(realRegistry, 2000, 0.999, 0.99);
+        PaymentResponse response = PaymentResponse.builder().transactionId("PAYSTACK_1").build();
+        PaymentGateway noop = mock(PaymentGateway.class, withSettings().stubOnly());
+        when(noop.getName()).thenReturn("PAYSTACK");
+        when(noop.processPayment(any())).thenReturn(response);
+        PaymentGateway instrumented = metrics.instrument(noop);
+        PaymentRequest request = PaymentRequest.builder().currency("NGN").build();
+
+        int iterations = 2_000_000;
+        for (int i = 0; i < iterations; i++) {
+            noop.processPayment(request);
+            instrumented.processPayment(request);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            noop.processPayment(request);
+        }
+        long baseline = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            instrumented.processPayment(request);
+        }
+        long decorated = System.nanoTime() - start;
+
+        double overheadNanos = (double) (decorated - baseline) / iterations;
+        System.out.printf("Gateway instrumentation overhead: %.1f ns/call%n", overheadNanos);
+        assertTrue(overheadNanos < 1_000, "instrumentation should cost under a microsecond per call");
+    }
+}
@@ -0,0 +1,317 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Outbox Relay Test Suite
+ *
+ * Runs the relay against an H2 outbox (Flyway schema) and an embedded Kafka
+ * broker, consuming with read_committed isolation as downstream services do.
+ * Relay crashes are simulated by an Error thrown from inside the producer,
+ * which kills the relay thread without its normal abort path.
+ *
+ * Delivery is at-least-once. A crash before the Kafka commit loses nothing and
+ * duplicates nothing. A crash after it republishes one batch, which consumers
+ * discard by outbox-id.
+ */
+@EmbeddedKafka(partitions = 1, brokerProperties = {
+    "transaction.state.log.replication.factor=1",
+    "transaction.state.log.min.isr=1"
+})
+@DisplayName("Outbox Relay Tests")
+class OutboxRelayTest {
+
+    private static final int EVENTS = 250;
+    private static final int BATCH_SIZE = 50;
+    private static final String TRANSACTIONAL_ID = "outbox-relay-test";
+
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+
+    private EmbeddedKafkaBroker broker;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private String topic;
+    private final List<OutboxRelay> relays = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        int test = TEST_SEQUENCE.incrementAndGet();
+        broker = EmbeddedKafkaCondition.getBroker();
+        topic = "payment-lifecycle-events-" + test;
+        broker.addTopics(topic);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:outbox" + test + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relays.forEach(OutboxRelay::stop);
+    }
+
+    @Test
+    @DisplayName("Should relay outbox rows in order and in batches")
+    void shouldRelayInBatches() throws Exception {
+        insertEvents(EVENTS);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        startRelay(this::newProducer, registry);
+        awaitDrained();
+
+        List<ConsumerRecord<String, byte[]>> records = consumeAll(EVENTS);
+        assertEquals(EVENTS, records.size());
+        for (int i = 0; i < EVENTS; i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            assertEquals(i + 1, outboxId(record), "records must keep outbox order");
+            assertEquals("ORDER_" + ((i + 1) % 10), record.key());
+            assertEquals("PAYMENT_PROCESSED", header(record, OutboxRelay.EVENT_TYPE_HEADER));
+            assertEquals("corr-" + (i + 1), header(record, "X-Correlation-ID"));
+        }
+
+        assertEquals(EVENTS, registry.get(OutboxRelay.PUBLISHED_METRIC).counter().count());
+        assertEquals(EVENTS / BATCH_SIZE, registry.get(OutboxRelay.BATCH_METRIC).timer().count());
+        assertEquals(BATCH_SIZE, registry.get(OutboxRelay.BATCH_SIZE_METRIC).summary().max());
+        assertEquals(EVENTS, registry.get(OutboxRelay.PUBLISH_LAG_METRIC).timer().count());
+        assertEquals(0.0, registry.get(OutboxRelay.LAG_METRIC).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should deliver every record exactly once when the relay crashes mid-batch")
+    void shouldDeliverExactlyOnceAcrossMidBatchCrash() throws Exception {
+        insertEvents(EVENTS);
+
+        // First relay dies on the 30th send of its second batch
+        int crashes = SimulatedCrash.COUNT.get();
+        AtomicInteger sends = new AtomicInteger();
+        startRelay(() -> {
+            Producer<String, byte[]> producer = spy(newProducer());
+            doAnswer(invocation -> {
+                if (sends.incrementAndGet() == BATCH_SIZE + 30) {
+                    throw new SimulatedCrash();
+                }
+                return invocation.callRealMethod();
+            }).when(producer).send(any());
+            return producer;
+        }, new SimpleMeterRegistry());
+        awaitCrash(crashes);
+        assertEquals(EVENTS - BATCH_SIZE, pending());
+
+        // Replacement relay with the same transactional ID fences the crashed one
+        startRelay(this::newProducer, new SimpleMeterRegistry());
+        awaitDrained();
+
+        Map<Long, Integer> deliveries = deliveriesByOutboxId(consumeAll(EVENTS));
+        assertEquals(EVENTS, deliveries.size());
+        deliveries.forEach((id, count) -> assertEquals(1, count, "outbox record " + id + " delivered " + count + " times"));
+    }
+
+    @Test
+    @DisplayName("Should republish only the in-flight batch after a commit crash, which consumers de-duplicate")
+    void shouldRepublishOnlyInFlightBatchAfterCommitCrash() throws Exception {
+        insertEvents(EVENTS);
+
+        // First relay commits its first batch to Kafka, then dies before the database commit
+        int crashes = SimulatedCrash.COUNT.get();
+        startRelay(() -> {
+            Producer<String, byte[]> producer = spy(newProducer());
+            doAnswer(invocation -> {
+                invocation.callRealMethod();
+                throw new SimulatedCrash();
+            }).when(producer).commitTransaction();
+            return producer;
+        }, new SimpleMeterRegistry());
+        awaitCrash(crashes);
+        assertEquals(EVENTS, pending());
+
+        startRelay(this::newProducer, new SimpleMeterRegistry());
+        awaitDrained();
+
+        List<ConsumerRecord<String, byte[]>> records = consumeAll(EVENTS + BATCH_SIZE);
+        Map<Long, Integer> deliveries = deliveriesByOutboxId(records);
+        assertEquals(EVENTS, deliveries.size(), "de-duplicating on outbox-id must yield every record once");
+        deliveries.forEach((id, count) ->
+            assertEquals(id <= BATCH_SIZE ? 2 : 1, count, "unexpected delivery count for outbox record " + id));
+
+        // A consumer skipping outbox-ids it has already handled processes each event once, in order
+        List<Long> processed = processOnce(records);
+        assertEquals(EVENTS, processed.size());
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(i + 1, processed.get(i), "events must be processed once and in outbox order");
+        }
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private void startRelay(Supplier<Producer<String, byte[]>> producerFactory, SimpleMeterRegistry registry) {
+        OutboxRelay relay = new OutboxRelay(jdbcTemplate, transactionManager, producerFactory, registry,
+            topic, BATCH_SIZE, Duration.ofMillis(5), Duration.ofMillis(50));
+        relays.add(relay);
+        relay.start();
+        relay.wakeUp();
+    }
+
+    private Producer<String, byte[]> newProducer() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, TRANSACTIONAL_ID + "-" + topic);
+        return new KafkaProducer<>(props);
+    }
+
+    private void insertEvents(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Object[] {
+                (long) i,
+                "ORDER_" + (i % 10),
+                "PAYMENT_PROCESSED",
+                "{\"type\":\"PAYMENT_PROCESSED\",\"paymentRecordId\":" + i + "}",
+                "corr-" + i
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payment_outbox "
+            + "(aggregate_id, aggregate_key, event_type, payload, correlation_id) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private int pending() {
+        Integer pending = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payment_outbox", Integer.class);
+        return pending != null ? pending : 0;
+    }
+
+    private void awaitDrained() throws InterruptedException {
+        awaitPending(0);
+    }
+
+    private void awaitPending(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (pending() != expected) {
+            assertTrue(System.currentTimeMillis() < deadline,
+                "outbox still has " + pending() + " rows, expected " + expected);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Wait for the latest relay to crash, then reap its thread so the rolled-back claim is released
+     */
+    private void awaitCrash(int crashesBefore) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (SimulatedCrash.COUNT.get() == crashesBefore) {
+            assertTrue(System.currentTimeMillis() < deadline, "relay did not crash");
+            Thread.sleep(20);
+        }
+        relays.remove(relays.size() - 1).stop();
+    }
+
+    private List<ConsumerRecord<String, byte[]>> consumeAll(int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test-" + topic, "false", broker);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = new KafkaConsumer<>(props,
+                new StringDeserializer(), new ByteArrayDeserializer())) {
+            consumer.subscribe(List.of(topic));
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (records.size() < expected && System.currentTimeMillis() < deadline) {
+                consumer.poll(Duration.ofMillis(200)).forEach(records::add);
+            }
+            // Nothing beyond the expected count may arrive
+            consumer.poll(Duration.ofMillis(500)).forEach(records::add);
+        }
+        return records;
+    }
+
+    private static Map<Long, Integer> deliveriesByOutboxId(List<ConsumerRecord<String, byte[]>> records) {
+        Map<Long, Integer> deliveries = new TreeMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            deliveries.merge(outboxId(record), 1, Integer::sum);
+        }
+        return deliveries;
+    }
+
+    /**
+     * What a downstream consumer does: handle each record unless its outbox-id was seen
+     */
+    private static List<Long> processOnce(List<ConsumerRecord<String, byte[]>> records) {
+        Set<Long> seen = new HashSet<>();
+        List<Long> processed = new ArrayList<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            long id = outboxId(record);
+            if (seen.add(id)) {
+                processed.add(id);
+            }
+        }
+        return processed;
+    }
+
+    private static long outboxId(ConsumerRecord<String, byte[]> record) {
+        return Long.parseLong(header(record, OutboxRelay.OUTBOX_ID_HEADER));
+    }
+
+    private static String header(ConsumerRecord<String, byte[]> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stands in for the relay process dying: not an Exception, so the relay's
+     * abort-and-retry handling never runs and the relay thread terminates
+     */
+    static class SimulatedCrash extends Error {
+
+        static final AtomicInteger COUNT = new AtomicInteger();
+
+        SimulatedCrash() {
+            super("simulated relay crash");
+            COUNT.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.payout;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayFactory;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Payout Batch Engine Test Suite
+ *
+ * Runs the engine against H2 (Flyway schema) with fake Stripe and Paystack
+ * gateways that record every payout they are sent. Crashes are simulated by
+ * an Error thrown from inside a gateway, which ends the run without a
+ * checkpoint for the chunk in flight.
+ *
+ * PERFORMANCE TESTING: Partitioned, checkpointed batch payouts
+ * - Tests dry runs total by gateway and currency without storing or paying
+ * - Tests partitions run in parallel without exceeding the concurrency bound
+ * - Tests a crashed run resumes at the last checkpoint with the same idempotency keys
+ * - Tests transient failures pause a partition and terminal ones fail only their item
+ */
+@DisplayName("Payout Batch Engine Tests")
+class PayoutBatchEngineTest {
+
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+    private static final int CHUNK_SIZE = 5;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private RegionalPaymentRouter router;
+    private PaymentGatewayFactory factory;
+    private final Map<String, FakeGateway> gateways = new HashMap<>();
+    private final List<PayoutBatchEngine> engines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:payout" + TEST_SEQUENCE.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        router = mock(RegionalPaymentRouter.class);
+        factory = mock(PaymentGatewayFactory.class);
+        for (String name : List.of("STRIPE", "PAYSTACK")) {
+            FakeGateway gateway = new FakeGateway(name);
+            gateways.put(name, gateway);
+            when(factory.getGateway(name)).thenReturn(gateway.mock);
+        }
+        when(router.selectGatewayByCurrency(any())).thenAnswer(invocation -> {
+            String currency = invocation.getArgument(0);
+            return gateways.get(Set.of("NGN", "GHS", "ZAR").contains(currency) ? "PAYSTACK" : "STRIPE").mock;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        engines.forEach(PayoutBatchEngine::shutdown);
+    }
+
+    // ==================== DRY RUN ====================
+
+    @Test
+    @DisplayName("Should total payouts by gateway and currency without storing or paying anything")
+    void shouldTotalDryRun() {
+        PayoutBatchEngine engine = engine(4);
+
+        PayoutBatchSummary summary = engine.dryRun(List.of(
+            payout("driver-1", 10.25, "NGN"),
+            payout("driver-2", 20.50, "usd"),
+            payout("driver-3", 5.00, "NGN"),
+            payout("driver-4", 1.10, "EUR")));
+
+        assertEquals(PayoutBatchSummary.Status.DRY_RUN, summary.status());
+        assertNull(summary.batchId());
+        assertEquals(List.of("PAYSTACK/NGN", "STRIPE/EUR", "STRIPE/USD"), keys(summary));
+        assertEquals(new BigDecimal("15.25"), summary.partitions().get(0).totalAmount());
+        assertEquals(2, summary.partitions().get(0).itemCount());
+        assertEquals(new BigDecimal("20.5"), summary.totalByCurrency().get("USD"));
+        assertEquals(4, summary.remainingCount());
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payout_batch_items", Integer.class));
+        gateways.values().forEach(gateway -> assertTrue(gateway.sent.isEmpty()));
+        assertThrows(IllegalArgumentException.class, () -> engine.dryRun(List.of(payout("driver-5", -1.0, "USD"))));
+    }
+
+    // ==================== RUNS ====================
+
+    @Test
+    @DisplayName("Should pay every partition once, in parallel, within the concurrency bound")
+    void shouldPayPartitionsInParallel() {
+        PayoutBatchEngine engine = engine(2);
+        List<PayoutRequest> payouts = mixedPayouts(60);
+        gateways.values().forEach(gateway -> gateway.delayMillis = 2);
+
+        PayoutBatchSummary summary = engine.process("courier-drivers-2026-W42", payouts);
+
+        assertEquals(PayoutBatchSummary.Status.COMPLETED, summary.status());
+        assertEquals(4, summary.partitions().size());
+        assertEquals(60, summary.paidCount());
+        assertEquals(0, summary.remainingCount());
+        assertEquals(60, sentKeys().size(), "one payout per item");
+        assertTrue(sentKeys().contains(PayoutBatchEngine.idempotencyKey("courier-drivers-2026-W42", 59)));
+        assertTrue(FakeGateway.maxConcurrent.get() <= 2, "at most 2 partitions at a time");
+        assertEquals(2, FakeGateway.maxConcurrent.get(), "partitions ran in parallel");
+        assertEquals(60, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM payout_batch_items WHERE status = 'PAID' AND payout_id IS NOT NULL", Integer.class));
+
+        // Submitting the same run again pays nobody twice
+        PayoutBatchSummary again = engine.process("courier-drivers-2026-W42", payouts);
+        assertEquals(PayoutBatchSummary.Status.COMPLETED, again.status());
+        assertEquals(60, sentCount());
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.submit("courier-drivers-2026-W42", payouts.subList(0, 10)));
+        List<PayoutRequest> changed = new ArrayList<>(payouts);
+        changed.set(7, payout("driver-7", 800.0, "EUR"));
+        assertThrows(IllegalArgumentException.class, () -> engine.submit("courier-drivers-2026-W42", changed),
+            "same number of payouts, different amount");
+        List<PayoutRequest> equivalent = new ArrayList<>(payouts);
+        equivalent.set(7, payout("driver-7", 8.00, " eur "));
+        assertEquals(PayoutBatchSummary.Status.COMPLETED, engine.submit("courier-drivers-2026-W42", equivalent).status());
+    }
+
+    @Test
+    @DisplayName("Should resume a crashed run at the last checkpoint with the same idempotency keys")
+    void shouldResumeAfterCrash() {
+        List<PayoutRequest> payouts = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            payouts.add(payout("driver-" + i, 10.0 + i, "NGN"));
+        }
+        FakeGateway paystack = gateways.get("PAYSTACK");
+        // The process dies on the 13th payout: chunks 0-4 and 5-9 are checkpointed
+        paystack.crashOn = request -> request.getVendorId().equals("driver-12") && paystack.crashes.getAndIncrement() == 0;
+
+        PayoutBatchEngine first = engine(1);
+        PayoutBatchSummary crashed = first.process("crash-test", payouts);
+        assertEquals(PayoutBatchSummary.Status.INCOMPLETE, crashed.status());
+        PayoutPartitionSummary partition = crashed.partitions().get(0);
+        assertEquals(10, partition.nextItem());
+        assertEquals(10, partition.paidCount());
+        assertEquals(new BigDecimal("145.0000"), partition.paidAmount());
+        assertEquals(13, sentCount(), "10 checkpointed, 2 sent before the crash, 1 crashed");
+
+        PayoutBatchSummary resumed = engine(1).run("crash-test");
+
+        assertEquals(PayoutBatchSummary.Status.COMPLETED, resumed.status());
+        assertEquals(23, resumed.paidCount());
+        List<String> keys = paystack.keys();
+        assertEquals(23 + 3, keys.size(), "only the chunk in flight was sent again");
+        assertEquals(23, new HashSet<>(keys).size());
+        for (int i = 10; i < 13; i++) {
+            String key = PayoutBatchEngine.idempotencyKey("crash-test", i);
+            assertEquals(2, keys.stream().filter(key::equals).count(), "re-sent with the same key: " + key);
+        }
+        assertEquals(new BigDecimal("483.0000"), resumed.paidByCurrency().get("NGN"));
+    }
+
+    @Test
+    @DisplayName("Should pause a partition on a transient failure and fail only items the gateway rejects")
+    void shouldPauseOnTransientFailure() {
+        List<PayoutRequest> payouts = List.of(
+            payout("partner-0", 1.0, "USD"),
+            payout("partner-1", 2.0, "USD"),
+            payout("partner-2", 3.0, "USD"),
+            payout("partner-3", 4.0, "USD"),
+            payout("partner-4", 5.0, "NGN"));
+        FakeGateway stripe = gateways.get("STRIPE");
+        stripe.rejectVendor = "partner-1";
+        stripe.unreachableVendor = "partner-2";
+        PayoutBatchEngine engine = engine(2);
+        SimpleMeterRegistry registry = registries.get(0);
+
+        PayoutBatchSummary paused = engine.process("pause-test", payouts);
+
+        assertEquals(PayoutBatchSummary.Status.INCOMPLETE, paused.status());
+        PayoutPartitionSummary usd = partition(paused, "STRIPE", "USD");
+        assertEquals(PayoutPartitionSummary.Status.PAUSED, usd.status());
+        assertEquals(2, usd.nextItem(), "stopped at the unreachable item");
+        assertEquals(1, usd.paidCount());
+        assertEquals(1, usd.failedCount());
+        assertEquals(PayoutPartitionSummary.Status.COMPLETED, partition(paused, "PAYSTACK", "NGN").status());
+        assertEquals("CARD_DECLINED", jdbcTemplate.queryForObject(
+            "SELECT error_code FROM payout_batch_items WHERE batch_id = 'pause-test' AND item_index = 1", String.class));
+
+        stripe.unreachableVendor = null;
+        PayoutBatchSummary resumed = engine.run("pause-test");
+
+        assertEquals(PayoutBatchSummary.Status.COMPLETED, resumed.status());
+        assertEquals(4, resumed.paidCount());
+        assertEquals(1, resumed.failedCount());
+        assertEquals(1, stripe.keys().stream().filter(PayoutBatchEngine.idempotencyKey("pause-test", 1)::equals).count(),
+            "rejected items are not retried");
+        assertEquals(4, registry.get(PayoutBatchEngine.ITEMS_METRIC).tag("outcome", "paid").counters()
+            .stream().mapToDouble(c -> c.count()).sum());
+        assertEquals(1, registry.get(PayoutBatchEngine.ITEMS_METRIC).tag("outcome", "failed").counter().count());
+    }
+
+    // ==================== HELPERS ====================
+
+    private final List<SimpleMeterRegistry> registries = new ArrayList<>();
+
+    private PayoutBatchEngine engine(int concurrency) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registries.add(registry);
+        PayoutBatchEngine engine = new PayoutBatchEngine(jdbcTemplate, transactionManager, router, factory,
+            registry, concurrency, CHUNK_SIZE);
+        engines.add(engine);
+        return engine;
+    }
+
+    private static PayoutRequest payout(String vendorId, double amount, String currency) {
+        return PayoutRequest.builder()
+            .vendorId(vendorId)
+            .amount(amount)
+            .currency(currency)
+            .payoutType("DRIVER_EARNINGS")
+            .build();
+    }
+
+    private static List<PayoutRequest> mixedPayouts(int count) {
+        List<String> currencies = List.of("NGN", "USD", "GHS", "EUR");
+        List<PayoutRequest> payouts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            payouts.add(payout("driver-" + i, 1.0 + i, currencies.get(i % currencies.size())));
+        }
+        return payouts;
+    }
+
+    private static List<String> keys(PayoutBatchSummary summary) {
+        return summary.partitions().stream().map(p -> p.gateway() + "/" + p.currency()).toList();
+    }
+
+    private static PayoutPartitionSummary partition(PayoutBatchSummary summary, String gateway, String currency) {
+        return summary.partitions().stream()
+            .filter(p -> p.gateway().equals(gateway) && p.currency().equals(currency))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private Set<String> sentKeys() {
+        Set<String> keys = new HashSet<>();
+        gateways.values().forEach(gateway -> keys.addAll(gateway.keys()));
+        return keys;
+    }
+
+    private int sentCount() {
+        return gateways.values().stream().mapToInt(gateway -> gateway.sent.size()).sum();
+    }
+
+    /**
+     * Records payouts sent and how many were in flight at once across gateways
+     */
+    private static final class FakeGateway {
+
+        static final AtomicInteger inFlight = new AtomicInteger();
+        static final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        final PaymentGateway mock = mock(PaymentGateway.class);
+        final Queue<PayoutRequest> sent = new ConcurrentLinkedQueue<>();
+        final AtomicInteger crashes = new AtomicInteger();
+        volatile long delayMillis;
+        volatile Predicate<PayoutRequest> crashOn = request -> false;
+        volatile String rejectVendor;
+        volatile String unreachableVendor;
+
+        FakeGateway(String name) {
+            inFlight.set(0);
+            maxConcurrent.set(0);
+            when(mock.getName()).thenReturn(name);
+            when(mock.initiatePayout(any())).thenAnswer(invocation -> {
+                PayoutRequest request = invocation.getArgument(0);
+                sent.add(request);
+                maxConcurrent.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    if (delayMillis > 0) {
+                        Thread.sleep(delayMillis);
+                    }
+                    if (crashOn.test(request)) {
+                        throw new OutOfMemoryError("simulated crash");
+                    }
+                    if (request.getVendorId().equals(rejectVendor)) {
+                        throw new PaymentProcessingException("Card declined", "CARD_DECLINED", name);
+                    }
+                    if (request.getVendorId().equals(unreachableVendor)) {
+                        throw new ResourceAccessException("Connection refused");
+                    }
+                    return PayoutResponse.builder()
+                        .payoutId(name.toLowerCase() + "_" + request.getIdempotencyKey())
+                        .amount(request.getAmount())
+                        .currency(request.getCurrency())
+                        .status("pending")
+                        .gateway(name)
+                        .build();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        List<String> keys() {
+            return sent.stream().map(PayoutRequest::getIdempotencyKey).toList();
+        }
+    }
+}
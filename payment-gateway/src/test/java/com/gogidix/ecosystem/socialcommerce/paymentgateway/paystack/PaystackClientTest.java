@@ -0,0 +1,223 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paystack Client Test Suite
+ *
+ * PERFORMANCE TESTING: Typed Paystack client
+ * - Tests typed request/response binding against a local Paystack stub
+ * - Tests streaming list parsing and count-only availability checks
+ * - Tests status=false envelopes surface as PaymentProcessingException
+ * - Tests duplicate reference rejections are recognised
+ * - Opt-in allocation benchmark (-Dbenchmark=true) versus Map binding
+ */
+@DisplayName("Paystack Client Tests")
+class PaystackClientTest {
+
+    private static final int LIST_SIZE = 250;
+
+    private PaystackStubServer stub;
+    private RestTemplate restTemplate;
+    private PaystackClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new PaystackStubServer(LIST_SIZE);
+        restTemplate = new RestTemplate();
+        client = new PaystackClient(restTemplate, new ObjectMapper(), stub::baseUrl, () -> "sk_test_key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should bind initialize transaction response")
+    void shouldInitializeTransaction() {
+        InitializeTransactionData data = client.initializeTransaction(new InitializeTransactionRequest(
+            500000L, "NGN", "test@example.com", "PAYSTACK_ORDER_1_1", Map.of("order_id", "ORDER_1"), null));
+
+        assertEquals("PAYSTACK_ORDER_1_1", data.reference());
+        assertEquals("https://checkout.paystack.com/abc123", data.authorizationUrl());
+    }
+
+    @Test
+    @DisplayName("Should bind verified transaction")
+    void shouldVerifyTransaction() {
+        TransactionData data = client.verifyTransaction("PAYSTACK_ORDER_7");
+
+        assertEquals("PAYSTACK_ORDER_7", data.reference());
+        assertEquals("success", data.status());
+        assertEquals(500000L, data.amount());
+        assertEquals("NGN", data.currency());
+        assertEquals("Successful", data.gatewayResponse());
+    }
+
+    @Test
+    @DisplayName("Should bind refund, transfer and transfer verification responses")
+    void shouldCreateRefundAndTransfer() {
+        RefundData refund = client.createRefund(new CreateRefundRequest("PAYSTACK_ORDER_1", 5000L, "NGN", "Damaged"));
+        assertEquals(3018284L, refund.id());
+        assertEquals("pending", refund.status());
+
+        TransferData transfer = client.initiateTransfer(new InitiateTransferRequest(
+            "balance", 250000L, "NGN", "Courier payout",
+            new InitiateTransferRequest.Recipient("bank_account", "0001234567", "058", "Ada Courier")));
+        assertEquals("TRF_1ptvuv321ahaa7q", transfer.transferCode());
+        assertEquals(250000L, transfer.amount());
+
+        TransferData verified = client.verifyTransfer("payout_batch_courier-drivers-2026-w42_7");
+        assertEquals("payout_batch_courier-drivers-2026-w42_7", verified.reference());
+        assertEquals("success", verified.status());
+    }
+
+    @Test
+    @DisplayName("Should stream list elements to consumer")
+    void shouldStreamLists() {
+        List<PaystackBank> banks = new ArrayList<>();
+        assertEquals(LIST_SIZE, client.forEachBank(banks::add));
+        assertEquals(LIST_SIZE, banks.size());
+        assertEquals("Bank 3", banks.get(3).name());
+        assertTrue(banks.get(3).active());
+
+        List<TransactionData> transactions = new ArrayList<>();
+        assertEquals(LIST_SIZE, client.forEachTransaction(1, LIST_SIZE, transactions::add));
+        assertEquals("PAYSTACK_ORDER_9", transactions.get(9).reference());
+
+        assertEquals(LIST_SIZE, client.countBanks());
+    }
+
+    @Test
+    @DisplayName("Should bind webhook payload")
+    void shouldParseWebhookEvent() throws Exception {
+        PaystackWebhookEvent event = client.parseWebhookEvent(
+            "{\"event\":\"transfer.success\",\"data\":{\"id\":42,\"transfer_code\":\"TRF_x\",\"status\":\"success\","
+                + "\"amount\":1000,\"currency\":\"NGN\",\"recipient\":{\"name\":\"x\"}}}");
+
+        assertEquals("transfer.success", event.event());
+        assertEquals(42L, event.data().id());
+        assertEquals("TRF_x", event.data().transferCode());
+    }
+
+    @Test
+    @DisplayName("Should reject status=false responses")
+    void shouldRejectFailedStatus() {
+        stub.setFailing(true);
+
+        PaymentProcessingException single = assertThrows(PaymentProcessingException.class,
+            () -> client.verifyTransaction("PAYSTACK_ORDER_1"));
+        assertTrue(single.getMessage().contains("Invalid key"));
+
+        PaymentProcessingException list = assertThrows(PaymentProcessingException.class,
+            () -> client.countBanks());
+        assertTrue(list.getMessage().contains("Invalid key"));
+    }
+
+    @Test
+    @DisplayName("Should recognise a duplicate reference rejection, and only that")
+    void shouldRecogniseDuplicateReference() {
+        assertTrue(PaystackClient.isDuplicateReference(badRequest(
+            "{\"status\":false,\"message\":\"Duplicate Transaction Reference\"}")));
+        assertTrue(PaystackClient.isDuplicateReference(badRequest(
+            "{\"status\":false,\"message\":\"Transfer reference already exists\"}")));
+
+        assertFalse(PaystackClient.isDuplicateReference(badRequest(
+            "{\"status\":false,\"message\":\"Invalid Amount Sent\"}")));
+        assertFalse(PaystackClient.isDuplicateReference(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED,
+            "Unauthorized", HttpHeaders.EMPTY, "Duplicate reference".getBytes(StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8)));
+    }
+
+    // ==============================================
+    // BENCHMARK (opt-in: -Dbenchmark=true)
+    // ==============================================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: typed streaming client vs Map binding")
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void benchmarkAllocationAgainstMapBinding() {
+        int iterations = 500;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("sk_test_key");
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        Runnable mapBinding = () -> {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                stub.baseUrl() + "/bank", HttpMethod.GET, entity, Map.class);
+            List<Map<String, Object>> data = (List<Map<String, Object>>) response.getBody().get("data");
+            int active = 0;
+            for (Map<String, Object> bank : data) {
+                if (Boolean.TRUE.equals(bank.get("active"))) {
+                    active++;
+                }
+            }
+            assertEquals(LIST_SIZE, active);
+        };
+        Runnable typedStreaming = () -> {
+            int[] active = new int[1];
+            client.forEachBank(bank -> {
+                if (bank.active()) {
+                    active[0]++;
+                }
+            });
+            assertEquals(LIST_SIZE, active[0]);
+        };
+        Runnable countOnly = () -> assertEquals(LIST_SIZE, client.countBanks());
+
+        // Warm up all paths before measuring
+        for (int i = 0; i < iterations; i++) {
+            mapBinding.run();
+            typedStreaming.run();
+            countOnly.run();
+        }
+
+        long mapBytes = allocatedPerCall(mapBinding, iterations);
+        long typedBytes = allocatedPerCall(typedStreaming, iterations);
+        long countBytes = allocatedPerCall(countOnly, iterations);
+
+        System.out.printf("Paystack /bank (%d banks) bytes/call: map=%d typed=%d count=%d%n",
+            LIST_SIZE, mapBytes, typedBytes, countBytes);
+        assertTrue(typedBytes < mapBytes, "typed streaming should allocate less than Map binding");
+        assertTrue(countBytes < typedBytes, "count-only should allocate less than binding");
+    }
+
+    private static HttpClientErrorException badRequest(String body) {
+        return HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY,
+            body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    private static long allocatedPerCall(Runnable call, int iterations) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            call.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+    }
+}
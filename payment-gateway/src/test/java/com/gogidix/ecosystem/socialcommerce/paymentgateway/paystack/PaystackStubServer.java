@@ -0,0 +1,130 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal in-process Paystack API stub
+ *
+ * Serves canned responses for the endpoints used by {@link PaystackClient}
+ * on an ephemeral localhost port. List endpoints return a configurable
+ * number of elements so parsing cost can be measured at realistic sizes.
+ */
+class PaystackStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final byte[] bankList;
+    private final byte[] transactionList;
+    private volatile boolean failing;
+
+    PaystackStubServer(int listSize) throws IOException {
+        this.bankList = bankList(listSize);
+        this.transactionList = transactionList(listSize);
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/transaction/initialize", exchange -> respond(exchange,
+            "{\"status\":true,\"message\":\"Authorization URL created\",\"data\":{"
+                + "\"authorization_url\":\"https://checkout.paystack.com/abc123\","
+                + "\"access_code\":\"abc123\",\"reference\":\"PAYSTACK_ORDER_1_1\"}}"));
+        server.createContext("/transaction/verify/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String reference = path.substring(path.lastIndexOf('/') + 1);
+            respond(exchange, "{\"status\":true,\"message\":\"Verification successful\",\"data\":"
+                + transaction(1, reference) + "}");
+        });
+        server.createContext("/transaction", exchange -> respond(exchange, transactionList));
+        server.createContext("/refund", exchange -> respond(exchange,
+            "{\"status\":true,\"message\":\"Refund has been queued for processing\",\"data\":{"
+                + "\"id\":3018284,\"status\":\"pending\",\"amount\":5000,\"currency\":\"NGN\","
+                + "\"transaction\":{\"id\":1}}}"));
+        server.createContext("/transfer", exchange -> respond(exchange,
+            "{\"status\":true,\"message\":\"Transfer has been queued\",\"data\":{"
+                + "\"id\":37272792,\"transfer_code\":\"TRF_1ptvuv321ahaa7q\",\"reference\":\"ref_1\","
+                + "\"status\":\"pending\",\"amount\":250000,\"currency\":\"NGN\",\"integration\":463433}}"));
+        server.createContext("/transfer/verify/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String reference = path.substring(path.lastIndexOf('/') + 1);
+            respond(exchange, "{\"status\":true,\"message\":\"Transfer retrieved\",\"data\":{"
+                + "\"id\":37272792,\"transfer_code\":\"TRF_1ptvuv321ahaa7q\",\"reference\":\"" + reference + "\","
+                + "\"status\":\"success\",\"amount\":250000,\"currency\":\"NGN\"}}");
+        });
+        server.createContext("/bank", exchange -> respond(exchange, bankList));
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Make every endpoint answer with {@code status: false}
+     */
+    void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        respond(exchange, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        if (failing) {
+            body = "{\"status\":false,\"message\":\"Invalid key\"}".getBytes(StandardCharsets.UTF_8);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] bankList(int size) {
+        StringBuilder json = new StringBuilder("{\"status\":true,\"message\":\"Banks retrieved\",\"data\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                .append(",\"name\":\"Bank ").append(i).append('"')
+                .append(",\"slug\":\"bank-").append(i).append('"')
+                .append(",\"code\":\"").append(String.format("%03d", i % 1000)).append('"')
+                .append(",\"longcode\":\"\",\"gateway\":\"emandate\",\"pay_with_bank\":false")
+                .append(",\"active\":true,\"is_deleted\":false")
+                .append(",\"country\":\"Nigeria\",\"currency\":\"NGN\",\"type\":\"nuban\"")
+                .append(",\"createdAt\":\"2016-07-14T10:04:29.000Z\",\"updatedAt\":\"2020-02-18T08:06:44.000Z\"}");
+        }
+        json.append("],\"meta\":{\"next\":null,\"previous\":null,\"perPage\":").append(size).append("}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] transactionList(int size) {
+        StringBuilder json = new StringBuilder("{\"status\":true,\"message\":\"Transactions retrieved\",\"data\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(transaction(i, "PAYSTACK_ORDER_" + i));
+        }
+        json.append("],\"meta\":{\"total\":").append(size).append(",\"page\":1}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String transaction(long id, String reference) {
+        return "{\"id\":" + id + ",\"domain\":\"test\",\"status\":\"success\",\"reference\":\"" + reference + "\""
+            + ",\"amount\":500000,\"currency\":\"NGN\",\"channel\":\"card\",\"gateway_response\":\"Successful\""
+            + ",\"paid_at\":\"2024-01-01T10:00:00.000Z\",\"created_at\":\"2024-01-01T09:59:00.000Z\""
+            + ",\"metadata\":{\"order_id\":\"ORDER_" + id + "\",\"region\":\"AFRICA\"}"
+            + ",\"authorization\":{\"authorization_code\":\"AUTH_x\",\"bin\":\"408408\",\"last4\":\"4081\"}}";
+    }
+}
@@ -0,0 +1,287 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rate Limiter Test Suite
+ *
+ * Tests the lock-free token buckets, the shared (Redis-mode) limiter with
+ * local pre-fetching against an in-memory store, tier mapping and the
+ * RateLimit-* response headers of the filter
+ */
+@DisplayName("Rate Limiter Tests")
+class RateLimiterTest {
+
+    private static final RateLimit TEN_PER_SECOND = new RateLimit(600, 5);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should allow a burst, then refill at the configured rate")
+    void shouldRefillAtRate() {
+        LocalRateLimiter limiter = new LocalRateLimiter(1024, clock::get);
+
+        for (int i = 4; i >= 0; i--) {
+            RateLimitDecision decision = limiter.tryAcquire("customer", "cust_1", TEN_PER_SECOND);
+            assertTrue(decision.allowed());
+            assertEquals(i, decision.remaining());
+        }
+        RateLimitDecision rejected = limiter.tryAcquire("customer", "cust_1", TEN_PER_SECOND);
+        assertFalse(rejected.allowed());
+        assertEquals(100_000_000L, rejected.retryAfterNanos());
+        assertEquals(1, rejected.retryAfterSeconds());
+
+        clock.addAndGet(100_000_000L);
+        assertTrue(limiter.tryAcquire("customer", "cust_1", TEN_PER_SECOND).allowed());
+        assertFalse(limiter.tryAcquire("customer", "cust_1", TEN_PER_SECOND).allowed());
+
+        clock.addAndGet(10_000_000_000L);
+        RateLimitDecision refilled = limiter.tryAcquire("customer", "cust_1", TEN_PER_SECOND);
+        assertEquals(4, refilled.remaining(), "a long idle period refills only up to the burst");
+
+        assertTrue(limiter.tryAcquire("customer", "cust_2", TEN_PER_SECOND).allowed(), "keys are independent");
+        assertTrue(limiter.tryAcquire("merchant", "cust_1", TEN_PER_SECOND).allowed(), "scopes are independent");
+    }
+
+    @Test
+    @DisplayName("Should admit exactly the burst under concurrent requests")
+    void shouldAdmitExactlyBurstConcurrently() throws Exception {
+        LocalRateLimiter limiter = new LocalRateLimiter(1024, clock::get);
+        RateLimit burst = new RateLimit(60, 1000);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("merchant", "m_1", burst).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, allowed.get());
+    }
+
+    @Test
+    @DisplayName("Should stay bounded and reuse idle buckets first")
+    void shouldEvictIdleBuckets() {
+        LocalRateLimiter limiter = new LocalRateLimiter(64, clock::get);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("customer", "cust_" + i, TEN_PER_SECOND);
+        }
+
+        assertEquals(64, limiter.getCapacity());
+        assertTrue(limiter.getEvictions() >= 10_000 - 64);
+    }
+
+    @Test
+    @DisplayName("Should serve pre-fetched tokens locally and share the bucket through the store")
+    void shouldPrefetchFromSharedStore() {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        RateLimit limit = new RateLimit(600, 20);
+        RedisRateLimiter replicaA = new RedisRateLimiter(
+            store, new LocalRateLimiter(64, clock::get), 64, 10, 200, clock::get);
+        RedisRateLimiter replicaB = new RedisRateLimiter(
+            store, new LocalRateLimiter(64, clock::get), 64, 10, 200, clock::get);
+
+        int allowed = 0;
+        for (int i = 0; i < 15; i++) {
+            allowed += replicaA.tryAcquire("merchant", "m_1", limit).allowed() ? 1 : 0;
+            allowed += replicaB.tryAcquire("merchant", "m_1", limit).allowed() ? 1 : 0;
+        }
+
+        assertEquals(20, allowed, "both replicas draw from one bucket of 20");
+        assertEquals(6, store.calls.get(), "batches of a quarter of the burst, then one rejected round trip each");
+    }
+
+    @Test
+    @DisplayName("Should expire unused leases and fall back to local limits when the store fails")
+    void shouldExpireLeasesAndFallBack() {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        RateLimit limit = new RateLimit(600, 40);
+        RedisRateLimiter limiter = new RedisRateLimiter(
+            store, new LocalRateLimiter(64, clock::get), 64, 10, 200, clock::get);
+
+        assertTrue(limiter.tryAcquire("customer", "cust_1", limit).allowed());
+        assertEquals(1, store.calls.get());
+        assertTrue(limiter.tryAcquire("customer", "cust_1", limit).allowed());
+        assertEquals(1, store.calls.get(), "second token comes from the lease");
+
+        clock.addAndGet(250_000_000L);
+        assertTrue(limiter.tryAcquire("customer", "cust_1", limit).allowed());
+        assertEquals(2, store.calls.get(), "expired lease goes back to the store");
+
+        store.failing = true;
+        clock.addAndGet(250_000_000L);
+        int allowed = 0;
+        for (int i = 0; i < 100; i++) {
+            allowed += limiter.tryAcquire("customer", "cust_1", limit).allowed() ? 1 : 0;
+        }
+        assertEquals(40, allowed, "fallback enforces the same limit per replica");
+    }
+
+    @Test
+    @DisplayName("Should map roles to the highest tier")
+    void shouldMapRolesToTiers() {
+        assertEquals(RateLimitTier.CUSTOMER, RateLimitTier.forAuthorities(List.of()));
+        assertEquals(RateLimitTier.MERCHANT, RateLimitTier.forAuthorities(List.of(
+            new SimpleGrantedAuthority("ROLE_CUSTOMER"), new SimpleGrantedAuthority("ROLE_VENDOR"))));
+        assertEquals(RateLimitTier.PLATFORM, RateLimitTier.forAuthorities(List.of(
+            new SimpleGrantedAuthority("ROLE_SUPER_ADMIN"), new SimpleGrantedAuthority("PERM_PAYMENT_READ"))));
+    }
+
+    @Test
+    @DisplayName("Should set RateLimit headers and reject with 429 once the bucket is empty")
+    void shouldWriteHeadersAndReject() throws Exception {
+        RateLimitPolicy policy = new RateLimitPolicy(Map.of(RateLimitTier.MERCHANT, new RateLimit(600, 2)));
+        RateLimitFilter filter = new RateLimitFilter(new LocalRateLimiter(64, clock::get), policy);
+        authenticate("vendor_7", "ROLE_VENDOR");
+
+        MockHttpServletResponse first = call(filter, "/api/v1/payments/process");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", first.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("600;w=60;burst=2", first.getHeader(RateLimitFilter.POLICY_HEADER));
+
+        assertEquals(200, call(filter, "/api/v1/payments/process").getStatus());
+        MockHttpServletResponse limited = call(filter, "/api/v1/payments/process");
+        assertEquals(429, limited.getStatus());
+        assertEquals("0", limited.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("Too Many Requests"));
+
+        MockHttpServletResponse webhook = call(filter, "/api/v1/payments/webhook/STRIPE");
+        assertEquals(200, webhook.getStatus());
+        assertNull(webhook.getHeader(RateLimitFilter.LIMIT_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should give the caller's token back when the client bucket rejects, and the reverse")
+    void shouldNotSpendTokensOnRejection() throws Exception {
+        LocalRateLimiter limiter = new LocalRateLimiter(64, clock::get);
+        RateLimitPolicy policy = new RateLimitPolicy(Map.of(
+            RateLimitTier.MERCHANT, new RateLimit(600, 3),
+            RateLimitTier.API_CLIENT, new RateLimit(600, 1)));
+        RateLimitFilter filter = new RateLimitFilter(limiter, policy);
+        authenticate("vendor_7", "ROLE_VENDOR", "storefront");
+
+        assertEquals(200, call(filter, "/api/v1/payments/process").getStatus());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(429, call(filter, "/api/v1/payments/process").getStatus());
+        }
+        assertEquals(1, limiter.tryAcquire("merchant", "vendor_7", policy.limitFor(RateLimitTier.MERCHANT)).remaining(),
+            "client rejections must not drain the merchant bucket");
+
+        clock.addAndGet(100_000_000L);
+        while (limiter.tryAcquire("merchant", "vendor_7", policy.limitFor(RateLimitTier.MERCHANT)).allowed()) {
+            // drain the merchant bucket
+        }
+        assertEquals(429, call(filter, "/api/v1/payments/process").getStatus());
+        assertTrue(limiter.tryAcquire("client", "storefront", policy.limitFor(RateLimitTier.API_CLIENT)).allowed(),
+            "merchant rejections must not drain the client bucket");
+    }
+
+    @Test
+    @DisplayName("Should return a released token to the bucket, never beyond full")
+    void shouldReleaseTokens() {
+        LocalRateLimiter limiter = new LocalRateLimiter(64, clock::get);
+
+        assertEquals(4, limiter.tryAcquire("customer", "cust_1", TEN_PER_SECOND).remaining());
+        limiter.release("customer", "cust_1", TEN_PER_SECOND);
+        limiter.release("customer", "cust_1", TEN_PER_SECOND);
+        assertEquals(4, limiter.tryAcquire("customer", "cust_1", TEN_PER_SECOND).remaining());
+    }
+
+    // ==================== HELPERS ====================
+
+    private static void authenticate(String subject, String role) {
+        authenticate(subject, role, null);
+    }
+
+    private static void authenticate(String subject, String role, String clientId) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject(subject)
+            .issuedAt(Instant.now());
+        if (clientId != null) {
+            builder.claim("azp", clientId);
+        }
+        Jwt jwt = builder.build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority(role)), subject));
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * Same reservation rules as the Redis script, on the test clock
+     */
+    private final class InMemoryTokenStore implements TokenStore {
+
+        private final Map<String, Long> arrivals = new HashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public synchronized Reservation reserve(String key, RateLimit limit, int wanted) {
+            if (failing) {
+                throw new IllegalStateException("connection refused");
+            }
+            calls.incrementAndGet();
+            long now = clock.get();
+            long arrival = Math.max(arrivals.getOrDefault(key, now), now);
+            long available = (now + limit.toleranceNanos() - arrival) / limit.intervalNanos();
+            int granted = (int) Math.min(wanted, available);
+            if (granted < 1) {
+                return new Reservation(0, arrival + limit.intervalNanos() - now);
+            }
+            arrival += granted * limit.intervalNanos();
+            arrivals.put(key, arrival);
+            return new Reservation(granted, arrival - now);
+        }
+    }
+}
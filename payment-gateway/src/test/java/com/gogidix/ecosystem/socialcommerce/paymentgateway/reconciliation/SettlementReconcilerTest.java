@@ -0,0 +1,287 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.reconciliation;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Settlement Reconciler Test Suite
+ *
+ * Reconciles the fixture exports under src/test/resources/reconciliation
+ * against payment_records in H2 (Flyway schema). The Stripe fixture has a
+ * byte order mark, CRLF line endings and a quoted multi-line description.
+ */
+@DisplayName("Settlement Reconciler Tests")
+class SettlementReconcilerTest {
+
+    private static final Instant FROM = Instant.parse("2026-10-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-10-03T00:00:00Z");
+
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private SettlementReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:reconciliation" + TEST_SEQUENCE.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+            "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        reconciler = new SettlementReconciler(dataSource, new DataSourceTransactionManager(dataSource), 64);
+    }
+
+    // ==================== STRIPE ====================
+
+    @Test
+    @DisplayName("Should match, flag and report a Stripe balance transaction export")
+    void shouldReconcileStripeExport() throws Exception {
+        long match1 = insertRecord("PAYMENT", "STRIPE", "pi_3Q0001", "100.00", "USD", "succeeded", FROM);
+        long match2 = insertRecord("PAYMENT", "STRIPE", "pi_3Q0002", "1250.00", "USD", "succeeded", FROM);
+        long amount = insertRecord("PAYMENT", "STRIPE", "pi_3Q0003", "50.00", "USD", "succeeded", FROM);
+        long currency = insertRecord("PAYMENT", "STRIPE", "pi_3Q0004", "20.00", "USD", "succeeded", FROM);
+        long malformed = insertRecord("PAYMENT", "STRIPE", "pi_3Q0009", "15.00", "USD", "succeeded", FROM);
+        long unsettled = insertRecord("PAYMENT", "STRIPE", "pi_3Q0006", "75.00", "USD", "succeeded", FROM);
+        // Not part of this reconciliation: other gateway, other operation, outside the period
+        insertRecord("PAYMENT", "PAYSTACK", "pi_3Q0010", "10.00", "USD", "succeeded", FROM);
+        insertRecord("REFUND", "STRIPE", "pi_3Q0011", "10.00", "USD", "succeeded", FROM);
+        insertRecord("PAYMENT", "STRIPE", "pi_3Q0012", "10.00", "USD", "succeeded", TO);
+
+        ReconciliationSummary summary = reconciler.reconcile(
+            fixture("stripe_balance_transactions.csv"), SettlementFormat.STRIPE_BALANCE_TRANSACTIONS,
+            FROM, TO, tempDir);
+
+        assertEquals(6, summary.recordsIndexed());
+        assertEquals(9, summary.rowsScanned());
+        assertEquals(2, summary.rowsIgnored(), "payout and fee rows are not reconciled");
+        assertEquals(2, summary.matched());
+        assertEquals(4, summary.mismatched());
+        assertEquals(1, summary.missingFromRecords());
+        assertEquals(1, summary.missingFromSettlement());
+        assertFalse(summary.isClean());
+
+        assertEquals(List.of(
+            "reference,record_id",
+            "pi_3Q0001," + match1,
+            "pi_3Q0002," + match2
+        ), report(CsvReportWriter.MATCHES_FILE));
+
+        assertEquals(List.of(
+            header(),
+            "AMOUNT_MISMATCH,pi_3Q0003," + amount + ",50.0000,49.9900,USD,usd,succeeded,4",
+            "CURRENCY_MISMATCH,pi_3Q0004," + currency + ",20.0000,20.0000,USD,eur,succeeded,5",
+            "DUPLICATE_SETTLEMENT,pi_3Q0001," + match1 + ",100.0000,100.0000,USD,usd,succeeded,9",
+            "MALFORMED_SETTLEMENT_ROW,pi_3Q0009," + malformed + ",15.0000,,USD,usd,succeeded,10"
+        ), report(CsvReportWriter.MISMATCHES_FILE));
+
+        assertEquals(List.of(
+            header(),
+            "MISSING_FROM_RECORDS,pi_3Q9999,,,12.5000,,usd,,8",
+            "MISSING_FROM_SETTLEMENT,pi_3Q0006," + unsettled + ",75.0000,,USD,,succeeded,"
+        ), report(CsvReportWriter.MISSING_FILE));
+    }
+
+    // ==================== PAYSTACK ====================
+
+    @Test
+    @DisplayName("Should reconcile a Paystack settlement export and skip failed transactions")
+    void shouldReconcilePaystackExport() throws Exception {
+        insertRecord("PAYMENT", "PAYSTACK", "PAYSTACK_ORD-2001_1790000000001", "5000.00", "NGN", "success", FROM);
+        insertRecord("PAYMENT", "PAYSTACK", "PAYSTACK_ORD-2002_1790000000002", "12500.50", "NGN", "success", FROM);
+        insertRecord("PAYMENT", "PAYSTACK", "PAYSTACK_ORD-2004_1790000000004", "800.00", "NGN", "success", FROM);
+        insertRecord("PAYMENT", "PAYSTACK", "PAYSTACK_ORD-2005_1790000000005", "1000.00", "NGN", "success", FROM);
+
+        RecordingSink sink = new RecordingSink();
+        ReferenceIndex index = reconciler.loadRecords(SettlementFormat.PAYSTACK_SETTLEMENT, FROM, TO);
+        ReconciliationSummary summary = reconciler.reconcile(
+            fixture("paystack_settlement.csv"), SettlementFormat.PAYSTACK_SETTLEMENT, index, sink);
+
+        assertEquals(4, summary.rowsScanned());
+        assertEquals(1, summary.rowsIgnored());
+        assertEquals(3, summary.matched());
+        assertEquals(0, summary.mismatched());
+        assertEquals(0, summary.missingFromRecords());
+        assertEquals(List.of("PAYSTACK_ORD-2001_1790000000001", "PAYSTACK_ORD-2002_1790000000002",
+            "PAYSTACK_ORD-2004_1790000000004"), sink.matched);
+        assertEquals(1, sink.discrepancies.size());
+        assertEquals(Discrepancy.Type.MISSING_FROM_SETTLEMENT, sink.discrepancies.get(0).type());
+        assertEquals("PAYSTACK_ORD-2005_1790000000005", sink.discrepancies.get(0).reference());
+    }
+
+    @Test
+    @DisplayName("Should reject a settlement file without a reference column")
+    void shouldRejectUnknownLayout() throws Exception {
+        Path file = tempDir.resolve("unknown.csv");
+        Files.writeString(file, "id,total\n1,10.00\n");
+
+        assertThrows(IllegalArgumentException.class, () -> reconciler.reconcile(
+            file, SettlementFormat.PAYSTACK_SETTLEMENT, new ReferenceIndex(0), new RecordingSink()));
+    }
+
+    // ==================== MAPPED READER ====================
+
+    @Test
+    @DisplayName("Should produce identical records for every window size")
+    void shouldTokenizeAcrossWindowBoundaries() throws Exception {
+        Path file = fixture("stripe_balance_transactions.csv");
+        List<List<String>> expected = readAll(file, MappedCsvReader.DEFAULT_WINDOW_BYTES);
+
+        assertEquals(10, expected.size());
+        assertEquals("balance_transaction_id", expected.get(0).get(0), "byte order mark must be skipped");
+        assertEquals("1,250.00", expected.get(2).get(4));
+        assertEquals("Gift note: \"\"Happy\nbirthday\"\"", expected.get(3).get(9));
+        assertEquals("pi_3Q0003", expected.get(3).get(10), "CR must not leak into the last field");
+
+        // Smallest window that fits the longest record, up to past the file size
+        for (int window = 200; window <= Files.size(file) + 1; window++) {
+            assertEquals(expected, readAll(file, window), "window of " + window + " bytes");
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail when a record is larger than the mapping window")
+    void shouldFailOnOversizedRecord() throws Exception {
+        Path file = tempDir.resolve("oversized.csv");
+        Files.writeString(file, "reference,amount\nPAYSTACK_" + "X".repeat(200) + ",1.00\n");
+
+        IOException error = assertThrows(IOException.class,
+            () -> new MappedCsvReader(file, 64).read(record -> { }));
+        assertTrue(error.getMessage().contains("exceeds the 64-byte mapping window"));
+    }
+
+    // ==================== BENCHMARK ====================
+
+    /**
+     * Opt-in throughput and allocation benchmark:
+     * mvn test -Dtest=SettlementReconcilerTest -Dbenchmark=true -Dbenchmark.reconciliation.mb=5120
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: scan a large settlement file without per-row allocation")
+    void benchmarkLargeFile() throws Exception {
+        long targetBytes = Long.getLong("benchmark.reconciliation.mb", 512) << 20;
+        int records = 1_000_000;
+
+        ReferenceIndex index = new ReferenceIndex(records);
+        for (int i = 0; i < records; i++) {
+            index.add(String.format("pi_%010d", i), i, new BigDecimal("12.34"), "usd", "succeeded");
+        }
+
+        Path file = tempDir.resolve("large.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write("balance_transaction_id,currency,gross,fee,reporting_category,payment_intent_id\n");
+            long written = 0;
+            for (int i = 0; written < targetBytes; i++) {
+                String line = i < records
+                    ? String.format("txn_%010d,usd,12.34,0.66,charge,pi_%010d\n", i, i)
+                    : String.format("txn_%010d,usd,-0.25,0.00,fee,\n", i);
+                out.write(line);
+                written += line.length();
+            }
+        }
+
+        ReconciliationSink noop = new ReconciliationSink() {
+            @Override
+            public void matched(String reference, long recordId) {
+            }
+
+            @Override
+            public void discrepancy(Discrepancy discrepancy) {
+            }
+        };
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        ReconciliationSummary summary = reconciler.reconcile(
+            file, SettlementFormat.STRIPE_BALANCE_TRANSACTIONS, index, noop);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        double megabytes = summary.bytesScanned() / (1024.0 * 1024.0);
+        System.out.printf("Reconciled %.0f MB (%d rows) in %d ms: %.0f MB/s, %d bytes allocated (%.0f bytes/MB)%n",
+            megabytes, summary.rowsScanned(), summary.elapsed().toMillis(),
+            megabytes / Math.max(summary.elapsed().toMillis(), 1) * 1000.0, allocated, allocated / megabytes);
+
+        assertEquals(records, summary.matched());
+        assertTrue(summary.isClean());
+        assertTrue(allocated / megabytes < 16 * 1024, "scan should not allocate per row");
+    }
+
+    // ==================== HELPERS ====================
+
+    private long insertRecord(String operation, String gateway, String reference, String amount,
+                              String currency, String status, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO payment_records (operation, gateway, gateway_reference, status, amount, "
+                + "currency, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            operation, gateway, reference, status, new BigDecimal(amount), currency, Timestamp.from(createdAt));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM payment_records", Long.class);
+    }
+
+    private Path fixture(String name) throws URISyntaxException {
+        return Path.of(getClass().getResource("/reconciliation/" + name).toURI());
+    }
+
+    private List<String> report(String name) throws IOException {
+        return Files.readAllLines(tempDir.resolve(name), StandardCharsets.UTF_8);
+    }
+
+    private static String header() {
+        return "type,reference,record_id,expected_amount,settled_amount,"
+            + "expected_currency,settled_currency,record_status,settlement_line";
+    }
+
+    private static List<List<String>> readAll(Path file, int windowBytes) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        new MappedCsvReader(file, windowBytes).read(record -> {
+            List<String> fields = new ArrayList<>();
+            for (int field = 0; field < record.fieldCount(); field++) {
+                fields.add(record.toString(field));
+            }
+            records.add(fields);
+        });
+        return records;
+    }
+
+    private static final class RecordingSink implements ReconciliationSink {
+
+        private final List<String> matched = new ArrayList<>();
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+
+        @Override
+        public void matched(String reference, long recordId) {
+            matched.add(reference);
+        }
+
+        @Override
+        public void discrepancy(Discrepancy discrepancy) {
+            discrepancies.add(discrepancy);
+        }
+    }
+}
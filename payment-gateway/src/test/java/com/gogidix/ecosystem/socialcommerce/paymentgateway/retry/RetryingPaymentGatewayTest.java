@@ -0,0 +1,245 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.retry;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentStatus;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.RefundRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.GatewayOverloadedException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.metrics.GatewayOperation;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Retrying Payment Gateway Test Suite
+ *
+ * PERFORMANCE TESTING: Budgeted retries with decorrelated jitter
+ * - Tests transient and terminal failures are told apart through wrapped causes
+ * - Tests backoff stays within the decorrelated jitter bounds
+ * - Tests reads are retried, writes only with an idempotency key the gateway honours
+ * - Tests the retry budget caps amplification when a provider fails every call
+ * - Tests call, retry and amplification metrics per gateway
+ */
+@DisplayName("Retrying Payment Gateway Tests")
+class RetryingPaymentGatewayTest {
+
+    private static final String KEY = "3f7c2a9e-5b1d-4c8e-9a6f-0d2b4e6a8c10";
+
+    private SimpleMeterRegistry registry;
+    private GatewayRetries retries;
+    private PaymentGateway delegate;
+    private final List<Long> sleeps = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        retries = new GatewayRetries(registry, new MockEnvironment()
+            .withProperty("payment.retry.keyed-writes", "process_payment,refund,payout")
+            .withProperty("payment.retry.gateways.stripe.enabled", "false"));
+        delegate = mock(PaymentGateway.class);
+        when(delegate.getName()).thenReturn("PAYSTACK");
+    }
+
+    // ==================== CLASSIFICATION ====================
+
+    @Test
+    @DisplayName("Should retry network errors, 5xx and 429, and never 4xx or declines")
+    void shouldClassifyFailures() {
+        assertTrue(RetryClassifier.isTransient(new ResourceAccessException("I/O error", new SocketTimeoutException())));
+        assertTrue(RetryClassifier.isTransient(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+        assertTrue(RetryClassifier.isTransient(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertTrue(RetryClassifier.isTransient(
+            new PaymentProcessingException("Simulated payout timed out", "GATEWAY_TIMEOUT", "SIMULATED")));
+        assertTrue(RetryClassifier.isTransient(new PaymentProcessingException("Payment processing failed",
+            new ResourceAccessException("Connection reset"))), "cause chain is searched");
+        assertTrue(RetryClassifier.isTransient(new PaymentProcessingException("Stripe payment failed",
+            new ApiConnectionException("Could not connect to Stripe"))));
+        assertTrue(RetryClassifier.isTransient(new PaymentProcessingException("Stripe payment failed",
+            new ApiException("Internal error", "req_1", null, 500, null))));
+
+        assertFalse(RetryClassifier.isTransient(new HttpClientErrorException(HttpStatus.BAD_REQUEST)));
+        assertFalse(RetryClassifier.isTransient(new PaymentProcessingException("Paystack payment failed",
+            new HttpClientErrorException(HttpStatus.UNAUTHORIZED))));
+        assertFalse(RetryClassifier.isTransient(new PaymentProcessingException("Stripe payment failed",
+            new ApiException("Invalid request", "req_2", null, 400, null))));
+        assertFalse(RetryClassifier.isTransient(
+            new PaymentProcessingException("Simulated card declined", "CARD_DECLINED", "SIMULATED")));
+        assertFalse(RetryClassifier.isTransient(new IllegalArgumentException("Payment amount must be positive")));
+        assertFalse(RetryClassifier.isTransient(new IllegalStateException("unknown")), "unknown is terminal");
+        assertFalse(RetryClassifier.isTransient(new GatewayOverloadedException("PAYSTACK", 4)),
+            "never retry into a full bulkhead");
+        assertFalse(RetryClassifier.isTransient(new PaymentProcessingException("Payment processing failed",
+            new GatewayOverloadedException("PAYSTACK", 4))));
+    }
+
+    @Test
+    @DisplayName("Should draw decorrelated jitter between the base and three times the previous delay")
+    void shouldJitterWithinBounds() {
+        RetryPolicy policy = new RetryPolicy(RetrySettings.DEFAULTS);
+        long base = RetrySettings.DEFAULTS.baseDelay().toNanos();
+        long cap = RetrySettings.DEFAULTS.maxDelay().toNanos();
+
+        long previous = 0;
+        long longest = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long next = policy.nextBackoffNanos(previous);
+            assertTrue(next >= base, "at least the base delay");
+            assertTrue(next <= Math.min(cap, Math.max(base, previous) * 3), "at most 3x the previous delay");
+            longest = Math.max(longest, next);
+            previous = i % 20 == 0 ? 0 : next;
+        }
+        assertTrue(longest > cap / 2, "delays grow towards the cap, longest " + longest);
+    }
+
+    // ==================== RETRIES ====================
+
+    @Test
+    @DisplayName("Should retry a status read through transient failures with growing backoff")
+    void shouldRetryReads() {
+        when(delegate.getPaymentStatus("PAYSTACK_1"))
+            .thenThrow(new ResourceAccessException("Read timed out"))
+            .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+            .thenReturn(PaymentStatus.builder().transactionId("PAYSTACK_1").status("COMPLETED").build());
+        PaymentGateway gateway = recording(retries.retry(delegate));
+
+        assertEquals("COMPLETED", gateway.getPaymentStatus("PAYSTACK_1").getStatus());
+
+        verify(delegate, times(3)).getPaymentStatus("PAYSTACK_1");
+        assertEquals(2, sleeps.size());
+        long firstMillis = TimeUnit.NANOSECONDS.toMillis(sleeps.get(0));
+        assertTrue(firstMillis >= 50 && firstMillis <= 150, "first backoff " + firstMillis + " ms");
+        assertEquals(1.0, registry.get(GatewayRetries.CALLS_METRIC).tag("gateway", "PAYSTACK").functionCounter().count());
+        assertEquals(2.0, registry.get(GatewayRetries.RETRIES_METRIC).tag("gateway", "PAYSTACK").functionCounter().count());
+        assertEquals(3.0, registry.get(GatewayRetries.AMPLIFICATION_METRIC).tag("gateway", "PAYSTACK").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should stop at max attempts and never retry terminal failures")
+    void shouldStopRetrying() {
+        when(delegate.getPaymentStatus("PAYSTACK_1")).thenThrow(new ResourceAccessException("Connection refused"));
+        when(delegate.getPaymentStatus("PAYSTACK_2")).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        RetryingPaymentGateway gateway = recording(retries.retry(delegate));
+
+        assertThrows(ResourceAccessException.class, () -> gateway.getPaymentStatus("PAYSTACK_1"));
+        assertThrows(HttpClientErrorException.class, () -> gateway.getPaymentStatus("PAYSTACK_2"));
+
+        verify(delegate, times(3)).getPaymentStatus("PAYSTACK_1");
+        verify(delegate, times(1)).getPaymentStatus("PAYSTACK_2");
+        assertEquals(1, gateway.getPolicy().getAttemptsExhausted());
+        assertEquals(2, gateway.getPolicy().getRetries());
+    }
+
+    @Test
+    @DisplayName("Should retry writes only with an idempotency key the gateway forwards")
+    void shouldRetryKeyedWritesOnly() {
+        PaymentProcessingException timeout = new PaymentProcessingException("Payment processing failed",
+            new ResourceAccessException("Read timed out"));
+        when(delegate.processPayment(any())).thenThrow(timeout);
+        when(delegate.refundPayment(any())).thenThrow(timeout);
+        when(delegate.initiatePayout(any())).thenThrow(timeout);
+        when(delegate.capturePayment(any(), any())).thenThrow(timeout);
+        RetryingPaymentGateway gateway = recording(retries.retry(delegate));
+
+        assertThrows(PaymentProcessingException.class, () -> gateway.processPayment(payment(null)));
+        verify(delegate, times(1)).processPayment(any());
+
+        assertThrows(PaymentProcessingException.class, () -> gateway.processPayment(payment(KEY)));
+        verify(delegate, times(1 + 3)).processPayment(any());
+
+        assertThrows(PaymentProcessingException.class, () -> gateway.initiatePayout(
+            PayoutRequest.builder().amount(5_000.0).currency("NGN").vendorId("VENDOR_1").idempotencyKey(KEY).build()));
+        verify(delegate, times(3)).initiatePayout(any());
+
+        // Paystack refunds take no reference, so even a keyed refund configured as retryable goes once
+        assertThrows(PaymentProcessingException.class, () -> gateway.refundPayment(
+            RefundRequest.builder().transactionId("PAYSTACK_1").amount(10.0).currency("NGN").idempotencyKey(KEY).build()));
+        verify(delegate, times(1)).refundPayment(any());
+        assertEquals(EnumSet.of(GatewayOperation.PROCESS_PAYMENT, GatewayOperation.PAYOUT),
+            gateway.getPolicy().getSettings().keyedWrites());
+
+        assertThrows(PaymentProcessingException.class, () -> gateway.capturePayment("PAYSTACK_1", 10.0));
+        verify(delegate, times(1)).capturePayment("PAYSTACK_1", 10.0);
+    }
+
+    @Test
+    @DisplayName("Should keep retries within the budget when the provider fails every call")
+    void shouldCapRetriesByBudget() {
+        RetrySettings settings = new RetrySettings(true, 3, Duration.ofMillis(1), Duration.ofMillis(10),
+            0.1, 0, 1, RetrySettings.DEFAULTS.keyedWrites());
+        RetryPolicy policy = new RetryPolicy(settings);
+        when(delegate.getPaymentStatus(any())).thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        RetryingPaymentGateway gateway = new RetryingPaymentGateway(delegate, policy, sleeps::add);
+
+        for (int i = 0; i < 100; i++) {
+            String transactionId = "PAYSTACK_" + i;
+            assertThrows(HttpServerErrorException.class, () -> gateway.getPaymentStatus(transactionId));
+        }
+
+        assertTrue(policy.getRetries() <= 1 + 100 * 0.1,
+            "one saved retry plus 10% extra load, got " + policy.getRetries() + " retries");
+        assertTrue(policy.getRetries() >= 10, "budget refills as calls arrive");
+        assertTrue(policy.getAmplification() <= 1.11, "amplification " + policy.getAmplification());
+        assertTrue(policy.getBudgetExhausted() > 80);
+        verify(delegate, times((int) (100 + policy.getRetries()))).getPaymentStatus(any());
+    }
+
+    @Test
+    @DisplayName("Should stop retrying when interrupted and leave disabled gateways undecorated")
+    void shouldStopOnInterruptAndSkipDisabled() {
+        when(delegate.getPaymentStatus("PAYSTACK_1")).thenThrow(new ResourceAccessException("Read timed out"));
+        RetryingPaymentGateway retrying = (RetryingPaymentGateway) retries.retry(delegate);
+        RetryingPaymentGateway gateway = new RetryingPaymentGateway(delegate, retrying.getPolicy(), nanos -> {
+            throw new InterruptedException();
+        });
+
+        try {
+            assertThrows(ResourceAccessException.class, () -> gateway.getPaymentStatus("PAYSTACK_1"));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        verify(delegate, times(1)).getPaymentStatus("PAYSTACK_1");
+        assertSame(retrying, retries.retry(retrying));
+
+        PaymentGateway stripe = mock(PaymentGateway.class);
+        when(stripe.getName()).thenReturn("STRIPE");
+        assertSame(stripe, retries.retry(stripe));
+    }
+
+    // ==================== HELPERS ====================
+
+    private RetryingPaymentGateway recording(PaymentGateway built) {
+        return new RetryingPaymentGateway(delegate, ((RetryingPaymentGateway) built).getPolicy(), sleeps::add);
+    }
+
+    private static PaymentRequest payment(String idempotencyKey) {
+        return PaymentRequest.builder()
+            .orderId("ORDER_1")
+            .amount(25.0)
+            .currency("NGN")
+            .idempotencyKey(idempotencyKey)
+            .build();
+    }
+}
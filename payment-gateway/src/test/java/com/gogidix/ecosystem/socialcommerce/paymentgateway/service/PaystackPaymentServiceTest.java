@@ -0,0 +1,186 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.service;
+
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.config.PaymentSecurityConfig;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentStatus;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PayoutResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.InitiateTransferRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.PaystackClient;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.TransactionData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.TransferData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.InputSanitizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Paystack Payment Service Test Suite
+ *
+ * - Tests transfer references are lowercase and keep keys that differ only in case apart
+ * - Tests a reused idempotency key reports the earlier outcome only for the same amount and currency
+ * - Tests Paystack's abandoned status maps to CANCELLED and stays visible as the gateway status
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Paystack Payment Service Tests")
+class PaystackPaymentServiceTest {
+
+    @Mock
+    private PaymentSecurityConfig securityConfig;
+
+    @Mock
+    private PaystackClient paystackClient;
+
+    @Mock
+    private InputSanitizer inputSanitizer;
+
+    @InjectMocks
+    private PaystackPaymentService service;
+
+    // ==================== TRANSFER REFERENCES ====================
+
+    @Test
+    @DisplayName("Should derive distinct lowercase transfer references for keys differing only in case")
+    void shouldKeepCaseDistinctKeysApart() {
+        String upper = PaystackPaymentService.transferReference("payout_batch_Run-A_7");
+        String lower = PaystackPaymentService.transferReference("payout_batch_run-a_7");
+
+        assertNotEquals(upper, lower);
+        assertEquals(upper, PaystackPaymentService.transferReference("payout_batch_Run-A_7"));
+        assertTrue(upper.matches("[a-z0-9_]{16,50}"), upper);
+    }
+
+    @Test
+    @DisplayName("Should send the hashed reference when initiating a transfer")
+    void shouldSendHashedReference() {
+        when(paystackClient.initiateTransfer(any())).thenReturn(
+            new TransferData(1, "TRF_1", null, "pending", 250_000, "NGN"));
+
+        service.initiatePayout(payout("payout_batch_Run-A_7", 2_500.0, "NGN"));
+
+        ArgumentCaptor<InitiateTransferRequest> sent = ArgumentCaptor.forClass(InitiateTransferRequest.class);
+        verify(paystackClient).initiateTransfer(sent.capture());
+        assertEquals(PaystackPaymentService.transferReference("payout_batch_Run-A_7"), sent.getValue().reference());
+    }
+
+    // ==================== REUSED KEYS ====================
+
+    @Test
+    @DisplayName("Should report the existing transfer when a reused key asks for the same payout")
+    void shouldReportExistingTransfer() {
+        String reference = PaystackPaymentService.transferReference("payout_1");
+        when(paystackClient.initiateTransfer(any())).thenThrow(duplicateReference());
+        when(paystackClient.verifyTransfer(reference)).thenReturn(
+            new TransferData(1, "TRF_1", reference, "success", 250_000, "NGN"));
+
+        PayoutResponse response = service.initiatePayout(payout("payout_1", 2_500.0, "NGN"));
+
+        assertEquals("TRF_1", response.getPayoutId());
+        assertEquals("success", response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject a reused transfer key for a different amount")
+    void shouldRejectTransferAmountMismatch() {
+        String reference = PaystackPaymentService.transferReference("payout_1");
+        when(paystackClient.initiateTransfer(any())).thenThrow(duplicateReference());
+        when(paystackClient.verifyTransfer(reference)).thenReturn(
+            new TransferData(1, "TRF_1", reference, "success", 250_000, "NGN"));
+
+        PaymentProcessingException e = assertThrows(PaymentProcessingException.class,
+            () -> service.initiatePayout(payout("payout_1", 3_000.0, "NGN")));
+
+        assertEquals("IDEMPOTENCY_KEY_MISMATCH", e.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Should report an unpaid existing transaction as pending for the same charge")
+    void shouldReportExistingPayment() {
+        when(securityConfig.getMaxAmountPerTransaction()).thenReturn(1_000_000.0);
+        when(paystackClient.initializeTransaction(any())).thenThrow(duplicateReference());
+        when(paystackClient.verifyTransaction("PAYSTACK_invoice_1"))
+            .thenReturn(transaction("abandoned", 150_000, "NGN"));
+
+        PaymentResponse response = service.processPayment(payment("invoice_1", 1_500.0, "NGN"));
+
+        assertEquals("PAYSTACK_invoice_1", response.getTransactionId());
+        assertEquals("PENDING", response.getStatus());
+        assertEquals(1_500.0, response.getAmount());
+    }
+
+    @Test
+    @DisplayName("Should reject a reused payment key for a different currency")
+    void shouldRejectPaymentCurrencyMismatch() {
+        when(securityConfig.getMaxAmountPerTransaction()).thenReturn(1_000_000.0);
+        when(paystackClient.initializeTransaction(any())).thenThrow(duplicateReference());
+        when(paystackClient.verifyTransaction("PAYSTACK_invoice_1"))
+            .thenReturn(transaction("success", 150_000, "GHS"));
+
+        PaymentProcessingException e = assertThrows(PaymentProcessingException.class,
+            () -> service.processPayment(payment("invoice_1", 1_500.0, "NGN")));
+
+        assertEquals("IDEMPOTENCY_KEY_MISMATCH", e.getErrorCode());
+    }
+
+    // ==================== STATUS ====================
+
+    @Test
+    @DisplayName("Should map abandoned to CANCELLED and keep Paystack's own status")
+    void shouldMapAbandonedToCancelled() {
+        when(paystackClient.verifyTransaction("PAYSTACK_1")).thenReturn(transaction("abandoned", 150_000, "NGN"));
+
+        PaymentStatus status = service.getPaymentStatus("PAYSTACK_1");
+
+        assertEquals("CANCELLED", status.getStatus());
+        assertEquals("abandoned", status.getGatewayStatus());
+    }
+
+    // ==================== HELPERS ====================
+
+    private static PaymentRequest payment(String idempotencyKey, double amount, String currency) {
+        return PaymentRequest.builder()
+            .orderId("ORDER_1")
+            .customerEmail("customer@example.com")
+            .amount(amount)
+            .currency(currency)
+            .idempotencyKey(idempotencyKey)
+            .build();
+    }
+
+    private static PayoutRequest payout(String idempotencyKey, double amount, String currency) {
+        return PayoutRequest.builder()
+            .amount(amount)
+            .currency(currency)
+            .vendorId("vendor_1")
+            .accountNumber("0123456789")
+            .accountName("Ada Obi")
+            .bankCode("058")
+            .idempotencyKey(idempotencyKey)
+            .build();
+    }
+
+    private static TransactionData transaction(String status, long amount, String currency) {
+        return new TransactionData(1, "PAYSTACK_invoice_1", status, amount, currency, "card", null, null, null);
+    }
+
+    private static HttpClientErrorException duplicateReference() {
+        return HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY,
+            "{\"status\":false,\"message\":\"Duplicate Transaction Reference\"}".getBytes(StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.CreateRefundRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.InitializeTransactionData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.InitializeTransactionRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.InitiateTransferRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.PaystackClient;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.RefundData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.TransactionData;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.paystack.TransferData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paystack Simulator Server Test Suite
+ *
+ * PERFORMANCE TESTING: Runs the real {@link PaystackClient} against the
+ * local Paystack simulator, as load tests under the simulation profile do
+ * - Tests the initialize, verify, refund, transfer and list round trips
+ * - Tests declined charges verify as failed and cannot be refunded
+ * - Tests injected provider errors and bad keys surface as HTTP errors
+ */
+@DisplayName("Paystack Simulator Server Tests")
+class PaystackSimulatorServerTest {
+
+    private static final String SECRET_KEY = "sk_test_simulated";
+    private static final LatencyDistribution NO_LATENCY = LatencyDistribution.fixed(Duration.ZERO);
+
+    private final WebhookDispatcher webhooks = new WebhookDispatcher();
+    private final List<PaystackSimulatorServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(PaystackSimulatorServer::close);
+        webhooks.close();
+    }
+
+    @Test
+    @DisplayName("Should serve a full charge, verify and refund round trip")
+    void shouldRoundTripCharge() {
+        PaystackClient client = client(start(0, 0), SECRET_KEY);
+
+        InitializeTransactionData initialized = client.initializeTransaction(initialize("ORDER_1", "PAYSTACK_ORDER_1_1"));
+        assertEquals("PAYSTACK_ORDER_1_1", initialized.reference());
+        assertTrue(initialized.authorizationUrl().endsWith(initialized.accessCode()));
+
+        TransactionData verified = client.verifyTransaction("PAYSTACK_ORDER_1_1");
+        assertEquals("success", verified.status());
+        assertEquals(500000L, verified.amount());
+        assertEquals("NGN", verified.currency());
+
+        RefundData refund = client.createRefund(new CreateRefundRequest("PAYSTACK_ORDER_1_1", 5000L, "NGN", "Damaged"));
+        assertEquals("pending", refund.status());
+        assertEquals(5000L, refund.amount());
+
+        HttpClientErrorException tooMuch = assertThrows(HttpClientErrorException.class, () ->
+            client.createRefund(new CreateRefundRequest("PAYSTACK_ORDER_1_1", 600000L, "NGN", "Too much")));
+        assertEquals(400, tooMuch.getStatusCode().value());
+
+        assertThrows(HttpClientErrorException.NotFound.class, () -> client.verifyTransaction("PAYSTACK_UNKNOWN"));
+    }
+
+    @Test
+    @DisplayName("Should serve transfers and list endpoints")
+    void shouldServeTransfersAndLists() {
+        PaystackClient client = client(start(0, 0), SECRET_KEY);
+
+        TransferData transfer = client.initiateTransfer(new InitiateTransferRequest(
+            "balance", 250000L, "NGN", "Courier payout",
+            new InitiateTransferRequest.Recipient("bank_account", "0001234567", "058", "Ada Courier")));
+        assertTrue(transfer.transferCode().startsWith("TRF_"));
+        assertEquals("pending", transfer.status());
+        assertEquals(250000L, transfer.amount());
+
+        assertEquals(25, client.countBanks());
+        List<TransactionData> transactions = new ArrayList<>();
+        assertEquals(30, client.forEachTransaction(2, 30, transactions::add));
+        assertEquals("SIM_2_4", transactions.get(4).reference());
+    }
+
+    @Test
+    @DisplayName("Should record declined charges as failed")
+    void shouldDeclineCharges() {
+        PaystackClient client = client(start(1.0, 0), SECRET_KEY);
+
+        client.initializeTransaction(initialize("ORDER_2", "PAYSTACK_ORDER_2_1"));
+        TransactionData verified = client.verifyTransaction("PAYSTACK_ORDER_2_1");
+        assertEquals("failed", verified.status());
+        assertEquals("Declined", verified.gatewayResponse());
+    }
+
+    @Test
+    @DisplayName("Should answer injected provider errors and bad keys with HTTP errors")
+    void shouldInjectErrors() {
+        PaystackSimulatorServer erroring = start(0, 1.0);
+        assertThrows(HttpServerErrorException.class,
+            () -> client(erroring, SECRET_KEY).initializeTransaction(initialize("ORDER_3", "PAYSTACK_ORDER_3_1")));
+
+        PaystackSimulatorServer healthy = start(0, 0);
+        assertThrows(HttpClientErrorException.Unauthorized.class,
+            () -> client(healthy, "sk_test_wrong").countBanks());
+    }
+
+    // ==================== HELPERS ====================
+
+    private PaystackSimulatorServer start(double declineRate, double errorRate) {
+        SimulationProfile profile = new SimulationProfile(
+            42, NO_LATENCY, declineRate, errorRate, 0, Duration.ofSeconds(5), null, NO_LATENCY);
+        try {
+            PaystackSimulatorServer server = new PaystackSimulatorServer(new GatewaySimulator(profile),
+                new SimulatedLedger(1000), webhooks, new ObjectMapper(), SECRET_KEY, 0, 25);
+            servers.add(server);
+            return server;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static PaystackClient client(PaystackSimulatorServer server, String secretKey) {
+        return new PaystackClient(new RestTemplate(), new ObjectMapper(), server::baseUrl, () -> secretKey);
+    }
+
+    private static InitializeTransactionRequest initialize(String orderId, String reference) {
+        return new InitializeTransactionRequest(
+            500000L, "NGN", "load@example.com", reference, Map.of("order_id", orderId), List.of("card"));
+    }
+}
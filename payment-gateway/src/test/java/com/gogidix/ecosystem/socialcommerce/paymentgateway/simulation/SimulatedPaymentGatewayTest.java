@@ -0,0 +1,280 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentStatus;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.RefundRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.RefundResponse;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.exception.PaymentProcessingException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulated Payment Gateway Test Suite
+ *
+ * PERFORMANCE TESTING: Gateway simulator fidelity
+ * - Tests outcomes and latencies replay exactly under a seed, at any concurrency
+ * - Tests configured rates and latency quantiles are honoured
+ * - Tests payment, status and refund flow through the bounded ledger
+ * - Tests signed webhook callbacks reach a local endpoint
+ */
+@DisplayName("Simulated Payment Gateway Tests")
+class SimulatedPaymentGatewayTest {
+
+    private static final LatencyDistribution NO_LATENCY = LatencyDistribution.fixed(Duration.ZERO);
+    private static final String SECRET = "test-webhook-secret";
+
+    private final WebhookDispatcher webhooks = new WebhookDispatcher();
+    private HttpServer webhookReceiver;
+
+    @AfterEach
+    void tearDown() {
+        webhooks.close();
+        if (webhookReceiver != null) {
+            webhookReceiver.stop(0);
+        }
+    }
+
+    // ==================== SIMULATOR ====================
+
+    @Test
+    @DisplayName("Should replay identical decisions for the same seed regardless of concurrency")
+    void shouldBeDeterministicUnderSeed() {
+        SimulationProfile profile = profile(7, logNormal(100, 900), 0.1, 0.05, 0.01, null);
+        GatewaySimulator first = new GatewaySimulator(profile);
+        GatewaySimulator second = new GatewaySimulator(profile);
+
+        List<GatewaySimulator.Decision> sequential = IntStream.range(0, 5_000)
+            .mapToObj(i -> first.decide("payment", "ORDER_" + i))
+            .collect(Collectors.toList());
+        List<GatewaySimulator.Decision> parallel = IntStream.range(0, 5_000).parallel()
+            .mapToObj(i -> second.decide("payment", "ORDER_" + i))
+            .collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+
+        GatewaySimulator reseeded = new GatewaySimulator(profile(8, logNormal(100, 900), 0.1, 0.05, 0.01, null));
+        assertNotEquals(sequential.get(0), reseeded.decide("payment", "ORDER_0"));
+        assertNotEquals(sequential.get(0), first.decide("refund", "ORDER_0"), "operations draw independent streams");
+    }
+
+    @Test
+    @DisplayName("Should give distinct keys distinct transaction tokens, even with equal String hash codes")
+    void shouldNotCollideKeys() {
+        GatewaySimulator simulator = new GatewaySimulator(profile(7, NO_LATENCY, 0, 0, 0, null));
+        assertEquals("ORDER_Aa".hashCode(), "ORDER_BB".hashCode());
+        assertNotEquals(simulator.decide("payment", "ORDER_Aa").token(), simulator.decide("payment", "ORDER_BB").token());
+
+        int keys = 1_000_000;
+        long[] tokens = new long[keys];
+        for (int i = 0; i < keys; i++) {
+            tokens[i] = simulator.decide("payment", "ORDER_" + i).token();
+        }
+        Arrays.sort(tokens);
+        for (int i = 1; i < keys; i++) {
+            assertNotEquals(tokens[i - 1], tokens[i], "duplicate token");
+        }
+    }
+
+    @Test
+    @DisplayName("Should honour configured decline, error and timeout rates")
+    void shouldHonourRates() {
+        Duration timeout = Duration.ofSeconds(5);
+        GatewaySimulator simulator = new GatewaySimulator(new SimulationProfile(
+            1, logNormal(100, 900), 0.10, 0.05, 0.01, timeout, null, NO_LATENCY));
+
+        int calls = 100_000;
+        int[] counts = new int[GatewaySimulator.Outcome.values().length];
+        for (int i = 0; i < calls; i++) {
+            GatewaySimulator.Decision decision = simulator.decide("payment", "ORDER_" + i);
+            counts[decision.outcome().ordinal()]++;
+            if (decision.outcome() == GatewaySimulator.Outcome.TIMEOUT) {
+                assertEquals(timeout.toNanos(), decision.latencyNanos());
+            } else {
+                assertTrue(decision.latencyNanos() <= timeout.toNanos(), "latency is capped at the timeout");
+            }
+        }
+
+        assertEquals(0.10, counts[GatewaySimulator.Outcome.DECLINED.ordinal()] / (double) calls, 0.005);
+        assertEquals(0.05, counts[GatewaySimulator.Outcome.GATEWAY_ERROR.ordinal()] / (double) calls, 0.004);
+        assertEquals(0.01, counts[GatewaySimulator.Outcome.TIMEOUT.ordinal()] / (double) calls, 0.002);
+    }
+
+    @Test
+    @DisplayName("Should fit log-normal latency through median and p99")
+    void shouldSampleLatencyQuantiles() {
+        long[] logNormal = sample(logNormal(120, 900), 200_000);
+        assertEquals(120, quantileMs(logNormal, 0.50), 120 * 0.03);
+        assertEquals(900, quantileMs(logNormal, 0.99), 900 * 0.06);
+
+        long[] exponential = sample(new LatencyDistribution(
+            LatencyDistribution.Shape.EXPONENTIAL, Duration.ofMillis(50), Duration.ofMillis(50)), 200_000);
+        assertEquals(50, quantileMs(exponential, 0.50), 50 * 0.03);
+
+        assertEquals(Duration.ofMillis(30).toNanos(),
+            LatencyDistribution.fixed(Duration.ofMillis(30)).sampleNanos(new SplittableRandom(1)));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyDistribution(
+            LatencyDistribution.Shape.LOG_NORMAL, Duration.ofMillis(100), Duration.ofMillis(50)));
+    }
+
+    // ==================== GATEWAY ====================
+
+    @Test
+    @DisplayName("Should process, look up and refund payments through the ledger")
+    void shouldProcessStatusAndRefund() {
+        SimulatedPaymentGateway gateway = gateway(profile(1, NO_LATENCY, 0, 0, 0, null), new SimulatedLedger(100));
+
+        PaymentResponse payment = gateway.processPayment(request("ORDER_1", 49.99, "USD"));
+        assertTrue(payment.getTransactionId().startsWith(SimulatedPaymentGateway.ID_PREFIX));
+        assertEquals("COMPLETED", payment.getStatus());
+        assertEquals(SimulatedPaymentGateway.NAME, payment.getGateway());
+        assertEquals(payment.getTransactionId(),
+            gateway.processPayment(request("ORDER_1", 49.99, "USD")).getTransactionId(), "IDs replay under the seed");
+
+        PaymentStatus status = gateway.getPaymentStatus(payment.getTransactionId());
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(49.99, status.getAmount());
+
+        RefundResponse refund = gateway.refundPayment(RefundRequest.builder()
+            .transactionId(payment.getTransactionId()).amount(10.0).currency("USD").build());
+        assertEquals("succeeded", refund.getStatus());
+        assertEquals(10.0, refund.getAmount());
+
+        PaymentProcessingException tooMuch = assertThrows(PaymentProcessingException.class,
+            () -> gateway.refundPayment(RefundRequest.builder()
+                .transactionId(payment.getTransactionId()).amount(50.0).currency("USD").build()));
+        assertEquals("INVALID_REFUND_AMOUNT", tooMuch.getErrorCode());
+
+        PaymentProcessingException unknown = assertThrows(PaymentProcessingException.class,
+            () -> gateway.getPaymentStatus("sim_pi_unknown"));
+        assertEquals("TRANSACTION_NOT_FOUND", unknown.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Should surface declines, provider errors and timeouts as payment exceptions")
+    void shouldInjectFailures() {
+        SimulatedPaymentGateway declining = gateway(profile(1, NO_LATENCY, 1.0, 0, 0, null), new SimulatedLedger(10));
+        assertEquals("CARD_DECLINED", assertThrows(PaymentProcessingException.class,
+            () -> declining.processPayment(request("ORDER_1", 10.0, "USD"))).getErrorCode());
+
+        SimulatedPaymentGateway erroring = gateway(profile(1, NO_LATENCY, 0, 1.0, 0, null), new SimulatedLedger(10));
+        assertEquals("GATEWAY_ERROR", assertThrows(PaymentProcessingException.class,
+            () -> erroring.processPayment(request("ORDER_1", 10.0, "USD"))).getErrorCode());
+
+        SimulatedPaymentGateway hanging = gateway(new SimulationProfile(
+            1, NO_LATENCY, 0, 0, 1.0, Duration.ofMillis(50), null, NO_LATENCY), new SimulatedLedger(10));
+        long start = System.nanoTime();
+        assertEquals("GATEWAY_TIMEOUT", assertThrows(PaymentProcessingException.class,
+            () -> hanging.processPayment(request("ORDER_1", 10.0, "USD"))).getErrorCode());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos(), "timeouts hang first");
+
+        assertThrows(PaymentProcessingException.class,
+            () -> erroring.processPayment(request("ORDER_1", 10.0, "XXX")));
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest ledger entries at capacity")
+    void shouldBoundLedger() {
+        SimulatedLedger ledger = new SimulatedLedger(2);
+        ledger.put("a", new SimulatedLedger.Entry(1, "USD", "COMPLETED"));
+        ledger.put("b", new SimulatedLedger.Entry(2, "USD", "COMPLETED"));
+        ledger.put("a", new SimulatedLedger.Entry(3, "USD", "COMPLETED"));
+        ledger.put("c", new SimulatedLedger.Entry(4, "USD", "COMPLETED"));
+
+        assertEquals(2, ledger.size());
+        assertNull(ledger.get("a"));
+        assertEquals(2, ledger.get("b").amountMinor());
+        assertEquals(4, ledger.get("c").amountMinor());
+    }
+
+    @Test
+    @DisplayName("Should post signed webhooks that the gateway verifies")
+    void shouldDeliverSignedWebhooks() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        AtomicReference<String> path = new AtomicReference<>();
+        AtomicReference<String> payload = new AtomicReference<>();
+        AtomicReference<String> signature = new AtomicReference<>();
+
+        webhookReceiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        webhookReceiver.createContext("/", exchange -> {
+            path.set(exchange.getRequestURI().getPath());
+            payload.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            signature.set(exchange.getRequestHeaders().getFirst(WebhookDispatcher.SIGNATURE_HEADER));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            received.countDown();
+        });
+        webhookReceiver.start();
+
+        String url = "http://127.0.0.1:" + webhookReceiver.getAddress().getPort() + "/api/v1/payments/webhook/";
+        SimulatedPaymentGateway gateway = gateway(profile(1, NO_LATENCY, 0, 0, 0, url), new SimulatedLedger(10));
+        PaymentResponse payment = gateway.processPayment(request("ORDER_9", 25.0, "EUR"));
+
+        assertTrue(received.await(10, TimeUnit.SECONDS), "webhook should arrive");
+        assertEquals("/api/v1/payments/webhook/SIMULATED", path.get());
+        assertTrue(payload.get().contains("\"event\":\"payment.succeeded\""));
+        assertTrue(payload.get().contains(payment.getTransactionId()));
+        assertTrue(gateway.verifyWebhookSignature(payload.get(), signature.get()));
+        assertFalse(gateway.verifyWebhookSignature(payload.get() + " ", signature.get()));
+        assertEquals("payment.succeeded", gateway.processWebhook(payload.get()).getEventType());
+    }
+
+    // ==================== HELPERS ====================
+
+    private SimulatedPaymentGateway gateway(SimulationProfile profile, SimulatedLedger ledger) {
+        return new SimulatedPaymentGateway(new GatewaySimulator(profile), ledger, webhooks, new ObjectMapper(),
+            SECRET, Set.of());
+    }
+
+    private static SimulationProfile profile(long seed, LatencyDistribution latency, double declineRate,
+                                             double errorRate, double timeoutRate, String webhookUrl) {
+        return new SimulationProfile(seed, latency, declineRate, errorRate, timeoutRate, Duration.ofSeconds(30),
+            webhookUrl, NO_LATENCY);
+    }
+
+    private static LatencyDistribution logNormal(long medianMs, long p99Ms) {
+        return new LatencyDistribution(
+            LatencyDistribution.Shape.LOG_NORMAL, Duration.ofMillis(medianMs), Duration.ofMillis(p99Ms));
+    }
+
+    private static PaymentRequest request(String orderId, double amount, String currency) {
+        return PaymentRequest.builder()
+            .orderId(orderId)
+            .amount(amount)
+            .currency(currency)
+            .customerId("CUSTOMER_1")
+            .customerEmail("load@example.com")
+            .build();
+    }
+
+    private static long[] sample(LatencyDistribution distribution, int samples) {
+        SplittableRandom random = new SplittableRandom(99);
+        long[] values = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            values[i] = distribution.sampleNanos(random);
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static double quantileMs(long[] sorted, double quantile) {
+        return sorted[(int) (quantile * (sorted.length - 1))] / 1_000_000.0;
+    }
+}
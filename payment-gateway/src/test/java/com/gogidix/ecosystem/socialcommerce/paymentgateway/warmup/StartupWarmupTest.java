@@ -0,0 +1,173 @@
+package com.gogidix.ecosystem.socialcommerce.paymentgateway.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.dto.PaymentRequest;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.methods.SupportedMethodsCatalog;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.CustomPermissionEvaluator;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.InputSanitizer;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.PaymentSecurityService;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.security.RoleHierarchyService;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGateway;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayFactory;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.PaymentGatewayType;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.service.RegionalPaymentRouter;
+import com.gogidix.ecosystem.socialcommerce.paymentgateway.validation.PaymentRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Startup Warm-up Test Suite
+ *
+ * PERFORMANCE TESTING: Warm-up before readiness
+ * - Tests every step drives its component and opens one connection per gateway
+ * - Tests a failing or slow step never blocks or fails startup
+ * - Tests steps past the time budget are skipped
+ * - Tests only the first API requests are timed, tagged with the warm-up state
+ */
+@DisplayName("Startup Warm-up Tests")
+class StartupWarmupTest {
+
+    private final PaymentRequestValidator validator = mock(PaymentRequestValidator.class);
+    private final RegionalPaymentRouter router = mock(RegionalPaymentRouter.class);
+    private final PaymentGatewayFactory gatewayFactory = mock(PaymentGatewayFactory.class);
+    private final PaymentSecurityService securityService = mock(PaymentSecurityService.class);
+    private final CustomPermissionEvaluator permissionEvaluator = mock(CustomPermissionEvaluator.class);
+    private final SupportedMethodsCatalog methodsCatalog = mock(SupportedMethodsCatalog.class);
+    private final PaymentGateway stripe = mock(PaymentGateway.class);
+    private final PaymentGateway paystack = mock(PaymentGateway.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(gatewayFactory.findGateway(PaymentGatewayType.STRIPE)).thenReturn(Optional.of(stripe));
+        when(gatewayFactory.findGateway(PaymentGatewayType.PAYSTACK)).thenReturn(Optional.of(paystack));
+        when(stripe.isAvailable()).thenReturn(true);
+        when(paystack.isAvailable()).thenReturn(true);
+        when(validator.validatePaymentRequest(any()))
+            .thenReturn(new PaymentRequestValidator.ValidationResult(true, List.of()));
+        when(methodsCatalog.lookup(anyString())).thenReturn(new SupportedMethodsCatalog.MethodsResponse(
+            HttpStatus.OK, "{}".getBytes(StandardCharsets.UTF_8), "\"0\"", CacheControl.noCache()));
+    }
+
+    // ==================== STEPS ====================
+
+    @Test
+    @DisplayName("Should exercise every component and open one connection per gateway")
+    void shouldRunEveryStep() {
+        StartupWarmup warmup = warmup(10, 60_000, 5_000);
+        assertFalse(warmup.isCompleted());
+
+        assertTrue(warmup.warmUp());
+
+        assertTrue(warmup.isCompleted());
+        verify(stripe).isAvailable();
+        verify(paystack).isAvailable();
+        verify(validator, times(20)).validatePaymentRequest(any());
+        verify(router, atLeast(10)).getGatewayName(anyString());
+        verify(securityService, times(20)).canProcessPayment(any(), any());
+        verify(permissionEvaluator, times(10)).hasPermission(any(), any(), eq("PAYMENT_PROCESS"));
+        verify(methodsCatalog, atLeast(200)).lookup(anyString());
+        assertEquals(1, registry.get(StartupWarmup.DURATION_METRIC).tag("outcome", "completed").timer().count());
+        for (String step : List.of("gateway-connections", "validation", "routing", "authorization",
+                "serialization", "methods-catalog")) {
+            assertEquals(1, registry.get(StartupWarmup.STEP_METRIC).tags("step", step, "outcome", "ok").timer().count(),
+                step);
+        }
+    }
+
+    @Test
+    @DisplayName("Should never fuel fraud velocity counts with synthetic payments")
+    void shouldKeepSyntheticPaymentsAnonymous() {
+        warmup(5, 60_000, 5_000).warmUp();
+
+        verify(securityService, atLeastOnce()).canProcessPayment(any(), argThat(this::anonymous));
+        verify(securityService, never()).canProcessPayment(any(), argThat(payment -> !anonymous(payment)));
+    }
+
+    @Test
+    @DisplayName("Should carry on past a failing step and a gateway that does not answer")
+    void shouldContainFailures() {
+        when(validator.validatePaymentRequest(any())).thenThrow(new IllegalStateException("boom"));
+        when(paystack.isAvailable()).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return true;
+        });
+
+        long start = System.nanoTime();
+        assertTrue(warmup(5, 60_000, 200).warmUp());
+
+        assertTrue(System.nanoTime() - start < 5_000_000_000L, "gateway wait bounded by gateway-timeout-ms");
+        assertEquals(1, registry.get(StartupWarmup.STEP_METRIC)
+            .tags("step", "validation", "outcome", "failed").timer().count());
+        verify(securityService, atLeastOnce()).canProcessPayment(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip steps once the time budget is spent")
+    void shouldRespectTimeBudget() {
+        StartupWarmup warmup = warmup(5, 0, 5_000);
+
+        assertFalse(warmup.warmUp());
+
+        assertTrue(warmup.isCompleted());
+        verifyNoInteractions(validator, stripe, paystack);
+        assertEquals(1, registry.get(StartupWarmup.DURATION_METRIC).tag("outcome", "timed_out").timer().count());
+        assertEquals(1, registry.get(StartupWarmup.STEP_METRIC)
+            .tags("step", "authorization", "outcome", "skipped").timer().count());
+    }
+
+    // ==================== FIRST REQUESTS ====================
+
+    @Test
+    @DisplayName("Should time only the first API requests, tagged with whether warm-up ran")
+    void shouldTimeFirstRequests() throws Exception {
+        StartupWarmup warmup = warmup(1, 60_000, 5_000);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<StartupWarmup> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(warmup);
+        FirstRequestLatencyFilter filter = new FirstRequestLatencyFilter(registry, provider, 3);
+
+        serve(filter, "/api/v1/payments/process");
+        warmup.warmUp();
+        serve(filter, "/actuator/health/readiness");
+        serve(filter, "/api/v1/payments/status/TXN_1");
+        serve(filter, "/api/v1/payments/status/TXN_2");
+        serve(filter, "/api/v1/payments/status/TXN_3");
+
+        assertEquals(1, registry.get(FirstRequestLatencyFilter.METRIC).tag("warmed", "false").timer().count());
+        assertEquals(2, registry.get(FirstRequestLatencyFilter.METRIC).tag("warmed", "true").timer().count());
+    }
+
+    // ==================== HELPERS ====================
+
+    private StartupWarmup warmup(int iterations, long timeoutMs, long gatewayTimeoutMs) {
+        return new StartupWarmup(validator, new InputSanitizer(), router, gatewayFactory, securityService,
+            permissionEvaluator, new RoleHierarchyService(), methodsCatalog, new ObjectMapper(), registry,
+            iterations, timeoutMs, gatewayTimeoutMs);
+    }
+
+    private boolean anonymous(PaymentRequest payment) {
+        return payment.getCustomerId() == null && (payment.getMetadata() == null || payment.getMetadata().isEmpty());
+    }
+
+    private static void serve(FirstRequestLatencyFilter filter, String path) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
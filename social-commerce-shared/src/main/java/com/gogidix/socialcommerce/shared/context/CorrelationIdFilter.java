@@ -0,0 +1,44 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import com.gogidix.socialcommerce.shared.constants.ApiConstants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Correlation ID Filter
+ *
+ * Opens the {@link RequestContext} for every inbound request:
+ * - Request ID: always generated here, one per hop
+ * - Correlation ID: reused from the caller's X-Correlation-ID header when it
+ *   is log-safe, otherwise the request ID starts a new correlation
+ *
+ * Both IDs are echoed as response headers.
+ */
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    private final RequestIdGenerator idGenerator;
+
+    public CorrelationIdFilter(RequestIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = idGenerator.nextId();
+        String incoming = request.getHeader(ApiConstants.CORRELATION_ID_HEADER);
+        String correlationId = RequestContext.isSafeId(incoming) ? incoming : requestId;
+
+        response.setHeader(ApiConstants.REQUEST_ID_HEADER, requestId);
+        response.setHeader(ApiConstants.CORRELATION_ID_HEADER, correlationId);
+
+        try (RequestContext.Scope ignored = RequestContext.open(correlationId, requestId)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
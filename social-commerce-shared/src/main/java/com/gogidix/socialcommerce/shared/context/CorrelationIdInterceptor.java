@@ -0,0 +1,31 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import com.gogidix.socialcommerce.shared.constants.ApiConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Outbound HTTP interceptor that forwards the current correlation ID
+ *
+ * An explicitly set X-Correlation-ID header on the request is left alone.
+ */
+public class CorrelationIdInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        String correlationId = RequestContext.correlationId();
+        if (correlationId != null) {
+            HttpHeaders headers = request.getHeaders();
+            if (!headers.containsKey(ApiConstants.CORRELATION_ID_HEADER)) {
+                headers.set(ApiConstants.CORRELATION_ID_HEADER, correlationId);
+            }
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,38 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.Map;
+
+/**
+ * Kafka producer interceptor stamping outgoing records with the current
+ * correlation ID
+ *
+ * Register with {@code spring.kafka.producer.properties.interceptor.classes}.
+ * Runs on the sending thread, so it sees that thread's {@link RequestContext}.
+ */
+public class CorrelationIdProducerInterceptor<K, V> implements ProducerInterceptor<K, V> {
+
+    @Override
+    public ProducerRecord<K, V> onSend(ProducerRecord<K, V> record) {
+        KafkaCorrelationHeaders.inject(record.headers());
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+        // Nothing to do
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        // No configuration
+    }
+}
@@ -0,0 +1,57 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import com.gogidix.socialcommerce.shared.constants.ApiConstants;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kafka Correlation Header Propagation
+ *
+ * Producers: register {@link CorrelationIdProducerInterceptor} through
+ * {@code interceptor.classes} to stamp every record with the current
+ * correlation ID. Consumers: open a context from the record headers with
+ * {@link #open(Headers, RequestIdGenerator)} around record processing.
+ *
+ * Requires kafka-clients on the classpath (optional dependency).
+ */
+public final class KafkaCorrelationHeaders {
+
+    public static final String CORRELATION_ID_HEADER = ApiConstants.CORRELATION_ID_HEADER;
+
+    private KafkaCorrelationHeaders() {
+        // Utility class
+    }
+
+    /**
+     * Add the current correlation ID unless the record already carries one
+     */
+    public static void inject(Headers headers) {
+        String correlationId = RequestContext.correlationId();
+        if (correlationId != null && headers.lastHeader(CORRELATION_ID_HEADER) == null) {
+            headers.add(CORRELATION_ID_HEADER, correlationId.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Correlation ID carried by a record, or null when absent or unsafe
+     */
+    public static String extract(Headers headers) {
+        Header header = headers.lastHeader(CORRELATION_ID_HEADER);
+        if (header == null || header.value() == null) {
+            return null;
+        }
+        String correlationId = new String(header.value(), StandardCharsets.UTF_8);
+        return RequestContext.isSafeId(correlationId) ? correlationId : null;
+    }
+
+    /**
+     * Open a context for processing one consumed record
+     */
+    public static RequestContext.Scope open(Headers headers, RequestIdGenerator idGenerator) {
+        String requestId = idGenerator.nextId();
+        String correlationId = extract(headers);
+        return RequestContext.open(correlationId != null ? correlationId : requestId, requestId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import org.slf4j.MDC;
+
+/**
+ * Request Context
+ *
+ * The correlation and request IDs of the work running on the current thread.
+ * The SLF4J MDC is the single carrier, so log lines, outbound HTTP calls and
+ * Kafka records all read the same values.
+ */
+public final class RequestContext {
+
+    // MDC keys (also emitted as structured log fields)
+    public static final String CORRELATION_ID_MDC_KEY = "correlationId";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    public static final int MAX_ID_LENGTH = 64;
+
+    private RequestContext() {
+        // Utility class
+    }
+
+    public static String correlationId() {
+        return MDC.get(CORRELATION_ID_MDC_KEY);
+    }
+
+    public static String requestId() {
+        return MDC.get(REQUEST_ID_MDC_KEY);
+    }
+
+    /**
+     * Check that an externally supplied ID is short and log-safe
+     * (letters, digits and {@code . _ : -} only)
+     */
+    public static boolean isSafeId(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bind IDs to the current thread until the returned scope is closed;
+     * closing restores whatever was bound before
+     */
+    public static Scope open(String correlationId, String requestId) {
+        Scope scope = new Scope(correlationId(), requestId());
+        put(CORRELATION_ID_MDC_KEY, correlationId);
+        put(REQUEST_ID_MDC_KEY, requestId);
+        return scope;
+    }
+
+    /**
+     * Capture the current IDs so a task run on another thread logs and
+     * propagates under the same correlation ID
+     */
+    public static Runnable wrap(Runnable task) {
+        String correlationId = correlationId();
+        String requestId = requestId();
+        return () -> {
+            try (Scope ignored = open(correlationId, requestId)) {
+                task.run();
+            }
+        };
+    }
+
+    private static void put(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        } else {
+            MDC.remove(key);
+        }
+    }
+
+    /**
+     * Restores the previous context on close
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final String previousCorrelationId;
+        private final String previousRequestId;
+
+        private Scope(String previousCorrelationId, String previousRequestId) {
+            this.previousCorrelationId = previousCorrelationId;
+            this.previousRequestId = previousRequestId;
+        }
+
+        @Override
+        public void close() {
+            put(CORRELATION_ID_MDC_KEY, previousCorrelationId);
+            put(REQUEST_ID_MDC_KEY, previousRequestId);
+        }
+    }
+}
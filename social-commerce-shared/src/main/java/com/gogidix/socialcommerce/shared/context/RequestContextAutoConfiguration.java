@@ -0,0 +1,48 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Request Context Auto-Configuration
+ *
+ * Picked up by every service that depends on social-commerce-shared:
+ * - {@link RequestIdGenerator} (node ID from {@code gogidix.request-context.node-id}, or derived)
+ * - {@link CorrelationIdFilter} ahead of every other servlet filter
+ * - {@link CorrelationIdInterceptor} on RestTemplates built through RestTemplateBuilder
+ */
+@AutoConfiguration
+public class RequestContextAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RequestIdGenerator requestIdGenerator(
+            @Value("${gogidix.request-context.node-id:-1}") int nodeId) {
+        return nodeId >= 0 ? new RequestIdGenerator(nodeId) : new RequestIdGenerator();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnMissingBean(name = "correlationIdFilter")
+    public FilterRegistrationBean<CorrelationIdFilter> correlationIdFilter(RequestIdGenerator requestIdGenerator) {
+        FilterRegistrationBean<CorrelationIdFilter> registration =
+            new FilterRegistrationBean<>(new CorrelationIdFilter(requestIdGenerator));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnClass(RestTemplate.class)
+    public RestTemplateCustomizer correlationIdRestTemplateCustomizer() {
+        return restTemplate -> restTemplate.getInterceptors().add(new CorrelationIdInterceptor());
+    }
+}
@@ -0,0 +1,25 @@
+package com.gogidix.socialcommerce.shared.currency;
+
+/**
+ * Per-currency capability flags stored in the currency registry.
+ *
+ * Each constant occupies one bit of the packed capability word kept for
+ * every currency, so a support check is a single mask test.
+ */
+public enum CurrencyCapability {
+
+    /** Settled through Stripe (Europe & Rest of World) */
+    STRIPE,
+
+    /** Settled through Paystack (Africa) */
+    PAYSTACK,
+
+    /** Accepted on inbound payment requests */
+    CHECKOUT;
+
+    private final int mask = 1 << ordinal();
+
+    public int mask() {
+        return mask;
+    }
+}
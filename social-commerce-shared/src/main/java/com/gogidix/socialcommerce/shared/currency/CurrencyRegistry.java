@@ -0,0 +1,291 @@
+package com.gogidix.socialcommerce.shared.currency;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ISO 4217 Currency Registry
+ *
+ * Single source of currency facts for every social-commerce service:
+ * - Minor unit exponent (JPY = 0, USD = 2, KWD = 3)
+ * - Numeric code and display symbol
+ * - Payment gateway support flags (see {@link CurrencyCapability})
+ *
+ * The data is read once from {@code /currency/iso4217.csv} and packed into
+ * parallel arrays. Alphabetic codes are mapped to a slot in a 26^3 table and
+ * numeric codes to a slot in a 1000 entry table, so lookups are O(1) and do
+ * not allocate (lower-case input is folded during slot computation).
+ */
+public final class CurrencyRegistry {
+
+    private static final String DATA_RESOURCE = "/currency/iso4217.csv";
+
+    private static final int ALPHA_SLOTS = 26 * 26 * 26;
+    private static final int NUMERIC_SLOTS = 1000;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    private static final CurrencyRegistry INSTANCE = load();
+
+    // Packed currency data, indexed by registry ordinal
+    private final String[] codes;
+    private final short[] numericCodes;
+    private final byte[] minorUnits;
+    private final String[] symbols;
+    private final int[] capabilities;
+
+    // Slot tables hold ordinal + 1; zero marks an unknown code
+    private final short[] alphaIndex = new short[ALPHA_SLOTS];
+    private final short[] numericIndex = new short[NUMERIC_SLOTS];
+
+    private final Map<CurrencyCapability, Set<String>> codesByCapability =
+        new EnumMap<>(CurrencyCapability.class);
+
+    /**
+     * Build a registry from parsed data rows; rejects malformed or duplicate codes
+     */
+    CurrencyRegistry(List<String[]> rows) {
+        int size = rows.size();
+        this.codes = new String[size];
+        this.numericCodes = new short[size];
+        this.minorUnits = new byte[size];
+        this.symbols = new String[size];
+        this.capabilities = new int[size];
+
+        Map<CurrencyCapability, Set<String>> grouped = new EnumMap<>(CurrencyCapability.class);
+        for (CurrencyCapability capability : CurrencyCapability.values()) {
+            grouped.put(capability, new LinkedHashSet<>());
+        }
+
+        for (int i = 0; i < size; i++) {
+            String[] row = rows.get(i);
+            String code = row[0].trim();
+            int slot = alphaSlot(code);
+            if (slot < 0 || code.length() != 3) {
+                throw new IllegalStateException("Invalid ISO 4217 alpha code: " + code);
+            }
+            if (alphaIndex[slot] != 0) {
+                throw new IllegalStateException("Duplicate ISO 4217 alpha code: " + code);
+            }
+
+            int numeric = Integer.parseInt(row[1].trim());
+            if (numeric < 0 || numeric >= NUMERIC_SLOTS) {
+                throw new IllegalStateException("Invalid ISO 4217 numeric code for " + code + ": " + numeric);
+            }
+            if (numericIndex[numeric] != 0) {
+                throw new IllegalStateException("Duplicate ISO 4217 numeric code " + numeric + " for " + code
+                    + ", already used by " + codes[numericIndex[numeric] - 1]);
+            }
+
+            int exponent = Integer.parseInt(row[2].trim());
+            if (exponent < 0 || exponent >= POWERS_OF_TEN.length) {
+                throw new IllegalStateException("Unsupported minor unit exponent for " + code + ": " + exponent);
+            }
+
+            codes[i] = code;
+            numericCodes[i] = (short) numeric;
+            minorUnits[i] = (byte) exponent;
+            symbols[i] = row.length > 3 && !row[3].isBlank() ? row[3].trim() : code;
+            capabilities[i] = parseCapabilities(row.length > 4 ? row[4] : "", code, grouped);
+
+            alphaIndex[slot] = (short) (i + 1);
+            numericIndex[numeric] = (short) (i + 1);
+        }
+
+        for (Map.Entry<CurrencyCapability, Set<String>> entry : grouped.entrySet()) {
+            codesByCapability.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+        }
+    }
+
+    /**
+     * Get the shared registry instance
+     */
+    public static CurrencyRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    // ==============================================
+    // LOOKUPS
+    // ==============================================
+
+    /**
+     * Resolve an alphabetic code (case-insensitive) to its registry ordinal
+     *
+     * @return ordinal, or -1 if the code is unknown
+     */
+    public int indexOf(CharSequence code) {
+        int slot = alphaSlot(code);
+        return slot < 0 ? -1 : alphaIndex[slot] - 1;
+    }
+
+    /**
+     * Resolve a numeric code (e.g. 840 for USD) to its registry ordinal
+     *
+     * @return ordinal, or -1 if the code is unknown
+     */
+    public int indexOfNumeric(int numericCode) {
+        if (numericCode < 0 || numericCode >= NUMERIC_SLOTS) {
+            return -1;
+        }
+        return numericIndex[numericCode] - 1;
+    }
+
+    public boolean isKnown(CharSequence code) {
+        return indexOf(code) >= 0;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String code(int index) {
+        return codes[index];
+    }
+
+    public int numericCode(int index) {
+        return numericCodes[index];
+    }
+
+    public int minorUnits(int index) {
+        return minorUnits[index];
+    }
+
+    public String symbol(int index) {
+        return symbols[index];
+    }
+
+    public boolean supports(int index, CurrencyCapability capability) {
+        return (capabilities[index] & capability.mask()) != 0;
+    }
+
+    /**
+     * Canonical upper-case code for any spelling of a known currency
+     */
+    public String code(CharSequence code) {
+        return codes[require(code)];
+    }
+
+    /**
+     * Minor unit exponent for a currency
+     *
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public int minorUnits(CharSequence code) {
+        return minorUnits[require(code)];
+    }
+
+    public String symbol(CharSequence code) {
+        return symbols[require(code)];
+    }
+
+    /**
+     * Check a capability flag; unknown codes support nothing
+     */
+    public boolean supports(CharSequence code, CurrencyCapability capability) {
+        int index = indexOf(code);
+        return index >= 0 && (capabilities[index] & capability.mask()) != 0;
+    }
+
+    /**
+     * All currency codes carrying a capability, in registry order
+     *
+     * @return Immutable set, built once at load time
+     */
+    public Set<String> codesWith(CurrencyCapability capability) {
+        return codesByCapability.get(capability);
+    }
+
+    // ==============================================
+    // AMOUNT CONVERSION
+    // ==============================================
+
+    /**
+     * Convert a major-unit amount to the smallest currency unit
+     * (cents, kobo, yen, fils) using the ISO minor unit exponent
+     */
+    public long toMinorUnits(double amount, CharSequence code) {
+        return Math.round(amount * POWERS_OF_TEN[minorUnits[require(code)]]);
+    }
+
+    /**
+     * Convert a smallest-unit amount back to major units
+     */
+    public double fromMinorUnits(long amount, CharSequence code) {
+        int exponent = minorUnits[require(code)];
+        return exponent == 0 ? amount : (double) amount / POWERS_OF_TEN[exponent];
+    }
+
+    // ==============================================
+    // HELPER METHODS
+    // ==============================================
+
+    private int require(CharSequence code) {
+        int index = indexOf(code);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown ISO 4217 currency code: " + code);
+        }
+        return index;
+    }
+
+    private static int alphaSlot(CharSequence code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = (code.charAt(i) & ~0x20) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            slot = slot * 26 + letter;
+        }
+        return slot;
+    }
+
+    private static int parseCapabilities(String field, String code,
+                                         Map<CurrencyCapability, Set<String>> grouped) {
+        int flags = 0;
+        for (String token : field.split("\\|")) {
+            String name = token.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            CurrencyCapability capability = CurrencyCapability.valueOf(name);
+            flags |= capability.mask();
+            grouped.get(capability).add(code);
+        }
+        return flags;
+    }
+
+    private static CurrencyRegistry load() {
+        try (InputStream in = CurrencyRegistry.class.getResourceAsStream(DATA_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Currency data not found on classpath: " + DATA_RESOURCE);
+            }
+
+            List<String[]> rows = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                rows.add(line.split(",", -1));
+            }
+            return new CurrencyRegistry(rows);
+
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load currency data: " + DATA_RESOURCE, e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.gogidix.socialcommerce.shared.id;
+
+import java.util.Arrays;
+
+/**
+ * Crockford Base32 encoding of 64 bit IDs
+ *
+ * For references people read out, type and paste: digits and upper-case
+ * letters without I, L, O and U, so nothing is mistaken for 1, 0 or an
+ * accidental word. Encoded IDs are always 13 characters, so positive IDs sort
+ * the same as strings as they do as numbers. Decoding ignores case and
+ * hyphens, and reads I/L as 1 and O as 0.
+ */
+public final class CrockfordBase32 {
+
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        VALUES['O'] = VALUES['o'] = 0;
+        VALUES['I'] = VALUES['i'] = VALUES['L'] = VALUES['l'] = 1;
+    }
+
+    private CrockfordBase32() {
+    }
+
+    /**
+     * Encode all 64 bits as 13 characters, most significant first
+     */
+    public static String encode(long value) {
+        char[] encoded = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            encoded[i] = ALPHABET[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+        return new String(encoded);
+    }
+
+    /**
+     * Decode what {@link #encode} produced, as typed back by a person
+     *
+     * @throws IllegalArgumentException for invalid characters or more than 64 bits
+     */
+    public static long decode(CharSequence encoded) {
+        long value = 0;
+        int digits = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            int digit = c < VALUES.length ? VALUES[c] : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid Crockford Base32 character: " + c);
+            }
+            if (value >>> 59 != 0) {
+                throw new IllegalArgumentException("Crockford Base32 value exceeds 64 bits: " + encoded);
+            }
+            value = value << 5 | digit;
+            digits++;
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("Empty Crockford Base32 value");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gogidix.socialcommerce.shared.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+/**
+ * ID Generator Auto-Configuration
+ *
+ * Picked up by every service that depends on social-commerce-shared:
+ * - {@link SnowflakeIdGenerator} (worker ID from {@code gogidix.id.worker-id}; clock step
+ *   back tolerated up to {@code gogidix.id.max-clock-backward-ms}), also installed as
+ *   {@link SnowflakeIdGenerator#getDefault()}
+ *
+ * The worker ID must be set explicitly (a StatefulSet pod index, say) unless
+ * only single-process profiles are active ({@value #DERIVED_WORKER_ID_PROFILES}):
+ * a worker ID hashed from host name and process ID has 10 bits, so among a few
+ * dozen replicas two are likely to share one and issue duplicate IDs.
+ */
+@AutoConfiguration
+public class IdGeneratorAutoConfiguration {
+
+    static final String DERIVED_WORKER_ID_PROFILES = "dev | local | test | simulation";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SnowflakeIdGenerator snowflakeIdGenerator(
+            Environment environment,
+            @Value("${gogidix.id.worker-id:-1}") int workerId,
+            @Value("${gogidix.id.max-clock-backward-ms:" + SnowflakeIdGenerator.DEFAULT_MAX_CLOCK_BACKWARD_MILLIS + "}")
+            long maxClockBackwardMillis) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(
+            workerId(workerId, environment), maxClockBackwardMillis, System::currentTimeMillis);
+        SnowflakeIdGenerator.setDefault(generator);
+        return generator;
+    }
+
+    static int workerId(int configured, Environment environment) {
+        if (configured >= 0) {
+            return configured;
+        }
+        if (!environment.acceptsProfiles(Profiles.of(DERIVED_WORKER_ID_PROFILES))) {
+            throw new IllegalStateException("gogidix.id.worker-id must be set to a value unique per replica "
+                + "(0-" + SnowflakeIdGenerator.MAX_WORKER_ID + "); a worker ID derived from host and process ID "
+                + "is only used with the " + DERIVED_WORKER_ID_PROFILES + " profiles");
+        }
+        return SnowflakeIdGenerator.defaultWorkerId();
+    }
+}
@@ -0,0 +1,174 @@
+package com.gogidix.socialcommerce.shared.id;
+
+import com.gogidix.socialcommerce.shared.context.RequestIdGenerator;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake ID Generator
+ *
+ * Builds unique, time-ordered 64 bit IDs without coordination:
+ * - bit 63: always 0, so IDs are positive longs
+ * - 41 bits: milliseconds since {@link #EPOCH} (good until 2093)
+ * - 10 bits: worker ID, unique per running process
+ * - 12 bits: sequence, 4096 IDs per worker per millisecond
+ *
+ * PERFORMANCE IMPLEMENTATION: Lock-free generation
+ * - The last timestamp and sequence share one {@link AtomicLong}, so taking an
+ *   ID is one CAS; contended threads retry instead of blocking
+ * - When a millisecond's 4096 IDs are used up, callers spin until the next one
+ * - If the wall clock steps back by up to {@code maxClockBackwardMillis} (an
+ *   NTP slew), IDs keep counting on the last timestamp; a larger step fails
+ *   with {@link IllegalStateException} rather than risk a duplicate
+ *
+ * IDs are unique only while every live process has its own worker ID; set
+ * {@code gogidix.id.worker-id} per replica (a StatefulSet pod index, say).
+ * Outside development and test profiles the auto-configuration insists on it. Like {@link RequestIdGenerator} IDs are
+ * predictable and must never be used as secrets. {@link CrockfordBase32}
+ * turns them into short, case-insensitive references.
+ */
+public final class SnowflakeIdGenerator {
+
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    public static final int WORKER_ID_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+    public static final long DEFAULT_MAX_CLOCK_BACKWARD_MILLIS = 10;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+    private static volatile SnowflakeIdGenerator defaultGenerator;
+
+    private final int workerId;
+    private final long maxClockBackwardMillis;
+    private final LongSupplier clock;
+
+    // Last timestamp (since EPOCH) << SEQUENCE_BITS | last sequence
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, DEFAULT_MAX_CLOCK_BACKWARD_MILLIS, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int workerId, long maxClockBackwardMillis, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker ID must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        if (maxClockBackwardMillis < 0) {
+            throw new IllegalArgumentException("Tolerated clock step back must not be negative");
+        }
+        this.workerId = workerId;
+        this.maxClockBackwardMillis = maxClockBackwardMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Generator with a worker ID derived from the host name and process ID
+     */
+    public SnowflakeIdGenerator() {
+        this(defaultWorkerId());
+    }
+
+    /**
+     * Generate the next ID
+     *
+     * @throws IllegalStateException if the clock moved back further than tolerated
+     */
+    public long nextId() {
+        while (true) {
+            // State before clock: the clock read that produced the state came
+            // earlier, so only a real step back can leave it behind
+            long current = state.get();
+            long now = clock.getAsLong() - EPOCH;
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+
+            long timestamp;
+            long sequence;
+            if (now > lastTimestamp) {
+                timestamp = now;
+                sequence = 0;
+            } else {
+                if (lastTimestamp - now > maxClockBackwardMillis) {
+                    throw new IllegalStateException(
+                        "Clock moved backwards by " + (lastTimestamp - now) + " ms, refusing to generate IDs");
+                }
+                sequence = (current & SEQUENCE_MASK) + 1;
+                if (sequence > SEQUENCE_MASK) {
+                    // This millisecond is used up: wait for the clock to pass it
+                    Thread.onSpinWait();
+                    continue;
+                }
+                timestamp = lastTimestamp;
+            }
+
+            if (state.compareAndSet(current, timestamp << SEQUENCE_BITS | sequence)) {
+                return timestamp << TIMESTAMP_SHIFT | (long) workerId << SEQUENCE_BITS | sequence;
+            }
+        }
+    }
+
+    /**
+     * Generate the next ID as 13 Crockford Base32 characters, sortable like the ID
+     */
+    public String nextBase32() {
+        return CrockfordBase32.encode(nextId());
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * Epoch milliseconds at which an ID was generated
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    public static int workerIdOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+    public static int sequenceOf(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+
+    /**
+     * 10 bit worker ID from the host name and process ID
+     *
+     * Derived like {@link RequestIdGenerator#defaultNodeId()}; with many
+     * replicas two may clash, so it is only fit for a single process
+     * (development, tests).
+     */
+    public static int defaultWorkerId() {
+        return RequestIdGenerator.defaultNodeId() & MAX_WORKER_ID;
+    }
+
+    /**
+     * Process-wide generator for code that cannot have one injected (JPA
+     * entity callbacks). The auto-configured bean installs itself here;
+     * before that, one with a derived worker ID is created on first use.
+     */
+    public static SnowflakeIdGenerator getDefault() {
+        SnowflakeIdGenerator generator = defaultGenerator;
+        if (generator == null) {
+            synchronized (SnowflakeIdGenerator.class) {
+                generator = defaultGenerator;
+                if (generator == null) {
+                    generator = new SnowflakeIdGenerator();
+                    defaultGenerator = generator;
+                }
+            }
+        }
+        return generator;
+    }
+
+    public static void setDefault(SnowflakeIdGenerator generator) {
+        defaultGenerator = generator;
+    }
+}
@@ -0,0 +1,124 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import com.gogidix.socialcommerce.shared.constants.ApiConstants;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Correlation ID Filter Test Suite
+ *
+ * - Tests a request ID per hop and reuse of a log-safe caller correlation ID
+ * - Tests unsafe or oversized correlation IDs are replaced
+ * - Tests the context is restored after the request, also when it fails
+ * - Tests {@link RequestContext#wrap(Runnable)} carries the IDs to another thread
+ */
+@DisplayName("Correlation ID Filter Tests")
+class CorrelationIdFilterTest {
+
+    private final RequestIdGenerator idGenerator = new RequestIdGenerator(42);
+    private final CorrelationIdFilter filter = new CorrelationIdFilter(idGenerator);
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    // ==================== FILTER ====================
+
+    @Test
+    @DisplayName("Should reuse a safe incoming correlation ID and generate the request ID")
+    void shouldReuseSafeCorrelationId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/orders");
+        request.addHeader(ApiConstants.CORRELATION_ID_HEADER, "order-svc:7f3a_1.2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> correlationId = new AtomicReference<>();
+        AtomicReference<String> requestId = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            correlationId.set(RequestContext.correlationId());
+            requestId.set(RequestContext.requestId());
+        });
+
+        assertEquals("order-svc:7f3a_1.2", correlationId.get());
+        assertEquals("order-svc:7f3a_1.2", response.getHeader(ApiConstants.CORRELATION_ID_HEADER));
+        assertEquals(requestId.get(), response.getHeader(ApiConstants.REQUEST_ID_HEADER));
+        assertEquals(RequestIdGenerator.ID_LENGTH, requestId.get().length());
+        assertEquals("002a", requestId.get().substring(12, 16));
+        assertNull(RequestContext.correlationId());
+        assertNull(RequestContext.requestId());
+    }
+
+    @Test
+    @DisplayName("Should start a new correlation when the incoming ID is missing or unsafe")
+    void shouldReplaceUnsafeCorrelationId() throws Exception {
+        for (String incoming : new String[] {null, "", "abc\nforged log line", "a b", "x".repeat(65)}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+            if (incoming != null) {
+                request.addHeader(ApiConstants.CORRELATION_ID_HEADER, incoming);
+            }
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AtomicReference<String> correlationId = new AtomicReference<>();
+
+            filter.doFilter(request, response, (req, res) -> correlationId.set(RequestContext.correlationId()));
+
+            String requestId = response.getHeader(ApiConstants.REQUEST_ID_HEADER);
+            assertEquals(requestId, correlationId.get(), "incoming: " + incoming);
+            assertEquals(requestId, response.getHeader(ApiConstants.CORRELATION_ID_HEADER));
+        }
+        assertTrue(RequestContext.isSafeId("x".repeat(RequestContext.MAX_ID_LENGTH)));
+    }
+
+    @Test
+    @DisplayName("Should restore the enclosing context when the chain throws")
+    void shouldRestoreContextOnFailure() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader(ApiConstants.CORRELATION_ID_HEADER, "inner");
+
+        try (RequestContext.Scope ignored = RequestContext.open("outer", "outer-request")) {
+            assertThrows(ServletException.class, () -> filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> {
+                    throw new ServletException("boom");
+                }));
+
+            assertEquals("outer", RequestContext.correlationId());
+            assertEquals("outer-request", RequestContext.requestId());
+        }
+        assertNull(RequestContext.correlationId());
+    }
+
+    // ==================== PROPAGATION ====================
+
+    @Test
+    @DisplayName("Should carry the IDs to a task run on another thread and clear them afterwards")
+    void shouldWrapTasks() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<String> seen = new AtomicReference<>();
+            Runnable task;
+            try (RequestContext.Scope ignored = RequestContext.open("corr-1", "req-1")) {
+                task = RequestContext.wrap(() -> seen.set(RequestContext.correlationId() + "/" + RequestContext.requestId()));
+            }
+
+            executor.submit(task).get(5, TimeUnit.SECONDS);
+            AtomicReference<String> after = new AtomicReference<>("unset");
+            executor.submit(() -> after.set(RequestContext.correlationId())).get(5, TimeUnit.SECONDS);
+
+            assertEquals("corr-1/req-1", seen.get());
+            assertNull(after.get(), "pool thread must not keep the wrapped context");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
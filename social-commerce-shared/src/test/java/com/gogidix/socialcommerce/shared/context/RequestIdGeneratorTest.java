@@ -0,0 +1,92 @@
+package com.gogidix.socialcommerce.shared.context;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Request ID Generator Test Suite
+ *
+ * - Tests the millisecond / node / counter layout of the 24 char hex ID
+ * - Tests IDs stay unique across threads
+ * - Tests node ID validation and the derived default node ID
+ */
+@DisplayName("Request ID Generator Tests")
+class RequestIdGeneratorTest {
+
+    // ==================== LAYOUT ====================
+
+    @Test
+    @DisplayName("Should lay out wall clock, node ID and counter as lower-case hex")
+    void shouldLayOutId() {
+        RequestIdGenerator generator = new RequestIdGenerator(0xBEEF);
+
+        long before = System.currentTimeMillis();
+        String first = generator.nextId();
+        String second = generator.nextId();
+        long after = System.currentTimeMillis();
+
+        assertEquals(RequestIdGenerator.ID_LENGTH, first.length());
+        assertTrue(first.matches("[0-9a-f]{24}"), first);
+        long millis = Long.parseLong(first.substring(0, 12), 16);
+        assertTrue(millis >= before && millis <= after);
+        assertEquals("beef", first.substring(12, 16));
+        assertEquals(0xBEEF, generator.getNodeId());
+
+        long firstCounter = Long.parseLong(first.substring(16), 16);
+        long secondCounter = Long.parseLong(second.substring(16), 16);
+        assertEquals((firstCounter + 1) & 0xFFFFFFFFL, secondCounter);
+    }
+
+    @Test
+    @DisplayName("Should reject node IDs outside 16 bits and derive a valid default")
+    void shouldValidateNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new RequestIdGenerator(RequestIdGenerator.MAX_NODE_ID + 1));
+
+        int nodeId = RequestIdGenerator.defaultNodeId();
+        assertTrue(nodeId >= 0 && nodeId <= RequestIdGenerator.MAX_NODE_ID);
+        assertEquals(nodeId, RequestIdGenerator.defaultNodeId(), "default must be stable within a process");
+        assertEquals(nodeId, new RequestIdGenerator().getNodeId());
+    }
+
+    // ==================== CONCURRENCY ====================
+
+    @Test
+    @DisplayName("Should never repeat an ID across threads")
+    void shouldBeUniqueAcrossThreads() throws Exception {
+        RequestIdGenerator generator = new RequestIdGenerator(7);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.gogidix.socialcommerce.shared.currency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Currency Registry Test Suite
+ *
+ * - Tests case-insensitive alpha lookups, numeric lookups and unknown codes
+ * - Tests minor unit exponents drive amount conversion (JPY 0, NGN 2, KWD 3)
+ * - Tests gateway capability flags and the per-capability code sets
+ * - Tests currency data with a repeated alpha or numeric code is rejected at load
+ */
+@DisplayName("Currency Registry Tests")
+class CurrencyRegistryTest {
+
+    private final CurrencyRegistry registry = CurrencyRegistry.getInstance();
+
+    // ==================== LOOKUPS ====================
+
+    @Test
+    @DisplayName("Should resolve alpha codes in any case and numeric codes to the same entry")
+    void shouldResolveCodes() {
+        int usd = registry.indexOf("USD");
+
+        assertTrue(usd >= 0);
+        assertEquals(usd, registry.indexOf("usd"));
+        assertEquals(usd, registry.indexOf(new StringBuilder("uSd")));
+        assertEquals(usd, registry.indexOfNumeric(840));
+        assertEquals("USD", registry.code(usd));
+        assertEquals(840, registry.numericCode(usd));
+        assertEquals("USD", registry.code("usd"));
+        assertEquals("\u20A6", registry.symbol("NGN"));
+    }
+
+    @Test
+    @DisplayName("Should report unknown and malformed codes without throwing on lookup")
+    void shouldRejectUnknownCodes() {
+        assertEquals(-1, registry.indexOf("XYZ"));
+        assertEquals(-1, registry.indexOf("US"));
+        assertEquals(-1, registry.indexOf("US1"));
+        assertEquals(-1, registry.indexOf(null));
+        assertEquals(-1, registry.indexOfNumeric(1_000));
+        assertEquals(-1, registry.indexOfNumeric(-1));
+        assertFalse(registry.isKnown("XYZ"));
+        assertFalse(registry.supports("XYZ", CurrencyCapability.STRIPE));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.minorUnits("XYZ"));
+        assertThrows(IllegalArgumentException.class, () -> registry.toMinorUnits(1.0, "XYZ"));
+    }
+
+    // ==================== AMOUNTS ====================
+
+    @Test
+    @DisplayName("Should scale amounts by the ISO minor unit exponent")
+    void shouldConvertByExponent() {
+        assertEquals(0, registry.minorUnits("JPY"));
+        assertEquals(2, registry.minorUnits("NGN"));
+        assertEquals(3, registry.minorUnits("KWD"));
+
+        assertEquals(1_500L, registry.toMinorUnits(1_500, "JPY"));
+        assertEquals(1_050L, registry.toMinorUnits(10.50, "NGN"));
+        assertEquals(1_050L, registry.toMinorUnits(10.50, "ghs"));
+        assertEquals(12_345L, registry.toMinorUnits(12.345, "KWD"));
+        // Binary fractions round to the nearest minor unit instead of truncating
+        assertEquals(2_999L, registry.toMinorUnits(29.99, "USD"));
+
+        assertEquals(1_500.0, registry.fromMinorUnits(1_500, "JPY"));
+        assertEquals(10.5, registry.fromMinorUnits(1_050, "NGN"));
+        assertEquals(12.345, registry.fromMinorUnits(12_345, "KWD"));
+    }
+
+    // ==================== CAPABILITIES ====================
+
+    @Test
+    @DisplayName("Should expose gateway support per currency and as code sets")
+    void shouldExposeCapabilities() {
+        assertTrue(registry.supports("NGN", CurrencyCapability.PAYSTACK));
+        assertFalse(registry.supports("NGN", CurrencyCapability.STRIPE));
+        assertTrue(registry.supports("eur", CurrencyCapability.STRIPE));
+        assertFalse(registry.supports("EUR", CurrencyCapability.PAYSTACK));
+        assertTrue(registry.supports(registry.indexOf("ZAR"), CurrencyCapability.PAYSTACK));
+
+        Set<String> paystack = registry.codesWith(CurrencyCapability.PAYSTACK);
+        assertTrue(paystack.containsAll(Set.of("NGN", "GHS", "KES", "ZAR", "USD")));
+        assertFalse(paystack.contains("EUR"));
+        // Zero-exponent currency without a confirmed Paystack subunit rule
+        assertFalse(paystack.contains("UGX"));
+        assertThrows(UnsupportedOperationException.class, () -> paystack.add("EUR"));
+    }
+
+    // ==================== DATA ====================
+
+    @Test
+    @DisplayName("Should refuse currency data that repeats an alpha or numeric code")
+    void shouldRejectDuplicateCodes() {
+        String[] usd = {"USD", "840", "2", "$", "STRIPE"};
+
+        IllegalStateException numeric = assertThrows(IllegalStateException.class,
+            () -> new CurrencyRegistry(List.of(usd, new String[] {"USN", "840", "2", "$", ""})));
+        assertEquals("Duplicate ISO 4217 numeric code 840 for USN, already used by USD", numeric.getMessage());
+
+        IllegalStateException alpha = assertThrows(IllegalStateException.class,
+            () -> new CurrencyRegistry(List.of(usd, new String[] {"usd", "997", "2", "$", ""})));
+        assertEquals("Duplicate ISO 4217 alpha code: usd", alpha.getMessage());
+
+        assertEquals(2, new CurrencyRegistry(List.of(usd, new String[] {"USN", "997", "2", "$", ""})).size());
+    }
+}
@@ -0,0 +1,242 @@
+package com.gogidix.socialcommerce.shared.id;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snowflake ID Generator Test Suite
+ *
+ * PERFORMANCE TESTING: Lock-free distributed IDs
+ * - Tests the timestamp / worker / sequence layout and Crockford Base32 round trips
+ * - Tests a derived worker ID is only accepted in single-process profiles
+ * - Tests a used-up millisecond waits for the next and small clock steps back are absorbed
+ * - Tests IDs stay unique and ordered per thread under contention
+ * - Benchmark (opt-in, -Dbenchmark=true): multithreaded throughput against UUID.randomUUID()
+ */
+@DisplayName("Snowflake ID Generator Tests")
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    private final ExecutorService threads = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    // ==================== LAYOUT ====================
+
+    @Test
+    @DisplayName("Should pack timestamp, worker ID and sequence into a positive long")
+    void shouldPackLayout() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(517, 10, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertTrue(first > 0);
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(first));
+        assertEquals(517, SnowflakeIdGenerator.workerIdOf(first));
+        assertEquals(0, SnowflakeIdGenerator.sequenceOf(first));
+        assertEquals(1, SnowflakeIdGenerator.sequenceOf(second));
+        assertEquals(first + 1, second);
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+
+    @Test
+    @DisplayName("Should encode IDs as 13 sortable Crockford Base32 characters and read back what people type")
+    void shouldRoundTripCrockfordBase32() {
+        SplittableRandom random = new SplittableRandom(39);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong();
+            String encoded = CrockfordBase32.encode(value);
+            assertEquals(CrockfordBase32.ENCODED_LENGTH, encoded.length());
+            assertEquals(value, CrockfordBase32.decode(encoded));
+            assertEquals(value, CrockfordBase32.decode(encoded.toLowerCase()));
+        }
+        assertEquals(0, CrockfordBase32.decode(CrockfordBase32.encode(0)));
+        assertEquals(Long.MIN_VALUE, CrockfordBase32.decode(CrockfordBase32.encode(Long.MIN_VALUE)));
+
+        long a = 1L << 40;
+        long b = (1L << 40) + 1;
+        assertTrue(CrockfordBase32.encode(a).compareTo(CrockfordBase32.encode(b)) < 0, "string order follows ID order");
+        assertEquals(CrockfordBase32.decode("1O"), CrockfordBase32.decode("I-0"), "I/L read as 1, O as 0, hyphens ignored");
+        assertEquals(32 + 1, CrockfordBase32.decode("1l"));
+        assertThrows(IllegalArgumentException.class, () -> CrockfordBase32.decode("TKTU"));
+        assertThrows(IllegalArgumentException.class, () -> CrockfordBase32.decode("G000000000000"), "65 bits");
+        assertThrows(IllegalArgumentException.class, () -> CrockfordBase32.decode("--"));
+    }
+
+    @Test
+    @DisplayName("Should require an explicit worker ID unless a development or test profile is active")
+    void shouldRequireExplicitWorkerId() {
+        assertEquals(7, IdGeneratorAutoConfiguration.workerId(7, new MockEnvironment()));
+        assertEquals(7, IdGeneratorAutoConfiguration.workerId(7, profiles("kubernetes")));
+
+        assertThrows(IllegalStateException.class, () -> IdGeneratorAutoConfiguration.workerId(-1, new MockEnvironment()));
+        assertThrows(IllegalStateException.class, () -> IdGeneratorAutoConfiguration.workerId(-1, profiles("kubernetes")));
+        assertThrows(IllegalStateException.class, () -> IdGeneratorAutoConfiguration.workerId(-1, profiles("docker")));
+
+        assertEquals(SnowflakeIdGenerator.defaultWorkerId(), IdGeneratorAutoConfiguration.workerId(-1, profiles("test")));
+        assertEquals(SnowflakeIdGenerator.defaultWorkerId(), IdGeneratorAutoConfiguration.workerId(-1, profiles("dev")));
+    }
+
+    // ==================== CLOCK ====================
+
+    @Test
+    @DisplayName("Should wait for the next millisecond once 4096 IDs are used up")
+    void shouldWaitWhenSequenceExhausted() {
+        AtomicInteger reads = new AtomicInteger();
+        // The clock only ticks after the first millisecond's IDs are all taken
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10,
+            () -> reads.incrementAndGet() > 4_096 + 100 ? NOW + 1 : NOW);
+
+        long last = -1;
+        for (int i = 0; i < 4_096; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+        assertEquals(4_095, SnowflakeIdGenerator.sequenceOf(last));
+
+        long next = generator.nextId();
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(next));
+        assertEquals(0, SnowflakeIdGenerator.sequenceOf(next));
+        assertTrue(reads.get() > 4_096 + 100, "spun until the clock moved on");
+    }
+
+    @Test
+    @DisplayName("Should keep counting through a small clock step back and refuse a large one")
+    void shouldHandleClockRegression() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-5);
+        long during = generator.nextId();
+        assertTrue(during > before, "IDs stay ordered while the clock is behind");
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(during));
+
+        clock.set(NOW + 1);
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(generator.nextId()));
+
+        clock.set(NOW - 1_000);
+        IllegalStateException error = assertThrows(IllegalStateException.class, generator::nextId);
+        assertTrue(error.getMessage().contains("1001 ms"), error.getMessage());
+    }
+
+    // ==================== CONCURRENCY ====================
+
+    @Test
+    @DisplayName("Should generate unique IDs, ordered per thread, from 8 threads")
+    void shouldStayUniqueUnderContention() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        int perThread = 100_000;
+        long[][] ids = generate(8, perThread, generator::nextId);
+
+        long[] all = new long[8 * perThread];
+        for (int t = 0; t < ids.length; t++) {
+            for (int i = 1; i < perThread; i++) {
+                assertTrue(ids[t][i] > ids[t][i - 1], "IDs from one thread only grow");
+            }
+            System.arraycopy(ids[t], 0, all, t * perThread, perThread);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate ID " + all[i]);
+        }
+    }
+
+    // ==================== BENCHMARK ====================
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: Snowflake IDs vs UUID.randomUUID() from 8 threads")
+    void benchmarkThroughput() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        int perThread = 1_000_000;
+
+        // Warm up both
+        throughput(perThread, generator::nextBase32);
+        throughput(perThread, () -> UUID.randomUUID().toString());
+
+        double snowflakeOpsPerSec = throughput(perThread, generator::nextId);
+        double base32OpsPerSec = throughput(perThread, generator::nextBase32);
+        double uuidOpsPerSec = throughput(perThread, () -> UUID.randomUUID().toString());
+
+        System.out.printf("ID generation, 8 threads: snowflake=%.0f ids/s, snowflake-base32=%.0f ids/s, "
+            + "uuid=%.0f ids/s%n", snowflakeOpsPerSec, base32OpsPerSec, uuidOpsPerSec);
+        assertTrue(base32OpsPerSec > uuidOpsPerSec, "Snowflake references should outpace random UUIDs");
+    }
+
+    // ==================== HELPERS ====================
+
+    private static MockEnvironment profiles(String... profiles) {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(profiles);
+        return environment;
+    }
+
+    private long[][] generate(int threadCount, int perThread, Supplier<Long> next) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> workers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            workers.add(threads.submit(() -> {
+                long[] ids = new long[perThread];
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = next.get();
+                }
+                return ids;
+            }));
+        }
+        start.countDown();
+        long[][] ids = new long[threadCount][];
+        for (int t = 0; t < threadCount; t++) {
+            ids[t] = workers.get(t).get(60, TimeUnit.SECONDS);
+        }
+        return ids;
+    }
+
+    private double throughput(int perThread, Supplier<?> next) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(threads.submit(() -> {
+                int hashes = 0;
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    hashes += next.get().hashCode();
+                }
+                return hashes;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<Integer> worker : workers) {
+            worker.get(120, TimeUnit.SECONDS);
+        }
+        return 8.0 * perThread / ((System.nanoTime() - began) / 1_000_000_000.0);
+    }
+}